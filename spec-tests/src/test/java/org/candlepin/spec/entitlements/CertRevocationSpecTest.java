@@ -100,14 +100,14 @@ class CertRevocationSpecTest {
         systemClient.bindProduct(system.getUuid(), monitoring.getId());
         Long serial = filterSerial(monitoring, system);
         systemClient.unbindAll(system.getUuid());
-        assertTrue(certificateRevocationListApi.getCurrentCrl().contains(serial));
+        assertTrue(certificateRevocationListApi.getCurrentCrl(null, null).contains(serial));
     }
 
     @Test
     public void shouldNotContainTheSerialOfValidEntitlment() {
         systemClient.bindProduct(system.getUuid(), monitoring.getId());
         Long serial = filterSerial(monitoring, system);
-        assertFalse(certificateRevocationListApi.getCurrentCrl().contains(serial));
+        assertFalse(certificateRevocationListApi.getCurrentCrl(null, null).contains(serial));
     }
 
     @Test
@@ -116,7 +116,7 @@ class CertRevocationSpecTest {
         systemClient.bindProduct(system.getUuid(), monitoring.getId());
         Long serial = filterSerial(virtual, system);
         systemClient.unbindByEntitlementId(system.getUuid(), virtBind.get(0).get("id").asText());
-        assertTrue(certificateRevocationListApi.getCurrentCrl().contains(serial));
+        assertTrue(certificateRevocationListApi.getCurrentCrl(null, null).contains(serial));
     }
 
     @Test
@@ -125,7 +125,7 @@ class CertRevocationSpecTest {
         systemClient.bindProduct(system.getUuid(), virtual.getId());
         Long serial = filterSerial(virtual, system);
         systemClient.unbindByEntitlementId(system.getUuid(), monitoringBind.get(0).get("id").asText());
-        assertFalse(certificateRevocationListApi.getCurrentCrl().contains(serial));
+        assertFalse(certificateRevocationListApi.getCurrentCrl(null, null).contains(serial));
     }
 
     @Test
@@ -145,7 +145,7 @@ class CertRevocationSpecTest {
             .certificate(cert));
         assertNotNull(cdn.getId());
         client.cdns().deleteCdn(cdnLabel);
-        assertTrue(certificateRevocationListApi.getCurrentCrl().contains(
+        assertTrue(certificateRevocationListApi.getCurrentCrl(null, null).contains(
             cdn.getCertificate().getSerial().getSerial()));
     }
 
@@ -153,14 +153,14 @@ class CertRevocationSpecTest {
     public void shouldPutRevokedUberCertOnCrl() {
         long certSerial = ownerClient.createUeberCertificate(owner.getKey()).getSerial().getSerial();
         ownerClient.deleteOwner(owner.getKey(), false, false);
-        assertTrue(certificateRevocationListApi.getCurrentCrl().contains(certSerial));
+        assertTrue(certificateRevocationListApi.getCurrentCrl(null, null).contains(certSerial));
     }
 
     @Test
     public void shouldPutRevokedIdCertOnCrl() {
         CertificateDTO certificateSerial = system.getIdCert();
         systemClient.deleteConsumer(system.getUuid());
-        assertTrue(certificateRevocationListApi.getCurrentCrl().contains(
+        assertTrue(certificateRevocationListApi.getCurrentCrl(null, null).contains(
             certificateSerial.getSerial().getSerial()));
     }
 
@@ -179,14 +179,14 @@ class CertRevocationSpecTest {
             newSystem.getUuid());
         assertThat(serials).hasSize(1);
         Long serial = serials.get(0).getSerial();
-        assertFalse(certificateRevocationListApi.getCurrentCrl().contains(serial));
+        assertFalse(certificateRevocationListApi.getCurrentCrl(null, null).contains(serial));
         System.out.println("serial: " + serial);
 
         owner.setContentAccessMode("entitlement");
         ownerClient.updateOwner(owner.getKey(), owner);
         serials = newSystemClient.getEntitlementCertificateSerials(newSystem.getUuid());
         assertThat(serials).hasSize(0);
-        List<Long> crl = certificateRevocationListApi.getCurrentCrl();
+        List<Long> crl = certificateRevocationListApi.getCurrentCrl(null, null);
         System.out.println(crl);
         assertTrue(crl.contains(serial));
     }
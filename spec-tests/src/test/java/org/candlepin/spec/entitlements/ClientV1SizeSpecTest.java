@@ -102,7 +102,7 @@ public class ClientV1SizeSpecTest {
         EntitlementDTO ent2 = systemClient.entitlements().getEntitlement(ent1Id);
         assertThat(ent2.getCertificates().iterator().next().getSerial().getSerial())
             .isNotEqualTo(ent1.get(0).get("certificates").get(0).get("serial").get("id").asLong());
-        assertThat(client.crl().getCurrentCrl()).contains(
+        assertThat(client.crl().getCurrentCrl(null, null)).contains(
             ent1.get(0).get("certificates").get(0).get("serial").get("id").asLong());
 
         // the content change to > 185 will not cause a regeneration. It will also not throw an error.
@@ -116,7 +116,7 @@ public class ClientV1SizeSpecTest {
         EntitlementDTO ent3 = systemClient.entitlements().getEntitlement(ent1Id);
         assertThat(ent3.getCertificates().iterator().next().getSerial().getSerial())
             .isEqualTo(ent2.getCertificates().iterator().next().getSerial().getSerial());
-        assertThat(client.crl().getCurrentCrl()).doesNotContain(
+        assertThat(client.crl().getCurrentCrl(null, null)).doesNotContain(
             ent2.getCertificates().iterator().next().getSerial().getSerial());
 
         // updating the client will allow the cert to be regenerated
@@ -125,7 +125,7 @@ public class ClientV1SizeSpecTest {
         EntitlementDTO ent4 = systemClient.entitlements().getEntitlement(ent1Id);
         assertThat(ent4.getCertificates().iterator().next().getSerial().getSerial())
             .isNotEqualTo(ent2.getCertificates().iterator().next().getSerial().getSerial());
-        assertThat(client.crl().getCurrentCrl()).contains(
+        assertThat(client.crl().getCurrentCrl(null, null)).contains(
             ent2.getCertificates().iterator().next().getSerial().getSerial());
     }
 
@@ -189,7 +189,7 @@ public class ClientV1SizeSpecTest {
             .isEqualTo(ent1.get(0).get("certificates").get(0).get("serial").get("id").asLong());
         assertThat(newEnt2.getCertificates().iterator().next().getSerial().getSerial())
             .isNotEqualTo(ent2.get(0).get("certificates").get(0).get("serial").get("id").asLong());
-        assertThat(client.crl().getCurrentCrl()).contains(
+        assertThat(client.crl().getCurrentCrl(null, null)).contains(
             ent2.get(0).get("certificates").get(0).get("serial").get("id").asLong());
     }
 
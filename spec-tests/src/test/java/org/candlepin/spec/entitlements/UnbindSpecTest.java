@@ -133,7 +133,7 @@ public class UnbindSpecTest {
             .map(x -> x.getSerial()).collect(Collectors.toList());
         consumerClient.consumers().unbindByEntitlementId(consumer.getUuid(), ent.getId());
 
-        assertThat(client.crl().getCurrentCrl()).containsAll(serials);
+        assertThat(client.crl().getCurrentCrl(null, null)).containsAll(serials);
     }
 
     @Test
@@ -160,7 +160,7 @@ public class UnbindSpecTest {
 
         consumerClient.consumers().unbindByEntitlementId(consumer.getUuid(), ent2.getId());
 
-        assertThat(client.crl().getCurrentCrl())
+        assertThat(client.crl().getCurrentCrl(null, null))
             .contains(certSerial2.getSerial())
             .doesNotContain(certSerial1.getSerial());
     }
@@ -18,6 +18,7 @@ import org.candlepin.model.AsyncJobStatus;
 import org.candlepin.model.AsyncJobStatusCurator;
 
 import java.util.Collection;
+import java.util.List;
 
 
 
@@ -46,4 +47,69 @@ public interface JobConstraint {
      */
     Collection<String> test(AsyncJobStatusCurator jobCurator, AsyncJobStatus inbound);
 
+    /**
+     * Prepares a test of this constraint against a batch of inbound jobs, allowing implementations
+     * to look up the data needed to test every job in the batch up front, rather than once per job.
+     * <p></p>
+     * The returned test will be called for each of the given jobs, in order, before the job is
+     * persisted. Every job which is queued as a result is then passed to the accept method of the
+     * test, and must be treated as an existing job when testing the jobs which follow it. The
+     * default implementation tests each job individually as it is queued.
+     *
+     * @param jobCurator
+     *  an instance of the current jobCurator to use for performing database operations
+     *
+     * @param inbound
+     *  the inbound job statuses to which this constraint applies, in the order they will be tested
+     *
+     * @throws IllegalArgumentException
+     *  if jobCurator or inbound is null
+     *
+     * @return
+     *  a test of this constraint for the given batch of inbound jobs
+     */
+    default BatchTest prepare(AsyncJobStatusCurator jobCurator, List<AsyncJobStatus> inbound) {
+        if (jobCurator == null) {
+            throw new IllegalArgumentException("jobCurator is null");
+        }
+
+        if (inbound == null) {
+            throw new IllegalArgumentException("inbound is null");
+        }
+
+        return job -> this.test(jobCurator, job);
+    }
+
+    /**
+     * A test of a constraint against a batch of inbound jobs, prepared by the constraint's
+     * prepare method.
+     */
+    @FunctionalInterface
+    interface BatchTest {
+
+        /**
+         * Tests the constraint using the given inbound job from the batch. If the inbound job is
+         * constrained this method should return a collection containing the IDs of the
+         * constraining jobs. Otherwise, this method should return null or an empty collection.
+         *
+         * @param inbound
+         *  the inbound job status to test
+         *
+         * @return
+         *  a collection of constraining job IDs, or null to indicate no job collisions
+         */
+        Collection<String> test(AsyncJobStatus inbound);
+
+        /**
+         * Notifies this test that the given job from the batch has been queued. The job has been
+         * persisted and assigned an ID by the time this method is called.
+         *
+         * @param queued
+         *  the job status of the queued job
+         */
+        default void accept(AsyncJobStatus queued) {
+            // Intentionally left empty
+        }
+    }
+
 }
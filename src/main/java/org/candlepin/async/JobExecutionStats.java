@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.async;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+
+/**
+ * The JobExecutionStats class collects, per job key, histograms of the time job messages spent
+ * waiting in the job queue before being received, and of the time taken to execute the jobs.
+ * Statistics are collected in memory for the lifetime of this node, and are safe to record from
+ * any number of threads.
+ */
+public class JobExecutionStats {
+
+    /**
+     * The inclusive upper bounds, in milliseconds, of the buckets of each histogram. Values larger
+     * than the last bound are counted in an additional overflow bucket.
+     */
+    public static final long[] BUCKET_BOUNDS = {
+        10, 50, 100, 250, 500,
+        1000, 2500, 5000, 10000, 30000,
+        60000, 300000, 900000, 3600000
+    };
+
+    /**
+     * A snapshot of a histogram; the number of recorded values, their total and maximum, and the
+     * number of values in each bucket. The bucket counts are ordered as the bucket bounds, followed
+     * by the overflow bucket.
+     */
+    public record Snapshot(long count, long total, long max, List<Long> buckets) {
+        public Snapshot {
+            buckets = buckets != null ? List.copyOf(buckets) : List.of();
+        }
+
+        /**
+         * Calculates the mean of the recorded values.
+         *
+         * @return
+         *  the mean of the recorded values, or 0 if no values have been recorded
+         */
+        public long mean() {
+            return this.count > 0 ? this.total / this.count : 0;
+        }
+    }
+
+    /**
+     * The statistics of a single job key; the queue wait time and run time histograms.
+     */
+    public record JobStats(String jobKey, Snapshot queueWait, Snapshot runTime) {
+    }
+
+    /**
+     * A lock-free, fixed-bucket histogram of millisecond durations
+     */
+    private static class Histogram {
+        private final AtomicLongArray buckets;
+        private final LongAdder count;
+        private final LongAdder total;
+        private final LongAccumulator max;
+
+        public Histogram() {
+            this.buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+            this.count = new LongAdder();
+            this.total = new LongAdder();
+            this.max = new LongAccumulator(Math::max, 0);
+        }
+
+        public void record(long value) {
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS.length && value > BUCKET_BOUNDS[bucket]) {
+                ++bucket;
+            }
+
+            this.buckets.incrementAndGet(bucket);
+            this.count.increment();
+            this.total.add(value);
+            this.max.accumulate(value);
+        }
+
+        public Snapshot snapshot() {
+            List<Long> counts = new ArrayList<>(this.buckets.length());
+            for (int i = 0; i < this.buckets.length(); ++i) {
+                counts.add(this.buckets.get(i));
+            }
+
+            return new Snapshot(this.count.sum(), this.total.sum(), this.max.get(), counts);
+        }
+    }
+
+    private final ConcurrentMap<String, Histogram> queueWait;
+    private final ConcurrentMap<String, Histogram> runTime;
+
+    public JobExecutionStats() {
+        this.queueWait = new ConcurrentHashMap<>();
+        this.runTime = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Records the time a job message for the given job key waited in the job queue before being
+     * received by this node. Negative durations, which may occur if the clocks of the nodes and the
+     * message broker are not synchronized, are recorded as zero.
+     *
+     * @param jobKey
+     *  the key of the job for which to record the wait time
+     *
+     * @param millis
+     *  the time, in milliseconds, the message waited in the queue
+     *
+     * @throws IllegalArgumentException
+     *  if the job key is null
+     */
+    public void recordQueueWait(String jobKey, long millis) {
+        this.record(this.queueWait, jobKey, millis);
+    }
+
+    /**
+     * Records the time taken to execute a job with the given job key, regardless of the outcome of
+     * the execution.
+     *
+     * @param jobKey
+     *  the key of the job for which to record the run time
+     *
+     * @param millis
+     *  the time, in milliseconds, taken to execute the job
+     *
+     * @throws IllegalArgumentException
+     *  if the job key is null
+     */
+    public void recordRunTime(String jobKey, long millis) {
+        this.record(this.runTime, jobKey, millis);
+    }
+
+    private void record(ConcurrentMap<String, Histogram> histograms, String jobKey, long millis) {
+        if (jobKey == null) {
+            throw new IllegalArgumentException("jobKey is null");
+        }
+
+        histograms.computeIfAbsent(jobKey, key -> new Histogram())
+            .record(Math.max(0, millis));
+    }
+
+    /**
+     * Fetches a snapshot of the statistics collected for each job key, ordered by job key.
+     *
+     * @return
+     *  a list containing the statistics collected for each job key
+     */
+    public List<JobStats> getJobStats() {
+        Map<String, JobStats> stats = new TreeMap<>();
+        Snapshot empty = new Histogram().snapshot();
+
+        this.queueWait.forEach((jobKey, histogram) ->
+            stats.put(jobKey, new JobStats(jobKey, histogram.snapshot(), empty)));
+
+        this.runTime.forEach((jobKey, histogram) -> {
+            JobStats existing = stats.get(jobKey);
+            Snapshot wait = existing != null ? existing.queueWait() : empty;
+
+            stats.put(jobKey, new JobStats(jobKey, wait, histogram.snapshot()));
+        });
+
+        return Collections.unmodifiableList(new ArrayList<>(stats.values()));
+    }
+
+}
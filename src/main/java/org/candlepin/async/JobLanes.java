@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.async;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
+import org.candlepin.config.ConfigurationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+
+
+/**
+ * The JobLanes class represents the execution lanes configured for this Candlepin node. Each lane
+ * consumes the job messages of the job keys assigned to it using its own set of threads, and the
+ * messages of each lane are dispatched with the priority of that lane. Jobs which have not been
+ * assigned a lane run in the default lane.
+ * <p></p>
+ * In addition to the threads dedicated to each lane, a number of shared threads may be configured,
+ * which consume the job messages of any lane in priority order. This allows lanes to borrow idle
+ * capacity from one another without allowing long-running jobs in one lane to occupy the threads
+ * dedicated to another.
+ */
+@Singleton
+public class JobLanes {
+
+    /** The name of the lane running any jobs which have not been assigned a lane */
+    public static final String DEFAULT_LANE = "default";
+
+    /** The lowest message priority supported by the message broker */
+    public static final int MIN_PRIORITY = 0;
+
+    /** The highest message priority supported by the message broker */
+    public static final int MAX_PRIORITY = 9;
+
+    /** The priority used for lanes which do not specify a priority; the broker's default priority */
+    public static final int DEFAULT_PRIORITY = 4;
+
+    /**
+     * An execution lane; the name of the lane, the number of threads dedicated to the lane, the
+     * priority of the messages dispatched for the jobs in the lane, and the keys of those jobs. The
+     * job keys of the default lane are always empty.
+     */
+    public record Lane(String name, int threads, int priority, Set<String> jobKeys) {
+        public Lane {
+            jobKeys = jobKeys != null ? Collections.unmodifiableSet(new TreeSet<>(jobKeys)) : Set.of();
+        }
+
+        /**
+         * Checks if this lane is the default lane.
+         *
+         * @return
+         *  true if this lane is the default lane; false otherwise
+         */
+        public boolean isDefault() {
+            return DEFAULT_LANE.equals(this.name);
+        }
+    }
+
+    private final Lane defaultLane;
+    private final Map<String, Lane> lanes;
+    private final Map<String, Lane> jobLanes;
+    private final int sharedThreads;
+
+    /**
+     * Creates a new JobLanes instance from the given configuration.
+     *
+     * @param config
+     *  the configuration from which to read the lane configuration
+     *
+     * @throws ConfigurationException
+     *  if the lane configuration is invalid
+     */
+    @Inject
+    public JobLanes(Configuration config) throws ConfigurationException {
+        Objects.requireNonNull(config);
+
+        this.sharedThreads = readInt(config, ConfigProperties.ASYNC_JOBS_SHARED_THREADS, 0);
+        if (this.sharedThreads < 0) {
+            throw new ConfigurationException(ConfigProperties.ASYNC_JOBS_SHARED_THREADS +
+                " must be larger than or equal to 0");
+        }
+
+        // Collect the job keys assigned to each lane from the per-job lane configuration
+        String suffix = "." + ConfigProperties.ASYNC_JOBS_JOB_LANE;
+        Map<String, Set<String>> assigned = new HashMap<>();
+
+        config.getValuesByPrefix(ConfigProperties.ASYNC_JOBS_PREFIX).forEach((key, value) -> {
+            if (key.endsWith(suffix) && value != null && !value.isBlank()) {
+                String jobKey = key.substring(ConfigProperties.ASYNC_JOBS_PREFIX.length(),
+                    key.length() - suffix.length());
+
+                assigned.computeIfAbsent(value.trim(), name -> new TreeSet<>()).add(jobKey);
+            }
+        });
+
+        this.defaultLane = new Lane(DEFAULT_LANE,
+            readInt(config, ConfigProperties.ASYNC_JOBS_THREADS, 0),
+            readPriority(config, ConfigProperties.ASYNC_JOBS_PRIORITY),
+            null);
+
+        this.lanes = new LinkedHashMap<>();
+        this.jobLanes = new HashMap<>();
+
+        this.lanes.put(DEFAULT_LANE, this.defaultLane);
+        for (String name : config.getList(ConfigProperties.ASYNC_JOBS_LANES)) {
+            if (name.isEmpty() || this.lanes.containsKey(name)) {
+                throw new ConfigurationException("Invalid or duplicate job lane name: " + name);
+            }
+
+            String threadsKey = ConfigProperties.jobLaneConfig(name,
+                ConfigProperties.ASYNC_JOBS_LANE_THREADS);
+            int threads = readInt(config, threadsKey, 1);
+            if (threads < 1) {
+                throw new ConfigurationException(threadsKey + " must be larger than 0");
+            }
+
+            String priorityKey = ConfigProperties.jobLaneConfig(name,
+                ConfigProperties.ASYNC_JOBS_LANE_PRIORITY);
+
+            Lane lane = new Lane(name, threads, readPriority(config, priorityKey), assigned.remove(name));
+            lane.jobKeys().forEach(jobKey -> this.jobLanes.put(jobKey, lane));
+
+            this.lanes.put(name, lane);
+        }
+
+        // Jobs explicitly assigned to the default lane need no further handling
+        assigned.remove(DEFAULT_LANE);
+        if (!assigned.isEmpty()) {
+            throw new ConfigurationException("Jobs assigned to undefined job lanes: " + assigned);
+        }
+    }
+
+    private static int readInt(Configuration config, String key, int defaultValue)
+        throws ConfigurationException {
+
+        String value = config.getString(key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException e) {
+            throw new ConfigurationException("Invalid value for " + key + ": " + value, e);
+        }
+    }
+
+    private static int readPriority(Configuration config, String key) throws ConfigurationException {
+        int priority = readInt(config, key, DEFAULT_PRIORITY);
+        if (priority < MIN_PRIORITY || priority > MAX_PRIORITY) {
+            throw new ConfigurationException(String.format("%s must be between %d and %d",
+                key, MIN_PRIORITY, MAX_PRIORITY));
+        }
+
+        return priority;
+    }
+
+    /**
+     * Fetches the configured lanes, starting with the default lane.
+     *
+     * @return
+     *  a list containing the configured lanes
+     */
+    public List<Lane> getLanes() {
+        return new ArrayList<>(this.lanes.values());
+    }
+
+    /**
+     * Fetches the lane in which jobs with the given job key run. If the job key has not been
+     * assigned a lane, the default lane is returned.
+     *
+     * @param jobKey
+     *  the job key for which to fetch the lane
+     *
+     * @return
+     *  the lane in which jobs with the given key run
+     */
+    public Lane getLane(String jobKey) {
+        Lane lane = jobKey != null ? this.jobLanes.get(jobKey) : null;
+        return lane != null ? lane : this.defaultLane;
+    }
+
+    /**
+     * Fetches the number of threads which consume job messages of any lane.
+     *
+     * @return
+     *  the number of shared threads
+     */
+    public int getSharedThreads() {
+        return this.sharedThreads;
+    }
+
+}
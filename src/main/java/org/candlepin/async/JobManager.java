@@ -63,12 +63,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -753,6 +755,36 @@ public class JobManager implements ModeChangeListener {
         return this.configuration.getBoolean(ConfigProperties.ASYNC_JOBS_SCHEDULER_ENABLED);
     }
 
+    /**
+     * Fetches the execution lanes in which jobs received by this node are run.
+     *
+     * @return
+     *  a list containing the execution lanes of this node
+     */
+    public List<JobLanes.Lane> getJobLanes() {
+        return this.receiver.getLanes();
+    }
+
+    /**
+     * Fetches the number of threads on this node which run the jobs of any execution lane.
+     *
+     * @return
+     *  the number of shared job threads of this node
+     */
+    public int getSharedJobThreads() {
+        return this.receiver.getSharedThreads();
+    }
+
+    /**
+     * Fetches the queue wait and run time statistics of the jobs executed by this node.
+     *
+     * @return
+     *  a list containing the statistics of each job key executed by this node
+     */
+    public List<JobExecutionStats.JobStats> getJobStats() {
+        return this.receiver.getJobStats();
+    }
+
     /**
      * Ensures the jobs automatically scheduled according to the system configuration are in sync
      * with the current configuration.
@@ -1038,19 +1070,7 @@ public class JobManager implements ModeChangeListener {
      */
     @Transactional
     public AsyncJobStatus queueJob(JobConfig config) throws JobException {
-        ManagerState state = this.getManagerState();
-        if (state != ManagerState.RUNNING) {
-            // Check if we're paused. If so, and if the "queue while paused" config is not set,
-            // throw our usual ISE
-            if (state != ManagerState.SUSPENDED ||
-                !this.configuration.getBoolean(ConfigProperties.ASYNC_JOBS_QUEUE_WHILE_SUSPENDED)) {
-
-                String msg = String.format("Jobs cannot be queued while the manager is in the %s state",
-                    state);
-
-                throw new IllegalStateException(msg);
-            }
-        }
+        this.validateQueueingState();
 
         if (config == null) {
             throw new IllegalArgumentException("job config is null");
@@ -1151,6 +1171,184 @@ public class JobManager implements ModeChangeListener {
         return status;
     }
 
+    /**
+     * Queues a batch of jobs to be run on any Candlepin node backed by the same database as this
+     * node. This method is functionally equivalent to calling queueJob with each of the given job
+     * configurations in order, but tests the constraints of the jobs using set-based lookups,
+     * persists the job statuses in batches, and dispatches the job messages in a single messaging
+     * transaction, which is committed along with the database transaction.
+     * <p></p>
+     * Jobs blocked by constraints, or for which a job message could not be dispatched, are aborted
+     * without affecting the other jobs in the batch. Jobs earlier in the batch are treated as
+     * existing jobs when testing the constraints of the jobs which follow them.
+     *
+     * @param configs
+     *  A collection of JobConfig instances representing the configuration of the jobs to queue
+     *
+     * @throws IllegalArgumentException
+     *  if configs is null or contains a null job config
+     *
+     * @return
+     *  a list containing the AsyncJobStatus instances representing the status of each job, in the
+     *  order of the provided job configs
+     */
+    @Transactional
+    public List<AsyncJobStatus> queueJobs(Collection<JobConfig> configs) throws JobException {
+        this.validateQueueingState();
+
+        if (configs == null) {
+            throw new IllegalArgumentException("job configs is null");
+        }
+
+        // Validate all of the configs before queueing anything
+        List<JobConfig> jobConfigs = new ArrayList<>(configs);
+        for (JobConfig config : jobConfigs) {
+            if (config == null) {
+                throw new IllegalArgumentException("job configs contains a null job config");
+            }
+
+            config.validate();
+        }
+
+        List<AsyncJobStatus> statuses = new ArrayList<>(jobConfigs.size());
+        if (jobConfigs.isEmpty()) {
+            return statuses;
+        }
+
+        // Group the jobs by constraint, so equal constraints shared by many jobs are only
+        // prepared once
+        Map<JobConstraint, List<AsyncJobStatus>> constrained = new LinkedHashMap<>();
+
+        for (JobConfig config : jobConfigs) {
+            AsyncJobStatus status = this.buildJobStatus(config);
+            statuses.add(status);
+
+            Collection<JobConstraint> constraints = config.getConstraints();
+            if (constraints != null) {
+                constraints.forEach(constraint -> constrained
+                    .computeIfAbsent(constraint, key -> new ArrayList<>())
+                    .add(status));
+            }
+        }
+
+        try {
+            Map<JobConstraint, JobConstraint.BatchTest> tests = new LinkedHashMap<>();
+            constrained.forEach((constraint, jobs) ->
+                tests.put(constraint, constraint.prepare(this.jobCurator, jobs)));
+
+            for (int i = 0; i < statuses.size(); ++i) {
+                AsyncJobStatus status = statuses.get(i);
+                Collection<JobConstraint> constraints = jobConfigs.get(i).getConstraints();
+
+                Set<String> blockingJobIds = new HashSet<>();
+                if (constraints != null) {
+                    for (JobConstraint constraint : constraints) {
+                        Collection<String> blocking = tests.get(constraint).test(status);
+
+                        if (blocking != null) {
+                            blockingJobIds.addAll(blocking);
+                        }
+                    }
+                }
+
+                if (blockingJobIds.isEmpty()) {
+                    // Set the state before persisting the job, so it's inserted in its final state
+                    this.setJobState(status, JobState.QUEUED);
+                    this.jobCurator.create(status, false);
+
+                    try {
+                        this.dispatcher.postJobMessage(new JobMessage(status.getId(), status.getJobKey()));
+                    }
+                    catch (JobMessageDispatchException e) {
+                        log.error("Job \"{}\" could not be queued; failed to dispatch job message",
+                            status.getName(), e);
+
+                        status.setJobResult(e.toString());
+                        this.setJobState(status, JobState.ABORTED);
+                        continue;
+                    }
+
+                    tests.values().forEach(test -> test.accept(status));
+                    log.info("Job queued: {}", status);
+                }
+                else {
+                    String jobIds = String.join(", ", blockingJobIds);
+
+                    status.setJobResult("Job blocked by the following existing jobs: " + jobIds);
+                    this.setJobState(status, JobState.ABORTED);
+                    this.jobCurator.create(status, false);
+
+                    log.info("Unable to queue job: {}; blocked by the following existing jobs: {}",
+                        status.getName(), jobIds);
+                }
+            }
+
+            this.jobCurator.flush();
+            this.synchronizeDispatcher();
+        }
+        catch (Exception e) {
+            log.error("Unexpected exception occurred while queueing {} job(s)", statuses.size(), e);
+
+            // Make sure none of the job messages posted so far are sent along with messages posted
+            // later by this thread
+            try {
+                this.dispatcher.rollback();
+            }
+            catch (JobMessageDispatchException rollbackException) {
+                log.error("Unable to roll back job messages", rollbackException);
+            }
+
+            throw new JobException(e, true);
+        }
+
+        return statuses;
+    }
+
+    /**
+     * Verifies the manager is in a state which allows queueing jobs.
+     *
+     * @throws IllegalStateException
+     *  if jobs cannot be queued in the current state of the manager
+     */
+    private void validateQueueingState() {
+        ManagerState state = this.getManagerState();
+        if (state != ManagerState.RUNNING) {
+            // Check if we're paused. If so, and if the "queue while paused" config is not set,
+            // throw our usual ISE
+            if (state != ManagerState.SUSPENDED ||
+                !this.configuration.getBoolean(ConfigProperties.ASYNC_JOBS_QUEUE_WHILE_SUSPENDED)) {
+
+                String msg = String.format("Jobs cannot be queued while the manager is in the %s state",
+                    state);
+
+                throw new IllegalStateException(msg);
+            }
+        }
+    }
+
+    /**
+     * Registers our synchronizer to commit or rollback the dispatcher based on whether or not the
+     * current DB transaction completes. If there is no active transaction, any posted job messages
+     * are committed immediately.
+     */
+    private void synchronizeDispatcher() throws JobMessageDispatchException {
+        Session session = this.jobCurator.currentSession();
+        Transaction transaction = session.getTransaction();
+
+        if (transaction != null &&
+            transaction.getStatus().isOneOf(JobMessageSynchronizer.ACTIVE_STATES)) {
+
+            // We have an active transaction (probably); register the synchronizer to pass
+            // through the commit/rollback to the messaging bus.
+            transaction.registerSynchronization(this.synchronizer);
+        }
+        else {
+            // No (active) transaction, immediately commit the messages. This should never happen.
+            log.warn("No active transaction while posting job messages; dispatching immediately.");
+            this.dispatcher.commit();
+        }
+    }
+
     /**
      * Creates and dispatches a job message for the given job status, then updates the state of
      * the job to QUEUED.
@@ -1183,21 +1381,7 @@ public class JobManager implements ModeChangeListener {
 
             // Register our synchronizer to commit or rollback the dispatcher based on whether
             // or not the current DB transaction completes
-            Session session = this.jobCurator.currentSession();
-            Transaction transaction = session.getTransaction();
-
-            if (transaction != null &&
-                transaction.getStatus().isOneOf(JobMessageSynchronizer.ACTIVE_STATES)) {
-
-                // We have an active transaction (probably); register the synchronizer to pass
-                // through the commit/rollback to the messaging bus.
-                transaction.registerSynchronization(this.synchronizer);
-            }
-            else {
-                // No (active) transaction, immediately commit the messages. This should never happen.
-                log.warn("No active transaction while posting job messages; dispatching immediately.");
-                this.dispatcher.commit();
-            }
+            this.synchronizeDispatcher();
 
             return status;
         }
@@ -196,6 +196,7 @@ public class JobMessageDispatcher {
     private final Configuration config;
     private final CPMSessionFactory cpmSessionFactory;
     private final ObjectMapper objMapper;
+    private final JobLanes lanes;
 
     private final ReferenceQueue<Thread> referenceQueue;
     private final Map<ThreadReference, ThreadSessionStore> sessions;
@@ -216,16 +217,20 @@ public class JobMessageDispatcher {
      *  An ObjectMapper instance for serializing job messages prior to sending them to the
      *  message bus
      *
+     * @param lanes
+     *  the execution lanes used to determine the priority of job messages
+     *
      * @throws ConfigurationException
      *  if the necessary configuration cannot be read or is invalid
      */
     @Inject
     public JobMessageDispatcher(Configuration config, CPMSessionFactory cpmSessionFactory,
-        ObjectMapper objMapper) throws ConfigurationException {
+        ObjectMapper objMapper, JobLanes lanes) throws ConfigurationException {
 
         this.config = Objects.requireNonNull(config);
         this.cpmSessionFactory = Objects.requireNonNull(cpmSessionFactory);
         this.objMapper = Objects.requireNonNull(objMapper);
+        this.lanes = Objects.requireNonNull(lanes);
 
         this.referenceQueue = new ReferenceQueue<>();
         this.sessions = new HashMap<>();
@@ -319,6 +324,7 @@ public class JobMessageDispatcher {
             CPMSession cpmSession = store.getSession();
             CPMMessage message = cpmSession.createMessage()
                 .setDurable(true)
+                .setPriority(this.lanes.getLane(jobMessage.getJobKey()).priority())
                 .setProperty(JOB_KEY_MESSAGE_PROPERTY, jobMessage.getJobKey());
 
             String serializedJobMessage = this.objMapper.writeValueAsString(jobMessage);
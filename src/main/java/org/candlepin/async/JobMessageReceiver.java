@@ -34,10 +34,13 @@ import com.google.inject.persist.UnitOfWork;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
@@ -45,7 +48,11 @@ import javax.inject.Inject;
 
 /**
  * The JobMessageReceiver class manages the various receivers for handling messages received from
- * the backing message queues, and passes the messages back to the job manager
+ * the backing message queues, and passes the messages back to the job manager.
+ * <p></p>
+ * Each execution lane is given its own set of receivers, which only receive the job messages of
+ * the jobs assigned to that lane, so long-running jobs in one lane cannot occupy the receivers of
+ * another. Any shared receivers receive the job messages of every lane, in priority order.
  */
 public class JobMessageReceiver {
     private static Logger log = LoggerFactory.getLogger(JobMessageReceiver.class);
@@ -55,6 +62,8 @@ public class JobMessageReceiver {
     private final Configuration config;
     private final CPMSessionFactory cpmSessionFactory;
     private final ObjectMapper mapper;
+    private final JobLanes lanes;
+    private final JobExecutionStats stats;
 
     private boolean initialized;
     private boolean suspended;
@@ -62,7 +71,7 @@ public class JobMessageReceiver {
     private MessageListener listener;
     private String receiveAddress;
     private String receiveFilter;
-    private Set<CPMSession> sessions;
+    private Map<CPMSession, String> sessions;
     private UnitOfWork unitOfWork;
 
 
@@ -77,19 +86,24 @@ public class JobMessageReceiver {
      *
      * @param mapper
      *  the object mapper to use to deserialize job messages
+     *
+     * @param lanes
+     *  the execution lanes for which to receive job messages
      */
     @Inject
     public JobMessageReceiver(Configuration config, CPMSessionFactory cpmSessionFactory,
-        ObjectMapper mapper, UnitOfWork unitOfWork) throws ConfigurationException {
+        ObjectMapper mapper, UnitOfWork unitOfWork, JobLanes lanes) throws ConfigurationException {
 
         this.config = Objects.requireNonNull(config);
         this.cpmSessionFactory = Objects.requireNonNull(cpmSessionFactory);
         this.mapper = Objects.requireNonNull(mapper);
         this.unitOfWork = Objects.requireNonNull(unitOfWork);
+        this.lanes = Objects.requireNonNull(lanes);
+        this.stats = new JobExecutionStats();
 
         this.initialized = false;
         this.suspended = false;
-        this.sessions = new HashSet<>();
+        this.sessions = new HashMap<>();
 
         this.configure(this.config);
     }
@@ -112,13 +126,68 @@ public class JobMessageReceiver {
         this.receiveFilter = config.getString(ConfigProperties.ASYNC_JOBS_RECEIVE_FILTER);
     }
 
+    /**
+     * Builds the message filter for the receivers of the given lane. The receivers of a named lane
+     * only receive the messages of the jobs assigned to it, while the receivers of the default lane
+     * receive the messages of any job which has not been assigned to another lane. If no lane is
+     * given, the filter is built for shared receivers, which receive the messages of any job.
+     *
+     * @param lane
+     *  the lane for which to build the message filter, or null to build the filter for shared
+     *  receivers
+     *
+     * @return
+     *  the message filter for the receivers of the given lane, or null if the receivers should not
+     *  filter messages
+     */
+    private String buildMessageFilter(JobLanes.Lane lane) {
+        String laneFilter = null;
+
+        if (lane != null && !lane.isDefault()) {
+            laneFilter = String.format("%s IN (%s)", JOB_KEY_MESSAGE_PROPERTY,
+                this.buildFilterValues(lane.jobKeys()));
+        }
+        else if (lane != null) {
+            Set<String> assigned = this.lanes.getLanes().stream()
+                .flatMap(elem -> elem.jobKeys().stream())
+                .collect(Collectors.toSet());
+
+            if (!assigned.isEmpty()) {
+                laneFilter = String.format("(%1$s IS NULL OR %1$s NOT IN (%2$s))", JOB_KEY_MESSAGE_PROPERTY,
+                    this.buildFilterValues(assigned));
+            }
+        }
+
+        if (this.receiveFilter == null || this.receiveFilter.isEmpty()) {
+            return laneFilter;
+        }
+
+        return laneFilter != null ?
+            String.format("(%s) AND %s", this.receiveFilter, laneFilter) :
+            this.receiveFilter;
+    }
+
+    /**
+     * Converts the given job keys to a comma-delimited list of quoted filter literals
+     */
+    private String buildFilterValues(Set<String> jobKeys) {
+        return jobKeys.stream()
+            .sorted()
+            .map(jobKey -> "'" + jobKey.replace("'", "''") + "'")
+            .collect(Collectors.joining(", "));
+    }
+
     /**
      * Creates and configures a new session and consumer
      *
+     * @param filter
+     *  the message filter to apply to the consumer, or null to receive all messages from the
+     *  receive address
+     *
      * @return
      *  The newly created CPM session
      */
-    private CPMSession createSession() throws CPMException {
+    private CPMSession createSession(String filter) throws CPMException {
         CPMSessionConfig sconfig = this.cpmSessionFactory.createSessionConfig()
             .setTransactional(true);
 
@@ -128,7 +197,7 @@ public class JobMessageReceiver {
 
         CPMConsumerConfig cconfig = session.createConsumerConfig()
             .setQueue(this.receiveAddress)
-            .setMessageFilter(this.receiveFilter);
+            .setMessageFilter(filter);
 
         session.createConsumer(cconfig)
             .setMessageListener(this.listener);
@@ -144,36 +213,27 @@ public class JobMessageReceiver {
      * will recreate it.
      */
     private void startSessions() throws CPMException {
-        Set<CPMSession> created = null;
+        Map<CPMSession, String> started = new HashMap<>();
 
-        Iterator<CPMSession> iterator = this.sessions.iterator();
-        while (iterator.hasNext()) {
-            CPMSession session = iterator.next();
+        for (Map.Entry<CPMSession, String> entry : this.sessions.entrySet()) {
+            CPMSession session = entry.getKey();
 
             if (session == null || session.isClosed()) {
-                if (created == null) {
-                    created = new HashSet<>();
-                }
-
-                iterator.remove();
-                session = this.createSession();
-
-                created.add(session);
+                session = this.createSession(entry.getValue());
             }
 
             session.start();
+            started.put(session, entry.getValue());
         }
 
-        if (created != null) {
-            this.sessions.addAll(created);
-        }
+        this.sessions = started;
     }
 
     /**
      * Close all known sessions.
      */
     private void closeSessions() throws CPMException {
-        for (CPMSession session : this.sessions) {
+        for (CPMSession session : this.sessions.keySet()) {
             session.close();
         }
     }
@@ -201,19 +261,14 @@ public class JobMessageReceiver {
         }
 
         try {
-            this.listener = new MessageListener(manager, this.mapper, this.unitOfWork);
-            int listenerThreads = this.config.getInt(ConfigProperties.ASYNC_JOBS_THREADS);
-
-            log.info("Creating {} threads receiving job messages from address: \"{}\", with filter: \"{}\"",
-                listenerThreads, this.receiveAddress, this.receiveFilter);
+            this.listener = new MessageListener(manager, this.mapper, this.unitOfWork, this.stats);
 
-            for (int i = 0; i < listenerThreads; ++i) {
-                // Each session+consumer gives us an implicit thread for async job processing, so
-                // we don't need to do any additional thread creation/management ourselves.
-                CPMSession session = this.createSession();
-                this.sessions.add(session);
+            for (JobLanes.Lane lane : this.lanes.getLanes()) {
+                this.createSessions(lane.threads(), this.buildMessageFilter(lane), lane.name());
             }
 
+            this.createSessions(this.lanes.getSharedThreads(), this.buildMessageFilter(null), "shared");
+
             this.initialized = true;
 
             // We're not technically suspended, but we're not started, either. This avoids
@@ -225,12 +280,31 @@ public class JobMessageReceiver {
         }
     }
 
+    /**
+     * Creates the given number of sessions receiving job messages matching the given filter
+     */
+    private void createSessions(int count, String filter, String name) throws CPMException {
+        if (count < 1) {
+            return;
+        }
+
+        log.info("Creating {} {} threads receiving job messages from address: \"{}\", with filter: \"{}\"",
+            count, name, this.receiveAddress, filter);
+
+        for (int i = 0; i < count; ++i) {
+            // Each session+consumer gives us an implicit thread for async job processing, so
+            // we don't need to do any additional thread creation/management ourselves.
+            CPMSession session = this.createSession(filter);
+            this.sessions.put(session, filter);
+        }
+    }
+
     /**
      * Shuts down this job message receiver, closing any sessions it may have opened
      */
     public synchronized void shutdown() throws JobException {
         try {
-            for (CPMSession session : this.sessions) {
+            for (CPMSession session : this.sessions.keySet()) {
                 session.close();
             }
         }
@@ -293,6 +367,36 @@ public class JobMessageReceiver {
         this.start();
     }
 
+    /**
+     * Fetches the execution lanes for which this receiver receives job messages.
+     *
+     * @return
+     *  a list containing the execution lanes of this receiver
+     */
+    public List<JobLanes.Lane> getLanes() {
+        return new ArrayList<>(this.lanes.getLanes());
+    }
+
+    /**
+     * Fetches the number of receivers which receive the job messages of any lane.
+     *
+     * @return
+     *  the number of shared receivers
+     */
+    public int getSharedThreads() {
+        return this.lanes.getSharedThreads();
+    }
+
+    /**
+     * Fetches the queue wait and run time statistics of the jobs received by this receiver.
+     *
+     * @return
+     *  a list containing the statistics of each job key received by this receiver
+     */
+    public List<JobExecutionStats.JobStats> getJobStats() {
+        return this.stats.getJobStats();
+    }
+
     /**
      * Checks if this message receiver is currently suspended.
      *
@@ -311,6 +415,7 @@ public class JobMessageReceiver {
         private final JobManager manager;
         private final ObjectMapper mapper;
         private final UnitOfWork unitOfWork;
+        private final JobExecutionStats stats;
 
         /**
          * Initializes a new message listener using the specified job manager to process
@@ -318,11 +423,17 @@ public class JobMessageReceiver {
          *
          * @param manager
          *  The JobManager instance to process received job messages; cannot be null
+         *
+         * @param stats
+         *  The statistics in which to record the queue wait and run time of received jobs
          */
-        public MessageListener(JobManager manager, ObjectMapper mapper, UnitOfWork unitOfWork) {
+        public MessageListener(JobManager manager, ObjectMapper mapper, UnitOfWork unitOfWork,
+            JobExecutionStats stats) {
+
             this.manager = Objects.requireNonNull(manager);
             this.mapper = Objects.requireNonNull(mapper);
             this.unitOfWork = Objects.requireNonNull(unitOfWork);
+            this.stats = Objects.requireNonNull(stats);
         }
 
         /**
@@ -330,6 +441,9 @@ public class JobMessageReceiver {
          */
         @Override
         public void handleMessage(CPMSession session, CPMConsumer consumer, CPMMessage message) {
+            String jobKey = null;
+            long start = 0;
+
             try {
                 if (log.isDebugEnabled()) {
                     log.debug("Received message: {}", this.serializeMessage(message));
@@ -344,6 +458,13 @@ public class JobMessageReceiver {
                 JobMessage jobMessage = this.mapper.readValue(message.getBody(), JobMessage.class);
                 log.debug("Deserialized job message: {}", jobMessage);
 
+                jobKey = jobMessage.getJobKey();
+                start = System.currentTimeMillis();
+
+                if (jobKey != null && message.getTimestamp() > 0) {
+                    this.stats.recordQueueWait(jobKey, start - message.getTimestamp());
+                }
+
                 this.unitOfWork.begin();
 
                 // Execute the job
@@ -442,6 +563,10 @@ public class JobMessageReceiver {
             }
             finally {
                 this.unitOfWork.end();
+
+                if (jobKey != null) {
+                    this.stats.recordRunTime(jobKey, System.currentTimeMillis() - start);
+                }
             }
         }
 
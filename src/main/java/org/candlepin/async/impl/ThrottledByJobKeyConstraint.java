@@ -18,9 +18,13 @@ import org.candlepin.async.JobConstraint;
 import org.candlepin.model.AsyncJobStatus;
 import org.candlepin.model.AsyncJobStatusCurator;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 
 
@@ -61,4 +65,67 @@ public class ThrottledByJobKeyConstraint implements JobConstraint {
         return (matching != null && matching.size() > this.limit) ? matching : Collections.emptyList();
     }
 
+    /**
+     * @{inheritDoc}
+     * <p></p>
+     * The existing jobs matching the job keys of the inbound jobs are fetched once per job key,
+     * and are counted along with the inbound jobs queued before each tested job.
+     */
+    @Override
+    public BatchTest prepare(AsyncJobStatusCurator jobCurator, List<AsyncJobStatus> inbound) {
+        if (jobCurator == null) {
+            throw new IllegalArgumentException("jobCurator is null");
+        }
+
+        if (inbound == null) {
+            throw new IllegalArgumentException("inbound is null");
+        }
+
+        Map<String, List<String>> existing = new HashMap<>();
+        for (AsyncJobStatus job : inbound) {
+            existing.computeIfAbsent(job.getJobKey(), key -> {
+                List<String> matching = jobCurator.fetchJobIdsByArguments(key, null);
+                return matching != null ? new ArrayList<>(matching) : new ArrayList<>();
+            });
+        }
+
+        return new BatchTest() {
+            @Override
+            public Collection<String> test(AsyncJobStatus job) {
+                List<String> matching = existing.get(job.getJobKey());
+                return (matching != null && matching.size() > limit) ?
+                    new ArrayList<>(matching) :
+                    Collections.emptyList();
+            }
+
+            @Override
+            public void accept(AsyncJobStatus queued) {
+                List<String> matching = existing.get(queued.getJobKey());
+
+                if (matching != null) {
+                    matching.add(queued.getId());
+                }
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof ThrottledByJobKeyConstraint)) {
+            return false;
+        }
+
+        ThrottledByJobKeyConstraint that = (ThrottledByJobKeyConstraint) obj;
+        return this.jobKey.equals(that.jobKey) && this.limit == that.limit;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.jobKey, this.limit);
+    }
+
 }
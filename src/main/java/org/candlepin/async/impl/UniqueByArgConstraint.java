@@ -24,8 +24,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 
 /**
@@ -101,4 +103,108 @@ public class UniqueByArgConstraint implements JobConstraint {
 
         return jobCurator.fetchJobIdsByArguments(jobKey, argMap);
     }
+
+    /**
+     * @{inheritDoc}
+     * <p></p>
+     * The arguments of the existing jobs matching the job keys of the inbound jobs are fetched
+     * once per job key, and each inbound job is tested against them in memory.
+     */
+    @Override
+    public BatchTest prepare(AsyncJobStatusCurator jobCurator, List<AsyncJobStatus> inbound) {
+        if (jobCurator == null) {
+            throw new IllegalArgumentException("jobCurator is null");
+        }
+
+        if (inbound == null) {
+            throw new IllegalArgumentException("inbound is null");
+        }
+
+        // Index the existing jobs by their job key and the values of our target arguments
+        Map<List<String>, List<String>> existing = new HashMap<>();
+
+        Collection<String> jobKeys = new LinkedHashSet<>();
+        inbound.forEach(job -> jobKeys.add(job.getJobKey()));
+
+        for (String jobKey : jobKeys) {
+            jobCurator.fetchJobArgumentsByKey(jobKey, this.params).forEach((jobId, args) -> {
+                List<String> key = this.buildKey(jobKey, args);
+
+                if (key != null) {
+                    existing.computeIfAbsent(key, k -> new ArrayList<>()).add(jobId);
+                }
+            });
+        }
+
+        return new BatchTest() {
+            @Override
+            public Collection<String> test(AsyncJobStatus job) {
+                List<String> key = buildKey(job);
+                return key != null ? existing.getOrDefault(key, Collections.emptyList()) : null;
+            }
+
+            @Override
+            public void accept(AsyncJobStatus queued) {
+                List<String> key = buildKey(queued);
+
+                if (key != null) {
+                    existing.computeIfAbsent(key, k -> new ArrayList<>()).add(queued.getId());
+                }
+            }
+        };
+    }
+
+    /**
+     * Builds the index key of the given job from its job key and the serialized values of our
+     * target arguments.
+     */
+    private List<String> buildKey(AsyncJobStatus job) {
+        JobArguments jobArgs = job.getJobArguments();
+
+        Map<String, String> args = new HashMap<>();
+        for (String param : this.params) {
+            args.put(param, jobArgs.getSerializedValue(param));
+        }
+
+        return this.buildKey(job.getJobKey(), args);
+    }
+
+    /**
+     * Builds an index key from the given job key and argument values. If any of our target
+     * arguments is missing, the job cannot collide with any other job and this method returns
+     * null.
+     */
+    private List<String> buildKey(String jobKey, Map<String, String> args) {
+        List<String> key = new ArrayList<>(this.params.size() + 1);
+        key.add(jobKey);
+
+        for (String param : this.params) {
+            String value = args.get(param);
+            if (value == null) {
+                return null;
+            }
+
+            key.add(value);
+        }
+
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof UniqueByArgConstraint)) {
+            return false;
+        }
+
+        return this.params.equals(((UniqueByArgConstraint) obj).params);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.params);
+    }
 }
@@ -19,6 +19,7 @@ import org.candlepin.async.JobExecutionContext;
 import org.candlepin.async.JobExecutionException;
 import org.candlepin.config.ConfigProperties;
 import org.candlepin.config.Configuration;
+import org.candlepin.controller.ConsumerCheckInCoalescer;
 import org.candlepin.model.CertificateSerialCurator;
 import org.candlepin.model.ConsumerCurator;
 import org.candlepin.model.ContentAccessCertificateCurator;
@@ -67,6 +68,7 @@ public class InactiveConsumerCleanerJob implements AsyncJob {
     private final IdentityCertificateCurator identityCertificateCurator;
     private final ContentAccessCertificateCurator contentAccessCertificateCurator;
     private final CertificateSerialCurator certificateSerialCurator;
+    private final ConsumerCheckInCoalescer checkInCoalescer;
 
     @Inject
     public InactiveConsumerCleanerJob(Configuration config,
@@ -74,13 +76,15 @@ public class InactiveConsumerCleanerJob implements AsyncJob {
         DeletedConsumerCurator deletedConsumerCurator,
         IdentityCertificateCurator identityCertificateCurator,
         ContentAccessCertificateCurator contentAccessCertificateCurator,
-        CertificateSerialCurator certificateSerialCurator) {
+        CertificateSerialCurator certificateSerialCurator,
+        ConsumerCheckInCoalescer checkInCoalescer) {
         this.config = Objects.requireNonNull(config);
         this.consumerCurator = Objects.requireNonNull(consumerCurator);
         this.deletedConsumerCurator = Objects.requireNonNull(deletedConsumerCurator);
         this.identityCertificateCurator = Objects.requireNonNull(identityCertificateCurator);
         this.contentAccessCertificateCurator = Objects.requireNonNull(contentAccessCertificateCurator);
         this.certificateSerialCurator = Objects.requireNonNull(certificateSerialCurator);
+        this.checkInCoalescer = Objects.requireNonNull(checkInCoalescer);
     }
 
     /**
@@ -123,6 +127,10 @@ public class InactiveConsumerCleanerJob implements AsyncJob {
         Instant lastCheckedInRetention = getRetentionDate(CFG_LAST_CHECKED_IN_RETENTION_IN_DAYS);
         Instant nonCheckedInRetention = getRetentionDate(CFG_LAST_UPDATED_IN_RETENTION_IN_DAYS);
 
+        // Write any check-ins still held in memory so recently active consumers are not removed
+        int flushed = this.checkInCoalescer.flush();
+        log.debug("Wrote {} pending consumer check-in(s) before cleaning inactive consumers", flushed);
+
         List<String> inactiveConsumerIds = consumerCurator
             .getInactiveConsumerIds(lastCheckedInRetention, nonCheckedInRetention);
 
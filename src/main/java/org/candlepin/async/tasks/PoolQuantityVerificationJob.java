@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.async.tasks;
+
+import org.candlepin.async.ArgumentConversionException;
+import org.candlepin.async.AsyncJob;
+import org.candlepin.async.JobArguments;
+import org.candlepin.async.JobConfig;
+import org.candlepin.async.JobConfigValidationException;
+import org.candlepin.async.JobConstraints;
+import org.candlepin.async.JobExecutionContext;
+import org.candlepin.async.JobExecutionException;
+import org.candlepin.model.Owner;
+import org.candlepin.model.OwnerCurator;
+import org.candlepin.model.PoolCurator;
+import org.candlepin.model.PoolCurator.PoolQuantityDrift;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+
+
+/**
+ * Verifies the incrementally maintained consumed and exported quantities of pools against their
+ * entitlements. By default, the job only reports drift: every organization is checked with
+ * read-only aggregate queries, and any drifted pools are flagged as having suspect quantities to be
+ * recalculated during the next refresh of their organization. When configured for a specific
+ * organization with recalculation enabled, the quantities of all of its pools are recalculated
+ * immediately instead.
+ */
+public class PoolQuantityVerificationJob implements AsyncJob {
+    private static final Logger log = LoggerFactory.getLogger(PoolQuantityVerificationJob.class);
+
+    public static final String JOB_KEY = "PoolQuantityVerificationJob";
+    public static final String JOB_NAME = "Pool Quantity Verification";
+
+    // Every day at 4 AM
+    public static final String DEFAULT_SCHEDULE = "0 0 4 * * ?";
+
+    protected static final String OWNER_KEY = "org";
+    protected static final String RECALCULATE = "recalculate";
+
+    private final OwnerCurator ownerCurator;
+    private final PoolCurator poolCurator;
+
+    /**
+     * Job configuration object for the pool quantity verification job
+     */
+    public static class PoolQuantityVerificationJobConfig
+        extends JobConfig<PoolQuantityVerificationJobConfig> {
+
+        public PoolQuantityVerificationJobConfig() {
+            this.setJobKey(JOB_KEY)
+                .setJobName(JOB_NAME)
+                .addConstraint(JobConstraints.uniqueByArguments(OWNER_KEY));
+        }
+
+        /**
+         * Sets the owner for this job, limiting the verification to the pools of that owner. If
+         * not set, the pools of all owners are verified.
+         *
+         * @param owner
+         *  the owner to set for this job
+         *
+         * @return
+         *  a reference to this job config
+         */
+        public PoolQuantityVerificationJobConfig setOwner(Owner owner) {
+            if (owner == null) {
+                throw new IllegalArgumentException("owner is null");
+            }
+
+            this.setContextOwner(owner)
+                .setJobArgument(OWNER_KEY, owner.getKey());
+
+            return this;
+        }
+
+        /**
+         * Sets whether or not to recalculate the quantities of every pool of the owner, rather than
+         * only reporting and flagging the pools which have drifted. Requires an owner to be set.
+         *
+         * @param recalculate
+         *  whether or not to recalculate the pool quantities
+         *
+         * @return
+         *  a reference to this job config
+         */
+        public PoolQuantityVerificationJobConfig setRecalculate(boolean recalculate) {
+            this.setJobArgument(RECALCULATE, recalculate);
+
+            return this;
+        }
+
+        @Override
+        public void validate() throws JobConfigValidationException {
+            super.validate();
+
+            try {
+                JobArguments arguments = this.getJobArguments();
+
+                String ownerKey = arguments.getAsString(OWNER_KEY);
+                boolean recalculate = arguments.getAsBoolean(RECALCULATE, false);
+
+                if (recalculate && (ownerKey == null || ownerKey.isEmpty())) {
+                    String errmsg = "recalculation requires an owner to be set";
+                    throw new JobConfigValidationException(errmsg);
+                }
+            }
+            catch (ArgumentConversionException e) {
+                String errmsg = "One or more required arguments are of the wrong type";
+                throw new JobConfigValidationException(errmsg, e);
+            }
+        }
+    }
+
+    @Inject
+    public PoolQuantityVerificationJob(OwnerCurator ownerCurator, PoolCurator poolCurator) {
+        this.ownerCurator = Objects.requireNonNull(ownerCurator);
+        this.poolCurator = Objects.requireNonNull(poolCurator);
+    }
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        JobArguments arguments = context.getJobArguments();
+        String ownerKey = arguments.getAsString(OWNER_KEY);
+        boolean recalculate = arguments.getAsBoolean(RECALCULATE, false);
+
+        List<Owner> owners;
+
+        if (ownerKey != null) {
+            Owner owner = this.ownerCurator.getByKey(ownerKey);
+
+            if (owner == null) {
+                throw new JobExecutionException("Nothing to do; owner no longer exists: " + ownerKey, true);
+            }
+
+            if (recalculate) {
+                int corrected = this.poolCurator.<Integer>transactional()
+                    .execute(args -> this.poolCurator.recalculatePoolQuantities(owner));
+
+                context.setJobResult("Recalculated pool quantities for owner %s; %d pool(s) corrected",
+                    owner.getKey(), corrected);
+
+                return;
+            }
+
+            owners = List.of(owner);
+        }
+        else {
+            owners = this.ownerCurator.listAll().list();
+        }
+
+        int drifted = 0;
+
+        for (Owner owner : owners) {
+            List<String> poolIds = this.poolCurator.getPoolQuantityDrift(owner)
+                .stream()
+                .peek(drift -> log.warn("Pool quantities have drifted: {}", drift))
+                .map(PoolQuantityDrift::poolId)
+                .collect(Collectors.toList());
+
+            if (!poolIds.isEmpty()) {
+                this.poolCurator.<Integer>transactional()
+                    .execute(args -> this.poolCurator.markPoolQuantitiesSuspect(poolIds));
+
+                log.warn("Flagged {} pool(s) of owner {} with drifted quantities", poolIds.size(),
+                    owner.getKey());
+
+                drifted += poolIds.size();
+            }
+        }
+
+        String outcome = String.format("Verified pool quantities for %d owner(s); %d pool(s) had drifted",
+            owners.size(), drifted);
+
+        if (drifted > 0) {
+            log.warn(outcome);
+        }
+        else {
+            log.debug(outcome);
+        }
+
+        context.setJobResult(outcome);
+    }
+
+    /**
+     * Creates a JobConfig configured to execute the pool quantity verification job. Callers may
+     * further manipulate the JobConfig as necessary before queuing it.
+     *
+     * @return
+     *  a JobConfig instance configured to execute the pool quantity verification job
+     */
+    public static PoolQuantityVerificationJobConfig createJobConfig() {
+        return new PoolQuantityVerificationJobConfig();
+    }
+}
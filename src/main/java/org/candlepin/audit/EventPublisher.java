@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.audit;
+
+import org.candlepin.async.impl.ActiveMQSessionFactory;
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
+import org.candlepin.config.ConfigurationException;
+import org.candlepin.dto.api.server.v1.QueueStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+
+
+/**
+ * The EventPublisher publishes events to ActiveMQ outside of the requests and jobs which emitted
+ * them.
+ * <p>
+ * When asynchronous publishing is enabled, the events emitted by a request or job are added to a
+ * bounded, in-memory buffer once it completes successfully. The buffer is drained by dedicated
+ * publisher threads, which serialize the events and publish them in batches, each in a single
+ * ActiveMQ transaction. When the buffer is full, the emitting thread waits for space to become
+ * available; if none becomes available in time, it publishes its remaining events itself, which
+ * slows producers down to the rate the broker can sustain without dropping any events.
+ * <p>
+ * Events still buffered when the publisher is shut down are published before it stops. Events
+ * which cannot be published are logged and dropped, as event errors must never interfere with the
+ * operation of the application.
+ */
+@Singleton
+public class EventPublisher {
+    private static final Logger log = LoggerFactory.getLogger(EventPublisher.class);
+
+    /** The name under which the status of the buffer is reported */
+    public static final String QUEUE_NAME = "event.outbound";
+
+    private static final long POLL_INTERVAL = 1;
+    private static final long SHUTDOWN_TIMEOUT = 30;
+
+    private final ActiveMQSessionFactory sessionFactory;
+    private final ObjectMapper mapper;
+    private final int batchSize;
+    private final long offerTimeout;
+    private final BlockingQueue<Event> buffer;
+    private final ExecutorService executor;
+
+    private final AtomicLong publishedCount;
+    private final AtomicLong batchCount;
+    private final AtomicLong publishTime;
+
+    private volatile boolean shutdown;
+
+    @Inject
+    public EventPublisher(Configuration config, ActiveMQSessionFactory sessionFactory, ObjectMapper mapper)
+        throws ConfigurationException {
+
+        Objects.requireNonNull(config);
+        this.sessionFactory = Objects.requireNonNull(sessionFactory);
+        this.mapper = Objects.requireNonNull(mapper);
+
+        this.publishedCount = new AtomicLong();
+        this.batchCount = new AtomicLong();
+        this.publishTime = new AtomicLong();
+
+        if (!config.getBoolean(ConfigProperties.AUDIT_ASYNC_PUBLISHING_ENABLED)) {
+            this.batchSize = 0;
+            this.offerTimeout = 0;
+            this.buffer = null;
+            this.executor = null;
+
+            return;
+        }
+
+        int bufferSize = config.getInt(ConfigProperties.AUDIT_ASYNC_PUBLISHING_BUFFER_SIZE);
+        if (bufferSize < 1) {
+            throw new ConfigurationException(ConfigProperties.AUDIT_ASYNC_PUBLISHING_BUFFER_SIZE +
+                " must be larger than 0");
+        }
+
+        this.batchSize = config.getInt(ConfigProperties.AUDIT_ASYNC_PUBLISHING_BATCH_SIZE);
+        if (this.batchSize < 1) {
+            throw new ConfigurationException(ConfigProperties.AUDIT_ASYNC_PUBLISHING_BATCH_SIZE +
+                " must be larger than 0");
+        }
+
+        int threads = config.getInt(ConfigProperties.AUDIT_ASYNC_PUBLISHING_THREADS);
+        if (threads < 1) {
+            throw new ConfigurationException(ConfigProperties.AUDIT_ASYNC_PUBLISHING_THREADS +
+                " must be larger than 0");
+        }
+
+        this.offerTimeout = Math.max(0,
+            config.getLong(ConfigProperties.AUDIT_ASYNC_PUBLISHING_OFFER_TIMEOUT));
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "event-publisher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 0; i < threads; ++i) {
+            this.executor.execute(this::drain);
+        }
+
+        log.info("Events will be published asynchronously by {} thread(s) in batches of up to {}",
+            threads, this.batchSize);
+    }
+
+    /**
+     * Checks whether or not asynchronous publishing is enabled. When disabled, events should be
+     * published directly by the request or job which emitted them.
+     *
+     * @return
+     *  true if asynchronous publishing is enabled; false otherwise
+     */
+    public boolean isEnabled() {
+        return this.executor != null;
+    }
+
+    /**
+     * Hands the given events to the publisher threads. This method blocks while the buffer is full,
+     * up to the configured offer timeout, after which the remaining events are published by the
+     * calling thread. If asynchronous publishing is disabled or the publisher has been shut down,
+     * all of the events are published by the calling thread.
+     *
+     * @param events
+     *  the events to publish, in the order they were emitted
+     */
+    public void publish(Collection<Event> events) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+
+        List<Event> pending = new ArrayList<>(events);
+        int offered = 0;
+
+        if (this.isEnabled() && !this.shutdown) {
+            try {
+                while (offered < pending.size() &&
+                    this.buffer.offer(pending.get(offered), this.offerTimeout, TimeUnit.MILLISECONDS)) {
+
+                    ++offered;
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (offered == pending.size()) {
+                return;
+            }
+
+            log.warn("Event buffer is full; publishing {} event(s) directly", pending.size() - offered);
+        }
+
+        int size = this.batchSize > 0 ? this.batchSize : pending.size();
+        for (int offset = offered; offset < pending.size(); offset += size) {
+            this.send(pending.subList(offset, Math.min(pending.size(), offset + size)));
+        }
+    }
+
+    /**
+     * Publisher thread loop; drains the buffer in batches until the publisher is shut down and the
+     * buffer is empty.
+     */
+    private void drain() {
+        List<Event> batch = new ArrayList<>(this.batchSize);
+
+        while (!this.shutdown || !this.buffer.isEmpty()) {
+            try {
+                Event event = this.buffer.poll(POLL_INTERVAL, TimeUnit.SECONDS);
+                if (event == null) {
+                    continue;
+                }
+
+                batch.add(event);
+                this.buffer.drainTo(batch, this.batchSize - 1);
+
+                this.send(batch);
+            }
+            catch (InterruptedException e) {
+                log.warn("Event publisher interrupted; {} event(s) left unpublished", this.buffer.size());
+                Thread.currentThread().interrupt();
+                return;
+            }
+            catch (Exception e) {
+                log.error("Unexpected error in event publisher", e);
+            }
+            finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Serializes and publishes the given batch of events in a single ActiveMQ transaction.
+     */
+    private void send(List<Event> batch) {
+        long start = System.nanoTime();
+
+        try (ClientSession session = this.sessionFactory.getEgressSession(true)) {
+            ClientProducer producer = session.createProducer(MessageAddress.DEFAULT_EVENT_MESSAGE_ADDRESS);
+
+            for (Event event : batch) {
+                try {
+                    producer.send(createMessage(session, this.mapper.writeValueAsString(event),
+                        event.getType(), event.getTarget()));
+                }
+                catch (Exception e) {
+                    log.error("Unable to publish event: {}", event, e);
+                }
+            }
+
+            session.commit();
+
+            this.publishedCount.addAndGet(batch.size());
+            this.batchCount.incrementAndGet();
+            this.publishTime.addAndGet(System.nanoTime() - start);
+
+            log.debug("Published batch of {} event(s)", batch.size());
+        }
+        catch (Exception e) {
+            // We always try not to let event errors interfere with the operation of the overall
+            // application
+            log.error("Unable to publish batch of {} event(s)", batch.size(), e);
+        }
+    }
+
+    /**
+     * Creates a new durable message containing the given serialized event.
+     *
+     * @param session
+     *  the session to use to create the message
+     *
+     * @param eventString
+     *  the serialized event
+     *
+     * @param type
+     *  the type of the event, or null if the event has no type
+     *
+     * @param target
+     *  the target of the event, or null if the event has no target
+     *
+     * @return
+     *  a new message for the given event
+     */
+    static ClientMessage createMessage(ClientSession session, String eventString, Event.Type type,
+        Event.Target target) {
+
+        ClientMessage message = session.createMessage(ClientMessage.TEXT_TYPE, true);
+        message.getBodyBuffer().writeNullableSimpleString(SimpleString.toSimpleString(eventString));
+
+        // Set the event type and target if provided
+        if (type != null) {
+            message.putStringProperty(EventSinkImpl.EVENT_TYPE_KEY, type.name());
+        }
+
+        if (target != null) {
+            message.putStringProperty(EventSinkImpl.EVENT_TARGET_KEY, target.name());
+        }
+
+        return message;
+    }
+
+    /**
+     * Fetches the number of events waiting in the buffer to be published.
+     *
+     * @return
+     *  the number of buffered events
+     */
+    public int getPendingCount() {
+        return this.buffer != null ? this.buffer.size() : 0;
+    }
+
+    /**
+     * Fetches the number of events published by this publisher, including events published directly
+     * by emitting threads.
+     *
+     * @return
+     *  the number of published events
+     */
+    public long getPublishedCount() {
+        return this.publishedCount.get();
+    }
+
+    /**
+     * Fetches the average time, in milliseconds, taken to publish a batch of events.
+     *
+     * @return
+     *  the average batch publish latency, or 0 if no batches have been published
+     */
+    public long getAveragePublishLatency() {
+        long batches = this.batchCount.get();
+        return batches > 0 ? TimeUnit.NANOSECONDS.toMillis(this.publishTime.get() / batches) : 0;
+    }
+
+    /**
+     * Builds the status of the publishing buffer.
+     *
+     * @return
+     *  the status of the publishing buffer
+     */
+    public QueueStatus getQueueStatus() {
+        return new QueueStatus()
+            .queueName(QUEUE_NAME)
+            .pendingMessageCount((long) this.getPendingCount())
+            .publishedMessageCount(this.getPublishedCount())
+            .averagePublishLatency(this.getAveragePublishLatency());
+    }
+
+    /**
+     * Publishes any buffered events and stops the publisher threads. Events handed to the publisher
+     * after shutdown are published by the calling thread.
+     */
+    public void shutdown() {
+        if (this.executor == null || this.shutdown) {
+            return;
+        }
+
+        this.shutdown = true;
+        this.executor.shutdown();
+
+        try {
+            if (!this.executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                log.warn("Timed out waiting for {} buffered event(s) to be published", this.buffer.size());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -33,12 +33,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.SimpleString;
-import org.apache.activemq.artemis.api.core.client.ClientMessage;
 import org.apache.activemq.artemis.api.core.client.ClientProducer;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -65,11 +65,13 @@ public class EventSinkImpl implements EventSink {
 
     private ActiveMQSessionFactory sessionFactory;
     private EventMessageSender messageSender;
+    private EventPublisher eventPublisher;
+    private List<Event> pendingEvents;
 
     @Inject
     public EventSinkImpl(EventFilter eventFilter, EventFactory eventFactory,
         ObjectMapper mapper, Configuration config, ActiveMQSessionFactory sessionFactory,
-        CandlepinModeManager modeManager) {
+        CandlepinModeManager modeManager, EventPublisher eventPublisher) {
 
         this.eventFactory = eventFactory;
         this.mapper = mapper;
@@ -77,6 +79,8 @@ public class EventSinkImpl implements EventSink {
         this.modeManager = modeManager;
         this.config = config;
         this.sessionFactory = sessionFactory;
+        this.eventPublisher = eventPublisher;
+        this.pendingEvents = new ArrayList<>();
     }
 
     // FIXME This method really does not belong here. It should probably be moved
@@ -100,6 +104,10 @@ public class EventSinkImpl implements EventSink {
             log.error("Error looking up ActiveMQ queue info: ", e);
         }
 
+        if (this.eventPublisher.isEnabled()) {
+            results.add(this.eventPublisher.getQueueStatus());
+        }
+
         return results;
     }
 
@@ -112,7 +120,9 @@ public class EventSinkImpl implements EventSink {
      * Events are filtered, meaning that some of them might not even get into ActiveMQ.
      * Details about the filtering are documented in EventFilter class
      *
-     * ActiveMQ transaction actually manages the queue of events to be sent.
+     * ActiveMQ transaction actually manages the queue of events to be sent. When asynchronous
+     * publishing is enabled, the events are instead held until they are handed to the
+     * EventPublisher, which serializes and sends them outside of the request or job.
      */
     @Override
     public void queueEvent(Event event) {
@@ -127,6 +137,11 @@ public class EventSinkImpl implements EventSink {
 
         log.debug("Queuing event: {}", event);
 
+        if (this.eventPublisher.isEnabled()) {
+            this.pendingEvents.add(event);
+            return;
+        }
+
         try {
             // Lazily initialize the message sender when the first
             // message gets queued.
@@ -148,6 +163,13 @@ public class EventSinkImpl implements EventSink {
      */
     @Override
     public void sendEvents() {
+        if (!this.pendingEvents.isEmpty()) {
+            List<Event> events = this.pendingEvents;
+            this.pendingEvents = new ArrayList<>();
+
+            this.eventPublisher.publish(events);
+        }
+
         if (!hasQueuedMessages()) {
             log.debug("No events to send.");
             return;
@@ -157,6 +179,8 @@ public class EventSinkImpl implements EventSink {
 
     @Override
     public void rollback() {
+        this.pendingEvents.clear();
+
         if (!hasQueuedMessages()) {
             log.debug("No events to roll back.");
             return;
@@ -274,20 +298,8 @@ public class EventSinkImpl implements EventSink {
                 }
             }
 
-            ClientMessage message = session.createMessage(ClientMessage.TEXT_TYPE, true);
-            message.getBodyBuffer().writeNullableSimpleString(SimpleString.toSimpleString(eventString));
-
-            // Set the event type and target if provided
-            if (type != null) {
-                message.putStringProperty(EVENT_TYPE_KEY, type.name());
-            }
-
-            if (target != null) {
-                message.putStringProperty(EVENT_TARGET_KEY, target.name());
-            }
-
             // NOTE: not actually sent until we commit the session.
-            producer.send(message);
+            producer.send(EventPublisher.createMessage(session, eventString, type, target));
         }
 
         public void sendMessages() {
@@ -15,6 +15,7 @@
 package org.candlepin.auth;
 
 import org.candlepin.auth.permissions.PermissionFactory;
+import org.candlepin.cache.UserPermissionCache;
 import org.candlepin.exceptions.CandlepinException;
 import org.candlepin.exceptions.NotAuthorizedException;
 import org.candlepin.exceptions.ServiceUnavailableException;
@@ -39,9 +40,9 @@ public class BasicAuth extends UserAuth {
 
     @Inject
     BasicAuth(UserServiceAdapter userServiceAdapter, Provider<I18n> i18nProvider,
-        PermissionFactory permissionFactory) {
+        PermissionFactory permissionFactory, UserPermissionCache permissionCache) {
 
-        super(userServiceAdapter, i18nProvider, permissionFactory);
+        super(userServiceAdapter, i18nProvider, permissionFactory, permissionCache);
     }
 
     @Override
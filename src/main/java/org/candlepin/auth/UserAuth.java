@@ -15,8 +15,10 @@
 package org.candlepin.auth;
 
 import org.candlepin.auth.permissions.PermissionFactory;
+import org.candlepin.cache.UserPermissionCache;
 import org.candlepin.exceptions.BadRequestException;
 import org.candlepin.service.UserServiceAdapter;
+import org.candlepin.service.impl.DefaultUserServiceAdapter;
 import org.candlepin.service.model.UserInfo;
 
 import org.xnap.commons.i18n.I18n;
@@ -34,33 +36,48 @@ public abstract class UserAuth implements AuthProvider {
     protected UserServiceAdapter userServiceAdapter;
     protected Provider<I18n> i18nProvider;
     protected PermissionFactory permissionFactory;
+    protected UserPermissionCache permissionCache;
 
     @Inject
     public UserAuth(UserServiceAdapter userServiceAdapter, Provider<I18n> i18nProvider,
-        PermissionFactory permissionFactory) {
+        PermissionFactory permissionFactory, UserPermissionCache permissionCache) {
 
         this.userServiceAdapter = userServiceAdapter;
         this.i18nProvider = i18nProvider;
         this.permissionFactory = permissionFactory;
+        this.permissionCache = permissionCache;
     }
 
     /**
-     * Creates a user principal for a given username
+     * Creates a user principal for a given username. Permissions are only cached for users backed by
+     * the default user service, as it is the only one which invalidates the cache as roles change.
      */
     protected Principal createPrincipal(String username) {
-        UserInfo user = this.userServiceAdapter.findByLogin(username);
+        UserPermissionCache.Entry entry = this.userServiceAdapter instanceof DefaultUserServiceAdapter ?
+            this.permissionCache.get(username, this::resolve) :
+            this.resolve(username);
 
-        if (user == null) {
+        if (entry == null) {
             throw new BadRequestException(this.i18nProvider.get().tr("User not found: {0}", username));
         }
 
-        // TODO: This creates a lot of object churn. We should probably update this later in a way
-        // that can do permission checking without creating piles of objects that we just throw away
-        // without ever using them in the general case.
-        return user.isSuperAdmin() != null && user.isSuperAdmin() ?
-            (new UserPrincipal(username, null, true, user.getPrimaryOwner())) :
-            (new UserPrincipal(username, this.permissionFactory.createPermissions(user), false,
-                user.getPrimaryOwner()));
+        return new UserPrincipal(username, entry.permissions(), entry.superAdmin(), entry.primaryOwner());
+    }
+
+    /**
+     * Looks up the user with the given username and compiles their permissions. Super admins are not
+     * granted any explicit permissions, as they already have full access.
+     */
+    private UserPermissionCache.Entry resolve(String username) {
+        UserInfo user = this.userServiceAdapter.findByLogin(username);
+        if (user == null) {
+            return null;
+        }
+
+        boolean superAdmin = user.isSuperAdmin() != null && user.isSuperAdmin();
+
+        return new UserPermissionCache.Entry(superAdmin, user.getPrimaryOwner(),
+            superAdmin ? null : this.permissionFactory.createPermissions(user));
     }
 
 }
@@ -22,16 +22,18 @@ import org.candlepin.service.model.PermissionBlueprintInfo;
 import org.candlepin.service.model.RoleInfo;
 import org.candlepin.service.model.UserInfo;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.WeakHashMap;
 import java.util.stream.Stream;
 
 import javax.inject.Inject;
@@ -60,23 +62,26 @@ public class PermissionFactory {
     }
 
     /**
-     * Performs simple resolution of owner instances needed to build permissions.
-     *
-     * @deprecated
-     *  This is a temporary class used purely to perform fast resolution in lieu of a proper
-     *  resolution utility. It should not be carried forward any further than absolutely
-     *  necessary, and should be replaced by a proper resolver as soon as possible.
+     * Performs simple resolution of owner instances needed to build permissions. Resolved owners are
+     * kept in a small, bounded cache keyed by owner key, so building the permissions of users with
+     * many roles against the same owners does not require repeated lookups.
      */
-    @Deprecated
     protected static class OwnerResolver {
-        private static final WeakReference<Owner> EMPTY_REFERENCE = new WeakReference<>(null);
+        /** The maximum number of owners to keep resolved at any given time */
+        public static final int MAX_ENTRIES = 1000;
+
+        /** How long a resolved owner is kept before it is looked up again */
+        public static final Duration EXPIRATION = Duration.ofMinutes(5);
 
         private final OwnerCurator ownerCurator;
-        private final WeakHashMap<String, WeakReference<Owner>> ownerCache;
+        private final Cache<String, Owner> ownerCache;
 
         public OwnerResolver(OwnerCurator ownerCurator) {
             this.ownerCurator = Objects.requireNonNull(ownerCurator);
-            this.ownerCache = new WeakHashMap<>();
+            this.ownerCache = Caffeine.newBuilder()
+                .expireAfterWrite(EXPIRATION)
+                .maximumSize(MAX_ENTRIES)
+                .build();
         }
 
         public Owner resolve(OwnerInfo oinfo) {
@@ -86,25 +91,15 @@ public class PermissionFactory {
             }
 
             String ownerKey = oinfo.getKey();
-            Owner cached = this.ownerCache.getOrDefault(ownerKey, EMPTY_REFERENCE)
-                .get();
-
-            // If the owner has either never been resolved or was booted out of memory, perform the
-            // lookup and store the result (again).
-            if (cached == null) {
-                cached = this.ownerCurator.getByKey(ownerKey);
-                if (cached == null) {
-                    throw new IllegalStateException("No such owner: " + ownerKey);
-                }
-
-                // Impl note:
-                // We're abusing the fact that we expect the owner to hold a reference to its own
-                // key, so the ref count on `cached.getKey()` should be at least 1 until after the
-                // weak ref value is cleared as a result of the owner itself falling out of scope.
-                this.ownerCache.put(cached.getKey(), new WeakReference<>(cached));
+            Owner resolved = ownerKey != null ?
+                this.ownerCache.get(ownerKey, this.ownerCurator::getByKey) :
+                null;
+
+            if (resolved == null) {
+                throw new IllegalStateException("No such owner: " + ownerKey);
             }
 
-            return cached;
+            return resolved;
         }
     }
 
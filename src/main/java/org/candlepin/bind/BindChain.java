@@ -49,6 +49,7 @@ public class BindChain {
         CheckBonusPoolQuantitiesOp checkBonusPoolQuantitiesOp,
         HandleCertificatesOp handleCertificatesOp,
         ComplianceOp complianceOp,
+        ReservePoolQuantitiesOp reservePoolQuantitiesOp,
         Consumer consumer,
         Map<String, Integer> poolQuantityMap,
         Enforcer.CallerType caller) {
@@ -60,6 +61,7 @@ public class BindChain {
         operations.add(checkBonusPoolQuantitiesOp);
         operations.add(handleCertificatesOp);
         operations.add(complianceOp);
+        operations.add(reservePoolQuantitiesOp);
     }
 
     private boolean preProcess(BindContext context) {
@@ -34,6 +34,7 @@ public class BindChainFactory {
     private final Provider<CheckBonusPoolQuantitiesOp> checkBonusPoolQuantitiesOpProvider;
     private final Provider<HandleCertificatesOp> handleCertificatesOpProvider;
     private final Provider<ComplianceOp> complianceOpProvider;
+    private final Provider<ReservePoolQuantitiesOp> reservePoolQuantitiesOpProvider;
 
     @Inject
     public BindChainFactory(BindContextFactory bindContextFactory,
@@ -42,7 +43,8 @@ public class BindChainFactory {
         Provider<PostBindBonusPoolsOp> postBindBonusPoolsOpProvider,
         Provider<CheckBonusPoolQuantitiesOp> checkBonusPoolQuantitiesOpProvider,
         Provider<HandleCertificatesOp> handleCertificatesOpProvider,
-        Provider<ComplianceOp> complianceOpProvider) {
+        Provider<ComplianceOp> complianceOpProvider,
+        Provider<ReservePoolQuantitiesOp> reservePoolQuantitiesOpProvider) {
         this.bindContextFactory = Objects.requireNonNull(bindContextFactory);
         this.rulesCheckOpFactory = Objects.requireNonNull(rulesCheckOpFactory);
         this.handleEntitlementsOpProvider = Objects.requireNonNull(handleEntitlementsOpProvider);
@@ -50,6 +52,7 @@ public class BindChainFactory {
         this.checkBonusPoolQuantitiesOpProvider = Objects.requireNonNull(checkBonusPoolQuantitiesOpProvider);
         this.handleCertificatesOpProvider = Objects.requireNonNull(handleCertificatesOpProvider);
         this.complianceOpProvider = Objects.requireNonNull(complianceOpProvider);
+        this.reservePoolQuantitiesOpProvider = Objects.requireNonNull(reservePoolQuantitiesOpProvider);
     }
 
     public BindChain create(Consumer consumer, Map<String, Integer> quantities, Enforcer.CallerType caller) {
@@ -61,6 +64,7 @@ public class BindChainFactory {
             this.checkBonusPoolQuantitiesOpProvider.get(),
             this.handleCertificatesOpProvider.get(),
             this.complianceOpProvider.get(),
+            this.reservePoolQuantitiesOpProvider.get(),
             consumer, quantities, caller);
     }
 }
@@ -14,6 +14,8 @@
  */
 package org.candlepin.bind;
 
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
 import org.candlepin.model.Consumer;
 import org.candlepin.model.ConsumerCurator;
 import org.candlepin.model.ConsumerType;
@@ -24,15 +26,22 @@ import org.candlepin.model.OwnerCurator;
 import org.candlepin.model.Pool;
 import org.candlepin.model.PoolCurator;
 import org.candlepin.model.PoolQuantity;
+import org.candlepin.model.Product;
 import org.candlepin.policy.EntitlementRefusedException;
+import org.candlepin.policy.js.pool.PoolHelper;
 import org.candlepin.util.Util;
 
 import org.xnap.commons.i18n.I18n;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import javax.inject.Inject;
 
@@ -46,6 +55,9 @@ import javax.inject.Inject;
  * and only if it is not we make a database call of populate it. This way
  * an operation is not dependant on other to populate the entities, and we make
  * one call per entity type.
+ * - When optimistic reservation is enabled, pools which are far from exhaustion
+ * and do not require bonus or stack handling are not locked; their quantity is
+ * instead reserved by a conditional update at the end of the bind.
  */
 public class BindContext {
     private Consumer consumer;
@@ -54,6 +66,7 @@ public class BindContext {
     private Map<String, PoolQuantity> poolQuantities;
     private Map<String, Entitlement> entitlementMap;
     private Map<String, Integer> quantities;
+    private SortedSet<String> reservedPoolIds = new TreeSet<>();
     private boolean quantityRequested = false;
     //change to generic type in future if needed
     private EntitlementRefusedException exception;
@@ -62,6 +75,8 @@ public class BindContext {
     private ConsumerTypeCurator consumerTypeCurator;
     private OwnerCurator ownerCurator;
     private I18n i18n;
+    private boolean optimisticReservation;
+    private int minHeadroom;
 
     @Inject
     public BindContext(PoolCurator poolCurator,
@@ -69,6 +84,7 @@ public class BindContext {
         ConsumerTypeCurator consumerTypeCurator,
         OwnerCurator ownerCurator,
         I18n i18n,
+        Configuration config,
         Consumer consumer,
         Map<String, Integer> quantities) {
 
@@ -77,6 +93,8 @@ public class BindContext {
         this.consumerTypeCurator = consumerTypeCurator;
         this.ownerCurator = ownerCurator;
         this.i18n = i18n;
+        this.optimisticReservation = config.getBoolean(ConfigProperties.BIND_OPTIMISTIC_RESERVATION);
+        this.minHeadroom = config.getInt(ConfigProperties.BIND_OPTIMISTIC_RESERVATION_MIN_HEADROOM);
         this.consumer = consumer;
         this.quantities = quantities;
     }
@@ -124,13 +142,83 @@ public class BindContext {
 
     /**
      * locks the pools and replaces the existing entities in poolQuantities.
+     * Pools eligible for optimistic reservation are left unlocked, and are
+     * instead tracked as reserved pools.
      */
     public void lockPools() {
-        Collection<Pool> pools = poolCurator.lockAndLoad(poolQuantities.keySet());
-        this.poolCurator.refresh(pools);
-        for (Pool pool : pools) {
-            poolQuantities.get(pool.getId()).setPool(pool);
+        Set<String> lockIds = new HashSet<>();
+
+        for (PoolQuantity poolQuantity : poolQuantities.values()) {
+            Pool pool = poolQuantity.getPool();
+
+            if (this.canReserve(pool, poolQuantity.getQuantity())) {
+                reservedPoolIds.add(pool.getId());
+            }
+            else {
+                lockIds.add(pool.getId());
+            }
+        }
+
+        if (!lockIds.isEmpty()) {
+            Collection<Pool> pools = poolCurator.lockAndLoad(lockIds);
+            this.poolCurator.refresh(pools);
+            for (Pool pool : pools) {
+                poolQuantities.get(pool.getId()).setPool(pool);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the quantity requested from the given pool may be reserved without locking
+     * the pool. Pools which trigger bonus pool or stack handling always require locking, as do
+     * pools which would be left with less than the minimum headroom after the bind.
+     */
+    private boolean canReserve(Pool pool, int quantity) {
+        if (!this.optimisticReservation || quantity < 1 || pool.isStacked() ||
+            PoolHelper.getFlattenedAttributes(pool).containsKey(Product.Attributes.VIRT_LIMIT)) {
+            return false;
+        }
+
+        if (pool.isUnlimited()) {
+            return true;
         }
+
+        long remaining = pool.getQuantity() - pool.getConsumed() - quantity;
+        return remaining * 100 >= pool.getQuantity() * this.minHeadroom;
+    }
+
+    /**
+     * Fetches the IDs of the pools from which quantity is to be reserved rather than consumed
+     * under a lock, in the order in which they should be reserved.
+     *
+     * @return
+     *  a sorted set of reserved pool IDs
+     */
+    public SortedSet<String> getReservedPoolIds() {
+        return Collections.unmodifiableSortedSet(reservedPoolIds);
+    }
+
+    public boolean isReserved(String poolId) {
+        return reservedPoolIds.contains(poolId);
+    }
+
+    /**
+     * Falls back to the pessimistic path for a reserved pool, locking the pool and replacing the
+     * existing entity in poolQuantities.
+     *
+     * @param poolId
+     *  the ID of the reserved pool to lock
+     *
+     * @return
+     *  the locked pool
+     */
+    public Pool lockReservedPool(String poolId) {
+        Pool pool = poolCurator.lockAndLoad(poolId);
+        this.poolCurator.refresh(pool);
+        poolQuantities.get(poolId).setPool(pool);
+        reservedPoolIds.remove(poolId);
+
+        return pool;
     }
 
     public Consumer getLockedConsumer() {
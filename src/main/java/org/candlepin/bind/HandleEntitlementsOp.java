@@ -82,15 +82,15 @@ public class HandleEntitlementsOp implements BindOperation {
             ent.setConsumer(consumer);
             ent.setOwner(pool.getOwner());
 
-            pool.setConsumed(pool.getConsumed() + quantity);
-
-            if (ctype.isManifest()) {
-                pool.setExported(pool.getExported() + quantity);
-            }
-
             consumer.addEntitlement(ent);
             consumer.setEntitlementCount(consumer.getEntitlementCount() + quantity);
-            poolsToSave.add(pool);
+
+            // Reserved pools have their consumed counts updated by ReservePoolQuantitiesOp once
+            // the rest of the bind is complete
+            if (!context.isReserved(entry.getKey())) {
+                pool.applyQuantityChange(quantity, ctype.isManifest());
+                poolsToSave.add(pool);
+            }
         }
 
         entitlementCurator.saveAll(entitlementMap.values(), false, false);
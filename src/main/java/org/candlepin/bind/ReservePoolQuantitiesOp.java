@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.bind;
+
+import org.candlepin.exceptions.ServiceUnavailableException;
+import org.candlepin.model.ConsumerType;
+import org.candlepin.model.Pool;
+import org.candlepin.model.PoolCurator;
+import org.candlepin.model.PoolQuantity;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Objects;
+
+import javax.inject.Inject;
+
+/**
+ * This bind operation consumes the requested quantity from pools which were not locked for the
+ * bind. It runs last so that the row lock taken by the conditional update is held for as little
+ * of the bind as possible. Should a pool no longer have enough quantity available, the pool is
+ * locked and the quantity is consumed through the pessimistic path instead.
+ */
+public class ReservePoolQuantitiesOp implements BindOperation {
+    private static final Logger log = LoggerFactory.getLogger(ReservePoolQuantitiesOp.class);
+
+    private final PoolCurator poolCurator;
+
+    @Inject
+    public ReservePoolQuantitiesOp(PoolCurator poolCurator) {
+        this.poolCurator = Objects.requireNonNull(poolCurator);
+    }
+
+    @Override
+    public boolean preProcess(BindContext context) {
+        return true;
+    }
+
+    @Override
+    public boolean execute(BindContext context) {
+        if (context.getReservedPoolIds().isEmpty()) {
+            return true;
+        }
+
+        ConsumerType ctype = context.getConsumerType();
+
+        // Reserved pool IDs are sorted, giving a deterministic locking order
+        for (String poolId : new ArrayList<>(context.getReservedPoolIds())) {
+            PoolQuantity poolQuantity = context.getPoolQuantities().get(poolId);
+            int quantity = poolQuantity.getQuantity();
+
+            if (this.poolCurator.reserveQuantity(poolId, quantity, ctype.isManifest())) {
+                this.poolCurator.refresh(poolQuantity.getPool());
+                continue;
+            }
+
+            log.debug("Unable to reserve {} from pool {}; falling back to locking the pool",
+                quantity, poolId);
+
+            Pool pool = context.lockReservedPool(poolId);
+            if (!pool.entitlementsAvailable(quantity)) {
+                // The pool was far from exhaustion when the bind started, and entitlements have
+                // already been created against it. Treat this the same as any other failure
+                // caused by concurrent binds so the transaction is rolled back.
+                throw new ServiceUnavailableException("Error during entitlement creation, pool " +
+                    poolId + " was exhausted by concurrent requests");
+            }
+
+            pool.applyQuantityChange(quantity, ctype.isManifest());
+            this.poolCurator.merge(pool);
+        }
+
+        return true;
+    }
+}
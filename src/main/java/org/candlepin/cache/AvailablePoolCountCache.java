@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
+import org.candlepin.config.ConfigurationException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Objects;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+
+
+/**
+ * A thread safe cache for the number of pools available to a consumer or activation key after rules
+ * filtering. Entries are keyed by the subject doing the filtering and a digest of the candidate pool IDs,
+ * so any change to the set of candidate pools results in a cache miss. Subjects are expected to include
+ * the last update time of the consumer or activation key, so changes to them are picked up right away;
+ * other changes which only affect the outcome of the rules are picked up once the entry expires.
+ */
+@Singleton
+public class AvailablePoolCountCache {
+    private final Cache<String, Integer> cache;
+
+    @Inject
+    public AvailablePoolCountCache(Configuration config) throws ConfigurationException {
+        Objects.requireNonNull(config);
+
+        long expirationDuration = config.getLong(ConfigProperties.CACHE_AVAILABLE_POOL_COUNT_TTL);
+        if (expirationDuration < 0) {
+            String msg = ConfigProperties.CACHE_AVAILABLE_POOL_COUNT_TTL +
+                " must be larger than or equal to 0";
+            throw new ConfigurationException(msg);
+        }
+
+        long maxEntries = config.getLong(ConfigProperties.CACHE_AVAILABLE_POOL_COUNT_MAX_ENTRIES);
+        if (maxEntries < 0) {
+            String msg = ConfigProperties.CACHE_AVAILABLE_POOL_COUNT_MAX_ENTRIES +
+                " must be larger than or equal to 0";
+            throw new ConfigurationException(msg);
+        }
+
+        this.cache = expirationDuration > 0 && maxEntries > 0 ?
+            Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(expirationDuration))
+                .maximumSize(maxEntries)
+                .build() :
+            null;
+    }
+
+    /**
+     * Retrieves the cached count of available pools for the given subject and candidate pools.
+     *
+     * @param subject
+     *  a string identifying the consumer and/or activation key the pools were filtered for, and the
+     *  state they were in at the time
+     *
+     * @param includeWarnings
+     *  whether or not pools which passed the rules with warnings were counted
+     *
+     * @param poolIds
+     *  the IDs of the candidate pools which were filtered
+     *
+     * @throws IllegalArgumentException
+     *  if the provided subject or pool IDs are null
+     *
+     * @return
+     *  the cached count of available pools, or null if no count is cached
+     */
+    public Integer get(String subject, boolean includeWarnings, Collection<String> poolIds) {
+        validate(subject, poolIds);
+
+        return this.cache != null ?
+            this.cache.getIfPresent(buildKey(subject, includeWarnings, poolIds)) :
+            null;
+    }
+
+    /**
+     * Caches the count of available pools for the given subject and candidate pools, replacing any
+     * existing entry.
+     *
+     * @param subject
+     *  a string identifying the consumer and/or activation key the pools were filtered for, and the
+     *  state they were in at the time
+     *
+     * @param includeWarnings
+     *  whether or not pools which passed the rules with warnings were counted
+     *
+     * @param poolIds
+     *  the IDs of the candidate pools which were filtered
+     *
+     * @param count
+     *  the number of candidate pools which passed filtering
+     *
+     * @throws IllegalArgumentException
+     *  if the provided subject or pool IDs are null
+     */
+    public void put(String subject, boolean includeWarnings, Collection<String> poolIds, int count) {
+        validate(subject, poolIds);
+
+        if (this.cache != null) {
+            this.cache.put(buildKey(subject, includeWarnings, poolIds), count);
+        }
+    }
+
+    /**
+     * Clears all entries in the cache
+     */
+    public void removeAll() {
+        if (this.cache != null) {
+            this.cache.invalidateAll();
+        }
+    }
+
+    private static void validate(String subject, Collection<String> poolIds) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject is null");
+        }
+
+        if (poolIds == null) {
+            throw new IllegalArgumentException("pool IDs is null");
+        }
+    }
+
+    private static String buildKey(String subject, boolean includeWarnings, Collection<String> poolIds) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String poolId : poolIds) {
+                digest.update(String.valueOf(poolId).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+
+            return subject + (includeWarnings ? ":all:" : ":valid:") +
+                HexFormat.of().formatHex(digest.digest());
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
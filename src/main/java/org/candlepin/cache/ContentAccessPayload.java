@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import org.candlepin.model.dto.Product;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The consumer independent part of a content access payload; the product models describing the
+ * content available to every consumer with the same content view, and the size, in bytes, of the
+ * encoded payload they were first served in. The consumer specific fields of the payload are added,
+ * and the payload signed, each time it is served.
+ */
+public record ContentAccessPayload(List<Product> products, int size) {
+
+    public ContentAccessPayload {
+        products = List.copyOf(Objects.requireNonNull(products));
+        if (size < 0) {
+            throw new IllegalArgumentException("size is negative");
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
+import org.candlepin.config.ConfigurationException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * A thread safe cache of the consumer independent parts of simple content access payloads, shared
+ * between all consumers of an owner with the same content view. Entries are evicted once the total
+ * size of the cached payloads exceeds the configured number of bytes, or after a time-to-live
+ * elapses. Setting the maximum size to 0 disables the cache.
+ */
+@Singleton
+public class ContentAccessPayloadCache {
+    private static final Logger log = LoggerFactory.getLogger(ContentAccessPayloadCache.class);
+
+    private final Cache<ContentAccessPayloadKey, ContentAccessPayload> cache;
+    private final boolean enabled;
+
+    @Inject
+    public ContentAccessPayloadCache(Configuration config) throws ConfigurationException {
+        Objects.requireNonNull(config);
+
+        long expirationDuration = config.getLong(ConfigProperties.CACHE_CONTENT_ACCESS_PAYLOAD_TTL);
+        if (expirationDuration <= 0) {
+            String msg = ConfigProperties.CACHE_CONTENT_ACCESS_PAYLOAD_TTL + " value must be larger than 0";
+            throw new ConfigurationException(msg);
+        }
+
+        long maxBytes = config.getLong(ConfigProperties.CACHE_CONTENT_ACCESS_PAYLOAD_MAX_BYTES);
+        if (maxBytes < 0) {
+            String msg = ConfigProperties.CACHE_CONTENT_ACCESS_PAYLOAD_MAX_BYTES +
+                " must be larger than or equal to 0";
+            throw new ConfigurationException(msg);
+        }
+
+        this.enabled = maxBytes > 0;
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(expirationDuration))
+            .maximumWeight(maxBytes)
+            .weigher((ContentAccessPayloadKey key, ContentAccessPayload payload) -> payload.size())
+            .removalListener((ContentAccessPayloadKey key, ContentAccessPayload payload,
+                RemovalCause cause) -> {
+
+                if (cause.wasEvicted()) {
+                    log.debug("Content access payload evicted ({}): {}", cause, key);
+                }
+            })
+            .executor(Runnable::run)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Checks if this cache is enabled. When disabled, payloads are never retained.
+     *
+     * @return
+     *  true if the cache is enabled; false otherwise
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Retrieves the cached payload for the provided key.
+     *
+     * @param key
+     *  the key of the content view to retrieve the payload for
+     *
+     * @throws IllegalArgumentException
+     *  if the provided key is null
+     *
+     * @return
+     *  the cached payload, or null if no payload is cached for the given key
+     */
+    public ContentAccessPayload get(ContentAccessPayloadKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("key is null");
+        }
+
+        return this.cache.getIfPresent(key);
+    }
+
+    /**
+     * Inserts a payload into the cache for the provided key. An existing entry in the
+     * cache for the same key will be replaced.
+     *
+     * @param key
+     *  the key of the content view the payload was built for
+     *
+     * @param payload
+     *  the payload to insert into the cache
+     *
+     * @throws IllegalArgumentException
+     *  if the provided key or payload are null
+     */
+    public void put(ContentAccessPayloadKey key, ContentAccessPayload payload) {
+        if (key == null) {
+            throw new IllegalArgumentException("key is null");
+        }
+
+        if (payload == null) {
+            throw new IllegalArgumentException("payload is null");
+        }
+
+        if (this.enabled) {
+            this.cache.put(key, payload);
+        }
+    }
+
+    /**
+     * Removes all cached payloads for the given owner.
+     *
+     * @param ownerId
+     *  the ID of the owner for which to remove cached payloads
+     *
+     * @throws IllegalArgumentException
+     *  if the provided owner ID is null
+     */
+    public void removeForOwner(String ownerId) {
+        if (ownerId == null) {
+            throw new IllegalArgumentException("owner ID is null");
+        }
+
+        this.cache.asMap().keySet().removeIf(key -> ownerId.equals(key.ownerId()));
+    }
+
+    /**
+     * Clears all entries in the cache
+     */
+    public void removeAll() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Fetches a snapshot of the hit, miss and eviction statistics of this cache.
+     *
+     * @return
+     *  the current statistics for this cache
+     */
+    public CacheStats getStats() {
+        return this.cache.stats();
+    }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Identifies a content access payload which may be shared by every consumer with the same content
+ * view. Payloads are keyed by owner, the ordered list of environments the consumer belongs to, the
+ * architecture facts used to filter content, and the owner's last content update, so that any change
+ * to the owner's content or environment promotions results in a new key.
+ */
+public record ContentAccessPayloadKey(String ownerId, List<String> environmentIds, String arch,
+    String supportedArches, long lastContentUpdate) {
+
+    public ContentAccessPayloadKey {
+        Objects.requireNonNull(ownerId);
+        environmentIds = List.copyOf(Objects.requireNonNull(environmentIds));
+    }
+
+}
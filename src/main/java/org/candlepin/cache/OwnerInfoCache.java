@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
+import org.candlepin.config.ConfigurationException;
+import org.candlepin.dto.api.server.v1.OwnerInfo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Function;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+
+
+/**
+ * A thread safe, node-local cache of the aggregate counters reported as owner info. Since the counters
+ * only cover the entities visible to the principal requesting them, entries are keyed by both the owner
+ * and a scope identifying the visibility restrictions they were calculated under.
+ *
+ * Entries expire after a configurable freshness bound, and are dropped early once changes made on this
+ * node to the owner's consumers, entitlements or pools are committed. Changes made on other nodes are
+ * only picked up once the entry expires.
+ */
+@Singleton
+public class OwnerInfoCache {
+
+    /** The key of a cache entry; the scope identifies the visibility restrictions of the entry */
+    private record Key(String ownerId, String scope) {
+    }
+
+    private final Cache<Key, OwnerInfo> cache;
+
+    @Inject
+    public OwnerInfoCache(Configuration config) throws ConfigurationException {
+        Objects.requireNonNull(config);
+
+        long expirationDuration = config.getLong(ConfigProperties.CACHE_OWNER_INFO_TTL);
+        if (expirationDuration < 0) {
+            String msg = ConfigProperties.CACHE_OWNER_INFO_TTL + " must be larger than or equal to 0";
+            throw new ConfigurationException(msg);
+        }
+
+        long maxEntries = config.getLong(ConfigProperties.CACHE_OWNER_INFO_MAX_ENTRIES);
+        if (maxEntries < 0) {
+            String msg = ConfigProperties.CACHE_OWNER_INFO_MAX_ENTRIES + " must be larger than or equal to 0";
+            throw new ConfigurationException(msg);
+        }
+
+        this.cache = expirationDuration > 0 && maxEntries > 0 ?
+            Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(expirationDuration))
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build() :
+            null;
+    }
+
+    /**
+     * Checks whether or not this cache is enabled. A disabled cache never holds any entries.
+     *
+     * @return
+     *  true if this cache is enabled; false otherwise
+     */
+    public boolean isEnabled() {
+        return this.cache != null;
+    }
+
+    /**
+     * Retrieves the cached owner info for the given owner and scope, calculating and caching it with the
+     * provided function if it is not present. Concurrent requests for the same entry wait on a single
+     * calculation.
+     *
+     * @param ownerId
+     *  the ID of the owner for which to fetch owner info
+     *
+     * @param scope
+     *  the visibility scope of the owner info
+     *
+     * @param calculator
+     *  the function to use to calculate the owner info if it is not cached
+     *
+     * @throws IllegalArgumentException
+     *  if the provided owner ID, scope or calculator is null
+     *
+     * @return
+     *  the owner info for the given owner
+     */
+    public OwnerInfo get(String ownerId, String scope, Function<String, OwnerInfo> calculator) {
+        Key key = buildKey(ownerId, scope);
+
+        if (calculator == null) {
+            throw new IllegalArgumentException("calculator is null");
+        }
+
+        return this.cache != null ?
+            this.cache.get(key, k -> calculator.apply(k.ownerId())) :
+            calculator.apply(ownerId);
+    }
+
+    /**
+     * Removes the cached owner info for the given owners, in all scopes.
+     *
+     * @param ownerIds
+     *  the IDs of the owners for which to remove cached owner info
+     */
+    public void invalidate(Collection<String> ownerIds) {
+        if (this.cache != null && ownerIds != null && !ownerIds.isEmpty()) {
+            this.cache.asMap().keySet().removeIf(key -> ownerIds.contains(key.ownerId()));
+        }
+    }
+
+    /**
+     * Clears all entries in the cache
+     */
+    public void removeAll() {
+        if (this.cache != null) {
+            this.cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Fetches the statistics recorded for this cache.
+     *
+     * @return
+     *  the current statistics for this cache, or empty statistics if the cache is disabled
+     */
+    public CacheStats getStats() {
+        return this.cache != null ? this.cache.stats() : CacheStats.empty();
+    }
+
+    private static Key buildKey(String ownerId, String scope) {
+        if (ownerId == null) {
+            throw new IllegalArgumentException("owner ID is null");
+        }
+
+        if (scope == null) {
+            throw new IllegalArgumentException("scope is null");
+        }
+
+        return new Key(ownerId, scope);
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import org.candlepin.model.Consumer;
+import org.candlepin.model.Entitlement;
+import org.candlepin.model.Pool;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+
+
+/**
+ * Hibernate event listener which drops the cached owner info of the owners whose consumers,
+ * entitlements or pools are inserted, updated or deleted, once the transaction making the changes
+ * commits. The owners touched by a session are collected until its transaction completes, so each
+ * transaction invalidates the cache at most once, and rolled back changes leave it untouched.
+ * <p></p>
+ * Bulk HQL statements do not raise entity events; curators issuing such statements against these
+ * entities must invalidate the affected owners themselves.
+ */
+@Singleton
+public class OwnerInfoInvalidationListener implements PostInsertEventListener, PostUpdateEventListener,
+    PostDeleteEventListener {
+
+    private final OwnerInfoCache ownerInfoCache;
+
+    // Sessions are only ever used by a single thread, but the listener is shared by all of them
+    private final Map<EventSource, Set<String>> pendingOwnerIds;
+
+    @Inject
+    public OwnerInfoInvalidationListener(OwnerInfoCache ownerInfoCache) {
+        this.ownerInfoCache = Objects.requireNonNull(ownerInfoCache);
+        this.pendingOwnerIds = Collections.synchronizedMap(new WeakHashMap<>());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        this.recordChange(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        this.recordChange(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        this.recordChange(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void recordChange(EventSource session, Object entity) {
+        if (!this.ownerInfoCache.isEnabled()) {
+            return;
+        }
+
+        String ownerId = getOwnerId(entity);
+        if (ownerId == null) {
+            return;
+        }
+
+        Set<String> ownerIds = this.pendingOwnerIds.get(session);
+        if (ownerIds == null) {
+            ownerIds = new HashSet<>();
+            this.pendingOwnerIds.put(session, ownerIds);
+
+            AfterTransactionCompletionProcess process = (success, completed) ->
+                this.completeTransaction(session, success);
+            session.getActionQueue().registerProcess(process);
+        }
+
+        ownerIds.add(ownerId);
+    }
+
+    private void completeTransaction(EventSource session, boolean success) {
+        Set<String> ownerIds = this.pendingOwnerIds.remove(session);
+
+        if (success && ownerIds != null) {
+            this.ownerInfoCache.invalidate(ownerIds);
+        }
+    }
+
+    private static String getOwnerId(Object entity) {
+        if (entity instanceof Consumer consumer) {
+            return consumer.getOwnerId();
+        }
+
+        if (entity instanceof Entitlement entitlement) {
+            return entitlement.getOwnerId();
+        }
+
+        if (entity instanceof Pool pool) {
+            return pool.getOwnerId();
+        }
+
+        return null;
+    }
+
+}
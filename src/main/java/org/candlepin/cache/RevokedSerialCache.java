@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
+import org.candlepin.config.ConfigurationException;
+import org.candlepin.model.CertificateSerialCurator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/**
+ * An in-memory copy of the certificate revocation list: the serials of all revoked, unexpired
+ * certificates. The serials are held in sorted order as a delta-encoded byte array, which keeps
+ * even very large lists compact, and are shared by all requests through immutable snapshots.
+ * <p>
+ * The list is loaded in full from the database once, and is then kept up to date by merging in the
+ * serials revoked since the previous refresh, which is a cheap, indexed query. By default this check
+ * is made on every request; when a refresh interval is configured, revocations committed through the
+ * {@link CertificateSerialCurator} still invalidate the current snapshot so they are visible on the
+ * next request. As serials which expire are only dropped when the list is next loaded in full, the
+ * list is rebuilt from scratch on a longer interval.
+ */
+@Singleton
+public class RevokedSerialCache {
+    private static final Logger log = LoggerFactory.getLogger(RevokedSerialCache.class);
+
+    /**
+     * The amount of time, in milliseconds, by which each incremental refresh overlaps the previous
+     * one; covers clock skew between nodes and revocations committed after the previous refresh.
+     */
+    private static final long REFRESH_OVERLAP = 300000;
+
+    private final Provider<CertificateSerialCurator> serialCuratorProvider;
+    private final long refreshInterval;
+    private final long rebuildInterval;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean invalidated;
+    private volatile long rebuilt;
+    private volatile long refreshed;
+    private Set<Long> lastDelta = Set.of();
+
+    @Inject
+    public RevokedSerialCache(Configuration config, Provider<CertificateSerialCurator> serialCuratorProvider)
+        throws ConfigurationException {
+
+        Objects.requireNonNull(config);
+        this.serialCuratorProvider = Objects.requireNonNull(serialCuratorProvider);
+
+        this.refreshInterval = config.getLong(ConfigProperties.CACHE_CRL_REFRESH_INTERVAL);
+        if (this.refreshInterval < 0) {
+            String msg = ConfigProperties.CACHE_CRL_REFRESH_INTERVAL + " must be larger than or equal to 0";
+            throw new ConfigurationException(msg);
+        }
+
+        this.rebuildInterval = config.getLong(ConfigProperties.CACHE_CRL_REBUILD_INTERVAL);
+        if (this.rebuildInterval < 0) {
+            String msg = ConfigProperties.CACHE_CRL_REBUILD_INTERVAL + " must be larger than or equal to 0";
+            throw new ConfigurationException(msg);
+        }
+    }
+
+    /**
+     * Fetches a snapshot of the current certificate revocation list, loading or refreshing it from
+     * the database first if it is missing, invalidated, or due for a refresh.
+     *
+     * @return
+     *  a snapshot of the serials of all revoked, unexpired certificates
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = this.snapshot;
+        if (current != null && !this.invalidated && !this.isDue(this.refreshed, this.refreshInterval)) {
+            return current;
+        }
+
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            boolean rebuild = this.snapshot == null || this.isDue(this.rebuilt, this.rebuildInterval);
+
+            if (!rebuild && !this.invalidated && !this.isDue(this.refreshed, this.refreshInterval)) {
+                // Refreshed by another thread while we were waiting
+                return this.snapshot;
+            }
+
+            // Clear the invalidation before querying, so revocations committed during the query
+            // are not lost
+            this.invalidated = false;
+
+            try {
+                CertificateSerialCurator serialCurator = this.serialCuratorProvider.get();
+
+                if (rebuild) {
+                    this.snapshot = Snapshot.EMPTY.merge(serialCurator.listNonExpiredRevokedSerialIds());
+                    this.rebuilt = now;
+                    this.lastDelta = Set.of();
+
+                    log.debug("Loaded {} revoked serial(s) into the certificate revocation list",
+                        this.snapshot.size());
+                }
+                else {
+                    Date since = new Date(this.refreshed - REFRESH_OVERLAP);
+                    Set<Long> delta = new HashSet<>(serialCurator.listRevokedSerialIdsSince(since));
+
+                    // Consecutive refreshes overlap, so only serials missing from the previous refresh
+                    // can be new; this avoids re-encoding the list when nothing has been revoked
+                    List<Long> additions = delta.stream()
+                        .filter(serial -> !this.lastDelta.contains(serial))
+                        .toList();
+
+                    this.snapshot = this.snapshot.merge(additions);
+                    this.lastDelta = delta;
+                }
+
+                this.refreshed = now;
+            }
+            catch (RuntimeException e) {
+                this.invalidated = true;
+                throw e;
+            }
+
+            return this.snapshot;
+        }
+    }
+
+    private boolean isDue(long last, long interval) {
+        return System.currentTimeMillis() - last >= interval;
+    }
+
+    /**
+     * Invalidates the current snapshot, such that the next request for the certificate revocation
+     * list merges in any serials revoked since it was last refreshed. Should be called once the
+     * revocation of one or more serials has been committed.
+     */
+    public void invalidate() {
+        this.invalidated = true;
+    }
+
+    /**
+     * An immutable, sorted set of revoked serials, stored as the variable-length encoded
+     * differences between consecutive serials.
+     */
+    public static final class Snapshot {
+        /** A snapshot containing no serials */
+        public static final Snapshot EMPTY = new Snapshot(new byte[0], 0, 0);
+
+        private final byte[] data;
+        private final int size;
+        private final long last;
+        private String etag;
+
+        private Snapshot(byte[] data, int size, long last) {
+            this.data = data;
+            this.size = size;
+            this.last = last;
+        }
+
+        /**
+         * Fetches the number of serials in this snapshot.
+         *
+         * @return
+         *  the number of serials in this snapshot
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Fetches an entity tag identifying the serials in this snapshot. Snapshots containing the
+         * same serials have the same tag, regardless of the node which built them.
+         *
+         * @return
+         *  an entity tag for this snapshot
+         */
+        public String getETag() {
+            if (this.etag == null) {
+                try {
+                    byte[] digest = MessageDigest.getInstance("SHA-256").digest(this.data);
+                    this.etag = HexFormat.of().formatHex(digest, 0, 16);
+                }
+                catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            return this.etag;
+        }
+
+        /**
+         * Passes each serial in this snapshot to the given consumer, in ascending order.
+         *
+         * @param consumer
+         *  the consumer to receive the serials
+         */
+        public void forEach(LongConsumer consumer) {
+            this.iterator().forEachRemaining(consumer);
+        }
+
+        /**
+         * Fetches the serials in this snapshot as a sorted array.
+         *
+         * @return
+         *  an array containing the serials in this snapshot, in ascending order
+         */
+        public long[] toArray() {
+            long[] serials = new long[this.size];
+            PrimitiveIterator.OfLong iterator = this.iterator();
+
+            for (int i = 0; i < serials.length; ++i) {
+                serials[i] = iterator.nextLong();
+            }
+
+            return serials;
+        }
+
+        /**
+         * Fetches an iterator over the serials in this snapshot, in ascending order.
+         *
+         * @return
+         *  an iterator over the serials in this snapshot
+         */
+        public PrimitiveIterator.OfLong iterator() {
+            return new PrimitiveIterator.OfLong() {
+                private int offset = 0;
+                private int remaining = Snapshot.this.size;
+                private long serial = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return this.remaining > 0;
+                }
+
+                @Override
+                public long nextLong() {
+                    if (this.remaining <= 0) {
+                        throw new NoSuchElementException();
+                    }
+
+                    long value = 0;
+                    int shift = 0;
+                    byte chunk;
+
+                    do {
+                        chunk = Snapshot.this.data[this.offset++];
+                        value |= (long) (chunk & 0x7F) << shift;
+                        shift += 7;
+                    }
+                    while ((chunk & 0x80) != 0);
+
+                    // The first serial is stored in full, zig-zag encoded in case it is negative
+                    this.serial = this.remaining-- == Snapshot.this.size ?
+                        (value >>> 1) ^ -(value & 1) :
+                        this.serial + value;
+
+                    return this.serial;
+                }
+            };
+        }
+
+        /**
+         * Creates a new snapshot containing the serials of this snapshot and the given serials. If
+         * none of the given serials are new, this snapshot is returned.
+         *
+         * @param serials
+         *  the serials to add; may be unsorted and contain duplicates or nulls
+         *
+         * @return
+         *  a snapshot containing the serials of this snapshot and the given serials
+         */
+        public Snapshot merge(Collection<Long> serials) {
+            if (serials == null || serials.isEmpty()) {
+                return this;
+            }
+
+            long[] additions = serials.stream()
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+
+            // Fast path: additions are commonly newer, and thus larger, than every existing serial
+            if (additions.length > 0 && this.size > 0 && additions[0] > this.last) {
+                Encoder encoder = new Encoder(this.data, this.size, this.last);
+                Arrays.stream(additions).forEach(encoder::append);
+
+                return encoder.build();
+            }
+
+            Encoder encoder = new Encoder();
+            PrimitiveIterator.OfLong existing = this.iterator();
+            long current = existing.hasNext() ? existing.nextLong() : 0;
+            boolean hasCurrent = this.size > 0;
+            int index = 0;
+
+            while (hasCurrent || index < additions.length) {
+                if (!hasCurrent || (index < additions.length && additions[index] < current)) {
+                    encoder.append(additions[index++]);
+                }
+                else {
+                    if (index < additions.length && additions[index] == current) {
+                        ++index;
+                    }
+
+                    encoder.append(current);
+                    hasCurrent = existing.hasNext();
+                    current = hasCurrent ? existing.nextLong() : 0;
+                }
+            }
+
+            return encoder.size == this.size ? this : encoder.build();
+        }
+    }
+
+    /**
+     * Builds a snapshot from serials appended in ascending order.
+     */
+    private static class Encoder {
+        private final ByteArrayOutputStream output;
+        private int size;
+        private long last;
+
+        public Encoder() {
+            this.output = new ByteArrayOutputStream();
+        }
+
+        public Encoder(byte[] data, int size, long last) {
+            this.output = new ByteArrayOutputStream(data.length + 64);
+            this.output.write(data, 0, data.length);
+            this.size = size;
+            this.last = last;
+        }
+
+        public void append(long serial) {
+            long value = this.size == 0 ? (serial << 1) ^ (serial >> 63) : serial - this.last;
+
+            while ((value & ~0x7FL) != 0) {
+                this.output.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+
+            this.output.write((int) value);
+            this.last = serial;
+            ++this.size;
+        }
+
+        public Snapshot build() {
+            return new Snapshot(this.output.toByteArray(), this.size, this.last);
+        }
+    }
+}
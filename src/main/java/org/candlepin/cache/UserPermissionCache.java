@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import org.candlepin.auth.permissions.Permission;
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
+import org.candlepin.config.ConfigurationException;
+import org.candlepin.service.model.OwnerInfo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+
+
+/**
+ * A thread safe, node-local cache of the permissions compiled for users while authenticating user
+ * principals. Entries are keyed by username and the role version current at the time they were
+ * compiled.
+ *
+ * The role version is advanced once a change to users or roles made through the user service has
+ * been committed, which makes every previously cached entry unreachable without having to track which
+ * users are affected by a given role. Since the version only advances after the change is visible, an
+ * entry compiled from the old roles is always stored under an older version, and can never be served
+ * after the version has advanced.
+ *
+ * The role version is local to this node; changes committed by other nodes are only picked up once
+ * the affected entries expire. The expiration time is therefore the delay before a revoked permission
+ * stops being honored on other nodes, and the cache is disabled by default. Only users backed by the
+ * default user service are cached, since other user services do not advance the role version.
+ */
+@Singleton
+public class UserPermissionCache {
+
+    /**
+     * The key of a cached entry; the username and the role version the entry was compiled against.
+     */
+    public record Key(String username, long version) {
+    }
+
+    /**
+     * The details of a user needed to build a user principal, along with the permissions compiled
+     * from the roles of that user.
+     */
+    public record Entry(boolean superAdmin, OwnerInfo primaryOwner, List<Permission> permissions) {
+        public Entry {
+            permissions = permissions != null ? List.copyOf(permissions) : List.of();
+        }
+    }
+
+    private final Cache<Key, Entry> cache;
+    private final AtomicLong version;
+
+    @Inject
+    public UserPermissionCache(Configuration config) throws ConfigurationException {
+        Objects.requireNonNull(config);
+
+        long expirationDuration = config.getLong(ConfigProperties.CACHE_USER_PERMISSIONS_TTL);
+        if (expirationDuration < 0) {
+            String msg = ConfigProperties.CACHE_USER_PERMISSIONS_TTL + " must be larger than or equal to 0";
+            throw new ConfigurationException(msg);
+        }
+
+        long maxEntries = config.getLong(ConfigProperties.CACHE_USER_PERMISSIONS_MAX_ENTRIES);
+        if (maxEntries < 0) {
+            String msg = ConfigProperties.CACHE_USER_PERMISSIONS_MAX_ENTRIES +
+                " must be larger than or equal to 0";
+            throw new ConfigurationException(msg);
+        }
+
+        this.cache = expirationDuration > 0 && maxEntries > 0 ?
+            Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(expirationDuration))
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build() :
+            null;
+
+        this.version = new AtomicLong();
+    }
+
+    /**
+     * Checks whether or not this cache is enabled. A disabled cache never holds any entries.
+     *
+     * @return
+     *  true if this cache is enabled; false otherwise
+     */
+    public boolean isEnabled() {
+        return this.cache != null;
+    }
+
+    /**
+     * Fetches the current role version of this cache.
+     *
+     * @return
+     *  the current role version
+     */
+    public long getVersion() {
+        return this.version.get();
+    }
+
+    /**
+     * Retrieves the cached entry for the user with the given username at the current role version,
+     * resolving and caching it with the provided function if it is not present. If the function
+     * returns null, nothing is cached.
+     *
+     * @param username
+     *  the username of the user to fetch
+     *
+     * @param resolver
+     *  the function to use to resolve the entry if it is not cached
+     *
+     * @throws IllegalArgumentException
+     *  if the provided username or resolver is null
+     *
+     * @return
+     *  the entry for the given user, or null if the user could not be resolved
+     */
+    public Entry get(String username, Function<String, Entry> resolver) {
+        if (username == null) {
+            throw new IllegalArgumentException("username is null");
+        }
+
+        if (resolver == null) {
+            throw new IllegalArgumentException("resolver is null");
+        }
+
+        return this.cache != null ?
+            this.cache.get(new Key(username, this.version.get()), key -> resolver.apply(key.username())) :
+            resolver.apply(username);
+    }
+
+    /**
+     * Advances the role version of this cache, invalidating every entry compiled against a previous
+     * version. This should be called whenever a change made to the roles of any user, or to the
+     * permissions granted by any role, has been committed.
+     *
+     * @return
+     *  the new role version
+     */
+    public long invalidateAll() {
+        long updated = this.version.incrementAndGet();
+
+        if (this.cache != null) {
+            // Entries for older versions are no longer reachable; drop them now rather than waiting for
+            // them to be evicted
+            this.cache.asMap().keySet().removeIf(key -> key.version() < updated);
+        }
+
+        return updated;
+    }
+
+    /**
+     * Fetches a snapshot of the statistics of this cache.
+     *
+     * @return
+     *  the current statistics for this cache, or empty statistics if the cache is disabled
+     */
+    public CacheStats getStats() {
+        return this.cache != null ? this.cache.stats() : CacheStats.empty();
+    }
+
+}
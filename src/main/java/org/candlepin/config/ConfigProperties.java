@@ -24,6 +24,7 @@ import org.candlepin.async.tasks.ImportRecordCleanerJob;
 import org.candlepin.async.tasks.InactiveConsumerCleanerJob;
 import org.candlepin.async.tasks.JobCleaner;
 import org.candlepin.async.tasks.ManifestCleanerJob;
+import org.candlepin.async.tasks.PoolQuantityVerificationJob;
 import org.candlepin.async.tasks.UnmappedGuestEntitlementCleanerJob;
 import org.candlepin.guice.CandlepinContextListener;
 
@@ -118,6 +119,34 @@ public class ConfigProperties {
      */
     public static final String AUDIT_FILTER_DEFAULT_POLICY = "candlepin.audit.filter.policy";
 
+    /**
+     * Enables asynchronous event publishing. When enabled, events are handed to an in-memory buffer
+     * once the request or job which emitted them completes, and are published to ActiveMQ in batches
+     * by dedicated publisher threads.
+     */
+    public static final String AUDIT_ASYNC_PUBLISHING_ENABLED = "candlepin.audit.async_publishing.enabled";
+    /**
+     * The maximum number of events held in the asynchronous publishing buffer
+     */
+    public static final String AUDIT_ASYNC_PUBLISHING_BUFFER_SIZE =
+        "candlepin.audit.async_publishing.buffer_size";
+    /**
+     * The maximum number of events published to ActiveMQ in a single transaction
+     */
+    public static final String AUDIT_ASYNC_PUBLISHING_BATCH_SIZE =
+        "candlepin.audit.async_publishing.batch_size";
+    /**
+     * The number of threads publishing buffered events. Events are only published in the order they
+     * were emitted when a single thread is used.
+     */
+    public static final String AUDIT_ASYNC_PUBLISHING_THREADS = "candlepin.audit.async_publishing.threads";
+    /**
+     * How long, in milliseconds, to wait for space in a full buffer before the remaining events are
+     * published directly by the thread which emitted them
+     */
+    public static final String AUDIT_ASYNC_PUBLISHING_OFFER_TIMEOUT =
+        "candlepin.audit.async_publishing.offer_timeout";
+
     public static final String PRETTY_PRINT = "candlepin.pretty_print";
     public static final String ACTIVATION_DEBUG_PREFIX = "candlepin.subscription.activation.debug_prefix";
 
@@ -181,9 +210,107 @@ public class ConfigProperties {
     public static final String CACHE_ANON_CERT_CONTENT_TTL = "candlepin.cache.anonymous.cert.content.ttl";
     public static final String CACHE_ANON_CERT_CONTENT_MAX_ENTRIES =
         "candlepin.cache.anonymous.cert.content.max_entries";
+    public static final String CACHE_CONTENT_ACCESS_PAYLOAD_TTL =
+        "candlepin.cache.content_access.payload.ttl";
+    public static final String CACHE_CONTENT_ACCESS_PAYLOAD_MAX_BYTES =
+        "candlepin.cache.content_access.payload.max_bytes";
+
+    /**
+     * The minimum interval, in milliseconds, between checks for newly revoked serials to merge into the
+     * cached certificate revocation list; 0 checks on every request
+     */
+    public static final String CACHE_CRL_REFRESH_INTERVAL = "candlepin.cache.crl.refresh_interval";
+
+    /**
+     * The interval, in milliseconds, at which the cached certificate revocation list is reloaded in
+     * full, dropping serials which have since expired
+     */
+    public static final String CACHE_CRL_REBUILD_INTERVAL = "candlepin.cache.crl.rebuild_interval";
+
+    /**
+     * How long, in milliseconds, the total number of pools available to a given consumer or activation key
+     * is cached for paged pool listings. Totals are only known once a request has filtered every candidate
+     * pool, so pages filled without doing so are returned without a total unless one is cached; 0
+     * disables the cache
+     */
+    public static final String CACHE_AVAILABLE_POOL_COUNT_TTL = "candlepin.cache.available_pool_count.ttl";
+    public static final String CACHE_AVAILABLE_POOL_COUNT_MAX_ENTRIES =
+        "candlepin.cache.available_pool_count.max_entries";
+
+    /**
+     * The maximum age, in milliseconds, of the owner info served from the owner info cache. Entries are
+     * also dropped once changes made on this node to the owner's consumers, entitlements or pools are
+     * committed, so this bounds how long changes made on other nodes go unnoticed; 0 disables the cache
+     */
+    public static final String CACHE_OWNER_INFO_TTL = "candlepin.cache.owner_info.ttl";
+    public static final String CACHE_OWNER_INFO_MAX_ENTRIES = "candlepin.cache.owner_info.max_entries";
+
+    /**
+     * How long, in milliseconds, the permissions compiled when authenticating a user are cached; 0
+     * disables the cache, and is the default. This is the revocation delay: cached permissions are only
+     * invalidated on the node where roles were changed through the default user service, so a role or
+     * permission removed on one node remains in effect on the other nodes for up to this long.
+     * Permissions from any other user service are never cached.
+     */
+    public static final String CACHE_USER_PERMISSIONS_TTL = "candlepin.cache.user_permissions.ttl";
+    public static final String CACHE_USER_PERMISSIONS_MAX_ENTRIES =
+        "candlepin.cache.user_permissions.max_entries";
 
     public static final String SYNC_WORK_DIR = "candlepin.sync.work_dir";
 
+    /**
+     * The backend used to store manifests awaiting download or import. May be set to "database" to
+     * store them in the database as a series of chunks of the configured size, or "filesystem" to
+     * store them in the configured directory, which should be shared by every node
+     */
+    public static final String MANIFEST_STORAGE = "candlepin.manifest.storage";
+    public static final String MANIFEST_STORAGE_CHUNK_SIZE = "candlepin.manifest.storage.chunk_size";
+    public static final String MANIFEST_STORAGE_DIRECTORY = "candlepin.manifest.storage.directory";
+
+    /**
+     * The engine used to execute the JavaScript rules. Defaults to "standard", which builds a new
+     * context for every rules invocation. May be set to "pooled" to reuse a warm Rhino context and
+     * rules prototype scope across the rules runners of each request or job; rules arguments are still
+     * passed as JSON, so this is experimental and should only be enabled where it has been measured
+     * to help.
+     */
+    public static final String RULES_ENGINE = "candlepin.rules.engine";
+
+    /**
+     * Whether or not consumer compliance should be evaluated by the native Java implementation of
+     * the compliance rules, rather than by the JavaScript rules.
+     */
+    public static final String COMPLIANCE_NATIVE_ENABLED = "candlepin.compliance.native.enabled";
+
+    /**
+     * The number of worker threads used to sign and encode entitlement certificates when several
+     * certificates are generated at once. Values of 1 or less generate every certificate on the
+     * requesting thread.
+     */
+    public static final String ENTITLEMENT_CERT_GENERATION_THREADS =
+        "candlepin.entitlement_cert.generation.threads";
+
+    /**
+     * The number of pre-generated consumer key pairs to keep on hand; 0 disables the key pair pool,
+     * generating every key pair as it is needed.
+     */
+    public static final String PKI_KEYPAIR_POOL_SIZE = "candlepin.pki.keypair_pool.size";
+
+    /** The number of background threads used to refill the key pair pool */
+    public static final String PKI_KEYPAIR_POOL_THREADS = "candlepin.pki.keypair_pool.threads";
+
+    /**
+     * The time, in milliseconds, each refill thread pauses between key pairs; used to limit the CPU
+     * spent refilling the key pair pool.
+     */
+    public static final String PKI_KEYPAIR_POOL_REFILL_DELAY = "candlepin.pki.keypair_pool.refill_delay";
+
+    /**
+     * The maximum time, in milliseconds, to wait for a key pair from an empty key pair pool before
+     * generating one inline.
+     */
+    public static final String PKI_KEYPAIR_POOL_MAX_WAIT = "candlepin.pki.keypair_pool.max_wait";
+
     /**
      *  Controls which facts will be stored by Candlepin -- facts with keys that do not match this
      *  value will be discarded.
@@ -201,6 +328,44 @@ public class ConfigProperties {
     public static final String CONSUMER_SYSTEM_NAME_PATTERN = "candlepin.consumer_system_name_pattern";
     public static final String CONSUMER_PERSON_NAME_PATTERN = "candlepin.consumer_person_name_pattern";
 
+    /**
+     * The interval, in milliseconds, at which coalesced consumer check-ins are written to the database;
+     * 0 writes each check-in as it happens
+     */
+    public static final String CONSUMER_CHECKIN_FLUSH_INTERVAL = "candlepin.consumer.checkin.flush_interval";
+
+    /**
+     * The age, in milliseconds, a consumer's stored check-in time must reach before a new check-in is
+     * recorded; 0 records every check-in
+     */
+    public static final String CONSUMER_CHECKIN_MAX_STALENESS = "candlepin.consumer.checkin.max_staleness";
+
+    /**
+     * The number of hypervisors reconciled per transaction when processing a hypervisor report.
+     * Values of 1 or less reconcile each hypervisor in its own transaction.
+     */
+    public static final String HYPERVISOR_UPDATE_CHUNK_SIZE = "candlepin.hypervisor.update.chunk_size";
+
+    /**
+     * Whether hypervisors whose reported state is unchanged since it was last applied should skip
+     * reconciliation, having only their check-in time updated.
+     */
+    public static final String HYPERVISOR_UPDATE_SKIP_UNCHANGED =
+        "candlepin.hypervisor.update.skip_unchanged";
+
+    /**
+     * Whether binds may reserve quantity from pools that are not near exhaustion with a single
+     * conditional update, rather than locking the pools for the duration of the bind.
+     */
+    public static final String BIND_OPTIMISTIC_RESERVATION = "candlepin.bind.optimistic_reservation";
+
+    /**
+     * The percentage of a pool's quantity that must remain available after a bind for the bind to
+     * reserve quantity from the pool without locking it. Unlimited pools always qualify.
+     */
+    public static final String BIND_OPTIMISTIC_RESERVATION_MIN_HEADROOM =
+        "candlepin.bind.optimistic_reservation.min_headroom";
+
     public static final String PREFIX_WEBURL = "candlepin.export.prefix.weburl";
     public static final String PREFIX_APIURL = "candlepin.export.prefix.apiurl";
     public static final String PASSPHRASE_SECRET_FILE = "candlepin.passphrase.path";
@@ -287,12 +452,27 @@ public class ConfigProperties {
         JobCleaner.JOB_KEY,
         ManifestCleanerJob.JOB_KEY,
         UnmappedGuestEntitlementCleanerJob.JOB_KEY,
-        InactiveConsumerCleanerJob.JOB_KEY
+        InactiveConsumerCleanerJob.JOB_KEY,
+        PoolQuantityVerificationJob.JOB_KEY
     };
 
     // How long (in seconds) to wait for job threads to finish during a graceful Tomcat shutdown
     public static final String ASYNC_JOBS_THREAD_SHUTDOWN_TIMEOUT = "candlepin.async.thread.shutdown.timeout";
 
+    // Execution lanes. Jobs are assigned to a lane using the per-job "lane" configuration; jobs
+    // without a lane run in the default lane, which uses the async thread count and the priority
+    // below. Each named lane is configured using "PREFIX.{lane}.SUFFIX". For instance:
+    // candlepin.async.lanes=maintenance
+    // candlepin.async.lanes.maintenance.threads=2
+    // candlepin.async.lanes.maintenance.priority=2
+    // candlepin.async.jobs.RefreshPoolsJob.lane=maintenance
+    public static final String ASYNC_JOBS_PRIORITY = "candlepin.async.priority";
+    public static final String ASYNC_JOBS_SHARED_THREADS = "candlepin.async.shared_threads";
+    public static final String ASYNC_JOBS_LANES = "candlepin.async.lanes";
+    public static final String ASYNC_JOBS_LANE_THREADS = "threads";
+    public static final String ASYNC_JOBS_LANE_PRIORITY = "priority";
+    public static final String ASYNC_JOBS_JOB_LANE = "lane";
+
     /**
      * Fetches a string representing the prefix for all per-job configuration for the specified job.
      * The job key or class name may be used, but the usage must be consistent.
@@ -330,6 +510,25 @@ public class ConfigProperties {
         return builder.toString();
     }
 
+    /**
+     * Fetches a configuration string for the given configuration for the specified execution lane.
+     *
+     * @param lane
+     *  the name of the lane for which to build the configuration string
+     *
+     * @return
+     *  the configuration string for the given configuration for the specified lane
+     */
+    public static String jobLaneConfig(String lane, String cfgName) {
+        StringBuilder builder = new StringBuilder(ASYNC_JOBS_LANES)
+            .append('.')
+            .append(lane)
+            .append('.')
+            .append(cfgName);
+
+        return builder.toString();
+    }
+
     public static final String ENTITLER_BULK_SIZE = "entitler.bulk.size";
 
     public static final Map<String, String> DEFAULT_PROPERTIES = new HashMap<>() {
@@ -385,10 +584,25 @@ public class ConfigProperties {
 
             this.put(AUDIT_FILTER_DO_FILTER, "");
             this.put(AUDIT_FILTER_DEFAULT_POLICY, "DO_FILTER");
+            this.put(AUDIT_ASYNC_PUBLISHING_ENABLED, "false");
+            this.put(AUDIT_ASYNC_PUBLISHING_BUFFER_SIZE, "10000");
+            this.put(AUDIT_ASYNC_PUBLISHING_BATCH_SIZE, "100");
+            this.put(AUDIT_ASYNC_PUBLISHING_THREADS, "1");
+            this.put(AUDIT_ASYNC_PUBLISHING_OFFER_TIMEOUT, "5000"); // milliseconds
 
             this.put(PRETTY_PRINT, "false");
 
             this.put(SYNC_WORK_DIR, "/var/cache/candlepin/sync");
+            this.put(MANIFEST_STORAGE, "database");
+            this.put(MANIFEST_STORAGE_CHUNK_SIZE, "1048576"); // 1 MiB
+            this.put(MANIFEST_STORAGE_DIRECTORY, "/var/lib/candlepin/manifests");
+            this.put(RULES_ENGINE, "standard");
+            this.put(COMPLIANCE_NATIVE_ENABLED, "false");
+            this.put(ENTITLEMENT_CERT_GENERATION_THREADS, "4");
+            this.put(PKI_KEYPAIR_POOL_SIZE, "16");
+            this.put(PKI_KEYPAIR_POOL_THREADS, "1");
+            this.put(PKI_KEYPAIR_POOL_REFILL_DELAY, "0"); // milliseconds
+            this.put(PKI_KEYPAIR_POOL_MAX_WAIT, "0"); // milliseconds
             this.put(CONSUMER_FACTS_MATCHER, ".*");
             this.put(TRUSTED_AUTHENTICATION, "false");
             this.put(SSL_AUTHENTICATION, "true");
@@ -412,6 +626,16 @@ public class ConfigProperties {
             this.put(CACHE_CONFIG_FILE_URI, "ehcache.xml");
             this.put(CACHE_ANON_CERT_CONTENT_TTL, "120000"); // milliseconds
             this.put(CACHE_ANON_CERT_CONTENT_MAX_ENTRIES, "10000");
+            this.put(CACHE_CONTENT_ACCESS_PAYLOAD_TTL, "3600000"); // milliseconds
+            this.put(CACHE_CONTENT_ACCESS_PAYLOAD_MAX_BYTES, "67108864");
+            this.put(CACHE_CRL_REFRESH_INTERVAL, "0"); // milliseconds
+            this.put(CACHE_CRL_REBUILD_INTERVAL, "3600000"); // milliseconds
+            this.put(CACHE_AVAILABLE_POOL_COUNT_TTL, "30000"); // milliseconds
+            this.put(CACHE_AVAILABLE_POOL_COUNT_MAX_ENTRIES, "10000");
+            this.put(CACHE_OWNER_INFO_TTL, "60000"); // milliseconds
+            this.put(CACHE_OWNER_INFO_MAX_ENTRIES, "1000");
+            this.put(CACHE_USER_PERMISSIONS_TTL, "0"); // milliseconds
+            this.put(CACHE_USER_PERMISSIONS_MAX_ENTRIES, "1000");
 
             this.put(SUSPEND_MODE_ENABLED, "true");
 
@@ -430,6 +654,12 @@ public class ConfigProperties {
             // what constitutes a valid consumer name
             this.put(CONSUMER_SYSTEM_NAME_PATTERN, "[\\#\\?\\'\\`\\!@{}()\\[\\]\\?&\\w-\\.]+");
             this.put(CONSUMER_PERSON_NAME_PATTERN, "[\\#\\?\\'\\`\\!@{}()\\[\\]\\?&\\w-\\.]+");
+            this.put(CONSUMER_CHECKIN_FLUSH_INTERVAL, "0"); // milliseconds
+            this.put(CONSUMER_CHECKIN_MAX_STALENESS, "0"); // milliseconds
+            this.put(HYPERVISOR_UPDATE_CHUNK_SIZE, "250");
+            this.put(HYPERVISOR_UPDATE_SKIP_UNCHANGED, "true");
+            this.put(BIND_OPTIMISTIC_RESERVATION, "false");
+            this.put(BIND_OPTIMISTIC_RESERVATION_MIN_HEADROOM, "10"); // percent
 
             this.put(PREFIX_WEBURL, "localhost:8443/candlepin");
             this.put(PREFIX_APIURL, "localhost:8443/candlepin");
@@ -467,6 +697,9 @@ public class ConfigProperties {
             this.put(ASYNC_JOBS_QUEUE_WHILE_SUSPENDED, "true");
             this.put(ASYNC_JOBS_SCHEDULER_ENABLED, "true");
             this.put(ASYNC_JOBS_THREAD_SHUTDOWN_TIMEOUT, "600"); // 10 minutes
+            this.put(ASYNC_JOBS_PRIORITY, "4");
+            this.put(ASYNC_JOBS_SHARED_THREADS, "0");
+            this.put(ASYNC_JOBS_LANES, "");
 
             this.put(ASYNC_JOBS_DISPATCH_ADDRESS, "job");
             this.put(ASYNC_JOBS_RECEIVE_ADDRESS, "jobs");
@@ -522,6 +755,10 @@ public class ConfigProperties {
             this.put(jobConfig(ManifestCleanerJob.JOB_KEY, ManifestCleanerJob.CFG_MAX_AGE_IN_MINUTES),
                 Integer.toString(ManifestCleanerJob.DEFAULT_MAX_AGE_IN_MINUTES));
 
+            // PoolQuantityVerificationJob
+            this.put(jobConfig(PoolQuantityVerificationJob.JOB_KEY, ASYNC_JOBS_JOB_SCHEDULE),
+                PoolQuantityVerificationJob.DEFAULT_SCHEDULE);
+
             // UnmappedGuestEntitlementCleanerJob
             this.put(jobConfig(UnmappedGuestEntitlementCleanerJob.JOB_KEY, ASYNC_JOBS_JOB_SCHEDULE),
                 UnmappedGuestEntitlementCleanerJob.DEFAULT_SCHEDULE);
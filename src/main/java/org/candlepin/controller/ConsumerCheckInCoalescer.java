@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.controller;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
+import org.candlepin.model.Consumer;
+import org.candlepin.model.ConsumerCurator;
+
+import com.google.inject.persist.UnitOfWork;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+
+
+/**
+ * The ConsumerCheckInCoalescer records consumer check-ins, replacing the single-row update
+ * previously issued for every check-in request.
+ * <p>
+ * When a flush interval is configured, check-ins are held in memory, keeping only the latest
+ * check-in of each consumer, and are periodically written to the database in batches. Pending
+ * check-ins are written when the coalescer is shut down, and may be flushed on demand by operations
+ * which depend on accurate check-in times. Otherwise, each check-in is written immediately.
+ * <p>
+ * When a maximum staleness is configured, check-ins of consumers whose stored check-in time is
+ * more recent than the staleness limit are dropped, as they would not meaningfully change it.
+ */
+@Singleton
+public class ConsumerCheckInCoalescer {
+    private static final Logger log = LoggerFactory.getLogger(ConsumerCheckInCoalescer.class);
+
+    private static final long SHUTDOWN_TIMEOUT = 30;
+
+    private final ConsumerCurator consumerCurator;
+    private final UnitOfWork unitOfWork;
+    private final long maxStaleness;
+    private final ConcurrentMap<String, Date> pending;
+    private final ScheduledExecutorService executor;
+
+    private volatile boolean shutdown;
+
+    @Inject
+    public ConsumerCheckInCoalescer(Configuration config, ConsumerCurator consumerCurator,
+        UnitOfWork unitOfWork) {
+
+        Objects.requireNonNull(config);
+        this.consumerCurator = Objects.requireNonNull(consumerCurator);
+        this.unitOfWork = Objects.requireNonNull(unitOfWork);
+
+        this.maxStaleness = Math.max(0, config.getLong(ConfigProperties.CONSUMER_CHECKIN_MAX_STALENESS));
+        this.pending = new ConcurrentHashMap<>();
+
+        long flushInterval = config.getLong(ConfigProperties.CONSUMER_CHECKIN_FLUSH_INTERVAL);
+        if (flushInterval > 0) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "consumer-checkin-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            this.executor.scheduleWithFixedDelay(this::flushInUnitOfWork, flushInterval, flushInterval,
+                TimeUnit.MILLISECONDS);
+
+            log.info("Consumer check-ins will be written every {}ms", flushInterval);
+        }
+        else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Records a check-in of the given consumer at the current time.
+     *
+     * @param consumer
+     *  the consumer which checked in
+     *
+     * @throws IllegalArgumentException
+     *  if consumer is null or has not been persisted
+     */
+    public void recordCheckIn(Consumer consumer) {
+        this.recordCheckIn(consumer, new Date());
+    }
+
+    /**
+     * Records a check-in of the given consumer at the given time. If check-ins are being coalesced,
+     * the check-in is written by the next flush; otherwise it is written immediately.
+     *
+     * @param consumer
+     *  the consumer which checked in
+     *
+     * @param checkIn
+     *  the time of the check-in
+     *
+     * @throws IllegalArgumentException
+     *  if consumer is null or has not been persisted, or checkIn is null
+     */
+    public void recordCheckIn(Consumer consumer, Date checkIn) {
+        if (consumer == null || consumer.getId() == null) {
+            throw new IllegalArgumentException("consumer is null or has not been persisted");
+        }
+
+        if (checkIn == null) {
+            throw new IllegalArgumentException("checkIn is null");
+        }
+
+        Date lastCheckIn = consumer.getLastCheckin();
+        if (this.maxStaleness > 0 && lastCheckIn != null &&
+            checkIn.getTime() - lastCheckIn.getTime() < this.maxStaleness) {
+            return;
+        }
+
+        if (this.executor == null || this.shutdown) {
+            this.consumerCurator.updateLastCheckin(consumer, checkIn);
+            return;
+        }
+
+        this.pending.merge(consumer.getId(), checkIn, ConsumerCheckInCoalescer::latest);
+    }
+
+    private static Date latest(Date date1, Date date2) {
+        return date1.after(date2) ? date1 : date2;
+    }
+
+    /**
+     * Fetches the number of consumers with check-ins which have not yet been written.
+     *
+     * @return
+     *  the number of consumers with pending check-ins
+     */
+    public int getPendingCount() {
+        return this.pending.size();
+    }
+
+    /**
+     * Writes all pending check-ins to the database. Must be called within an active unit of work.
+     * If the write fails, the check-ins remain pending and are retried by the next flush.
+     *
+     * @return
+     *  the number of consumers updated
+     */
+    public int flush() {
+        if (this.pending.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Date> checkIns = new HashMap<>();
+        for (String consumerId : this.pending.keySet()) {
+            Date checkIn = this.pending.remove(consumerId);
+
+            if (checkIn != null) {
+                checkIns.put(consumerId, checkIn);
+            }
+        }
+
+        try {
+            return this.consumerCurator.updateLastCheckins(checkIns);
+        }
+        catch (RuntimeException e) {
+            checkIns.forEach((consumerId, checkIn) ->
+                this.pending.merge(consumerId, checkIn, ConsumerCheckInCoalescer::latest));
+
+            throw e;
+        }
+    }
+
+    private void flushInUnitOfWork() {
+        if (this.pending.isEmpty()) {
+            return;
+        }
+
+        this.unitOfWork.begin();
+        try {
+            int updated = this.flush();
+            log.debug("Wrote check-ins of {} consumer(s)", updated);
+        }
+        catch (Exception e) {
+            log.error("Unable to write consumer check-ins; retrying with the next flush", e);
+        }
+        finally {
+            this.unitOfWork.end();
+        }
+    }
+
+    /**
+     * Writes any pending check-ins and stops the background flush. Check-ins recorded after
+     * shutdown are written immediately.
+     */
+    public void shutdown() {
+        if (this.executor == null || this.shutdown) {
+            return;
+        }
+
+        this.shutdown = true;
+
+        // Run the final flush on the flush thread, which is not bound to a unit of work
+        this.executor.execute(this::flushInUnitOfWork);
+        this.executor.shutdown();
+
+        try {
+            if (!this.executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                log.warn("Timed out waiting for {} pending consumer check-in(s) to be written",
+                    this.pending.size());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
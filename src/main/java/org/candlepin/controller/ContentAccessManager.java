@@ -17,6 +17,9 @@ package org.candlepin.controller;
 import org.candlepin.audit.EventSink;
 import org.candlepin.cache.AnonymousCertContent;
 import org.candlepin.cache.AnonymousCertContentCache;
+import org.candlepin.cache.ContentAccessPayload;
+import org.candlepin.cache.ContentAccessPayloadCache;
+import org.candlepin.cache.ContentAccessPayloadKey;
 import org.candlepin.config.ConfigProperties;
 import org.candlepin.config.Configuration;
 import org.candlepin.controller.util.ContentPathBuilder;
@@ -55,6 +58,7 @@ import org.candlepin.service.model.ProductContentInfo;
 import org.candlepin.service.model.ProductInfo;
 import org.candlepin.util.Arch;
 import org.candlepin.util.Util;
+import org.candlepin.util.X509Util;
 import org.candlepin.util.X509V3ExtensionUtil;
 
 import com.google.inject.persist.Transactional;
@@ -222,6 +226,7 @@ public class ContentAccessManager {
     private final AnonymousContentAccessCertificateCurator anonContentAccessCertCurator;
     private final ProductServiceAdapter prodAdapter;
     private final AnonymousCertContentCache contentCache;
+    private final ContentAccessPayloadCache payloadCache;
 
     private final boolean standalone;
 
@@ -242,7 +247,8 @@ public class ContentAccessManager {
         AnonymousCloudConsumerCurator anonCloudConsumerCurator,
         AnonymousContentAccessCertificateCurator anonContentAccessCertCurator,
         ProductServiceAdapter prodAdapter,
-        AnonymousCertContentCache contentCache) {
+        AnonymousCertContentCache contentCache,
+        ContentAccessPayloadCache payloadCache) {
 
         this.config = Objects.requireNonNull(config);
         this.pki = Objects.requireNonNull(pki);
@@ -260,6 +266,7 @@ public class ContentAccessManager {
         this.anonContentAccessCertCurator = Objects.requireNonNull(anonContentAccessCertCurator);
         this.prodAdapter = Objects.requireNonNull(prodAdapter);
         this.contentCache = Objects.requireNonNull(contentCache);
+        this.payloadCache = Objects.requireNonNull(payloadCache);
         this.standalone = this.config.getBoolean(ConfigProperties.STANDALONE);
     }
 
@@ -313,15 +320,6 @@ public class ContentAccessManager {
         byte[] pemEncodedKeyPair = this.pki.getPemEncoded(keyPair.getPrivate());
         org.candlepin.model.dto.Product container = createSCAProdContainer(owner, consumer);
 
-        List<Environment> environments = this.environmentCurator.getConsumerEnvironments(consumer);
-        ContentPathBuilder contentPathBuilder = ContentPathBuilder.from(owner, environments);
-        PromotedContent promotedContent = new PromotedContent(contentPathBuilder).withAll(environments);
-
-        Map<org.candlepin.model.Content, Boolean> ownerContent = this.contentCurator
-            .getActiveContentByOwner(owner.getId());
-
-        byte[] payloadBytes = createContentAccessDataPayload(consumer, ownerContent, promotedContent);
-
         ContentAccessCertificate existing = new ContentAccessCertificate();
         existing.setSerial(serial);
         existing.setKeyAsBytes(pemEncodedKeyPair);
@@ -329,7 +327,7 @@ public class ContentAccessManager {
 
         existing.setCert(createX509Cert(consumer.getUuid(), owner, serial, keyPair, container,
             SCA_ENTITLEMENT_TYPE, start, end));
-        existing.setContent(this.createPayloadAndSignature(payloadBytes));
+        existing.setContent(this.getScaPayloadAndSignature(consumer, owner));
         ContentAccessCertificate savedCert = this.contentAccessCertificateCurator.create(existing);
         consumer.setContentAccessCert(savedCert);
         this.consumerCurator.merge(consumer);
@@ -360,19 +358,58 @@ public class ContentAccessManager {
         Date contentUpdate = owner.getLastContentUpdate();
         boolean shouldUpdateContent = !contentUpdate.before(existing.getUpdated());
         if (shouldUpdateContent || isX509CertExpired) {
-            List<Environment> environments = this.environmentCurator.getConsumerEnvironments(consumer);
+            existing.setContent(this.getScaPayloadAndSignature(consumer, owner));
+            this.contentAccessCertificateCurator.saveOrUpdate(existing);
+        }
+
+        return existing;
+    }
+
+    /**
+     * Fetches the signed SCA payload for the given consumer. Consumers of the same owner which share
+     * environments and architecture facts are entitled to the same content, so the product models
+     * describing that content are built once and cached until the owner's content view changes. The
+     * consumer's UUID is added to the cached product models, and the result signed, for each consumer.
+     */
+    private String getScaPayloadAndSignature(Consumer consumer, Owner owner) throws IOException {
+        List<Environment> environments = this.environmentCurator.getConsumerEnvironments(consumer);
+
+        ContentAccessPayloadKey key = null;
+        ContentAccessPayload cached = null;
+        if (this.payloadCache.isEnabled()) {
+            List<String> environmentIds = environments.stream()
+                .map(Environment::getId)
+                .toList();
+
+            key = new ContentAccessPayloadKey(owner.getId(), environmentIds,
+                consumer.getFact(X509Util.ARCH_FACT), consumer.getFact(X509Util.SUPPORTED_ARCH_FACT),
+                owner.getLastContentUpdate().getTime());
+
+            cached = this.payloadCache.get(key);
+        }
+
+        List<org.candlepin.model.dto.Product> productModels;
+        if (cached != null) {
+            log.debug("SCA payload for consumer \"{}\" retrieved from cache", consumer.getUuid());
+            productModels = cached.products();
+        }
+        else {
             ContentPathBuilder contentPathBuilder = ContentPathBuilder.from(owner, environments);
             PromotedContent promotedContent = new PromotedContent(contentPathBuilder).withAll(environments);
 
             Map<org.candlepin.model.Content, Boolean> ownerContent = this.contentCurator
                 .getActiveContentByOwner(owner.getId());
 
-            byte[] payloadBytes = createContentAccessDataPayload(consumer, ownerContent, promotedContent);
-            existing.setContent(this.createPayloadAndSignature(payloadBytes));
-            this.contentAccessCertificateCurator.saveOrUpdate(existing);
+            productModels = createContentAccessProducts(consumer, ownerContent, promotedContent);
         }
 
-        return existing;
+        byte[] payloadBytes = createContentAccessDataPayload(consumer.getUuid(), productModels);
+
+        if (key != null && cached == null) {
+            this.payloadCache.put(key, new ContentAccessPayload(productModels, payloadBytes.length));
+        }
+
+        return this.createPayloadAndSignature(payloadBytes);
     }
 
     private org.candlepin.model.dto.Product createSCAProdContainer(Owner owner, Consumer consumer) {
@@ -506,12 +543,11 @@ public class ContentAccessManager {
         return v3extensionUtil.getByteExtensions(products);
     }
 
-    private byte[] createContentAccessDataPayload(Consumer consumer,
-        Map<org.candlepin.model.Content, Boolean> ownerContent, PromotedContent promotedContent)
-        throws IOException {
+    private List<org.candlepin.model.dto.Product> createContentAccessProducts(Consumer consumer,
+        Map<org.candlepin.model.Content, Boolean> ownerContent, PromotedContent promotedContent) {
 
-        String consumerUuid = consumer != null ? consumer.getUuid() : null;
-        log.info("Generating SCA payload for consumer \"{}\"...", consumerUuid);
+        log.info("Generating SCA payload for consumer \"{}\"...",
+            consumer != null ? consumer.getUuid() : null);
 
         Product engProduct = new Product()
             .setId("content_access")
@@ -519,14 +555,7 @@ public class ContentAccessManager {
 
         ownerContent.forEach(engProduct::addContent);
 
-        Product skuProduct = new Product()
-            .setId("content_access")
-            .setName("Content Access");
-
-        Pool emptyPool = new Pool()
-            .setProduct(skuProduct)
-            .setStartDate(new Date())
-            .setEndDate(new Date());
+        Pool emptyPool = createContentAccessPool();
 
         Entitlement emptyEnt = new Entitlement();
         emptyEnt.setPool(emptyPool);
@@ -535,13 +564,31 @@ public class ContentAccessManager {
         Set<String> entitledProductIds = new HashSet<>();
         entitledProductIds.add("content-access");
 
-        org.candlepin.model.dto.Product productModel = v3extensionUtil.mapProduct(engProduct, skuProduct,
-            promotedContent, consumer, emptyPool, entitledProductIds);
+        org.candlepin.model.dto.Product productModel = v3extensionUtil.mapProduct(engProduct,
+            emptyPool.getProduct(), promotedContent, consumer, emptyPool, entitledProductIds);
 
         List<org.candlepin.model.dto.Product> productModels = new ArrayList<>();
         productModels.add(productModel);
 
-        return v3extensionUtil.createEntitlementDataPayload(productModels, consumerUuid, emptyPool, null);
+        return productModels;
+    }
+
+    private Pool createContentAccessPool() {
+        Product skuProduct = new Product()
+            .setId("content_access")
+            .setName("Content Access");
+
+        return new Pool()
+            .setProduct(skuProduct)
+            .setStartDate(new Date())
+            .setEndDate(new Date());
+    }
+
+    private byte[] createContentAccessDataPayload(String consumerUuid,
+        List<org.candlepin.model.dto.Product> productModels) throws IOException {
+
+        return v3extensionUtil.createEntitlementDataPayload(productModels, consumerUuid,
+            createContentAccessPool(), null);
     }
 
     /**
@@ -821,6 +868,10 @@ public class ContentAccessManager {
         }
 
         owner.syncLastContentUpdate();
+        if (owner.getId() != null) {
+            this.payloadCache.removeForOwner(owner.getId());
+        }
+
         return this.ownerCurator.merge(owner);
     }
 
@@ -947,7 +998,8 @@ public class ContentAccessManager {
         Map<org.candlepin.model.Content, Boolean> activeContent = new HashMap<>();
         contents.forEach(content -> activeContent.put(content, true));
         PromotedContent promotedContent = new PromotedContent(ContentPathBuilder.from(null, null));
-        byte[] data = createContentAccessDataPayload(null, activeContent, promotedContent);
+        byte[] data = createContentAccessDataPayload(null,
+            createContentAccessProducts(null, activeContent, promotedContent));
 
         return createPayloadAndSignature(data);
     }
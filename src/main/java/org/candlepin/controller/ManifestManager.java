@@ -32,6 +32,7 @@ import org.candlepin.model.ConsumerTypeCurator;
 import org.candlepin.model.EntitlementCurator;
 import org.candlepin.model.ImportRecord;
 import org.candlepin.model.Owner;
+import org.candlepin.resource.util.ByteRange;
 import org.candlepin.sync.ConflictOverrides;
 import org.candlepin.sync.ExportCreationException;
 import org.candlepin.sync.ExportResult;
@@ -54,9 +55,11 @@ import org.slf4j.LoggerFactory;
 import org.xnap.commons.i18n.I18n;
 
 import java.io.BufferedOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -71,6 +74,8 @@ import javax.servlet.http.HttpServletResponse;
 public class ManifestManager {
 
     private static Logger log = LoggerFactory.getLogger(ManifestManager.class);
+    private static final int COPY_BUFFER_SIZE = 8192;
+
     private ManifestFileService manifestFileService;
     private Exporter exporter;
     private Importer importer;
@@ -244,11 +249,16 @@ public class ManifestManager {
 
     /**
      * Write the stored manifest file to the specified response output stream and update
-     * the appropriate response data.
+     * the appropriate response data. If a single byte range is requested, and the range
+     * applies to the stored file, only that range is written; otherwise the whole file
+     * is written.
      *
      * @param exportId the id of the manifest file to find.
      * @param exportedConsumerUuid the UUID of the consumer the export was generated for.
+     * @param range the value of the request's Range header, if any.
+     * @param ifRange the value of the request's If-Range header, if any.
      * @param response the response to write the file to.
+     * @return true if the content written reached the end of the file; false otherwise.
      * @throws ManifestFileServiceException if there was an issue getting the file from the service
      * @throws NotFoundException if the manifest file is not found
      * @throws BadRequestException if the manifests target consumer does not match the specified
@@ -256,8 +266,8 @@ public class ManifestManager {
      * @throws IseException if there was an issue writing the file to the response.
      */
     @Transactional
-    public void writeStoredExportToResponse(String exportId, String exportedConsumerUuid,
-        HttpServletResponse response) throws ManifestFileServiceException, NotFoundException,
+    public boolean writeStoredExportToResponse(String exportId, String exportedConsumerUuid, String range,
+        String ifRange, HttpServletResponse response) throws ManifestFileServiceException, NotFoundException,
         BadRequestException, IseException {
         Consumer exportedConsumer = consumerCurator.verifyAndLookupConsumer(exportedConsumerUuid);
 
@@ -281,31 +291,88 @@ public class ManifestManager {
                     exportedConsumer.getUuid()));
         }
 
-        BufferedOutputStream output = null;
-        InputStream input = null;
+        long size = manifest.getSize();
+        String etag = manifest.getDigest() != null ? "\"" + manifest.getDigest() + "\"" : null;
+
+        // A range only applies if the file has not changed since the client fetched the
+        // start of it; otherwise the whole file must be sent again.
+        ByteRange byteRange = ifRange == null || ifRange.equals(etag) ?
+            ByteRange.parse(range, size) :
+            null;
+
         try {
+            if (etag != null) {
+                response.setHeader("ETag", etag);
+            }
+
+            if (size >= 0) {
+                response.setHeader("Accept-Ranges", "bytes");
+            }
+
+            if (byteRange != null && !byteRange.isSatisfiable()) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader("Content-Range", byteRange.toContentRange());
+                response.flushBuffer();
+
+                return false;
+            }
+
             response.setContentType("application/zip");
             response.setHeader("Content-Disposition", "attachment; filename=" + manifest.getName());
 
-            // NOTE: Input and output streams are expected to be closed by their creators.
-            input = manifest.getInputStream();
-            output = new BufferedOutputStream(response.getOutputStream());
-            int data = input.read();
-            while (data != -1) {
-                output.write(data);
-                data = input.read();
+            long offset = 0;
+            long length = size;
+            if (byteRange != null) {
+                offset = byteRange.getStart();
+                length = byteRange.getLength();
+
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", byteRange.toContentRange());
+            }
+
+            if (length >= 0) {
+                response.setContentLengthLong(length);
+            }
+
+            // NOTE: The response output stream is expected to be closed by its creator.
+            BufferedOutputStream output = new BufferedOutputStream(response.getOutputStream());
+            try (InputStream input = manifest.getInputStream(offset)) {
+                if (length >= 0) {
+                    this.copy(input, output, length);
+                }
+                else {
+                    input.transferTo(output);
+                }
             }
             output.flush();
+
+            return byteRange == null || byteRange.isFinal();
         }
         catch (Exception e) {
             // Reset the response data so that a json response can be returned,
             // by RestEasy.
+            response.setStatus(HttpServletResponse.SC_OK);
             response.setContentType("text/json");
             response.setHeader("Content-Disposition", "");
+            response.setHeader("Content-Range", null);
             throw new IseException(i18n.tr("Unable to download manifest: {0}", exportId), e);
         }
     }
 
+    private void copy(InputStream input, OutputStream output, long length) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+
+        for (long remaining = length; remaining > 0;) {
+            int count = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (count < 0) {
+                throw new EOFException("Manifest file ended before the expected size was reached");
+            }
+
+            output.write(buffer, 0, count);
+            remaining -= count;
+        }
+    }
+
     private Consumer validateConsumerForExport(String consumerUuid, String cdnLabel) {
         // FIXME Should this be testing the CdnLabel as well?
         Consumer consumer = consumerCurator.verifyAndLookupConsumer(consumerUuid);
@@ -388,20 +455,76 @@ public class ManifestManager {
     }
 
     /**
-     * Generates an archive of the specified consumer's entitlements.
+     * Generates an archive of the specified consumer's entitlements, writing it directly to the
+     * specified response output stream as it is generated.
      *
      * @param consumer the target consumer
      * @param serials the entitlement serials to export.
-     * @return an archive to the specified consumer's entitlements.
+     * @param response the response to write the archive to.
      * @throws ExportCreationException if the archive could not be created.
      */
-    public File generateEntitlementArchive(Consumer consumer, Set<Long> serials)
-        throws ExportCreationException {
+    public void writeEntitlementArchiveToResponse(Consumer consumer, Set<Long> serials,
+        HttpServletResponse response) throws ExportCreationException {
 
         log.debug("Getting client certificate zip file for consumer: {}", consumer.getUuid());
         poolManager.regenerateDirtyEntitlements(consumer);
 
-        return exporter.getEntitlementExport(consumer, serials);
+        this.writeExportToResponse(consumer, response,
+            output -> exporter.getEntitlementExport(consumer, serials, output));
+    }
+
+    /**
+     * Generates a manifest for the specified consumer, writing it directly to the specified
+     * response output stream as it is generated.
+     *
+     * @param consumerUuid the target consumer's UUID.
+     * @param cdnLabel the CDN label to store in the meta file.
+     * @param webUrl the URL pointing to the manifest's originating web application.
+     * @param apiUrl the API URL pointing to the manifest's originating candlepin API.
+     * @param response the response to write the manifest to.
+     * @throws ExportCreationException when an export fails.
+     */
+    public void writeManifestToResponse(String consumerUuid, String cdnLabel, String webUrl, String apiUrl,
+        HttpServletResponse response) throws ExportCreationException {
+
+        log.info("Exporting consumer {}", consumerUuid);
+
+        Consumer consumer = validateConsumerForExport(consumerUuid, cdnLabel);
+        poolManager.regenerateDirtyEntitlements(consumer);
+
+        this.writeExportToResponse(consumer, response,
+            output -> exporter.getFullExport(consumer, cdnLabel, webUrl, apiUrl, output));
+        sink.queueEvent(eventFactory.exportCreated(consumer));
+    }
+
+    private void writeExportToResponse(Consumer consumer, HttpServletResponse response,
+        ExportWriter writer) throws ExportCreationException {
+
+        response.setContentType("application/zip");
+        response.setHeader("Content-Disposition", "attachment; filename=" +
+            exporter.getExportFileName(consumer));
+
+        try {
+            // NOTE: The response output stream is expected to be closed by its creator.
+            BufferedOutputStream output = new BufferedOutputStream(response.getOutputStream());
+            writer.write(output);
+            output.flush();
+        }
+        catch (IOException e) {
+            this.resetExportResponse(response);
+            throw new ExportCreationException("Unable to create export archive", e);
+        }
+        catch (ExportCreationException e) {
+            this.resetExportResponse(response);
+            throw e;
+        }
+    }
+
+    private void resetExportResponse(HttpServletResponse response) {
+        // Reset the response data so that a json response can be returned by RestEasy, if
+        // nothing has been sent to the client yet.
+        response.setContentType("text/json");
+        response.setHeader("Content-Disposition", "");
     }
 
     /**
@@ -438,4 +561,12 @@ public class ManifestManager {
         return manifestFileService.store(type, targetFile, principalProvider.get().getName(), targetId);
     }
 
+    /**
+     * Writes a generated export to an output stream.
+     */
+    @FunctionalInterface
+    private interface ExportWriter {
+        void write(OutputStream output) throws IOException, ExportCreationException;
+    }
+
 }
@@ -23,6 +23,7 @@ import org.candlepin.audit.EventSink;
 import org.candlepin.bind.BindChainFactory;
 import org.candlepin.bind.PoolOpProcessor;
 import org.candlepin.bind.PoolOperations;
+import org.candlepin.cache.AvailablePoolCountCache;
 import org.candlepin.config.ConfigProperties;
 import org.candlepin.config.Configuration;
 import org.candlepin.controller.refresher.RefreshResult;
@@ -101,6 +102,10 @@ public class PoolManager {
 
     private static final int MAX_ENTITLE_RETRIES = 3;
 
+    /** The bounds on the number of candidate pools loaded and filtered at a time for paged listings */
+    private static final int MIN_POOL_FILTER_CHUNK_SIZE = 32;
+    private static final int MAX_POOL_FILTER_CHUNK_SIZE = 512;
+
     private final I18n i18n;
     private final PoolCurator poolCurator;
     private final EventSink sink;
@@ -120,6 +125,7 @@ public class PoolManager {
     private final PoolOpProcessor poolOpProcessor;
     private final PoolConverter poolConverter;
     private final PoolService poolService;
+    private final AvailablePoolCountCache availablePoolCountCache;
     private final boolean isStandalone;
 
     @Inject
@@ -143,7 +149,8 @@ public class PoolManager {
         BindChainFactory bindChainFactory,
         Provider<RefreshWorker> refreshWorkerProvider,
         PoolOpProcessor poolOpProcessor,
-        PoolConverter poolConverter) {
+        PoolConverter poolConverter,
+        AvailablePoolCountCache availablePoolCountCache) {
 
         this.poolCurator = Objects.requireNonNull(poolCurator);
         this.sink = Objects.requireNonNull(sink);
@@ -164,6 +171,7 @@ public class PoolManager {
         this.poolOpProcessor = Objects.requireNonNull(poolOpProcessor);
         this.poolConverter = Objects.requireNonNull(poolConverter);
         this.poolService = Objects.requireNonNull(poolService);
+        this.availablePoolCountCache = Objects.requireNonNull(availablePoolCountCache);
         this.isStandalone = config.getBoolean(ConfigProperties.STANDALONE);
     }
 
@@ -1410,10 +1418,7 @@ public class PoolManager {
         entitlement.setQuantity(entitlement.getQuantity() + change);
         entitlementCurator.merge(entitlement);
 
-        pool.setConsumed(pool.getConsumed() + change);
-        if (ctype != null && ctype.isManifest()) {
-            pool.setExported(pool.getExported() + change);
-        }
+        pool.applyQuantityChange(change, ctype != null && ctype.isManifest());
         poolCurator.merge(pool);
         consumer.setEntitlementCount(consumer.getEntitlementCount() + change);
 
@@ -1570,6 +1575,14 @@ public class PoolManager {
             filters.addAttributeFilter(Pool.Attributes.DEVELOPMENT_POOL, "!true");
         }
 
+        if (postFilter && pageRequest != null && pageRequest.isPaging()) {
+            List<String> poolIds = this.poolCurator.listAvailableEntitlementPoolIds(consumer, ownerId,
+                (productId != null ? List.of(productId) : null), subscriptionId, activeOn, filters,
+                pageRequest, addFuture, onlyFuture, after);
+
+            return this.pageFilteredPools(consumer, key, includeWarnings, poolIds, pageRequest);
+        }
+
         Page<List<Pool>> page = this.poolCurator.listAvailableEntitlementPools(consumer,
             ownerId, productId, subscriptionId, activeOn, filters, pageRequest, postFilter,
             addFuture, onlyFuture, after);
@@ -1645,6 +1658,113 @@ public class PoolManager {
         return poolCurator.retrieveServiceLevelsForOwner(ownerId, exempt);
     }
 
+    /**
+     * Builds a page of pools available to the given consumer and/or activation key from an ordered
+     * list of candidate pool IDs. Candidates are loaded and run through the rules in chunks, stopping
+     * as soon as the requested page has been filled and one further available pool has been found,
+     * so the cost of fetching a page is bound by the page's position and size rather than the number
+     * of candidates.
+     * <p></p>
+     * The rules can't be evaluated by the database, so the exact number of available pools is only
+     * known once every candidate has been filtered. In that case it is cached for later requests for
+     * the same subject and candidates; otherwise, the cached count is used if present, and the page
+     * is returned without a total if not. Pages without a total always have a next page.
+     */
+    private Page<List<Pool>> pageFilteredPools(Consumer consumer, ActivationKey key,
+        boolean includeWarnings, List<String> poolIds, PageRequest pageRequest) {
+
+        int offset = (pageRequest.getPage() - 1) * pageRequest.getPerPage();
+        int limit = offset + pageRequest.getPerPage();
+
+        List<Pool> pageData = new ArrayList<>();
+        int matched = 0;
+        int scanned = 0;
+
+        while (matched <= limit && scanned < poolIds.size()) {
+            int chunkSize = Math.min(Math.max(limit + 1 - matched, MIN_POOL_FILTER_CHUNK_SIZE),
+                MAX_POOL_FILTER_CHUNK_SIZE);
+            List<String> chunk = poolIds.subList(scanned, Math.min(scanned + chunkSize, poolIds.size()));
+            scanned += chunk.size();
+
+            for (Pool pool : this.filterPoolChunk(consumer, key, includeWarnings, chunk)) {
+                if (matched >= offset && matched < limit) {
+                    pageData.add(pool);
+                }
+
+                ++matched;
+            }
+        }
+
+        String subject = buildPoolCountSubject(consumer, key);
+        Integer count;
+
+        if (scanned >= poolIds.size()) {
+            count = matched;
+            this.availablePoolCountCache.put(subject, includeWarnings, poolIds, count);
+        }
+        else {
+            count = this.availablePoolCountCache.get(subject, includeWarnings, poolIds);
+        }
+
+        Page<List<Pool>> page = new Page<>();
+        page.setPageData(pageData);
+        page.setMaxRecords(count);
+        page.setPageRequest(pageRequest);
+
+        return page;
+    }
+
+    /**
+     * Builds the subject under which the number of pools available to the given consumer and/or
+     * activation key is cached. The subject includes the last update time of the consumer and key,
+     * so changes to them which may affect the outcome of the rules, such as changes to the consumer's
+     * facts, installed products or entitlements, result in a cache miss.
+     */
+    private static String buildPoolCountSubject(Consumer consumer, ActivationKey key) {
+        StringBuilder subject = new StringBuilder();
+
+        if (consumer != null) {
+            subject.append(consumer.getUuid())
+                .append('@')
+                .append(consumer.getUpdated() != null ? consumer.getUpdated().getTime() : 0);
+        }
+
+        subject.append('/');
+
+        if (key != null) {
+            subject.append(key.getId())
+                .append('@')
+                .append(key.getUpdated() != null ? key.getUpdated().getTime() : 0);
+        }
+
+        return subject.toString();
+    }
+
+    private List<Pool> filterPoolChunk(Consumer consumer, ActivationKey key, boolean includeWarnings,
+        List<String> poolIds) {
+
+        Map<String, Pool> poolMap = new HashMap<>();
+        for (Pool pool : this.poolCurator.listAllByIds(poolIds).list()) {
+            poolMap.put(pool.getId(), pool);
+        }
+
+        // Restore the order of the candidates, as the rules preserve the order of the pools they're given
+        List<Pool> pools = poolIds.stream()
+            .map(poolMap::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+
+        if (consumer != null) {
+            pools = enforcer.filterPools(consumer, pools, includeWarnings);
+        }
+
+        if (key != null) {
+            pools = this.filterPoolsForActKey(key, pools, includeWarnings);
+        }
+
+        return pools;
+    }
+
     private List<Pool> filterPoolsForActKey(ActivationKey key,
         List<Pool> pools, boolean includeWarnings) {
         List<Pool> filteredPools = new LinkedList<>();
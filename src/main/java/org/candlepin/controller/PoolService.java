@@ -328,20 +328,16 @@ public class PoolService {
                     // Update quantities if the entitlement quantity is non-zero
                     int quantity = entitlement.getQuantity() != null ? entitlement.getQuantity() : 0;
                     if (quantity != 0) {
-                        // Update the pool quantities if we didn't delete it
+                        // Update the pool quantities if we didn't delete it, including the number
+                        // exported if we're working with a manifest distributor
                         if (affectedPoolIds.contains(pool.getId())) {
-                            pool.setConsumed(pool.getConsumed() - quantity);
+                            ConsumerType ctype = this.consumerTypeCurator.getConsumerType(consumer);
+                            pool.applyQuantityChange(-quantity, ctype != null && ctype.isManifest());
                             poolsToSave.add(pool);
                         }
 
                         // Update entitlement counts for affected consumers...
                         consumer.setEntitlementCount(consumer.getEntitlementCount() - quantity);
-
-                        // Set the number exported if we're working with a manifest distributor
-                        ConsumerType ctype = this.consumerTypeCurator.getConsumerType(consumer);
-                        if (ctype != null && ctype.isManifest()) {
-                            pool.setExported(pool.getExported() - quantity);
-                        }
                     }
                 }
 
@@ -681,13 +677,10 @@ public class PoolService {
             Pool pool = ent.getPool();
             int entQuantity = ent.getQuantity() != null ? ent.getQuantity() : 0;
 
-            pool.setConsumed(pool.getConsumed() - entQuantity);
             Consumer consumer = ent.getConsumer();
             ConsumerType ctype = this.consumerTypeCurator.getConsumerType(consumer);
 
-            if (ctype != null && ctype.isManifest()) {
-                pool.setExported(pool.getExported() - entQuantity);
-            }
+            pool.applyQuantityChange(-entQuantity, ctype != null && ctype.isManifest());
 
             consumer.setEntitlementCount(consumer.getEntitlementCount() - entQuantity);
             consumersToUpdate.add(consumer);
@@ -204,12 +204,17 @@ public class Refresher {
         return this.ownerCurator.merge(owner);
     }
 
+    /**
+     * Recalculates the quantities of all of the owner's pools from their entitlements. Quantities
+     * are maintained incrementally as entitlements change, but not every path which changes them
+     * does so, and this corrects any drift once per refresh.
+     */
     private void recalculatePoolQuantitiesForOwner(Owner owner) {
         this.poolCurator.transactional().allowExistingTransactions().execute((args -> {
-            this.poolCurator.calculateConsumedForOwnersPools(owner);
-            this.poolCurator.calculateExportedForOwnersPools(owner);
+            int corrected = this.poolCurator.recalculatePoolQuantities(owner);
 
-            return String.format("Successfully recalculated quantities for owner: %s %n", owner.getKey());
+            return String.format("Successfully recalculated quantities for owner: %s; %d pool(s) corrected",
+                owner.getKey(), corrected);
         }));
     }
 
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.controller.refresher;
+
+import org.candlepin.service.model.BrandingInfo;
+import org.candlepin.service.model.ContentInfo;
+import org.candlepin.service.model.ProductContentInfo;
+import org.candlepin.service.model.ProductInfo;
+import org.candlepin.util.DigestBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+
+/**
+ * The EntityDigester computes stable content digests for upstream product and content trees. A
+ * product's digest covers its own fields and the digests of its children (provided and derived
+ * products, and content), so two product trees with equal digests are equal all the way down.
+ * <p></p>
+ * Digests are only computed for fully specified trees. Upstream data uses null children
+ * collections to indicate "no change" to the existing children, which cannot be digested without
+ * the existing entity; products with such collections, or with any child lacking a digest, do not
+ * have a digest and are never considered unchanged by digest alone.
+ * <p></p>
+ * Digests are memoized by instance for the lifetime of the digester, so an instance should not be
+ * reused across refresh operations. This class is not thread-safe.
+ */
+public class EntityDigester {
+    private final Map<Object, String> digests;
+
+    /**
+     * Creates a new EntityDigester with an empty digest cache
+     */
+    public EntityDigester() {
+        this.digests = new IdentityHashMap<>();
+    }
+
+    /**
+     * Fetches the digest of the given upstream content. Empty strings are treated as equivalent to
+     * null values for the fields which do so during refresh.
+     *
+     * @param content
+     *  the content for which to compute a digest
+     *
+     * @throws IllegalArgumentException
+     *  if content is null
+     *
+     * @return
+     *  the hex-encoded digest of the given content
+     */
+    public String getDigest(ContentInfo content) {
+        if (content == null) {
+            throw new IllegalArgumentException("content is null");
+        }
+
+        if (this.digests.containsKey(content)) {
+            return this.digests.get(content);
+        }
+
+        String digest = new DigestBuilder()
+            .update("content")
+            .update(content.getId())
+            .update(content.getType())
+            .update(content.getLabel())
+            .update(content.getName())
+            .update(content.getVendor())
+            .update(normalize(content.getContentUrl()))
+            .update(normalize(content.getRequiredTags()))
+            .update(normalize(content.getReleaseVersion()))
+            .update(normalize(content.getGpgUrl()))
+            .update(normalize(content.getArches()))
+            .update(content.getMetadataExpiration())
+            .update(content.getRequiredProductIds())
+            .digest();
+
+        this.digests.put(content, digest);
+        return digest;
+    }
+
+    /**
+     * Fetches the digest of the given upstream product tree. If the product, or any product or
+     * content beneath it, is not fully specified, this method returns null.
+     *
+     * @param product
+     *  the product for which to compute a digest
+     *
+     * @throws IllegalArgumentException
+     *  if product is null
+     *
+     * @return
+     *  the hex-encoded digest of the given product tree, or null if the tree cannot be digested
+     */
+    public String getDigest(ProductInfo product) {
+        if (product == null) {
+            throw new IllegalArgumentException("product is null");
+        }
+
+        if (this.digests.containsKey(product)) {
+            return this.digests.get(product);
+        }
+
+        // Guard against cyclic product graphs; a product cannot be digested through itself
+        this.digests.put(product, null);
+
+        String digest = this.computeDigest(product);
+        this.digests.put(product, digest);
+
+        return digest;
+    }
+
+    private String computeDigest(ProductInfo product) {
+        Collection<? extends ProductInfo> providedProducts = product.getProvidedProducts();
+        Collection<? extends ProductContentInfo> productContent = product.getProductContent();
+
+        if (providedProducts == null || productContent == null) {
+            return null;
+        }
+
+        String derivedDigest = null;
+        if (product.getDerivedProduct() != null) {
+            derivedDigest = this.getDigest(product.getDerivedProduct());
+            if (derivedDigest == null) {
+                return null;
+            }
+        }
+
+        List<String> providedDigests = new ArrayList<>();
+        for (ProductInfo provided : providedProducts) {
+            if (provided == null) {
+                continue;
+            }
+
+            String providedDigest = this.getDigest(provided);
+            if (providedDigest == null) {
+                return null;
+            }
+
+            providedDigests.add(providedDigest);
+        }
+
+        List<String> contentDigests = new ArrayList<>();
+        for (ProductContentInfo pc : productContent) {
+            if (pc == null || pc.getContent() == null) {
+                continue;
+            }
+
+            contentDigests.add(new DigestBuilder()
+                .update(this.getDigest(pc.getContent()))
+                .update(String.valueOf(pc.isEnabled()))
+                .digest());
+        }
+
+        List<String> brandingDigests = null;
+        if (product.getBranding() != null) {
+            brandingDigests = new ArrayList<>();
+
+            for (BrandingInfo branding : product.getBranding()) {
+                if (branding == null) {
+                    continue;
+                }
+
+                brandingDigests.add(new DigestBuilder()
+                    .update(branding.getProductId())
+                    .update(branding.getType())
+                    .update(branding.getName())
+                    .digest());
+            }
+        }
+
+        return new DigestBuilder()
+            .update("product")
+            .update(product.getId())
+            .update(product.getName())
+            .update(product.getMultiplier())
+            .update(product.getAttributes())
+            .update(product.getDependentProductIds())
+            .update(derivedDigest)
+            .update(providedDigests)
+            .update(contentDigests)
+            .update(brandingDigests)
+            .digest();
+    }
+
+    private static String normalize(String value) {
+        return value != null && !value.isEmpty() ? value : null;
+    }
+
+}
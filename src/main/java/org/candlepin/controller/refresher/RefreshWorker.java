@@ -22,6 +22,9 @@ import org.candlepin.controller.refresher.mappers.ContentMapper;
 import org.candlepin.controller.refresher.mappers.NodeMapper;
 import org.candlepin.controller.refresher.mappers.PoolMapper;
 import org.candlepin.controller.refresher.mappers.ProductMapper;
+import org.candlepin.controller.refresher.nodes.ContentNode;
+import org.candlepin.controller.refresher.nodes.EntityNode.NodeState;
+import org.candlepin.controller.refresher.nodes.ProductNode;
 import org.candlepin.controller.refresher.visitors.ContentNodeVisitor;
 import org.candlepin.controller.refresher.visitors.NodeProcessor;
 import org.candlepin.controller.refresher.visitors.PoolNodeVisitor;
@@ -44,8 +47,11 @@ import org.candlepin.util.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -78,6 +84,8 @@ public class RefreshWorker {
     private ProductMapper productMapper;
     private ContentMapper contentMapper;
 
+    private Set<String> unchangedEntityUuids;
+
 
     /**
      * Creates a new RefreshWorker
@@ -93,6 +101,8 @@ public class RefreshWorker {
         this.poolMapper = new PoolMapper();
         this.productMapper = new ProductMapper();
         this.contentMapper = new ContentMapper();
+
+        this.unchangedEntityUuids = new HashSet<>();
     }
 
     /**
@@ -350,6 +360,15 @@ public class RefreshWorker {
             return;
         }
 
+        // Unchanged products have already been given nodes, and their children need not be walked
+        products = products.stream()
+            .filter(product -> !this.unchangedEntityUuids.contains(product.getUuid()))
+            .collect(Collectors.toList());
+
+        if (products.isEmpty()) {
+            return;
+        }
+
         this.productMapper.addExistingEntities(products);
 
         Set<String> productUuids = products.stream()
@@ -377,7 +396,177 @@ public class RefreshWorker {
             return;
         }
 
-        this.contentMapper.addExistingEntities(content);
+        content.stream()
+            .filter(elem -> !this.unchangedEntityUuids.contains(elem.getUuid()))
+            .forEach(this.contentMapper::addExistingEntity);
+    }
+
+    /**
+     * Checks whether or not the imported product with the given ID, and every imported product and
+     * content beneath it, is unchanged since it was last refreshed. A product is unchanged if the
+     * digest of its imported tree matches the digest stored on its existing entity, and all of its
+     * imported children are unchanged as well.
+     *
+     * @param productId
+     *  the ID of the imported product to check
+     *
+     * @param digester
+     *  the digester to use for computing imported product digests
+     *
+     * @param existingProducts
+     *  a mapping of product IDs to the existing products with those IDs
+     *
+     * @param unchangedContentIds
+     *  the IDs of the imported content which has already been found to be unchanged
+     *
+     * @param results
+     *  a mapping of product IDs to previously computed results
+     *
+     * @return
+     *  true if the imported product tree is unchanged; false otherwise
+     */
+    private boolean isProductUnchanged(String productId, EntityDigester digester,
+        Map<String, Product> existingProducts, Set<String> unchangedContentIds,
+        Map<String, Boolean> results) {
+
+        Boolean result = results.get(productId);
+        if (result != null) {
+            return result;
+        }
+
+        // Assume a change while the product is being examined, so cyclic references terminate
+        results.put(productId, false);
+
+        ProductInfo importedEntity = this.productMapper.getImportedEntity(productId);
+        Product existingEntity = existingProducts.get(productId);
+
+        if (importedEntity == null || existingEntity == null || existingEntity.getDigest() == null ||
+            !existingEntity.getDigest().equals(digester.getDigest(importedEntity))) {
+            return false;
+        }
+
+        // Impl note: products with a digest are guaranteed to have non-null children collections
+        List<ProductInfo> children = new ArrayList<>(importedEntity.getProvidedProducts());
+        children.add(importedEntity.getDerivedProduct());
+
+        for (ProductInfo child : children) {
+            if (child != null && !this.isProductUnchanged(child.getId(), digester, existingProducts,
+                unchangedContentIds, results)) {
+
+                return false;
+            }
+        }
+
+        for (ProductContentInfo pc : importedEntity.getProductContent()) {
+            ContentInfo content = pc != null ? pc.getContent() : null;
+
+            if (content != null && !unchangedContentIds.contains(content.getId())) {
+                return false;
+            }
+        }
+
+        results.put(productId, true);
+        return true;
+    }
+
+    /**
+     * Finds the imported products and content which are unchanged since they were last refreshed,
+     * and maps them as pre-processed, unchanged nodes. Nodes for these entities are not built from
+     * their entity trees, and their existing children are not fetched, allowing a refresh without
+     * upstream changes to skip the bulk of the entity graph.
+     *
+     * @param owner
+     *  the organization that will own the created nodes
+     *
+     * @param nodeMapper
+     *  the node mapper in which to map the unchanged nodes
+     *
+     * @param digester
+     *  the digester to use for computing imported entity digests
+     *
+     * @param existingProducts
+     *  a mapping of product IDs to the existing products with those IDs
+     *
+     * @param existingContent
+     *  a mapping of content IDs to the existing content with those IDs
+     *
+     * @return
+     *  the number of entities found to be unchanged
+     */
+    private int mapUnchangedEntities(Owner owner, NodeMapper nodeMapper, EntityDigester digester,
+        Map<String, Product> existingProducts, Map<String, Content> existingContent) {
+
+        Set<String> unchangedContentIds = new HashSet<>();
+
+        for (Map.Entry<String, ? extends ContentInfo> entry : this.getContent().entrySet()) {
+            Content existingEntity = existingContent.get(entry.getKey());
+
+            if (existingEntity != null && existingEntity.getDigest() != null &&
+                existingEntity.getDigest().equals(digester.getDigest(entry.getValue()))) {
+
+                nodeMapper.addNode(new ContentNode(owner, entry.getKey())
+                    .setExistingEntity(existingEntity)
+                    .setImportedEntity(entry.getValue())
+                    .setNodeState(NodeState.UNCHANGED));
+
+                this.unchangedEntityUuids.add(existingEntity.getUuid());
+                unchangedContentIds.add(entry.getKey());
+            }
+        }
+
+        Map<String, Boolean> results = new HashMap<>();
+        int count = unchangedContentIds.size();
+
+        for (Map.Entry<String, ? extends ProductInfo> entry : this.getProducts().entrySet()) {
+            if (this.isProductUnchanged(entry.getKey(), digester, existingProducts, unchangedContentIds,
+                results)) {
+
+                Product existingEntity = existingProducts.get(entry.getKey());
+
+                nodeMapper.addNode(new ProductNode(owner, entry.getKey())
+                    .setExistingEntity(existingEntity)
+                    .setImportedEntity(entry.getValue())
+                    .setNodeState(NodeState.UNCHANGED));
+
+                this.unchangedEntityUuids.add(existingEntity.getUuid());
+                ++count;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Stores the digests of the imported entities on their processed, local representations, so
+     * subsequent refreshes of the same upstream data may skip them entirely.
+     *
+     * @param nodeMapper
+     *  the node mapper containing the processed nodes
+     *
+     * @param digester
+     *  the digester to use for computing imported entity digests
+     */
+    private void updateEntityDigests(NodeMapper nodeMapper, EntityDigester digester) {
+        nodeMapper.getNodeStream()
+            .filter(node -> node.getExistingEntity() != null && node.getImportedEntity() != null)
+            .filter(node -> node.getNodeState() != NodeState.SKIPPED &&
+                node.getNodeState() != NodeState.DELETED)
+            .forEach(node -> {
+                if (node.getExistingEntity() instanceof Product product) {
+                    String digest = digester.getDigest((ProductInfo) node.getImportedEntity());
+
+                    if (!Objects.equals(digest, product.getDigest())) {
+                        product.setDigest(digest);
+                    }
+                }
+                else if (node.getExistingEntity() instanceof Content content) {
+                    String digest = digester.getDigest((ContentInfo) node.getImportedEntity());
+
+                    if (!Objects.equals(digest, content.getDigest())) {
+                        content.setDigest(digest);
+                    }
+                }
+            });
     }
 
     /**
@@ -390,6 +579,7 @@ public class RefreshWorker {
     public RefreshResult execute(Owner owner) {
         Transactional<RefreshResult> block = this.poolCurator.transactional((args) -> {
             NodeMapper nodeMapper = new NodeMapper();
+            EntityDigester digester = new EntityDigester();
 
             NodeFactory nodeFactory = new NodeFactory()
                 .setNodeMapper(nodeMapper)
@@ -415,29 +605,34 @@ public class RefreshWorker {
             this.poolMapper.clearExistingEntities();
             this.productMapper.clearExistingEntities();
             this.contentMapper.clearExistingEntities();
+            this.unchangedEntityUuids.clear();
 
             // Add in our existing entities
             Collection<String> importedProductIds = this.productMapper.getImportedEntities().keySet();
             Collection<String> importedContentIds = this.contentMapper.getImportedEntities().keySet();
 
+            // Fetch the globally namespaced products and content to refresh up front, so we can skip
+            // any entity trees which have not changed upstream before we start walking them.
+            // TODO: FIXME: We don't need to do this on a per-org basis anymore (kind of)!
+            Map<String, Product> products = this.productCurator.getProductsByIds(null, importedProductIds);
+            Map<String, Content> contents = this.contentCurator.getContentsByIds(null, importedContentIds);
+
+            int unchanged = this.mapUnchangedEntities(owner, nodeMapper, digester, products, contents);
+            log.debug("Skipping {} of {} imported entities with unchanged digests", unchanged,
+                importedProductIds.size() + importedContentIds.size());
+
             log.debug("Adding existing subscriptions to mapper...");
             List<Pool> pools = this.poolCurator
                 .listByOwnerAndTypes(owner.getId(), PoolType.NORMAL, PoolType.DEVELOPMENT);
             this.mapExistingPools(pools);
 
-            // Add globally namespaced products and content to refresh.
-            // TODO: FIXME: We don't need to do this on a per-org basis anymore (kind of)!
             log.debug("Adding affected products to mapper for {} product IDs: {}", importedProductIds.size(),
                 importedProductIds);
-            Collection<Product> products = this.productCurator.getProductsByIds(null, importedProductIds)
-                .values();
-            this.mapExistingProducts(products);
+            this.mapExistingProducts(products.values());
 
             log.debug("Adding affected contents to mapper for {} product IDs: {}", importedContentIds.size(),
                 importedContentIds);
-            Collection<Content> contents = this.contentCurator.getContentsByIds(null, importedContentIds)
-                .values();
-            this.mapExistingContent(contents);
+            this.mapExistingContent(contents.values());
 
             // Have our node factory build the node trees
             log.debug("Building entity nodes...");
@@ -448,6 +643,9 @@ public class RefreshWorker {
             log.debug("Processing entity nodes...");
             RefreshResult result = nodeProcessor.processNodes();
 
+            log.debug("Updating entity digests...");
+            this.updateEntityDigests(nodeMapper, digester);
+
             log.debug("Done. Returning refresh worker result");
             return result;
         });
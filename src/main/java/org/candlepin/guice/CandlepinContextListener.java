@@ -19,12 +19,16 @@ import static org.candlepin.config.ConfigProperties.DB_MANAGE_ON_START;
 
 import org.candlepin.async.JobManager;
 import org.candlepin.audit.ActiveMQContextListener;
+import org.candlepin.audit.EventPublisher;
+import org.candlepin.cache.OwnerInfoInvalidationListener;
 import org.candlepin.config.ConfigProperties;
 import org.candlepin.config.Configuration;
 import org.candlepin.config.RyeConfig;
+import org.candlepin.controller.ConsumerCheckInCoalescer;
 import org.candlepin.logging.LoggerContextListener;
 import org.candlepin.logging.LoggingConfigurator;
 import org.candlepin.messaging.CPMContextListener;
+import org.candlepin.pki.impl.KeyPairPool;
 import org.candlepin.resteasy.MethodLocator;
 import org.candlepin.resteasy.ResourceLocatorMap;
 
@@ -186,7 +190,7 @@ public class CandlepinContextListener extends GuiceResteasyBootstrapServletConte
 
     private void initializeSubsystems(Injector injector) throws Exception {
         // Must call super.contextInitialized() before accessing injector
-        insertValidationEventListeners(injector);
+        insertEventListeners(injector);
 
         MethodLocator methodLocator = injector.getInstance(MethodLocator.class);
         methodLocator.init();
@@ -252,6 +256,12 @@ public class CandlepinContextListener extends GuiceResteasyBootstrapServletConte
         // Tear down the job system
         this.jobManager.shutdown();
 
+        // Write any pending consumer check-ins while the database is still available
+        injector.getInstance(ConsumerCheckInCoalescer.class).shutdown();
+
+        // Stop refilling the key pair pool; nothing generates key pairs past this point
+        injector.getInstance(KeyPairPool.class).shutdown();
+
         injector.getInstance(PersistService.class).stop();
         // deregister jdbc driver to avoid warning in tomcat shutdown log
         Enumeration<Driver> drivers = DriverManager.getDrivers();
@@ -266,6 +276,9 @@ public class CandlepinContextListener extends GuiceResteasyBootstrapServletConte
         }
 
         if (config.getBoolean(ACTIVEMQ_ENABLED)) {
+            // Publish any buffered events while the messaging subsystem is still available
+            injector.getInstance(EventPublisher.class).shutdown();
+
             activeMQContextListener.contextDestroyed(injector);
         }
 
@@ -380,10 +393,10 @@ public class CandlepinContextListener extends GuiceResteasyBootstrapServletConte
     /**
      * There's no way to really get Guice to perform injections on stuff that
      * the JpaPersistModule is creating, so we resort to grabbing the EntityManagerFactory
-     * after the fact and adding the Validation EventListener ourselves.
+     * after the fact and adding the Validation and owner info cache EventListeners ourselves.
      * @param injector
      */
-    private void insertValidationEventListeners(Injector injector) {
+    private void insertEventListeners(Injector injector) {
         javax.inject.Provider<EntityManagerFactory> emfProvider =
             injector.getProvider(EntityManagerFactory.class);
         HibernateEntityManagerFactory hibernateEntityManagerFactory =
@@ -398,6 +411,12 @@ public class CandlepinContextListener extends GuiceResteasyBootstrapServletConte
         registry.getEventListenerGroup(EventType.PRE_INSERT).appendListener(listenerProvider.get());
         registry.getEventListenerGroup(EventType.PRE_UPDATE).appendListener(listenerProvider.get());
         registry.getEventListenerGroup(EventType.PRE_DELETE).appendListener(listenerProvider.get());
+
+        OwnerInfoInvalidationListener ownerInfoListener =
+            injector.getInstance(OwnerInfoInvalidationListener.class);
+        registry.getEventListenerGroup(EventType.POST_INSERT).appendListener(ownerInfoListener);
+        registry.getEventListenerGroup(EventType.POST_UPDATE).appendListener(ownerInfoListener);
+        registry.getEventListenerGroup(EventType.POST_DELETE).appendListener(ownerInfoListener);
     }
 
     public enum DBManagementLevel {
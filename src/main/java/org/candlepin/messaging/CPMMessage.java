@@ -68,6 +68,36 @@ public interface CPMMessage {
      */
     boolean isDurable();
 
+    /**
+     * Sets the priority of this message. Messages with a higher priority are delivered before
+     * messages with a lower priority waiting on the same queue. The range of supported priorities
+     * depends on the messaging provider; Artemis supports priorities from 0 to 9.
+     *
+     * @param priority
+     *  the priority to set for this message
+     *
+     * @return
+     *  a reference to this message
+     */
+    CPMMessage setPriority(int priority);
+
+    /**
+     * Fetches the priority of this message.
+     *
+     * @return
+     *  the priority of this message
+     */
+    int getPriority();
+
+    /**
+     * Fetches the time this message was sent, in milliseconds since the epoch. If the message has
+     * not been sent, or the send time is not known, this method returns 0.
+     *
+     * @return
+     *  the time this message was sent, or 0 if the send time is not known
+     */
+    long getTimestamp();
+
 
     // Message details
     /**
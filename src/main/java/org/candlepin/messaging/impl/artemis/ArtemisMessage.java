@@ -108,6 +108,31 @@ public class ArtemisMessage implements CPMMessage {
         return this.message.isDurable();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CPMMessage setPriority(int priority) {
+        this.message.setPriority((byte) priority);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPriority() {
+        return this.message.getPriority();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTimestamp() {
+        return this.message.getTimestamp();
+    }
+
     // CPMMessage setExpiration(long duration);
 
     // boolean hasExpired();
@@ -33,6 +33,7 @@ import org.hibernate.LockOptions;
 import org.hibernate.NaturalIdLoadAccess;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
 import org.hibernate.annotations.QueryHints;
 import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.DetachedCriteria;
@@ -72,6 +73,8 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.From;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
 
 
 
@@ -338,7 +341,7 @@ public abstract class AbstractHibernateCurator<E extends Persisted> {
         return query.getResultList();
     }
 
-    private Order createPagingOrder(PageRequest p) {
+    protected Order createPagingOrder(PageRequest p) {
         String sortBy = (p.getSortBy() == null) ? PageRequest.DEFAULT_SORT_FIELD : p.getSortBy();
         PageRequest.Order order = (p.getOrder() == null) ? PageRequest.DEFAULT_ORDER : p.getOrder();
 
@@ -811,6 +814,44 @@ public abstract class AbstractHibernateCurator<E extends Persisted> {
         return transaction != null && transaction.isActive();
     }
 
+    /**
+     * Runs the given action once the current transaction has been committed, or immediately if the
+     * calling thread is not operating within a transaction. If the transaction is rolled back, the
+     * action is never run.
+     *
+     * @param action
+     *  the action to run once the current transaction has been committed
+     *
+     * @throws IllegalArgumentException
+     *  if action is null
+     */
+    public void runAfterCommit(Runnable action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action is null");
+        }
+
+        Transaction transaction = this.currentSession().getTransaction();
+
+        if (transaction != null && transaction.isActive()) {
+            transaction.registerSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                    // Intentionally left empty
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == Status.STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+        else {
+            action.run();
+        }
+    }
+
     /**
      * Creates a new transactional wrapper from the backing entity manager
      *
@@ -23,8 +23,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.inject.Singleton;
@@ -537,11 +539,7 @@ public class AsyncJobStatusCurator extends AbstractHibernateCurator<AsyncJobStat
         predicates.add(criteriaBuilder.equal(job.get(AsyncJobStatus_.jobKey), jobKey));
 
         // Add the non-terminal state restriction
-        Collection<JobState> states = Arrays.stream(JobState.values())
-            .filter(s -> !s.isTerminal())
-            .collect(Collectors.toSet());
-
-        predicates.add(job.get(AsyncJobStatus_.state).in(states));
+        predicates.add(job.get(AsyncJobStatus_.state).in(getNonTerminalStates()));
 
         // Add the argument restrictions if necessary
         if (arguments != null) {
@@ -572,4 +570,69 @@ public class AsyncJobStatusCurator extends AbstractHibernateCurator<AsyncJobStat
             .getResultList();
     }
 
+    /**
+     * Fetches the values of the given arguments for all jobs in non-terminal states matching the
+     * given job key, mapped by job ID. Jobs which have none of the given arguments are not
+     * included in the output.
+     * <p></p>
+     * This method is designed specifically for testing the unique-by-argument constraint family
+     * against many inbound jobs at once.
+     *
+     * @param jobKey
+     *  the job key to restrict
+     *
+     * @param argumentNames
+     *  the names of the arguments to fetch
+     *
+     * @throws IllegalArgumentException
+     *  if jobKey is null or empty
+     *
+     * @return
+     *  a map containing the values of the given arguments of each matching job, mapped by job ID
+     */
+    public Map<String, Map<String, String>> fetchJobArgumentsByKey(String jobKey,
+        Collection<String> argumentNames) {
+
+        if (jobKey == null || jobKey.isEmpty()) {
+            throw new IllegalArgumentException("jobKey is null or empty");
+        }
+
+        Map<String, Map<String, String>> output = new HashMap<>();
+
+        if (argumentNames == null || argumentNames.isEmpty()) {
+            return output;
+        }
+
+        EntityManager entityManager = this.getEntityManager();
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = criteriaBuilder.createQuery(Object[].class);
+        Root<AsyncJobStatus> job = query.from(AsyncJobStatus.class);
+        MapJoin<AsyncJobStatus, String, String> jobArguments = job.join(AsyncJobStatus_.arguments);
+
+        query.multiselect(job.get(AsyncJobStatus_.id), jobArguments.key(), jobArguments.value())
+            .where(
+                criteriaBuilder.equal(job.get(AsyncJobStatus_.jobKey), jobKey),
+                job.get(AsyncJobStatus_.state).in(getNonTerminalStates()),
+                jobArguments.key().in(argumentNames));
+
+        for (Object[] row : entityManager.createQuery(query).getResultList()) {
+            output.computeIfAbsent((String) row[0], id -> new HashMap<>())
+                .put((String) row[1], (String) row[2]);
+        }
+
+        return output;
+    }
+
+    /**
+     * Fetches the set of job states which are not terminal.
+     *
+     * @return
+     *  the set of non-terminal job states
+     */
+    private static Set<JobState> getNonTerminalStates() {
+        return Arrays.stream(JobState.values())
+            .filter(state -> !state.isTerminal())
+            .collect(Collectors.toSet());
+    }
+
 }
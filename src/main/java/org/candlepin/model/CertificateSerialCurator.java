@@ -14,19 +14,26 @@
  */
 package org.candlepin.model;
 
+import org.candlepin.cache.RevokedSerialCache;
+
 import com.google.inject.persist.Transactional;
 
+import org.hibernate.Transaction;
 import org.hibernate.annotations.QueryHints;
 
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.TimeZone;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
 
 
 /**
@@ -35,8 +42,13 @@ import javax.persistence.Query;
 @Singleton
 public class CertificateSerialCurator extends AbstractHibernateCurator<CertificateSerial> {
 
-    public CertificateSerialCurator() {
+    private final RevokedSerialCache revokedSerialCache;
+
+    @Inject
+    public CertificateSerialCurator(RevokedSerialCache revokedSerialCache) {
         super(CertificateSerial.class);
+
+        this.revokedSerialCache = Objects.requireNonNull(revokedSerialCache);
     }
 
     private Date getExpiryRestriction() {
@@ -155,6 +167,62 @@ public class CertificateSerialCurator extends AbstractHibernateCurator<Certifica
             .getResultList();
     }
 
+    /**
+     * Returns the ids of all unexpired serials revoked on or after the given date. Only serials
+     * revoked through {@link #revokeById(Long)} or {@link #revokeByIds(Collection)} carry their
+     * revocation date.
+     *
+     * @param since
+     *  the date on or after which the serials were revoked
+     *
+     * @return a list of serial ids
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> listRevokedSerialIdsSince(Date since) {
+        String hql = "SELECT s.id" +
+            "    FROM CertificateSerial s" +
+            "    WHERE" +
+            "       s.revoked=true" +
+            "    AND" +
+            "       s.updated >= :since" +
+            "    AND" +
+            "       s.expiration >= :nowDate";
+
+        Query query = this.getEntityManager().createQuery(hql);
+
+        return (List<Long>) query
+            .setParameter("since", Objects.requireNonNull(since))
+            .setParameter("nowDate", new Date())
+            .getResultList();
+    }
+
+    /**
+     * Invalidates the cached certificate revocation list once the current transaction commits, or
+     * immediately if there is no active transaction.
+     */
+    private void invalidateRevokedSerialCache() {
+        Transaction transaction = this.currentSession().getTransaction();
+
+        if (transaction != null && transaction.isActive()) {
+            transaction.registerSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                    // Intentionally left empty
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == Status.STATUS_COMMITTED) {
+                        revokedSerialCache.invalidate();
+                    }
+                }
+            });
+        }
+        else {
+            this.revokedSerialCache.invalidate();
+        }
+    }
+
     /**
      * Revokes serial specified by the given serial id
      *
@@ -166,10 +234,14 @@ public class CertificateSerialCurator extends AbstractHibernateCurator<Certifica
             " SET s.revoked = true, s.updated = :updated" +
             " WHERE s.revoked = false AND s.id = :serial_id";
 
-        this.currentSession().createQuery(query)
+        int updated = this.currentSession().createQuery(query)
             .setParameter("updated", new Date())
             .setParameter("serial_id", serialToRevoke)
             .executeUpdate();
+
+        if (updated > 0) {
+            this.invalidateRevokedSerialCache();
+        }
     }
 
     /**
@@ -184,16 +256,22 @@ public class CertificateSerialCurator extends AbstractHibernateCurator<Certifica
             return 0;
         }
 
-        String query = "UPDATE CertificateSerial s SET s.revoked = true" +
+        String query = "UPDATE CertificateSerial s SET s.revoked = true, s.updated = :updated" +
             " WHERE s.revoked = false AND s.id IN (:serials)";
 
+        Date now = new Date();
         int updated = 0;
         for (Collection<Long> serialsToRevokeBlock : this.partition(serialsToRevoke)) {
             updated += this.currentSession().createQuery(query)
+                .setParameter("updated", now)
                 .setParameter("serials", serialsToRevokeBlock)
                 .executeUpdate();
         }
 
+        if (updated > 0) {
+            this.invalidateRevokedSerialCache();
+        }
+
         return updated;
     }
 
@@ -425,6 +425,7 @@ public class Consumer extends AbstractHibernateObject<Consumer> implements Linka
      */
     public Consumer setName(String name) {
         this.name = name;
+        this.clearHypervisorReportDigest();
         return this;
     }
 
@@ -598,6 +599,7 @@ public class Consumer extends AbstractHibernateObject<Consumer> implements Linka
             this.facts.putAll(facts);
         }
 
+        this.clearHypervisorReportDigest();
         return this;
     }
 
@@ -672,6 +674,7 @@ public class Consumer extends AbstractHibernateObject<Consumer> implements Linka
         }
 
         this.facts.put(name, value);
+        this.clearHypervisorReportDigest();
         return this;
     }
 
@@ -695,6 +698,7 @@ public class Consumer extends AbstractHibernateObject<Consumer> implements Linka
 
         if (this.facts != null && this.facts.containsKey(name)) {
             this.facts.remove(name);
+            this.clearHypervisorReportDigest();
 
             if (this.checkForCloudProfileFacts(Collections.singletonMap(name, null))) {
                 this.updateRHCloudProfileModified();
@@ -898,6 +902,7 @@ public class Consumer extends AbstractHibernateObject<Consumer> implements Linka
         }
 
         this.updateRHCloudProfileModified();
+        this.clearHypervisorReportDigest();
         return this;
     }
 
@@ -915,6 +920,7 @@ public class Consumer extends AbstractHibernateObject<Consumer> implements Linka
 
         if (result) {
             this.updateRHCloudProfileModified();
+            this.clearHypervisorReportDigest();
         }
 
         return result;
@@ -935,6 +941,7 @@ public class Consumer extends AbstractHibernateObject<Consumer> implements Linka
         boolean result = this.guestIds != null && this.guestIds.remove(guestId);
         if (result) {
             this.updateRHCloudProfileModified();
+            this.clearHypervisorReportDigest();
         }
 
         return result;
@@ -1177,6 +1184,16 @@ public class Consumer extends AbstractHibernateObject<Consumer> implements Linka
         this.rhCloudProfileModified = new Date();
     }
 
+    /**
+     * Clears the digest of the last hypervisor report applied to this consumer, if any, so the
+     * next report for it is reconciled in full rather than skipped as unchanged.
+     */
+    private void clearHypervisorReportDigest() {
+        if (this.hypervisorId != null) {
+            this.hypervisorId.setReportDigest(null);
+        }
+    }
+
     public Set<ConsumerActivationKey> getActivationKeys() {
         return this.activationKeys != null ? Collections.unmodifiableSet(this.activationKeys) : Set.of();
     }
@@ -15,6 +15,7 @@
 package org.candlepin.model;
 
 import org.candlepin.auth.Principal;
+import org.candlepin.cache.OwnerInfoCache;
 import org.candlepin.exceptions.BadRequestException;
 import org.candlepin.exceptions.NotFoundException;
 import org.candlepin.guice.PrincipalProvider;
@@ -189,11 +190,13 @@ public class ConsumerCurator extends AbstractHibernateCurator<Consumer> {
     private FactValidator factValidator;
     private Provider<HostCache> cachedHostsProvider;
     private PrincipalProvider principalProvider;
+    private OwnerInfoCache ownerInfoCache;
 
     @Inject
     public ConsumerCurator(EntitlementCurator entitlementCurator, ConsumerTypeCurator consumerTypeCurator,
         DeletedConsumerCurator deletedConsumerCurator, FactValidator factValidator,
-        Provider<HostCache> cachedHostsProvider, PrincipalProvider principalProvider) {
+        Provider<HostCache> cachedHostsProvider, PrincipalProvider principalProvider,
+        OwnerInfoCache ownerInfoCache) {
         super(Consumer.class);
         this.entitlementCurator = entitlementCurator;
         this.consumerTypeCurator = consumerTypeCurator;
@@ -201,6 +204,7 @@ public class ConsumerCurator extends AbstractHibernateCurator<Consumer> {
         this.factValidator = factValidator;
         this.cachedHostsProvider = cachedHostsProvider;
         this.principalProvider = principalProvider;
+        this.ownerInfoCache = ownerInfoCache;
     }
 
     @Transactional
@@ -643,6 +647,50 @@ public class ConsumerCurator extends AbstractHibernateCurator<Consumer> {
             .setTimestamp("date", checkinDate)
             .setParameter("cid", consumer.getId())
             .executeUpdate();
+
+        if (this.ownerInfoCache.isEnabled() && consumer.getOwnerId() != null) {
+            this.runAfterCommit(() -> this.ownerInfoCache.invalidate(List.of(consumer.getOwnerId())));
+        }
+    }
+
+    /**
+     * Updates the last check-in times of many consumers in batches. Check-in times are truncated to
+     * the second so consumers checking in at around the same time are updated together, and never
+     * move a consumer's check-in time backwards.
+     *
+     * @param checkins
+     *     a mapping of consumer IDs to their latest check-in times
+     *
+     * @return
+     *     the number of consumers updated
+     */
+    @Transactional
+    public int updateLastCheckins(Map<String, Date> checkins) {
+        if (checkins == null || checkins.isEmpty()) {
+            return 0;
+        }
+
+        Map<Date, List<String>> consumerIdsByCheckin = new HashMap<>();
+        checkins.forEach((consumerId, checkin) -> consumerIdsByCheckin
+            .computeIfAbsent(new Date(checkin.getTime() / 1000 * 1000), key -> new ArrayList<>())
+            .add(consumerId));
+
+        this.invalidateOwnerInfo(checkins.keySet());
+
+        String hql = "UPDATE Consumer c SET c.lastCheckin = :date, c.updated = :date " +
+            "WHERE c.id IN (:cids) AND (c.lastCheckin IS NULL OR c.lastCheckin < :date)";
+
+        int updated = 0;
+        for (Entry<Date, List<String>> entry : consumerIdsByCheckin.entrySet()) {
+            for (List<String> block : Iterables.partition(entry.getValue(), this.getBatchBlockSize())) {
+                updated += this.currentSession().createQuery(hql)
+                    .setParameter("date", entry.getKey())
+                    .setParameter("cids", block)
+                    .executeUpdate();
+            }
+        }
+
+        return updated;
     }
 
     @Transactional
@@ -680,6 +728,15 @@ public class ConsumerCurator extends AbstractHibernateCurator<Consumer> {
             .setParameter("reporter", reporterId)
             .setParameter("ownerKey", ownerKey)
             .executeUpdate();
+
+        if (this.ownerInfoCache.isEnabled()) {
+            List<String> ownerIds = this.getEntityManager()
+                .createQuery("SELECT o.id FROM Owner o WHERE o.key = :owner_key", String.class)
+                .setParameter("owner_key", ownerKey)
+                .getResultList();
+
+            this.runAfterCommit(() -> this.ownerInfoCache.invalidate(ownerIds));
+        }
     }
 
     /**
@@ -1045,6 +1102,141 @@ public class ConsumerCurator extends AbstractHibernateCurator<Consumer> {
         return found;
     }
 
+    /**
+     * Fetches the consumers of the given owner whose dmi.system.uuid fact matches one of the given
+     * system UUIDs. UUIDs are matched case-insensitively; where several consumers report the same
+     * system UUID, the most recently updated consumer is returned. This is the bulk counterpart of
+     * the system UUID lookup performed by {@link #getExistingConsumerByHypervisorIdOrUuid}. The
+     * consumers returned by this method are not locked.
+     *
+     * @param ownerId
+     *     the ID of the owner to which the lookup should be scoped
+     *
+     * @param systemUuids
+     *     a collection of system UUIDs to look up
+     *
+     * @return a mapping of lower-cased system UUIDs to the matching consumers
+     */
+    @Transactional
+    public Map<String, Consumer> getConsumersBySystemUuids(String ownerId, Collection<String> systemUuids) {
+        Map<String, Consumer> output = new HashMap<>();
+
+        if (ownerId == null || systemUuids == null || systemUuids.isEmpty()) {
+            return output;
+        }
+
+        String sql = "select cp_consumer.id, lower(cp_consumer_facts.element) from cp_consumer " +
+            "join cp_consumer_facts on cp_consumer.id = cp_consumer_facts.cp_consumer_id " +
+            "where cp_consumer_facts.mapkey = :fact_key and " +
+            "lower(cp_consumer_facts.element) in (:uuids) " +
+            "and cp_consumer.owner_id = :ownerId " +
+            "order by cp_consumer.updated desc";
+
+        Query query = this.currentSession()
+            .createSQLQuery(sql)
+            .setParameter("fact_key", Consumer.Facts.DMI_SYSTEM_UUID)
+            .setParameter("ownerId", ownerId);
+
+        Set<String> sanitized = systemUuids.stream()
+            .filter(Objects::nonNull)
+            .map(String::toLowerCase)
+            .collect(Collectors.toSet());
+
+        // Rows are ordered by descending update time, so the first consumer for a UUID is the latest
+        Map<String, String> consumerIds = new HashMap<>();
+        for (List<String> block : Iterables.partition(sanitized, getInBlockSize())) {
+            List<Object[]> rows = query.setParameterList("uuids", block).list();
+
+            for (Object[] row : rows) {
+                consumerIds.putIfAbsent((String) row[1], (String) row[0]);
+            }
+        }
+
+        if (!consumerIds.isEmpty()) {
+            Map<String, Consumer> consumers = this.getConsumers(new HashSet<>(consumerIds.values()))
+                .stream()
+                .collect(Collectors.toMap(Consumer::getId, consumer -> consumer));
+
+            consumerIds.forEach((uuid, consumerId) -> {
+                Consumer consumer = consumers.get(consumerId);
+
+                if (consumer != null) {
+                    output.put(uuid, consumer);
+                }
+            });
+        }
+
+        return output;
+    }
+
+    /**
+     * The state of a hypervisor consumer needed to recognize and acknowledge an unchanged hypervisor
+     * report without loading the consumer itself.
+     *
+     * @param consumerId
+     *     the ID of the hypervisor consumer
+     *
+     * @param uuid
+     *     the UUID of the hypervisor consumer
+     *
+     * @param name
+     *     the name of the hypervisor consumer
+     *
+     * @param reportDigest
+     *     the digest of the last hypervisor report applied to the consumer
+     */
+    public record HypervisorReportState(String consumerId, String uuid, String name, String reportDigest) {
+    }
+
+    /**
+     * Fetches the report state of the consumers of the given owner and type matching one of the
+     * given hypervisor IDs. Only consumers which still reflect the last report applied to them, and
+     * therefore have a report digest, are included. The consumers are neither loaded nor locked.
+     *
+     * @param ownerId
+     *     the ID of the owner to which the lookup should be scoped
+     *
+     * @param typeId
+     *     the ID of the consumer type the consumers must have
+     *
+     * @param hypervisorIds
+     *     a collection of hypervisor IDs to look up
+     *
+     * @return a mapping of lower-cased hypervisor IDs to the report state of their consumers
+     */
+    public Map<String, HypervisorReportState> getHypervisorReportStates(String ownerId, String typeId,
+        Collection<String> hypervisorIds) {
+
+        Map<String, HypervisorReportState> output = new HashMap<>();
+
+        if (ownerId == null || typeId == null || hypervisorIds == null || hypervisorIds.isEmpty()) {
+            return output;
+        }
+
+        String jpql = "SELECT hid.hypervisorId, c.id, c.uuid, c.name, hid.reportDigest " +
+            "FROM HypervisorId hid JOIN hid.consumer c " +
+            "WHERE hid.owner.id = :owner_id AND c.typeId = :type_id " +
+            "AND hid.reportDigest IS NOT NULL AND hid.hypervisorId IN (:hypervisor_ids)";
+
+        TypedQuery<Object[]> query = this.getEntityManager().createQuery(jpql, Object[].class)
+            .setParameter("owner_id", ownerId)
+            .setParameter("type_id", typeId);
+
+        Set<String> sanitized = hypervisorIds.stream()
+            .filter(Objects::nonNull)
+            .map(String::toLowerCase)
+            .collect(Collectors.toSet());
+
+        for (List<String> block : this.partition(sanitized)) {
+            for (Object[] row : query.setParameter("hypervisor_ids", block).getResultList()) {
+                output.put((String) row[0], new HypervisorReportState((String) row[1], (String) row[2],
+                    (String) row[3], (String) row[4]));
+            }
+        }
+
+        return output;
+    }
+
     /**
      * Retrieves the identity Certificate ids for the provided consumer ids.
      *
@@ -1148,6 +1340,8 @@ public class ConsumerCurator extends AbstractHibernateCurator<Consumer> {
             return 0;
         }
 
+        this.invalidateOwnerInfo(consumerIds);
+
         entityManager.get()
             .createQuery("DELETE Consumer WHERE id IN (:consumerIds)")
             .setParameter("consumerIds", consumerIds)
@@ -1815,6 +2009,8 @@ public class ConsumerCurator extends AbstractHibernateCurator<Consumer> {
             WHERE c.id IN (:consumers)
             """;
 
+        this.invalidateOwnerInfo(consumerIds, newOwner.getId());
+
         for (Collection<String> consumersBlock : this.partition(consumerIds)) {
             this.currentSession().createQuery(query)
                 .setParameter("ownerId", newOwner.getId())
@@ -1823,6 +2019,29 @@ public class ConsumerCurator extends AbstractHibernateCurator<Consumer> {
         }
     }
 
+    /**
+     * Drops the cached owner info of the current owners of the given consumers, and of any additional
+     * owners, once the current transaction commits. Bulk statements do not raise the entity events
+     * which would otherwise invalidate the owner info, so this must be called before the consumers are
+     * updated, deleted or moved by such a statement.
+     */
+    private void invalidateOwnerInfo(Collection<String> consumerIds, String... additionalOwnerIds) {
+        if (!this.ownerInfoCache.isEnabled()) {
+            return;
+        }
+
+        Set<String> ownerIds = new HashSet<>(Arrays.asList(additionalOwnerIds));
+        TypedQuery<String> query = this.getEntityManager()
+            .createQuery("SELECT DISTINCT c.ownerId FROM Consumer c WHERE c.id IN (:consumer_ids)",
+                String.class);
+
+        for (Collection<String> block : this.partition(consumerIds)) {
+            ownerIds.addAll(query.setParameter("consumer_ids", block).getResultList());
+        }
+
+        this.runAfterCommit(() -> this.ownerInfoCache.invalidate(ownerIds));
+    }
+
     public Collection<String> lockAndLoadIds(Collection<? extends Serializable> ids) {
         if (ids == null || ids.isEmpty()) {
             return new ArrayList<>();
@@ -134,6 +134,12 @@ public class Content extends AbstractHibernateObject implements SharedEntity, Cl
     @Size(max = 255)
     private String arches;
 
+    // Digest of the upstream content this content was last refreshed from; maintained by the
+    // refresher and deliberately excluded from equality and hashing
+    @Column(name = "digest", nullable = true)
+    @Size(max = 64)
+    private String digest;
+
     /**
      * Default constructor
      */
@@ -548,6 +554,31 @@ public class Content extends AbstractHibernateObject implements SharedEntity, Cl
         return this.arches != null && !this.arches.isEmpty() ? this.arches : null;
     }
 
+    /**
+     * Fetches the digest of the upstream content from which this content was last refreshed. If
+     * this content has not been refreshed from an upstream source, this method returns null.
+     *
+     * @return
+     *  the upstream digest of this content, or null if this content does not have a digest
+     */
+    public String getDigest() {
+        return this.digest;
+    }
+
+    /**
+     * Sets the digest of the upstream content from which this content was last refreshed.
+     *
+     * @param digest
+     *  the upstream digest to assign to this content, or null to clear the digest
+     *
+     * @return
+     *  a reference to this content instance
+     */
+    public Content setDigest(String digest) {
+        this.digest = digest;
+        return this;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
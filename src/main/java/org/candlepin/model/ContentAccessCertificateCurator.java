@@ -106,8 +106,10 @@ public class ContentAccessCertificateCurator extends AbstractHibernateCurator<Co
      * @return the number of serials that were marked as revoked.
      */
     private int revokeCertificateSerials(Set<Long> serialIdsToRevoke) {
-        String revokeHql = "UPDATE CertificateSerial SET revoked = true WHERE id IN (:serialsToRevoke)";
-        Query revokeQuery = this.getEntityManager().createQuery(revokeHql);
+        String revokeHql = "UPDATE CertificateSerial SET revoked = true, updated = :updated " +
+            "WHERE id IN (:serialsToRevoke)";
+        Query revokeQuery = this.getEntityManager().createQuery(revokeHql)
+            .setParameter("updated", new Date());
         int revokedCount = 0;
         for (List<Long> block : Iterables.partition(serialIdsToRevoke, getInBlockSize())) {
             revokedCount += revokeQuery.setParameter("serialsToRevoke", block).executeUpdate();
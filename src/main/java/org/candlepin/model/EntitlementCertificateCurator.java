@@ -20,7 +20,9 @@ import org.hibernate.criterion.Restrictions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,6 +33,7 @@ import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 
 
 
@@ -67,6 +70,46 @@ public class EntitlementCertificateCurator extends AbstractHibernateCurator<Enti
             .list();
     }
 
+    /**
+     * Fetches the unexpired entitlement certificates of the given consumer with one of the given
+     * serial ids. Unlike {@link #listForConsumer(Consumer)}, only the certificates matching the
+     * serials are loaded, making this suitable for clients requesting a few certificates at a time.
+     *
+     * @param consumer
+     *  the consumer for which to fetch entitlement certificates
+     *
+     * @param serialIds
+     *  the serial ids of the certificates to fetch
+     *
+     * @return
+     *  the consumer's unexpired entitlement certificates with one of the given serial ids
+     */
+    @Transactional
+    public List<EntitlementCertificate> listForConsumer(Consumer consumer, Collection<Long> serialIds) {
+        if (consumer == null || serialIds == null || serialIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String jpql = "SELECT ec FROM EntitlementCertificate ec " +
+            "JOIN ec.entitlement e " +
+            "JOIN e.pool p " +
+            "WHERE e.consumer.id = :consumer_id " +
+            "AND p.endDate >= :now " +
+            "AND ec.serial.id IN (:serial_ids)";
+
+        TypedQuery<EntitlementCertificate> query = this.getEntityManager()
+            .createQuery(jpql, EntitlementCertificate.class)
+            .setParameter("consumer_id", consumer.getId())
+            .setParameter("now", new Date());
+
+        List<EntitlementCertificate> output = new ArrayList<>();
+        for (List<Long> block : this.partition(serialIds)) {
+            output.addAll(query.setParameter("serial_ids", block).getResultList());
+        }
+
+        return output;
+    }
+
     @Transactional
     public void delete(EntitlementCertificate cert) {
         // make sure to delete it! else get ready to face
@@ -155,8 +198,10 @@ public class EntitlementCertificateCurator extends AbstractHibernateCurator<Enti
     }
 
     private int revokeCertificateSerials(Set<Long> serials) {
-        String ujpql = "UPDATE CertificateSerial cs SET cs.revoked = true WHERE cs.id IN :csids";
-        Query updater = this.getEntityManager().createQuery(ujpql);
+        String ujpql = "UPDATE CertificateSerial cs SET cs.revoked = true, cs.updated = :updated " +
+            "WHERE cs.id IN :csids";
+        Query updater = this.getEntityManager().createQuery(ujpql)
+            .setParameter("updated", new Date());
 
         int revoked = 0;
         for (List<Long> block : this.partition(serials)) {
@@ -14,6 +14,7 @@
  */
 package org.candlepin.model;
 
+import org.candlepin.cache.OwnerInfoCache;
 import org.candlepin.paging.Page;
 import org.candlepin.paging.PageRequest;
 
@@ -46,6 +47,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
@@ -68,16 +70,19 @@ public class EntitlementCurator extends AbstractHibernateCurator<Entitlement> {
 
     private final ConsumerTypeCurator consumerTypeCurator;
     private final CandlepinQueryFactory cpQueryFactory;
+    private final OwnerInfoCache ownerInfoCache;
 
     /**
      * default ctor
      */
     @Inject
-    public EntitlementCurator(ConsumerTypeCurator consumerTypeCurator, CandlepinQueryFactory cpQueryFactory) {
+    public EntitlementCurator(ConsumerTypeCurator consumerTypeCurator, CandlepinQueryFactory cpQueryFactory,
+        OwnerInfoCache ownerInfoCache) {
         super(Entitlement.class);
 
         this.consumerTypeCurator = Objects.requireNonNull(consumerTypeCurator);
         this.cpQueryFactory = Objects.requireNonNull(cpQueryFactory);
+        this.ownerInfoCache = Objects.requireNonNull(ownerInfoCache);
     }
 
     // TODO: handles addition of new entitlements only atm!
@@ -943,7 +948,23 @@ public class EntitlementCurator extends AbstractHibernateCurator<Entitlement> {
             Query query = this.getEntityManager().createQuery(jpql);
 
             int blockSize = Math.min(this.getInBlockSize(), this.getQueryParameterLimit());
-            for (List<String> block : Iterables.partition(entitlementIds, blockSize)) {
+            Iterable<List<String>> blocks = Iterables.partition(entitlementIds, blockSize);
+
+            // The bulk delete does not raise the entity events which would otherwise invalidate the
+            // cached owner info of the affected owners
+            if (this.ownerInfoCache.isEnabled()) {
+                Set<String> ownerIds = new HashSet<>();
+                String ownerJpql = "SELECT DISTINCT e.owner.id FROM Entitlement e WHERE e.id IN (:eids)";
+                TypedQuery<String> ownerQuery = this.getEntityManager().createQuery(ownerJpql, String.class);
+
+                for (List<String> block : blocks) {
+                    ownerIds.addAll(ownerQuery.setParameter("eids", block).getResultList());
+                }
+
+                this.runAfterCommit(() -> this.ownerInfoCache.invalidate(ownerIds));
+            }
+
+            for (List<String> block : blocks) {
                 deleted += query.setParameter("eids", block)
                     .executeUpdate();
             }
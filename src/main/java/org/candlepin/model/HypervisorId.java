@@ -68,6 +68,10 @@ public class HypervisorId extends AbstractHibernateObject {
     @Size(max = 255)
     private String reporterId;
 
+    @Column(name = "report_digest")
+    @Size(max = 64)
+    private String reportDigest;
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(nullable = false, unique = true)
     @NotNull
@@ -139,6 +143,30 @@ public class HypervisorId extends AbstractHibernateObject {
         return this;
     }
 
+    /**
+     * Fetches the digest of the last hypervisor report applied to this hypervisor. The digest is
+     * cleared whenever the hypervisor's consumer is modified, so a non-null digest indicates the
+     * consumer still reflects the report it was computed from.
+     *
+     * @return
+     *  the digest of the last report applied to this hypervisor, or null if the consumer has been
+     *  modified since
+     */
+    public String getReportDigest() {
+        return reportDigest;
+    }
+
+    /**
+     * @param reportDigest the digest of the hypervisor report applied to this hypervisor
+     *
+     * @return
+     *  a reference to this HypervisorId
+     */
+    public HypervisorId setReportDigest(String reportDigest) {
+        this.reportDigest = reportDigest;
+        return this;
+    }
+
     /**
      * @return the consumer
      */
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+
+
+/**
+ * A fixed-size portion of the data of a {@link ManifestFileRecord}. Stored manifests are split into
+ * a series of chunks so that no single read or write needs to hold more than one chunk in memory.
+ */
+@Entity
+@IdClass(ManifestFileChunk.ChunkId.class)
+@Table(name = ManifestFileChunk.DB_TABLE)
+public class ManifestFileChunk {
+
+    /** Name of the table backing this object in the database */
+    public static final String DB_TABLE = "cp_manifest_file_chunk";
+
+    /**
+     * The composite identifier of a chunk: the ID of the file it belongs to, and its position
+     * within that file.
+     */
+    public static class ChunkId implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String fileId;
+        private int chunkIndex;
+
+        public ChunkId() {
+            // For hibernate.
+        }
+
+        public ChunkId(String fileId, int chunkIndex) {
+            this.fileId = fileId;
+            this.chunkIndex = chunkIndex;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof ChunkId)) {
+                return false;
+            }
+
+            ChunkId that = (ChunkId) obj;
+            return this.chunkIndex == that.chunkIndex && Objects.equals(this.fileId, that.fileId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.fileId, this.chunkIndex);
+        }
+    }
+
+    @Id
+    @Column(name = "file_id", length = 32)
+    @NotNull
+    private String fileId;
+
+    @Id
+    @Column(name = "chunk_index")
+    private int chunkIndex;
+
+    @Column(name = "data", nullable = false)
+    @NotNull
+    private byte[] data;
+
+    public ManifestFileChunk() {
+        // For hibernate.
+    }
+
+    public ManifestFileChunk(String fileId, int chunkIndex, byte[] data) {
+        this.fileId = fileId;
+        this.chunkIndex = chunkIndex;
+        this.data = data;
+    }
+
+    public String getFileId() {
+        return fileId;
+    }
+
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+}
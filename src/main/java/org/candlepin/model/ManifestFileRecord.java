@@ -14,15 +14,11 @@
  */
 package org.candlepin.model;
 
-import org.candlepin.sync.file.ManifestFile;
 import org.candlepin.sync.file.ManifestFileType;
 
 import org.hibernate.annotations.GenericGenerator;
 
-import java.beans.Transient;
-import java.io.InputStream;
 import java.sql.Blob;
-import java.sql.SQLException;
 
 import javax.persistence.Basic;
 import javax.persistence.Column;
@@ -41,11 +37,13 @@ import javax.validation.constraints.NotNull;
 /**
  * A class representing the storage of a manifest file and the meta-data associated
  * with it. A ManifestRecord object is the persistent bridge between candlepin and
- * the implemented {@link ManifestFileService}.
+ * the implemented {@link org.candlepin.sync.file.ManifestFileService}. The content of
+ * the file itself is stored by the service, either as a series of {@link ManifestFileChunk}s
+ * or outside of the database.
  */
 @Entity
 @Table(name = ManifestFileRecord.DB_TABLE)
-public class ManifestFileRecord extends AbstractHibernateObject implements ManifestFile {
+public class ManifestFileRecord extends AbstractHibernateObject {
 
     /** Name of the table backing this object in the database */
     public static final String DB_TABLE = "cp_manifest_file_record";
@@ -77,24 +75,41 @@ public class ManifestFileRecord extends AbstractHibernateObject implements Manif
 
     private String filename;
 
+    /**
+     * The content of files stored before manifests were split into chunks. Files stored since are
+     * never given a value.
+     */
     @Lob
     @Basic(fetch = FetchType.LAZY)
     private Blob fileData;
 
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    /**
+     * The size of each chunk the file was split into; null if the file was not stored in chunks.
+     */
+    @Column(name = "chunk_size")
+    private Integer chunkSize;
+
+    /**
+     * The hex-encoded SHA-256 digest of the file's content.
+     */
+    @Column(name = "digest", length = 64)
+    private String digest;
+
     public ManifestFileRecord() {
         // For hibernate.
     }
 
     public ManifestFileRecord(ManifestFileType type, String filename, String principalName,
-        String targetId, Blob data) {
+        String targetId) {
         this.type = type;
         this.filename = filename;
         this.principalName = principalName;
         this.targetId = targetId;
-        this.fileData = data;
     }
 
-    @Override
     public String getId() {
         return id;
     }
@@ -143,20 +158,27 @@ public class ManifestFileRecord extends AbstractHibernateObject implements Manif
         this.fileData = fileData;
     }
 
-    @Override
-    @Transient
-    public String getName() {
-        return filename;
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public String getDigest() {
+        return digest;
     }
 
-    @Override
-    @Transient
-    public InputStream getInputStream() {
-        try {
-            return fileData.getBinaryStream();
-        }
-        catch (SQLException e) {
-            throw new RuntimeException("InputStream not available for manifest file.", e);
-        }
+    public void setDigest(String digest) {
+        this.digest = digest;
     }
 }
@@ -18,22 +18,31 @@ import org.candlepin.sync.file.ManifestFileType;
 
 import com.google.inject.persist.Transactional;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.sql.Blob;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
 
 import javax.inject.Singleton;
+import javax.persistence.EntityManager;
 import javax.persistence.Query;
 
 /**
  * Provides DB management for stored manifest archive files.
+ * <p></p>
+ * The chunks of a file are removed along with its record by the cascading foreign key on the
+ * chunk table, so the bulk deletes below do not need to remove them explicitly.
  */
 @Singleton
 public class ManifestFileRecordCurator extends AbstractHibernateCurator<ManifestFileRecord> {
 
     private static final String QUERY_CLASS_NAME = ManifestFileRecord.class.getCanonicalName();
+    private static final String DIGEST_ALGORITHM = "SHA-256";
 
     public ManifestFileRecordCurator() {
         super(ManifestFileRecord.class);
@@ -47,6 +56,32 @@ public class ManifestFileRecordCurator extends AbstractHibernateCurator<Manifest
         return q.executeUpdate() > 0;
     }
 
+    /**
+     * Deletes the records with the given IDs.
+     *
+     * @param ids
+     *  the IDs of the records to delete
+     *
+     * @return
+     *  the number of records deleted
+     */
+    @Transactional
+    public int deleteByIds(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+
+        String queryString = String.format("delete from %s where id in (:ids)", QUERY_CLASS_NAME);
+        Query q = getEntityManager().createQuery(queryString);
+
+        int count = 0;
+        for (List<String> block : this.partition(ids)) {
+            count += q.setParameter("ids", block).executeUpdate();
+        }
+
+        return count;
+    }
+
     // Need the caller to start the transaction since large object
     // streaming must be done in the same transaction as the object
     // was looked up in.
@@ -55,13 +90,112 @@ public class ManifestFileRecordCurator extends AbstractHibernateCurator<Manifest
             currentSession().get(ManifestFileRecord.class, id));
     }
 
+    /**
+     * Creates a record for a file whose content is stored outside of the database. The size and
+     * digest of the content are expected to be set on the record once it has been stored.
+     *
+     * @return
+     *  the new record
+     */
     @Transactional
-    public ManifestFileRecord createFile(ManifestFileType type, File fileToStore, String principalName,
-        String targetId) throws IOException {
-        Blob data = currentSession().getLobHelper().createBlob(new FileInputStream(fileToStore),
-            fileToStore.length());
+    public ManifestFileRecord createRecord(ManifestFileType type, String fileName, String principalName,
+        String targetId) {
 
-        return create(new ManifestFileRecord(type, fileToStore.getName(), principalName, targetId, data));
+        return this.create(new ManifestFileRecord(type, fileName, principalName, targetId));
+    }
+
+    /**
+     * Creates a record for a file and stores the content read from the given stream as a series
+     * of chunks of the given size. Each chunk is written out and released from the session as soon
+     * as it has been read, so only a single chunk is held in memory at a time, regardless of the
+     * size of the file.
+     *
+     * @param input
+     *  the stream providing the content of the file; not closed by this method
+     *
+     * @param chunkSize
+     *  the size of each chunk, in bytes; the final chunk may be smaller
+     *
+     * @throws IOException
+     *  if the content cannot be read from the stream
+     *
+     * @return
+     *  the new record
+     */
+    @Transactional
+    public ManifestFileRecord createFile(ManifestFileType type, String fileName, InputStream input,
+        String principalName, String targetId, int chunkSize) throws IOException {
+
+        if (input == null) {
+            throw new IllegalArgumentException("input is null");
+        }
+
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize is less than 1: " + chunkSize);
+        }
+
+        ManifestFileRecord record = this.createRecord(type, fileName, principalName, targetId);
+        EntityManager entityManager = this.getEntityManager();
+        MessageDigest digest = createDigest();
+
+        long size = 0;
+        int index = 0;
+        for (byte[] data = input.readNBytes(chunkSize); data.length > 0; data = input.readNBytes(chunkSize)) {
+            ManifestFileChunk chunk = new ManifestFileChunk(record.getId(), index++, data);
+            entityManager.persist(chunk);
+            entityManager.flush();
+            entityManager.detach(chunk);
+
+            digest.update(data);
+            size += data.length;
+        }
+
+        record.setFileSize(size);
+        record.setChunkSize(chunkSize);
+        record.setDigest(HexFormat.of().formatHex(digest.digest()));
+
+        return this.merge(record);
+    }
+
+    /**
+     * Fetches the data of a single chunk of a stored file, without adding the chunk to the
+     * session.
+     *
+     * @param fileId
+     *  the ID of the file the chunk belongs to
+     *
+     * @param index
+     *  the position of the chunk within the file
+     *
+     * @return
+     *  the data of the chunk, or null if the file does not have a chunk at the given position
+     */
+    public byte[] getChunkData(String fileId, int index) {
+        String jpql = "SELECT chunk.data FROM ManifestFileChunk chunk " +
+            "WHERE chunk.fileId = :file_id AND chunk.chunkIndex = :index";
+
+        List<byte[]> result = this.getEntityManager()
+            .createQuery(jpql, byte[].class)
+            .setParameter("file_id", fileId)
+            .setParameter("index", index)
+            .getResultList();
+
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Creates the digest used to fingerprint the content of stored files.
+     *
+     * @return
+     *  a new SHA-256 message digest
+     */
+    public static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     @Transactional
@@ -72,6 +206,24 @@ public class ManifestFileRecordCurator extends AbstractHibernateCurator<Manifest
         return q.executeUpdate();
     }
 
+    /**
+     * Fetches the IDs of the records created before the given date.
+     *
+     * @param expiryDate
+     *  the date before which records are considered expired
+     *
+     * @return
+     *  a list of the IDs of the expired records
+     */
+    public List<String> getExpiredIds(Date expiryDate) {
+        String queryString = String.format("select r.id from %s r where r.created < :expiry",
+            QUERY_CLASS_NAME);
+
+        return new ArrayList<>(getEntityManager().createQuery(queryString, String.class)
+            .setParameter("expiry", expiryDate)
+            .getResultList());
+    }
+
     public int deleteMatching(ManifestFileType type, String targetId) {
         String queryString = String.format("delete from %s r where r.type=:type and r.targetId=:target",
             QUERY_CLASS_NAME);
@@ -81,4 +233,20 @@ public class ManifestFileRecordCurator extends AbstractHibernateCurator<Manifest
         return q.executeUpdate();
     }
 
+    /**
+     * Fetches the IDs of the records of the given type for the given target.
+     *
+     * @return
+     *  a list of the IDs of the matching records
+     */
+    public List<String> getMatchingIds(ManifestFileType type, String targetId) {
+        String queryString = String.format("select r.id from %s r where r.type=:type and r.targetId=:target",
+            QUERY_CLASS_NAME);
+
+        return new ArrayList<>(getEntityManager().createQuery(queryString, String.class)
+            .setParameter("type", type)
+            .setParameter("target", targetId)
+            .getResultList());
+    }
+
 }
@@ -14,6 +14,8 @@
  */
 package org.candlepin.model;
 
+import org.candlepin.auth.Principal;
+import org.candlepin.cache.OwnerInfoCache;
 import org.candlepin.dto.api.server.v1.OwnerInfo;
 
 import com.google.inject.Provider;
@@ -53,22 +55,68 @@ import javax.persistence.EntityManager;
 public class OwnerInfoCurator {
     private static Logger log = LoggerFactory.getLogger(OwnerInfoCurator.class);
 
+    private static final String FULL_VISIBILITY_SCOPE = "full";
+
     private Provider<EntityManager> entityManager;
     private ConsumerTypeCurator consumerTypeCurator;
     private ConsumerCurator consumerCurator;
     private PoolCurator poolCurator;
+    private OwnerInfoCache ownerInfoCache;
 
     @Inject
     public OwnerInfoCurator(Provider<EntityManager> entityManager,
         ConsumerCurator consumerCurator, ConsumerTypeCurator consumerTypeCurator,
-        PoolCurator poolCurator) {
+        PoolCurator poolCurator, OwnerInfoCache ownerInfoCache) {
         this.entityManager = entityManager;
         this.consumerCurator = consumerCurator;
         this.consumerTypeCurator = consumerTypeCurator;
         this.poolCurator = poolCurator;
+        this.ownerInfoCache = ownerInfoCache;
     }
 
+    /**
+     * Fetches the owner info for the given owner, serving it from the owner info cache if a
+     * sufficiently fresh copy is available.
+     *
+     * @param owner
+     *  the owner for which to fetch owner info
+     *
+     * @return
+     *  the owner info for the given owner
+     */
     public OwnerInfo getByOwner(Owner owner) {
+        return this.ownerInfoCache.get(owner.getId(), this.getVisibilityScope(),
+            id -> this.calculateOwnerInfo(owner));
+    }
+
+    /**
+     * Builds the key identifying the visibility scope of the current principal. Principals with full
+     * access, or whose permissions place no restrictions on the consumer and pool queries used to
+     * calculate owner info, all see the same counts and share a single scope. Any other principal is
+     * given a scope of its own, as restrictions built from different permissions cannot be compared
+     * reliably.
+     */
+    private String getVisibilityScope() {
+        if (this.consumerCurator.getSecureCriteriaRestrictions(Consumer.class) == null &&
+            this.poolCurator.getSecureCriteriaRestrictions(Pool.class) == null) {
+            return FULL_VISIBILITY_SCOPE;
+        }
+
+        Principal principal = this.consumerCurator.getPrincipal();
+        return principal.getType() + ":" + principal.getName();
+    }
+
+    /**
+     * Calculates the owner info for the given owner from the live data, bypassing the owner info
+     * cache.
+     *
+     * @param owner
+     *  the owner for which to calculate owner info
+     *
+     * @return
+     *  the owner info for the given owner
+     */
+    private OwnerInfo calculateOwnerInfo(Owner owner) {
         OwnerInfoBuilder info = new OwnerInfoBuilder();
         Date now = new Date();
 
@@ -285,6 +285,9 @@ public class Pool extends AbstractHibernateObject<Pool> implements Owned, Named,
     @NotNull
     private Long exported;
 
+    @Column(name = "quantities_suspect", nullable = false)
+    private boolean quantitiesSuspect;
+
     @Transient
     private Map<String, String> calculatedAttributes;
 
@@ -445,6 +448,62 @@ public class Pool extends AbstractHibernateObject<Pool> implements Owned, Named,
         return this;
     }
 
+    /**
+     * Applies a change in entitled quantity to the consumed and, for manifest consumers, exported
+     * quantities of this pool. This is how the quantities are maintained as entitlements are
+     * created, adjusted and revoked. Should the change leave either quantity negative, the
+     * quantities have drifted from the pool's entitlements and the pool is flagged as having
+     * suspect quantities, to be recalculated during its next refresh.
+     *
+     * @param change
+     *  the change in entitled quantity; negative when entitlements are reduced or revoked
+     *
+     * @param manifest
+     *  whether or not the change was made on behalf of a manifest consumer
+     *
+     * @return
+     *  a reference to this pool instance
+     */
+    public Pool applyQuantityChange(long change, boolean manifest) {
+        this.setConsumed(this.getConsumed() + change);
+
+        if (manifest) {
+            this.setExported(this.getExported() + change);
+        }
+
+        if (this.getConsumed() < 0 || this.getExported() < 0) {
+            this.quantitiesSuspect = true;
+        }
+
+        return this;
+    }
+
+    /**
+     * Checks whether or not the consumed and exported quantities of this pool are suspected to
+     * have drifted from its entitlements.
+     *
+     * @return
+     *  true if the quantities of this pool should be recalculated; false otherwise
+     */
+    public boolean hasSuspectQuantities() {
+        return this.quantitiesSuspect;
+    }
+
+    /**
+     * Sets whether or not the consumed and exported quantities of this pool should be considered
+     * suspect, requiring them to be recalculated from its entitlements during its next refresh.
+     *
+     * @param suspect
+     *  whether or not to flag the quantities as suspect
+     *
+     * @return
+     *  a reference to this pool instance
+     */
+    public Pool setQuantitiesSuspect(boolean suspect) {
+        this.quantitiesSuspect = suspect;
+        return this;
+    }
+
     /**
      * @return owner of the pool.
      */
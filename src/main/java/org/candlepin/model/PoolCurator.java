@@ -14,6 +14,7 @@
  */
 package org.candlepin.model;
 
+import org.candlepin.cache.OwnerInfoCache;
 import org.candlepin.model.Pool.PoolType;
 import org.candlepin.model.activationkeys.ActivationKey;
 import org.candlepin.model.activationkeys.ActivationKeyPool;
@@ -30,6 +31,7 @@ import org.hibernate.Filter;
 import org.hibernate.Hibernate;
 import org.hibernate.ReplicationMode;
 import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
 import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.DetachedCriteria;
 import org.hibernate.criterion.Disjunction;
@@ -54,6 +56,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -81,12 +84,16 @@ public class PoolCurator extends AbstractHibernateCurator<Pool> {
     private static final Logger log = LoggerFactory.getLogger(PoolCurator.class);
     private final ConsumerCurator consumerCurator;
     private final ConsumerTypeCurator consumerTypeCurator;
+    private final OwnerInfoCache ownerInfoCache;
 
     @Inject
-    public PoolCurator(ConsumerCurator consumerCurator, ConsumerTypeCurator consumerTypeCurator) {
+    public PoolCurator(ConsumerCurator consumerCurator, ConsumerTypeCurator consumerTypeCurator,
+        OwnerInfoCache ownerInfoCache) {
+
         super(Pool.class);
         this.consumerCurator = Objects.requireNonNull(consumerCurator);
         this.consumerTypeCurator = Objects.requireNonNull(consumerTypeCurator);
+        this.ownerInfoCache = Objects.requireNonNull(ownerInfoCache);
     }
 
     /**
@@ -362,8 +369,7 @@ public class PoolCurator extends AbstractHibernateCurator<Pool> {
      * @return List of entitlement pools.
      */
     @Transactional
-    @SuppressWarnings({ "unchecked", "checkstyle:indentation", "checkstyle:methodlength" })
-    // TODO: Remove the methodlength suppression once this method is cleaned up
+    @SuppressWarnings("unchecked")
     public Page<List<Pool>> listAvailableEntitlementPools(Consumer consumer, String ownerId,
         Collection<String> productIds, String subscriptionId, Date activeOn, PoolFilterBuilder filters,
         PageRequest pageRequest, boolean postFilter, boolean addFuture, boolean onlyFuture, Date after) {
@@ -378,6 +384,87 @@ public class PoolCurator extends AbstractHibernateCurator<Pool> {
             log.debug("    after: {}", after);
         }
 
+        Criteria criteria = this.createAvailableEntitlementPoolIdCriteria(consumer, ownerId, productIds,
+            subscriptionId, activeOn, filters, addFuture, onlyFuture, after);
+
+        if (criteria == null) {
+            return emptyPage();
+        }
+
+        // Impl note:
+        // Hibernate has an issue with properly hydrating objects within collections of the pool
+        // when only a subset of the collection matches the criteria. To work around this, we pull
+        // the ID list from the main filtering query, then pull the pools again using the ID list.
+        // This also makes it easier to eventually start using a cursor, since the distinct entity
+        // functionality doesn't work with cursors.
+
+        List<String> poolIds = criteria.list();
+
+        if (poolIds != null && !poolIds.isEmpty()) {
+            criteria = this.currentSession()
+                .createCriteria(Pool.class)
+                .createAlias("product", "Product");
+            criteria.add(CPRestrictions.in("id", poolIds));
+
+            return this.listByCriteria(criteria, pageRequest, postFilter);
+        }
+
+        return emptyPage();
+    }
+
+    /**
+     * Lists the IDs of the entitlement pools matching the given filters, without loading the pools
+     * themselves. If a page request is provided, the IDs are returned in the order it specifies, but
+     * no paging is applied; callers which need to filter the pools further are expected to load and
+     * page through them in chunks. The IDs are fetched and ordered by a single query.
+     *
+     * @param consumer Consumer being entitled.
+     * @param ownerId Owner whose subscriptions should be inspected.
+     * @param productIds only entitlements which provide these products are included.
+     * @param activeOn Indicates to return only pools valid on this date.
+     *        Set to null for no date filtering.
+     * @param filters filter builder with set filters to apply to the criteria.
+     * @param pageRequest used to specify the sort order of the IDs; may be null.
+     * @return an ordered list of pool IDs.
+     */
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public List<String> listAvailableEntitlementPoolIds(Consumer consumer, String ownerId,
+        Collection<String> productIds, String subscriptionId, Date activeOn, PoolFilterBuilder filters,
+        PageRequest pageRequest, boolean addFuture, boolean onlyFuture, Date after) {
+
+        Criteria criteria = this.createAvailableEntitlementPoolIdCriteria(consumer, ownerId, productIds,
+            subscriptionId, activeOn, filters, addFuture, onlyFuture, after);
+
+        if (criteria == null) {
+            return new ArrayList<>();
+        }
+
+        if (pageRequest != null) {
+            // A distinct projection can't be ordered by a column it doesn't select, so the IDs are
+            // selected and ordered as-is, and any duplicates introduced by joins are dropped below.
+            // The ID is added as a tie-breaker so the order is stable between requests for
+            // successive pages.
+            criteria.setProjection(Projections.id())
+                .addOrder(this.createPagingOrder(pageRequest))
+                .addOrder(Order.asc("id"));
+        }
+
+        List<String> poolIds = criteria.list();
+        return poolIds != null ? new ArrayList<>(new LinkedHashSet<>(poolIds)) : new ArrayList<>();
+    }
+
+    /**
+     * Builds a criteria which selects the distinct IDs of the pools matching the given entitlement
+     * pool filters. Returns null if the filters can never match a pool, such as when the consumer
+     * belongs to an owner other than the one requested.
+     */
+    @SuppressWarnings({ "checkstyle:indentation", "checkstyle:methodlength" })
+    // TODO: Remove the methodlength suppression once this method is cleaned up
+    private Criteria createAvailableEntitlementPoolIdCriteria(Consumer consumer, String ownerId,
+        Collection<String> productIds, String subscriptionId, Date activeOn, PoolFilterBuilder filters,
+        boolean addFuture, boolean onlyFuture, Date after) {
+
         boolean joinedProvided = false;
 
         Criteria criteria = this.createSecureCriteria("Pool")
@@ -395,7 +482,7 @@ public class PoolCurator extends AbstractHibernateCurator<Pool> {
                 log.warn("Attempting to filter entitlement pools by owner and a consumer belonging to a " +
                     "different owner: {}, {}", ownerId, consumer);
 
-                return emptyPage();
+                return null;
             }
 
             // We'll set the owner restriction later
@@ -579,25 +666,7 @@ public class PoolCurator extends AbstractHibernateCurator<Pool> {
             }
         }
 
-        // Impl note:
-        // Hibernate has an issue with properly hydrating objects within collections of the pool
-        // when only a subset of the collection matches the criteria. To work around this, we pull
-        // the ID list from the main filtering query, then pull the pools again using the ID list.
-        // This also makes it easier to eventually start using a cursor, since the distinct entity
-        // functionality doesn't work with cursors.
-
-        List<String> poolIds = criteria.list();
-
-        if (poolIds != null && !poolIds.isEmpty()) {
-            criteria = this.currentSession()
-                .createCriteria(Pool.class)
-                .createAlias("product", "Product");
-            criteria.add(CPRestrictions.in("id", poolIds));
-
-            return this.listByCriteria(criteria, pageRequest, postFilter);
-        }
-
-        return emptyPage();
+        return criteria;
     }
 
     private Page<List<Pool>> emptyPage() {
@@ -1545,25 +1614,309 @@ public class PoolCurator extends AbstractHibernateCurator<Pool> {
             .setParameter("pool", pool).getSingleResult() > 0;
     }
 
-    public void calculateConsumedForOwnersPools(Owner owner) {
-        String stmt = "update Pool p set p.consumed = coalesce(" +
-            "(select sum(quantity) from Entitlement ent where ent.pool.id = p.id),0) " +
-            "where p.owner = :owner";
+    /**
+     * Describes a pool whose tracked consumed or exported quantity differs from the quantities
+     * actually held by its entitlements.
+     *
+     * @param poolId
+     *  the ID of the pool
+     *
+     * @param consumed
+     *  the consumed quantity currently tracked by the pool
+     *
+     * @param actualConsumed
+     *  the total quantity of the pool's entitlements
+     *
+     * @param exported
+     *  the exported quantity currently tracked by the pool
+     *
+     * @param actualExported
+     *  the total quantity of the pool's entitlements held by manifest consumers
+     */
+    public record PoolQuantityDrift(String poolId, long consumed, long actualConsumed, long exported,
+        long actualExported) {
+
+        /**
+         * Checks whether or not the tracked quantities differ from the actual quantities
+         *
+         * @return
+         *  true if either tracked quantity has drifted; false otherwise
+         */
+        public boolean hasDrifted() {
+            return this.consumed != this.actualConsumed || this.exported != this.actualExported;
+        }
+    }
 
-        Query q = currentSession().createQuery(stmt);
-        q.setParameter("owner", owner);
-        q.executeUpdate();
+    /**
+     * Compares the consumed and exported quantities tracked by each pool of the given owner against
+     * the quantities of their entitlements, returning the pools which have drifted. This is a
+     * read-only check, performed with plain aggregate queries which do not lock any pool rows.
+     *
+     * @param owner
+     *  the owner whose pools should be checked
+     *
+     * @throws IllegalArgumentException
+     *  if owner is null
+     *
+     * @return
+     *  a list containing the drift of each pool whose quantities have drifted
+     */
+    public List<PoolQuantityDrift> getPoolQuantityDrift(Owner owner) {
+        if (owner == null) {
+            throw new IllegalArgumentException("owner is null");
+        }
+
+        return this.calculatePoolQuantities(owner)
+            .stream()
+            .filter(PoolQuantityDrift::hasDrifted)
+            .collect(Collectors.toList());
     }
 
-    public void calculateExportedForOwnersPools(Owner owner) {
-        String stmt = "update Pool p set p.exported = coalesce(" +
-            "(select sum(ent.quantity) FROM Entitlement ent, Consumer cons, ConsumerType ctype " +
-            "where ent.pool.id = p.id and ent.consumer.id = cons.id and cons.typeId = ctype.id " +
-            "and ctype.manifest = 'Y'),0) where p.owner = :owner";
+    /**
+     * Recalculates the consumed and exported quantities of every pool of the given owner from their
+     * entitlements, clearing their suspect quantities flag. This is the safety net for any drift in
+     * the incrementally maintained quantities, in either direction, including changes made by bulk
+     * statements which do not go through {@link Pool#applyQuantityChange}.
+     * <p></p>
+     * The quantities are aggregated once for the whole owner and written with a single set-based
+     * statement, which only writes pools whose quantities have drifted or which are flagged as
+     * suspect.
+     *
+     * @param owner
+     *  the owner whose pool quantities should be recalculated
+     *
+     * @throws IllegalArgumentException
+     *  if owner is null
+     *
+     * @return
+     *  the number of pools whose quantities were rewritten
+     */
+    public int recalculatePoolQuantities(Owner owner) {
+        if (owner == null) {
+            throw new IllegalArgumentException("owner is null");
+        }
+
+        String dialect = this.getDatabaseDialect();
+
+        // Aggregates the actual quantities of every pool of the owner, including those without any
+        // entitlements. The aggregation makes this a materialized derived table on MySQL/MariaDB,
+        // which is required to update cp_pool while reading from it.
+        String totals = "SELECT p.id AS pool_id, " +
+            "    COALESCE(SUM(ent.quantity), 0) AS consumed, " +
+            "    COALESCE(SUM(CASE WHEN ctype.manifest = 'Y' THEN ent.quantity ELSE 0 END), 0) AS exported " +
+            "  FROM cp_pool p " +
+            "    LEFT JOIN cp_entitlement ent ON ent.pool_id = p.id " +
+            "    LEFT JOIN cp_consumer cons ON cons.id = ent.consumer_id " +
+            "    LEFT JOIN cp_consumer_type ctype ON ctype.id = cons.type_id " +
+            "  WHERE p.owner_id = :owner_id " +
+            "  GROUP BY p.id";
+
+        String drifted = "(pool.quantities_suspect = true " +
+            "OR pool.quantity_consumed <> totals.consumed " +
+            "OR pool.quantity_exported <> totals.exported)";
+
+        javax.persistence.Query query;
+
+        if (dialect.contains("mysql") || dialect.contains("maria")) {
+            String sql = "UPDATE cp_pool pool " +
+                "  JOIN (" + totals + ") totals ON totals.pool_id = pool.id " +
+                "SET pool.quantity_consumed = totals.consumed, " +
+                "    pool.quantity_exported = totals.exported, " +
+                "    pool.quantities_suspect = false " +
+                "WHERE " + drifted;
+
+            query = this.getEntityManager().createNativeQuery(sql)
+                .setHint(QueryHints.NATIVE_SPACES, Pool.class.getName());
+        }
+        else if (dialect.contains("postgresql")) {
+            String sql = "UPDATE cp_pool pool " +
+                "SET quantity_consumed = totals.consumed, " +
+                "    quantity_exported = totals.exported, " +
+                "    quantities_suspect = false " +
+                "FROM (" + totals + ") totals " +
+                "WHERE totals.pool_id = pool.id AND " + drifted;
+
+            query = this.getEntityManager().createNativeQuery(sql)
+                .setHint(QueryHints.NATIVE_SPACES, Pool.class.getName());
+        }
+        else {
+            // Unrecognized dialect; fall back to a portable, correlated bulk update
+            String consumed = "COALESCE((SELECT SUM(ent.quantity) FROM Entitlement ent " +
+                "WHERE ent.pool.id = pool.id), 0)";
+
+            String exported = "COALESCE((SELECT SUM(ent.quantity) " +
+                "FROM Entitlement ent, Consumer cons, ConsumerType ctype " +
+                "WHERE ent.pool.id = pool.id AND ent.consumer.id = cons.id AND cons.typeId = ctype.id " +
+                "AND ctype.manifest = 'Y'), 0)";
+
+            String jpql = "UPDATE Pool pool " +
+                "SET pool.consumed = " + consumed + ", " +
+                "    pool.exported = " + exported + ", " +
+                "    pool.quantitiesSuspect = false " +
+                "WHERE pool.owner.id = :owner_id AND (pool.quantitiesSuspect = true " +
+                "OR pool.consumed <> " + consumed + " OR pool.exported <> " + exported + ")";
+
+            query = this.getEntityManager().createQuery(jpql);
+        }
+
+        int corrected = query.setParameter("owner_id", owner.getId())
+            .executeUpdate();
+
+        if (corrected > 0) {
+            log.info("Recalculated quantities of {} pool(s) of owner {}", corrected, owner.getKey());
+            this.invalidateOwnerInfo(owner.getId());
+        }
+
+        return corrected;
+    }
+
+    /**
+     * Fetches the tracked and actual quantities of the pools of the given owner. The pools are
+     * read with plain aggregate queries which do not lock any pool rows.
+     */
+    private List<PoolQuantityDrift> calculatePoolQuantities(Owner owner) {
+        String poolJpql = "SELECT pool.id, pool.consumed, pool.exported FROM Pool pool " +
+            "WHERE pool.owner.id = :owner_id";
+
+        List<Object[]> pools = this.getEntityManager()
+            .createQuery(poolJpql, Object[].class)
+            .setParameter("owner_id", owner.getId())
+            .getResultList();
+
+        if (pools.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String entJpql = "SELECT ent.pool.id, SUM(ent.quantity), " +
+            "    SUM(CASE WHEN ctype.manifest = 'Y' THEN ent.quantity ELSE 0 END) " +
+            "FROM Entitlement ent, Consumer cons, ConsumerType ctype " +
+            "WHERE ent.consumer.id = cons.id AND cons.typeId = ctype.id AND " +
+            "ent.pool.owner.id = :owner_id " +
+            "GROUP BY ent.pool.id";
+
+        Map<String, Object[]> actual = new HashMap<>();
+
+        this.getEntityManager()
+            .createQuery(entJpql, Object[].class)
+            .setParameter("owner_id", owner.getId())
+            .getResultList()
+            .forEach(row -> actual.put((String) row[0], row));
+
+        List<PoolQuantityDrift> output = new ArrayList<>(pools.size());
+
+        for (Object[] row : pools) {
+            Object[] sums = actual.get((String) row[0]);
+
+            output.add(new PoolQuantityDrift((String) row[0],
+                toLong(row[1]),
+                sums != null ? toLong(sums[1]) : 0,
+                toLong(row[2]),
+                sums != null ? toLong(sums[2]) : 0));
+        }
+
+        return output;
+    }
+
+    /**
+     * Flags the pools with the given IDs as having suspect quantities, causing their quantities to
+     * be rewritten during the next recalculation of their owner's pool quantities.
+     *
+     * @param poolIds
+     *  a collection of IDs of the pools to flag
+     *
+     * @return
+     *  the number of pools flagged by this method, which may include pools which were already
+     *  flagged
+     */
+    public int markPoolQuantitiesSuspect(Collection<String> poolIds) {
+        if (poolIds == null || poolIds.isEmpty()) {
+            return 0;
+        }
+
+        String jpql = "UPDATE Pool pool SET pool.quantitiesSuspect = true WHERE pool.id IN (:pool_ids)";
+
+        int count = 0;
+
+        javax.persistence.Query query = this.getEntityManager()
+            .createQuery(jpql);
+
+        for (List<String> block : this.partition(poolIds)) {
+            count += query.setParameter("pool_ids", block)
+                .executeUpdate();
+        }
+
+        return count;
+    }
+
+    /**
+     * Atomically consumes the given quantity from the specified pool, provided the pool still has
+     * enough quantity available. Unlike the lockAndLoad-based bind path, this does not require the
+     * pool to be locked beforehand; the check and the update are performed by a single conditional
+     * statement, so the pool's row is only locked from this point until the transaction completes.
+     * <p></p>
+     * Note that this operation does not update any fetched or cached Pool objects. Callers must
+     * refresh the pool, and must not persist a previously fetched copy of it, after calling this
+     * method.
+     *
+     * @param poolId
+     *  the ID of the pool from which to consume
+     *
+     * @param quantity
+     *  the quantity to consume
+     *
+     * @param manifest
+     *  whether or not the quantity is being consumed on behalf of a manifest consumer, in which
+     *  case it is also counted as exported
+     *
+     * @return
+     *  true if the quantity was consumed; false if the pool does not exist or does not have
+     *  enough quantity available
+     */
+    public boolean reserveQuantity(String poolId, long quantity, boolean manifest) {
+        if (poolId == null) {
+            throw new IllegalArgumentException("poolId is null");
+        }
+
+        String jpql = "UPDATE Pool pool " +
+            "SET pool.consumed = pool.consumed + :quantity, " +
+            "    pool.exported = pool.exported + :exported, " +
+            "    pool.updated = :updated " +
+            "WHERE pool.id = :pool_id " +
+            "  AND (pool.quantity < 0 OR pool.consumed + :quantity <= pool.quantity)";
+
+        int updated = this.getEntityManager()
+            .createQuery(jpql)
+            .setParameter("quantity", quantity)
+            .setParameter("exported", manifest ? quantity : 0L)
+            .setParameter("updated", new Date())
+            .setParameter("pool_id", poolId)
+            .executeUpdate();
+
+        if (updated > 0 && this.ownerInfoCache.isEnabled()) {
+            String ownerId = this.getEntityManager()
+                .createQuery("SELECT pool.owner.id FROM Pool pool WHERE pool.id = :pool_id", String.class)
+                .setParameter("pool_id", poolId)
+                .getSingleResult();
+
+            this.invalidateOwnerInfo(ownerId);
+        }
+
+        return updated > 0;
+    }
+
+    /**
+     * Drops the cached owner info of the given owner once the current transaction commits. Bulk
+     * statements do not raise the entity events which would otherwise invalidate the owner info, so
+     * this must be called whenever the owner's pools are updated by such a statement.
+     */
+    private void invalidateOwnerInfo(String ownerId) {
+        if (this.ownerInfoCache.isEnabled()) {
+            this.runAfterCommit(() -> this.ownerInfoCache.invalidate(List.of(ownerId)));
+        }
+    }
 
-        Query q = currentSession().createQuery(stmt);
-        q.setParameter("owner", owner);
-        q.executeUpdate();
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
     }
 
     public void markCertificatesDirtyForPoolsWithProducts(Owner owner, Collection<String> productIds) {
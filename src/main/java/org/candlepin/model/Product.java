@@ -250,6 +250,12 @@ public class Product extends AbstractHibernateObject implements SharedEntity, Li
     @JoinColumn(name = "derived_product_uuid", nullable = true)
     private Product derivedProduct;
 
+    // Digest of the upstream product tree this product was last refreshed from; maintained by the
+    // refresher and deliberately excluded from equality and hashing
+    @Column(name = "digest", nullable = true)
+    @Size(max = 64)
+    private String digest;
+
     public Product() {
         this.attributes = new HashMap<>();
         this.productContent = new HashSet<>();
@@ -483,6 +489,32 @@ public class Product extends AbstractHibernateObject implements SharedEntity, Li
         return this;
     }
 
+    /**
+     * Fetches the digest of the upstream product tree from which this product was last refreshed.
+     * If this product has not been refreshed from an upstream source, or its upstream source could
+     * not be digested, this method returns null.
+     *
+     * @return
+     *  the upstream digest of this product, or null if this product does not have a digest
+     */
+    public String getDigest() {
+        return this.digest;
+    }
+
+    /**
+     * Sets the digest of the upstream product tree from which this product was last refreshed.
+     *
+     * @param digest
+     *  the upstream digest to assign to this product, or null to clear the digest
+     *
+     * @return
+     *  a reference to this product instance
+     */
+    public Product setDigest(String digest) {
+        this.digest = digest;
+        return this;
+    }
+
     /**
      * Retrieves this product's ID. Assigned by the content provider, and may exist in
      * multiple owners, thus may not be unique in itself.
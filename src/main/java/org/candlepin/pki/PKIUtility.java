@@ -25,6 +25,7 @@ import java.security.KeyException;
 import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
+import java.security.Signature;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.Date;
@@ -54,9 +55,29 @@ public interface PKIUtility {
 
     byte[] getSHA256WithRSAHash(InputStream input);
 
+    /**
+     * Creates a SHA256withRSA signature initialized for signing with the CA key. The returned
+     * signature may be fed incrementally as data is generated, allowing large payloads to be
+     * signed without buffering them in full.
+     *
+     * @return
+     *  a Signature instance ready to be updated with the data to sign
+     */
+    Signature getSHA256WithRSASigner();
+
     boolean verifySHA256WithRSAHashAgainstCACerts(File input, byte[] signedHash)
         throws CertificateException, IOException;
 
+    /**
+     * Creates a verifier for SHA256withRSA signatures made by the CA or any of the upstream CAs.
+     * The returned verifier may be fed incrementally as data is read, allowing large payloads to be
+     * verified in a single pass.
+     *
+     * @return
+     *  a SignatureVerifier ready to be updated with the data to verify
+     */
+    SignatureVerifier getSHA256WithRSAVerifier();
+
     /**
      * Generates a new, unassociated key pair consisting of a public and private key.
      *
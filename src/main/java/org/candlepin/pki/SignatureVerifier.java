@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.pki;
+
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+
+
+/**
+ * Verifies a SHA256withRSA signature against a number of candidate certificates at once. Data is
+ * fed to the verifier incrementally, allowing large payloads to be verified in a single pass as they
+ * are read, rather than being re-read once for each candidate certificate.
+ */
+public class SignatureVerifier {
+
+    private final List<Signature> signatures;
+
+    /**
+     * Creates a new verifier which will accept signatures made by the private key of any of the
+     * given certificates.
+     *
+     * @param certificates
+     *  the certificates to verify signatures against
+     *
+     * @throws GeneralSecurityException
+     *  if a signature could not be initialized for one of the certificates
+     */
+    public SignatureVerifier(Collection<? extends Certificate> certificates)
+        throws GeneralSecurityException {
+
+        if (certificates == null) {
+            throw new IllegalArgumentException("certificates is null");
+        }
+
+        this.signatures = new ArrayList<>();
+        for (Certificate certificate : certificates) {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initVerify(certificate);
+
+            this.signatures.add(signature);
+        }
+    }
+
+    /**
+     * Updates the data to be verified.
+     *
+     * @param data
+     *  the buffer containing the data
+     *
+     * @param offset
+     *  the offset of the data within the buffer
+     *
+     * @param length
+     *  the number of bytes to use from the buffer
+     *
+     * @throws SignatureException
+     *  if a signature has not been properly initialized
+     */
+    public void update(byte[] data, int offset, int length) throws SignatureException {
+        for (Signature signature : this.signatures) {
+            signature.update(data, offset, length);
+        }
+    }
+
+    /**
+     * Checks whether the given signature matches the data provided so far, for any of the
+     * certificates of this verifier.
+     *
+     * @param signedHash
+     *  the signature to verify
+     *
+     * @return
+     *  true if the signature was made with the key of any of the certificates; false otherwise
+     */
+    public boolean verify(byte[] signedHash) {
+        for (Signature signature : this.signatures) {
+            try {
+                if (signature.verify(signedHash)) {
+                    return true;
+                }
+            }
+            catch (SignatureException e) {
+                // Malformed for this certificate; try the next one
+            }
+        }
+
+        return false;
+    }
+}
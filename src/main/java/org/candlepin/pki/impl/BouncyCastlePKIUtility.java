@@ -112,14 +112,16 @@ public class BouncyCastlePKIUtility extends ProviderBasedPKIUtility {
 
     private final Provider<BouncyCastleProvider> securityProvider;
     private final KeyPairDataCurator keypairDataCurator;
+    private final KeyPairPool keypairPool;
 
     @Inject
     public BouncyCastlePKIUtility(Provider<BouncyCastleProvider> securityProvider, CertificateReader reader,
         SubjectKeyIdentifierWriter subjectKeyWriter, Configuration config,
-        KeyPairDataCurator keypairDataCurator) {
+        KeyPairDataCurator keypairDataCurator, KeyPairPool keypairPool) {
         super(reader, subjectKeyWriter, config);
         this.keypairDataCurator = Objects.requireNonNull(keypairDataCurator);
         this.securityProvider = Objects.requireNonNull(securityProvider);
+        this.keypairPool = Objects.requireNonNull(keypairPool);
     }
 
     @Override
@@ -445,6 +447,10 @@ public class BouncyCastlePKIUtility extends ProviderBasedPKIUtility {
      */
     @Override
     public KeyPair generateKeyPair() throws KeyException {
+        return this.keypairPool.take();
+    }
+
+    static KeyPair createKeyPair() throws KeyException {
         try {
             KeyPairGenerator keyGen = KeyPairGenerator.getInstance(KEY_ALGORITHM);
             keyGen.initialize(KEY_SIZE);
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.pki.impl;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.KeyException;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * A bounded pool of pre-generated key pairs, refilled in the background by one or more daemon
+ * threads. Key generation is by far the most expensive part of registering a consumer; taking
+ * keys from the pool moves that cost off of the request path during bursts of registrations.
+ * When the pool is empty, callers wait up to a configured amount of time for a key pair before
+ * falling back to generating one inline.
+ * <p>
+ * The refill threads are not started until the first key pair is taken, so filling the pool does
+ * not slow down startup, and nodes which never generate key pairs never fill it.
+ * <p>
+ * A pool with a capacity of zero is disabled: it starts no threads, and every key pair is
+ * generated inline.
+ */
+@Singleton
+public class KeyPairPool {
+    private static final Logger log = LoggerFactory.getLogger(KeyPairPool.class);
+
+    /** The time to wait before retrying after a failure to generate a key pair */
+    private static final long FAILURE_BACKOFF_MILLIS = 5000;
+
+    /**
+     * A source of new key pairs.
+     */
+    @FunctionalInterface
+    public interface KeyPairSource {
+        KeyPair generate() throws KeyException;
+    }
+
+    /**
+     * A snapshot of the state and usage of a key pair pool.
+     *
+     * @param depth
+     *  the number of key pairs currently in the pool
+     *
+     * @param capacity
+     *  the maximum number of key pairs held by the pool
+     *
+     * @param generated
+     *  the number of key pairs generated by the refill threads
+     *
+     * @param taken
+     *  the number of key pairs taken from the pool
+     *
+     * @param fallbacks
+     *  the number of key pairs generated inline because the pool was empty
+     *
+     * @param waitTime
+     *  the total time, in milliseconds, callers spent waiting on an empty pool
+     */
+    public record Statistics(int depth, int capacity, long generated, long taken, long fallbacks,
+        long waitTime) {
+    }
+
+    private final KeyPairSource source;
+    private final int capacity;
+    private final int threads;
+    private final long refillDelay;
+    private final long maxWait;
+    private final BlockingQueue<KeyPair> queue;
+    private final List<Thread> workers;
+
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder taken = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    private volatile boolean started;
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a new pool of consumer key pairs, using the key pair pool settings of the given
+     * configuration.
+     *
+     * @param config
+     *  the configuration from which to read the pool settings
+     */
+    @Inject
+    public KeyPairPool(Configuration config) {
+        this(BouncyCastlePKIUtility::createKeyPair,
+            config.getInt(ConfigProperties.PKI_KEYPAIR_POOL_SIZE),
+            config.getInt(ConfigProperties.PKI_KEYPAIR_POOL_THREADS),
+            config.getLong(ConfigProperties.PKI_KEYPAIR_POOL_REFILL_DELAY),
+            config.getLong(ConfigProperties.PKI_KEYPAIR_POOL_MAX_WAIT));
+    }
+
+    /**
+     * Creates a new key pair pool. The refill threads are started when the first key pair is taken.
+     *
+     * @param source
+     *  the source of new key pairs, used both by the refill threads and for inline generation
+     *
+     * @param capacity
+     *  the maximum number of pre-generated key pairs to hold; zero or less disables the pool
+     *
+     * @param threads
+     *  the number of threads used to refill the pool
+     *
+     * @param refillDelay
+     *  the time, in milliseconds, each refill thread pauses after generating a key pair; used to
+     *  limit the CPU spent refilling the pool
+     *
+     * @param maxWait
+     *  the maximum time, in milliseconds, to wait for a key pair when the pool is empty before
+     *  generating one inline
+     *
+     * @throws IllegalArgumentException
+     *  if source is null, or the pool is enabled with fewer than one refill thread
+     */
+    public KeyPairPool(KeyPairSource source, int capacity, int threads, long refillDelay, long maxWait) {
+        if (source == null) {
+            throw new IllegalArgumentException("source is null");
+        }
+
+        if (capacity > 0 && threads < 1) {
+            throw new IllegalArgumentException("at least one refill thread is required");
+        }
+
+        this.source = source;
+        this.capacity = Math.max(0, capacity);
+        this.threads = threads;
+        this.refillDelay = Math.max(0, refillDelay);
+        this.maxWait = Math.max(0, maxWait);
+        this.queue = this.capacity > 0 ? new ArrayBlockingQueue<>(this.capacity) : null;
+        this.workers = new ArrayList<>();
+    }
+
+    /**
+     * Starts the refill threads, unless they have already been started or the pool has been shut
+     * down.
+     *
+     * @return
+     *  true if the refill threads were started by this call; false otherwise
+     */
+    private synchronized boolean start() {
+        if (this.started || this.shutdown) {
+            return false;
+        }
+
+        for (int i = 1; i <= this.threads; ++i) {
+            Thread worker = new Thread(this::refill, "keypair-pool-refill-" + i);
+            worker.setDaemon(true);
+            worker.setPriority(Thread.MIN_PRIORITY);
+            worker.start();
+
+            this.workers.add(worker);
+        }
+
+        this.started = true;
+        log.info("Started key pair pool with capacity {} and {} refill thread(s)",
+            this.capacity, this.threads);
+
+        return true;
+    }
+
+    private void refill() {
+        while (!this.shutdown) {
+            try {
+                KeyPair keypair = this.source.generate();
+                this.generated.increment();
+
+                this.queue.put(keypair);
+
+                if (this.refillDelay > 0) {
+                    Thread.sleep(this.refillDelay);
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            catch (Exception e) {
+                log.error("Unable to generate key pair for key pair pool", e);
+
+                try {
+                    Thread.sleep(FAILURE_BACKOFF_MILLIS);
+                }
+                catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a key pair from the pool, waiting up to the configured maximum wait time if the pool
+     * is empty. If no key pair becomes available, or the pool is disabled, a new key pair is
+     * generated inline.
+     *
+     * @throws KeyException
+     *  if a key pair must be generated inline, and generation fails
+     *
+     * @return
+     *  a key pair which has not been provided to any other caller
+     */
+    public KeyPair take() throws KeyException {
+        if (this.queue == null || this.shutdown) {
+            return this.source.generate();
+        }
+
+        // The pool is still empty when the refill threads are first started, so there is no point
+        // in making the first caller wait for them
+        if (!this.started && this.start()) {
+            this.fallbacks.increment();
+            return this.source.generate();
+        }
+
+        KeyPair keypair = this.queue.poll();
+
+        if (keypair == null && this.maxWait > 0) {
+            long start = System.nanoTime();
+
+            try {
+                keypair = this.queue.poll(this.maxWait, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                this.waitNanos.add(System.nanoTime() - start);
+            }
+        }
+
+        if (keypair != null) {
+            this.taken.increment();
+            return keypair;
+        }
+
+        this.fallbacks.increment();
+        log.debug("Key pair pool is empty; generating key pair inline");
+
+        return this.source.generate();
+    }
+
+    /**
+     * Fetches a snapshot of the state and usage of this pool.
+     *
+     * @return
+     *  the current statistics for this pool
+     */
+    public Statistics getStatistics() {
+        return new Statistics(this.queue != null ? this.queue.size() : 0, this.capacity,
+            this.generated.sum(), this.taken.sum(), this.fallbacks.sum(),
+            TimeUnit.NANOSECONDS.toMillis(this.waitNanos.sum()));
+    }
+
+    /**
+     * Stops the refill threads and discards any pooled key pairs. Once shut down, every key pair
+     * is generated inline.
+     */
+    public synchronized void shutdown() {
+        this.shutdown = true;
+
+        for (Thread worker : this.workers) {
+            worker.interrupt();
+        }
+
+        if (this.queue != null) {
+            this.queue.clear();
+        }
+    }
+}
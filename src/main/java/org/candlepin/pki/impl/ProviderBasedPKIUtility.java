@@ -19,6 +19,7 @@ import org.candlepin.model.Consumer;
 import org.candlepin.pki.CertificateReader;
 import org.candlepin.pki.DistinguishedName;
 import org.candlepin.pki.PKIUtility;
+import org.candlepin.pki.SignatureVerifier;
 import org.candlepin.pki.SubjectKeyIdentifierWriter;
 import org.candlepin.pki.X509Extension;
 
@@ -38,7 +39,9 @@ import java.security.SignatureException;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -88,8 +91,7 @@ public abstract class ProviderBasedPKIUtility implements PKIUtility {
     @Override
     public byte[] getSHA256WithRSAHash(InputStream input) {
         try {
-            Signature signature = Signature.getInstance("SHA256withRSA");
-            signature.initSign(reader.getCaKey());
+            Signature signature = this.getSHA256WithRSASigner();
 
             updateSignature(input, signature);
             return signature.sign();
@@ -99,28 +101,65 @@ public abstract class ProviderBasedPKIUtility implements PKIUtility {
         }
     }
 
+    /**
+     * Create a SHA256withRSA signature initialized with the CA key retrieved using
+     * CertificateReader.
+     * @return a Signature ready to be updated with the data to sign
+     */
+    @Override
+    public Signature getSHA256WithRSASigner() {
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initSign(reader.getCaKey());
+
+            return signature;
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public boolean verifySHA256WithRSAHashAgainstCACerts(File input, byte[] signedHash)
         throws CertificateException, IOException {
 
-        log.debug("Verify against: {}", reader.getCACert().getSerialNumber());
+        SignatureVerifier verifier = this.getSHA256WithRSAVerifier();
 
         try (InputStream inputStream = new FileInputStream(input)) {
-            if (verifySHA256WithRSAHash(inputStream, signedHash, reader.getCACert())) {
-                return true;
+            byte[] dataBytes = new byte[4096];
+            int nread;
+            while ((nread = inputStream.read(dataBytes)) != -1) {
+                verifier.update(dataBytes, 0, nread);
             }
         }
-        for (X509Certificate cert : reader.getUpstreamCACerts()) {
-            log.debug("Verify against: {}", cert.getSerialNumber());
+        catch (SignatureException e) {
+            throw new RuntimeException(e);
+        }
 
-            try (InputStream inputStream = new FileInputStream(input)) {
-                if (verifySHA256WithRSAHash(inputStream, signedHash, cert)) {
-                    return true;
-                }
-            }
+        return verifier.verify(signedHash);
+    }
+
+    /**
+     * Create a verifier for SHA256withRSA signatures made with the key of the CA certificate or
+     * any of the upstream CA certificates retrieved using CertificateReader.
+     * @return a SignatureVerifier ready to be updated with the data to verify
+     */
+    @Override
+    public SignatureVerifier getSHA256WithRSAVerifier() {
+        List<X509Certificate> certificates = new ArrayList<>();
+        certificates.add(reader.getCACert());
+        certificates.addAll(reader.getUpstreamCACerts());
+
+        if (log.isDebugEnabled()) {
+            certificates.forEach(cert -> log.debug("Verify against: {}", cert.getSerialNumber()));
         }
 
-        return false;
+        try {
+            return new SignatureVerifier(certificates);
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
     }
 
     /**
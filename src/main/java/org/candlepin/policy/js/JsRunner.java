@@ -36,11 +36,33 @@ public class JsRunner {
     private Object rulesNameSpace;
     private String namespace;
     private Scriptable scope;
+    private RhinoContextPool.PooledContext pooledContext;
 
     private boolean initialized = false;
 
     public JsRunner(Scriptable scope) {
+        this(scope, null);
+    }
+
+    /**
+     * Creates a new runner for the given scope. If a pooled context is provided, the runner will
+     * enter the warm context of the current unit of work rather than creating a new context for
+     * each invocation.
+     *
+     * @param scope
+     *  the scope from which the rules will be invoked
+     *
+     * @param pooledContext
+     *  the pooled context to enter when invoking the rules, or null to use a new context for each
+     *  invocation
+     */
+    public JsRunner(Scriptable scope, RhinoContextPool.PooledContext pooledContext) {
         this.scope = scope;
+        this.pooledContext = pooledContext;
+    }
+
+    private Context enterContext() {
+        return this.pooledContext != null ? this.pooledContext.enter() : Context.enter();
     }
 
     /**
@@ -56,7 +78,7 @@ public class JsRunner {
 
         if (!initialized) {
 
-            Context context = Context.enter();
+            Context context = this.enterContext();
             try {
                 Object func = ScriptableObject.getProperty(scope, namespace);
                 this.rulesNameSpace = unwrapReturnValue(((Function) func)
@@ -95,7 +117,7 @@ public class JsRunner {
         if (!(func instanceof Function)) {
             throw new NoSuchMethodException("no such javascript method: " + method);
         }
-        Context context = Context.enter();
+        Context context = this.enterContext();
         try {
             return (T) unwrapReturnValue(((Function) func).call(context, scope,
                 localScope, Context.emptyArgs));
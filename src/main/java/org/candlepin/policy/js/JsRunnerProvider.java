@@ -14,6 +14,8 @@
  */
 package org.candlepin.policy.js;
 
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
 import org.candlepin.model.Rules;
 import org.candlepin.model.Rules.RulesSourceEnum;
 import org.candlepin.model.RulesCurator;
@@ -42,8 +44,12 @@ import javax.inject.Inject;
 public class JsRunnerProvider implements Provider<JsRunner> {
     private static Logger log = LoggerFactory.getLogger(JsRunnerProvider.class);
 
+    private static final DynamicScopeContextFactory CONTEXT_FACTORY = new DynamicScopeContextFactory();
+
     private RulesCurator rulesCurator;
     private Provider<JsRunnerRequestCache> cacheProvider;
+    private RulesEngineType engineType;
+    private RhinoContextPool contextPool;
     private Script script;
     private Scriptable scope;
     /**
@@ -76,16 +82,50 @@ public class JsRunnerProvider implements Provider<JsRunner> {
             }
             return super.hasFeature(cx, featureIndex);
         }
+
+        /**
+         * Creates a new context which is not yet associated with any thread, applying the same
+         * initialization and listeners as contexts created by Context.enter. The returned context
+         * must be entered with enterContext before it can be used.
+         *
+         * @return
+         *  a new, unentered Rhino context
+         */
+        Context newContext() {
+            Context context = this.makeContext();
+            this.onContextCreated(context);
+
+            return context;
+        }
     }
 
     static {
-        ContextFactory.initGlobal(new DynamicScopeContextFactory());
+        ContextFactory.initGlobal(CONTEXT_FACTORY);
     }
 
-    @Inject
     public JsRunnerProvider(RulesCurator rulesCurator, Provider<JsRunnerRequestCache> cacheProvider) {
+        this(rulesCurator, cacheProvider, RulesEngineType.STANDARD);
+    }
+
+    @Inject
+    public JsRunnerProvider(RulesCurator rulesCurator, Provider<JsRunnerRequestCache> cacheProvider,
+        Configuration config) {
+
+        this(rulesCurator, cacheProvider, RulesEngineType.fromString(
+            config.getString(ConfigProperties.RULES_ENGINE)));
+    }
+
+    public JsRunnerProvider(RulesCurator rulesCurator, Provider<JsRunnerRequestCache> cacheProvider,
+        RulesEngineType engineType) {
+
         this.rulesCurator = rulesCurator;
         this.cacheProvider = cacheProvider;
+        this.engineType = engineType;
+        this.contextPool = engineType == RulesEngineType.POOLED ?
+            new RhinoContextPool(CONTEXT_FACTORY) :
+            null;
+
+        log.info("Using the {} rules engine", engineType);
 
         log.debug("Compiling rules for initial load");
         this.rulesCurator.updateDbRules();
@@ -157,19 +197,51 @@ public class JsRunnerProvider implements Provider<JsRunner> {
             compileRules();
         }
         Scriptable rulesScope;
+        RhinoContextPool.PooledContext pooledContext = null;
         scriptLock.readLock().lock();
         try {
-            Context context = Context.enter();
-            rulesScope = context.newObject(scope);
-            rulesScope.setPrototype(scope);
-            rulesScope.setParentScope(null);
-            Context.exit();
+            if (this.contextPool != null) {
+                // Reuse the warm context and rules prototype of this request, provided they were
+                // built from the rules we have currently compiled
+                pooledContext = this.contextPool.getContext(cache, this.scope);
+                rulesScope = pooledContext.newScope();
+            }
+            else {
+                rulesScope = this.buildRulesScope();
+            }
         }
         finally {
             scriptLock.readLock().unlock();
         }
 
-        return new JsRunner(rulesScope);
+        return new JsRunner(rulesScope, pooledContext);
+    }
+
+    /**
+     * Builds a new child scope of the compiled rules scope. Must be called while holding the
+     * script read lock.
+     *
+     * @return
+     *  a new scope from which the rules may be invoked
+     */
+    private Scriptable buildRulesScope() {
+        Context context = Context.enter();
+        try {
+            return RhinoContextPool.newChildScope(context, scope);
+        }
+        finally {
+            Context.exit();
+        }
+    }
+
+    /**
+     * Fetches the type of rules engine used by the runners created by this provider.
+     *
+     * @return
+     *  the rules engine type in use by this provider
+     */
+    public RulesEngineType getEngineType() {
+        return this.engineType;
     }
 
     public String getRulesVersion() {
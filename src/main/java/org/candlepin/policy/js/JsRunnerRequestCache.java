@@ -21,7 +21,8 @@ import java.util.Date;
 
 /**
  * A request scoped cache that is used to mitigate repeated
- * DB requests for cp_rules.updated column.
+ * DB requests for cp_rules.updated column. When the pooled rules
+ * engine is in use, it also holds the warm Rhino context of the request.
  * @author fnguyen
  *
  */
@@ -29,6 +30,7 @@ import java.util.Date;
 public class JsRunnerRequestCache {
 
     private Date updated = null;
+    private RhinoContextPool.PooledContext pooledContext = null;
 
     public void setUpdated(Date updated) {
         this.updated = updated;
@@ -37,4 +39,12 @@ public class JsRunnerRequestCache {
     public Date getUpdated() {
         return updated;
     }
+
+    public void setPooledContext(RhinoContextPool.PooledContext pooledContext) {
+        this.pooledContext = pooledContext;
+    }
+
+    public RhinoContextPool.PooledContext getPooledContext() {
+        return pooledContext;
+    }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.policy.js;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Scriptable;
+
+import java.util.Objects;
+
+
+
+/**
+ * The RhinoContextPool keeps one warm Rhino context and one rules prototype scope per unit of
+ * work, allowing the rules runners requested during a request or job to skip the context creation
+ * performed on every invocation by the standard engine.
+ * <p></p>
+ * The context and prototype are stored in the request-scoped JsRunnerRequestCache, and are
+ * discarded along with it at the end of the unit of work; no state is retained by the threads
+ * themselves. The prototype is bound to the compiled rules it was derived from, and is rebuilt the
+ * first time it is requested after the rules have been recompiled. Each runner is given its own
+ * child scope of the prototype, so arguments applied by one runner are never visible to another.
+ */
+public class RhinoContextPool {
+
+    /**
+     * The warm context and rules prototype bound to a single unit of work
+     */
+    public static class PooledContext {
+        private final JsRunnerProvider.DynamicScopeContextFactory factory;
+        private final Context context;
+        private final Scriptable rules;
+        private final Scriptable prototype;
+
+        private PooledContext(JsRunnerProvider.DynamicScopeContextFactory factory, Scriptable rules) {
+            this.factory = factory;
+            this.context = factory.newContext();
+            this.rules = rules;
+
+            Context cx = this.enter();
+            try {
+                this.prototype = newChildScope(cx, rules);
+            }
+            finally {
+                Context.exit();
+            }
+        }
+
+        /**
+         * Enters the warm context of this unit of work. If the thread has already entered a
+         * context, the active context is reused instead. As with Context.enter, each call to this
+         * method must be balanced with a call to Context.exit.
+         *
+         * @return
+         *  the context entered by the current thread
+         */
+        public Context enter() {
+            return this.factory.enterContext(this.context);
+        }
+
+        /**
+         * Builds a new scope for a single rules runner. The scope inherits the compiled rules
+         * through the prototype of this unit of work, but holds its own arguments.
+         *
+         * @return
+         *  a new scope from which the rules may be invoked
+         */
+        public Scriptable newScope() {
+            Context cx = this.enter();
+            try {
+                return newChildScope(cx, this.prototype);
+            }
+            finally {
+                Context.exit();
+            }
+        }
+    }
+
+    private final JsRunnerProvider.DynamicScopeContextFactory factory;
+
+    /**
+     * Creates a new context pool which will build its contexts using the given factory.
+     *
+     * @param factory
+     *  the context factory to use to create new contexts
+     */
+    RhinoContextPool(JsRunnerProvider.DynamicScopeContextFactory factory) {
+        this.factory = Objects.requireNonNull(factory);
+    }
+
+    /**
+     * Fetches the pooled context of the unit of work represented by the given request cache. If
+     * the cache does not yet hold a pooled context, or its context was built from different
+     * compiled rules, a new one is built and stored in the cache.
+     *
+     * @param cache
+     *  the request cache of the current unit of work
+     *
+     * @param rules
+     *  the scope holding the currently compiled rules
+     *
+     * @return
+     *  a pooled context for the given rules
+     */
+    public PooledContext getContext(JsRunnerRequestCache cache, Scriptable rules) {
+        Objects.requireNonNull(cache);
+        Objects.requireNonNull(rules);
+
+        PooledContext pooled = cache.getPooledContext();
+        if (pooled == null || pooled.rules != rules) {
+            pooled = new PooledContext(this.factory, rules);
+            cache.setPooledContext(pooled);
+        }
+
+        return pooled;
+    }
+
+    /**
+     * Builds a new, empty scope inheriting from the given parent.
+     *
+     * @param context
+     *  the context to use to build the scope
+     *
+     * @param parent
+     *  the scope from which the new scope will inherit
+     *
+     * @return
+     *  a new child scope of the given parent
+     */
+    static Scriptable newChildScope(Context context, Scriptable parent) {
+        Scriptable scope = context.newObject(parent);
+        scope.setPrototype(parent);
+        scope.setParentScope(null);
+
+        return scope;
+    }
+}
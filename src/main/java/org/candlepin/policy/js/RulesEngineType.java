@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.policy.js;
+
+import java.util.Locale;
+
+
+
+/**
+ * The RulesEngineType enum defines the strategies available for executing the JavaScript rules.
+ */
+public enum RulesEngineType {
+    /**
+     * Builds a new Rhino context and child scope for every rules runner requested. This is the
+     * default.
+     */
+    STANDARD,
+
+    /**
+     * Keeps a warm Rhino context and rules prototype scope per request or job, reusing them
+     * across the rules runners requested during that unit of work. Each runner still receives
+     * its own child scope. This is opt-in.
+     */
+    POOLED;
+
+    /**
+     * Fetches the engine type matching the given name, ignoring case and surrounding whitespace.
+     *
+     * @param name
+     *  the name of the engine type to fetch
+     *
+     * @throws IllegalArgumentException
+     *  if the name is null or does not represent a known engine type
+     *
+     * @return
+     *  the engine type matching the given name
+     */
+    public static RulesEngineType fromString(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("name is null");
+        }
+
+        return RulesEngineType.valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
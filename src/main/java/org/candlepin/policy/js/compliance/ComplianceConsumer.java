@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.policy.js.compliance;
+
+import org.candlepin.dto.rules.v1.ConsumerDTO;
+import org.candlepin.dto.rules.v1.GuestIdDTO;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+
+
+/**
+ * A read-only view of the consumer being evaluated by the native compliance rules, providing the
+ * consumer fact calculations performed by the rules' FactValueCalculator.
+ */
+class ComplianceConsumer {
+    static final String SOCKETS_ATTRIBUTE = "sockets";
+    static final String CORES_ATTRIBUTE = "cores";
+    static final String ARCH_ATTRIBUTE = "arch";
+    static final String RAM_ATTRIBUTE = "ram";
+    static final String VCPU_ATTRIBUTE = "vcpu";
+    static final String GUEST_LIMIT_ATTRIBUTE = "guest_limit";
+    static final String STORAGE_BAND_ATTRIBUTE = "storage_band";
+
+    static final String SOCKET_FACT = "cpu.cpu_socket(s)";
+    static final String RAM_FACT = "memory.memtotal";
+    static final String CORES_FACT = "cpu.core(s)_per_socket";
+    static final String ARCH_FACT = "uname.machine";
+    static final String IS_VIRT_GUEST_FACT = "virt.is_guest";
+    static final String STORAGE_BAND_USAGE = "band.storage.usage";
+
+    /** Product attributes considered when determining the coverage of a physical consumer */
+    static final String[] PHYSICAL_ATTRIBUTES = {
+        SOCKETS_ATTRIBUTE, CORES_ATTRIBUTE, RAM_ATTRIBUTE, ARCH_ATTRIBUTE, GUEST_LIMIT_ATTRIBUTE,
+        STORAGE_BAND_ATTRIBUTE
+    };
+
+    /** Product attributes considered when determining the coverage of a virtual guest */
+    static final String[] VIRT_ATTRIBUTES = {
+        VCPU_ATTRIBUTE, RAM_ATTRIBUTE, ARCH_ATTRIBUTE, GUEST_LIMIT_ATTRIBUTE, STORAGE_BAND_ATTRIBUTE
+    };
+
+    private final ConsumerDTO consumer;
+    private final Map<String, String> facts;
+    private final boolean guest;
+    private final int activeGuestCount;
+
+    /**
+     * Creates a new view of the given consumer and its guests.
+     *
+     * @param consumer
+     *  the consumer to wrap
+     *
+     * @param guestIds
+     *  the guest IDs reported by the consumer; may be null
+     */
+    ComplianceConsumer(ConsumerDTO consumer, Collection<GuestIdDTO> guestIds) {
+        this.consumer = Objects.requireNonNull(consumer);
+
+        Map<String, String> facts = consumer.getFacts();
+        this.facts = facts != null ? facts : Collections.emptyMap();
+        this.guest = ComplianceValues.equalsIgnoreCase("true", this.getFactValue(IS_VIRT_GUEST_FACT));
+
+        int active = 0;
+        if (guestIds != null) {
+            for (GuestIdDTO guestId : guestIds) {
+                if (guestId != null && isGuestActive(guestId)) {
+                    ++active;
+                }
+            }
+        }
+
+        this.activeGuestCount = active;
+    }
+
+    /**
+     * Determines if a guest is considered active for purposes of compliance (guest_limit). Only
+     * libvirt guests reporting an active state of "1" are considered active.
+     */
+    private static boolean isGuestActive(GuestIdDTO guestId) {
+        Map<String, String> attributes = guestId.getAttributes();
+
+        return attributes != null && "libvirt".equals(attributes.get("virtWhoType")) &&
+            "1".equals(attributes.get("active"));
+    }
+
+    public ConsumerDTO getConsumer() {
+        return this.consumer;
+    }
+
+    public String getUuid() {
+        return this.consumer.getUuid();
+    }
+
+    public Set<String> getInstalledProducts() {
+        Set<String> installed = this.consumer.getInstalledProducts();
+        return installed != null ? installed : Collections.emptySet();
+    }
+
+    public String getTypeLabel() {
+        return this.consumer.getType() != null ? this.consumer.getType().getLabel() : null;
+    }
+
+    public boolean isGuest() {
+        return this.guest;
+    }
+
+    /**
+     * Fetches the product attributes which affect compliance for this consumer.
+     *
+     * @return
+     *  the compliance attributes for this consumer
+     */
+    public String[] getComplianceAttributes() {
+        return this.guest ? VIRT_ATTRIBUTES : PHYSICAL_ATTRIBUTES;
+    }
+
+    /**
+     * Fetches the raw value of the given fact.
+     */
+    public String getRawFact(String fact) {
+        return this.facts.get(fact);
+    }
+
+    /**
+     * Fetches the value of the given fact, treating empty values as unset.
+     */
+    public String getFactValue(String fact) {
+        String value = fact != null ? this.facts.get(fact) : null;
+        return value != null && !value.isEmpty() ? value : null;
+    }
+
+    /**
+     * Calculates the consumer value to compare against the given product attribute when
+     * determining coverage. The value returned is either the raw fact value, or a number computed
+     * from one or more facts.
+     *
+     * @param attribute
+     *  the product attribute for which to calculate the consumer value
+     *
+     * @return
+     *  the consumer value for the given product attribute
+     */
+    public Object getFact(String attribute) {
+        switch (attribute) {
+            case RAM_ATTRIBUTE:
+                double ram = ComplianceValues.parseInt(this.getDefaultFact(attribute)) / 1024 / 1024;
+                return Double.isNaN(ram) ? ram : (double) Math.round(ram);
+
+            case CORES_ATTRIBUTE:
+                return ComplianceValues.toNumber(this.getDefaultFact(CORES_ATTRIBUTE)) *
+                    ComplianceValues.toNumber(this.getDefaultFact(SOCKETS_ATTRIBUTE));
+
+            case VCPU_ATTRIBUTE:
+                return this.getFact(CORES_ATTRIBUTE);
+
+            case GUEST_LIMIT_ATTRIBUTE:
+                return (double) this.activeGuestCount;
+
+            default:
+                return this.getDefaultFact(attribute);
+        }
+    }
+
+    /**
+     * Fetches the raw fact value mapped to the given product attribute, or 1 if the consumer does
+     * not have the fact.
+     */
+    private Object getDefaultFact(String attribute) {
+        String value = this.getFactValue(this.getFactName(attribute));
+        return value != null ? value : (Object) 1.0;
+    }
+
+    private String getFactName(String attribute) {
+        switch (attribute) {
+            case SOCKETS_ATTRIBUTE:
+                return SOCKET_FACT;
+
+            case CORES_ATTRIBUTE:
+            case VCPU_ATTRIBUTE:
+                return CORES_FACT;
+
+            case ARCH_ATTRIBUTE:
+                return ARCH_FACT;
+
+            case RAM_ATTRIBUTE:
+                return RAM_FACT;
+
+            case STORAGE_BAND_ATTRIBUTE:
+                return STORAGE_BAND_USAGE;
+
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.policy.js.compliance;
+
+import org.candlepin.dto.rules.v1.EntitlementDTO;
+import org.candlepin.dto.rules.v1.PoolDTO;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+
+
+
+/**
+ * A read-only view of an entitlement and its pool, providing the attribute lookups used by the
+ * native compliance rules. Attribute resolution mirrors the pool functions added by the rules'
+ * createPool function, including the synthetic vcpu attribute derived from the cores attribute
+ * for guest consumers.
+ */
+class ComplianceEntitlement {
+    static final String STACKING_ID_ATTRIBUTE = "stacking_id";
+    static final String CORES_ATTRIBUTE = "cores";
+    static final String VCPU_ATTRIBUTE = "vcpu";
+
+    private final EntitlementDTO entitlement;
+    private final PoolDTO pool;
+    private final String syntheticVcpu;
+    private final boolean stacked;
+
+    /**
+     * Creates a new view of the given entitlement for the given consumer type.
+     *
+     * @param entitlement
+     *  the entitlement to wrap
+     *
+     * @param guest
+     *  whether or not the consumer being evaluated is a virtual guest
+     */
+    ComplianceEntitlement(EntitlementDTO entitlement, boolean guest) {
+        this.entitlement = Objects.requireNonNull(entitlement);
+        this.pool = Objects.requireNonNull(entitlement.getPool());
+
+        Map<String, String> productAttributes = this.pool.getProductAttributes();
+        this.stacked = productAttributes != null && productAttributes.containsKey(STACKING_ID_ATTRIBUTE);
+
+        // When the pool is missing vcpu and the consumer is virtual, the rules derive vcpu from
+        // the cores attribute
+        String vcpu = null;
+        if (guest && this.lookupAttribute(VCPU_ATTRIBUTE) == null) {
+            String cores = this.lookupAttribute(CORES_ATTRIBUTE);
+
+            if (cores != null) {
+                vcpu = ComplianceValues.format(ComplianceValues.parseInt(cores));
+                vcpu = vcpu == null ? "NaN" : vcpu;
+                vcpu = "0".equals(vcpu) ? null : vcpu;
+            }
+        }
+
+        this.syntheticVcpu = vcpu;
+    }
+
+    private String lookupAttribute(String name) {
+        String value = ComplianceValues.findAttribute(this.pool.getAttributes(), name);
+        return value != null ? value : ComplianceValues.findAttribute(this.pool.getProductAttributes(), name);
+    }
+
+    public EntitlementDTO getEntitlement() {
+        return this.entitlement;
+    }
+
+    public String getId() {
+        return this.entitlement.getId();
+    }
+
+    public int getQuantity() {
+        Integer quantity = this.entitlement.getQuantity();
+        return quantity != null ? quantity : 0;
+    }
+
+    public Date getStartDate() {
+        return this.entitlement.getStartDate();
+    }
+
+    public Date getEndDate() {
+        return this.entitlement.getEndDate();
+    }
+
+    /**
+     * Checks if this entitlement is active on the given date.
+     *
+     * @param date
+     *  the date to check
+     *
+     * @return
+     *  true if the entitlement is active on the given date; false otherwise
+     */
+    public boolean isActiveOn(Date date) {
+        Date start = this.getStartDate();
+        Date end = this.getEndDate();
+
+        return start != null && end != null && start.compareTo(date) <= 0 && end.compareTo(date) >= 0;
+    }
+
+    /**
+     * Fetches the value of the given attribute, checking the pool attributes before the product
+     * attributes.
+     *
+     * @param name
+     *  the name of the attribute to fetch
+     *
+     * @return
+     *  the value of the attribute, or null if the attribute is not set
+     */
+    public String getAttribute(String name) {
+        String value = this.lookupAttribute(name);
+        return value == null && VCPU_ATTRIBUTE.equals(name) ? this.syntheticVcpu : value;
+    }
+
+    /**
+     * Fetches the value of the given attribute, checking the product attributes before the pool
+     * attributes.
+     *
+     * @param name
+     *  the name of the attribute to fetch
+     *
+     * @return
+     *  the value of the attribute, or null if the attribute is not set
+     */
+    public String getProductAttribute(String name) {
+        String value = ComplianceValues.findAttribute(this.pool.getProductAttributes(), name);
+        if (value == null) {
+            value = ComplianceValues.findAttribute(this.pool.getAttributes(), name);
+        }
+
+        return value == null && VCPU_ATTRIBUTE.equals(name) ? this.syntheticVcpu : value;
+    }
+
+    public boolean hasProductAttribute(String name) {
+        return this.getProductAttribute(name) != null;
+    }
+
+    public boolean isStacked() {
+        return this.stacked;
+    }
+
+    public String getStackId() {
+        return this.getProductAttribute(STACKING_ID_ATTRIBUTE);
+    }
+
+    /**
+     * Checks if this entitlement's pool provides the given product, either as its marketing
+     * product or as one of its provided products.
+     *
+     * @param productId
+     *  the ID of the product to check
+     *
+     * @return
+     *  true if the pool provides the given product; false otherwise
+     */
+    public boolean provides(String productId) {
+        if (productId == null) {
+            return false;
+        }
+
+        if (productId.equals(this.pool.getProductId())) {
+            return true;
+        }
+
+        Collection<PoolDTO.ProvidedProductDTO> provided = this.pool.getProvidedProducts();
+        if (provided != null) {
+            for (PoolDTO.ProvidedProductDTO product : provided) {
+                if (productId.equals(product.getProductId())) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+}
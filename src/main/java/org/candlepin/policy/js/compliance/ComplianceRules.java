@@ -15,6 +15,8 @@
 package org.candlepin.policy.js.compliance;
 
 import org.candlepin.audit.EventSink;
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
 import org.candlepin.dto.ModelTranslator;
 import org.candlepin.dto.rules.v1.ComplianceReasonDTO;
 import org.candlepin.dto.rules.v1.ComplianceStatusDTO;
@@ -72,12 +74,13 @@ public class ComplianceRules {
     private final ConsumerTypeCurator consumerTypeCurator;
     private final RulesObjectMapper mapper;
     private final ModelTranslator translator;
+    private final NativeComplianceRules nativeRules;
 
     @Inject
     public ComplianceRules(JsRunner jsRules, EntitlementCurator entCurator,
         StatusReasonMessageGenerator generator, EventSink eventSink, ConsumerCurator consumerCurator,
         ConsumerTypeCurator consumerTypeCurator, RulesObjectMapper mapper,
-        ModelTranslator translator) {
+        ModelTranslator translator, Configuration config) {
 
         this.jsRules = Objects.requireNonNull(jsRules);
         this.entCurator = Objects.requireNonNull(entCurator);
@@ -88,6 +91,10 @@ public class ComplianceRules {
         this.mapper = Objects.requireNonNull(mapper);
         this.translator = Objects.requireNonNull(translator);
 
+        this.nativeRules = config.getBoolean(ConfigProperties.COMPLIANCE_NATIVE_ENABLED) ?
+            new NativeComplianceRules() :
+            null;
+
         jsRules.init("compliance_name_space");
     }
 
@@ -192,19 +199,30 @@ public class ComplianceRules {
             return new ComplianceStatus(new Date());
         }
 
-        JsonJsContext args = new JsonJsContext(mapper);
-        args.put("consumer", this.translator.translate(consumer, ConsumerDTO.class));
-        args.put("entitlements", entStream);
-        args.put("ondate", date);
-        args.put("calculateCompliantUntil", calculateCompliantUntil);
-        args.put("calculateProductComplianceDateRanges", calculateProductComplianceDateRanges);
-        args.put("log", log, false);
-        args.put("guestIds", guestIdStream);
+        ConsumerDTO consumerDTO = this.translator.translate(consumer, ConsumerDTO.class);
+        String json = null;
+
+        if (this.nativeRules == null) {
+            JsonJsContext args = new JsonJsContext(mapper);
+            args.put("consumer", consumerDTO);
+            args.put("entitlements", entStream);
+            args.put("ondate", date);
+            args.put("calculateCompliantUntil", calculateCompliantUntil);
+            args.put("calculateProductComplianceDateRanges", calculateProductComplianceDateRanges);
+            args.put("log", log, false);
+            args.put("guestIds", guestIdStream);
 
-        // Convert the JSON returned into a ComplianceStatus object:
-        String json = jsRules.runJsFunction(String.class, "get_status", args);
+            json = jsRules.runJsFunction(String.class, "get_status", args);
+        }
+
+        // Convert the status returned into a ComplianceStatus object:
         try {
-            ComplianceStatusDTO statusDTO = mapper.toObject(json, ComplianceStatusDTO.class);
+            ComplianceStatusDTO statusDTO = this.nativeRules != null ?
+                this.nativeRules.getStatus(consumerDTO, entStream.collect(Collectors.toList()),
+                    guestIdStream.collect(Collectors.toList()), date, calculateCompliantUntil,
+                    calculateProductComplianceDateRanges) :
+                mapper.toObject(json, ComplianceStatusDTO.class);
+
             ComplianceStatus status = new ComplianceStatus();
             Set<Entitlement> allEntitlements = Stream.concat(
                 newEntitlements != null ? newEntitlements.stream() : Stream.empty(),
@@ -266,6 +284,11 @@ public class ComplianceRules {
             consumer.getGuestIds().stream()
                 .map(this.translator.getStreamMapper(GuestId.class, GuestIdDTO.class));
 
+        if (this.nativeRules != null) {
+            return this.nativeRules.isStackCompliant(this.translator.translate(consumer, ConsumerDTO.class),
+                stackId, entStream.collect(Collectors.toList()), guestIdStream.collect(Collectors.toList()));
+        }
+
         JsonJsContext args = new JsonJsContext(mapper);
         args.put("stack_id", stackId);
         args.put("consumer", this.translator.translate(consumer, ConsumerDTO.class));
@@ -287,6 +310,13 @@ public class ComplianceRules {
             consumer.getGuestIds().stream()
                 .map(this.translator.getStreamMapper(GuestId.class, GuestIdDTO.class));
 
+        if (this.nativeRules != null) {
+            return this.nativeRules.isEntitlementCompliant(
+                this.translator.translate(consumer, ConsumerDTO.class),
+                this.translator.translate(ent, EntitlementDTO.class),
+                entStream.collect(Collectors.toList()), guestIdStream.collect(Collectors.toList()));
+        }
+
         JsonJsContext args = new JsonJsContext(mapper);
         args.put("consumer", this.translator.translate(consumer, ConsumerDTO.class));
         args.put("entitlement", this.translator.translate(ent, EntitlementDTO.class));
@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.policy.js.compliance;
+
+import org.candlepin.dto.rules.v1.ComplianceReasonDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+
+
+/**
+ * A compliance tracker tracks the state of an entitlement or a set of stackable entitlements for
+ * the native compliance rules. A stack changes what it provides based on which entitlements make
+ * up the stack; as entitlements are added, the tracker accumulates the values of the product
+ * attributes which affect compliance for the consumer.
+ * <p></p>
+ * This is a port of the rules' createComplianceTracker and CoverageCalculator, and must be kept
+ * consistent with them.
+ */
+class ComplianceTracker {
+    static final String INSTANCE_ATTRIBUTE = "instance_multiplier";
+    static final String REQUIRES_HOST_ATTRIBUTE = "requires_host";
+
+    /** The kind of source tracked by a compliance tracker */
+    enum SourceType {
+        ENTITLEMENT("entitlement_id"),
+        STACK("stack_id");
+
+        private final String idAttribute;
+
+        SourceType(String idAttribute) {
+            this.idAttribute = idAttribute;
+        }
+    }
+
+    /**
+     * The coverage of a consumer provided by a tracked entitlement or stack.
+     */
+    static class Coverage {
+        private final boolean covered;
+        private final List<ComplianceReasonDTO> reasons;
+
+        Coverage(boolean covered, List<ComplianceReasonDTO> reasons) {
+            this.covered = covered;
+            this.reasons = reasons;
+        }
+
+        public boolean isCovered() {
+            return this.covered;
+        }
+
+        public List<ComplianceReasonDTO> getReasons() {
+            return this.reasons;
+        }
+    }
+
+    private static final List<String> UNCHECKED_WHEN_HOST_RESTRICTED = Arrays.asList(
+        ComplianceConsumer.RAM_ATTRIBUTE, ComplianceConsumer.VCPU_ATTRIBUTE);
+
+    private final ComplianceConsumer consumer;
+    private final SourceType type;
+    private final Map<String, Object> accumulatedValues;
+    private String id;
+    private String hostRestricted;
+    private boolean tracksEntitlements;
+
+    /**
+     * Creates a new compliance tracker for the given consumer. If a stack ID is provided, the
+     * tracker will track the stack; otherwise it will track a single entitlement.
+     *
+     * @param consumer
+     *  the consumer for which compliance is being tracked
+     *
+     * @param stackId
+     *  the ID of the stack to track, or null to track a single entitlement
+     */
+    ComplianceTracker(ComplianceConsumer consumer, String stackId) {
+        this.consumer = Objects.requireNonNull(consumer);
+        this.type = stackId != null ? SourceType.STACK : SourceType.ENTITLEMENT;
+        this.id = stackId;
+        this.accumulatedValues = new HashMap<>();
+        this.hostRestricted = null;
+        this.tracksEntitlements = false;
+    }
+
+    /**
+     * Determines whether the specified product attribute is being enforced by this tracker. An
+     * attribute is enforced if the tracker has an accumulated value for it. Guests are not subject
+     * to RAM or vCPU limitations when using a host-restricted pool.
+     *
+     * @param attribute
+     *  the product attribute to check
+     *
+     * @return
+     *  true if the attribute is enforced; false otherwise
+     */
+    public boolean enforces(String attribute) {
+        if (this.hostRestricted != null && this.consumer.isGuest() &&
+            UNCHECKED_WHEN_HOST_RESTRICTED.contains(attribute)) {
+            return false;
+        }
+
+        return this.accumulatedValues.containsKey(attribute);
+    }
+
+    public Object getAccumulatedValue(String attribute) {
+        return this.accumulatedValues.get(attribute);
+    }
+
+    /**
+     * Updates the accumulated values of this tracker as if the given quantity of entitlements
+     * were consumed from the given entitlement's pool.
+     *
+     * @param source
+     *  the entitlement providing the pool from which to accumulate attribute values
+     *
+     * @param quantity
+     *  the quantity to apply
+     */
+    public void updateAccumulatedFromPool(ComplianceEntitlement source, int quantity) {
+        String requiresHost = source.getAttribute(REQUIRES_HOST_ATTRIBUTE);
+        if (requiresHost != null) {
+            this.hostRestricted = requiresHost;
+        }
+
+        for (String attribute : this.consumer.getComplianceAttributes()) {
+            String poolValue = source.getProductAttribute(attribute);
+
+            if (poolValue != null) {
+                Object stackValue = this.enforces(attribute) ? this.getAccumulatedValue(attribute) : null;
+                this.accumulatedValues.put(attribute,
+                    this.accumulate(attribute, stackValue, poolValue, source, quantity));
+            }
+        }
+    }
+
+    /**
+     * Updates the accumulated values of this tracker from the given entitlement. Entitlements which
+     * are not stacked only count for a quantity of one.
+     *
+     * @param entitlement
+     *  the entitlement to add to this tracker
+     */
+    public void updateAccumulatedFromEnt(ComplianceEntitlement entitlement) {
+        if (this.type == SourceType.ENTITLEMENT && !this.tracksEntitlements) {
+            this.id = entitlement.getId();
+        }
+
+        this.tracksEntitlements = true;
+
+        int quantity = entitlement.getQuantity();
+        if (!entitlement.isStacked() && quantity > 1) {
+            quantity = 1;
+        }
+
+        this.updateAccumulatedFromPool(entitlement, quantity);
+    }
+
+    private Object accumulate(String attribute, Object stackValue, String poolValue,
+        ComplianceEntitlement source, int quantity) {
+
+        switch (attribute) {
+            case ComplianceConsumer.ARCH_ATTRIBUTE:
+                @SuppressWarnings("unchecked")
+                List<String> arches = stackValue instanceof List ?
+                    (List<String>) stackValue :
+                    new ArrayList<>();
+
+                arches.add(poolValue);
+                return arches;
+
+            case ComplianceConsumer.SOCKETS_ATTRIBUTE:
+                double increment = ComplianceValues.parseInt(source.getProductAttribute(INSTANCE_ATTRIBUTE));
+                if (Double.isNaN(increment) || increment == 0) {
+                    increment = 1;
+                }
+
+                // use lowest quantity evenly divisible by the instance multiplier
+                double adjusted = quantity - (quantity % increment);
+                return this.toStackValue(stackValue) +
+                    ((ComplianceValues.parseInt(poolValue) * adjusted) / increment);
+
+            case ComplianceConsumer.GUEST_LIMIT_ATTRIBUTE:
+                // The value doesn't matter, it just needs to be enforced
+                return -1.0;
+
+            default:
+                return this.toStackValue(stackValue) + (ComplianceValues.parseInt(poolValue) * quantity);
+        }
+    }
+
+    private double toStackValue(Object stackValue) {
+        return stackValue instanceof Number ?
+            ComplianceValues.toInt32(((Number) stackValue).doubleValue()) :
+            ComplianceValues.toInt32(ComplianceValues.toNumber(stackValue));
+    }
+
+    /**
+     * Determines the coverage of the consumer provided by the entitlements tracked by this
+     * tracker. Global attributes, such as guest_limit, are evaluated against the given set of
+     * entitlements rather than the tracked entitlements.
+     *
+     * @param entitlements
+     *  the entitlements attached to the consumer
+     *
+     * @return
+     *  the coverage provided by this tracker
+     */
+    public Coverage getCoverage(List<ComplianceEntitlement> entitlements) {
+        String[] attributes = this.consumer.getComplianceAttributes();
+
+        if (this.enforces(ComplianceConsumer.GUEST_LIMIT_ATTRIBUTE)) {
+            this.accumulatedValues.put(ComplianceConsumer.GUEST_LIMIT_ATTRIBUTE,
+                getGlobalGuestLimit(entitlements));
+        }
+
+        int coverageCount = 0;
+        List<ComplianceReasonDTO> reasons = new ArrayList<>();
+
+        for (String attribute : attributes) {
+            // if the value doesn't exist we do not enforce it.
+            if (!this.enforces(attribute)) {
+                ++coverageCount;
+                continue;
+            }
+
+            ComplianceReasonDTO reason;
+            switch (attribute) {
+                case ComplianceConsumer.ARCH_ATTRIBUTE:
+                    reason = this.checkArchitecture(attribute);
+                    break;
+
+                case ComplianceConsumer.GUEST_LIMIT_ATTRIBUTE:
+                    reason = this.checkGuestLimit(attribute);
+                    break;
+
+                default:
+                    reason = this.checkQuantity(attribute);
+            }
+
+            if (reason == null) {
+                ++coverageCount;
+            }
+            else {
+                reasons.add(reason);
+            }
+        }
+
+        return new Coverage(coverageCount == attributes.length, reasons);
+    }
+
+    /**
+     * Calculates the guest limit provided by the given entitlements. A limit of -1 on any
+     * entitlement is unlimited; otherwise the highest limit applies.
+     */
+    private static Double getGlobalGuestLimit(List<ComplianceEntitlement> entitlements) {
+        Double total = null;
+
+        for (ComplianceEntitlement entitlement : entitlements) {
+            String value = entitlement.getProductAttribute(ComplianceConsumer.GUEST_LIMIT_ATTRIBUTE);
+
+            if (value != null) {
+                if (total == null) {
+                    total = 0.0;
+                }
+
+                double limit = ComplianceValues.parseInt(value);
+                if (limit == -1) {
+                    return limit;
+                }
+
+                if (limit > total) {
+                    total = limit;
+                }
+            }
+        }
+
+        return total;
+    }
+
+    private ComplianceReasonDTO checkArchitecture(String attribute) {
+        String consumerArch = this.consumer.getRawFact(ComplianceConsumer.ARCH_FACT);
+        String consumerType = this.consumer.getTypeLabel();
+
+        Object accumulated = this.getAccumulatedValue(attribute);
+        if (accumulated instanceof List) {
+            for (Object arch : (List<?>) accumulated) {
+                String archString = (String) arch;
+
+                if (!architectureMatches(archString, consumerArch, consumerType)) {
+                    return this.buildReason(attribute, consumerArch, archString);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private ComplianceReasonDTO checkGuestLimit(String attribute) {
+        Object consumerQuantity = this.consumer.getFact(attribute);
+        Object sourceValue = this.getAccumulatedValue(attribute);
+
+        boolean covered = (sourceValue != null && ComplianceValues.toNumber(sourceValue) == -1) ||
+            ComplianceValues.parseInt(sourceValue) >= ComplianceValues.toNumber(consumerQuantity);
+
+        return covered ? null : this.buildReason(attribute, consumerQuantity, sourceValue);
+    }
+
+    private ComplianceReasonDTO checkQuantity(String attribute) {
+        Object consumerQuantity = this.consumer.getFact(attribute);
+        Object sourceValue = this.getAccumulatedValue(attribute);
+
+        boolean covered = ComplianceValues.parseInt(sourceValue) >=
+            ComplianceValues.toNumber(consumerQuantity);
+
+        return covered ? null : this.buildReason(attribute, consumerQuantity, sourceValue);
+    }
+
+    private ComplianceReasonDTO buildReason(String attribute, Object has, Object covered) {
+        String key = attribute.toUpperCase(Locale.ROOT);
+
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("has", ComplianceValues.format(has));
+        attributes.put("covered", ComplianceValues.format(covered));
+        attributes.put(this.type.idAttribute, this.id);
+
+        return new ComplianceReasonDTO()
+            .setKey(key)
+            .setMessage(key)
+            .setAttributes(attributes);
+    }
+
+    /**
+     * Checks if the given product architecture string supports the consumer's architecture.
+     * Non-system consumers without an architecture pass regardless of the product architecture.
+     *
+     * @param productArches
+     *  a comma-separated list of architectures supported by the product
+     *
+     * @param consumerArch
+     *  the consumer's architecture
+     *
+     * @param consumerType
+     *  the label of the consumer's type
+     *
+     * @return
+     *  true if the product supports the consumer's architecture; false otherwise
+     */
+    static boolean architectureMatches(String productArches, String consumerArch, String consumerType) {
+        boolean hasArch = consumerArch != null && !consumerArch.isEmpty();
+        if (!hasArch && !"system".equals(consumerType)) {
+            return true;
+        }
+
+        if (productArches != null) {
+            List<String> supported = new ArrayList<>(
+                Arrays.asList(productArches.toUpperCase(Locale.ROOT).split(",", -1)));
+
+            // If X86 is supported, add all variants to this list
+            if (supported.contains("X86")) {
+                supported.add("I386");
+                supported.add("I586");
+                supported.add("I686");
+            }
+
+            if (!supported.contains("ALL") &&
+                (!hasArch || !supported.contains(consumerArch.toUpperCase(Locale.ROOT)))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
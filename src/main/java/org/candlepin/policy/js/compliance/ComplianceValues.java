@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.policy.js.compliance;
+
+import java.util.Map;
+
+
+
+/**
+ * Utility methods for reproducing the value coercions performed by the JavaScript compliance
+ * rules, allowing the native compliance implementation to produce the same results as the rules
+ * for non-trivial attribute and fact values.
+ */
+final class ComplianceValues {
+
+    private ComplianceValues() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Looks up an attribute in the given attribute map. As in the rules, an attribute with a value
+     * of "0" is considered unset.
+     *
+     * @param attributes
+     *  the attribute map in which to look up the attribute; may be null
+     *
+     * @param name
+     *  the name of the attribute to look up
+     *
+     * @return
+     *  the value of the attribute, or null if the attribute is not set
+     */
+    static String findAttribute(Map<String, String> attributes, String name) {
+        if (attributes == null) {
+            return null;
+        }
+
+        String value = attributes.get(name);
+        return value == null || "0".equals(value) ? null : value;
+    }
+
+    /**
+     * Parses the leading integer of the given value, in the manner of the JavaScript parseInt
+     * function.
+     *
+     * @param value
+     *  the value to parse; may be a string, a number or null
+     *
+     * @return
+     *  the parsed integer value, or NaN if the value does not begin with an integer
+     */
+    static double parseInt(Object value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+
+        if (value instanceof Number) {
+            double number = ((Number) value).doubleValue();
+            return Double.isNaN(number) || Double.isInfinite(number) ? Double.NaN : (double) (long) number;
+        }
+
+        String str = value.toString().trim();
+        int offset = 0;
+        boolean negative = false;
+
+        if (!str.isEmpty() && (str.charAt(0) == '-' || str.charAt(0) == '+')) {
+            negative = str.charAt(0) == '-';
+            offset = 1;
+        }
+
+        int end = offset;
+        while (end < str.length() && Character.isDigit(str.charAt(end))) {
+            ++end;
+        }
+
+        if (end == offset) {
+            return Double.NaN;
+        }
+
+        double result = Double.parseDouble(str.substring(offset, end));
+        return negative ? -result : result;
+    }
+
+    /**
+     * Converts the given value to a number, in the manner of the JavaScript Number function.
+     *
+     * @param value
+     *  the value to convert; may be a string, a number or null
+     *
+     * @return
+     *  the numeric value of the given value, or NaN if the value cannot be converted
+     */
+    static double toNumber(Object value) {
+        if (value == null) {
+            return 0;
+        }
+
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+
+        String str = value.toString().trim();
+        if (str.isEmpty()) {
+            return 0;
+        }
+
+        if (!str.matches("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?")) {
+            return Double.NaN;
+        }
+
+        return Double.parseDouble(str);
+    }
+
+    /**
+     * Converts the given number to a 32-bit integer, in the manner of the JavaScript bitwise
+     * operators. NaN and infinite values are converted to zero.
+     *
+     * @param value
+     *  the number to convert
+     *
+     * @return
+     *  the converted number
+     */
+    static double toInt32(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return 0;
+        }
+
+        return (int) (long) value;
+    }
+
+    /**
+     * Converts the given value to the string representation the rules would emit for it when
+     * serialized to JSON. Strings are returned unchanged, integral numbers are rendered without a
+     * decimal component, and values which cannot be represented in JSON are returned as null.
+     *
+     * @param value
+     *  the value to render
+     *
+     * @return
+     *  the rendered value, or null if the value is null or not representable
+     */
+    static String format(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+
+        if (value instanceof Number) {
+            double number = ((Number) value).doubleValue();
+
+            if (Double.isNaN(number) || Double.isInfinite(number)) {
+                return null;
+            }
+
+            if (number == Math.rint(number) && Math.abs(number) < 1e15) {
+                return Long.toString((long) number);
+            }
+
+            return Double.toString(number);
+        }
+
+        return value.toString();
+    }
+
+    /**
+     * Checks if the given strings are equal, ignoring case. Null values are only considered equal
+     * to other null values.
+     *
+     * @param str1
+     *  the first string to compare
+     *
+     * @param str2
+     *  the second string to compare
+     *
+     * @return
+     *  true if the strings are equal, ignoring case; false otherwise
+     */
+    static boolean equalsIgnoreCase(String str1, String str2) {
+        return str1 == null ? str2 == null : str1.equalsIgnoreCase(str2);
+    }
+}
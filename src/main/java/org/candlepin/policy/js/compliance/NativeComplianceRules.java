@@ -0,0 +1,533 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.policy.js.compliance;
+
+import org.candlepin.dto.api.server.v1.DateRange;
+import org.candlepin.dto.rules.v1.ComplianceReasonDTO;
+import org.candlepin.dto.rules.v1.ComplianceStatusDTO;
+import org.candlepin.dto.rules.v1.ConsumerDTO;
+import org.candlepin.dto.rules.v1.EntitlementDTO;
+import org.candlepin.dto.rules.v1.GuestIdDTO;
+import org.candlepin.util.Util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+
+
+/**
+ * A native Java implementation of the compliance portion of the JavaScript rules. Given the same
+ * rules DTOs passed to the get_status, is_stack_compliant and is_ent_compliant rules functions,
+ * this class produces the same results without serializing the consumer and its entitlements to
+ * JSON or invoking the rules engine.
+ * <p></p>
+ * Instances of this class hold no state between evaluations, and may be safely shared between
+ * threads.
+ */
+public class NativeComplianceRules {
+    private static final Logger log = LoggerFactory.getLogger(NativeComplianceRules.class);
+
+    private static final String UNMAPPED_GUESTS_ONLY = "unmapped_guests_only";
+
+    /**
+     * The compliance status of a consumer on a given date, as built by the rules'
+     * getComplianceStatusOnDate function.
+     */
+    private static class StatusOnDate {
+        private final Date date;
+        private final Map<String, Set<EntitlementDTO>> partialStacks = new HashMap<>();
+        private final Map<String, Set<EntitlementDTO>> partiallyCompliantProducts = new HashMap<>();
+        private final Map<String, Set<EntitlementDTO>> compliantProducts = new HashMap<>();
+        private final Set<String> nonCompliantProducts = new LinkedHashSet<>();
+        private final Set<ComplianceReasonDTO> reasons = new HashSet<>();
+
+        StatusOnDate(Date date) {
+            this.date = date;
+        }
+
+        private static void add(Map<String, Set<EntitlementDTO>> map, String key, EntitlementDTO ent) {
+            map.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(ent);
+        }
+
+        public boolean isCompliant() {
+            return this.nonCompliantProducts.isEmpty() && this.partiallyCompliantProducts.isEmpty();
+        }
+
+        public boolean isPartiallyCompliant() {
+            return !this.compliantProducts.isEmpty() || !this.partiallyCompliantProducts.isEmpty();
+        }
+
+        public boolean isCompliant(String productId) {
+            return this.compliantProducts.containsKey(productId);
+        }
+
+        public boolean isPartiallyCompliant(String productId) {
+            return this.partiallyCompliantProducts.containsKey(productId);
+        }
+
+        public ComplianceStatusDTO toDTO() {
+            return new ComplianceStatusDTO()
+                .setDate(this.date)
+                .setPartialStacks(this.partialStacks)
+                .setPartiallyCompliantProducts(this.partiallyCompliantProducts)
+                .setCompliantProducts(this.compliantProducts)
+                .setNonCompliantProducts(this.nonCompliantProducts)
+                .setReasons(this.reasons);
+        }
+    }
+
+    /**
+     * Checks the compliance status of a consumer on a specific date.
+     *
+     * @param consumer
+     *  the consumer for which to check compliance
+     *
+     * @param entitlements
+     *  the entitlements to consider when checking compliance
+     *
+     * @param guestIds
+     *  the guest IDs reported by the consumer; may be null
+     *
+     * @param date
+     *  the date on which to check compliance
+     *
+     * @param calculateCompliantUntil
+     *  whether or not to calculate how long the consumer will remain compliant
+     *
+     * @param calculateProductComplianceDateRanges
+     *  whether or not to calculate the compliance date ranges of each installed product
+     *
+     * @return
+     *  the compliance status of the consumer on the given date
+     */
+    public ComplianceStatusDTO getStatus(ConsumerDTO consumer, Collection<EntitlementDTO> entitlements,
+        Collection<GuestIdDTO> guestIds, Date date, boolean calculateCompliantUntil,
+        boolean calculateProductComplianceDateRanges) {
+
+        Objects.requireNonNull(date);
+
+        ComplianceConsumer wrapped = new ComplianceConsumer(consumer, guestIds);
+        List<ComplianceEntitlement> ents = this.wrapEntitlements(wrapped, entitlements);
+
+        StatusOnDate status = this.getStatusOnDate(wrapped, ents, date);
+        ComplianceStatusDTO output = status.toDTO();
+
+        if (status.isCompliant() && calculateCompliantUntil && !ents.isEmpty()) {
+            output.setCompliantUntil(this.determineCompliantUntilDate(wrapped, ents, date));
+        }
+
+        if (status.isPartiallyCompliant() && calculateProductComplianceDateRanges && !ents.isEmpty()) {
+            output.setProductComplianceDateRanges(
+                this.getProductComplianceDateRanges(wrapped, ents, date, status));
+        }
+
+        return output;
+    }
+
+    /**
+     * Checks if the given stack is compliant for the consumer, considering only the provided
+     * entitlements.
+     *
+     * @param consumer
+     *  the consumer for which to check the stack
+     *
+     * @param stackId
+     *  the ID of the stack to check
+     *
+     * @param entitlements
+     *  the entitlements to consider
+     *
+     * @param guestIds
+     *  the guest IDs reported by the consumer; may be null
+     *
+     * @return
+     *  true if the stack is compliant; false otherwise
+     */
+    public boolean isStackCompliant(ConsumerDTO consumer, String stackId,
+        Collection<EntitlementDTO> entitlements, Collection<GuestIdDTO> guestIds) {
+
+        ComplianceConsumer wrapped = new ComplianceConsumer(consumer, guestIds);
+        List<ComplianceEntitlement> ents = this.wrapEntitlements(wrapped, entitlements);
+
+        return this.getStackCoverage(wrapped, stackId, ents).isCovered();
+    }
+
+    /**
+     * Checks if the given entitlement covers the consumer.
+     *
+     * @param consumer
+     *  the consumer for which to check the entitlement
+     *
+     * @param entitlement
+     *  the entitlement to check
+     *
+     * @param entitlements
+     *  the entitlements attached to the consumer on the date being checked
+     *
+     * @param guestIds
+     *  the guest IDs reported by the consumer; may be null
+     *
+     * @return
+     *  true if the entitlement is compliant; false otherwise
+     */
+    public boolean isEntitlementCompliant(ConsumerDTO consumer, EntitlementDTO entitlement,
+        Collection<EntitlementDTO> entitlements, Collection<GuestIdDTO> guestIds) {
+
+        ComplianceConsumer wrapped = new ComplianceConsumer(consumer, guestIds);
+        List<ComplianceEntitlement> ents = this.wrapEntitlements(wrapped, entitlements);
+
+        return this.getEntitlementCoverage(wrapped, new ComplianceEntitlement(entitlement, wrapped.isGuest()),
+            ents).isCovered();
+    }
+
+    private List<ComplianceEntitlement> wrapEntitlements(ComplianceConsumer consumer,
+        Collection<EntitlementDTO> entitlements) {
+
+        List<ComplianceEntitlement> output = new ArrayList<>();
+
+        if (entitlements != null) {
+            for (EntitlementDTO entitlement : entitlements) {
+                output.add(new ComplianceEntitlement(entitlement, consumer.isGuest()));
+            }
+        }
+
+        return output;
+    }
+
+    private ComplianceTracker.Coverage getStackCoverage(ComplianceConsumer consumer, String stackId,
+        List<ComplianceEntitlement> entitlements) {
+
+        ComplianceTracker tracker = new ComplianceTracker(consumer, stackId);
+
+        for (ComplianceEntitlement entitlement : entitlements) {
+            if (entitlement.isStacked() && Objects.equals(stackId, entitlement.getStackId())) {
+                tracker.updateAccumulatedFromEnt(entitlement);
+            }
+        }
+
+        return tracker.getCoverage(entitlements);
+    }
+
+    private ComplianceTracker.Coverage getEntitlementCoverage(ComplianceConsumer consumer,
+        ComplianceEntitlement entitlement, List<ComplianceEntitlement> entitlements) {
+
+        ComplianceTracker tracker = new ComplianceTracker(consumer, null);
+        tracker.updateAccumulatedFromEnt(entitlement);
+
+        return tracker.getCoverage(entitlements);
+    }
+
+    /**
+     * Checks the compliance status of a consumer on a given date.
+     */
+    private StatusOnDate getStatusOnDate(ComplianceConsumer consumer,
+        List<ComplianceEntitlement> entitlements, Date date) {
+
+        StatusOnDate status = new StatusOnDate(date);
+
+        // Track the stack IDs we've already checked to save some time
+        Set<String> compliantStackIds = new HashSet<>();
+        Set<String> nonCompliantStackIds = new HashSet<>();
+
+        log.debug("Checking compliance status for consumer: {} on date: {}", consumer.getUuid(), date);
+
+        List<ComplianceEntitlement> entsOnDate = new ArrayList<>();
+        for (ComplianceEntitlement entitlement : entitlements) {
+            if (entitlement.isActiveOn(date)) {
+                entsOnDate.add(entitlement);
+            }
+        }
+
+        for (ComplianceEntitlement ent : entsOnDate) {
+            List<String> relevantPids = new ArrayList<>();
+            for (String pid : consumer.getInstalledProducts()) {
+                if (ent.provides(pid)) {
+                    relevantPids.add(pid);
+                }
+            }
+
+            boolean partiallyStacked = false;
+
+            // If the pool is stacked, check that the stack requirements are met
+            if (ent.isStacked()) {
+                String stackId = ent.getStackId();
+
+                if (nonCompliantStackIds.contains(stackId)) {
+                    partiallyStacked = true;
+                    StatusOnDate.add(status.partialStacks, stackId, ent.getEntitlement());
+                }
+                else if (!compliantStackIds.contains(stackId)) {
+                    ComplianceTracker.Coverage coverage = this.getStackCoverage(consumer, stackId,
+                        entsOnDate);
+
+                    if (!coverage.isCovered()) {
+                        partiallyStacked = true;
+                        StatusOnDate.add(status.partialStacks, stackId, ent.getEntitlement());
+                        nonCompliantStackIds.add(stackId);
+                        status.reasons.addAll(coverage.getReasons());
+                    }
+                    else {
+                        compliantStackIds.add(stackId);
+                    }
+                }
+            }
+
+            // Non-stacked entitlements are only evaluated once, regardless of the number of
+            // products they provide. If we have no installed products and the entitlement is
+            // partially covered, we want the system to be partial.
+            ComplianceTracker.Coverage entCoverage = null;
+            if (!ent.isStacked() && (relevantPids.isEmpty() || !partiallyStacked)) {
+                entCoverage = this.getEntitlementCoverage(consumer, ent, entsOnDate);
+
+                if (relevantPids.isEmpty() && !entCoverage.isCovered()) {
+                    status.reasons.addAll(entCoverage.getReasons());
+                }
+            }
+
+            // If the consumer has an entitlement from a pool marked unmapped_guests_only it can
+            // only hope to be yellow
+            if (ComplianceValues.equalsIgnoreCase("true", ent.getAttribute(UNMAPPED_GUESTS_ONLY))) {
+                status.reasons.add(buildUnmappedEntitlementReason(ent.getId()));
+            }
+
+            for (String pid : relevantPids) {
+                if (partiallyStacked) {
+                    StatusOnDate.add(status.partiallyCompliantProducts, pid, ent.getEntitlement());
+                }
+                else if (entCoverage != null && !entCoverage.isCovered()) {
+                    StatusOnDate.add(status.partiallyCompliantProducts, pid, ent.getEntitlement());
+                    status.reasons.addAll(entCoverage.getReasons());
+                }
+                else {
+                    StatusOnDate.add(status.compliantProducts, pid, ent.getEntitlement());
+                }
+            }
+        }
+
+        // If we also found a regular entitlement which provides a partially compliant product,
+        // it should not be considered partially compliant as well. We do however still leave the
+        // stack in partial stacks list, as this should be repaired.
+        status.partiallyCompliantProducts.keySet().removeAll(status.compliantProducts.keySet());
+
+        // Run through the consumer's installed products and see if there are any we didn't find an
+        // entitlement for along the way
+        for (String pid : consumer.getInstalledProducts()) {
+            if (!status.isCompliant(pid) && !status.isPartiallyCompliant(pid)) {
+                status.nonCompliantProducts.add(pid);
+                status.reasons.add(buildInstalledProductReason(pid));
+            }
+        }
+
+        return status;
+    }
+
+    private static ComplianceReasonDTO buildInstalledProductReason(String productId) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("product_id", productId);
+
+        return new ComplianceReasonDTO()
+            .setKey("NOTCOVERED")
+            .setMessage("NOTCOVERED")
+            .setAttributes(attributes);
+    }
+
+    private static ComplianceReasonDTO buildUnmappedEntitlementReason(String entitlementId) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("entitlement_id", entitlementId);
+
+        return new ComplianceReasonDTO()
+            .setKey("UNMAPPEDGUEST")
+            .setMessage("UNMAPPEDGUEST")
+            .setAttributes(attributes);
+    }
+
+    /**
+     * Builds a sorted list of the start and/or end dates of the given entitlements. Duplicate
+     * dates are retained.
+     */
+    private List<Date> getSortedEntitlementDates(List<ComplianceEntitlement> entitlements,
+        boolean useStartDates, boolean useEndDates) {
+
+        List<Date> dates = new ArrayList<>();
+
+        for (ComplianceEntitlement entitlement : entitlements) {
+            if (useStartDates && entitlement.getStartDate() != null) {
+                dates.add(entitlement.getStartDate());
+            }
+
+            if (useEndDates && entitlement.getEndDate() != null) {
+                dates.add(entitlement.getEndDate());
+            }
+        }
+
+        dates.sort(null);
+        return dates;
+    }
+
+    /**
+     * Determines the date the consumer stops being compliant, starting from the given date.
+     * Returns null if the consumer remains compliant past the end of its last entitlement, or if
+     * the consumer has no installed products.
+     */
+    private Date determineCompliantUntilDate(ComplianceConsumer consumer,
+        List<ComplianceEntitlement> entitlements, Date startDate) {
+
+        Set<String> installed = consumer.getInstalledProducts();
+        if (installed.isEmpty()) {
+            return null;
+        }
+
+        List<ComplianceEntitlement> providing = new ArrayList<>();
+        for (ComplianceEntitlement entitlement : entitlements) {
+            for (String pid : installed) {
+                if (entitlement.provides(pid)) {
+                    providing.add(entitlement);
+                    break;
+                }
+            }
+        }
+
+        Date lastDate = startDate;
+        for (Date date : this.getSortedEntitlementDates(providing, false, true)) {
+            // Ignore past dates and duplicates
+            if (date.compareTo(lastDate) <= 0) {
+                continue;
+            }
+
+            // Need to check if we are still compliant after the end date, so we add one second.
+            Date dateToCheck = new Date(date.getTime() + 1000);
+            lastDate = dateToCheck;
+
+            if (!this.getStatusOnDate(consumer, entitlements, dateToCheck).isCompliant()) {
+                return dateToCheck;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Calculates the date range over which each compliant or partially compliant installed product
+     * retains its current compliance.
+     */
+    private Map<String, DateRange> getProductComplianceDateRanges(ComplianceConsumer consumer,
+        List<ComplianceEntitlement> entitlements, Date onDate, StatusOnDate compStatus) {
+
+        Map<String, Date[]> ranges = new LinkedHashMap<>();
+        Map<String, DateRange> output = new HashMap<>();
+
+        for (String pid : consumer.getInstalledProducts()) {
+            if (!compStatus.nonCompliantProducts.contains(pid)) {
+                ranges.put(pid, new Date[2]);
+            }
+        }
+
+        if (ranges.isEmpty()) {
+            return output;
+        }
+
+        List<Date> dates = this.getSortedEntitlementDates(entitlements, true, true);
+        int dateCount = dates.size();
+
+        // Find our next date in the future
+        int nextDate = 0;
+        for (int i = dateCount - 1; i >= 0; --i) {
+            if (dates.get(i).compareTo(onDate) <= 0) {
+                nextDate = i + 1;
+                break;
+            }
+        }
+
+        // Find start dates
+        int complete = 0;
+        Date lastValidDate = onDate;
+        for (int i = nextDate - 1; i >= 0; --i) {
+            // Impl note: we add a millisecond to move us just outside the range of the entitlement
+            // from which an end date came, so we don't bridge coverage gaps.
+            StatusOnDate status = this.getStatusOnDate(consumer, entitlements,
+                new Date(dates.get(i).getTime() + 1));
+
+            for (Map.Entry<String, Date[]> entry : ranges.entrySet()) {
+                String pid = entry.getKey();
+                Date[] range = entry.getValue();
+
+                if (range[0] == null && (status.nonCompliantProducts.contains(pid) ||
+                    (compStatus.isCompliant(pid) && !status.isCompliant(pid)) ||
+                    (compStatus.isPartiallyCompliant(pid) && !status.isPartiallyCompliant(pid)))) {
+
+                    range[0] = lastValidDate;
+                    ++complete;
+                }
+            }
+
+            if (complete >= ranges.size()) {
+                break;
+            }
+
+            lastValidDate = dates.get(i);
+        }
+
+        // Find end dates
+        complete = 0;
+        for (int i = nextDate; i < dateCount; ++i) {
+            Date date = dates.get(i);
+            StatusOnDate status = this.getStatusOnDate(consumer, entitlements, new Date(date.getTime() + 1));
+
+            for (Map.Entry<String, Date[]> entry : ranges.entrySet()) {
+                String pid = entry.getKey();
+                Date[] range = entry.getValue();
+
+                if (range[1] == null && (status.nonCompliantProducts.contains(pid) ||
+                    (compStatus.isCompliant(pid) && !status.isCompliant(pid)) ||
+                    (compStatus.isPartiallyCompliant(pid) && !status.isPartiallyCompliant(pid) &&
+                    !status.isCompliant(pid)))) {
+
+                    range[1] = date;
+                    ++complete;
+                }
+            }
+
+            if (complete >= ranges.size()) {
+                break;
+            }
+        }
+
+        // Any products which were valid all the way to the ends of our date ranges will have
+        // null dates. Set those to our extremes.
+        for (Map.Entry<String, Date[]> entry : ranges.entrySet()) {
+            Date[] range = entry.getValue();
+
+            DateRange dateRange = new DateRange();
+            dateRange.setStartDate(Util.toDateTime(range[0] != null ? range[0] : dates.get(0)));
+            dateRange.setEndDate(Util.toDateTime(range[1] != null ? range[1] : dates.get(dateCount - 1)));
+
+            output.put(entry.getKey(), dateRange);
+        }
+
+        return output;
+    }
+}
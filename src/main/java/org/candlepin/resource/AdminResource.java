@@ -16,12 +16,21 @@ package org.candlepin.resource;
 
 import org.candlepin.audit.EventSink;
 import org.candlepin.auth.SecurityHole;
+import org.candlepin.cache.ContentAccessPayloadCache;
+import org.candlepin.cache.OwnerInfoCache;
+import org.candlepin.cache.UserPermissionCache;
+import org.candlepin.dto.api.server.v1.CacheStatsDTO;
+import org.candlepin.dto.api.server.v1.KeyPairPoolStatsDTO;
 import org.candlepin.dto.api.server.v1.QueueStatus;
+import org.candlepin.pki.impl.KeyPairPool;
 import org.candlepin.resource.server.v1.AdminApi;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -36,10 +45,20 @@ public class AdminResource implements AdminApi {
     private static final Logger log = LoggerFactory.getLogger(AdminResource.class);
 
     private final EventSink sink;
+    private final UserPermissionCache userPermissionCache;
+    private final OwnerInfoCache ownerInfoCache;
+    private final ContentAccessPayloadCache payloadCache;
+    private final KeyPairPool keypairPool;
 
     @Inject
-    public AdminResource(EventSink dispatcher) {
+    public AdminResource(EventSink dispatcher, UserPermissionCache userPermissionCache,
+        OwnerInfoCache ownerInfoCache, ContentAccessPayloadCache payloadCache, KeyPairPool keypairPool) {
+
         this.sink = Objects.requireNonNull(dispatcher);
+        this.userPermissionCache = Objects.requireNonNull(userPermissionCache);
+        this.ownerInfoCache = Objects.requireNonNull(ownerInfoCache);
+        this.payloadCache = Objects.requireNonNull(payloadCache);
+        this.keypairPool = Objects.requireNonNull(keypairPool);
     }
 
     /**
@@ -63,4 +82,43 @@ public class AdminResource implements AdminApi {
     public List<QueueStatus> getQueueStats() {
         return sink.getQueueInfo();
     }
+
+    @Override
+    public List<CacheStatsDTO> getCacheStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+
+        stats.add(this.buildCacheStats("user_permissions", this.userPermissionCache.isEnabled(),
+            this.userPermissionCache.getStats()));
+        stats.add(this.buildCacheStats("owner_info", this.ownerInfoCache.isEnabled(),
+            this.ownerInfoCache.getStats()));
+        stats.add(this.buildCacheStats("content_access_payload", this.payloadCache.isEnabled(),
+            this.payloadCache.getStats()));
+
+        return stats;
+    }
+
+    @Override
+    public KeyPairPoolStatsDTO getKeyPairPoolStats() {
+        KeyPairPool.Statistics stats = this.keypairPool.getStatistics();
+
+        return new KeyPairPoolStatsDTO()
+            .depth(stats.depth())
+            .capacity(stats.capacity())
+            .generated(stats.generated())
+            .taken(stats.taken())
+            .fallbacks(stats.fallbacks())
+            .waitTime(stats.waitTime());
+    }
+
+    private CacheStatsDTO buildCacheStats(String name, boolean enabled, CacheStats stats) {
+        return new CacheStatsDTO()
+            .name(name)
+            .enabled(enabled)
+            .hitCount(stats.hitCount())
+            .missCount(stats.missCount())
+            .hitRate(stats.hitRate())
+            .loadCount(stats.loadCount())
+            .averageLoadPenalty(stats.averageLoadPenalty())
+            .evictionCount(stats.evictionCount());
+    }
 }
@@ -39,6 +39,7 @@ import org.candlepin.config.ConfigProperties;
 import org.candlepin.config.Configuration;
 import org.candlepin.controller.AutobindDisabledForOwnerException;
 import org.candlepin.controller.AutobindHypervisorDisabledException;
+import org.candlepin.controller.ConsumerCheckInCoalescer;
 import org.candlepin.controller.ContentAccessManager;
 import org.candlepin.controller.ContentAccessManager.ContentAccessMode;
 import org.candlepin.controller.EntitlementCertificateGenerator;
@@ -132,6 +133,7 @@ import org.candlepin.resource.util.ConsumerBindUtil;
 import org.candlepin.resource.util.ConsumerEnricher;
 import org.candlepin.resource.util.ConsumerTypeValidator;
 import org.candlepin.resource.util.EntitlementEnvironmentFilter;
+import org.candlepin.resource.util.EntityTags;
 import org.candlepin.resource.util.EnvironmentUpdates;
 import org.candlepin.resource.util.GuestMigration;
 import org.candlepin.resource.util.KeyValueStringParser;
@@ -146,6 +148,7 @@ import org.candlepin.service.model.OwnerInfo;
 import org.candlepin.service.model.UserInfo;
 import org.candlepin.sync.ExportCreationException;
 import org.candlepin.util.ContentOverrideValidator;
+import org.candlepin.util.DigestBuilder;
 import org.candlepin.util.FactValidator;
 import org.candlepin.util.PropertyValidationException;
 import org.candlepin.util.Util;
@@ -189,6 +192,8 @@ import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.persistence.OptimisticLockException;
 import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -204,6 +209,10 @@ public class ConsumerResource implements ConsumerApi {
     /** The maximum number of consumers to return per list or find request */
     private static final int MAX_CONSUMERS_PER_REQUEST = 1000;
 
+    /** Request headers used to resume manifest downloads; not defined by JAX-RS */
+    private static final String RANGE_HEADER = "Range";
+    private static final String IF_RANGE_HEADER = "If-Range";
+
     private final ConsumerCurator consumerCurator;
     private final ConsumerTypeCurator consumerTypeCurator;
     private final SubscriptionServiceAdapter subAdapter;
@@ -245,6 +254,7 @@ public class ConsumerResource implements ConsumerApi {
     private final EntitlementCertificateGenerator entCertGenerator;
     private final AnonymousCloudConsumerCurator anonymousConsumerCurator;
     private final AnonymousContentAccessCertificateCurator anonymousCertCurator;
+    private final ConsumerCheckInCoalescer checkInCoalescer;
 
 
     private final EntitlementEnvironmentFilter entitlementEnvironmentFilter;
@@ -296,7 +306,8 @@ public class ConsumerResource implements ConsumerApi {
         CloudRegistrationAdapter cloudAdapter,
         PoolCurator poolCurator,
         AnonymousCloudConsumerCurator anonymousConsumerCurator,
-        AnonymousContentAccessCertificateCurator anonymousCertCurator) {
+        AnonymousContentAccessCertificateCurator anonymousCertCurator,
+        ConsumerCheckInCoalescer checkInCoalescer) {
 
         this.consumerCurator = Objects.requireNonNull(consumerCurator);
         this.consumerTypeCurator = Objects.requireNonNull(consumerTypeCurator);
@@ -339,6 +350,7 @@ public class ConsumerResource implements ConsumerApi {
         this.poolService = Objects.requireNonNull(poolService);
         this.anonymousConsumerCurator = Objects.requireNonNull(anonymousConsumerCurator);
         this.anonymousCertCurator = Objects.requireNonNull(anonymousCertCurator);
+        this.checkInCoalescer = Objects.requireNonNull(checkInCoalescer);
 
         this.entitlementEnvironmentFilter = new EntitlementEnvironmentFilter(
             entitlementCurator, environmentContentCurator);
@@ -2134,18 +2146,60 @@ public class ConsumerResource implements ConsumerApi {
             return cert == null ? List.of() : List.of(cert);
         }
 
-        // UpdateConsumerCheckIn
-        // Explicitly updating consumer check-in,
-        // as we merged getEntitlementCertificates & exportCertificates methods due to OpenAPI
-        // constraint which doesn't allow more than one HTTP method key under same URL pattern.
+        log.debug("Getting client certificates for consumer: {}", consumerUuid);
+        this.recordCertificateCheckIn(principal);
+
+        return getEntitlementCertificatesForConsumer(consumerUuid, serials);
+    }
+
+    /**
+     * Retrieves the entitlement certificates of a consumer as a conditional response. The response
+     * is tagged with an entity tag derived from the serials of the certificates it contains, and
+     * if the given If-None-Match header matches that tag, a 304 (Not Modified) response is returned
+     * without loading any entitlement certificates.
+     *
+     * @param consumerUuid
+     *  the UUID of the consumer to retrieve entitlement certificates for
+     *
+     * @param serials
+     *  the serial IDs used to filter out entitlement certificates
+     *
+     * @param ifNoneMatch
+     *  the value of the If-None-Match header of the request, if any
+     *
+     * @return a response containing the entitlement certificates for the consumer
+     */
+    private Response getEntitlementCertificatesResponse(String consumerUuid, String serials,
+        String ifNoneMatch) {
 
         log.debug("Getting client certificates for consumer: {}", consumerUuid);
-        if (principal instanceof ConsumerPrincipal) {
-            ConsumerPrincipal p = (ConsumerPrincipal) principal;
-            consumerCurator.updateLastCheckin(p.getConsumer());
+        this.recordCertificateCheckIn(ResteasyContext.getContextData(Principal.class));
+
+        Consumer consumer = this.lookupConsumerForCertificates(consumerUuid);
+        Set<Long> serialSet = this.extractSerials(serials);
+        Certificate caCert = this.getContentAccessCertificate(consumer, serialSet);
+
+        List<Long> entitlementSerials = this.entCertService.listEntitlementSerialIds(consumer)
+            .stream()
+            .filter(serial -> serialSet.isEmpty() || serialSet.contains(serial))
+            .collect(Collectors.toList());
+
+        EntityTag etag = this.buildCertificateEntityTag(entitlementSerials, caCert);
+        if (EntityTags.matches(ifNoneMatch, etag)) {
+            return Response.notModified(etag).build();
         }
 
-        return getEntitlementCertificatesForConsumer(consumerUuid, serials);
+        List<? extends Certificate> entitlementCerts = !entitlementSerials.isEmpty() ?
+            this.entCertService.listForConsumer(consumer, entitlementSerials) :
+            List.of();
+
+        List<CertificateDTO> certificates = this.buildCertificateStream(entitlementCerts, caCert)
+            .map(this.translator.getStreamMapper(Certificate.class, CertificateDTO.class))
+            .collect(Collectors.toList());
+
+        return Response.ok(certificates, MediaType.APPLICATION_JSON)
+            .tag(etag)
+            .build();
     }
 
     /**
@@ -2160,26 +2214,77 @@ public class ConsumerResource implements ConsumerApi {
      * @return a list of entitlement certificates for the consumer
      */
     private List<CertificateDTO> getEntitlementCertificatesForConsumer(String consumerUuid, String serials) {
+        Consumer consumer = this.lookupConsumerForCertificates(consumerUuid);
+        Set<Long> serialSet = this.extractSerials(serials);
+        Certificate caCert = this.getContentAccessCertificate(consumer, serialSet);
+
+        // When filtering by serial, only load the certificates with the requested serials
+        List<? extends Certificate> entitlementCerts = serialSet.isEmpty() ?
+            this.entCertService.listForConsumer(consumer) :
+            this.entCertService.listForConsumer(consumer, serialSet);
+
+        return this.buildCertificateStream(entitlementCerts, caCert)
+            .map(this.translator.getStreamMapper(Certificate.class, CertificateDTO.class))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Updates the check-in time of the consumer retrieving its certificates. The check-in is
+     * explicitly recorded here, as getEntitlementCertificates and exportCertificates were merged due
+     * to an OpenAPI constraint which doesn't allow more than one HTTP method key under the same URL
+     * pattern.
+     */
+    private void recordCertificateCheckIn(Principal principal) {
+        if (principal instanceof ConsumerPrincipal consumerPrincipal) {
+            checkInCoalescer.recordCheckIn(consumerPrincipal.getConsumer());
+        }
+    }
+
+    /**
+     * Looks up the consumer with the given UUID, bringing its entitlement certificates up to date
+     * before they are retrieved.
+     */
+    private Consumer lookupConsumerForCertificates(String consumerUuid) {
         Consumer consumer = consumerCurator.verifyAndLookupConsumer(consumerUuid);
 
         revokeOnGuestMigration(consumer);
         poolManager.regenerateDirtyEntitlements(consumer);
 
-        Set<Long> serialSet = this.extractSerials(serials);
-        List<? extends Certificate> entitlementCerts = this.entCertService.listForConsumer(consumer);
+        return consumer;
+    }
 
+    /**
+     * Fetches the content access certificate of the given consumer, if it has one and its serial
+     * is included in the given serials. An empty set of serials includes every serial.
+     */
+    private Certificate getContentAccessCertificate(Consumer consumer, Set<Long> serialSet) {
         Certificate caCert = this.contentAccessManager.getCertificate(consumer);
 
-        Stream<? extends Certificate> certStream = this.buildCertificateStream(entitlementCerts, caCert);
+        if (caCert != null && !serialSet.isEmpty() &&
+            (caCert.getSerial() == null || !serialSet.contains(caCert.getSerial().getId()))) {
+            return null;
+        }
+
+        return caCert;
+    }
+
+    /**
+     * Builds the entity tag of a set of certificates. Entitlement certificates are regenerated with
+     * new serials, so they are identified by serial alone; the content access certificate may be
+     * updated in place, so its last update time is included as well.
+     */
+    private EntityTag buildCertificateEntityTag(Collection<Long> entitlementSerials, Certificate caCert) {
+        DigestBuilder builder = new DigestBuilder()
+            .update(entitlementSerials.stream()
+                .map(String::valueOf)
+                .collect(Collectors.toList()));
 
-        // Check if we should filter certs by the cert serial
-        if (serialSet != null && !serialSet.isEmpty()) {
-            certStream = certStream
-                .filter(cert -> cert.getSerial() != null && serialSet.contains(cert.getSerial().getId()));
+        if (caCert != null) {
+            builder.update(caCert.getSerial() != null ? caCert.getSerial().getId() : null)
+                .update(caCert.getUpdated() != null ? caCert.getUpdated().getTime() : null);
         }
 
-        return certStream.map(this.translator.getStreamMapper(Certificate.class, CertificateDTO.class))
-            .collect(Collectors.toList());
+        return new EntityTag(builder.digest());
     }
 
     /**
@@ -2298,11 +2403,17 @@ public class ConsumerResource implements ConsumerApi {
         @Verify({AnonymousCloudConsumer.class, Consumer.class}) String consumerUuid,
         String serials) {
         HttpRequest httpRequest = ResteasyContext.getContextData(HttpRequest.class);
+        Principal principal = ResteasyContext.getContextData(Principal.class);
+
         if (httpRequest.getHttpHeaders().getRequestHeader("accept").contains("application/json")) {
-            return getEntitlementCertificates(consumerUuid, serials);
+            if (principal instanceof AnonymousCloudConsumerPrincipal) {
+                return getEntitlementCertificates(consumerUuid, serials);
+            }
+
+            return getEntitlementCertificatesResponse(consumerUuid, serials,
+                httpRequest.getHttpHeaders().getHeaderString(HttpHeaders.IF_NONE_MATCH));
         }
 
-        Principal principal = ResteasyContext.getContextData(Principal.class);
         if (principal instanceof AnonymousCloudConsumerPrincipal) {
             throw new BadRequestException(i18n.tr("Cannot create export for anonymous cloud consumer"));
         }
@@ -2318,18 +2429,18 @@ public class ConsumerResource implements ConsumerApi {
             serialSet = null;
         }
 
-        File archive;
+        // The archive is written directly to the response output stream as it is generated,
+        // rather than being staged on disk and handed back to RestEasy.
         try {
-            archive = manifestManager.generateEntitlementArchive(consumer, serialSet);
-            response.addHeader("Content-Disposition", "attachment; filename=" +
-                archive.getName());
-
-            return archive;
+            manifestManager.writeEntitlementArchiveToResponse(consumer, serialSet, response);
         }
         catch (ExportCreationException e) {
             throw new IseException(
                 i18n.tr("Unable to create entitlement certificate archive"), e);
         }
+
+        // Done intentionally due to OpenAPI constrains on return type.
+        return null;
     }
 
     private Set<Long> extractSerials(String serials) {
@@ -2795,13 +2906,14 @@ public class ConsumerResource implements ConsumerApi {
         ConsumerType ctype = this.consumerTypeCurator.getConsumerType(consumer);
         HttpServletResponse response = ResteasyContext.getContextData(HttpServletResponse.class);
         try {
-            File archive = manifestManager.generateManifest(consumerUuid, cdnLabel, webAppPrefix, apiUrl);
-            response.addHeader("Content-Disposition", "attachment; filename=" + archive.getName());
-            return archive;
+            manifestManager.writeManifestToResponse(consumerUuid, cdnLabel, webAppPrefix, apiUrl, response);
         }
         catch (ExportCreationException e) {
             throw new IseException(i18n.tr("Unable to create export archive"), e);
         }
+
+        // Done intentionally due to OpenAPI constrains on return type.
+        return null;
     }
 
     /**
@@ -2844,7 +2956,9 @@ public class ConsumerResource implements ConsumerApi {
 
     /**
      * Downloads an asynchronously generated consumer export file (manifest). If the file
-     * was successfully downloaded, it will be deleted.
+     * was successfully downloaded, it will be deleted. Single byte ranges may be requested
+     * to resume an interrupted download; the file is only deleted once a response reaching
+     * the end of the file has been sent.
      *
      * @param consumerUuid the UUID of the target consumer.
      * @param exportId the id of the stored export.
@@ -2854,6 +2968,10 @@ public class ConsumerResource implements ConsumerApi {
         Consumer consumer = consumerCurator.verifyAndLookupConsumer(consumerUuid);
         ConsumerType ctype = this.consumerTypeCurator.getConsumerType(consumer);
         HttpServletResponse response = ResteasyContext.getContextData(HttpServletResponse.class);
+        HttpRequest httpRequest = ResteasyContext.getContextData(HttpRequest.class);
+        HttpHeaders headers = httpRequest != null ? httpRequest.getHttpHeaders() : null;
+        String range = headers != null ? headers.getHeaderString(RANGE_HEADER) : null;
+        String ifRange = headers != null ? headers.getHeaderString(IF_RANGE_HEADER) : null;
         // *******************************************************************************
         // NOTE: If changing the path or parameters of this end point, be sure to update
         // the HREF generation in ConsumerResource.buildAsyncDownloadManifestHref.
@@ -2869,11 +2987,14 @@ public class ConsumerResource implements ConsumerApi {
         //       can only be done inside a single transaction, so we have to stream it
         //       manually.
         // TODO See if there is a way to get RestEasy to do this so we don't have to.
-        manifestManager.writeStoredExportToResponse(exportId, consumerUuid, response);
+        boolean complete = manifestManager.writeStoredExportToResponse(exportId, consumerUuid, range,
+            ifRange, response);
 
         // On successful manifest read, delete the record. The manifest can only be
         // downloaded once and must then be regenerated.
-        manifestManager.deleteStoredManifest(exportId);
+        if (complete) {
+            manifestManager.deleteStoredManifest(exportId);
+        }
 
         // Done intentionally due to OpenAPI constrains on return type.
         return null;
@@ -14,26 +14,78 @@
  */
 package org.candlepin.resource;
 
+import org.candlepin.cache.RevokedSerialCache;
 import org.candlepin.model.CertificateSerialCurator;
 import org.candlepin.resource.server.v1.CertificateRevocationListApi;
+import org.candlepin.resource.util.EntityTags;
+import org.candlepin.util.Util;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.PrimitiveIterator;
 
 import javax.inject.Inject;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 public class CrlResource implements CertificateRevocationListApi {
 
     private final CertificateSerialCurator certificateSerialCurator;
+    private final RevokedSerialCache revokedSerialCache;
 
     @Inject
-    public CrlResource(CertificateSerialCurator certificateSerialCurator) {
+    public CrlResource(CertificateSerialCurator certificateSerialCurator,
+        RevokedSerialCache revokedSerialCache) {
+
         this.certificateSerialCurator = Objects.requireNonNull(certificateSerialCurator);
+        this.revokedSerialCache = Objects.requireNonNull(revokedSerialCache);
     }
 
     @Override
-    public List<Long> getCurrentCrl() {
-        return certificateSerialCurator.listNonExpiredRevokedSerialIds();
+    public Response getCurrentCrl(OffsetDateTime since, String ifNoneMatch) {
+        if (since != null) {
+            List<Long> serials = this.certificateSerialCurator.listRevokedSerialIdsSince(Util.toDate(since));
+            return Response.ok(serials, MediaType.APPLICATION_JSON).build();
+        }
+
+        RevokedSerialCache.Snapshot snapshot = this.revokedSerialCache.getSnapshot();
+        EntityTag etag = new EntityTag(snapshot.getETag());
+
+        if (EntityTags.matches(ifNoneMatch, etag)) {
+            return Response.notModified(etag).build();
+        }
+
+        StreamingOutput output = stream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.US_ASCII));
+            writeSerials(snapshot, writer);
+            writer.flush();
+        };
+
+        return Response.ok(output, MediaType.APPLICATION_JSON)
+            .tag(etag)
+            .build();
+    }
+
+    private static void writeSerials(RevokedSerialCache.Snapshot snapshot, Writer writer) throws IOException {
+        PrimitiveIterator.OfLong serials = snapshot.iterator();
+
+        writer.write('[');
+        while (serials.hasNext()) {
+            writer.write(Long.toString(serials.nextLong()));
+
+            if (serials.hasNext()) {
+                writer.write(',');
+            }
+        }
+        writer.write(']');
     }
 
 }
@@ -16,6 +16,8 @@ package org.candlepin.resource;
 
 import org.candlepin.async.JobConfig;
 import org.candlepin.async.JobException;
+import org.candlepin.async.JobExecutionStats;
+import org.candlepin.async.JobLanes;
 import org.candlepin.async.JobManager;
 import org.candlepin.async.StateManagementException;
 import org.candlepin.auth.Verify;
@@ -23,6 +25,10 @@ import org.candlepin.config.ConfigProperties;
 import org.candlepin.config.Configuration;
 import org.candlepin.dto.ModelTranslator;
 import org.candlepin.dto.api.server.v1.AsyncJobStatusDTO;
+import org.candlepin.dto.api.server.v1.JobLaneDTO;
+import org.candlepin.dto.api.server.v1.JobStatsDTO;
+import org.candlepin.dto.api.server.v1.JobTimingBucketDTO;
+import org.candlepin.dto.api.server.v1.JobTimingHistogramDTO;
 import org.candlepin.dto.api.server.v1.SchedulerStatusDTO;
 import org.candlepin.exceptions.BadRequestException;
 import org.candlepin.exceptions.ForbiddenException;
@@ -50,12 +56,15 @@ import org.slf4j.LoggerFactory;
 import org.xnap.commons.i18n.I18n;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.inject.Inject;
@@ -104,12 +113,55 @@ public class JobResource implements JobsApi {
 
         JobManager.ManagerState state = this.jobManager.getManagerState();
         output.isRunning(state == JobManager.ManagerState.RUNNING);
+        output.sharedThreads(this.jobManager.getSharedJobThreads());
 
-        // TODO: Add other stuff here as necessary (jobs stats like running, queued, etc.)
+        Map<String, String> laneNames = new HashMap<>();
+        List<JobLaneDTO> lanes = new ArrayList<>();
+
+        for (JobLanes.Lane lane : this.jobManager.getJobLanes()) {
+            lane.jobKeys().forEach(jobKey -> laneNames.put(jobKey, lane.name()));
+
+            lanes.add(new JobLaneDTO()
+                .name(lane.name())
+                .threads(lane.threads())
+                .priority(lane.priority())
+                .jobKeys(new ArrayList<>(lane.jobKeys())));
+        }
+
+        List<JobStatsDTO> jobStats = this.jobManager.getJobStats().stream()
+            .map(stats -> new JobStatsDTO()
+                .jobKey(stats.jobKey())
+                .lane(laneNames.getOrDefault(stats.jobKey(), JobLanes.DEFAULT_LANE))
+                .queueWait(this.buildTimingHistogram(stats.queueWait()))
+                .runTime(this.buildTimingHistogram(stats.runTime())))
+            .collect(Collectors.toList());
+
+        output.lanes(lanes);
+        output.jobStats(jobStats);
 
         return output;
     }
 
+    private JobTimingHistogramDTO buildTimingHistogram(JobExecutionStats.Snapshot snapshot) {
+        List<JobTimingBucketDTO> buckets = new ArrayList<>();
+
+        long[] bounds = JobExecutionStats.BUCKET_BOUNDS;
+        List<Long> counts = snapshot.buckets();
+
+        for (int i = 0; i < counts.size(); ++i) {
+            // The last bucket counts everything above the largest bound, and has no upper bound
+            buckets.add(new JobTimingBucketDTO()
+                .upperBound(i < bounds.length ? bounds[i] : null)
+                .count(counts.get(i)));
+        }
+
+        return new JobTimingHistogramDTO()
+            .count(snapshot.count())
+            .mean(snapshot.mean())
+            .max(snapshot.max())
+            .buckets(buckets);
+    }
+
     @Override
     @Transactional
     public SchedulerStatusDTO setSchedulerStatus(Boolean running) {
@@ -15,6 +15,7 @@
 package org.candlepin.resource;
 
 import org.candlepin.async.JobConfig;
+import org.candlepin.async.JobConfigValidationException;
 import org.candlepin.async.JobManager;
 import org.candlepin.async.tasks.RefreshPoolsJob;
 import org.candlepin.auth.SecurityHole;
@@ -26,7 +27,6 @@ import org.candlepin.dto.api.server.v1.ProductDTO;
 import org.candlepin.exceptions.BadRequestException;
 import org.candlepin.exceptions.NotFoundException;
 import org.candlepin.model.AsyncJobStatus;
-import org.candlepin.model.Owner;
 import org.candlepin.model.OwnerCurator;
 import org.candlepin.model.Product;
 import org.candlepin.model.ProductCertificateCurator;
@@ -37,9 +37,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xnap.commons.i18n.I18n;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
-import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.inject.Inject;
@@ -122,27 +124,56 @@ public class ProductResource implements ProductsApi {
             return null;
         }
 
-        Function<Owner, JobConfig> jobConfigMapper = (owner) -> RefreshPoolsJob.createJobConfig()
-            .setOwner(owner)
-            .setLazyRegeneration(lazyRegen);
+        List<JobConfig> configs = this.ownerCurator.getOwnersWithProducts(productIds)
+            .stream()
+            .map(owner -> RefreshPoolsJob.createJobConfig()
+                .setOwner(owner)
+                .setLazyRegeneration(lazyRegen))
+            .collect(Collectors.toList());
+
+        // Validate the configs individually first, so a single bad config only fails its own job
+        // rather than the entire batch
+        AsyncJobStatus[] statuses = new AsyncJobStatus[configs.size()];
+        List<JobConfig> valid = new ArrayList<>(configs.size());
 
-        Function<JobConfig, AsyncJobStatus> jobQueueMapper = (config) -> {
+        for (int i = 0; i < configs.size(); ++i) {
             try {
-                return this.jobManager.queueJob(config);
+                configs.get(i).validate();
+                valid.add(configs.get(i));
             }
-            catch (Exception e) {
-                log.debug("Exception occurred while queueing job: {}", config, e);
-                return new AsyncJobStatus()
-                    .setName(RefreshPoolsJob.JOB_NAME)
-                    .setState(AsyncJobStatus.JobState.FAILED)
-                    .setJobResult(e.toString());
+            catch (JobConfigValidationException e) {
+                log.debug("Exception occurred while queueing job: {}", configs.get(i), e);
+                statuses[i] = this.buildFailedJobStatus(e);
             }
-        };
+        }
 
-        return this.ownerCurator.getOwnersWithProducts(productIds)
-            .stream()
-            .map(jobConfigMapper)
-            .map(jobQueueMapper)
+        // Queue the remaining jobs as a single batch, filling in the slots of the validated configs
+        List<AsyncJobStatus> queued;
+        try {
+            queued = this.jobManager.queueJobs(valid);
+        }
+        catch (Exception e) {
+            log.debug("Exception occurred while queueing {} job(s)", valid.size(), e);
+            queued = valid.stream()
+                .map(jobConfig -> this.buildFailedJobStatus(e))
+                .collect(Collectors.toList());
+        }
+
+        Iterator<AsyncJobStatus> iterator = queued.iterator();
+        for (int i = 0; i < statuses.length; ++i) {
+            if (statuses[i] == null) {
+                statuses[i] = iterator.next();
+            }
+        }
+
+        return Stream.of(statuses)
             .map(this.translator.getStreamMapper(AsyncJobStatus.class, AsyncJobStatusDTO.class));
     }
+
+    private AsyncJobStatus buildFailedJobStatus(Exception e) {
+        return new AsyncJobStatus()
+            .setName(RefreshPoolsJob.JOB_NAME)
+            .setState(AsyncJobStatus.JobState.FAILED)
+            .setJobResult(e.toString());
+    }
 }
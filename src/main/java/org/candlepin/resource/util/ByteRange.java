@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.resource.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+
+/**
+ * A single byte range requested through the Range header of an HTTP request, resolved against the
+ * size of the representation being served (RFC 7233).
+ */
+public final class ByteRange {
+
+    private static final Pattern RANGE_PATTERN =
+        Pattern.compile("^\\s*bytes\\s*=\\s*(\\d*)\\s*-\\s*(\\d*)\\s*$");
+
+    private final long start;
+    private final long end;
+    private final long size;
+
+    private ByteRange(long start, long end, long size) {
+        this.start = start;
+        this.end = end;
+        this.size = size;
+    }
+
+    /**
+     * Parses the value of a Range header against a representation of the given size. Only
+     * single ranges are supported; headers requesting multiple ranges are treated as though no
+     * range was requested, as the specification permits.
+     *
+     * @param header
+     *  the value of the Range header; may be null
+     *
+     * @param size
+     *  the size of the representation, in bytes
+     *
+     * @return
+     *  the requested range, which may not be satisfiable; or null if the header is absent,
+     *  malformed, or requests multiple ranges, in which case the full representation should be
+     *  served
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || size < 0) {
+            return null;
+        }
+
+        Matcher matcher = RANGE_PATTERN.matcher(header);
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+
+        try {
+            if (first.isEmpty()) {
+                // Suffix range: the final N bytes of the representation
+                if (last.isEmpty()) {
+                    return null;
+                }
+
+                long length = Long.parseLong(last);
+                if (length == 0 || size == 0) {
+                    return new ByteRange(size, size - 1, size);
+                }
+
+                return new ByteRange(Math.max(0, size - length), size - 1, size);
+            }
+
+            long start = Long.parseLong(first);
+            if (last.isEmpty()) {
+                return new ByteRange(start, size - 1, size);
+            }
+
+            long end = Long.parseLong(last);
+            if (end < start) {
+                return null;
+            }
+
+            return new ByteRange(start, Math.min(end, size - 1), size);
+        }
+        catch (NumberFormatException e) {
+            // Positions too large to represent are treated as a malformed header
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether this range overlaps the representation at all. Ranges which are not
+     * satisfiable must be answered with a 416 (Range Not Satisfiable) response.
+     *
+     * @return
+     *  true if this range is satisfiable; false otherwise
+     */
+    public boolean isSatisfiable() {
+        return this.start < this.size && this.start <= this.end;
+    }
+
+    /**
+     * @return
+     *  the offset of the first byte in this range
+     */
+    public long getStart() {
+        return this.start;
+    }
+
+    /**
+     * @return
+     *  the offset of the last byte in this range, inclusive
+     */
+    public long getEnd() {
+        return this.end;
+    }
+
+    /**
+     * @return
+     *  the number of bytes in this range
+     */
+    public long getLength() {
+        return this.isSatisfiable() ? this.end - this.start + 1 : 0;
+    }
+
+    /**
+     * Checks whether this range extends to the final byte of the representation.
+     *
+     * @return
+     *  true if this range ends with the final byte of the representation; false otherwise
+     */
+    public boolean isFinal() {
+        return this.isSatisfiable() && this.end == this.size - 1;
+    }
+
+    /**
+     * Builds the value of the Content-Range header describing this range.
+     *
+     * @return
+     *  the value of the Content-Range header for this range
+     */
+    public String toContentRange() {
+        return this.isSatisfiable() ?
+            String.format("bytes %d-%d/%d", this.start, this.end, this.size) :
+            String.format("bytes */%d", this.size);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ByteRange [%s]", this.toContentRange());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.resource.util;
+
+import javax.ws.rs.core.EntityTag;
+
+
+
+/**
+ * Provides utility functionality for evaluating conditional requests against entity tags.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+        // Intentionally left empty
+    }
+
+    /**
+     * Checks whether the value of an If-None-Match header matches the given entity tag, using the
+     * weak comparison required for If-None-Match.
+     *
+     * @param ifNoneMatch
+     *  the value of the If-None-Match header; may be null
+     *
+     * @param etag
+     *  the entity tag of the current representation of the requested resource
+     *
+     * @return
+     *  true if the header matches the entity tag, and the request may be answered with a 304 (Not
+     *  Modified) response; false otherwise
+     */
+    public static boolean matches(String ifNoneMatch, EntityTag etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+
+            if ("*".equals(value)) {
+                return true;
+            }
+
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+            }
+
+            if (etag.getValue().equals(value)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -108,7 +108,12 @@ public class LinkHeaderResponseFilter implements ContainerResponseFilter {
             }
 
             header.addLink("first", "first", buildPageLink(builder, 1), LINK_TYPE);
-            header.addLink("last", "last", buildPageLink(builder, getLastPage(page)), LINK_TYPE);
+
+            // Without a total there is no last page to link to
+            Integer last = getLastPage(page);
+            if (last != null) {
+                header.addLink("last", "last", buildPageLink(builder, last), LINK_TYPE);
+            }
 
             respContext.getHeaders().add(LINK_HEADER, header.toString());
         }
@@ -118,7 +123,9 @@ public class LinkHeaderResponseFilter implements ContainerResponseFilter {
                 MAX_LINK_LENGTH, e);
         }
 
-        respContext.getHeaders().add(TOTAL_RECORDS_COUNT, page.getMaxRecords());
+        if (page.getMaxRecords() != null) {
+            respContext.getHeaders().add(TOTAL_RECORDS_COUNT, page.getMaxRecords());
+        }
     }
 
     protected String buildPageLink(UriBuilder b, int value) {
@@ -138,6 +145,12 @@ public class LinkHeaderResponseFilter implements ContainerResponseFilter {
     protected Integer getLastPage(Page<?> page) {
         PageRequest pageRequest = page.getPageRequest();
 
+        // Pages built without counting every record don't know where the last page is, but are only
+        // returned when there is at least one more page
+        if (page.getMaxRecords() == null) {
+            return null;
+        }
+
         // The last page is ceiling(maxRecords/recordsPerPage)
         int lastPage = page.getMaxRecords() / pageRequest.getPerPage();
 
@@ -150,13 +163,15 @@ public class LinkHeaderResponseFilter implements ContainerResponseFilter {
 
     protected Integer getPrevPage(Page<?> page) {
         int prev = page.getPageRequest().getPage() - 1;
+        Integer last = getLastPage(page);
         // if the calculated page is out of bounds, return null
-        return (prev < 1 || prev >= getLastPage(page)) ? null : prev;
+        return (prev < 1 || (last != null && prev >= last)) ? null : prev;
     }
 
     protected Integer getNextPage(Page<?> page) {
         int next = page.getPageRequest().getPage() + 1;
-        return (next > getLastPage(page)) ? null : next;
+        Integer last = getLastPage(page);
+        return (last != null && next > last) ? null : next;
     }
 
     protected UriBuilder buildBaseUrl(ContainerRequestContext reqContext) {
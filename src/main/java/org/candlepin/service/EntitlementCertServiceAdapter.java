@@ -22,6 +22,7 @@ import org.candlepin.model.Product;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -73,6 +74,16 @@ public interface EntitlementCertServiceAdapter {
      */
     List<EntitlementCertificate> listForConsumer(Consumer consumer);
 
+    /**
+     * Return a list of the entitlement certificates for a given consumer with the given serial ids.
+     * Only the matching certificates are loaded.
+     *
+     * @param consumer
+     * @param serialIds the serial ids of the certificates to return
+     * @return The entitlement certs for this consumer with one of the given serial ids.
+     */
+    List<EntitlementCertificate> listForConsumer(Consumer consumer, Collection<Long> serialIds);
+
     /**
      * Return a list of all entitlement certificate serial ids for a given consumer.
      *
@@ -19,6 +19,7 @@ import org.candlepin.model.EntitlementCertificate;
 import org.candlepin.model.EntitlementCertificateCurator;
 import org.candlepin.service.EntitlementCertServiceAdapter;
 
+import java.util.Collection;
 import java.util.List;
 
 
@@ -38,4 +39,9 @@ public abstract class BaseEntitlementCertServiceAdapter implements EntitlementCe
         return entCertCurator.listForConsumer(consumer);
     }
 
+    @Override
+    public List<EntitlementCertificate> listForConsumer(Consumer consumer, Collection<Long> serialIds) {
+        return entCertCurator.listForConsumer(consumer, serialIds);
+    }
+
 }
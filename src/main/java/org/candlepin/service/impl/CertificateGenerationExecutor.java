@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.service.impl;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * A bounded pool of worker threads used to run the CPU bound stages of entitlement certificate
+ * generation -- signing, PEM encoding and building the entitlement data payloads -- for several
+ * certificates in parallel. Tasks must not touch the database or any lazily loaded entity state,
+ * as they are run outside of the transaction of the requesting thread.
+ */
+@Singleton
+public class CertificateGenerationExecutor {
+    private static final Logger log = LoggerFactory.getLogger(CertificateGenerationExecutor.class);
+
+    /**
+     * A unit of certificate generation work which may fail with the checked exceptions thrown by
+     * the PKI operations.
+     *
+     * @param <T>
+     *  the type of the result of the task
+     */
+    @FunctionalInterface
+    public interface CertificateTask<T> {
+        T call() throws GeneralSecurityException, IOException;
+    }
+
+    private final int threads;
+    private final ExecutorService executor;
+
+    @Inject
+    public CertificateGenerationExecutor(Configuration config) {
+        Objects.requireNonNull(config);
+
+        this.threads = Math.max(1, config.getInt(ConfigProperties.ENTITLEMENT_CERT_GENERATION_THREADS));
+        this.executor = this.threads > 1 ?
+            Executors.newFixedThreadPool(this.threads, new WorkerThreadFactory()) :
+            null;
+
+        log.debug("Entitlement certificate generation threads: {}", this.threads);
+    }
+
+    /**
+     * Fetches the number of certificates this executor will generate concurrently.
+     *
+     * @return
+     *  the number of worker threads, or 1 if certificates are generated on the requesting thread
+     */
+    public int getParallelism() {
+        return this.threads;
+    }
+
+    /**
+     * Runs the given tasks and waits for them to complete. If more than one task is provided and
+     * the executor is configured with multiple threads, the tasks are run on the worker threads;
+     * otherwise they are run, in order, on the calling thread. If any task fails, the remaining
+     * tasks are cancelled and the failure of the earliest failed task is rethrown.
+     *
+     * @param tasks
+     *  the tasks to run
+     *
+     * @throws GeneralSecurityException
+     *  if a task fails with a GeneralSecurityException
+     *
+     * @throws IOException
+     *  if a task fails with an IOException
+     *
+     * @return
+     *  the results of the tasks, in the order the tasks were provided
+     */
+    public <T> List<T> invokeAll(List<? extends CertificateTask<T>> tasks)
+        throws GeneralSecurityException, IOException {
+
+        List<T> results = new ArrayList<>(tasks.size());
+
+        if (this.executor == null || tasks.size() < 2) {
+            for (CertificateTask<T> task : tasks) {
+                results.add(task.call());
+            }
+
+            return results;
+        }
+
+        // Carry the logging context of the request over to the workers
+        Map<String, String> context = MDC.getCopyOfContextMap();
+
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (CertificateTask<T> task : tasks) {
+            futures.add(this.executor.submit(() -> {
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+
+                try {
+                    return task.call();
+                }
+                finally {
+                    MDC.clear();
+                }
+            }));
+        }
+
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating entitlement certificates", e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException) cause;
+            }
+            else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new RuntimeException(cause);
+        }
+        finally {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Creates named daemon threads, so that idle workers never hold up the shutdown of the JVM.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "entitlement-cert-worker-" + this.count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -37,6 +37,7 @@ import org.candlepin.model.Pool;
 import org.candlepin.model.PoolQuantity;
 import org.candlepin.model.Product;
 import org.candlepin.model.ProductContent;
+import org.candlepin.model.dto.EntitlementBody;
 import org.candlepin.pki.DistinguishedName;
 import org.candlepin.pki.OID;
 import org.candlepin.pki.PKIUtility;
@@ -61,6 +62,7 @@ import java.math.BigInteger;
 import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
@@ -69,7 +71,10 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -90,6 +95,7 @@ public class DefaultEntitlementCertServiceAdapter extends BaseEntitlementCertSer
     private final Configuration config;
     private final ConsumerTypeCurator consumerTypeCurator;
     private final EnvironmentCurator environmentCurator;
+    private final CertificateGenerationExecutor certGenerationExecutor;
 
     @Inject
     public DefaultEntitlementCertServiceAdapter(PKIUtility pki,
@@ -101,7 +107,8 @@ public class DefaultEntitlementCertServiceAdapter extends BaseEntitlementCertSer
         EntitlementCurator entCurator, I18n i18n,
         Configuration config,
         ConsumerTypeCurator consumerTypeCurator,
-        EnvironmentCurator environmentCurator) {
+        EnvironmentCurator environmentCurator,
+        CertificateGenerationExecutor certGenerationExecutor) {
 
         this.pki = pki;
         this.extensionUtil = extensionUtil;
@@ -114,6 +121,7 @@ public class DefaultEntitlementCertServiceAdapter extends BaseEntitlementCertSer
         this.config = config;
         this.consumerTypeCurator = consumerTypeCurator;
         this.environmentCurator = environmentCurator;
+        this.certGenerationExecutor = Objects.requireNonNull(certGenerationExecutor);
     }
 
 
@@ -170,13 +178,34 @@ public class DefaultEntitlementCertServiceAdapter extends BaseEntitlementCertSer
         KeyPair keyPair, PromotedContent promotedContent, Set<Pool> entitledPools)
         throws GeneralSecurityException, IOException {
 
+        CertificateRequest request = prepareCertificate(consumer, owner, pool, ent, product, products,
+            productModels, serialNumber, promotedContent, entitledPools, shouldGenerateV3(consumer));
+
+        return signCertificate(request, keyPair);
+    }
+
+    /**
+     * The inputs of a single entitlement certificate. These are gathered on the requesting thread,
+     * allowing the certificate itself to be signed and encoded on another thread without touching
+     * the database or any entity state.
+     */
+    private record CertificateRequest(DistinguishedName dn, Set<X509Extension> extensions,
+        List<org.candlepin.model.dto.Product> productModels, Date startDate, Date endDate,
+        BigInteger serialNumber, boolean v3) {
+    }
+
+    private CertificateRequest prepareCertificate(Consumer consumer, Owner owner, Pool pool,
+        Entitlement ent, Product product, Set<Product> products,
+        List<org.candlepin.model.dto.Product> productModels, BigInteger serialNumber,
+        PromotedContent promotedContent, Set<Pool> entitledPools, boolean v3) {
+
         // oidutil is busted at the moment, so do this manually
-        Set<X509Extension> extensions = new HashSet<>();
+        Set<X509Extension> extensions;
         products.add(product);
 
-        if (shouldGenerateV3(consumer)) {
-            extensions.addAll(prepareV3Extensions(pool));
-            extensions.addAll(this.v3extensionUtil.getByteExtensions(productModels));
+        if (v3) {
+            // The content extension is encoded along with the certificate itself
+            extensions = prepareV3Extensions(pool);
         }
         else {
             extensions = prepareV1Extensions(products, pool, consumer, ent.getQuantity(),
@@ -195,9 +224,20 @@ public class DefaultEntitlementCertServiceAdapter extends BaseEntitlementCertSer
         }
         DistinguishedName dn = new DistinguishedName(ent.getId(), owner);
 
+        return new CertificateRequest(dn, extensions, productModels, startDate, endDate, serialNumber, v3);
+    }
+
+    private X509Certificate signCertificate(CertificateRequest request, KeyPair keyPair)
+        throws GeneralSecurityException, IOException {
+
+        Set<X509Extension> extensions = new HashSet<>(request.extensions());
+        if (request.v3()) {
+            extensions.addAll(this.v3extensionUtil.getByteExtensions(request.productModels()));
+        }
+
         return this.pki.createX509Certificate(
-            dn, extensions, startDate,
-            endDate, keyPair, serialNumber, null);
+            request.dn(), extensions, request.startDate(),
+            request.endDate(), keyPair, request.serialNumber(), null);
     }
 
     /**
@@ -383,7 +423,16 @@ public class DefaultEntitlementCertServiceAdapter extends BaseEntitlementCertSer
         PromotedContent promotedContent = new PromotedContent(contentPathBuilder)
             .withAll(environments);
 
-        Map<String, EntitlementCertificate> entitlementCerts = new HashMap<>();
+        boolean v3 = shouldGenerateV3(consumer);
+        long prepareStart = System.nanoTime();
+
+        // Gather everything requiring the database or entity state on this thread, leaving the
+        // signing and encoding of the certificates to the certificate generation workers.
+        List<String> poolIds = new ArrayList<>(poolQuantities.size());
+        List<CertificateGenerationExecutor.CertificateTask<String>> tasks =
+            new ArrayList<>(poolQuantities.size());
+        StageTimings timings = new StageTimings();
+
         for (Entry<String, PoolQuantity> entry : poolQuantities.entrySet()) {
             Pool pool = entry.getValue().getPool();
             Entitlement ent = entitlements.get(entry.getKey());
@@ -408,48 +457,46 @@ public class DefaultEntitlementCertServiceAdapter extends BaseEntitlementCertSer
             List<org.candlepin.model.dto.Product> productModels = v3extensionUtil.createProducts(product,
                 products, promotedContent, consumer, pool, entitledPools);
 
-            X509Certificate x509Cert = createX509Certificate(consumer, owner, pool, ent,
-                product, products, productModels,
-                BigInteger.valueOf(serial.getId()), keyPair, promotedContent, entitledPools);
-
-            log.debug("Getting PEM encoded cert.");
-            String pem = new String(this.pki.getPemEncoded(x509Cert));
-
-            if (shouldGenerateV3(consumer)) {
-                log.debug("Generating v3 entitlement data");
+            CertificateRequest request = prepareCertificate(consumer, owner, pool, ent, product, products,
+                productModels, BigInteger.valueOf(serial.getId()), promotedContent, entitledPools, v3);
 
-                byte[] payloadBytes = v3extensionUtil.createEntitlementDataPayload(productModels,
-                    consumer.getUuid(), pool, ent.getQuantity());
+            EntitlementBody entitlementBody = v3 ?
+                v3extensionUtil.createEntitlementBody(productModels, consumer.getUuid(), pool,
+                    ent.getQuantity()) :
+                null;
 
-                String payload = "-----BEGIN ENTITLEMENT DATA-----\n";
-                payload += Util.toBase64(payloadBytes);
-                payload += "-----END ENTITLEMENT DATA-----\n";
+            poolIds.add(entry.getKey());
+            tasks.add(() -> this.encodeCertificate(request, entitlementBody, keyPair, timings));
+        }
 
-                byte[] bytes = pki.getSHA256WithRSAHash(new ByteArrayInputStream(payloadBytes));
-                String signature = "-----BEGIN RSA SIGNATURE-----\n";
-                signature += Util.toBase64(bytes);
-                signature += "-----END RSA SIGNATURE-----\n";
+        timings.prepare.add(System.nanoTime() - prepareStart);
+        List<String> pems = this.certGenerationExecutor.invokeAll(tasks);
 
-                pem += payload + signature;
-            }
+        Map<String, EntitlementCertificate> entitlementCerts = new HashMap<>();
+        for (int i = 0; i < poolIds.size(); ++i) {
+            String poolId = poolIds.get(i);
+            Entitlement ent = entitlements.get(poolId);
 
             // Build a skeleton cert as part of the entitlement processing.
             EntitlementCertificate cert = new EntitlementCertificate();
             cert.setKeyAsBytes(pemEncodedKeyPair);
-            cert.setCert(pem);
+            cert.setCert(pems.get(i));
             if (save) {
                 cert.setEntitlement(ent);
             }
 
             if (log.isDebugEnabled()) {
-                log.debug("Generated cert serial number: {}", serial.getId());
+                log.debug("Generated cert serial number: {}", serialMap.get(poolId).getId());
                 log.debug("Key: {}", cert.getKey());
                 log.debug("Cert: {}", cert.getCert());
             }
 
-            entitlementCerts.put(entry.getKey(), cert);
+            entitlementCerts.put(poolId, cert);
         }
 
+        log.debug("Generated {} entitlement certificate(s) using {} thread(s); {}", entitlementCerts.size(),
+            this.certGenerationExecutor.getParallelism(), timings);
+
         // Now that the serials have been saved, update the newly created
         // certs with their serials and add them to the entitlements.
         for (Entry<String, PoolQuantity> entry : poolQuantities.entrySet()) {
@@ -482,6 +529,69 @@ public class DefaultEntitlementCertServiceAdapter extends BaseEntitlementCertSer
         return entitlementCerts;
     }
 
+    /**
+     * Signs and PEM encodes a single entitlement certificate, appending the signed entitlement data
+     * payload built from the given entitlement body for v3 certificates. This is run on the
+     * certificate generation workers, and must only use the state gathered in the certificate
+     * request and entitlement body.
+     */
+    private String encodeCertificate(CertificateRequest request, EntitlementBody entitlementBody,
+        KeyPair keyPair, StageTimings timings) throws GeneralSecurityException, IOException {
+
+        long start = System.nanoTime();
+        X509Certificate x509Cert = signCertificate(request, keyPair);
+
+        long signed = System.nanoTime();
+        timings.sign.add(signed - start);
+
+        log.debug("Getting PEM encoded cert.");
+        String pem = new String(this.pki.getPemEncoded(x509Cert));
+
+        long encoded = System.nanoTime();
+        timings.encode.add(encoded - signed);
+
+        if (request.v3()) {
+            log.debug("Generating v3 entitlement data");
+
+            byte[] payloadBytes = v3extensionUtil.createEntitlementDataPayload(entitlementBody);
+
+            String payload = "-----BEGIN ENTITLEMENT DATA-----\n";
+            payload += Util.toBase64(payloadBytes);
+            payload += "-----END ENTITLEMENT DATA-----\n";
+
+            byte[] bytes = pki.getSHA256WithRSAHash(new ByteArrayInputStream(payloadBytes));
+            String signature = "-----BEGIN RSA SIGNATURE-----\n";
+            signature += Util.toBase64(bytes);
+            signature += "-----END RSA SIGNATURE-----\n";
+
+            pem += payload + signature;
+            timings.payload.add(System.nanoTime() - encoded);
+        }
+
+        return pem;
+    }
+
+    /**
+     * The time spent in each stage of a batch of certificate generation, summed across all of the
+     * certificates in the batch.
+     */
+    private static class StageTimings {
+        private final LongAdder prepare = new LongAdder();
+        private final LongAdder sign = new LongAdder();
+        private final LongAdder encode = new LongAdder();
+        private final LongAdder payload = new LongAdder();
+
+        private static long toMillis(LongAdder nanos) {
+            return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("prepare: %dms, sign: %dms, PEM encode: %dms, payload: %dms",
+                toMillis(this.prepare), toMillis(this.sign), toMillis(this.encode), toMillis(this.payload));
+        }
+    }
+
     public List<Long> listEntitlementSerialIds(Consumer consumer) {
         return serialCurator.listEntitlementSerialIds(consumer);
     }
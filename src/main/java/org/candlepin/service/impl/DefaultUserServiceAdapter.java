@@ -19,6 +19,7 @@ import org.candlepin.auth.SubResource;
 import org.candlepin.auth.permissions.Permission;
 import org.candlepin.auth.permissions.PermissionFactory;
 import org.candlepin.auth.permissions.PermissionFactory.PermissionType;
+import org.candlepin.cache.UserPermissionCache;
 import org.candlepin.model.Owner;
 import org.candlepin.model.OwnerCurator;
 import org.candlepin.model.PermissionBlueprint;
@@ -60,21 +61,32 @@ public class DefaultUserServiceAdapter implements UserServiceAdapter {
     private PermissionBlueprintCurator permissionCurator;
     private OwnerCurator ownerCurator;
     private PermissionFactory permissionFactory;
+    private UserPermissionCache permissionCache;
 
     @Inject
     public DefaultUserServiceAdapter(UserCurator userCurator, RoleCurator roleCurator,
         PermissionBlueprintCurator permissionCurator, OwnerCurator ownerCurator,
-        PermissionFactory permissionFactory) {
+        PermissionFactory permissionFactory, UserPermissionCache permissionCache) {
 
         this.userCurator = Objects.requireNonNull(userCurator);
         this.roleCurator = Objects.requireNonNull(roleCurator);
         this.permissionCurator = Objects.requireNonNull(permissionCurator);
         this.ownerCurator = Objects.requireNonNull(ownerCurator);
         this.permissionFactory = Objects.requireNonNull(permissionFactory);
+        this.permissionCache = Objects.requireNonNull(permissionCache);
 
         this.createDefaultAdminUser();
     }
 
+    /**
+     * Advances the role version of the permission cache once the current transaction commits. The
+     * version must not advance before the change is visible to other transactions, or permissions
+     * compiled from the old roles in the meantime would be cached under the new version.
+     */
+    private void invalidatePermissionCache() {
+        this.userCurator.runAfterCommit(this.permissionCache::invalidateAll);
+    }
+
     /**
      * Creates the default super-admin user "admin" if no other users exist in the backing user data
      * store.
@@ -197,7 +209,10 @@ public class DefaultUserServiceAdapter implements UserServiceAdapter {
             }
         }
 
-        return this.userCurator.merge(entity);
+        entity = this.userCurator.merge(entity);
+        this.invalidatePermissionCache();
+
+        return entity;
     }
 
     /**
@@ -233,6 +248,7 @@ public class DefaultUserServiceAdapter implements UserServiceAdapter {
         if (entity != null) {
             entity.clearRoles();
             this.userCurator.delete(entity);
+            this.invalidatePermissionCache();
         }
     }
 
@@ -358,7 +374,10 @@ public class DefaultUserServiceAdapter implements UserServiceAdapter {
             }
         }
 
-        return this.roleCurator.create(entity);
+        Role created = this.roleCurator.create(entity);
+        this.invalidatePermissionCache();
+
+        return created;
     }
 
     /**
@@ -453,7 +472,10 @@ public class DefaultUserServiceAdapter implements UserServiceAdapter {
             }
         }
 
-        return this.roleCurator.merge(entity);
+        entity = this.roleCurator.merge(entity);
+        this.invalidatePermissionCache();
+
+        return entity;
     }
 
     /**
@@ -472,7 +494,10 @@ public class DefaultUserServiceAdapter implements UserServiceAdapter {
         }
 
         roleEntity.addUser(userEntity);
-        return this.roleCurator.merge(roleEntity);
+        roleEntity = this.roleCurator.merge(roleEntity);
+        this.invalidatePermissionCache();
+
+        return roleEntity;
     }
 
     /**
@@ -491,7 +516,10 @@ public class DefaultUserServiceAdapter implements UserServiceAdapter {
         }
 
         roleEntity.removeUser(userEntity);
-        return this.roleCurator.merge(roleEntity);
+        roleEntity = this.roleCurator.merge(roleEntity);
+        this.invalidatePermissionCache();
+
+        return roleEntity;
     }
 
     /**
@@ -520,7 +548,10 @@ public class DefaultUserServiceAdapter implements UserServiceAdapter {
 
         roleEntity.addPermission(pentity);
 
-        return this.roleCurator.merge(roleEntity);
+        roleEntity = this.roleCurator.merge(roleEntity);
+        this.invalidatePermissionCache();
+
+        return roleEntity;
     }
 
     /**
@@ -559,6 +590,7 @@ public class DefaultUserServiceAdapter implements UserServiceAdapter {
             if (removed) {
                 roleEntity.setPermissions(permissions);
                 roleEntity = this.roleCurator.merge(roleEntity);
+                this.invalidatePermissionCache();
             }
         }
 
@@ -575,6 +607,7 @@ public class DefaultUserServiceAdapter implements UserServiceAdapter {
         if (entity != null) {
             entity.clearUsers();
             this.roleCurator.delete(entity);
+            this.invalidatePermissionCache();
         }
     }
 
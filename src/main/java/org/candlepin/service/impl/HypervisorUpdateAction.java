@@ -25,8 +25,10 @@ import org.candlepin.dto.api.server.v1.GuestIdDTO;
 import org.candlepin.dto.api.server.v1.HypervisorConsumerDTO;
 import org.candlepin.dto.api.server.v1.HypervisorIdDTO;
 import org.candlepin.dto.api.server.v1.HypervisorUpdateResultDTO;
+import org.candlepin.dto.api.server.v1.NestedOwnerDTO;
 import org.candlepin.model.Consumer;
 import org.candlepin.model.ConsumerCurator;
+import org.candlepin.model.ConsumerCurator.HypervisorReportState;
 import org.candlepin.model.ConsumerType;
 import org.candlepin.model.ConsumerType.ConsumerTypeEnum;
 import org.candlepin.model.ConsumerTypeCurator;
@@ -36,21 +38,29 @@ import org.candlepin.model.VirtConsumerMap;
 import org.candlepin.resource.ConsumerResource;
 import org.candlepin.resource.util.GuestMigration;
 import org.candlepin.service.SubscriptionServiceAdapter;
+import org.candlepin.util.DigestBuilder;
 import org.candlepin.util.Transactional;
 
+import com.google.common.collect.Iterables;
+
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
@@ -103,13 +113,29 @@ public class HypervisorUpdateAction {
         log.debug("Hypervisor consumers for create/update: {}", hypervisors.size());
         log.debug("Updating hypervisor consumers for org {}", ownerKey);
 
-        Set<String> hosts = new HashSet<>();
+        Set<String> hosts = new LinkedHashSet<>();
         Set<String> guests = new HashSet<>();
         Map<String, ConsumerDTO> incomingHosts = new HashMap<>();
         HypervisorUpdateResultDTO result = initResultDTO();
         parseHypervisorList(hypervisors, hosts, guests, incomingHosts);
         VirtConsumerMap hypervisorConsumersMap = new VirtConsumerMap();
 
+        // Acknowledge the hosts whose reports are unchanged since they were last applied without
+        // reconciling them
+        if (this.config.getBoolean(ConfigProperties.HYPERVISOR_UPDATE_SKIP_UNCHANGED)) {
+            hosts.removeAll(this.checkInUnchangedHosts(owner, incomingHosts, result, jobReporterId));
+        }
+
+        // Reconcile the hosts in bulk where possible, leaving any hosts which could not be reconciled
+        // as part of a chunk to be processed individually
+        Collection<String> remainingHosts = hosts;
+
+        int chunkSize = this.config.getInt(ConfigProperties.HYPERVISOR_UPDATE_CHUNK_SIZE);
+        if (chunkSize > 1 && hosts.size() > 1) {
+            remainingHosts = this.reconcileHostChunks(owner, hosts, incomingHosts, chunkSize, result,
+                hypervisorConsumersMap, create, principal, jobReporterId);
+        }
+
         HypervisorUpdateAction act = this;
         Transactional<Consumer> transaction = this.consumerCurator.transactional(args ->
             act.reconcileHost((Owner) args[0], (ConsumerDTO) args[1], (HypervisorUpdateResultDTO) args[2],
@@ -117,7 +143,7 @@ public class HypervisorUpdateAction {
             .onCommit(status -> sink.sendEvents())
             .onRollback(status -> sink.rollback());
 
-        for (String hypervisorId : hosts) {
+        for (String hypervisorId : remainingHosts) {
             try {
                 Consumer knownHost = transaction.execute(owner, incomingHosts.get(hypervisorId), result,
                     create, principal, jobReporterId);
@@ -146,18 +172,239 @@ public class HypervisorUpdateAction {
         return dto;
     }
 
-    public Consumer reconcileHost(Owner owner, ConsumerDTO incomingHost, HypervisorUpdateResultDTO result,
-        boolean create, String principal, String jobReporterId) {
+    /**
+     * Reconciles the given hosts in chunks of the specified size, committing each chunk in a single
+     * transaction. Should a chunk fail, its changes are rolled back and its hosts are returned to be
+     * processed individually, along with any hosts deferred by their chunk.
+     *
+     * @return
+     *  the hypervisor IDs of the hosts which still need to be processed individually
+     */
+    private List<String> reconcileHostChunks(Owner owner, Collection<String> hosts,
+        Map<String, ConsumerDTO> incomingHosts, int chunkSize, HypervisorUpdateResultDTO result,
+        VirtConsumerMap hypervisorConsumersMap, boolean create, String principal, String jobReporterId) {
+
+        List<String> remainingHosts = new ArrayList<>();
+
+        for (List<String> chunk : Iterables.partition(hosts, chunkSize)) {
+            List<ConsumerDTO> incoming = chunk.stream()
+                .map(incomingHosts::get)
+                .collect(Collectors.toList());
+
+            HypervisorUpdateResultDTO chunkResult = initResultDTO();
+            List<String> deferred = new ArrayList<>();
+
+            try {
+                List<Consumer> knownHosts = this.consumerCurator.<List<Consumer>>transactional(args ->
+                    this.reconcileHostChunk(owner, incoming, chunkResult, create, principal, jobReporterId,
+                    deferred))
+                    .onCommit(status -> sink.sendEvents())
+                    .onRollback(status -> sink.rollback())
+                    .execute();
+
+                for (Consumer knownHost : knownHosts) {
+                    hypervisorConsumersMap.add(knownHost.getHypervisorId().getHypervisorId(), knownHost);
+                }
+
+                this.mergeResults(result, chunkResult);
+                remainingHosts.addAll(deferred);
+            }
+            catch (Exception e) {
+                log.warn("Unable to reconcile a chunk of {} hypervisors in bulk; " +
+                    "falling back to processing them individually", chunk.size(), e);
+
+                // The failed chunk may have modified or created more than the consumers it resolved,
+                // such as the guests migrated between hosts, none of which were rolled back in the
+                // persistence context. Clear it so the individual updates start from the database
+                // state rather than flushing the remains of the failed chunk.
+                this.consumerCurator.clear();
+                remainingHosts.addAll(chunk);
+            }
+        }
+
+        return remainingHosts;
+    }
+
+    /**
+     * Reconciles a chunk of incoming hosts. The existing consumers of the chunk are resolved and
+     * locked in bulk, first by hypervisor ID and then, if enabled, by system UUID, before each host
+     * is reconciled against its resolved consumer. Hosts which resolve to a consumer or system UUID
+     * already claimed by another host in the chunk are deferred, so they are processed individually
+     * after the chunk has been committed, as they would have been without chunking.
+     */
+    private List<Consumer> reconcileHostChunk(Owner owner, List<ConsumerDTO> incoming,
+        HypervisorUpdateResultDTO result, boolean create, String principal, String jobReporterId,
+        List<String> deferred) {
+
+        List<String> hypervisorIds = incoming.stream()
+            .map(host -> host.getHypervisorId().getHypervisorId())
+            .collect(Collectors.toList());
+
+        // Impl note: this lookup also locks the consumers it finds
+        Map<String, Consumer> hypervisorIdMap = new HashMap<>();
+        for (Consumer consumer : this.consumerCurator.getHypervisorsBulk(hypervisorIds, owner.getId())) {
+            hypervisorIdMap.putIfAbsent(consumer.getHypervisorId().getHypervisorId().toLowerCase(), consumer);
+        }
+
+        boolean matchSystemUuid = config.getBoolean(ConfigProperties.USE_SYSTEM_UUID_FOR_MATCHING);
+        Map<String, Consumer> systemUuidMap = new HashMap<>();
+
+        if (matchSystemUuid) {
+            Set<String> systemUuids = incoming.stream()
+                .filter(host -> !hypervisorIdMap.containsKey(
+                    host.getHypervisorId().getHypervisorId().toLowerCase()))
+                .map(this::getSystemUuid)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+            systemUuidMap = this.consumerCurator.getConsumersBySystemUuids(owner.getId(), systemUuids);
+            this.consumerCurator.lock(systemUuidMap.values());
+        }
 
-        String systemUuid = incomingHost.getFacts() != null ?
+        Set<Consumer> claimedConsumers = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<String> claimedSystemUuids = new HashSet<>();
+        List<Consumer> knownHosts = new ArrayList<>();
+
+        for (ConsumerDTO incomingHost : incoming) {
+            String hypervisorId = incomingHost.getHypervisorId().getHypervisorId();
+            String systemUuid = matchSystemUuid ? this.getSystemUuid(incomingHost) : null;
+
+            Consumer existing = hypervisorIdMap.get(hypervisorId.toLowerCase());
+            if (existing == null && systemUuid != null) {
+                existing = systemUuidMap.get(systemUuid.toLowerCase());
+            }
+
+            boolean claimed = existing != null ?
+                !claimedConsumers.add(existing) :
+                systemUuid != null && !claimedSystemUuids.add(systemUuid.toLowerCase());
+
+            if (claimed) {
+                deferred.add(hypervisorId);
+                continue;
+            }
+
+            Consumer knownHost = this.reconcileHost(owner, incomingHost, existing, result, create, principal,
+                jobReporterId);
+
+            if (knownHost != null) {
+                knownHosts.add(knownHost);
+            }
+        }
+
+        return knownHosts;
+    }
+
+    /**
+     * Updates the check-in time of the existing hosts whose reports are identical to the last
+     * reports applied to them, adding them to the unchanged hosts of the result. This is done in
+     * bulk, without loading or locking the hosts' consumers, as reconciling such hosts would not
+     * change anything beyond their check-in time.
+     *
+     * @return
+     *  the hypervisor IDs of the hosts acknowledged as unchanged
+     */
+    private Set<String> checkInUnchangedHosts(Owner owner, Map<String, ConsumerDTO> incomingHosts,
+        HypervisorUpdateResultDTO result, String jobReporterId) {
+
+        Map<String, HypervisorReportState> states = this.consumerCurator
+            .getHypervisorReportStates(owner.getId(), this.hypervisorType.getId(), incomingHosts.keySet());
+
+        Set<String> unchangedHosts = new HashSet<>();
+        Map<String, Date> checkins = new HashMap<>();
+        Date now = new Date();
+
+        NestedOwnerDTO ownerDTO = new NestedOwnerDTO();
+        ownerDTO.setKey(owner.getKey());
+
+        incomingHosts.forEach((hypervisorId, incomingHost) -> {
+            HypervisorReportState state = states.get(hypervisorId.toLowerCase());
+
+            if (state != null && state.reportDigest().equals(getReportDigest(incomingHost, jobReporterId))) {
+                HypervisorConsumerDTO consumerDTO = new HypervisorConsumerDTO()
+                    .uuid(state.uuid())
+                    .name(state.name());
+                consumerDTO.setOwner(ownerDTO);
+
+                result.getUnchanged().add(consumerDTO);
+                checkins.put(state.consumerId(), now);
+                unchangedHosts.add(hypervisorId);
+            }
+        });
+
+        if (!unchangedHosts.isEmpty()) {
+            log.debug("Skipping {} hypervisors with unchanged reports in org {}", unchangedHosts.size(),
+                owner.getKey());
+
+            this.consumerCurator.updateLastCheckins(checkins);
+        }
+
+        return unchangedHosts;
+    }
+
+    /**
+     * Computes the digest of an incoming host, covering everything reconciliation applies to the
+     * host's consumer: its hypervisor ID, name, facts and guests, and the reporter of the host.
+     * Guests are digested in a canonical order, so reordered guests do not alter the digest.
+     */
+    private static String getReportDigest(ConsumerDTO incomingHost, String reporterId) {
+        List<String> guestDigests = null;
+
+        if (incomingHost.getGuestIds() != null) {
+            guestDigests = incomingHost.getGuestIds().stream()
+                .filter(Objects::nonNull)
+                .map(guestId -> new DigestBuilder()
+                    .update(guestId.getGuestId())
+                    .update(guestId.getAttributes())
+                    .digest())
+                .distinct()
+                .collect(Collectors.toList());
+        }
+
+        return new DigestBuilder()
+            .update(incomingHost.getHypervisorId().getHypervisorId().toLowerCase())
+            .update(incomingHost.getName())
+            .update(incomingHost.getFacts())
+            .update(guestDigests)
+            .update(reporterId)
+            .digest();
+    }
+
+    private void mergeResults(HypervisorUpdateResultDTO result, HypervisorUpdateResultDTO chunkResult) {
+        result.getCreated().addAll(chunkResult.getCreated());
+        result.getUpdated().addAll(chunkResult.getUpdated());
+        result.getUnchanged().addAll(chunkResult.getUnchanged());
+        result.getFailedUpdate().addAll(chunkResult.getFailedUpdate());
+    }
+
+    private String getSystemUuid(ConsumerDTO incomingHost) {
+        return incomingHost.getFacts() != null ?
             incomingHost.getFacts().get(Consumer.Facts.DMI_SYSTEM_UUID) :
             null;
+    }
+
+    public Consumer reconcileHost(Owner owner, ConsumerDTO incomingHost, HypervisorUpdateResultDTO result,
+        boolean create, String principal, String jobReporterId) {
+
+        String systemUuid = this.getSystemUuid(incomingHost);
 
         String hypervisorId = incomingHost.getHypervisorId().getHypervisorId();
         Consumer resultHost = consumerCurator.getExistingConsumerByHypervisorIdOrUuid(owner.getId(),
             hypervisorId,
             config.getBoolean(ConfigProperties.USE_SYSTEM_UUID_FOR_MATCHING) ? systemUuid : null);
 
+        if (resultHost != null) {
+            consumerCurator.lock(resultHost);
+        }
+
+        return this.reconcileHost(owner, incomingHost, resultHost, result, create, principal, jobReporterId);
+    }
+
+    private Consumer reconcileHost(Owner owner, ConsumerDTO incomingHost, Consumer resultHost,
+        HypervisorUpdateResultDTO result, boolean create, String principal, String jobReporterId) {
+
+        String hypervisorId = incomingHost.getHypervisorId().getHypervisorId();
+        String reportDigest = getReportDigest(incomingHost, jobReporterId);
+
         if (jobReporterId == null) {
             log.debug("hypervisor checkin reported asynchronously without reporter id " +
                 "for hypervisor:{} of owner:{}", hypervisorId, owner.getKey());
@@ -184,6 +431,8 @@ public class HypervisorUpdateAction {
                 }
 
                 try {
+                    // Impl note: the digest must be set last, as any change to the consumer clears it
+                    resultHost.getHypervisorId().setReportDigest(reportDigest);
                     consumerCurator.create(resultHost);
                     result.setCreated(addHypervisorConsumerDTO(result.getCreated(), resultHost));
                     Event event = evtFactory.consumerCreated(resultHost);
@@ -198,7 +447,6 @@ public class HypervisorUpdateAction {
             }
         }
         else {
-            consumerCurator.lock(resultHost);
             boolean hypervisorIdUpdated = updateHypervisorId(resultHost, owner, jobReporterId,
                 hypervisorId);
 
@@ -249,6 +497,8 @@ public class HypervisorUpdateAction {
             }
 
             try {
+                // Impl note: the digest must be set last, as any change to the consumer clears it
+                resultHost.getHypervisorId().setReportDigest(reportDigest);
                 consumerCurator.update(resultHost);
             }
             catch (Exception e) {
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.sync;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+
+
+/**
+ * A ManifestContent implementation serving the files of an export which has been extracted to a
+ * directory.
+ */
+public class DirectoryManifestContent implements ManifestContent {
+
+    private final File baseDir;
+
+    /**
+     * Creates a new content instance backed by the given export directory.
+     *
+     * @param baseDir
+     *  the directory containing the exported files
+     */
+    public DirectoryManifestContent(File baseDir) {
+        if (baseDir == null) {
+            throw new IllegalArgumentException("baseDir is null");
+        }
+
+        this.baseDir = baseDir;
+    }
+
+    @Override
+    public boolean exists(String path) {
+        return new File(this.baseDir, path).exists();
+    }
+
+    @Override
+    public List<String> list(String directory) {
+        String[] names = new File(this.baseDir, directory).list();
+        if (names == null) {
+            return List.of();
+        }
+
+        return Arrays.stream(names)
+            .filter(name -> new File(new File(this.baseDir, directory), name).isFile())
+            .sorted()
+            .toList();
+    }
+
+    @Override
+    public InputStream open(String path) throws IOException {
+        return new FileInputStream(new File(this.baseDir, path));
+    }
+}
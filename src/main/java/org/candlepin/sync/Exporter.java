@@ -44,17 +44,20 @@ import org.candlepin.version.VersionUtil;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.SignatureException;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -101,6 +104,8 @@ public class Exporter {
     private ContentAccessManager contentAccessManager;
 
     private static final String LEGACY_RULES_FILE = "/rules/default-rules.js";
+    private static final String EXPORT_DIR = "export";
+    private static final String EXPORT_ARCHIVE_NAME = "consumer_export.zip";
     private SyncUtils syncUtils;
 
     @Inject
@@ -157,163 +162,153 @@ public class Exporter {
      */
     public File getFullExport(Consumer consumer, String cdnLabel, String webUrl,
         String apiUrl) throws ExportCreationException {
-        try {
-            File tmpDir = syncUtils.makeTempDir("export");
-            File baseDir = new File(tmpDir.getAbsolutePath(), "export");
-            baseDir.mkdir();
-
-            exportMeta(baseDir, cdnLabel);
-            exportConsumer(baseDir, consumer, webUrl, apiUrl);
-            exportIdentityCertificate(baseDir, consumer);
-            exportEntitlements(baseDir, consumer);
-            exportEntitlementsCerts(baseDir, consumer, null, true);
-            exportProducts(baseDir, consumer);
-            exportConsumerTypes(baseDir);
-            exportRules(baseDir);
-            exportDistributorVersions(baseDir);
-            exportContentDeliveryNetworks(baseDir);
-            return makeArchive(consumer, tmpDir, baseDir);
-        }
-        catch (IOException e) {
-            log.error("Error generating entitlement export", e);
-            throw new ExportCreationException("Unable to create export archive", e);
-        }
+        return this.writeToFile(consumer,
+            output -> this.getFullExport(consumer, cdnLabel, webUrl, apiUrl, output));
+    }
+
+    /**
+     * Writes a manifest archive for the target {@link Consumer} to the given output stream. The
+     * archive is generated and signed as it is written, so no part of it is staged on disk. The
+     * output stream is not closed.
+     *
+     * @param consumer the target consumer to export.
+     * @param cdnLabel the CDN label to store in the meta file.
+     * @param webUrl the URL pointing to the manifest's originating web application.
+     * @param apiUrl the API URL pointing to the manifest's originating candlepin API.
+     * @param output the stream to write the manifest archive to.
+     * @throws ExportCreationException when an error occurs while creating the manifest archive.
+     */
+    public void getFullExport(Consumer consumer, String cdnLabel, String webUrl, String apiUrl,
+        OutputStream output) throws ExportCreationException {
+
+        this.writeSignedArchive(consumer, output, archive -> {
+            exportMeta(archive, cdnLabel);
+            exportConsumer(archive, consumer, webUrl, apiUrl);
+            exportIdentityCertificate(archive, consumer);
+            exportEntitlements(archive, consumer);
+            exportEntitlementsCerts(archive, consumer, null, true);
+            exportProducts(archive, consumer);
+            exportConsumerTypes(archive);
+            exportRules(archive);
+            exportDistributorVersions(archive);
+            exportContentDeliveryNetworks(archive);
+        });
     }
 
     public File getEntitlementExport(Consumer consumer, Set<Long> serials) throws ExportCreationException {
         // TODO: need to delete tmpDir (which contains the archive,
         // which we need to return...)
-        try {
-            File tmpDir = syncUtils.makeTempDir("export");
-            File baseDir = new File(tmpDir.getAbsolutePath(), "export");
-            baseDir.mkdir();
-
-            exportMeta(baseDir, null);
-            exportEntitlementsCerts(baseDir, consumer, serials, false);
-            exportContentAccessCerts(baseDir, consumer, serials);
-            return makeArchive(consumer, tmpDir, baseDir);
-        }
-        catch (IOException e) {
-            log.error("Error generating entitlement export", e);
-            throw new ExportCreationException("Unable to create export archive", e);
-        }
+        return this.writeToFile(consumer, output -> this.getEntitlementExport(consumer, serials, output));
     }
 
     /**
-     * Create a tar.gz archive of the exported directory.
+     * Writes an archive of the target {@link Consumer}'s entitlement and content access
+     * certificates to the given output stream. The output stream is not closed.
      *
-     * @param exportDir Directory where Candlepin data was exported.
-     * @return File reference to the new archive zip.
+     * @param consumer the target consumer.
+     * @param serials the serials of the certificates to export, or null to export all of them.
+     * @param output the stream to write the certificate archive to.
+     * @throws ExportCreationException when an error occurs while creating the archive.
      */
-    private File makeArchive(Consumer consumer, File tempDir, File exportDir)
-        throws IOException {
-        String exportFileName = String.format("%s-%s.zip", consumer.getUuid(), exportDir.getName());
-        log.info("Creating archive of " + exportDir.getAbsolutePath() + " in: " +
-            exportFileName);
+    public void getEntitlementExport(Consumer consumer, Set<Long> serials, OutputStream output)
+        throws ExportCreationException {
+
+        this.writeSignedArchive(consumer, output, archive -> {
+            exportMeta(archive, null);
+            exportEntitlementsCerts(archive, consumer, serials, false);
+            exportContentAccessCerts(archive, consumer, serials);
+        });
+    }
 
-        File archive = createZipArchiveWithDir(tempDir, exportDir, "consumer_export.zip",
-            "Candlepin export for " + consumer.getUuid());
+    /**
+     * Fetches the name of the signed archive generated for the given consumer.
+     *
+     * @param consumer the exported consumer.
+     * @return the file name to use for the consumer's export archive.
+     */
+    public String getExportFileName(Consumer consumer) {
+        return String.format("%s-%s.zip", consumer.getUuid(), EXPORT_DIR);
+    }
 
-        InputStream archiveInputStream = null;
+    /**
+     * Writes an archive into a new work directory, for callers which need the archive as a file.
+     * The archive is written once, directly to its final location.
+     */
+    private File writeToFile(Consumer consumer, ArchiveWriter writer) throws ExportCreationException {
+        File archive;
         try {
-            archiveInputStream = new FileInputStream(archive);
-            File signedArchive = createSignedZipArchive(
-                tempDir, archive, exportFileName,
-                pki.getSHA256WithRSAHash(archiveInputStream),
-                "signed Candlepin export for " + consumer.getUuid());
-
-            log.debug("Returning file: " + archive.getAbsolutePath());
-            return signedArchive;
+            File tmpDir = syncUtils.makeTempDir("export");
+            archive = new File(tmpDir, this.getExportFileName(consumer));
         }
-        finally {
-            if (archiveInputStream != null) {
-                try {
-                    archiveInputStream.close();
-                }
-                catch (Exception e) {
-                    // nothing to do
-                }
-            }
+        catch (IOException e) {
+            log.error("Error generating entitlement export", e);
+            throw new ExportCreationException("Unable to create export archive", e);
         }
-    }
 
-    private File createZipArchiveWithDir(File tempDir, File exportDir,
-        String exportFileName, String comment)
-        throws FileNotFoundException, IOException {
-
-        File archive = new File(tempDir, exportFileName);
-        ZipOutputStream out = null;
-        try {
-            out = new ZipOutputStream(new FileOutputStream(archive));
-            out.setComment(comment);
-            addFilesToArchive(out, exportDir.getParent().length() + 1, exportDir);
+        log.info("Creating archive for consumer {} in: {}", consumer.getUuid(), archive.getAbsolutePath());
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(archive))) {
+            writer.write(output);
         }
-        finally {
-            if (out != null) {
-                out.close();
-            }
+        catch (IOException e) {
+            log.error("Error generating entitlement export", e);
+            throw new ExportCreationException("Unable to create export archive", e);
         }
+
+        log.debug("Returning file: {}", archive.getAbsolutePath());
         return archive;
     }
 
-    private File createSignedZipArchive(File tempDir, File toAdd,
-        String exportFileName, byte[] signature, String comment)
-        throws FileNotFoundException, IOException {
+    /**
+     * Writes a signed export archive to the given output stream. The exported files are zipped
+     * into an inner archive which is written as an entry of the outer archive, while the bytes of
+     * the inner archive are fed to the signature. The signature is then added as the last entry of
+     * the outer archive.
+     */
+    private void writeSignedArchive(Consumer consumer, OutputStream output, ArchiveContent content)
+        throws ExportCreationException {
 
-        File archive = new File(tempDir, exportFileName);
-        ZipOutputStream out = null;
-        try {
-            out = new ZipOutputStream(new FileOutputStream(archive));
-            out.setComment(comment);
-            addFileToArchive(out, toAdd.getParent().length() + 1, toAdd);
-            addSignatureToArchive(out, signature);
-        }
-        finally {
-            if (out != null) {
-                out.close();
-            }
-        }
-        return archive;
-    }
+        try (ZipOutputStream signedArchive = new ZipOutputStream(CloseShieldOutputStream.wrap(output))) {
+            signedArchive.setComment("signed Candlepin export for " + consumer.getUuid());
+            signedArchive.putNextEntry(new ZipEntry(EXPORT_ARCHIVE_NAME));
 
-    private void addFilesToArchive(ZipOutputStream out, int charsToDropFromName,
-        File directory) throws IOException {
-        for (File file : directory.listFiles()) {
-            if (file.isDirectory()) {
-                addFilesToArchive(out, charsToDropFromName, file);
-            }
-            else {
-                addFileToArchive(out, charsToDropFromName, file);
+            SigningOutputStream signer = new SigningOutputStream(
+                CloseShieldOutputStream.wrap(signedArchive), pki.getSHA256WithRSASigner());
+
+            try (ZipOutputStream archive = new ZipOutputStream(signer)) {
+                archive.setComment("Candlepin export for " + consumer.getUuid());
+                content.write(archive);
             }
+
+            signedArchive.closeEntry();
+            addSignatureToArchive(signedArchive, signer.sign());
+        }
+        catch (IOException | SignatureException e) {
+            log.error("Error generating entitlement export", e);
+            throw new ExportCreationException("Unable to create export archive", e);
         }
     }
 
-    private void addFileToArchive(ZipOutputStream out, int charsToDropFromName,
-        File file) throws IOException, FileNotFoundException {
-        log.debug("Adding file to archive: " +
-            file.getAbsolutePath().substring(charsToDropFromName));
-        out.putNextEntry(new ZipEntry(
-            file.getAbsolutePath().substring(charsToDropFromName)));
-        FileInputStream in = null;
-        try {
-            in = new FileInputStream(file);
+    /**
+     * Adds a new entry to the archive under the export directory, writing its contents with the
+     * given writer.
+     */
+    private void addEntry(ZipOutputStream archive, String path, EntryWriter entry) throws IOException {
+        String name = EXPORT_DIR + "/" + path;
+        log.debug("Adding file to archive: {}", name);
 
-            byte[] buf = new byte[1024];
-            int len;
-            while ((len = in.read(buf)) > 0) {
-                out.write(buf, 0, len);
-            }
-            out.closeEntry();
-        }
-        finally {
-            if (in != null) {
-                in.close();
-            }
+        archive.putNextEntry(new ZipEntry(name));
+
+        // Exporters may close the writer they are given; shield the archive from that.
+        try (Writer writer = new OutputStreamWriter(CloseShieldOutputStream.wrap(archive),
+            StandardCharsets.UTF_8)) {
+            entry.write(writer);
         }
+
+        archive.closeEntry();
     }
 
     private void addSignatureToArchive(ZipOutputStream out, byte[] signature)
-        throws IOException, FileNotFoundException {
+        throws IOException {
 
         log.debug("Adding signature to archive.");
         out.putNextEntry(new ZipEntry("signature"));
@@ -321,22 +316,13 @@ public class Exporter {
         out.closeEntry();
     }
 
-    private void exportMeta(File baseDir, String cdnKey)
+    private void exportMeta(ZipOutputStream archive, String cdnKey)
         throws IOException {
-        File file = new File(baseDir.getCanonicalPath(), "meta.json");
-        FileWriter writer = null;
-        try {
-            writer = new FileWriter(file);
-            Meta m = new Meta(getVersion(), new Date(),
-                principalProvider.get().getName(),
-                null, cdnKey);
-            meta.export(mapper, writer, m);
-        }
-        finally {
-            if (writer != null) {
-                writer.close();
-            }
-        }
+        Meta m = new Meta(getVersion(), new Date(),
+            principalProvider.get().getName(),
+            null, cdnKey);
+
+        this.addEntry(archive, "meta.json", writer -> meta.export(mapper, writer, m));
     }
 
     private String getPrefixWebUrl(String override) {
@@ -370,22 +356,18 @@ public class Exporter {
         return map.get("version") + "-" + map.get("release");
     }
 
-    private void exportConsumer(File baseDir, Consumer consumer, String webAppPrefix, String apiUrl)
-        throws IOException {
+    private void exportConsumer(ZipOutputStream archive, Consumer consumer, String webAppPrefix,
+        String apiUrl) throws IOException {
 
-        File file = new File(baseDir.getCanonicalPath(), "consumer.json");
-        try (FileWriter writer = new FileWriter(file)) {
-            this.consumerExporter.export(mapper, writer, consumer,
-                getPrefixWebUrl(webAppPrefix), getPrefixApiUrl(apiUrl));
-        }
+        this.addEntry(archive, "consumer.json", writer -> this.consumerExporter.export(mapper, writer,
+            consumer, getPrefixWebUrl(webAppPrefix), getPrefixApiUrl(apiUrl)));
     }
 
-    private void exportEntitlementsCerts(File baseDir, Consumer consumer,
+    private void exportEntitlementsCerts(ZipOutputStream archive, Consumer consumer,
         Set<Long> serials, boolean manifest)
         throws IOException {
 
-        File entCertDir = new File(baseDir.getCanonicalPath(), "entitlement_certificates");
-        entCertDir.mkdir();
+        CertificateExporter certExporter = new CertificateExporter();
 
         for (EntitlementCertificate cert : entCertAdapter.listForConsumer(consumer)) {
             if (manifest && !this.exportRules.canExport(cert.getEntitlement())) {
@@ -397,9 +379,9 @@ public class Exporter {
 
             if ((serials == null) || (serials.contains(cert.getSerial().getId()))) {
                 log.debug("Exporting entitlement certificate: {}", cert.getSerial());
-                File file = new File(entCertDir.getCanonicalPath(), cert.getSerial().getId() + ".pem");
+                String path = "entitlement_certificates/" + cert.getSerial().getId() + ".pem";
 
-                new CertificateExporter().exportCertificate(cert, file);
+                this.addEntry(archive, path, writer -> certExporter.exportCertificate(cert, writer));
             }
         }
     }
@@ -408,8 +390,8 @@ public class Exporter {
      * Exports content access certificates for a consumer.
      * Consumer must belong to owner with SCA enabled.
      *
-     * @param baseDir
-     *  Base directory path.
+     * @param archive
+     *  The archive to write the certificates to.
      *
      * @param consumer
      *  Consumer for which content access certificates needs to be exported.
@@ -420,46 +402,38 @@ public class Exporter {
      * @throws IOException
      *  Throws IO exception if unable to export content access certs for the consumer.
      */
-    private void exportContentAccessCerts(File baseDir, Consumer consumer,
+    private void exportContentAccessCerts(ZipOutputStream archive, Consumer consumer,
         Set<Long> serials) throws IOException {
         ContentAccessCertificate contentAccessCert = this.contentAccessManager.getCertificate(consumer);
 
         if (contentAccessCert != null &&
             (serials == null || contentAccessCert.getSerial() == null ||
                 serials.contains(contentAccessCert.getSerial().getId()))) {
-            File contentAccessCertDir = new File(baseDir.getCanonicalPath(), "content_access_certificates");
-            contentAccessCertDir.mkdir();
 
             log.debug("Exporting content access certificate: {}", contentAccessCert.getSerial());
-            File file = new File(contentAccessCertDir.getCanonicalPath(),
-                contentAccessCert.getSerial().getId() + ".pem");
+            String path = "content_access_certificates/" + contentAccessCert.getSerial().getId() + ".pem";
 
-            new CertificateExporter().exportCertificate(contentAccessCert, file);
+            this.addEntry(archive, path,
+                writer -> new CertificateExporter().exportCertificate(contentAccessCert, writer));
         }
     }
 
-    private void exportIdentityCertificate(File baseDir, Consumer consumer)
+    private void exportIdentityCertificate(ZipOutputStream archive, Consumer consumer)
         throws IOException {
 
-        File idcertdir = new File(baseDir.getCanonicalPath(), "upstream_consumer");
-        idcertdir.mkdir();
-
         IdentityCertificate cert = consumer.getIdCert();
         if (cert == null) {
             throw new RuntimeException("The consumer for export does not have a valid identity certificate");
         }
 
         // paradigm dictates this should go in an exporter.export method
-        File file = new File(idcertdir.getCanonicalPath(), cert.getSerial().getId() + ".json");
-        try (FileWriter writer = new FileWriter(file)) {
-            mapper.writeValue(writer, this.translator.translate(cert, CertificateDTO.class));
-        }
+        String path = "upstream_consumer/" + cert.getSerial().getId() + ".json";
+        this.addEntry(archive, path,
+            writer -> mapper.writeValue(writer, this.translator.translate(cert, CertificateDTO.class)));
     }
 
-    private void exportEntitlements(File baseDir, Consumer consumer)
+    private void exportEntitlements(ZipOutputStream archive, Consumer consumer)
         throws IOException, ExportCreationException {
-        File entCertDir = new File(baseDir.getCanonicalPath(), "entitlements");
-        entCertDir.mkdir();
 
         for (Entitlement ent : entitlementCurator.listByConsumer(consumer)) {
             if (ent.isDirty()) {
@@ -474,17 +448,12 @@ public class Exporter {
 
             log.debug("Exporting entitlement for product {}", ent.getPool().getProductId());
 
-            File file = new File(entCertDir.getCanonicalPath(), ent.getId() + ".json");
-            try (FileWriter writer = new FileWriter(file)) {
-                entExporter.export(mapper, writer, ent);
-            }
+            this.addEntry(archive, "entitlements/" + ent.getId() + ".json",
+                writer -> entExporter.export(mapper, writer, ent));
         }
     }
 
-    private void exportProducts(File baseDir, Consumer consumer) throws IOException {
-        File productDir = new File(baseDir.getCanonicalPath(), "products");
-        productDir.mkdir();
-
+    private void exportProducts(ZipOutputStream archive, Consumer consumer) throws IOException {
         // TODO: This could be bulked into a single query rather than iterating and likely hitting
         // a bunch of lazy lookups.
         Map<String, Product> productMap = new HashMap<>();
@@ -495,13 +464,8 @@ public class Exporter {
         }
 
         for (Product product : productMap.values()) {
-            String path = productDir.getCanonicalPath();
-            String productId = product.getId();
-
-            File file = new File(path, productId + ".json");
-            try (FileWriter writer = new FileWriter(file)) {
-                productExporter.export(mapper, writer, product);
-            }
+            this.addEntry(archive, "products/" + product.getId() + ".json",
+                writer -> productExporter.export(mapper, writer, product));
         }
     }
 
@@ -535,98 +499,71 @@ public class Exporter {
         this.collectProducts(product.getDerivedProduct(), productMap);
     }
 
-    private void exportConsumerTypes(File baseDir) throws IOException {
-        File typeDir = new File(baseDir.getCanonicalPath(), "consumer_types");
-        typeDir.mkdir();
-
+    private void exportConsumerTypes(ZipOutputStream archive) throws IOException {
         for (ConsumerType type : consumerTypeCurator.listAll()) {
-            File file = new File(typeDir.getCanonicalPath(), type.getLabel() + ".json");
-            FileWriter writer = null;
-            try {
-                writer = new FileWriter(file);
-                consumerType.export(mapper, writer, type);
-            }
-            finally {
-                if (writer != null) {
-                    writer.close();
-                }
-            }
+            this.addEntry(archive, "consumer_types/" + type.getLabel() + ".json",
+                writer -> consumerType.export(mapper, writer, type));
         }
     }
 
-    private void exportRules(File baseDir) throws IOException {
+    private void exportRules(ZipOutputStream archive) throws IOException {
         // Because old candlepin servers assume to import a file in rules dir, we had to
         // move to a new directory for versioned rules file:
-        File newRulesDir = new File(baseDir.getCanonicalPath(), "rules2");
-        newRulesDir.mkdir();
-        File newRulesFile = new File(newRulesDir.getCanonicalPath(), "rules.js");
-        FileWriter writer = null;
-        try {
-            writer = new FileWriter(newRulesFile);
-            rules.export(writer);
-        }
-        finally {
-            if (writer != null) {
-                writer.close();
-            }
-        }
+        this.addEntry(archive, "rules2/rules.js", writer -> rules.export(writer));
     }
 
-    private void exportDistributorVersions(File baseDir) throws IOException {
+    private void exportDistributorVersions(ZipOutputStream archive) throws IOException {
         List<DistributorVersion> versions = distVerCurator.findAll();
         if (versions == null || versions.isEmpty()) {
             return;
         }
 
-        File distVerDir = new File(baseDir.getCanonicalPath(), "distributor_version");
-        distVerDir.mkdir();
-
-        FileWriter writer = null;
         for (DistributorVersion dv : versions) {
-            if (log.isDebugEnabled()) {
-                log.debug("Exporting Distributor Version" + dv.getName());
-            }
-            try {
-                File file = new File(distVerDir.getCanonicalPath(), dv.getName() + ".json");
-                writer = new FileWriter(file);
-                distVerExporter.export(mapper, writer, dv);
-            }
-            finally {
-                if (writer != null) {
-                    writer.close();
-                }
-            }
+            log.debug("Exporting Distributor Version {}", dv.getName());
+
+            this.addEntry(archive, "distributor_version/" + dv.getName() + ".json",
+                writer -> distVerExporter.export(mapper, writer, dv));
         }
     }
 
-    private void exportContentDeliveryNetworks(File baseDir) throws IOException {
+    private void exportContentDeliveryNetworks(ZipOutputStream archive) throws IOException {
         ResultIterator<Cdn> iterator = this.cdnCurator.listAll().iterate();
 
         try {
-            if (iterator.hasNext()) {
-                File cdnDir = new File(baseDir.getCanonicalPath(), "content_delivery_network");
-                cdnDir.mkdir();
-
-                while (iterator.hasNext()) {
-                    Cdn cdn = iterator.next();
-                    log.debug("Exporting CDN: {}", cdn.getName());
-
-                    FileWriter writer = null;
-                    try {
-                        File file = new File(cdnDir.getCanonicalPath(), cdn.getLabel() + ".json");
-                        writer = new FileWriter(file);
-                        cdnExporter.export(mapper, writer, cdn);
-                    }
-                    finally {
-                        if (writer != null) {
-                            writer.close();
-                        }
-                    }
-                }
+            while (iterator.hasNext()) {
+                Cdn cdn = iterator.next();
+                log.debug("Exporting CDN: {}", cdn.getName());
+
+                this.addEntry(archive, "content_delivery_network/" + cdn.getLabel() + ".json",
+                    writer -> cdnExporter.export(mapper, writer, cdn));
             }
         }
         finally {
             iterator.close();
         }
     }
+
+    /**
+     * Writes the contents of an export archive.
+     */
+    @FunctionalInterface
+    private interface ArchiveContent {
+        void write(ZipOutputStream archive) throws IOException, ExportCreationException;
+    }
+
+    /**
+     * Writes a complete export archive to an output stream.
+     */
+    @FunctionalInterface
+    private interface ArchiveWriter {
+        void write(OutputStream output) throws IOException, ExportCreationException;
+    }
+
+    /**
+     * Writes the contents of a single archive entry.
+     */
+    @FunctionalInterface
+    private interface EntryWriter {
+        void write(Writer writer) throws IOException;
+    }
 }
@@ -40,6 +40,7 @@ import org.candlepin.model.Owner;
 import org.candlepin.model.OwnerCurator;
 import org.candlepin.model.UpstreamConsumer;
 import org.candlepin.pki.PKIUtility;
+import org.candlepin.pki.SignatureVerifier;
 import org.candlepin.service.ProductServiceAdapter;
 import org.candlepin.service.SubscriptionServiceAdapter;
 import org.candlepin.service.impl.ImportProductServiceAdapter;
@@ -58,15 +59,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xnap.commons.i18n.I18n;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
-import java.security.cert.CertificateException;
+import java.security.SignatureException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -77,6 +79,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
 import java.util.zip.ZipInputStream;
 
 import javax.inject.Inject;
@@ -88,6 +91,9 @@ import javax.persistence.PersistenceException;
 public class Importer {
     private static final Logger log = LoggerFactory.getLogger(Importer.class);
 
+    private static final String CONSUMER_EXPORT_FILE = "consumer_export.zip";
+    private static final String SIGNATURE_FILE = "signature";
+
     /**
      * files we use to perform import
      */
@@ -170,14 +176,21 @@ public class Importer {
 
     public ImportRecord loadExport(Owner owner, File archive, ConflictOverrides overrides,
         String uploadedFileName) throws ImporterException {
-        try {
-            return doExport(owner, unpackExportFile(archive.getName(), new FileInputStream(archive)),
-                overrides, uploadedFileName);
+
+        SpooledExport export;
+        try (InputStream input = new FileInputStream(archive)) {
+            export = this.spoolExportFile(archive.getName(), input);
         }
         catch (FileNotFoundException e) {
             log.error(String.format("Could not find import archive: %s", archive.getAbsolutePath()));
             throw new ImporterException(i18n.tr("Uploaded manifest file does not exist."), e);
         }
+        catch (IOException e) {
+            log.error("Unable to read import archive", e);
+            throw new ImportExtractionException(i18n.tr("Unable to extract export archive"), e);
+        }
+
+        return doExport(owner, export, overrides, uploadedFileName);
     }
 
     /**
@@ -193,7 +206,7 @@ public class Importer {
     public ImportRecord loadStoredExport(ManifestFile export, Owner owner, ConflictOverrides overrides,
         String uploadedFileName) throws ImporterException {
         try {
-            return doExport(owner, extractFromService(export), overrides, uploadedFileName);
+            return doExport(owner, spoolFromService(export), overrides, uploadedFileName);
         }
         catch (ManifestFileServiceException e) {
             throw new ImporterException("Could not load stored manifest file for async import", e);
@@ -281,33 +294,31 @@ public class Importer {
     //       Because of this, we make this method transactional.
 
     /**
-     * Pulls the manifest from the {@link ManifestFileService} and unpacks it. The manifest file
-     * is deleted as soon as it is extracted.
+     * Pulls the manifest from the {@link ManifestFileService} and spools its consumer export
+     * archive to a work directory, verifying its signature on the way.
      *
      * @param export the manifest's file.
-     * @return a {@link File} pointing to the unpacked manifest directory.
+     * @return the spooled consumer export archive and the details of its signature.
      * @throws ManifestFileServiceException
      * @throws ImporterException
      */
     @Transactional
-    protected File extractFromService(ManifestFile export)
+    protected SpooledExport spoolFromService(ManifestFile export)
         throws ManifestFileServiceException, ImporterException {
-        return unpackExportFile(export.getId(), export.getInputStream());
+        return spoolExportFile(export.getId(), export.getInputStream());
     }
 
     /**
      * Check to make sure the meta data is newer than the imported data.
      * @param type ExporterMetadata.TYPE_PER_USER or TYPE_SYSTEM
      * @param owner Owner in the case of PER_USER
-     * @param meta meta.json file
+     * @param m the manifest's metadata
      * @param forcedConflicts Conflicts we will override if encountered
-     * @throws IOException thrown if there's a problem reading the file
      * @throws ImporterException thrown if the metadata is invalid.
      */
-    protected ExporterMetadata validateMetadata(String type, Owner owner, File meta,
-        ConflictOverrides forcedConflicts) throws IOException, ImporterException {
+    protected ExporterMetadata validateMetadata(String type, Owner owner, Meta m,
+        ConflictOverrides forcedConflicts) throws ImporterException {
 
-        Meta m = mapper.readValue(meta, Meta.class);
         if (type == null) {
             throw new ImporterException(i18n.tr("Wrong metadata type"));
         }
@@ -365,21 +376,23 @@ public class Importer {
         return lastrun;
     }
 
-    private ImportRecord doExport(Owner owner, File exportDir, ConflictOverrides overrides,
+    private ImportRecord doExport(Owner owner, SpooledExport export, ConflictOverrides overrides,
         String uploadedFileName) throws ImporterException {
 
         Map<String, Object> result = new HashMap<>();
         try {
-            File signature = new File(exportDir, "signature");
-            if (signature.length() == 0) {
+            if (export.signature() == null || export.signature().length == 0) {
                 throw new ImportExtractionException(
                     i18n.tr("The archive does not contain the required signature file"));
             }
 
-            boolean verifiedSignature = pki.verifySHA256WithRSAHashAgainstCACerts(
-                new File(exportDir, "consumer_export.zip"), loadSignature(new File(exportDir, "signature")));
+            if (export.consumerExport() == null) {
+                log.error("Archive file does not contain {}", CONSUMER_EXPORT_FILE);
+                throw new ImportExtractionException(i18n.tr("The archive does not contain " +
+                    "the required consumer_export.zip file"));
+            }
 
-            if (!verifiedSignature) {
+            if (!export.verified()) {
                 log.warn("Archive signature check failed.");
 
                 if (!overrides.isForced(Conflict.SIGNATURE_CONFLICT)) {
@@ -398,38 +411,22 @@ public class Importer {
                 }
             }
 
-            File consumerExport = new File(exportDir, "consumer_export.zip");
-            File consumerExportDir = extractArchive(exportDir, consumerExport.getName(),
-                new FileInputStream(consumerExport));
-
-            Map<String, File> importFiles = new HashMap<>();
-            File[] listFiles = consumerExportDir.listFiles();
-            if (listFiles == null || listFiles.length == 0) {
-                throw new ImportExtractionException(
-                    i18n.tr("The provided manifest has no content in the exported consumer archive"));
-            }
-            for (File file : listFiles) {
-                importFiles.put(file.getName(), file);
-            }
-
-            // Need the rules file as well which is in a nested dir:
-            File rulesFile = new File(consumerExportDir, ImportFile.RULES_FILE.fileName());
-            importFiles.put(ImportFile.RULES_FILE.fileName(), rulesFile);
+            try (ZipManifestContent content = this.openConsumerExport(export.consumerExport())) {
+                if (content.isEmpty()) {
+                    throw new ImportExtractionException(
+                        i18n.tr("The provided manifest has no content in the exported consumer archive"));
+                }
 
-            List<SubscriptionDTO> importSubs = importObjects(owner, importFiles, overrides);
-            Meta m = mapper.readValue(importFiles.get(ImportFile.META.fileName()), Meta.class);
+                List<SubscriptionDTO> importSubs = importObjects(owner, content, overrides);
+                Meta m = this.readMeta(content);
 
-            result.put("subscriptions", importSubs);
-            result.put("meta", m);
+                result.put("subscriptions", importSubs);
+                result.put("meta", m);
+            }
 
             sink.emitImportCreated(owner);
             return recordImportSuccess(owner, result, overrides, uploadedFileName);
         }
-        catch (FileNotFoundException fnfe) {
-            log.error("Archive file does not contain consumer_export.zip", fnfe);
-            throw new ImportExtractionException(i18n.tr("The archive does not contain " +
-                "the required consumer_export.zip file"));
-        }
         catch (ConstraintViolationException cve) {
             log.error("Failed to import archive", cve);
             throw new ImporterException(i18n.tr("Failed to import archive"), cve, result);
@@ -442,20 +439,8 @@ public class Importer {
             log.error("Exception caught importing archive", e);
             throw new ImportExtractionException(i18n.tr("Unable to extract export archive"), e, result);
         }
-        catch (CertificateException e) {
-            log.error("Certificate exception checking archive signature", e);
-            throw new ImportExtractionException(
-                i18n.tr("Certificate exception checking archive signature"), e, result);
-        }
         finally {
-            if (exportDir != null) {
-                try {
-                    FileUtils.deleteDirectory(exportDir);
-                }
-                catch (IOException e) {
-                    log.error("Failed to delete extracted export", e);
-                }
-            }
+            this.deleteWorkDir(export.workDir());
         }
     }
 
@@ -463,30 +448,25 @@ public class Importer {
     @Transactional(rollbackOn = { IOException.class, ImporterException.class,
         RuntimeException.class, ImportConflictException.class })
     // WARNING: Keep this method public, otherwise @Transactional is ignored:
-    public List<SubscriptionDTO> importObjects(Owner owner, Map<String, File> importFiles,
+    public List<SubscriptionDTO> importObjects(Owner owner, ManifestContent content,
         ConflictOverrides overrides) throws IOException, ImporterException {
 
         ownerCurator.lock(owner);
-
         log.debug("Importing objects for owner: {}", owner);
 
-        File metadata = importFiles.get(ImportFile.META.fileName());
-        if (metadata == null) {
+        if (!content.exists(ImportFile.META.fileName())) {
             throw new ImporterException(i18n.tr("The archive does not contain the required meta.json file"));
         }
-        File consumerTypes = importFiles.get(ImportFile.CONSUMER_TYPE.fileName());
-        if (consumerTypes == null) {
+        if (!content.exists(ImportFile.CONSUMER_TYPE.fileName())) {
             throw new ImporterException(
                 i18n.tr("The archive does not contain the required consumer_types directory"));
         }
-        File consumerFile = importFiles.get(ImportFile.CONSUMER.fileName());
-        if (consumerFile == null) {
+        if (!content.exists(ImportFile.CONSUMER.fileName())) {
             throw new ImporterException(
                 i18n.tr("The archive does not contain the required consumer.json file"));
         }
-        File products = importFiles.get(ImportFile.PRODUCTS.fileName());
-        File entitlements = importFiles.get(ImportFile.ENTITLEMENTS.fileName());
-        if (products != null && entitlements == null) {
+        boolean hasProducts = content.exists(ImportFile.PRODUCTS.fileName());
+        if (hasProducts && !content.exists(ImportFile.ENTITLEMENTS.fileName())) {
             throw new ImporterException(
                 i18n.tr("The archive does not contain the required entitlements directory"));
         }
@@ -500,32 +480,30 @@ public class Importer {
          * one org imports a manifest slightly older than another org who has already
          * imported. Disabled for now. See bz #769644.
          */
-        // exporterMetadata.add(this.validateMetadata(ExporterMetadata.TYPE_SYSTEM, null, metadata, force));
+        // exporterMetadata.add(this.validateMetadata(ExporterMetadata.TYPE_SYSTEM, null, meta, force));
 
         // If any calls find conflicts we'll assemble them into one exception detailing all
         // the conflicts which occurred, so the caller can override them all at once
         // if desired:
         List<ImportConflictException> conflictExceptions = new LinkedList<>();
 
-        File rules = importFiles.get(ImportFile.RULES_FILE.fileName());
-        importRules(rules, metadata);
-
-        importConsumerTypes(consumerTypes.listFiles());
+        importRules(content);
+        importConsumerTypes(content);
 
-        File distributorVersions = importFiles.get(ImportFile.DISTRIBUTOR_VERSIONS.fileName());
-        if (distributorVersions != null) {
-            importDistributorVersions(distributorVersions.listFiles());
+        if (content.exists(ImportFile.DISTRIBUTOR_VERSIONS.fileName())) {
+            importDistributorVersions(content);
         }
 
-        File cdns = importFiles.get(ImportFile.CONTENT_DELIVERY_NETWORKS.fileName());
-        if (cdns != null) {
-            importContentDeliveryNetworks(cdns.listFiles());
+        if (content.exists(ImportFile.CONTENT_DELIVERY_NETWORKS.fileName())) {
+            importContentDeliveryNetworks(content);
         }
 
+        Meta meta = this.readMeta(content);
+
         // per user elements
         try {
             exporterMetadata.add(
-                this.validateMetadata(ExporterMetadata.TYPE_PER_USER, owner, metadata, overrides));
+                this.validateMetadata(ExporterMetadata.TYPE_PER_USER, owner, meta, overrides));
         }
         catch (ImportConflictException e) {
             conflictExceptions.add(e);
@@ -533,15 +511,7 @@ public class Importer {
 
         ConsumerDTO consumer = null;
         try {
-            Meta m = mapper.readValue(metadata, Meta.class);
-            File upstreamFile = importFiles.get(ImportFile.UPSTREAM_CONSUMER.fileName());
-            File[] dafiles = new File[0];
-
-            if (upstreamFile != null) {
-                dafiles = upstreamFile.listFiles();
-            }
-
-            consumer = importConsumer(owner, consumerFile, dafiles, overrides, m);
+            consumer = importConsumer(owner, content, overrides, meta);
         }
         catch (ImportConflictException e) {
             conflictExceptions.add(e);
@@ -567,18 +537,16 @@ public class Importer {
 
         // If the consumer has no entitlements, this products directory will end up empty.
         // This also implies there will be no entitlements to import.
-        Meta meta = mapper.readValue(metadata, Meta.class);
         Map<String, ProductDTO> importedProductsMap;
         List<SubscriptionDTO> importedSubs;
 
         // TODO: If EntitlementImporter is ever updated to be more on-demand like the ProductImporter
         // refactor, update this block/class to not be doing half of the entitlement importing bits.
-        File productsDir = importFiles.get(ImportFile.PRODUCTS.fileName());
-        if (productsDir != null) {
-            ProductImporter productImporter = new ProductImporter(productsDir, this.mapper, this.i18n);
+        if (hasProducts) {
+            ProductImporter productImporter = new ProductImporter(content, this.mapper, this.i18n);
 
             importedProductsMap = productImporter.importProductMap();
-            importedSubs = this.importEntitlements(owner, importedProductsMap, entitlements.listFiles(),
+            importedSubs = this.importEntitlements(owner, importedProductsMap, content,
                 consumer.getUuid(), meta);
         }
         else {
@@ -602,8 +570,14 @@ public class Importer {
         return importedSubs;
     }
 
-    protected void importRules(File rulesFile, File metadata) throws IOException {
-        try (Reader reader = new FileReader(rulesFile)) {
+    private Meta readMeta(ManifestContent content) throws IOException {
+        try (Reader reader = content.openReader(ImportFile.META.fileName())) {
+            return mapper.readValue(reader, Meta.class);
+        }
+    }
+
+    protected void importRules(ManifestContent content) throws IOException {
+        try (Reader reader = content.openReader(ImportFile.RULES_FILE.fileName())) {
             rulesImporter.importObject(reader);
         }
         catch (FileNotFoundException e) {
@@ -612,12 +586,13 @@ public class Importer {
         }
     }
 
-    protected void importConsumerTypes(File[] consumerTypes) throws IOException {
+    protected void importConsumerTypes(ManifestContent content) throws IOException {
         ConsumerTypeImporter importer = new ConsumerTypeImporter(consumerTypeCurator);
         Set<ConsumerType> consumerTypeObjs = new HashSet<>();
 
-        for (File consumerType : consumerTypes) {
-            try (Reader reader = new FileReader(consumerType)) {
+        String directory = ImportFile.CONSUMER_TYPE.fileName();
+        for (String consumerType : content.list(directory)) {
+            try (Reader reader = content.openReader(directory + "/" + consumerType)) {
                 consumerTypeObjs.add(importer.createObject(mapper, reader));
             }
         }
@@ -625,15 +600,16 @@ public class Importer {
         importer.store(consumerTypeObjs);
     }
 
-    protected ConsumerDTO importConsumer(Owner owner, File consumerFile, File[] upstreamConsumer,
+    protected ConsumerDTO importConsumer(Owner owner, ManifestContent content,
         ConflictOverrides forcedConflicts, Meta meta) throws IOException, SyncDataFormatException {
 
         IdentityCertificate idcert = null;
-        for (File uc : upstreamConsumer) {
-            if (uc.getName().endsWith(".json")) {
-                log.debug("Import upstream consumeridentity certificate: {}", uc.getName());
+        String upstreamDir = ImportFile.UPSTREAM_CONSUMER.fileName();
+        for (String uc : content.list(upstreamDir)) {
+            if (uc.endsWith(".json")) {
+                log.debug("Import upstream consumeridentity certificate: {}", uc);
 
-                try (Reader reader = new FileReader(uc)) {
+                try (Reader reader = content.openReader(upstreamDir + "/" + uc)) {
                     CertificateDTO dtoCert = mapper.readValue(reader, CertificateDTO.class);
                     idcert = new IdentityCertificate();
                     ImporterUtils.populateEntity(idcert, dtoCert);
@@ -641,14 +617,14 @@ public class Importer {
                 }
             }
             else {
-                log.warn("Extra file found in upstream_consumer directory: {}", uc.getName());
+                log.warn("Extra file found in upstream_consumer directory: {}", uc);
             }
         }
 
         ConsumerImporter importer = new ConsumerImporter(ownerCurator, idCertCurator, i18n, csCurator);
         ConsumerDTO consumer = null;
 
-        try (Reader reader = new FileReader(consumerFile)) {
+        try (Reader reader = content.openReader(ImportFile.CONSUMER.fileName())) {
             consumer = importer.createObject(mapper, reader);
             // we can not rely on the actual ConsumerType in the ConsumerDto
             // because it could have an id not in our database. We need to
@@ -671,20 +647,21 @@ public class Importer {
     }
 
     protected List<SubscriptionDTO> importEntitlements(Owner owner,
-        Map<String, ProductDTO> importedProductsMap, File[] entitlementFiles, String consumerUuid, Meta meta)
+        Map<String, ProductDTO> importedProductsMap, ManifestContent content, String consumerUuid, Meta meta)
         throws IOException, SyncDataFormatException {
 
         log.debug("Importing entitlements for owner: {}", owner);
 
         List<SubscriptionDTO> subscriptionsToImport = new ArrayList<>();
 
-        if (importedProductsMap != null && entitlementFiles != null) {
+        if (importedProductsMap != null && content != null) {
             EntitlementImporter importer = new EntitlementImporter(cdnCurator, i18n, translator,
                 importedProductsMap);
 
-            for (File entitlement : entitlementFiles) {
-                try (Reader reader = new FileReader(entitlement)) {
-                    log.debug("Importing entitlement from file: {}", entitlement.getName());
+            String directory = ImportFile.ENTITLEMENTS.fileName();
+            for (String entitlement : content.list(directory)) {
+                try (Reader reader = content.openReader(directory + "/" + entitlement)) {
+                    log.debug("Importing entitlement from file: {}", entitlement);
                     subscriptionsToImport.add(
                         importer.importObject(mapper, reader, owner, consumerUuid, meta));
                 }
@@ -698,92 +675,136 @@ public class Importer {
     }
 
     /**
-     * Create a tar.gz archive of the exported directory.
+     * Reads a signed manifest archive, spooling the nested consumer export archive to a new work
+     * directory. The consumer export archive is fed to the signature verifier as it is spooled, so
+     * it is only read once and is never extracted; its files are read straight from the spooled
+     * archive during import.
      *
-     * @param tempDir Directory where Candlepin data was exported.
-     * @return File reference to the new archive tar.gz.
+     * @param fileName the name of the manifest archive, for error reporting.
+     * @param exportFileStream the stream providing the manifest archive.
+     * @return the spooled consumer export archive and the details of its signature.
+     * @throws ImporterException if the archive could not be read.
      */
-    private File extractArchive(File tempDir, String exportFileName, InputStream exportFileStream)
-        throws IOException, ImportExtractionException {
-
-        log.debug("Extracting archive to: {}", tempDir.getAbsolutePath());
+    private SpooledExport spoolExportFile(String fileName, InputStream exportFileStream)
+        throws ImporterException {
 
-        byte[] buf = new byte[1024];
-
-        try (ZipInputStream zipinputstream = new ZipInputStream(exportFileStream)) {
-            ZipEntry zipentry = zipinputstream.getNextEntry();
-
-            if (zipentry == null) {
-                throw new ImportExtractionException(i18n.tr(
-                    "The archive {0} is not a properly compressed file or is empty", exportFileName));
-            }
+        File workDir = null;
+        try {
+            workDir = syncUtils.makeTempDir("import");
+            log.debug("Spooling archive to: {}", workDir.getAbsolutePath());
 
-            while (zipentry != null) {
-                //for each entry to be extracted
-                String entryName = zipentry.getName();
-                log.debug("entryname {}", entryName);
+            File consumerExport = null;
+            byte[] signature = null;
+            SignatureVerifier verifier = pki.getSHA256WithRSAVerifier();
 
-                File newFile = new File(tempDir, entryName).getCanonicalFile();
+            try (ZipInputStream zipinputstream = new ZipInputStream(exportFileStream)) {
+                ZipEntry zipentry = zipinputstream.getNextEntry();
 
-                // Check if the file is outside of the target directory
-                if (!newFile.getPath().startsWith(tempDir.getCanonicalPath())) {
+                if (zipentry == null) {
                     throw new ImportExtractionException(i18n.tr(
-                        "Entry is outside of the target directory: {0}", entryName));
+                        "The archive {0} is not a properly compressed file or is empty", fileName));
                 }
 
-                String directory = newFile.getParent();
-                if (directory != null) {
-                    new File(directory).mkdirs();
-                }
+                while (zipentry != null) {
+                    String entryName = zipentry.getName();
+                    log.debug("entryname {}", entryName);
 
-                try (FileOutputStream fileoutputstream = new FileOutputStream(newFile)) {
-                    int n;
-                    while ((n = zipinputstream.read(buf, 0, 1024)) > -1) {
-                        fileoutputstream.write(buf, 0, n);
+                    if (CONSUMER_EXPORT_FILE.equals(entryName)) {
+                        consumerExport = new File(workDir, CONSUMER_EXPORT_FILE);
+                        this.spoolEntry(zipinputstream, consumerExport, verifier);
+                    }
+                    else if (SIGNATURE_FILE.equals(entryName)) {
+                        signature = zipinputstream.readAllBytes();
+                    }
+                    else {
+                        log.debug("Skipping unexpected archive entry: {}", entryName);
                     }
-                }
 
-                zipinputstream.closeEntry();
-                zipentry = zipinputstream.getNextEntry();
+                    zipinputstream.closeEntry();
+                    zipentry = zipinputstream.getNextEntry();
+                }
             }
+
+            boolean verified = consumerExport != null && signature != null && verifier.verify(signature);
+            return new SpooledExport(workDir, consumerExport, signature, verified);
         }
+        catch (IOException | SignatureException e) {
+            this.deleteWorkDir(workDir);
 
-        return new File(tempDir.getAbsolutePath(), "export");
+            log.error("Unable to extract export archive", e);
+            throw new ImportExtractionException(i18n.tr("Unable to extract export archive"), e);
+        }
+        catch (ImporterException | RuntimeException e) {
+            this.deleteWorkDir(workDir);
+            throw e;
+        }
     }
 
-    private byte[] loadSignature(File signatureFile) throws IOException {
-        // signature is never going to be a huge file, therefore cast is a-okay
-        byte[] signatureBytes = new byte[(int) signatureFile.length()];
-        try (FileInputStream signature = new FileInputStream(signatureFile)) {
-            int offset = 0;
-            int numRead = 0;
-            while (offset < signatureBytes.length && numRead >= 0) {
-                numRead = signature.read(signatureBytes, offset, signatureBytes.length - offset);
-                offset += numRead;
+    private void spoolEntry(InputStream input, File target, SignatureVerifier verifier)
+        throws IOException, SignatureException {
+
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(target))) {
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = input.read(buf)) > -1) {
+                verifier.update(buf, 0, n);
+                output.write(buf, 0, n);
             }
+        }
+    }
+
+    private ZipManifestContent openConsumerExport(File consumerExport) throws IOException,
+        ImportExtractionException {
+
+        ZipManifestContent content;
+        try {
+            content = new ZipManifestContent(consumerExport);
+        }
+        catch (ZipException e) {
+            throw new ImportExtractionException(i18n.tr(
+                "The archive {0} is not a properly compressed file or is empty", CONSUMER_EXPORT_FILE), e);
+        }
 
-            return signatureBytes;
+        if (content.size() == 0) {
+            content.close();
+            throw new ImportExtractionException(i18n.tr(
+                "The archive {0} is not a properly compressed file or is empty", CONSUMER_EXPORT_FILE));
         }
+
+        return content;
     }
 
-    protected void importDistributorVersions(File[] versionFiles) throws IOException {
+    private void deleteWorkDir(File workDir) {
+        if (workDir != null) {
+            try {
+                FileUtils.deleteDirectory(workDir);
+            }
+            catch (IOException e) {
+                log.error("Failed to delete extracted export", e);
+            }
+        }
+    }
+
+    protected void importDistributorVersions(ManifestContent content) throws IOException {
         DistributorVersionImporter importer = new DistributorVersionImporter(distVerCurator);
         Set<DistributorVersionDTO> distVers = new HashSet<>();
 
-        for (File verFile : versionFiles) {
-            try (Reader reader = new FileReader(verFile)) {
+        String directory = ImportFile.DISTRIBUTOR_VERSIONS.fileName();
+        for (String verFile : content.list(directory)) {
+            try (Reader reader = content.openReader(directory + "/" + verFile)) {
                 distVers.add(importer.createObject(mapper, reader));
             }
         }
         importer.store(distVers);
     }
 
-    protected void importContentDeliveryNetworks(File[] cdnFiles) throws IOException {
+    protected void importContentDeliveryNetworks(ManifestContent content) throws IOException {
         CdnImporter importer = new CdnImporter(cdnCurator);
         Set<CdnDTO> cdns = new HashSet<>();
 
-        for (File cdnFile : cdnFiles) {
-            try (Reader reader = new FileReader(cdnFile)) {
+        String directory = ImportFile.CONTENT_DELIVERY_NETWORKS.fileName();
+        for (String cdnFile : content.list(directory)) {
+            try (Reader reader = content.openReader(directory + "/" + cdnFile)) {
                 cdns.add(importer.createObject(mapper, reader));
             }
         }
@@ -806,17 +827,10 @@ public class Importer {
         return iup;
     }
 
-    private File unpackExportFile(String fileName, InputStream exportInputStream)
-        throws ImportExtractionException {
-        try {
-            File tmpDir = syncUtils.makeTempDir("import");
-            extractArchive(tmpDir, fileName, exportInputStream);
-            return tmpDir;
-        }
-        catch (IOException e) {
-            log.error("Unable to extract export archive", e);
-            throw new ImportExtractionException(i18n.tr("Unable to extract export archive"), e);
-        }
+    /**
+     * A consumer export archive spooled out of a manifest, along with the result of its signature
+     * check.
+     */
+    protected record SpooledExport(File workDir, File consumerExport, byte[] signature, boolean verified) {
     }
-
 }
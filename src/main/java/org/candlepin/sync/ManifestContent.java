@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.sync;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+
+
+/**
+ * Provides read access to the files of an exported consumer, addressed by their paths relative to
+ * the export directory (for instance "meta.json" or "products/1234.json"). Implementations are free
+ * to serve files directly from an archive, rather than requiring it to be extracted first.
+ */
+public interface ManifestContent {
+
+    /**
+     * Checks whether the given file or directory is present in the manifest.
+     *
+     * @param path
+     *  the path of the file or directory to check
+     *
+     * @return
+     *  true if the manifest contains the given file or directory; false otherwise
+     */
+    boolean exists(String path);
+
+    /**
+     * Lists the names of the files directly within the given directory. If the directory does not
+     * exist or does not contain any files, this method returns an empty list.
+     *
+     * @param directory
+     *  the path of the directory to list
+     *
+     * @return
+     *  a sorted list of the names of the files within the given directory
+     */
+    List<String> list(String directory);
+
+    /**
+     * Opens the given file for reading. The caller is responsible for closing the returned stream.
+     *
+     * @param path
+     *  the path of the file to open
+     *
+     * @throws java.io.FileNotFoundException
+     *  if the file does not exist in the manifest
+     *
+     * @throws IOException
+     *  if the file could not be opened
+     *
+     * @return
+     *  an input stream providing the contents of the file
+     */
+    InputStream open(String path) throws IOException;
+
+    /**
+     * Opens the given file for reading as UTF-8 encoded text. The caller is responsible for closing
+     * the returned reader.
+     *
+     * @param path
+     *  the path of the file to open
+     *
+     * @throws java.io.FileNotFoundException
+     *  if the file does not exist in the manifest
+     *
+     * @throws IOException
+     *  if the file could not be opened
+     *
+     * @return
+     *  a reader providing the contents of the file
+     */
+    default Reader openReader(String path) throws IOException {
+        return new InputStreamReader(this.open(path), StandardCharsets.UTF_8);
+    }
+}
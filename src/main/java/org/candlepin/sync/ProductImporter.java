@@ -24,8 +24,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xnap.commons.i18n.I18n;
 
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
@@ -44,19 +42,18 @@ import java.util.regex.Pattern;
 public class ProductImporter {
     private static Logger log = LoggerFactory.getLogger(ProductImporter.class);
 
+    public static final String PRODUCT_DIR = Importer.ImportFile.PRODUCTS.fileName();
     public static final String PRODUCT_FILE_SUFFIX = ".json";
 
     private Map<String, ProductDTO> cache;
 
-    private File productDir;
+    private ManifestContent content;
     private ObjectMapper mapper;
     private I18n i18n;
 
-    // TODO: We really should be providing something more generic like a DataSource or some such,
-    // but this will work for a quick retrofit.
-    public ProductImporter(File productDir, ObjectMapper mapper, I18n i18n) {
-        if (productDir == null) {
-            throw new IllegalArgumentException("productDir is null");
+    public ProductImporter(ManifestContent content, ObjectMapper mapper, I18n i18n) {
+        if (content == null) {
+            throw new IllegalArgumentException("content is null");
         }
 
         if (mapper == null) {
@@ -69,7 +66,7 @@ public class ProductImporter {
 
         this.cache = new HashMap<>();
 
-        this.productDir = productDir;
+        this.content = content;
         this.mapper = mapper;
         this.i18n = i18n;
     }
@@ -148,12 +145,12 @@ public class ProductImporter {
     private ProductDTO readFromManifest(String productId) throws IOException {
         log.debug("loading product from manifest: {}", productId);
 
-        File pfile = new File(this.productDir, productId + PRODUCT_FILE_SUFFIX);
-        if (!pfile.exists()) {
+        String path = PRODUCT_DIR + "/" + productId + PRODUCT_FILE_SUFFIX;
+        if (!this.content.exists(path)) {
             return null;
         }
 
-        try (Reader reader = new FileReader(pfile)) {
+        try (Reader reader = this.content.openReader(path)) {
             ProductDTO product = this.mapper.readValue(reader, ProductDTO.class);
             this.normalizeProduct(product);
             this.resolveChildren(product);
@@ -322,14 +319,12 @@ public class ProductImporter {
      *  a mapping of products defined in the manifest
      */
     public Map<String, ProductDTO> importProductMap() throws IOException {
-        File[] files = this.productDir.listFiles();
-
         Map<String, ProductDTO> output = new HashMap<>();
         Pattern fnPattern = Pattern.compile("^(.*)" + Pattern.quote(PRODUCT_FILE_SUFFIX));
 
         try {
-            for (File candidate : files) {
-                Matcher matcher = fnPattern.matcher(candidate.getName());
+            for (String candidate : this.content.list(PRODUCT_DIR)) {
+                Matcher matcher = fnPattern.matcher(candidate);
                 if (matcher.matches()) {
                     ProductDTO product = this.importProduct(matcher.group(1));
                     output.put(product.getId(), product);
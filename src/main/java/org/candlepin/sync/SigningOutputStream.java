@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.sync;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.util.Objects;
+
+
+
+/**
+ * An output stream which feeds every byte written through it to a {@link Signature} before passing
+ * it along to the underlying stream. This allows an archive to be signed while it is being written,
+ * rather than having to re-read it once complete.
+ */
+public class SigningOutputStream extends FilterOutputStream {
+
+    private final Signature signature;
+
+    /**
+     * Creates a new signing output stream wrapping the given stream.
+     *
+     * @param output
+     *  the stream to which written data should be passed
+     *
+     * @param signature
+     *  a signature, already initialized for signing, to update with all written data
+     */
+    public SigningOutputStream(OutputStream output, Signature signature) {
+        super(Objects.requireNonNull(output));
+        this.signature = Objects.requireNonNull(signature);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        try {
+            this.signature.update((byte) b);
+        }
+        catch (SignatureException e) {
+            throw new IOException(e);
+        }
+
+        this.out.write(b);
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        try {
+            this.signature.update(buffer, offset, length);
+        }
+        catch (SignatureException e) {
+            throw new IOException(e);
+        }
+
+        this.out.write(buffer, offset, length);
+    }
+
+    /**
+     * Completes the signature of all data written to this stream.
+     *
+     * @throws SignatureException
+     *  if the signature was not properly initialized
+     *
+     * @return
+     *  the signature bytes of all data written to this stream
+     */
+    public byte[] sign() throws SignatureException {
+        return this.signature.sign();
+    }
+}
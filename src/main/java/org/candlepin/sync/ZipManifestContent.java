@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.sync;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+
+
+/**
+ * A ManifestContent implementation serving the files of an exported consumer archive
+ * (consumer_export.zip) directly from the archive. Files are decompressed on demand as they are
+ * opened, so the archive never needs to be extracted to disk.
+ */
+public class ZipManifestContent implements ManifestContent, Closeable {
+
+    private static final String EXPORT_DIR = "export/";
+
+    private final ZipFile zipFile;
+    private final Map<String, ZipEntry> files;
+    private final Set<String> directories;
+
+    /**
+     * Opens the given consumer export archive.
+     *
+     * @param archive
+     *  the consumer export archive to read
+     *
+     * @throws java.util.zip.ZipException
+     *  if the file is not a valid zip archive
+     *
+     * @throws IOException
+     *  if the archive cannot be read
+     */
+    public ZipManifestContent(File archive) throws IOException {
+        if (archive == null) {
+            throw new IllegalArgumentException("archive is null");
+        }
+
+        this.zipFile = new ZipFile(archive);
+        this.files = new TreeMap<>();
+        this.directories = new HashSet<>();
+
+        Enumeration<? extends ZipEntry> entries = this.zipFile.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String name = entry.getName();
+
+            if (!name.startsWith(EXPORT_DIR)) {
+                continue;
+            }
+
+            String path = name.substring(EXPORT_DIR.length());
+            if (!entry.isDirectory()) {
+                this.files.put(path, entry);
+            }
+
+            // Track every parent directory, including those only present as explicit directory entries
+            for (int i = path.indexOf('/'); i > 0; i = path.indexOf('/', i + 1)) {
+                this.directories.add(path.substring(0, i));
+            }
+        }
+    }
+
+    /**
+     * Fetches the number of entries in the archive, including any entries outside of the export
+     * directory.
+     *
+     * @return
+     *  the number of entries in the archive
+     */
+    public int size() {
+        return this.zipFile.size();
+    }
+
+    /**
+     * Checks whether the archive contains any exported files.
+     *
+     * @return
+     *  true if the archive does not contain any files within the export directory; false otherwise
+     */
+    public boolean isEmpty() {
+        return this.files.isEmpty();
+    }
+
+    @Override
+    public boolean exists(String path) {
+        return this.files.containsKey(path) || this.directories.contains(path);
+    }
+
+    @Override
+    public List<String> list(String directory) {
+        String prefix = directory + "/";
+
+        return this.files.keySet().stream()
+            .filter(path -> path.startsWith(prefix) && path.indexOf('/', prefix.length()) < 0)
+            .map(path -> path.substring(prefix.length()))
+            .toList();
+    }
+
+    @Override
+    public InputStream open(String path) throws IOException {
+        ZipEntry entry = this.files.get(path);
+        if (entry == null) {
+            throw new FileNotFoundException(path);
+        }
+
+        return this.zipFile.getInputStream(entry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.zipFile.close();
+    }
+}
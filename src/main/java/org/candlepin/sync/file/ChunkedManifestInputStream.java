@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.sync.file;
+
+import org.candlepin.model.ManifestFileRecordCurator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+
+
+/**
+ * An input stream over a manifest file stored in the database as a series of fixed-size chunks.
+ * Chunks are fetched one at a time as the stream reaches them, and skipping over content does not
+ * fetch the chunks skipped.
+ */
+class ChunkedManifestInputStream extends InputStream {
+
+    private final ManifestFileRecordCurator curator;
+    private final String fileId;
+    private final int chunkSize;
+    private final long size;
+
+    private long position;
+    private int chunkIndex;
+    private byte[] chunk;
+
+    /**
+     * Creates a new stream over the chunks of the specified file.
+     *
+     * @param curator the curator used to fetch the chunks of the file.
+     * @param fileId the id of the file.
+     * @param chunkSize the size of the chunks the file was split into.
+     * @param size the total size of the file.
+     */
+    ChunkedManifestInputStream(ManifestFileRecordCurator curator, String fileId, int chunkSize, long size) {
+        this.curator = Objects.requireNonNull(curator);
+        this.fileId = Objects.requireNonNull(fileId);
+        this.chunkSize = chunkSize;
+        this.size = size;
+
+        this.position = 0;
+        this.chunkIndex = -1;
+        this.chunk = null;
+    }
+
+    /**
+     * Ensures the chunk containing the current position is loaded, returning the offset of the
+     * current position within it.
+     */
+    private int loadChunk() throws IOException {
+        int index = (int) (this.position / this.chunkSize);
+        int offset = (int) (this.position % this.chunkSize);
+
+        if (index != this.chunkIndex) {
+            // Drop the previous chunk first, so that two are never held at once
+            this.chunk = null;
+            this.chunk = this.curator.getChunkData(this.fileId, index);
+            this.chunkIndex = index;
+        }
+
+        if (this.chunk == null || offset >= this.chunk.length) {
+            throw new IOException(String.format("Chunk %d of manifest file %s is missing or truncated",
+                index, this.fileId));
+        }
+
+        return offset;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (this.position >= this.size) {
+            return -1;
+        }
+
+        int offset = this.loadChunk();
+        ++this.position;
+
+        return this.chunk[offset] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, buffer.length);
+
+        if (len == 0) {
+            return 0;
+        }
+
+        if (this.position >= this.size) {
+            return -1;
+        }
+
+        int offset = this.loadChunk();
+        int count = Math.min(len, this.chunk.length - offset);
+
+        System.arraycopy(this.chunk, offset, buffer, off, count);
+        this.position += count;
+
+        return count;
+    }
+
+    @Override
+    public long skip(long count) {
+        if (count <= 0) {
+            return 0;
+        }
+
+        long skipped = Math.min(count, this.size - this.position);
+        this.position += skipped;
+
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        long index = this.position / this.chunkSize;
+        if (this.chunk == null || index != this.chunkIndex) {
+            return 0;
+        }
+
+        return Math.max(0, this.chunk.length - (int) (this.position % this.chunkSize));
+    }
+
+    @Override
+    public void close() {
+        this.chunk = null;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.sync.file;
+
+import org.candlepin.model.ManifestFileRecord;
+import org.candlepin.model.ManifestFileRecordCurator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.Objects;
+
+
+
+/**
+ * A manifest file stored in the DB by the {@link DBManifestService}.
+ */
+class DBManifestFile implements ManifestFile {
+
+    private final ManifestFileRecord record;
+    private final ManifestFileRecordCurator curator;
+
+    DBManifestFile(ManifestFileRecord record, ManifestFileRecordCurator curator) {
+        this.record = Objects.requireNonNull(record);
+        this.curator = Objects.requireNonNull(curator);
+    }
+
+    @Override
+    public String getId() {
+        return this.record.getId();
+    }
+
+    @Override
+    public String getName() {
+        return this.record.getFileName();
+    }
+
+    @Override
+    public String getTargetId() {
+        return this.record.getTargetId();
+    }
+
+    @Override
+    public long getSize() {
+        Long size = this.record.getFileSize();
+        return size != null ? size : -1;
+    }
+
+    @Override
+    public String getDigest() {
+        return this.record.getDigest();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return this.getInputStream(0);
+    }
+
+    @Override
+    public InputStream getInputStream(long offset) {
+        try {
+            InputStream input;
+
+            if (this.record.getChunkSize() != null) {
+                input = new ChunkedManifestInputStream(this.curator, this.record.getId(),
+                    this.record.getChunkSize(), this.getSize());
+            }
+            else {
+                // Files stored before chunking was introduced keep their content in a single blob
+                Blob data = this.record.getFileData();
+                if (data == null) {
+                    throw new ManifestFileServiceException("No content stored for manifest file: " +
+                        this.getId());
+                }
+
+                input = data.getBinaryStream();
+            }
+
+            input.skipNBytes(offset);
+            return input;
+        }
+        catch (IOException | SQLException e) {
+            throw new ManifestFileServiceException("InputStream not available for manifest file.", e);
+        }
+    }
+}
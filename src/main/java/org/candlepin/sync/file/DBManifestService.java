@@ -14,29 +14,37 @@
  */
 package org.candlepin.sync.file;
 
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
+import org.candlepin.model.ManifestFileRecord;
 import org.candlepin.model.ManifestFileRecordCurator;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Date;
 
 import javax.inject.Inject;
 
 /**
- * A ManifestFileService implementation that stores manifest files in a DB.
+ * A ManifestFileService implementation that stores manifest files in a DB. Files are split into
+ * a series of fixed-size chunks, so that neither storing nor reading a file requires more than
+ * a single chunk to be held in memory.
  */
 public class DBManifestService implements ManifestFileService {
 
     private ManifestFileRecordCurator curator;
+    private int chunkSize;
 
     @Inject
-    public DBManifestService(ManifestFileRecordCurator curator) {
+    public DBManifestService(ManifestFileRecordCurator curator, Configuration config) {
         this.curator = curator;
+        this.chunkSize = config.getInt(ConfigProperties.MANIFEST_STORAGE_CHUNK_SIZE);
     }
 
     @Override
     public ManifestFile get(String id) throws ManifestFileServiceException {
-        return curator.findFile(id);
+        ManifestFileRecord record = curator.findFile(id);
+        return record != null ? new DBManifestFile(record, curator) : null;
     }
 
     @Override
@@ -45,10 +53,13 @@ public class DBManifestService implements ManifestFileService {
     }
 
     @Override
-    public ManifestFile store(ManifestFileType type, File fileToStore, String principalName,
-        String targetId) throws ManifestFileServiceException {
+    public ManifestFile store(ManifestFileType type, InputStream input, String fileName,
+        String principalName, String targetId) throws ManifestFileServiceException {
         try {
-            return curator.createFile(type, fileToStore, principalName, targetId);
+            ManifestFileRecord record = curator.createFile(type, fileName, input, principalName, targetId,
+                chunkSize);
+
+            return new DBManifestFile(record, curator);
         }
         catch (IOException e) {
             throw new ManifestFileServiceException(e);
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.sync.file;
+
+import org.candlepin.model.ManifestFileRecord;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+
+
+/**
+ * A manifest file stored on the local filesystem by the {@link FileSystemManifestService}.
+ */
+class FileSystemManifestFile implements ManifestFile {
+
+    private final ManifestFileRecord record;
+    private final File file;
+
+    FileSystemManifestFile(ManifestFileRecord record, File file) {
+        this.record = Objects.requireNonNull(record);
+        this.file = Objects.requireNonNull(file);
+    }
+
+    @Override
+    public String getId() {
+        return this.record.getId();
+    }
+
+    @Override
+    public String getName() {
+        return this.record.getFileName();
+    }
+
+    @Override
+    public String getTargetId() {
+        return this.record.getTargetId();
+    }
+
+    @Override
+    public long getSize() {
+        return this.file.length();
+    }
+
+    @Override
+    public String getDigest() {
+        return this.record.getDigest();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return this.getInputStream(0);
+    }
+
+    @Override
+    public InputStream getInputStream(long offset) {
+        try {
+            // Skipping on a file stream seeks, rather than reading the skipped content
+            FileInputStream input = new FileInputStream(this.file);
+            input.skip(offset);
+
+            return input;
+        }
+        catch (IOException e) {
+            throw new ManifestFileServiceException("InputStream not available for manifest file.", e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.sync.file;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
+import org.candlepin.model.ManifestFileRecord;
+import org.candlepin.model.ManifestFileRecordCurator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+
+import javax.inject.Inject;
+
+/**
+ * A ManifestFileService implementation that stores manifest files in a directory on the local
+ * filesystem, named by the id of their record. The records themselves are still kept in the DB,
+ * so lookups and expiry work the same way as they do for files stored in the DB.
+ * <p></p>
+ * In a clustered deployment, the storage directory must be shared by every node, as a manifest
+ * may be downloaded or imported by a different node than the one that stored it.
+ */
+public class FileSystemManifestService implements ManifestFileService {
+    private static final Logger log = LoggerFactory.getLogger(FileSystemManifestService.class);
+
+    private static final String PARTIAL_FILE_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 8192;
+
+    private ManifestFileRecordCurator curator;
+    private File directory;
+
+    @Inject
+    public FileSystemManifestService(ManifestFileRecordCurator curator, Configuration config) {
+        this.curator = curator;
+        this.directory = new File(config.getString(ConfigProperties.MANIFEST_STORAGE_DIRECTORY));
+    }
+
+    private File getFile(String id) {
+        return new File(this.directory, id);
+    }
+
+    @Override
+    public ManifestFile get(String id) throws ManifestFileServiceException {
+        ManifestFileRecord record = curator.findFile(id);
+        if (record == null) {
+            return null;
+        }
+
+        File file = this.getFile(record.getId());
+        if (!file.isFile()) {
+            log.warn("No file stored for manifest file record: {}", id);
+            return null;
+        }
+
+        return new FileSystemManifestFile(record, file);
+    }
+
+    @Override
+    public boolean delete(String id) throws ManifestFileServiceException {
+        this.deleteFile(id);
+        return curator.deleteById(id);
+    }
+
+    @Override
+    public ManifestFile store(ManifestFileType type, InputStream input, String fileName,
+        String principalName, String targetId) throws ManifestFileServiceException {
+
+        ManifestFileRecord record = curator.createRecord(type, fileName, principalName, targetId);
+        File file = this.getFile(record.getId());
+
+        // Write to a partial file first, so a file is never visible under its final name until
+        // it has been written completely
+        File partial = new File(this.directory, record.getId() + PARTIAL_FILE_SUFFIX);
+        MessageDigest digest = ManifestFileRecordCurator.createDigest();
+        long size = 0;
+
+        try {
+            Files.createDirectories(this.directory.toPath());
+
+            try (OutputStream output = new BufferedOutputStream(new FileOutputStream(partial))) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                for (int count = input.read(buffer); count > -1; count = input.read(buffer)) {
+                    output.write(buffer, 0, count);
+                    digest.update(buffer, 0, count);
+                    size += count;
+                }
+            }
+
+            Files.move(partial.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            partial.delete();
+            curator.deleteById(record.getId());
+
+            throw new ManifestFileServiceException("Unable to store manifest file: " + fileName, e);
+        }
+
+        record.setFileSize(size);
+        record.setDigest(HexFormat.of().formatHex(digest.digest()));
+
+        return new FileSystemManifestFile(curator.merge(record), file);
+    }
+
+    @Override
+    public int deleteExpired(Date expiryDate) throws ManifestFileServiceException {
+        List<String> ids = curator.getExpiredIds(expiryDate);
+        ids.forEach(this::deleteFile);
+        int count = curator.deleteByIds(ids);
+
+        // Also sweep up any files left behind without a record, such as those stored by a
+        // transaction that was later rolled back
+        File[] files = this.directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isFile() && file.lastModified() < expiryDate.getTime() && file.delete()) {
+                    log.debug("Deleted stray manifest file: {}", file);
+                }
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public int delete(ManifestFileType type, String targetId) throws ManifestFileServiceException {
+        List<String> ids = curator.getMatchingIds(type, targetId);
+        ids.forEach(this::deleteFile);
+
+        return curator.deleteByIds(ids);
+    }
+
+    private void deleteFile(String id) {
+        File file = this.getFile(id);
+
+        if (file.exists() && !file.delete()) {
+            // The file will be swept up once it expires
+            log.warn("Unable to delete stored manifest file: {}", file);
+        }
+    }
+
+}
@@ -14,6 +14,7 @@
  */
 package org.candlepin.sync.file;
 
+import java.io.IOException;
 import java.io.InputStream;
 
 /**
@@ -42,6 +43,42 @@ public interface ManifestFile {
      */
     InputStream getInputStream();
 
+    /**
+     * Gets an input stream to the stored file, starting at the specified offset.
+     * Implementations should position the stream without reading the skipped
+     * content wherever their storage allows it.
+     *
+     * @param offset the number of bytes to skip from the start of the file.
+     * @return an input stream to the stored file.
+     * @throws ManifestFileServiceException if the stream could not be positioned.
+     */
+    default InputStream getInputStream(long offset) {
+        InputStream input = this.getInputStream();
+
+        try {
+            input.skipNBytes(offset);
+        }
+        catch (IOException e) {
+            throw new ManifestFileServiceException("Unable to read manifest file: " + this.getId(), e);
+        }
+
+        return input;
+    }
+
+    /**
+     * Gets the size of the stored file.
+     *
+     * @return the size of the stored file in bytes, or -1 if it is not known.
+     */
+    long getSize();
+
+    /**
+     * Gets the hex-encoded SHA-256 digest of the content of the stored file.
+     *
+     * @return the digest of the stored file, or null if it is not known.
+     */
+    String getDigest();
+
     /**
      * Gets the target id of the stored file. If the file was created as part of
      * a consumer export, it should be the consumer UUID. If it was created as part
@@ -15,6 +15,9 @@
 package org.candlepin.sync.file;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Date;
 
 /**
@@ -45,8 +48,32 @@ public interface ManifestFileService {
      * @return the id of the stored file.
      * @throws ManifestFileServiceException if there is a service issue while storing the file.
      */
-    ManifestFile store(ManifestFileType type, File fileToStore, String principalName, String targetId)
-        throws ManifestFileServiceException;
+    default ManifestFile store(ManifestFileType type, File fileToStore, String principalName,
+        String targetId) throws ManifestFileServiceException {
+
+        try (InputStream input = new FileInputStream(fileToStore)) {
+            return this.store(type, input, fileToStore.getName(), principalName, targetId);
+        }
+        catch (IOException e) {
+            throw new ManifestFileServiceException(e);
+        }
+    }
+
+    /**
+     * Stores the content read from the specified stream. The content is streamed into
+     * storage as it is read, so implementations must not buffer the whole file in memory.
+     *
+     * @param type the type of operation the file is being stored for (Import/Export)
+     * @param input the stream providing the content of the file; not closed by this method.
+     * @param fileName the name of the file being stored.
+     * @param principalName the name of the principal who uploaded the file.
+     * @param targetId the id of the target entity (will change based on operation). Import: Owner.id
+     *                 Export: Consumer.uuid
+     * @return the stored file.
+     * @throws ManifestFileServiceException if there is a service issue while storing the file.
+     */
+    ManifestFile store(ManifestFileType type, InputStream input, String fileName, String principalName,
+        String targetId) throws ManifestFileServiceException;
 
     /**
      * Deletes a manifest matching the specified id.
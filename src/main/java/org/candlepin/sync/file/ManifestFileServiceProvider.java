@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.sync.file;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.Configuration;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+
+
+/**
+ * Provides the {@link ManifestFileService} implementation selected by the manifest storage
+ * configuration.
+ */
+public class ManifestFileServiceProvider implements Provider<ManifestFileService> {
+
+    private final ManifestStorageType storageType;
+    private final Provider<DBManifestService> dbServiceProvider;
+    private final Provider<FileSystemManifestService> fileSystemServiceProvider;
+
+    @Inject
+    public ManifestFileServiceProvider(Configuration config, Provider<DBManifestService> dbServiceProvider,
+        Provider<FileSystemManifestService> fileSystemServiceProvider) {
+
+        this.storageType = ManifestStorageType.fromString(
+            config.getString(ConfigProperties.MANIFEST_STORAGE));
+        this.dbServiceProvider = dbServiceProvider;
+        this.fileSystemServiceProvider = fileSystemServiceProvider;
+    }
+
+    @Override
+    public ManifestFileService get() {
+        return this.storageType == ManifestStorageType.FILESYSTEM ?
+            this.fileSystemServiceProvider.get() :
+            this.dbServiceProvider.get();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.sync.file;
+
+import java.util.Locale;
+
+
+
+/**
+ * The backends available for storing manifest files, as selected by the
+ * candlepin.manifest.storage configuration.
+ */
+public enum ManifestStorageType {
+    /**
+     * Stores manifest files in the database, as a series of fixed-size chunks.
+     */
+    DATABASE,
+
+    /**
+     * Stores manifest files in a directory on the local filesystem.
+     */
+    FILESYSTEM;
+
+    /**
+     * Fetches the storage type matching the given name, ignoring case and surrounding whitespace.
+     *
+     * @param name
+     *  the name of the storage type to fetch
+     *
+     * @throws IllegalArgumentException
+     *  if the name is null or does not represent a known storage type
+     *
+     * @return
+     *  the storage type matching the given name
+     */
+    public static ManifestStorageType fromString(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("name is null");
+        }
+
+        return ManifestStorageType.valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.Deflater;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Encodes content paths into the compressed path tree carried by the entitlement data extension of
+ * v3 entitlement certificates, as read by {@link X509V3ExtensionUtil#hydrateContentPackage(byte[])}.
+ * <p>
+ * The encoded value consists of a deflated dictionary of the distinct path segments, ordered by
+ * ascending frequency, followed by the number of nodes in the path tree and a bit stream listing
+ * the children of each node as pairs of Huffman codes: one for the segment name, and one for the
+ * node the segment leads to. The Huffman tries are implied by the ordering of the segments and
+ * nodes, and are rebuilt by the reader using the same merge order used here.
+ * <p>
+ * Unlike the original implementation, this encoder builds the condensed path tree in a single
+ * pass by interning structurally identical subtrees, computes the Huffman codes up front rather
+ * than searching the tries for every segment written, and packs the codes directly into bytes. Its
+ * output is deterministic for a given set of paths, which allows the encoded values of recently
+ * seen content sets to be reused.
+ */
+@Singleton
+public class ContentPathEncoder {
+    private static final int MAX_CACHE_WEIGHT = 16 * 1024 * 1024;
+    private static final int MAX_CODE_LENGTH = 64;
+
+    private static final DeflaterPool DEFLATER_POOL = new DeflaterPool(Deflater.BEST_COMPRESSION,
+        Runtime.getRuntime().availableProcessors());
+
+    /** The value used by the segment trie to indicate the end of the children of a node */
+    private static final Object END_NODE = new Object();
+
+    private final Cache<List<String>, byte[]> cache;
+
+    @Inject
+    public ContentPathEncoder() {
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHE_WEIGHT)
+            .weigher(ContentPathEncoder::weigh)
+            .build();
+    }
+
+    private static int weigh(List<String> paths, byte[] value) {
+        long weight = value.length;
+        for (String path : paths) {
+            weight += path.length();
+        }
+
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    /**
+     * A node of the condensed path tree. Nodes are immutable once interned, and are shared by
+     * every parent with an identical subtree.
+     */
+    private static class PathNode {
+        private final int id;
+        private final List<Edge> edges;
+        private int parents;
+
+        PathNode(int id, List<Edge> edges) {
+            this.id = id;
+            this.edges = edges;
+        }
+    }
+
+    /**
+     * A named link to a child node. Edges are compared by name and node identity, allowing edge
+     * lists to be used as the interning keys of the nodes holding them.
+     */
+    private record Edge(String name, PathNode node) {
+    }
+
+    /**
+     * A node of the uncondensed path tree, holding the segments that continue on to another node
+     * separately from the segments that terminate a path.
+     */
+    private static class Branch {
+        private final Map<String, Branch> branches = new TreeMap<>();
+        private final Set<String> leaves = new TreeSet<>();
+    }
+
+    /**
+     * A node of a Huffman trie, ordered as {@link X509V3ExtensionUtil#makeTrie(List)} selects nodes
+     * to merge: by weight, and then by position in its node list, where merged nodes are appended
+     * after the nodes they replace.
+     */
+    private record HuffNode(Object value, long weight, long sequence, HuffNode left, HuffNode right) {
+    }
+
+    /**
+     * A Huffman code, stored in the low order bits of the code value.
+     */
+    private record Code(long bits, int length) {
+    }
+
+    /**
+     * Encodes the given content paths. Paths are split into segments on slashes, ignoring empty
+     * segments; the ordering of the paths and any duplicates do not affect the encoded value.
+     *
+     * @param paths
+     *  the content paths to encode
+     *
+     * @throws IllegalArgumentException
+     *  if paths is null
+     *
+     * @return
+     *  the encoded content paths, or an empty array if no non-empty paths were provided
+     */
+    public byte[] encode(Collection<String> paths) {
+        if (paths == null) {
+            throw new IllegalArgumentException("paths is null");
+        }
+
+        List<String> key = List.copyOf(new TreeSet<>(paths));
+        byte[] encoded = this.cache.get(key, this::encodePaths);
+        return encoded.clone();
+    }
+
+    private byte[] encodePaths(List<String> paths) {
+        Branch root = new Branch();
+        for (String path : paths) {
+            addPath(root, new StringTokenizer(path, "/"));
+        }
+
+        PathNode endNode = new PathNode(0, List.of());
+        Map<List<Edge>, PathNode> interned = new HashMap<>();
+        // The root is not interned, as it can never be identical to one of its own subtrees
+        PathNode treeRoot = new PathNode(-1, condense(root, endNode, interned));
+        if (treeRoot.edges.isEmpty()) {
+            return new byte[0];
+        }
+
+        List<PathNode> nodes = new ArrayList<>(interned.size() + 2);
+        nodes.add(endNode);
+        nodes.addAll(interned.values());
+        countParents(treeRoot, nodes);
+
+        List<String> segments = orderSegments(treeRoot, nodes);
+        List<PathNode> orderedNodes = orderNodes(treeRoot, nodes);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] dictionary = deflateSegments(segments);
+        output.write(dictionary, 0, dictionary.length);
+        writeNodeCount(output, orderedNodes.size());
+        writeNodes(output, segments, orderedNodes);
+
+        return output.toByteArray();
+    }
+
+    private static void addPath(Branch root, StringTokenizer tokenizer) {
+        if (!tokenizer.hasMoreTokens()) {
+            return;
+        }
+
+        Branch branch = root;
+        String segment = tokenizer.nextToken();
+        while (tokenizer.hasMoreTokens()) {
+            branch = branch.branches.computeIfAbsent(segment, name -> new Branch());
+            segment = tokenizer.nextToken();
+        }
+
+        branch.leaves.add(segment);
+    }
+
+    /**
+     * Converts the children of the given branch into edges, reusing the previously interned node of
+     * any identical subtree.
+     */
+    private static List<Edge> condense(Branch branch, PathNode endNode, Map<List<Edge>, PathNode> interned) {
+        List<Edge> edges = new ArrayList<>(branch.leaves.size() + branch.branches.size());
+        for (String leaf : branch.leaves) {
+            edges.add(new Edge(leaf, endNode));
+        }
+
+        for (Map.Entry<String, Branch> entry : branch.branches.entrySet()) {
+            List<Edge> key = condense(entry.getValue(), endNode, interned);
+            PathNode node = interned.computeIfAbsent(key, k -> new PathNode(interned.size() + 1, k));
+            edges.add(new Edge(entry.getKey(), node));
+        }
+
+        // Order the edges by name as the original path tree did, keeping terminating segments ahead
+        // of continuing segments of the same name
+        edges.sort(Comparator.comparing(Edge::name));
+        return List.copyOf(edges);
+    }
+
+    private static void countParents(PathNode treeRoot, List<PathNode> nodes) {
+        countParents(treeRoot);
+        for (PathNode node : nodes) {
+            countParents(node);
+        }
+    }
+
+    private static void countParents(PathNode parent) {
+        Set<PathNode> children = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Edge edge : parent.edges) {
+            if (children.add(edge.node())) {
+                edge.node().parents++;
+            }
+        }
+    }
+
+    /**
+     * Orders the distinct segments by the number of edges using them, least used first, so that the
+     * most used segments receive the shortest codes.
+     */
+    private static List<String> orderSegments(PathNode treeRoot, List<PathNode> nodes) {
+        Map<String, Integer> counts = new HashMap<>();
+        countSegments(treeRoot, counts);
+        for (PathNode node : nodes) {
+            countSegments(node, counts);
+        }
+
+        List<String> segments = new ArrayList<>(counts.keySet());
+        segments.sort(Comparator.comparing((String segment) -> counts.get(segment))
+            .thenComparing(Comparator.naturalOrder()));
+
+        return segments;
+    }
+
+    private static void countSegments(PathNode node, Map<String, Integer> counts) {
+        for (Edge edge : node.edges) {
+            counts.merge(edge.name(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Orders the nodes by their number of parents, least referenced first. The root is always the
+     * first node, and is dropped from the node trie by the reader as no edge leads to it.
+     */
+    private static List<PathNode> orderNodes(PathNode treeRoot, List<PathNode> nodes) {
+        List<PathNode> ordered = new ArrayList<>(nodes.size() + 2);
+        ordered.add(treeRoot);
+
+        List<PathNode> children = new ArrayList<>(nodes);
+        children.sort(Comparator.comparingInt((PathNode node) -> node.parents)
+            .thenComparingInt(node -> node.id));
+        ordered.addAll(children);
+
+        // A lone node following the root would leave the reader with a single node trie, which has
+        // no codes; pad it out with an empty placeholder node.
+        if (ordered.size() == 2) {
+            ordered.add(new PathNode(-1, List.of()));
+        }
+
+        return ordered;
+    }
+
+    private static byte[] deflateSegments(List<String> segments) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        for (String segment : segments) {
+            byte[] bytes = segment.getBytes(StandardCharsets.UTF_8);
+            buffer.write(bytes, 0, bytes.length);
+            buffer.write(0);
+        }
+
+        return DEFLATER_POOL.deflate(buffer.toByteArray());
+    }
+
+    private static void writeNodeCount(ByteArrayOutputStream output, int count) {
+        if (count > 127) {
+            int length = (Integer.SIZE - Integer.numberOfLeadingZeros(count) + 7) / 8;
+            output.write(128 + length);
+            for (int shift = (length - 1) * 8; shift >= 0; shift -= 8) {
+                output.write(count >>> shift);
+            }
+        }
+        else {
+            output.write(count);
+        }
+    }
+
+    private static void writeNodes(ByteArrayOutputStream output, List<String> segments,
+        List<PathNode> orderedNodes) {
+
+        // Segment weights start at 1 and are followed by the end node. Node weights start at 0, but the
+        // first node, the root, is left out of the trie.
+        List<Object> segmentValues = new ArrayList<>(segments.size() + 1);
+        segmentValues.addAll(segments);
+        segmentValues.add(END_NODE);
+        Map<Object, Code> segmentCodes = buildCodes(segmentValues);
+        Map<Object, Code> nodeCodes = buildCodes(orderedNodes.subList(1, orderedNodes.size()));
+
+        Code endCode = segmentCodes.get(END_NODE);
+        BitWriter writer = new BitWriter(output);
+        for (PathNode node : orderedNodes) {
+            for (Edge edge : node.edges) {
+                writer.write(segmentCodes.get(edge.name()));
+                writer.write(nodeCodes.get(edge.node()));
+            }
+
+            writer.write(endCode);
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Builds the Huffman codes of the given values, weighted by their position in the list starting
+     * at 1. Nodes are merged in the order used by {@link X509V3ExtensionUtil#makeTrie(List)}: the two
+     * lightest nodes are merged into a new node appended to the end of the list, with the earliest
+     * node winning any ties, and the first node selected becoming the left branch.
+     */
+    private static Map<Object, Code> buildCodes(List<?> values) {
+        Comparator<HuffNode> order = Comparator.comparingLong(HuffNode::weight)
+            .thenComparingLong(HuffNode::sequence);
+
+        PriorityQueue<HuffNode> queue = new PriorityQueue<>(values.size(), order);
+        long sequence = 0;
+        for (Object value : values) {
+            queue.add(new HuffNode(value, sequence + 1, sequence, null, null));
+            ++sequence;
+        }
+
+        while (queue.size() > 1) {
+            HuffNode left = queue.poll();
+            HuffNode right = queue.poll();
+            queue.add(new HuffNode(null, left.weight() + right.weight(), sequence++, left, right));
+        }
+
+        Map<Object, Code> codes = new HashMap<>();
+        assignCodes(queue.poll(), 0, 0, codes);
+        return codes;
+    }
+
+    private static void assignCodes(HuffNode node, long bits, int length, Map<Object, Code> codes) {
+        if (node.left() == null) {
+            codes.put(node.value(), new Code(bits, length));
+            return;
+        }
+
+        if (length >= MAX_CODE_LENGTH) {
+            throw new IllegalStateException("Huffman code length exceeds " + MAX_CODE_LENGTH + " bits");
+        }
+
+        assignCodes(node.left(), bits << 1, length + 1, codes);
+        assignCodes(node.right(), (bits << 1) | 1, length + 1, codes);
+    }
+
+    /**
+     * Packs codes into bytes, most significant bit first, padding the final byte with zeros.
+     */
+    private static class BitWriter {
+        private final ByteArrayOutputStream output;
+        private int current;
+        private int count;
+
+        BitWriter(ByteArrayOutputStream output) {
+            this.output = Objects.requireNonNull(output);
+        }
+
+        void write(Code code) {
+            for (int bit = code.length() - 1; bit >= 0; --bit) {
+                this.current = (this.current << 1) | (int) ((code.bits() >>> bit) & 1);
+                if (++this.count == 8) {
+                    this.output.write(this.current);
+                    this.current = 0;
+                    this.count = 0;
+                }
+            }
+        }
+
+        void flush() {
+            if (this.count > 0) {
+                this.output.write(this.current << (8 - this.count));
+                this.current = 0;
+                this.count = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * A small, thread safe pool of {@link Deflater} instances sharing a single compression level.
+ * Deflaters hold native zlib state which is only released on {@link Deflater#end()} or
+ * finalization, so reusing them avoids both the allocation cost and the build up of native memory
+ * when compressing many small payloads. Instances beyond the configured number of idle deflaters
+ * are ended rather than returned to the pool.
+ */
+public final class DeflaterPool {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final int level;
+    private final BlockingQueue<Deflater> idle;
+
+    /**
+     * Creates a new deflater pool.
+     *
+     * @param level
+     *  the compression level of the pooled deflaters, as accepted by {@link Deflater#Deflater(int)}
+     *
+     * @param maxIdle
+     *  the maximum number of idle deflaters to retain; must be positive
+     *
+     * @throws IllegalArgumentException
+     *  if maxIdle is not a positive integer
+     */
+    public DeflaterPool(int level, int maxIdle) {
+        if (maxIdle < 1) {
+            throw new IllegalArgumentException("maxIdle must be a positive integer");
+        }
+
+        this.level = level;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    /**
+     * Compresses the given bytes into a complete zlib stream, equivalent to writing them through a
+     * {@link java.util.zip.DeflaterOutputStream} using a deflater of this pool's compression level.
+     *
+     * @param input
+     *  the bytes to compress
+     *
+     * @return
+     *  the compressed bytes
+     */
+    public byte[] deflate(byte[] input) {
+        Deflater deflater = this.idle.poll();
+        if (deflater == null) {
+            deflater = new Deflater(this.level);
+        }
+
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                output.write(buffer, 0, length);
+            }
+
+            return output.toByteArray();
+        }
+        finally {
+            deflater.reset();
+            if (!this.idle.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+
+/**
+ * Thin wrapper around a SHA-256 message digest which writes values in an unambiguous, order-stable
+ * encoding: every value is tagged for null-ness and length-prefixed, and collections are sorted
+ * before being written. Two builders fed equal values in the same order produce equal digests.
+ * <p></p>
+ * This class is not thread-safe.
+ */
+public class DigestBuilder {
+    private static final String ALGORITHM = "SHA-256";
+
+    private final MessageDigest digest;
+
+    /**
+     * Creates a new DigestBuilder with no values written
+     */
+    public DigestBuilder() {
+        try {
+            this.digest = MessageDigest.getInstance(ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes the given value to this builder
+     *
+     * @param value
+     *  the value to write; may be null
+     *
+     * @return
+     *  a reference to this DigestBuilder
+     */
+    public DigestBuilder update(String value) {
+        if (value == null) {
+            this.digest.update((byte) 0);
+            return this;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        this.digest.update((byte) 1);
+        this.digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        this.digest.update(bytes);
+
+        return this;
+    }
+
+    /**
+     * Writes the given value to this builder
+     *
+     * @param value
+     *  the value to write; may be null
+     *
+     * @return
+     *  a reference to this DigestBuilder
+     */
+    public DigestBuilder update(Long value) {
+        return this.update(value != null ? value.toString() : null);
+    }
+
+    /**
+     * Writes the given values to this builder in their natural order, regardless of the order of
+     * the collection
+     *
+     * @param values
+     *  the values to write; may be null
+     *
+     * @return
+     *  a reference to this DigestBuilder
+     */
+    public DigestBuilder update(Collection<String> values) {
+        if (values == null) {
+            return this.update((String) null);
+        }
+
+        List<String> sorted = new ArrayList<>(values);
+        sorted.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        this.update(String.valueOf(sorted.size()));
+        sorted.forEach(this::update);
+
+        return this;
+    }
+
+    /**
+     * Writes the given entries to this builder in the natural order of their keys, regardless of
+     * the order of the map
+     *
+     * @param values
+     *  the entries to write; may be null
+     *
+     * @return
+     *  a reference to this DigestBuilder
+     */
+    public DigestBuilder update(Map<String, String> values) {
+        if (values == null) {
+            return this.update((String) null);
+        }
+
+        Map<String, String> sorted = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        sorted.putAll(values);
+
+        this.update(String.valueOf(sorted.size()));
+        sorted.forEach((key, value) -> this.update(key).update(value));
+
+        return this;
+    }
+
+    /**
+     * Completes the digest of the values written to this builder. The builder should not be used
+     * afterward.
+     *
+     * @return
+     *  the hex-encoded digest of the values written
+     */
+    public String digest() {
+        return HexFormat.of().formatHex(this.digest.digest());
+    }
+
+}
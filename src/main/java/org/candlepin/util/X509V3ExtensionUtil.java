@@ -47,17 +47,13 @@ import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.zip.Deflater;
-import java.util.zip.DeflaterOutputStream;
 import java.util.zip.Inflater;
 import java.util.zip.InflaterOutputStream;
 
@@ -70,23 +66,24 @@ public class X509V3ExtensionUtil extends X509Util {
 
     private static final Logger log = LoggerFactory.getLogger(X509V3ExtensionUtil.class);
     private static final Object END_NODE = new Object();
-    private static final boolean TREE_DEBUG = false;
     public static final String CERT_VERSION = "3.4";
 
+    private static final DeflaterPool PAYLOAD_DEFLATER_POOL = new DeflaterPool(Deflater.DEFAULT_COMPRESSION,
+        Runtime.getRuntime().availableProcessors());
+
     private final ObjectMapper mapper;
     private final Configuration config;
     private final EntitlementCurator entCurator;
-
-    private long pathNodeId = 0;
-    private long huffNodeId = 0;
+    private final ContentPathEncoder pathEncoder;
 
     @Inject
     public X509V3ExtensionUtil(Configuration config, EntitlementCurator entCurator,
-        @Named("X509V3ExtensionUtilObjectMapper") ObjectMapper objectMapper) {
+        ContentPathEncoder pathEncoder, @Named("X509V3ExtensionUtilObjectMapper") ObjectMapper objectMapper) {
 
         // Output everything in UTC
         this.config = Objects.requireNonNull(config);
         this.entCurator = Objects.requireNonNull(entCurator);
+        this.pathEncoder = Objects.requireNonNull(pathEncoder);
         this.mapper = Objects.requireNonNull(objectMapper);
     }
 
@@ -112,30 +109,21 @@ public class X509V3ExtensionUtil extends X509Util {
         String consumerUuid, Pool pool, Integer quantity) throws IOException {
 
         EntitlementBody map = createEntitlementBody(productModels, consumerUuid, pool, quantity);
+        return createEntitlementDataPayload(map);
+    }
 
-        String json = toJson(map);
+    public byte[] createEntitlementDataPayload(EntitlementBody body) throws IOException {
+        String json = toJson(body);
         return processPayload(json);
     }
 
-    private byte[] retrieveContentValue(EntitlementBody eb) throws IOException {
-        List<Content> contentList = getContentList(eb);
-        PathNode treeRoot = makePathTree(contentList, new PathNode());
-        List<String> nodeStrings = orderStrings(treeRoot);
-        if (nodeStrings.isEmpty()) {
-            return new byte[0];
+    private byte[] retrieveContentValue(EntitlementBody eb) {
+        List<String> paths = new ArrayList<>();
+        for (Content content : getContentList(eb)) {
+            paths.add(content.getPath());
         }
-        ByteArrayOutputStream data = new ByteArrayOutputStream();
-        List<HuffNode> stringHuffNodes = getStringNodeList(nodeStrings);
-        HuffNode stringTrieParent = makeTrie(stringHuffNodes);
-        data.write(byteProcess(nodeStrings));
-
-        List<PathNode> orderedNodes = orderNodes(treeRoot);
-        List<HuffNode> pathNodeHuffNodes = getPathNodeNodeList(orderedNodes);
-        HuffNode pathNodeTrieParent = makeTrie(pathNodeHuffNodes);
-        data.write(makeNodeDictionary(stringTrieParent,
-            pathNodeTrieParent, orderedNodes));
-
-        return data.toByteArray();
+
+        return this.pathEncoder.encode(paths);
     }
 
     public EntitlementBody createEntitlementBody(List<org.candlepin.model.dto.Product> productModels,
@@ -445,364 +433,6 @@ public class X509V3ExtensionUtil extends X509Util {
         return contentList;
     }
 
-    public PathNode makePathTree(List<Content> contents, PathNode parent) {
-        PathNode endMarker = new PathNode();
-        for (Content c : contents) {
-            String path = c.getPath();
-
-            if (TREE_DEBUG) {
-                log.debug(path);
-            }
-            StringTokenizer st = new StringTokenizer(path, "/");
-            makePathForURL(st, parent, endMarker);
-        }
-        if (TREE_DEBUG) {
-            printTree(parent, 0);
-        }
-        condenseSubTreeNodes(endMarker);
-        if (TREE_DEBUG) {
-            printTree(parent, 0);
-        }
-        return parent;
-    }
-
-    public void printTree(PathNode pn, int tab) {
-        StringBuffer nodeRep = new StringBuffer();
-        for (int i = 0; i <= tab; i++) {
-            nodeRep.append("  ");
-        }
-        nodeRep.append("Node [");
-        nodeRep.append(pn.getId());
-        nodeRep.append("]");
-
-        for (PathNode parent : pn.getParents()) {
-            nodeRep.append(" ^ [");
-            nodeRep.append(parent.getId());
-            nodeRep.append("]");
-        }
-        for (NodePair cp : pn.getChildren()) {
-            nodeRep.append(" v [");
-            nodeRep.append(cp.getName());
-            nodeRep.append(" {");
-            nodeRep.append(cp.getConnection().getId());
-            nodeRep.append("} ]");
-        }
-        log.debug("{}", nodeRep);
-        for (NodePair cp : pn.getChildren()) {
-            printTree(cp.getConnection(), tab + 1);
-        }
-    }
-
-    public void printTrie(HuffNode hn, int tab) {
-        StringBuffer nodeRep = new StringBuffer();
-        for (int i = 0; i <= tab; i++) {
-            nodeRep.append("  ");
-        }
-        nodeRep.append("Node [");
-        nodeRep.append(hn.getId());
-        nodeRep.append("]");
-
-        nodeRep.append(", Weight [");
-        nodeRep.append(hn.getWeight());
-        nodeRep.append("]");
-
-        nodeRep.append(", Value = [");
-        nodeRep.append(hn.getValue());
-        nodeRep.append("]");
-
-        log.debug("{}", nodeRep);
-        if (hn.getLeft() != null) {
-            printTrie(hn.getLeft(), tab + 1);
-        }
-        if (hn.getRight() != null) {
-            printTrie(hn.getRight(), tab + 1);
-        }
-    }
-
-    private void makePathForURL(StringTokenizer st, PathNode parent, PathNode endMarker) {
-        if (st.hasMoreTokens()) {
-            String childVal = st.nextToken();
-            if (childVal.equals("")) {
-                return;
-            }
-            boolean isNew = true;
-            for (NodePair child : parent.getChildren()) {
-                if (child.getName().equals(childVal) &&
-                    !child.getConnection().equals(endMarker)) {
-                    makePathForURL(st, child.getConnection(), endMarker);
-                    isNew = false;
-                }
-            }
-            if (isNew) {
-                PathNode next;
-                if (st.hasMoreTokens()) {
-                    next = new PathNode();
-                    parent.addChild(new NodePair(childVal, next));
-                    next.addParent(parent);
-                    makePathForURL(st, next, endMarker);
-                }
-                else {
-                    parent.addChild(new NodePair(childVal, endMarker));
-                    if (!endMarker.getParents().contains(parent)) {
-                        endMarker.addParent(parent);
-                    }
-                }
-            }
-        }
-    }
-
-    private void condenseSubTreeNodes(PathNode location) {
-        // "equivalent" parents are merged
-        List<PathNode> parentResult = new ArrayList<>(location.getParents());
-        for (PathNode parent1 : location.getParents()) {
-            if (!parentResult.contains(parent1)) {
-                continue;
-            }
-            for (PathNode parent2 : location.getParents()) {
-                if (!parentResult.contains(parent2) ||
-                    parent2.getId() == parent1.getId()) {
-                    continue;
-                }
-                if (parent1.isEquivalentTo(parent2)) {
-                    // we merge them into smaller Id
-                    PathNode merged = parent1.getId() < parent2.getId() ?
-                        parent1 : parent2;
-                    PathNode toRemove = parent1.getId() < parent2.getId() ?
-                        parent2 : parent1;
-
-                    // track down the name of the string in the grandparent
-                    //  that points to parent
-                    String name = "";
-                    PathNode oneParent = toRemove.getParents().get(0);
-                    for (NodePair child : oneParent.getChildren()) {
-                        if (child.getConnection().getId() == toRemove.getId()) {
-                            name = child.getName();
-                            break;
-                        }
-                    }
-
-                    // copy grandparents to merged parent node.
-                    List<PathNode> movingParents = toRemove.getParents();
-                    merged.addParents(movingParents);
-
-                    // all grandparents with name now point to merged node
-                    for (PathNode pn : toRemove.getParents()) {
-                        for (NodePair child : pn.getChildren()) {
-                            if (child.getName().equals(name) &&
-                                child.getConnection().isEquivalentTo(merged)) {
-                                child.setConnection(merged);
-                            }
-                        }
-                    }
-                    parentResult.remove(toRemove);
-                }
-            }
-        }
-        location.setParents(parentResult);
-        for (PathNode pn : location.getParents()) {
-            condenseSubTreeNodes(pn);
-        }
-    }
-
-    public List<String> orderStrings(PathNode parent) throws IOException {
-        List<String> parts = new ArrayList<>();
-        // walk tree to make string map
-        Map<String, Integer> segments = new HashMap<>();
-        Set<PathNode> nodes = new HashSet<>();
-        buildSegments(segments, nodes, parent);
-        for (Entry<String, Integer> entry : segments.entrySet()) {
-            String part = entry.getKey();
-            if (!part.equals("")) {
-                int count = entry.getValue();
-                if (parts.size() == 0) {
-                    parts.add(part);
-                }
-                else {
-                    int pos = parts.size();
-                    for (int i = 0; i < parts.size(); i++) {
-                        if (count < segments.get(parts.get(i))) {
-                            pos = i;
-                            break;
-                        }
-                    }
-                    parts.add(pos, part);
-                }
-            }
-        }
-        if (TREE_DEBUG) {
-            log.debug("Parts List: " + parts);
-        }
-        return parts;
-    }
-
-    private void buildSegments(Map<String, Integer> segments,
-        Set<PathNode> nodes, PathNode parent) {
-        if (!nodes.contains(parent)) {
-            nodes.add(parent);
-            for (NodePair np : parent.getChildren()) {
-                Integer count = segments.get(np.getName());
-                if (count == null) {
-                    count = 0;
-                }
-                segments.put(np.getName(), ++count);
-                buildSegments(segments, nodes, np.getConnection());
-            }
-        }
-    }
-
-    private List<PathNode> orderNodes(PathNode treeRoot) {
-        List<PathNode> result = new ArrayList<>();
-
-        // walk tree to make string map
-        Set<PathNode> nodes =  getPathNodes(treeRoot);
-        for (PathNode pn : nodes) {
-            int count = pn.getParents().size();
-            if (nodes.size() == 0) {
-                nodes.add(pn);
-            }
-            else {
-                int pos = result.size();
-                for (int i = 0; i < result.size(); i++) {
-                    if (count <= result.get(i).getParents().size()) {
-                        pos = i;
-                        break;
-                    }
-                    if (count == result.get(i).getParents().size()) {
-                        if (pn.getId() < result.get(i).getId()) {
-                            pos = i;
-                        }
-                        else {
-                            pos = i + 1;
-                        }
-                        break;
-                    }
-                }
-                result.add(pos, pn);
-            }
-        }
-        // single node plus term node. We need to have one more for huffman trie
-        if (result.size() == 2) {
-            result.add(new PathNode());
-        }
-        if (TREE_DEBUG) {
-            log.debug("{}", result);
-        }
-        return result;
-    }
-
-    private Set<PathNode> getPathNodes(PathNode treeRoot) {
-        Set<PathNode> nodes = new HashSet<>();
-        nodes.add(treeRoot);
-        for (NodePair np : treeRoot.getChildren()) {
-            nodes.addAll(getPathNodes(np.getConnection()));
-        }
-        return nodes;
-    }
-
-    private byte[] makeNodeDictionary(HuffNode stringParent,
-        HuffNode pathNodeParent, List<PathNode> pathNodes) throws IOException {
-
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        int nodeSize = pathNodes.size();
-        if (nodeSize > 127) {
-            ByteArrayOutputStream countBaos = new ByteArrayOutputStream();
-            boolean start = false;
-            for (byte b : toByteArray(nodeSize)) {
-                if (b == 0 && !start) {
-                    continue;
-                }
-                else {
-                    countBaos.write(b);
-                    start = true;
-                }
-            }
-            baos.write(128 + countBaos.size());
-            countBaos.close();
-            baos.write(countBaos.toByteArray());
-        }
-        else {
-            baos.write(nodeSize);
-        }
-        StringBuilder bits = new StringBuilder();
-        String endNodeLocation = findHuffPath(stringParent, END_NODE);
-        for (PathNode pn : pathNodes) {
-            for (NodePair np : pn.getChildren()) {
-                bits.append(findHuffPath(stringParent, np.getName()));
-                bits.append(findHuffPath(pathNodeParent, np.getConnection()));
-            }
-            bits.append(endNodeLocation);
-            while (bits.length() >= 8) {
-                int next = 0;
-                for (int i = 0; i < 8; i++) {
-                    next = (byte) next << 1;
-                    if (bits.charAt(i) == '1') {
-                        next++;
-                    }
-                }
-                baos.write(next);
-                bits.delete(0, 8);
-            }
-        }
-
-        if (bits.length() > 0) {
-            int next = 0;
-            for (int i = 0;  i < 8; i++) {
-                next = (byte) next << 1;
-                if (i < bits.length() && bits.charAt(i) == '1') {
-                    next++;
-                }
-            }
-            baos.write(next);
-        }
-        byte[] result = baos.toByteArray();
-        if (TREE_DEBUG) {
-            ByteArrayInputStream bais = new ByteArrayInputStream(result);
-            int value = bais.read();
-            while (value != -1) {
-                log.debug(String.valueOf(value));
-                value = bais.read();
-            }
-        }
-        baos.close();
-        return result;
-    }
-
-    private byte[] toByteArray(int value) {
-        return new byte[] {
-            (byte) (value >> 24),
-            (byte) (value >> 16),
-            (byte) (value >> 8),
-            (byte) value};
-    }
-
-    public String findHuffPath(HuffNode trie, Object need) {
-        HuffNode left = trie.getLeft();
-        HuffNode right = trie.getRight();
-        if (left != null && left.getValue() != null) {
-            if (need.equals(left.getValue())) {
-                return "0";
-            }
-        }
-        if (right != null && right.getValue() != null) {
-            if (need.equals(right.getValue())) {
-                return "1";
-            }
-        }
-        if (left != null) {
-            String leftPath = findHuffPath(left, need);
-            if (leftPath.length() > 0) {
-                return "0" + leftPath;
-            }
-        }
-        if (right != null) {
-            String rightPath = findHuffPath(right, need);
-            if (rightPath.length() > 0) {
-                return "1" + rightPath;
-            }
-        }
-        return "";
-    }
-
     private String toJson(Object anObject) {
         String output = "";
         try {
@@ -814,38 +444,6 @@ public class X509V3ExtensionUtil extends X509Util {
         return output;
     }
 
-    private byte[] byteProcess(List<String> entries) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DeflaterOutputStream dos = new DeflaterOutputStream(baos,
-            new Deflater(Deflater.BEST_COMPRESSION));
-        for (String segment : entries) {
-            dos.write(segment.getBytes(StandardCharsets.UTF_8));
-            dos.write("\0".getBytes(StandardCharsets.UTF_8));
-        }
-        dos.finish();
-        dos.close();
-        return baos.toByteArray();
-    }
-
-    private List<HuffNode> getStringNodeList(List<String> pathStrings) {
-        List<HuffNode> nodes = new ArrayList<>();
-        int idx = 1;
-        for (String part : pathStrings) {
-            nodes.add(new HuffNode(part, idx++));
-        }
-        nodes.add(new HuffNode(END_NODE, idx));
-        return nodes;
-    }
-
-    private List<HuffNode> getPathNodeNodeList(List<PathNode> pathNodes) {
-        List<HuffNode> nodes = new ArrayList<>();
-        int idx = 0;
-        for (PathNode pn : pathNodes) {
-            nodes.add(new HuffNode(pn, idx++));
-        }
-        return nodes;
-    }
-
     public HuffNode makeTrie(List<HuffNode> nodesList) {
         // drop the first node if path node value, it is not needed
         if (nodesList.get(0).getValue() instanceof PathNode) {
@@ -861,9 +459,6 @@ public class X509V3ExtensionUtil extends X509Util {
             nodesList.remove(hn2);
             nodesList.add(merged);
         }
-        if (TREE_DEBUG) {
-            printTrie(nodesList.get(0), 0);
-        }
         return nodesList.get(0);
     }
 
@@ -1073,17 +668,11 @@ public class X509V3ExtensionUtil extends X509Util {
         }
     }
 
-    private byte[] processPayload(String payload) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DeflaterOutputStream dos = new DeflaterOutputStream(baos);
-        dos.write(payload.getBytes(StandardCharsets.UTF_8));
-        dos.finish();
-        dos.close();
-        return baos.toByteArray();
+    private byte[] processPayload(String payload) {
+        return PAYLOAD_DEFLATER_POOL.deflate(payload.getBytes(StandardCharsets.UTF_8));
     }
 
     public class HuffNode {
-        private long id = 0;
         private Object value = null;
         private int weight = 0;
         private HuffNode left = null;
@@ -1094,12 +683,10 @@ public class X509V3ExtensionUtil extends X509Util {
             this.weight = weight;
             this.left = left;
             this.right = right;
-            this.id = huffNodeId++;
         }
         public HuffNode(Object value, int weight) {
             this.value = value;
             this.weight = weight;
-            this.id = huffNodeId++;
         }
 
         public Object getValue() {
@@ -1118,13 +705,8 @@ public class X509V3ExtensionUtil extends X509Util {
             return this.right;
         }
 
-        long getId() {
-            return this.id;
-        }
-
         public String toString() {
-            return "ID: " + id +
-                   ", Value: " + value +
+            return "Value: " + value +
                    ", Weight: " + weight +
                    ", Left: " + left +
                    ", Right: " + right;
@@ -1132,18 +714,9 @@ public class X509V3ExtensionUtil extends X509Util {
     }
 
     public class PathNode {
-        private long id = 0;
         private List<NodePair> children = new ArrayList<>();
         private List<PathNode> parents = new ArrayList<>();
 
-        public PathNode() {
-            this.id = pathNodeId++;
-        }
-
-        public long getId() {
-            return id;
-        }
-
         void addChild(NodePair cp) {
             this.children.add(cp);
         }
@@ -1163,53 +736,8 @@ public class X509V3ExtensionUtil extends X509Util {
             return this.parents;
         }
 
-        void setParents(List<PathNode> parents) {
-            this.parents = parents;
-        }
-
-        void addParents(List<PathNode> parents) {
-            for (PathNode pn : parents) {
-                addParent(pn);
-            }
-        }
-
-        boolean isEquivalentTo(PathNode that) {
-            if (this.getId() == that.getId()) {
-                return true;
-            }
-            // same number of children with the same names for child nodes
-            if (this.getChildren().size() != that.getChildren().size()) {
-                return false;
-            }
-            for (NodePair thisnp : this.getChildren()) {
-                boolean found = false;
-                for (NodePair thatnp : that.getChildren()) {
-                    if (thisnp.getName().equals(thatnp.getName())) {
-                        if (thisnp.getConnection().isEquivalentTo(thatnp.getConnection())) {
-                            found = true;
-                            break;
-                        }
-                        else {
-                            return false;
-                        }
-                    }
-                }
-                if (!found) {
-                    return false;
-                }
-            }
-            return true;
-        }
-
         public String toString() {
-            StringBuilder parentList = new StringBuilder("ID: ");
-            parentList.append(id).append(", Parents");
-            for (PathNode parent : parents) {
-                parentList.append(": ").append(parent.getId());
-            }
-
-            // "ID: " + id + ", Parents" + parentList + ", Children: " + children;
-            return parentList.append(", Children: ").append(children).toString();
+            return "Parents: " + parents.size() + ", Children: " + children;
         }
     }
 
@@ -1230,12 +758,8 @@ public class X509V3ExtensionUtil extends X509Util {
             return connection;
         }
 
-        void setConnection(PathNode connection) {
-            this.connection = connection;
-        }
-
         public String toString() {
-            return "Name: " + name + ", Connection: " + connection.getId();
+            return "Name: " + name;
         }
 
         /* (non-Javadoc)
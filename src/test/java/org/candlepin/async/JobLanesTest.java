@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.ConfigurationException;
+import org.candlepin.config.DevConfig;
+import org.candlepin.config.TestConfig;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Set;
+
+
+
+/**
+ * Test suite for the JobLanes class
+ */
+public class JobLanesTest {
+
+    private DevConfig config;
+
+    @BeforeEach
+    public void setUp() {
+        this.config = TestConfig.defaults();
+    }
+
+    private void setLaneConfig(String lane, String cfgName, String value) {
+        this.config.setProperty(ConfigProperties.jobLaneConfig(lane, cfgName), value);
+    }
+
+    private void assignJob(String jobKey, String lane) {
+        String key = ConfigProperties.jobConfig(jobKey, ConfigProperties.ASYNC_JOBS_JOB_LANE);
+        this.config.setProperty(key, lane);
+    }
+
+    @Test
+    public void testDefaultConfigurationUsesSingleDefaultLane() throws Exception {
+        this.config.setProperty(ConfigProperties.ASYNC_JOBS_THREADS, "7");
+
+        JobLanes lanes = new JobLanes(this.config);
+
+        List<JobLanes.Lane> output = lanes.getLanes();
+        assertEquals(1, output.size());
+
+        JobLanes.Lane lane = output.get(0);
+        assertTrue(lane.isDefault());
+        assertEquals(7, lane.threads());
+        assertEquals(JobLanes.DEFAULT_PRIORITY, lane.priority());
+        assertTrue(lane.jobKeys().isEmpty());
+
+        assertEquals(0, lanes.getSharedThreads());
+        assertEquals(lane, lanes.getLane("RefreshPoolsJob"));
+    }
+
+    @Test
+    public void testAssignsJobsToConfiguredLanes() throws Exception {
+        this.config.setProperty(ConfigProperties.ASYNC_JOBS_LANES, "maintenance, interactive");
+        this.config.setProperty(ConfigProperties.ASYNC_JOBS_SHARED_THREADS, "2");
+        this.setLaneConfig("maintenance", ConfigProperties.ASYNC_JOBS_LANE_THREADS, "2");
+        this.setLaneConfig("maintenance", ConfigProperties.ASYNC_JOBS_LANE_PRIORITY, "1");
+        this.setLaneConfig("interactive", ConfigProperties.ASYNC_JOBS_LANE_THREADS, "4");
+        this.setLaneConfig("interactive", ConfigProperties.ASYNC_JOBS_LANE_PRIORITY, "8");
+        this.assignJob("RefreshPoolsJob", "maintenance");
+        this.assignJob("ImportJob", "maintenance");
+        this.assignJob("EntitlerJob", "interactive");
+
+        JobLanes lanes = new JobLanes(this.config);
+
+        List<JobLanes.Lane> output = lanes.getLanes();
+        assertEquals(3, output.size());
+        assertTrue(output.get(0).isDefault());
+
+        JobLanes.Lane maintenance = output.get(1);
+        assertEquals("maintenance", maintenance.name());
+        assertEquals(2, maintenance.threads());
+        assertEquals(1, maintenance.priority());
+        assertEquals(Set.of("RefreshPoolsJob", "ImportJob"), maintenance.jobKeys());
+
+        JobLanes.Lane interactive = output.get(2);
+        assertEquals("interactive", interactive.name());
+        assertEquals(4, interactive.threads());
+        assertEquals(8, interactive.priority());
+        assertEquals(Set.of("EntitlerJob"), interactive.jobKeys());
+
+        assertEquals(maintenance, lanes.getLane("ImportJob"));
+        assertEquals(interactive, lanes.getLane("EntitlerJob"));
+        assertEquals(output.get(0), lanes.getLane("JobCleaner"));
+        assertEquals(output.get(0), lanes.getLane(null));
+        assertEquals(2, lanes.getSharedThreads());
+    }
+
+    @Test
+    public void testJobsMayBeAssignedToDefaultLane() throws Exception {
+        this.assignJob("RefreshPoolsJob", JobLanes.DEFAULT_LANE);
+
+        JobLanes lanes = new JobLanes(this.config);
+
+        assertTrue(lanes.getLane("RefreshPoolsJob").isDefault());
+    }
+
+    @Test
+    public void testJobsCannotBeAssignedToUndefinedLanes() {
+        this.assignJob("RefreshPoolsJob", "maintenance");
+
+        assertThrows(ConfigurationException.class, () -> new JobLanes(this.config));
+    }
+
+    @Test
+    public void testLaneNamesMustBeUnique() {
+        this.config.setProperty(ConfigProperties.ASYNC_JOBS_LANES, "maintenance, maintenance");
+
+        assertThrows(ConfigurationException.class, () -> new JobLanes(this.config));
+    }
+
+    @Test
+    public void testLaneNamesCannotUseDefaultLaneName() {
+        this.config.setProperty(ConfigProperties.ASYNC_JOBS_LANES, JobLanes.DEFAULT_LANE);
+
+        assertThrows(ConfigurationException.class, () -> new JobLanes(this.config));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "0", "-1", "many" })
+    public void testLaneThreadsMustBePositive(String threads) {
+        this.config.setProperty(ConfigProperties.ASYNC_JOBS_LANES, "maintenance");
+        this.setLaneConfig("maintenance", ConfigProperties.ASYNC_JOBS_LANE_THREADS, threads);
+
+        assertThrows(ConfigurationException.class, () -> new JobLanes(this.config));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "-1", "10" })
+    public void testLanePriorityMustBeSupportedByBroker(String priority) {
+        this.config.setProperty(ConfigProperties.ASYNC_JOBS_LANES, "maintenance");
+        this.setLaneConfig("maintenance", ConfigProperties.ASYNC_JOBS_LANE_PRIORITY, priority);
+
+        assertThrows(ConfigurationException.class, () -> new JobLanes(this.config));
+    }
+
+    @Test
+    public void testSharedThreadsCannotBeNegative() {
+        this.config.setProperty(ConfigProperties.ASYNC_JOBS_SHARED_THREADS, "-1");
+
+        assertThrows(ConfigurationException.class, () -> new JobLanes(this.config));
+    }
+
+}
@@ -107,6 +107,7 @@ import org.quartz.impl.matchers.GroupMatcher;
 import org.slf4j.MDC;
 import org.slf4j.event.Level;
 
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -119,6 +120,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -1376,6 +1378,152 @@ public class JobManagerTest {
         assertThat(result.getJobResult(), containsString("Job blocked by the following existing jobs:"));
     }
 
+    /**
+     * Configures the mocked job curator to assign an ID to each job status it persists, as
+     * Hibernate would.
+     */
+    private void assignJobIdsOnCreate() {
+        AtomicInteger counter = new AtomicInteger();
+
+        doAnswer(iom -> {
+            AsyncJobStatus status = iom.getArgument(0);
+
+            Field field = AsyncJobStatus.class.getDeclaredField("id");
+            field.setAccessible(true);
+            field.set(status, "job-" + counter.incrementAndGet());
+
+            return status;
+        }).when(this.jobCurator).create(any(AsyncJobStatus.class), eq(false));
+    }
+
+    @Test
+    public void testQueueJobsQueuesAllJobs() throws Exception {
+        this.assignJobIdsOnCreate();
+
+        List<JobConfig> configs = List.of(
+            JobConfig.forJob(TestJob.JOB_KEY).setJobArgument("arg1", "val1"),
+            JobConfig.forJob(TestJob.JOB_KEY).setJobArgument("arg1", "val2"),
+            JobConfig.forJob(TestJob.JOB_KEY).setJobArgument("arg1", "val3"));
+
+        JobManager manager = this.createJobManager();
+        manager.initialize();
+        manager.start();
+
+        List<AsyncJobStatus> result = manager.queueJobs(configs);
+
+        assertNotNull(result);
+        assertEquals(3, result.size());
+
+        for (AsyncJobStatus status : result) {
+            assertEquals(JobState.QUEUED, status.getState());
+        }
+
+        ArgumentCaptor<JobMessage> captor = ArgumentCaptor.forClass(JobMessage.class);
+        verify(this.dispatcher, times(3)).postJobMessage(captor.capture());
+        verify(this.jobCurator, times(3)).create(any(AsyncJobStatus.class), eq(false));
+        verify(this.jobCurator, times(1)).flush();
+
+        List<String> expected = result.stream()
+            .map(AsyncJobStatus::getId)
+            .collect(Collectors.toList());
+
+        List<String> posted = captor.getAllValues().stream()
+            .map(JobMessage::getJobId)
+            .collect(Collectors.toList());
+
+        assertEquals(expected, posted);
+    }
+
+    @Test
+    public void testQueueJobsWithNoJobs() throws Exception {
+        JobManager manager = this.createJobManager();
+        manager.initialize();
+        manager.start();
+
+        List<AsyncJobStatus> result = manager.queueJobs(List.of());
+
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+
+        verify(this.jobCurator, never()).create(any(AsyncJobStatus.class), eq(false));
+        verify(this.dispatcher, never()).postJobMessage(any(JobMessage.class));
+    }
+
+    @Test
+    public void testQueueJobsRequiresJobConfigs() {
+        JobManager manager = this.createJobManager();
+        manager.initialize();
+        manager.start();
+
+        assertThrows(IllegalArgumentException.class, () -> manager.queueJobs(null));
+        assertThrows(IllegalArgumentException.class, () -> manager.queueJobs(
+            Arrays.asList(JobConfig.forJob(TestJob.JOB_KEY), null)));
+
+        verify(this.jobCurator, never()).create(any(AsyncJobStatus.class), eq(false));
+    }
+
+    @Test
+    public void testQueueJobsTestsSharedConstraintsOnce() throws Exception {
+        this.assignJobIdsOnCreate();
+
+        Map<String, Map<String, String>> existing = Map.of("existing_job",
+            Map.of("arg1", JobArguments.serialize("val3")));
+        doReturn(existing).when(this.jobCurator).fetchJobArgumentsByKey(eq(TestJob.JOB_KEY), any());
+
+        List<JobConfig> configs = Stream.of("val1", "val1", "val2", "val3")
+            .map(value -> JobConfig.forJob(TestJob.JOB_KEY)
+                .addConstraint(JobConstraints.uniqueByArguments("arg1"))
+                .setJobArgument("arg1", value))
+            .collect(Collectors.toList());
+
+        JobManager manager = this.createJobManager();
+        manager.initialize();
+        manager.start();
+
+        List<AsyncJobStatus> result = manager.queueJobs(configs);
+
+        assertNotNull(result);
+        assertEquals(4, result.size());
+
+        assertEquals(JobState.QUEUED, result.get(0).getState());
+        assertEquals(JobState.ABORTED, result.get(1).getState());
+        assertEquals(JobState.QUEUED, result.get(2).getState());
+        assertEquals(JobState.ABORTED, result.get(3).getState());
+
+        // Jobs earlier in the batch should block later duplicates
+        assertThat(result.get(1).getJobResult(), containsString(result.get(0).getId()));
+        assertThat(result.get(3).getJobResult(), containsString("existing_job"));
+
+        verify(this.jobCurator, times(1)).fetchJobArgumentsByKey(eq(TestJob.JOB_KEY), any());
+        verify(this.jobCurator, never()).fetchJobIdsByArguments(anyString(), any());
+        verify(this.dispatcher, times(2)).postJobMessage(any(JobMessage.class));
+    }
+
+    @Test
+    public void testQueueJobsAbortsOnlyJobsWhichFailToDispatch() throws Exception {
+        this.assignJobIdsOnCreate();
+
+        doThrow(new JobMessageDispatchException())
+            .doNothing()
+            .when(this.dispatcher).postJobMessage(any(JobMessage.class));
+
+        List<JobConfig> configs = List.of(
+            JobConfig.forJob(TestJob.JOB_KEY).setJobArgument("arg1", "val1"),
+            JobConfig.forJob(TestJob.JOB_KEY).setJobArgument("arg1", "val2"));
+
+        JobManager manager = this.createJobManager();
+        manager.initialize();
+        manager.start();
+
+        List<AsyncJobStatus> result = manager.queueJobs(configs);
+
+        assertNotNull(result);
+        assertEquals(2, result.size());
+        assertEquals(JobState.ABORTED, result.get(0).getState());
+        assertEquals(JobState.QUEUED, result.get(1).getState());
+        verify(this.dispatcher, never()).rollback();
+    }
+
     @Test
     public void jobStatusFound() {
         String jobId = "jobId";
@@ -17,6 +17,7 @@ package org.candlepin.async;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.eq;
@@ -43,6 +44,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -149,7 +151,8 @@ public class JobMessageDispatcherTest {
     }
 
     private JobMessageDispatcher buildJobMessageDispatcher() throws ConfigurationException {
-        return new JobMessageDispatcher(this.config, this.sessionFactory, this.mapper);
+        return new JobMessageDispatcher(this.config, this.sessionFactory, this.mapper,
+            new JobLanes(this.config));
     }
 
     private CPMSession mockCPMSession() throws Exception {
@@ -167,6 +170,7 @@ public class JobMessageDispatcherTest {
         CPMMessage message = mock(CPMMessage.class);
 
         doReturn(message).when(message).setDurable(anyBoolean());
+        doReturn(message).when(message).setPriority(anyInt());
         doReturn(message).when(message).setBody(anyString());
         doReturn(message).when(message).setProperty(anyString(), anyString());
 
@@ -205,6 +209,34 @@ public class JobMessageDispatcherTest {
         verify(producer, times(1)).send(eq(address), any(CPMMessage.class));
     }
 
+    @Test
+    public void testDispatchesMessagesWithLanePriority() throws Exception {
+        this.config.setProperty(ConfigProperties.ASYNC_JOBS_LANES, "maintenance");
+        this.config.setProperty(ConfigProperties.jobLaneConfig("maintenance",
+            ConfigProperties.ASYNC_JOBS_LANE_PRIORITY), "1");
+        this.config.setProperty(ConfigProperties.jobConfig("job_key-1", ConfigProperties.ASYNC_JOBS_JOB_LANE),
+            "maintenance");
+
+        JobMessageDispatcher dispatcher = this.buildJobMessageDispatcher();
+
+        CPMSession session = this.mockCPMSession();
+        CPMProducer producer = mock(CPMProducer.class);
+
+        doReturn(session).when(this.sessionFactory).createSession(any(CPMSessionConfig.class));
+        doReturn(producer).when(session).createProducer(any(CPMProducerConfig.class));
+
+        dispatcher.postJobMessage(new JobMessage("job_id-1", "job_key-1"));
+        dispatcher.postJobMessage(new JobMessage("job_id-2", "job_key-2"));
+
+        ArgumentCaptor<CPMMessage> captor = ArgumentCaptor.forClass(CPMMessage.class);
+        verify(producer, times(2)).send(anyString(), captor.capture());
+
+        // Both messages are backed by the same mock
+        CPMMessage message = captor.getValue();
+        verify(message, times(1)).setPriority(1);
+        verify(message, times(1)).setPriority(JobLanes.DEFAULT_PRIORITY);
+    }
+
     @Test
     public void testThreadsReuseSessions() throws Exception {
         JobMessageDispatcher dispatcher = this.buildJobMessageDispatcher();
@@ -17,6 +17,7 @@ package org.candlepin.async;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doAnswer;
@@ -51,6 +52,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 
 
 public class JobMessageReceiverTest {
@@ -143,7 +148,7 @@ public class JobMessageReceiverTest {
 
     private JobMessageReceiver buildJobMessageReceiver() throws Exception {
         JobMessageReceiver receiver = new JobMessageReceiver(this.config, this.cpmSessionFactory,
-            this.mapper, this.unitOfWork);
+            this.mapper, this.unitOfWork, new JobLanes(this.config));
 
         receiver.initialize(this.jobManager);
 
@@ -155,7 +160,7 @@ public class JobMessageReceiverTest {
         this.config.clearProperty(ConfigProperties.ASYNC_JOBS_RECEIVE_ADDRESS);
 
         assertThrows(ConfigurationException.class, () -> new JobMessageReceiver(
-            this.config, this.cpmSessionFactory, this.mapper, this.unitOfWork));
+            this.config, this.cpmSessionFactory, this.mapper, this.unitOfWork, new JobLanes(this.config)));
     }
 
     @Test
@@ -197,6 +202,77 @@ public class JobMessageReceiverTest {
         assertEquals(filter, config.getMessageFilter());
     }
 
+    private void configureMaintenanceLane(int threads) {
+        this.config.setProperty(ConfigProperties.ASYNC_JOBS_LANES, "maintenance");
+        this.config.setProperty(ConfigProperties.jobLaneConfig("maintenance",
+            ConfigProperties.ASYNC_JOBS_LANE_THREADS), String.valueOf(threads));
+        this.config.setProperty(ConfigProperties.jobConfig("RefreshPoolsJob",
+            ConfigProperties.ASYNC_JOBS_JOB_LANE), "maintenance");
+        this.config.setProperty(ConfigProperties.jobConfig("ImportJob",
+            ConfigProperties.ASYNC_JOBS_JOB_LANE), "maintenance");
+    }
+
+    @Test
+    public void testCreatesConsumersForEachLane() throws Exception {
+        this.configureMaintenanceLane(2);
+        this.config.setProperty(ConfigProperties.ASYNC_JOBS_SHARED_THREADS, "1");
+
+        ArgumentCaptor<CPMConsumerConfig> captor = ArgumentCaptor.forClass(CPMConsumerConfig.class);
+
+        this.buildJobMessageReceiver();
+
+        verify(this.session, times(4)).createConsumer(captor.capture());
+
+        List<String> filters = captor.getAllValues().stream()
+            .map(CPMConsumerConfig::getMessageFilter)
+            .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(
+            "(job_key IS NULL OR job_key NOT IN ('ImportJob', 'RefreshPoolsJob'))",
+            "job_key IN ('ImportJob', 'RefreshPoolsJob')",
+            "job_key IN ('ImportJob', 'RefreshPoolsJob')",
+            null), filters);
+    }
+
+    @Test
+    public void testLaneConsumersRetainConfiguredFilter() throws Exception {
+        this.configureMaintenanceLane(1);
+        this.config.setProperty(ConfigProperties.ASYNC_JOBS_RECEIVE_FILTER, "node = 'a'");
+
+        ArgumentCaptor<CPMConsumerConfig> captor = ArgumentCaptor.forClass(CPMConsumerConfig.class);
+
+        this.buildJobMessageReceiver();
+
+        verify(this.session, times(2)).createConsumer(captor.capture());
+
+        List<CPMConsumerConfig> configs = captor.getAllValues();
+        assertEquals("(node = 'a') AND (job_key IS NULL OR job_key NOT IN ('ImportJob', 'RefreshPoolsJob'))",
+            configs.get(0).getMessageFilter());
+        assertEquals("(node = 'a') AND job_key IN ('ImportJob', 'RefreshPoolsJob')",
+            configs.get(1).getMessageFilter());
+    }
+
+    @Test
+    public void testRecordsJobStats() throws Exception {
+        CPMMessage message = this.createCPMMessage("test_id", "test_key");
+        doReturn(System.currentTimeMillis() - 5000).when(message).getTimestamp();
+
+        JobMessageReceiver receiver = this.buildJobMessageReceiver();
+        CPMMessageListener listener = this.listenerContainer.get();
+        assertNotNull(listener);
+
+        listener.handleMessage(this.session, this.consumer, message);
+
+        List<JobExecutionStats.JobStats> stats = receiver.getJobStats();
+        assertEquals(1, stats.size());
+
+        JobExecutionStats.JobStats jobStats = stats.get(0);
+        assertEquals("test_key", jobStats.jobKey());
+        assertEquals(1, jobStats.queueWait().count());
+        assertTrue(jobStats.queueWait().max() >= 5000);
+        assertEquals(1, jobStats.runTime().count());
+    }
+
     @Test
     public void testMessageAckAndSessionCommitOnSuccess() throws Exception {
         CPMMessage message = this.createCPMMessage("test_id", "test_key");
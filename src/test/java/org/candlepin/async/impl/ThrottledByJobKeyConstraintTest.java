@@ -60,6 +60,25 @@ class ThrottledByJobKeyConstraintTest extends DatabaseTestFixture {
         assertTrue(conflicting.isEmpty());
     }
 
+    @Test
+    void shouldThrottleBatchesExceedingTheLimit() {
+        List<AsyncJobStatus> existing = conflictingJobs(2);
+        JobConstraint constraint = new ThrottledByJobKeyConstraint(TEST_KEY, LIMIT);
+
+        AsyncJobStatus inbound1 = new AsyncJobStatus()
+            .setJobKey(TEST_KEY);
+        AsyncJobStatus inbound2 = new AsyncJobStatus()
+            .setJobKey(TEST_KEY);
+
+        JobConstraint.BatchTest test = constraint.prepare(this.asyncJobCurator, List.of(inbound1, inbound2));
+
+        assertTrue(test.test(inbound1).isEmpty());
+        test.accept(this.asyncJobCurator.merge(inbound1));
+
+        Collection<String> conflicting = test.test(inbound2);
+        assertEquals(3, conflicting.size());
+    }
+
     private List<AsyncJobStatus> conflictingJobs(int n) {
         return Stream.generate(this::conflictingJob)
             .limit(n)
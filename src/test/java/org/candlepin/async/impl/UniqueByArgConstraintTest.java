@@ -17,6 +17,7 @@ package org.candlepin.async.impl;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -425,4 +426,63 @@ public class UniqueByArgConstraintTest extends DatabaseTestFixture {
         assertThat(result, hasItem(existing3.getId()));
     }
 
+    @Test
+    public void testBatchTestMatchesExistingJobs() {
+        AsyncJobStatus existing1 = this.persistJobStatus("existing1", "test_key", this.map("param1", "val1"));
+        this.persistJobStatus("existing2", "other_key", this.map("param1", "val2"));
+
+        AsyncJobStatus inbound1 = this.buildJobStatus("inbound1", "test_key", this.map("param1", "val1"));
+        AsyncJobStatus inbound2 = this.buildJobStatus("inbound2", "test_key", this.map("param1", "val2"));
+        AsyncJobStatus inbound3 = this.buildJobStatus("inbound3", "test_key", this.map("param2", "val1"));
+
+        JobConstraint constraint = new UniqueByArgConstraint("param1");
+        JobConstraint.BatchTest test = constraint.prepare(this.asyncJobCurator,
+            Arrays.asList(inbound1, inbound2, inbound3));
+
+        Collection<String> result = test.test(inbound1);
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertThat(result, hasItem(existing1.getId()));
+
+        result = test.test(inbound2);
+        assertTrue(result == null || result.isEmpty());
+
+        result = test.test(inbound3);
+        assertTrue(result == null || result.isEmpty());
+    }
+
+    @Test
+    public void testBatchTestMatchesAcceptedJobs() {
+        AsyncJobStatus inbound1 = this.buildJobStatus("inbound1", "test_key", this.map("param1", "val1"));
+        AsyncJobStatus inbound2 = this.buildJobStatus("inbound2", "test_key", this.map("param1", "val1"));
+        AsyncJobStatus inbound3 = this.buildJobStatus("inbound3", "test_key", this.map("param1", "val2"));
+
+        JobConstraint constraint = new UniqueByArgConstraint("param1");
+        JobConstraint.BatchTest test = constraint.prepare(this.asyncJobCurator,
+            Arrays.asList(inbound1, inbound2, inbound3));
+
+        Collection<String> result = test.test(inbound1);
+        assertTrue(result == null || result.isEmpty());
+
+        AsyncJobStatus queued = this.asyncJobCurator.merge(inbound1);
+        test.accept(queued);
+
+        result = test.test(inbound2);
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertThat(result, hasItem(queued.getId()));
+
+        result = test.test(inbound3);
+        assertTrue(result == null || result.isEmpty());
+    }
+
+    @Test
+    public void testEquality() {
+        assertEquals(new UniqueByArgConstraint("param1", "param2"),
+            new UniqueByArgConstraint("param1", "param2"));
+        assertEquals(new UniqueByArgConstraint("param1", "param2").hashCode(),
+            new UniqueByArgConstraint("param1", "param2").hashCode());
+        assertNotEquals(new UniqueByArgConstraint("param1"), new UniqueByArgConstraint("param2"));
+    }
+
 }
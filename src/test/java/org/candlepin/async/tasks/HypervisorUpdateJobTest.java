@@ -16,6 +16,7 @@ package org.candlepin.async.tasks;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -25,6 +26,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -44,8 +46,12 @@ import org.candlepin.config.Configuration;
 import org.candlepin.dto.ModelTranslator;
 import org.candlepin.dto.StandardTranslator;
 import org.candlepin.dto.api.server.v1.ConsumerDTO;
+import org.candlepin.dto.api.server.v1.GuestIdDTO;
+import org.candlepin.dto.api.server.v1.HypervisorIdDTO;
+import org.candlepin.model.CandlepinQuery;
 import org.candlepin.model.Consumer;
 import org.candlepin.model.ConsumerCurator;
+import org.candlepin.model.ConsumerCurator.HypervisorReportState;
 import org.candlepin.model.ConsumerType;
 import org.candlepin.model.ConsumerType.ConsumerTypeEnum;
 import org.candlepin.model.ConsumerTypeCurator;
@@ -67,7 +73,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -540,4 +549,200 @@ public class HypervisorUpdateJobTest {
         assertEquals(currentDate, updated.getRHCloudProfileModified());
     }
 
+    private ConsumerDTO buildHypervisorDTO(String hypervisorId) {
+        HypervisorIdDTO hypervisorIdDTO = new HypervisorIdDTO();
+        hypervisorIdDTO.setHypervisorId(hypervisorId);
+
+        ConsumerDTO hypervisor = new ConsumerDTO();
+        hypervisor.setName(hypervisorId + "_name");
+        hypervisor.setHypervisorId(hypervisorIdDTO);
+
+        return hypervisor;
+    }
+
+    private Consumer buildHypervisorConsumer(String hypervisorId) {
+        Consumer hypervisor = new Consumer();
+        hypervisor.ensureUUID();
+        hypervisor.setName(hypervisorId + "_name");
+        hypervisor.setOwner(owner);
+        hypervisor.setHypervisorId(new HypervisorId().setHypervisorId(hypervisorId));
+
+        return hypervisor;
+    }
+
+    private void mockHypervisorsBulk(Consumer... consumers) {
+        CandlepinQuery<Consumer> query = mock(CandlepinQuery.class);
+        doAnswer(iom -> List.of(consumers).iterator()).when(query).iterator();
+        when(consumerCurator.getHypervisorsBulk(any(), eq("joe"))).thenReturn(query);
+    }
+
+    @Test
+    public void testChunkedUpdateResolvesHostsInBulk() {
+        when(config.getInt(ConfigProperties.HYPERVISOR_UPDATE_CHUNK_SIZE)).thenReturn(10);
+
+        Consumer existing = this.buildHypervisorConsumer("hv1");
+        this.mockHypervisorsBulk(existing);
+
+        List<ConsumerDTO> hypervisors = new ArrayList<>(List.of(this.buildHypervisorDTO("hv1"),
+            this.buildHypervisorDTO("hv2")));
+
+        HypervisorUpdateAction.Result result = hypervisorUpdateAction.update(owner, hypervisors, true,
+            "joe user", null);
+
+        verify(consumerCurator, times(1)).getHypervisorsBulk(any(), eq("joe"));
+        verify(consumerCurator, never()).getExistingConsumerByHypervisorIdOrUuid(any(), any(), any());
+        verify(consumerCurator, times(1)).create(any(Consumer.class));
+        verify(consumerCurator, times(1)).update(existing);
+        verify(sink, times(1)).sendEvents();
+
+        assertEquals(1, result.getResult().getCreated().size());
+        assertEquals(1, result.getResult().getUpdated().size());
+        assertSame(existing, result.getKnownConsumers().get("hv1"));
+        assertNotNull(result.getKnownConsumers().get("hv2"));
+    }
+
+    @Test
+    public void testFailedChunkFallsBackToPerHostUpdates() {
+        when(config.getInt(ConfigProperties.HYPERVISOR_UPDATE_CHUNK_SIZE)).thenReturn(10);
+        when(consumerCurator.getHypervisorsBulk(any(), eq("joe"))).thenThrow(new RuntimeException("boom"));
+
+        Consumer existing = this.buildHypervisorConsumer("hv1");
+        when(consumerCurator.getExistingConsumerByHypervisorIdOrUuid(eq("joe"), eq("hv1"), isNull()))
+            .thenReturn(existing);
+
+        List<ConsumerDTO> hypervisors = new ArrayList<>(List.of(this.buildHypervisorDTO("hv1"),
+            this.buildHypervisorDTO("hv2")));
+
+        HypervisorUpdateAction.Result result = hypervisorUpdateAction.update(owner, hypervisors, true,
+            "joe user", null);
+
+        verify(sink, times(1)).rollback();
+        verify(consumerCurator, times(1)).clear();
+        verify(consumerCurator, times(2)).getExistingConsumerByHypervisorIdOrUuid(eq("joe"), anyString(),
+            isNull());
+        verify(consumerCurator, times(1)).create(any(Consumer.class));
+        verify(consumerCurator, times(1)).update(existing);
+
+        assertEquals(1, result.getResult().getCreated().size());
+        assertEquals(1, result.getResult().getUpdated().size());
+    }
+
+    @Test
+    public void testChunkedUpdateDefersHostsClaimingTheSameConsumer() {
+        when(config.getInt(ConfigProperties.HYPERVISOR_UPDATE_CHUNK_SIZE)).thenReturn(10);
+        when(config.getBoolean(ConfigProperties.USE_SYSTEM_UUID_FOR_MATCHING)).thenReturn(true);
+
+        Consumer existing = this.buildHypervisorConsumer("hv1");
+        this.mockHypervisorsBulk(existing);
+        when(consumerCurator.getConsumersBySystemUuids(eq("joe"), any()))
+            .thenReturn(Map.of("system-uuid", existing));
+        when(consumerCurator.getExistingConsumerByHypervisorIdOrUuid(eq("joe"), eq("hv2"),
+            eq("system-uuid"))).thenReturn(existing);
+
+        ConsumerDTO hypervisor1 = this.buildHypervisorDTO("hv1");
+        ConsumerDTO hypervisor2 = this.buildHypervisorDTO("hv2");
+        hypervisor2.setFacts(Map.of(Consumer.Facts.DMI_SYSTEM_UUID, "system-uuid"));
+
+        hypervisorUpdateAction.update(owner, new ArrayList<>(List.of(hypervisor1, hypervisor2)), true,
+            "joe user", null);
+
+        // The second host matches the first host's consumer by system UUID, and must be processed
+        // after the first host has been committed
+        verify(consumerCurator, never()).getExistingConsumerByHypervisorIdOrUuid(any(), eq("hv1"), any());
+        verify(consumerCurator, times(1)).getExistingConsumerByHypervisorIdOrUuid(eq("joe"), eq("hv2"),
+            eq("system-uuid"));
+        verify(consumerCurator, never()).create(any(Consumer.class));
+        verify(consumerCurator, times(2)).update(existing);
+    }
+
+    @Test
+    public void testUnchangedHostsOnlyCheckIn() {
+        when(config.getBoolean(ConfigProperties.HYPERVISOR_UPDATE_SKIP_UNCHANGED)).thenReturn(true);
+
+        Consumer existing = this.buildHypervisorConsumer("hv1");
+        existing.setId("hv1_id");
+        when(consumerCurator.getExistingConsumerByHypervisorIdOrUuid(eq("joe"), eq("hv1"), isNull()))
+            .thenReturn(existing);
+
+        hypervisorUpdateAction.update(owner, new ArrayList<>(List.of(this.buildHypervisorDTO("hv1"))),
+            true, "joe user", "reporter");
+
+        String digest = existing.getHypervisorId().getReportDigest();
+        assertNotNull(digest);
+
+        when(consumerCurator.getHypervisorReportStates(eq("joe"), eq("test-ctype"), any()))
+            .thenReturn(Map.of("hv1", new HypervisorReportState("hv1_id", existing.getUuid(),
+            existing.getName(), digest)));
+
+        HypervisorUpdateAction.Result result = hypervisorUpdateAction.update(owner,
+            new ArrayList<>(List.of(this.buildHypervisorDTO("hv1"))), true, "joe user", "reporter");
+
+        ArgumentCaptor<Map<String, Date>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(consumerCurator, times(1)).updateLastCheckins(captor.capture());
+        assertEquals(Set.of("hv1_id"), captor.getValue().keySet());
+
+        verify(consumerCurator, times(1)).getExistingConsumerByHypervisorIdOrUuid(any(), any(), any());
+        verify(consumerCurator, times(1)).update(existing);
+
+        assertEquals(1, result.getResult().getUnchanged().size());
+        assertEquals(existing.getUuid(), result.getResult().getUnchanged().iterator().next().getUuid());
+        assertEquals(0, result.getResult().getUpdated().size());
+    }
+
+    @Test
+    public void testChangedHostsAreReconciled() {
+        when(config.getBoolean(ConfigProperties.HYPERVISOR_UPDATE_SKIP_UNCHANGED)).thenReturn(true);
+
+        Consumer existing = this.buildHypervisorConsumer("hv1");
+        existing.setId("hv1_id");
+        existing.getHypervisorId().setReportDigest("stale");
+        when(consumerCurator.getExistingConsumerByHypervisorIdOrUuid(eq("joe"), eq("hv1"), isNull()))
+            .thenReturn(existing);
+        when(consumerCurator.getHypervisorReportStates(eq("joe"), eq("test-ctype"), any()))
+            .thenReturn(Map.of("hv1", new HypervisorReportState("hv1_id", existing.getUuid(),
+            existing.getName(), "stale")));
+
+        ConsumerDTO hypervisor = this.buildHypervisorDTO("hv1");
+        hypervisor.setName("renamed");
+
+        HypervisorUpdateAction.Result result = hypervisorUpdateAction.update(owner,
+            new ArrayList<>(List.of(hypervisor)), true, "joe user", "reporter");
+
+        verify(consumerCurator, never()).updateLastCheckins(any());
+        verify(consumerCurator, times(1)).update(existing);
+
+        assertEquals("renamed", existing.getName());
+        assertNotNull(existing.getHypervisorId().getReportDigest());
+        assertNotEquals("stale", existing.getHypervisorId().getReportDigest());
+        assertEquals(1, result.getResult().getUpdated().size());
+    }
+
+    @Test
+    public void testReportDigestIgnoresGuestOrder() {
+        when(config.getBoolean(ConfigProperties.HYPERVISOR_UPDATE_SKIP_UNCHANGED)).thenReturn(true);
+
+        Consumer existing = this.buildHypervisorConsumer("hv1");
+        when(consumerCurator.getExistingConsumerByHypervisorIdOrUuid(eq("joe"), eq("hv1"), isNull()))
+            .thenReturn(existing);
+
+        ConsumerDTO hypervisor1 = this.buildHypervisorDTO("hv1");
+        hypervisor1.setGuestIds(new ArrayList<>(List.of(new GuestIdDTO().guestId("g1"),
+            new GuestIdDTO().guestId("g2"))));
+
+        hypervisorUpdateAction.update(owner, new ArrayList<>(List.of(hypervisor1)), true, "joe user", null);
+        String digest1 = existing.getHypervisorId().getReportDigest();
+
+        existing.getHypervisorId().setReportDigest(null);
+
+        ConsumerDTO hypervisor2 = this.buildHypervisorDTO("hv1");
+        hypervisor2.setGuestIds(new ArrayList<>(List.of(new GuestIdDTO().guestId("g2"),
+            new GuestIdDTO().guestId("g1"))));
+
+        hypervisorUpdateAction.update(owner, new ArrayList<>(List.of(hypervisor2)), true, "joe user", null);
+        String digest2 = existing.getHypervisorId().getReportDigest();
+
+        assertNotNull(digest1);
+        assertEquals(digest1, digest2);
+    }
+
 }
@@ -23,6 +23,7 @@ import static org.mockito.Mockito.mock;
 import org.candlepin.async.JobExecutionContext;
 import org.candlepin.async.JobExecutionException;
 import org.candlepin.config.ConfigProperties;
+import org.candlepin.controller.ConsumerCheckInCoalescer;
 import org.candlepin.model.Consumer;
 import org.candlepin.model.ConsumerType;
 import org.candlepin.model.DeletedConsumer;
@@ -31,6 +32,8 @@ import org.candlepin.test.DatabaseTestFixture;
 import org.candlepin.test.TestUtil;
 import org.candlepin.util.Util;
 
+import com.google.inject.persist.UnitOfWork;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -55,7 +58,8 @@ public class InactiveConsumerCleanerJobTest extends DatabaseTestFixture {
             this.deletedConsumerCurator,
             this.identityCertificateCurator,
             this.caCertCurator,
-            this.certSerialCurator);
+            this.certSerialCurator,
+            this.injector.getInstance(ConsumerCheckInCoalescer.class));
     }
 
     @Test
@@ -87,6 +91,40 @@ public class InactiveConsumerCleanerJobTest extends DatabaseTestFixture {
         assertNull(this.deletedConsumerCurator.findByConsumer(activeConsumer));
     }
 
+    @Test
+    public void testExecutionWritesPendingCheckIns() throws JobExecutionException {
+        this.config.setProperty(ConfigProperties.CONSUMER_CHECKIN_FLUSH_INTERVAL, "3600000");
+        ConsumerCheckInCoalescer checkInCoalescer = new ConsumerCheckInCoalescer(this.config,
+            this.consumerCurator, this.injector.getInstance(UnitOfWork.class));
+
+        try {
+            InactiveConsumerCleanerJob job = new InactiveConsumerCleanerJob(this.config,
+                this.consumerCurator,
+                this.deletedConsumerCurator,
+                this.identityCertificateCurator,
+                this.caCertCurator,
+                this.certSerialCurator,
+                checkInCoalescer);
+
+            Consumer consumer =
+                createConsumer(InactiveConsumerCleanerJob.DEFAULT_LAST_CHECKED_IN_RETENTION_IN_DAYS + 10);
+            checkInCoalescer.recordCheckIn(consumer);
+            assertEquals(1, checkInCoalescer.getPendingCount());
+
+            job.execute(mock(JobExecutionContext.class));
+
+            consumerCurator.flush();
+            consumerCurator.clear();
+
+            assertEquals(0, checkInCoalescer.getPendingCount());
+            assertNotNull(this.consumerCurator.get(consumer.getId()));
+            assertNull(this.deletedConsumerCurator.findByConsumer(consumer));
+        }
+        finally {
+            checkInCoalescer.shutdown();
+        }
+    }
+
     @ParameterizedTest(name = "{displayName} {index}: {0}")
     @ValueSource(strings = { "0", "-50" })
     public void testExecutionWithInvalidCheckedInRetentionConfig(int rententionDays)
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.async.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.candlepin.async.JobArguments;
+import org.candlepin.async.JobConfig;
+import org.candlepin.async.JobConfigValidationException;
+import org.candlepin.async.JobExecutionContext;
+import org.candlepin.async.JobExecutionException;
+import org.candlepin.model.CandlepinQuery;
+import org.candlepin.model.Owner;
+import org.candlepin.model.OwnerCurator;
+import org.candlepin.model.PoolCurator;
+import org.candlepin.model.PoolCurator.PoolQuantityDrift;
+import org.candlepin.util.Transactional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+
+
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class PoolQuantityVerificationJobTest {
+
+    @Mock
+    private OwnerCurator ownerCurator;
+    @Mock
+    private PoolCurator poolCurator;
+    @Mock
+    private JobExecutionContext context;
+
+    private PoolQuantityVerificationJob job;
+
+    @BeforeEach
+    public void setUp() {
+        Transactional<Object> transactional = mock(Transactional.class);
+        doReturn(transactional).when(this.poolCurator).transactional();
+        doAnswer(iom -> ((Transactional.Action<?>) iom.getArgument(0)).execute())
+            .when(transactional).execute(any(Transactional.Action.class));
+
+        this.job = new PoolQuantityVerificationJob(this.ownerCurator, this.poolCurator);
+    }
+
+    private void mockJobArguments(JobConfig<?> config) {
+        JobArguments arguments = config.getJobArguments();
+        doReturn(arguments).when(this.context).getJobArguments();
+    }
+
+    @Test
+    public void testReportsAndFlagsDriftedPoolsOfAllOwners() throws Exception {
+        Owner owner1 = new Owner().setId("owner1").setKey("owner1");
+        Owner owner2 = new Owner().setId("owner2").setKey("owner2");
+
+        CandlepinQuery<Owner> query = mock(CandlepinQuery.class);
+        doReturn(List.of(owner1, owner2)).when(query).list();
+        doReturn(query).when(this.ownerCurator).listAll();
+
+        doReturn(List.of()).when(this.poolCurator).getPoolQuantityDrift(owner1);
+        doReturn(List.of(new PoolQuantityDrift("pool1", 3, 5, 0, 0)))
+            .when(this.poolCurator).getPoolQuantityDrift(owner2);
+
+        this.mockJobArguments(PoolQuantityVerificationJob.createJobConfig());
+        this.job.execute(this.context);
+
+        verify(this.poolCurator).markPoolQuantitiesSuspect(List.of("pool1"));
+        verify(this.poolCurator, never()).recalculatePoolQuantities(any());
+        verify(this.context).setJobResult("Verified pool quantities for 2 owner(s); 1 pool(s) had drifted");
+    }
+
+    @Test
+    public void testDoesNotFlagPoolsWithoutDrift() throws Exception {
+        Owner owner = new Owner().setId("owner1").setKey("owner1");
+
+        doReturn(owner).when(this.ownerCurator).getByKey("owner1");
+        doReturn(List.of()).when(this.poolCurator).getPoolQuantityDrift(owner);
+
+        this.mockJobArguments(PoolQuantityVerificationJob.createJobConfig().setOwner(owner));
+        this.job.execute(this.context);
+
+        verify(this.poolCurator, never()).markPoolQuantitiesSuspect(anyCollection());
+        verify(this.context).setJobResult("Verified pool quantities for 1 owner(s); 0 pool(s) had drifted");
+    }
+
+    @Test
+    public void testRecalculatesOwnerPoolsOnDemand() throws Exception {
+        Owner owner = new Owner().setId("owner1").setKey("owner1");
+
+        doReturn(owner).when(this.ownerCurator).getByKey("owner1");
+        doReturn(2).when(this.poolCurator).recalculatePoolQuantities(owner);
+
+        this.mockJobArguments(PoolQuantityVerificationJob.createJobConfig()
+            .setOwner(owner)
+            .setRecalculate(true));
+        this.job.execute(this.context);
+
+        verify(this.poolCurator).recalculatePoolQuantities(owner);
+        verify(this.poolCurator, never()).getPoolQuantityDrift(any());
+        verify(this.context)
+            .setJobResult("Recalculated pool quantities for owner %s; %d pool(s) corrected", "owner1", 2);
+    }
+
+    @Test
+    public void testFailsForMissingOwner() {
+        Owner owner = new Owner().setId("owner1").setKey("owner1");
+
+        this.mockJobArguments(PoolQuantityVerificationJob.createJobConfig().setOwner(owner));
+
+        assertThrows(JobExecutionException.class, () -> this.job.execute(this.context));
+    }
+
+    @Test
+    public void testRecalculationRequiresOwner() {
+        JobConfig<?> config = PoolQuantityVerificationJob.createJobConfig()
+            .setRecalculate(true);
+
+        assertThrows(JobConfigValidationException.class, config::validate);
+    }
+}
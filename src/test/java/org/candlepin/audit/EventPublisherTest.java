@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyByte;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.ConfigurationException;
+import org.candlepin.config.DevConfig;
+import org.candlepin.config.TestConfig;
+import org.candlepin.dto.api.server.v1.QueueStatus;
+import org.candlepin.util.ObjectMapperFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+
+
+/**
+ * Test suite for the EventPublisher class
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class EventPublisherTest {
+    @Mock
+    private ClientSessionFactory mockSessionFactory;
+    @Mock
+    private ClientSession mockClientSession;
+    @Mock
+    private ClientProducer mockClientProducer;
+
+    private DevConfig config;
+    private ObjectMapper mapper;
+    private TestingActiveMQSessionFactory amqSessionFactory;
+
+    @BeforeEach
+    public void init() throws Exception {
+        this.config = TestConfig.defaults();
+        this.mapper = ObjectMapperFactory.getObjectMapper();
+
+        doReturn(mockClientSession).when(mockSessionFactory).createSession();
+        doReturn(mockClientProducer).when(mockClientSession).createProducer(anyString());
+        when(mockClientSession.createMessage(anyByte(), anyBoolean())).thenAnswer(invocation -> {
+            ClientMessage message = mock(ClientMessage.class);
+            doReturn(ActiveMQBuffers.fixedBuffer(2000)).when(message).getBodyBuffer();
+            return message;
+        });
+
+        this.amqSessionFactory = new TestingActiveMQSessionFactory(null, mockSessionFactory);
+    }
+
+    private EventPublisher createPublisher() throws ConfigurationException {
+        return new EventPublisher(this.config, this.amqSessionFactory, this.mapper);
+    }
+
+    private static List<Event> createEvents(int count) {
+        List<Event> events = new ArrayList<>();
+
+        for (int i = 0; i < count; ++i) {
+            Event event = new Event();
+            event.setId("event-" + i);
+            event.setType(Event.Type.CREATED);
+            event.setTarget(Event.Target.CONSUMER);
+
+            events.add(event);
+        }
+
+        return events;
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        this.config.setProperty(ConfigProperties.AUDIT_ASYNC_PUBLISHING_ENABLED, "true");
+
+        this.config.setProperty(ConfigProperties.AUDIT_ASYNC_PUBLISHING_BUFFER_SIZE, "0");
+        assertThrows(ConfigurationException.class, this::createPublisher);
+        this.config.setProperty(ConfigProperties.AUDIT_ASYNC_PUBLISHING_BUFFER_SIZE, "10");
+
+        this.config.setProperty(ConfigProperties.AUDIT_ASYNC_PUBLISHING_BATCH_SIZE, "0");
+        assertThrows(ConfigurationException.class, this::createPublisher);
+        this.config.setProperty(ConfigProperties.AUDIT_ASYNC_PUBLISHING_BATCH_SIZE, "10");
+
+        this.config.setProperty(ConfigProperties.AUDIT_ASYNC_PUBLISHING_THREADS, "0");
+        assertThrows(ConfigurationException.class, this::createPublisher);
+    }
+
+    @Test
+    public void testDisabledPublisherPublishesDirectly() throws Exception {
+        EventPublisher publisher = this.createPublisher();
+        assertFalse(publisher.isEnabled());
+
+        publisher.publish(createEvents(3));
+
+        // All of the events are sent in a single transaction on the calling thread
+        verify(mockClientProducer, times(3)).send(any(ClientMessage.class));
+        verify(mockClientSession, times(1)).commit();
+        assertEquals(3, publisher.getPublishedCount());
+        assertEquals(0, publisher.getPendingCount());
+    }
+
+    @Test
+    public void testEventsArePublishedAsynchronously() throws Exception {
+        this.config.setProperty(ConfigProperties.AUDIT_ASYNC_PUBLISHING_ENABLED, "true");
+        this.config.setProperty(ConfigProperties.AUDIT_ASYNC_PUBLISHING_BATCH_SIZE, "2");
+
+        // Hold the publisher thread to verify nothing is sent by the calling thread
+        CountDownLatch latch = new CountDownLatch(1);
+        when(mockSessionFactory.createSession()).thenAnswer(invocation -> {
+            latch.await(10, TimeUnit.SECONDS);
+            return mockClientSession;
+        });
+
+        EventPublisher publisher = this.createPublisher();
+        assertTrue(publisher.isEnabled());
+
+        publisher.publish(createEvents(4));
+        verify(mockClientProducer, never()).send(any(ClientMessage.class));
+
+        latch.countDown();
+        publisher.shutdown();
+
+        // Each batch holds at most two events, and is committed as a single transaction
+        verify(mockClientProducer, times(4)).send(any(ClientMessage.class));
+        verify(mockClientSession, atLeast(2)).commit();
+        assertEquals(4, publisher.getPublishedCount());
+        assertEquals(0, publisher.getPendingCount());
+    }
+
+    @Test
+    public void testFullBufferPublishesDirectly() throws Exception {
+        this.config.setProperty(ConfigProperties.AUDIT_ASYNC_PUBLISHING_ENABLED, "true");
+        this.config.setProperty(ConfigProperties.AUDIT_ASYNC_PUBLISHING_BUFFER_SIZE, "1");
+        this.config.setProperty(ConfigProperties.AUDIT_ASYNC_PUBLISHING_OFFER_TIMEOUT, "0");
+
+        // Stall the publisher thread so the buffer cannot be drained; events published directly by
+        // the calling thread use a session which is available immediately
+        CountDownLatch latch = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        when(mockSessionFactory.createSession()).thenAnswer(invocation -> {
+            if (Thread.currentThread() != caller) {
+                latch.await(10, TimeUnit.SECONDS);
+            }
+
+            return mockClientSession;
+        });
+
+        EventPublisher publisher = this.createPublisher();
+        publisher.publish(createEvents(3));
+
+        // At most two events can be buffered or held by the stalled publisher thread
+        assertTrue(publisher.getPublishedCount() >= 1);
+
+        latch.countDown();
+        publisher.shutdown();
+
+        assertEquals(3, publisher.getPublishedCount());
+    }
+
+    @Test
+    public void testPublishAfterShutdownPublishesDirectly() throws Exception {
+        this.config.setProperty(ConfigProperties.AUDIT_ASYNC_PUBLISHING_ENABLED, "true");
+
+        EventPublisher publisher = this.createPublisher();
+        publisher.shutdown();
+
+        publisher.publish(createEvents(2));
+
+        verify(mockClientProducer, times(2)).send(any(ClientMessage.class));
+        assertEquals(2, publisher.getPublishedCount());
+    }
+
+    @Test
+    public void testQueueStatus() throws Exception {
+        EventPublisher publisher = this.createPublisher();
+        publisher.publish(createEvents(2));
+
+        QueueStatus status = publisher.getQueueStatus();
+
+        assertEquals(EventPublisher.QUEUE_NAME, status.getQueueName());
+        assertEquals(0L, status.getPendingMessageCount());
+        assertEquals(2L, status.getPublishedMessageCount());
+        assertTrue(status.getAveragePublishLatency() >= 0);
+    }
+
+}
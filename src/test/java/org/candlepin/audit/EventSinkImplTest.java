@@ -22,6 +22,7 @@ import static org.mockito.Mockito.anyByte;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -142,8 +143,13 @@ public class EventSinkImplTest {
      * @throws Exception
      */
     private EventSinkImpl createEventSink(final ClientSessionFactory sessionFactory) throws Exception {
+        EventPublisher publisher = new EventPublisher(TestConfig.defaults(), this.amqSessionFactory, mapper);
+        return this.createEventSink(publisher);
+    }
+
+    private EventSinkImpl createEventSink(EventPublisher publisher) {
         EventSinkImpl sink = new EventSinkImpl(eventFilter, factory, mapper,
-            TestConfig.defaults(), this.amqSessionFactory, mockModeManager);
+            TestConfig.defaults(), this.amqSessionFactory, mockModeManager, publisher);
         return sink;
     }
 
@@ -257,4 +263,37 @@ public class EventSinkImplTest {
         verify(mockClientProducer).send(any(ClientMessage.class));
     }
 
+    @Test
+    public void asyncPublishingShouldHandEventsToPublisherOnSend() throws Exception {
+        EventPublisher publisher = mock(EventPublisher.class);
+        doReturn(true).when(publisher).isEnabled();
+        EventSinkImpl sink = this.createEventSink(publisher);
+
+        Event event1 = mock(Event.class);
+        Event event2 = mock(Event.class);
+        sink.queueEvent(event1);
+        sink.queueEvent(event2);
+
+        verify(publisher, never()).publish(any());
+
+        sink.sendEvents();
+
+        verify(publisher).publish(eq(List.of(event1, event2)));
+        verify(mapper, never()).writeValueAsString(any());
+        verify(mockClientProducer, never()).send(any(ClientMessage.class));
+    }
+
+    @Test
+    public void asyncPublishingShouldDiscardEventsOnRollback() throws Exception {
+        EventPublisher publisher = mock(EventPublisher.class);
+        doReturn(true).when(publisher).isEnabled();
+        EventSinkImpl sink = this.createEventSink(publisher);
+
+        sink.queueEvent(mock(Event.class));
+        sink.rollback();
+        sink.sendEvents();
+
+        verify(publisher, never()).publish(any());
+    }
+
 }
@@ -22,6 +22,8 @@ import static org.mockito.Mockito.when;
 
 import org.candlepin.auth.permissions.OwnerPermission;
 import org.candlepin.auth.permissions.PermissionFactory;
+import org.candlepin.cache.UserPermissionCache;
+import org.candlepin.config.TestConfig;
 import org.candlepin.exceptions.NotAuthorizedException;
 import org.candlepin.model.Owner;
 import org.candlepin.model.User;
@@ -66,10 +68,11 @@ public class BasicAuthViaUserServiceTest {
     private Provider<I18n> mockI18n;
     @Mock
     private PermissionFactory mockPermissionFactory;
+    private UserPermissionCache permissionCache;
     private BasicAuth auth;
 
     @BeforeEach
-    public void setUp() {
+    public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
         headerMap = new MultivaluedMapImpl<>();
         when(mockHeaders.getRequestHeaders()).thenReturn(headerMap);
@@ -82,7 +85,8 @@ public class BasicAuthViaUserServiceTest {
         I18n i18n = I18nFactory.getI18n(getClass(), Locale.US, I18nFactory.FALLBACK);
         when(mockI18n.get()).thenReturn(i18n);
 
-        this.auth = new BasicAuth(userService, mockI18n, mockPermissionFactory);
+        this.permissionCache = new UserPermissionCache(TestConfig.defaults());
+        this.auth = new BasicAuth(userService, mockI18n, mockPermissionFactory, this.permissionCache);
     }
 
     /**
@@ -17,17 +17,26 @@ package org.candlepin.auth;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.candlepin.auth.permissions.PermissionFactory;
+import org.candlepin.cache.UserPermissionCache;
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.DevConfig;
+import org.candlepin.config.TestConfig;
+import org.candlepin.exceptions.BadRequestException;
 import org.candlepin.model.User;
 import org.candlepin.service.UserServiceAdapter;
+import org.candlepin.service.impl.DefaultUserServiceAdapter;
 
 import org.jboss.resteasy.specimpl.MultivaluedMapImpl;
 import org.jboss.resteasy.spi.HttpRequest;
@@ -58,13 +67,14 @@ public class TrustedUserAuthTest {
     private Provider<I18n> mockI18n;
     @Mock
     private PermissionFactory mockPermissionFactory;
+    private UserPermissionCache permissionCache;
 
     private TrustedUserAuth auth;
 
     private static final String USERNAME = "myusername";
 
     @BeforeEach
-    public void setUp() {
+    public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
         headerMap = new MultivaluedMapImpl<>();
         when(mockHeaders.getRequestHeaders()).thenReturn(headerMap);
@@ -77,7 +87,11 @@ public class TrustedUserAuthTest {
         I18n i18n = I18nFactory.getI18n(getClass(), Locale.US, I18nFactory.FALLBACK);
         when(mockI18n.get()).thenReturn(i18n);
 
-        this.auth = new TrustedUserAuth(userService, mockI18n, mockPermissionFactory);
+        DevConfig config = TestConfig.defaults();
+        config.setProperty(ConfigProperties.CACHE_USER_PERMISSIONS_TTL, "60000");
+
+        this.permissionCache = new UserPermissionCache(config);
+        this.auth = new TrustedUserAuth(userService, mockI18n, mockPermissionFactory, this.permissionCache);
     }
 
     @Test
@@ -118,4 +132,59 @@ public class TrustedUserAuthTest {
         assertEquals(USERNAME, p.getUsername());
     }
 
+    @Test
+    public void trustedAuthWithPermissionsLookupIsCached() throws Exception {
+        headerMap.add(TrustedUserAuth.USER_HEADER, USERNAME);
+        headerMap.add(TrustedUserAuth.LOOKUP_PERMISSIONS_HEADER, "true");
+
+        DefaultUserServiceAdapter defaultUserService = mock(DefaultUserServiceAdapter.class);
+        TrustedUserAuth auth = new TrustedUserAuth(defaultUserService, mockI18n, mockPermissionFactory,
+            this.permissionCache);
+
+        User u = new User(USERNAME, "pass");
+        when(defaultUserService.findByLogin(eq(USERNAME))).thenReturn(u);
+
+        UserPrincipal p1 = (UserPrincipal) auth.getPrincipal(request);
+        UserPrincipal p2 = (UserPrincipal) auth.getPrincipal(request);
+
+        // The permissions of the user should only be compiled once
+        verify(defaultUserService, times(1)).findByLogin(eq(USERNAME));
+        verify(mockPermissionFactory, times(1)).createPermissions(eq(u));
+        assertEquals(p1, p2);
+
+        // ...until the roles are changed
+        permissionCache.invalidateAll();
+        auth.getPrincipal(request);
+
+        verify(defaultUserService, times(2)).findByLogin(eq(USERNAME));
+    }
+
+    @Test
+    public void trustedAuthWithPermissionsLookupIsNotCachedForOtherUserServices() throws Exception {
+        headerMap.add(TrustedUserAuth.USER_HEADER, USERNAME);
+        headerMap.add(TrustedUserAuth.LOOKUP_PERMISSIONS_HEADER, "true");
+
+        User u = new User(USERNAME, "pass");
+        when(userService.findByLogin(eq(USERNAME))).thenReturn(u);
+
+        auth.getPrincipal(request);
+        auth.getPrincipal(request);
+
+        // Other user services don't invalidate the cache as roles change, so nothing may be cached
+        verify(userService, times(2)).findByLogin(eq(USERNAME));
+        verify(mockPermissionFactory, times(2)).createPermissions(eq(u));
+    }
+
+    @Test
+    public void trustedAuthWithPermissionsLookupForUnknownUser() {
+        headerMap.add(TrustedUserAuth.USER_HEADER, USERNAME);
+        headerMap.add(TrustedUserAuth.LOOKUP_PERMISSIONS_HEADER, "true");
+
+        assertThrows(BadRequestException.class, () -> auth.getPrincipal(request));
+        assertThrows(BadRequestException.class, () -> auth.getPrincipal(request));
+
+        // Unknown users are not cached
+        verify(userService, times(2)).findByLogin(eq(USERNAME));
+    }
+
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.ConfigurationException;
+import org.candlepin.config.DevConfig;
+import org.candlepin.config.TestConfig;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+
+
+public class AvailablePoolCountCacheTest {
+
+    private DevConfig config;
+
+    @BeforeEach
+    public void beforeEach() {
+        config = TestConfig.defaults();
+    }
+
+    @Test
+    public void testCacheCreationWithInvalidDuration() throws Exception {
+        config.setProperty(ConfigProperties.CACHE_AVAILABLE_POOL_COUNT_TTL, "-1000");
+
+        assertThrows(ConfigurationException.class, () -> new AvailablePoolCountCache(config));
+    }
+
+    @Test
+    public void testCacheCreationWithInvalidMaxEntries() throws Exception {
+        config.setProperty(ConfigProperties.CACHE_AVAILABLE_POOL_COUNT_MAX_ENTRIES, "-100");
+
+        assertThrows(ConfigurationException.class, () -> new AvailablePoolCountCache(config));
+    }
+
+    @Test
+    public void testGetAndPut() throws Exception {
+        AvailablePoolCountCache cache = new AvailablePoolCountCache(config);
+        List<String> poolIds = List.of("pool-1", "pool-2", "pool-3");
+
+        assertNull(cache.get("consumer", false, poolIds));
+
+        cache.put("consumer", false, poolIds, 2);
+
+        assertEquals(2, cache.get("consumer", false, List.of("pool-1", "pool-2", "pool-3")));
+    }
+
+    @Test
+    public void testEntriesAreSpecificToTheSubject() throws Exception {
+        AvailablePoolCountCache cache = new AvailablePoolCountCache(config);
+        List<String> poolIds = List.of("pool-1", "pool-2", "pool-3");
+
+        cache.put("consumer", false, poolIds, 2);
+
+        assertNull(cache.get("other_consumer", false, poolIds));
+        assertNull(cache.get("consumer", true, poolIds));
+    }
+
+    @Test
+    public void testEntriesAreSpecificToTheCandidatePools() throws Exception {
+        AvailablePoolCountCache cache = new AvailablePoolCountCache(config);
+
+        cache.put("consumer", false, List.of("pool-1", "pool-2", "pool-3"), 2);
+
+        assertNull(cache.get("consumer", false, List.of("pool-1", "pool-2")));
+        assertNull(cache.get("consumer", false, List.of("pool-1", "pool-2", "pool-3", "pool-4")));
+        assertNull(cache.get("consumer", false, List.of("pool-12", "pool-3")));
+    }
+
+    @Test
+    public void testCacheDisabledWithZeroDuration() throws Exception {
+        config.setProperty(ConfigProperties.CACHE_AVAILABLE_POOL_COUNT_TTL, "0");
+        AvailablePoolCountCache cache = new AvailablePoolCountCache(config);
+        List<String> poolIds = List.of("pool-1", "pool-2");
+
+        cache.put("consumer", false, poolIds, 2);
+
+        assertNull(cache.get("consumer", false, poolIds));
+    }
+
+    @Test
+    public void testRemoveAll() throws Exception {
+        AvailablePoolCountCache cache = new AvailablePoolCountCache(config);
+        List<String> poolIds = List.of("pool-1", "pool-2");
+
+        cache.put("consumer", false, poolIds, 2);
+        cache.removeAll();
+
+        assertNull(cache.get("consumer", false, poolIds));
+    }
+
+    @Test
+    public void testNullArgumentsAreRejected() throws Exception {
+        AvailablePoolCountCache cache = new AvailablePoolCountCache(config);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get(null, false, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> cache.get("consumer", false, null));
+        assertThrows(IllegalArgumentException.class, () -> cache.put(null, false, List.of(), 1));
+        assertThrows(IllegalArgumentException.class, () -> cache.put("consumer", false, null, 1));
+    }
+
+}
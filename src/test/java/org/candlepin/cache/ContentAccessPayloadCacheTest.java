@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.ConfigurationException;
+import org.candlepin.config.DevConfig;
+import org.candlepin.config.TestConfig;
+import org.candlepin.test.TestUtil;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+public class ContentAccessPayloadCacheTest {
+
+    private DevConfig config;
+
+    @BeforeEach
+    public void beforeEach() {
+        config = TestConfig.defaults();
+    }
+
+    private ContentAccessPayloadKey randomKey(String ownerId) {
+        return new ContentAccessPayloadKey(ownerId, List.of(TestUtil.randomString()), "x86_64", null,
+            System.currentTimeMillis());
+    }
+
+    private ContentAccessPayload payload(int size) {
+        return new ContentAccessPayload(List.of(), size);
+    }
+
+    @ParameterizedTest(name = "{displayName} {index}: {0}")
+    @ValueSource(longs = { 0L, -1000L })
+    public void testCacheCreationWithInvalidDuration(long duration) {
+        config.setProperty(ConfigProperties.CACHE_CONTENT_ACCESS_PAYLOAD_TTL, String.valueOf(duration));
+
+        assertThrows(ConfigurationException.class, () -> new ContentAccessPayloadCache(config));
+    }
+
+    @Test
+    public void testCacheCreationWithInvalidMaxBytes() {
+        config.setProperty(ConfigProperties.CACHE_CONTENT_ACCESS_PAYLOAD_MAX_BYTES, "-100");
+
+        assertThrows(ConfigurationException.class, () -> new ContentAccessPayloadCache(config));
+    }
+
+    @Test
+    public void testGetWithInvalidKey() throws Exception {
+        ContentAccessPayloadCache cache = new ContentAccessPayloadCache(config);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get(null));
+    }
+
+    @Test
+    public void testPutWithInvalidPayload() throws Exception {
+        ContentAccessPayloadCache cache = new ContentAccessPayloadCache(config);
+        ContentAccessPayloadKey key = this.randomKey("owner");
+
+        assertThrows(IllegalArgumentException.class, () -> cache.put(key, null));
+        assertThrows(IllegalArgumentException.class, () -> cache.put(null, this.payload(7)));
+    }
+
+    @Test
+    public void testGetWithPayloadInCache() throws Exception {
+        ContentAccessPayloadCache cache = new ContentAccessPayloadCache(config);
+        ContentAccessPayloadKey key = this.randomKey("owner");
+        cache.put(key, this.payload(7));
+
+        ContentAccessPayloadKey lookup = new ContentAccessPayloadKey(key.ownerId(), key.environmentIds(),
+            key.arch(), key.supportedArches(), key.lastContentUpdate());
+
+        assertEquals(this.payload(7), cache.get(lookup));
+        assertEquals(1, cache.getStats().hitCount());
+    }
+
+    @Test
+    public void testGetWithChangedContentUpdate() throws Exception {
+        ContentAccessPayloadCache cache = new ContentAccessPayloadCache(config);
+        ContentAccessPayloadKey key = this.randomKey("owner");
+        cache.put(key, this.payload(7));
+
+        ContentAccessPayloadKey lookup = new ContentAccessPayloadKey(key.ownerId(), key.environmentIds(),
+            key.arch(), key.supportedArches(), key.lastContentUpdate() + 1);
+
+        assertNull(cache.get(lookup));
+        assertEquals(1, cache.getStats().missCount());
+    }
+
+    @Test
+    public void testEnvironmentOrderIsSignificant() throws Exception {
+        ContentAccessPayloadCache cache = new ContentAccessPayloadCache(config);
+        ContentAccessPayloadKey key = new ContentAccessPayloadKey("owner", List.of("env1", "env2"), null,
+            null, 0L);
+        cache.put(key, this.payload(7));
+
+        assertNull(cache.get(new ContentAccessPayloadKey("owner", List.of("env2", "env1"), null, null, 0L)));
+    }
+
+    @Test
+    public void testEvictionBySize() throws Exception {
+        config.setProperty(ConfigProperties.CACHE_CONTENT_ACCESS_PAYLOAD_MAX_BYTES, "100");
+        ContentAccessPayloadCache cache = new ContentAccessPayloadCache(config);
+
+        ContentAccessPayloadKey key1 = this.randomKey("owner");
+        ContentAccessPayloadKey key2 = this.randomKey("owner");
+        cache.put(key1, this.payload(60));
+        cache.put(key2, this.payload(60));
+
+        assertThat(cache.getStats().evictionCount()).isEqualTo(1);
+        assertThat(cache.getStats().evictionWeight()).isEqualTo(60);
+    }
+
+    @Test
+    public void testDisabledCacheRetainsNothing() throws Exception {
+        config.setProperty(ConfigProperties.CACHE_CONTENT_ACCESS_PAYLOAD_MAX_BYTES, "0");
+        ContentAccessPayloadCache cache = new ContentAccessPayloadCache(config);
+        ContentAccessPayloadKey key = this.randomKey("owner");
+        cache.put(key, this.payload(7));
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testRemoveForOwner() throws Exception {
+        ContentAccessPayloadCache cache = new ContentAccessPayloadCache(config);
+        ContentAccessPayloadKey key1 = this.randomKey("owner1");
+        ContentAccessPayloadKey key2 = this.randomKey("owner1");
+        ContentAccessPayloadKey key3 = this.randomKey("owner2");
+        cache.put(key1, this.payload(1));
+        cache.put(key2, this.payload(2));
+        cache.put(key3, this.payload(3));
+
+        cache.removeForOwner("owner1");
+
+        assertNull(cache.get(key1));
+        assertNull(cache.get(key2));
+        assertEquals(this.payload(3), cache.get(key3));
+    }
+
+    @Test
+    public void testRemoveForOwnerWithInvalidOwner() throws Exception {
+        ContentAccessPayloadCache cache = new ContentAccessPayloadCache(config);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.removeForOwner(null));
+    }
+
+    @Test
+    public void testRemoveAll() throws Exception {
+        ContentAccessPayloadCache cache = new ContentAccessPayloadCache(config);
+        ContentAccessPayloadKey key1 = this.randomKey("owner1");
+        ContentAccessPayloadKey key2 = this.randomKey("owner2");
+        cache.put(key1, this.payload(1));
+        cache.put(key2, this.payload(2));
+
+        cache.removeAll();
+
+        assertNull(cache.get(key1));
+        assertNull(cache.get(key2));
+    }
+
+}
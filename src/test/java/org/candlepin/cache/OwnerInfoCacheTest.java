@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.ConfigurationException;
+import org.candlepin.config.DevConfig;
+import org.candlepin.config.TestConfig;
+import org.candlepin.dto.api.server.v1.OwnerInfo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+
+public class OwnerInfoCacheTest {
+
+    private DevConfig config;
+
+    @BeforeEach
+    public void beforeEach() {
+        config = TestConfig.defaults();
+        config.setProperty(ConfigProperties.CACHE_OWNER_INFO_TTL, "60000");
+    }
+
+    @Test
+    public void testCacheCreationWithInvalidDuration() {
+        config.setProperty(ConfigProperties.CACHE_OWNER_INFO_TTL, "-1");
+
+        assertThrows(ConfigurationException.class, () -> new OwnerInfoCache(config));
+    }
+
+    @Test
+    public void testCacheCreationWithInvalidMaxEntries() {
+        config.setProperty(ConfigProperties.CACHE_OWNER_INFO_MAX_ENTRIES, "-1");
+
+        assertThrows(ConfigurationException.class, () -> new OwnerInfoCache(config));
+    }
+
+    /**
+     * Fetches owner info from the cache, counting any calculations performed
+     */
+    private OwnerInfo get(OwnerInfoCache cache, String ownerId, String scope, AtomicInteger calculations) {
+        return cache.get(ownerId, scope, id -> {
+            calculations.incrementAndGet();
+            return new OwnerInfo();
+        });
+    }
+
+    @Test
+    public void testGetCalculatesOnce() throws Exception {
+        OwnerInfoCache cache = new OwnerInfoCache(config);
+        AtomicInteger calculations = new AtomicInteger();
+        OwnerInfo info = new OwnerInfo();
+
+        assertSame(info, cache.get("owner", "scope", id -> {
+            calculations.incrementAndGet();
+            return info;
+        }));
+
+        assertSame(info, this.get(cache, "owner", "scope", calculations));
+
+        assertEquals(1, calculations.get());
+        assertEquals(1, cache.getStats().hitCount());
+        assertEquals(1, cache.getStats().missCount());
+    }
+
+    @Test
+    public void testEntriesAreSpecificToTheScope() throws Exception {
+        OwnerInfoCache cache = new OwnerInfoCache(config);
+        AtomicInteger calculations = new AtomicInteger();
+
+        this.get(cache, "owner", "scope", calculations);
+        this.get(cache, "owner", "other_scope", calculations);
+        this.get(cache, "other_owner", "scope", calculations);
+
+        assertEquals(3, calculations.get());
+    }
+
+    @Test
+    public void testInvalidateRemovesAllScopesOfTheOwner() throws Exception {
+        OwnerInfoCache cache = new OwnerInfoCache(config);
+        AtomicInteger calculations = new AtomicInteger();
+
+        this.get(cache, "owner", "scope1", calculations);
+        this.get(cache, "owner", "scope2", calculations);
+        this.get(cache, "other_owner", "scope1", calculations);
+        assertEquals(3, calculations.get());
+
+        cache.invalidate(List.of("owner"));
+
+        this.get(cache, "owner", "scope1", calculations);
+        this.get(cache, "owner", "scope2", calculations);
+        this.get(cache, "other_owner", "scope1", calculations);
+        assertEquals(5, calculations.get());
+    }
+
+    @Test
+    public void testCacheDisabledWithZeroDuration() throws Exception {
+        config.setProperty(ConfigProperties.CACHE_OWNER_INFO_TTL, "0");
+        OwnerInfoCache cache = new OwnerInfoCache(config);
+        AtomicInteger calculations = new AtomicInteger();
+
+        assertFalse(cache.isEnabled());
+
+        cache.get("owner", "scope", id -> {
+            calculations.incrementAndGet();
+            return new OwnerInfo();
+        });
+
+        cache.get("owner", "scope", id -> {
+            calculations.incrementAndGet();
+            return new OwnerInfo();
+        });
+
+        assertEquals(2, calculations.get());
+        assertEquals(0, cache.getStats().requestCount());
+    }
+
+    @Test
+    public void testNullArgumentsAreRejected() throws Exception {
+        OwnerInfoCache cache = new OwnerInfoCache(config);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get(null, "scope", id -> new OwnerInfo()));
+        assertThrows(IllegalArgumentException.class, () -> cache.get("owner", null, id -> new OwnerInfo()));
+        assertThrows(IllegalArgumentException.class, () -> cache.get("owner", "scope", null));
+    }
+
+}
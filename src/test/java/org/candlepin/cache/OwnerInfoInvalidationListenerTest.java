@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.candlepin.model.Consumer;
+import org.candlepin.model.Entitlement;
+import org.candlepin.model.Owner;
+import org.candlepin.model.Pool;
+import org.candlepin.model.Product;
+import org.candlepin.test.TestUtil;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.Set;
+
+
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class OwnerInfoInvalidationListenerTest {
+
+    @Mock
+    private OwnerInfoCache ownerInfoCache;
+    @Mock
+    private EventSource session;
+    @Mock
+    private ActionQueue actionQueue;
+
+    private OwnerInfoInvalidationListener listener;
+
+    @BeforeEach
+    public void beforeEach() {
+        doReturn(true).when(this.ownerInfoCache).isEnabled();
+        doReturn(this.actionQueue).when(this.session).getActionQueue();
+
+        this.listener = new OwnerInfoInvalidationListener(this.ownerInfoCache);
+    }
+
+    private void insert(Object entity) {
+        this.listener.onPostInsert(new PostInsertEvent(entity, "id", null, null, this.session));
+    }
+
+    private void update(Object entity) {
+        this.listener.onPostUpdate(new PostUpdateEvent(entity, "id", null, null, null, null, this.session));
+    }
+
+    private void delete(Object entity) {
+        this.listener.onPostDelete(new PostDeleteEvent(entity, "id", null, null, this.session));
+    }
+
+    private AfterTransactionCompletionProcess captureProcess(int registrations) {
+        ArgumentCaptor<AfterTransactionCompletionProcess> captor =
+            ArgumentCaptor.forClass(AfterTransactionCompletionProcess.class);
+
+        verify(this.actionQueue, times(registrations)).registerProcess(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    public void testCommittedChangesInvalidateTheirOwnersOnce() {
+        Owner owner1 = TestUtil.createOwner("owner1");
+        Owner owner2 = TestUtil.createOwner("owner2");
+
+        Entitlement entitlement = new Entitlement();
+        entitlement.setOwner(owner2);
+
+        this.insert(new Consumer().setOwner(owner1));
+        this.update(new Pool().setOwner(owner1));
+        this.delete(entitlement);
+
+        AfterTransactionCompletionProcess process = this.captureProcess(1);
+        verify(this.ownerInfoCache, never()).invalidate(any());
+
+        process.doAfterTransactionCompletion(true, this.session);
+        verify(this.ownerInfoCache).invalidate(Set.of(owner1.getId(), owner2.getId()));
+    }
+
+    @Test
+    public void testRolledBackChangesDoNotInvalidate() {
+        Owner owner = TestUtil.createOwner("owner");
+        this.insert(new Consumer().setOwner(owner));
+
+        this.captureProcess(1).doAfterTransactionCompletion(false, this.session);
+        verify(this.ownerInfoCache, never()).invalidate(any());
+
+        // The next transaction of the session collects its changes anew
+        this.insert(new Consumer().setOwner(owner));
+
+        this.captureProcess(2).doAfterTransactionCompletion(true, this.session);
+        verify(this.ownerInfoCache).invalidate(Set.of(owner.getId()));
+    }
+
+    @Test
+    public void testUnrelatedEntitiesAreIgnored() {
+        this.insert(new Product());
+        this.update(new Consumer());
+
+        verify(this.actionQueue, never()).registerProcess(any(AfterTransactionCompletionProcess.class));
+    }
+
+    @Test
+    public void testNothingIsCollectedWhileTheCacheIsDisabled() {
+        doReturn(false).when(this.ownerInfoCache).isEnabled();
+
+        this.insert(new Consumer().setOwner(TestUtil.createOwner("owner")));
+
+        verify(this.actionQueue, never()).registerProcess(any(AfterTransactionCompletionProcess.class));
+    }
+
+}
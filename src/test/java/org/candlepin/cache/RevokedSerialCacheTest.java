@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.ConfigurationException;
+import org.candlepin.config.DevConfig;
+import org.candlepin.config.TestConfig;
+import org.candlepin.model.CertificateSerialCurator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class RevokedSerialCacheTest {
+
+    private DevConfig config;
+    private CertificateSerialCurator serialCurator;
+
+    @BeforeEach
+    public void beforeEach() {
+        this.config = TestConfig.defaults();
+        this.serialCurator = mock(CertificateSerialCurator.class);
+    }
+
+    private RevokedSerialCache buildCache() throws ConfigurationException {
+        return new RevokedSerialCache(this.config, () -> this.serialCurator);
+    }
+
+    @Test
+    public void testCacheCreationWithInvalidRefreshInterval() {
+        this.config.setProperty(ConfigProperties.CACHE_CRL_REFRESH_INTERVAL, "-1");
+
+        assertThrows(ConfigurationException.class, this::buildCache);
+    }
+
+    @Test
+    public void testCacheCreationWithInvalidRebuildInterval() {
+        this.config.setProperty(ConfigProperties.CACHE_CRL_REBUILD_INTERVAL, "-1");
+
+        assertThrows(ConfigurationException.class, this::buildCache);
+    }
+
+    @Test
+    public void testSnapshotMergeSortsAndDeduplicates() {
+        RevokedSerialCache.Snapshot snapshot = RevokedSerialCache.Snapshot.EMPTY
+            .merge(Arrays.asList(30L, 10L, null, 20L, 10L));
+
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.toArray()).containsExactly(10L, 20L, 30L);
+
+        RevokedSerialCache.Snapshot merged = snapshot.merge(List.of(25L, 5L, 40L, 20L));
+
+        assertThat(merged.size()).isEqualTo(6);
+        assertThat(merged.toArray()).containsExactly(5L, 10L, 20L, 25L, 30L, 40L);
+        assertThat(snapshot.toArray()).containsExactly(10L, 20L, 30L);
+    }
+
+    @Test
+    public void testSnapshotMergeWithoutNewSerialsReturnsSameSnapshot() {
+        RevokedSerialCache.Snapshot snapshot = RevokedSerialCache.Snapshot.EMPTY.merge(List.of(1L, 2L, 3L));
+
+        assertThat(snapshot.merge(List.of())).isSameAs(snapshot);
+        assertThat(snapshot.merge(null)).isSameAs(snapshot);
+        assertThat(snapshot.merge(List.of(3L, 1L))).isSameAs(snapshot);
+    }
+
+    @Test
+    public void testSnapshotRoundTripsLargeAndNegativeSerials() {
+        Random random = new Random(8675309);
+        List<Long> serials = new ArrayList<>();
+        for (int i = 0; i < 5000; ++i) {
+            serials.add(random.nextLong());
+        }
+
+        serials.add(Long.MIN_VALUE);
+        serials.add(Long.MAX_VALUE);
+        serials.add(0L);
+
+        RevokedSerialCache.Snapshot snapshot = RevokedSerialCache.Snapshot.EMPTY
+            .merge(serials.subList(0, 2500))
+            .merge(serials.subList(2500, serials.size()));
+
+        long[] expected = serials.stream()
+            .mapToLong(Long::longValue)
+            .sorted()
+            .distinct()
+            .toArray();
+
+        assertThat(snapshot.toArray()).containsExactly(expected);
+    }
+
+    @Test
+    public void testETagDependsOnlyOnContent() {
+        RevokedSerialCache.Snapshot snapshot1 = RevokedSerialCache.Snapshot.EMPTY.merge(List.of(1L, 2L));
+        RevokedSerialCache.Snapshot snapshot2 = RevokedSerialCache.Snapshot.EMPTY.merge(List.of(2L))
+            .merge(List.of(1L));
+        RevokedSerialCache.Snapshot snapshot3 = snapshot1.merge(List.of(3L));
+
+        assertThat(snapshot1.getETag())
+            .isNotBlank()
+            .isEqualTo(snapshot2.getETag())
+            .isNotEqualTo(snapshot3.getETag());
+    }
+
+    @Test
+    public void testGetSnapshotLoadsOnceAndMergesDeltas() throws Exception {
+        doReturn(List.of(3L, 1L)).when(this.serialCurator).listNonExpiredRevokedSerialIds();
+        doReturn(List.of(2L)).when(this.serialCurator).listRevokedSerialIdsSince(any());
+
+        RevokedSerialCache cache = this.buildCache();
+
+        assertThat(cache.getSnapshot().toArray()).containsExactly(1L, 3L);
+        assertThat(cache.getSnapshot().toArray()).containsExactly(1L, 2L, 3L);
+
+        verify(this.serialCurator, times(1)).listNonExpiredRevokedSerialIds();
+        verify(this.serialCurator, times(1)).listRevokedSerialIdsSince(any());
+    }
+
+    @Test
+    public void testGetSnapshotOnlyRefreshesOnIntervalOrInvalidation() throws Exception {
+        this.config.setProperty(ConfigProperties.CACHE_CRL_REFRESH_INTERVAL, "3600000");
+
+        doReturn(List.of(1L)).when(this.serialCurator).listNonExpiredRevokedSerialIds();
+        doReturn(List.of(2L)).when(this.serialCurator).listRevokedSerialIdsSince(any());
+
+        RevokedSerialCache cache = this.buildCache();
+
+        RevokedSerialCache.Snapshot snapshot = cache.getSnapshot();
+        assertThat(cache.getSnapshot()).isSameAs(snapshot);
+        verify(this.serialCurator, never()).listRevokedSerialIdsSince(any());
+
+        cache.invalidate();
+
+        assertThat(cache.getSnapshot().toArray()).containsExactly(1L, 2L);
+        verify(this.serialCurator, times(1)).listRevokedSerialIdsSince(any());
+    }
+
+    @Test
+    public void testGetSnapshotRebuildsOnInterval() throws Exception {
+        this.config.setProperty(ConfigProperties.CACHE_CRL_REBUILD_INTERVAL, "0");
+
+        doReturn(List.of(1L, 2L), List.of(2L)).when(this.serialCurator).listNonExpiredRevokedSerialIds();
+
+        RevokedSerialCache cache = this.buildCache();
+
+        assertThat(cache.getSnapshot().toArray()).containsExactly(1L, 2L);
+        assertThat(cache.getSnapshot().toArray()).containsExactly(2L);
+        verify(this.serialCurator, never()).listRevokedSerialIdsSince(any());
+    }
+
+    @Test
+    public void testFailedRefreshIsRetried() throws Exception {
+        this.config.setProperty(ConfigProperties.CACHE_CRL_REFRESH_INTERVAL, "3600000");
+
+        doReturn(List.of(1L)).when(this.serialCurator).listNonExpiredRevokedSerialIds();
+        doThrow(new RuntimeException("db failure"))
+            .doReturn(List.of(2L))
+            .when(this.serialCurator).listRevokedSerialIdsSince(any());
+
+        RevokedSerialCache cache = this.buildCache();
+        cache.getSnapshot();
+        cache.invalidate();
+
+        assertThrows(RuntimeException.class, cache::getSnapshot);
+        assertThat(cache.getSnapshot().toArray()).containsExactly(1L, 2L);
+    }
+}
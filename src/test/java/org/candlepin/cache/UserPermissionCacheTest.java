@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.ConfigurationException;
+import org.candlepin.config.DevConfig;
+import org.candlepin.config.TestConfig;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+
+
+public class UserPermissionCacheTest {
+
+    private DevConfig config;
+
+    @BeforeEach
+    public void beforeEach() {
+        config = TestConfig.defaults();
+        config.setProperty(ConfigProperties.CACHE_USER_PERMISSIONS_TTL, "60000");
+    }
+
+    private static Function<String, UserPermissionCache.Entry> counting(AtomicInteger counter,
+        UserPermissionCache.Entry entry) {
+
+        return username -> {
+            counter.incrementAndGet();
+            return entry;
+        };
+    }
+
+    @Test
+    public void testCacheCreationWithInvalidDuration() {
+        config.setProperty(ConfigProperties.CACHE_USER_PERMISSIONS_TTL, "-1");
+
+        assertThrows(ConfigurationException.class, () -> new UserPermissionCache(config));
+    }
+
+    @Test
+    public void testCacheCreationWithInvalidMaxEntries() {
+        config.setProperty(ConfigProperties.CACHE_USER_PERMISSIONS_MAX_ENTRIES, "-1");
+
+        assertThrows(ConfigurationException.class, () -> new UserPermissionCache(config));
+    }
+
+    @Test
+    public void testCacheDisabledByDefault() throws Exception {
+        UserPermissionCache cache = new UserPermissionCache(TestConfig.defaults());
+        assertFalse(cache.isEnabled());
+    }
+
+    @Test
+    public void testGetResolvesOnce() throws Exception {
+        UserPermissionCache cache = new UserPermissionCache(config);
+        AtomicInteger resolutions = new AtomicInteger();
+        UserPermissionCache.Entry entry = new UserPermissionCache.Entry(false, null, List.of());
+
+        assertSame(entry, cache.get("username", counting(resolutions, entry)));
+        assertSame(entry, cache.get("username", counting(resolutions, entry)));
+
+        assertEquals(1, resolutions.get());
+        assertEquals(1, cache.getStats().hitCount());
+        assertEquals(1, cache.getStats().missCount());
+    }
+
+    @Test
+    public void testUnresolvedUsersAreNotCached() throws Exception {
+        UserPermissionCache cache = new UserPermissionCache(config);
+        AtomicInteger resolutions = new AtomicInteger();
+
+        assertNull(cache.get("username", counting(resolutions, null)));
+        assertNull(cache.get("username", counting(resolutions, null)));
+
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    public void testInvalidateAllAdvancesVersion() throws Exception {
+        UserPermissionCache cache = new UserPermissionCache(config);
+        AtomicInteger resolutions = new AtomicInteger();
+        UserPermissionCache.Entry entry = new UserPermissionCache.Entry(false, null, List.of());
+
+        long version = cache.getVersion();
+
+        cache.get("user1", counting(resolutions, entry));
+        cache.get("user2", counting(resolutions, entry));
+
+        assertEquals(version + 1, cache.invalidateAll());
+        assertEquals(version + 1, cache.getVersion());
+
+        cache.get("user1", counting(resolutions, entry));
+        cache.get("user2", counting(resolutions, entry));
+
+        assertEquals(4, resolutions.get());
+    }
+
+    @Test
+    public void testEntryPermissionsAreNeverNull() {
+        UserPermissionCache.Entry entry = new UserPermissionCache.Entry(true, null, null);
+
+        assertNotNull(entry.permissions());
+        assertEquals(0, entry.permissions().size());
+    }
+
+    @Test
+    public void testCacheDisabledWithZeroDuration() throws Exception {
+        config.setProperty(ConfigProperties.CACHE_USER_PERMISSIONS_TTL, "0");
+        UserPermissionCache cache = new UserPermissionCache(config);
+        AtomicInteger resolutions = new AtomicInteger();
+        UserPermissionCache.Entry entry = new UserPermissionCache.Entry(false, null, List.of());
+
+        assertFalse(cache.isEnabled());
+
+        cache.get("username", counting(resolutions, entry));
+        cache.get("username", counting(resolutions, entry));
+
+        assertEquals(2, resolutions.get());
+        assertEquals(0, cache.getStats().requestCount());
+    }
+
+    @Test
+    public void testNullArgumentsAreRejected() throws Exception {
+        UserPermissionCache cache = new UserPermissionCache(config);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get(null, username -> null));
+        assertThrows(IllegalArgumentException.class, () -> cache.get("username", null));
+    }
+
+}
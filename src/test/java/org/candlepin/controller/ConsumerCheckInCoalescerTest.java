@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.DevConfig;
+import org.candlepin.config.TestConfig;
+import org.candlepin.model.Consumer;
+import org.candlepin.model.ConsumerCurator;
+
+import com.google.inject.persist.UnitOfWork;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.Date;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ConsumerCheckInCoalescerTest {
+
+    @Mock
+    private ConsumerCurator consumerCurator;
+    @Mock
+    private UnitOfWork unitOfWork;
+
+    private DevConfig config;
+    private ConsumerCheckInCoalescer coalescer;
+
+    @BeforeEach
+    public void init() {
+        this.config = TestConfig.defaults();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        if (this.coalescer != null) {
+            this.coalescer.shutdown();
+        }
+    }
+
+    private ConsumerCheckInCoalescer buildCoalescer(long flushInterval) {
+        this.config.setProperty(ConfigProperties.CONSUMER_CHECKIN_FLUSH_INTERVAL,
+            String.valueOf(flushInterval));
+
+        this.coalescer = new ConsumerCheckInCoalescer(this.config, this.consumerCurator, this.unitOfWork);
+        return this.coalescer;
+    }
+
+    private Consumer buildConsumer(String id, Date lastCheckIn) {
+        return new Consumer()
+            .setId(id)
+            .setLastCheckin(lastCheckIn);
+    }
+
+    @Test
+    public void testRecordCheckInRequiresPersistedConsumer() {
+        ConsumerCheckInCoalescer coalescer = this.buildCoalescer(0);
+
+        assertThrows(IllegalArgumentException.class, () -> coalescer.recordCheckIn(null));
+        assertThrows(IllegalArgumentException.class, () -> coalescer.recordCheckIn(new Consumer()));
+        assertThrows(IllegalArgumentException.class,
+            () -> coalescer.recordCheckIn(this.buildConsumer("c1", null), null));
+    }
+
+    @Test
+    public void testCheckInIsWrittenImmediatelyWhenNotCoalescing() {
+        ConsumerCheckInCoalescer coalescer = this.buildCoalescer(0);
+        Consumer consumer = this.buildConsumer("c1", null);
+        Date checkIn = new Date();
+
+        coalescer.recordCheckIn(consumer, checkIn);
+
+        verify(this.consumerCurator).updateLastCheckin(consumer, checkIn);
+        assertEquals(0, coalescer.getPendingCount());
+    }
+
+    @Test
+    public void testRecentCheckInIsDropped() {
+        this.config.setProperty(ConfigProperties.CONSUMER_CHECKIN_MAX_STALENESS, "60000");
+        ConsumerCheckInCoalescer coalescer = this.buildCoalescer(0);
+
+        Date now = new Date();
+        Consumer recent = this.buildConsumer("c1", new Date(now.getTime() - 30000));
+        Consumer stale = this.buildConsumer("c2", new Date(now.getTime() - 90000));
+        Consumer unknown = this.buildConsumer("c3", null);
+
+        coalescer.recordCheckIn(recent, now);
+        coalescer.recordCheckIn(stale, now);
+        coalescer.recordCheckIn(unknown, now);
+
+        verify(this.consumerCurator, never()).updateLastCheckin(recent, now);
+        verify(this.consumerCurator).updateLastCheckin(stale, now);
+        verify(this.consumerCurator).updateLastCheckin(unknown, now);
+    }
+
+    @Test
+    public void testCheckInsAreCoalescedUntilFlushed() {
+        ConsumerCheckInCoalescer coalescer = this.buildCoalescer(3600000);
+        Consumer consumer1 = this.buildConsumer("c1", null);
+        Consumer consumer2 = this.buildConsumer("c2", null);
+
+        Date early = new Date(1000000);
+        Date late = new Date(2000000);
+
+        coalescer.recordCheckIn(consumer1, late);
+        coalescer.recordCheckIn(consumer1, early);
+        coalescer.recordCheckIn(consumer2, early);
+
+        verify(this.consumerCurator, never()).updateLastCheckin(any(Consumer.class), any(Date.class));
+        assertEquals(2, coalescer.getPendingCount());
+
+        doReturn(2).when(this.consumerCurator).updateLastCheckins(anyMap());
+        assertEquals(2, coalescer.flush());
+
+        ArgumentCaptor<Map<String, Date>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(this.consumerCurator).updateLastCheckins(captor.capture());
+
+        assertThat(captor.getValue())
+            .hasSize(2)
+            .containsEntry("c1", late)
+            .containsEntry("c2", early);
+        assertEquals(0, coalescer.getPendingCount());
+    }
+
+    @Test
+    public void testFlushWithoutPendingCheckInsDoesNothing() {
+        ConsumerCheckInCoalescer coalescer = this.buildCoalescer(3600000);
+
+        assertEquals(0, coalescer.flush());
+        verifyNoInteractions(this.consumerCurator);
+    }
+
+    @Test
+    public void testFailedFlushRetainsCheckIns() {
+        ConsumerCheckInCoalescer coalescer = this.buildCoalescer(3600000);
+        coalescer.recordCheckIn(this.buildConsumer("c1", null), new Date());
+
+        doThrow(new RuntimeException("database unavailable"))
+            .doReturn(1)
+            .when(this.consumerCurator).updateLastCheckins(anyMap());
+
+        assertThrows(RuntimeException.class, coalescer::flush);
+        assertEquals(1, coalescer.getPendingCount());
+
+        assertEquals(1, coalescer.flush());
+        assertEquals(0, coalescer.getPendingCount());
+    }
+
+    @Test
+    public void testShutdownWritesPendingCheckIns() {
+        ConsumerCheckInCoalescer coalescer = this.buildCoalescer(3600000);
+        coalescer.recordCheckIn(this.buildConsumer("c1", null), new Date());
+
+        coalescer.shutdown();
+
+        InOrder order = inOrder(this.unitOfWork, this.consumerCurator);
+        order.verify(this.unitOfWork).begin();
+        order.verify(this.consumerCurator).updateLastCheckins(anyMap());
+        order.verify(this.unitOfWork).end();
+        assertEquals(0, coalescer.getPendingCount());
+
+        // Check-ins after shutdown are written immediately
+        Consumer consumer = this.buildConsumer("c2", null);
+        Date checkIn = new Date();
+        coalescer.recordCheckIn(consumer, checkIn);
+
+        verify(this.consumerCurator).updateLastCheckin(consumer, checkIn);
+    }
+}
@@ -21,6 +21,7 @@ import static org.mockito.Mockito.spy;
 
 import org.candlepin.audit.EventSink;
 import org.candlepin.cache.AnonymousCertContentCache;
+import org.candlepin.cache.ContentAccessPayloadCache;
 import org.candlepin.controller.ContentAccessManager.ContentAccessMode;
 import org.candlepin.model.CertificateSerial;
 import org.candlepin.model.Consumer;
@@ -35,8 +36,10 @@ import org.candlepin.pki.impl.BouncyCastlePKIUtility;
 import org.candlepin.pki.impl.BouncyCastlePrivateKeyReader;
 import org.candlepin.pki.impl.BouncyCastleSecurityProvider;
 import org.candlepin.pki.impl.BouncyCastleSubjectKeyIdentifierWriter;
+import org.candlepin.pki.impl.KeyPairPool;
 import org.candlepin.service.ProductServiceAdapter;
 import org.candlepin.test.DatabaseTestFixture;
+import org.candlepin.util.ContentPathEncoder;
 import org.candlepin.util.ObjectMapperFactory;
 import org.candlepin.util.Util;
 import org.candlepin.util.X509V3ExtensionUtil;
@@ -66,6 +69,7 @@ public class ContentAccessManagerDBTest extends DatabaseTestFixture {
 
     private EventSink mockEventSink;
     private AnonymousCertContentCache cache;
+    private ContentAccessPayloadCache payloadCache;
 
     @Mock
     private ProductServiceAdapter mockProdAdapter;
@@ -76,13 +80,14 @@ public class ContentAccessManagerDBTest extends DatabaseTestFixture {
         CertificateReader certReader = new CertificateReader(this.config, keyReader);
         SubjectKeyIdentifierWriter keyIdWriter = new BouncyCastleSubjectKeyIdentifierWriter();
         this.pkiUtility = spy(new BouncyCastlePKIUtility(new BouncyCastleSecurityProvider(), certReader,
-            keyIdWriter, this.config, this.keyPairDataCurator));
+            keyIdWriter, this.config, this.keyPairDataCurator, new KeyPairPool(this.config)));
 
         this.x509V3ExtensionUtil = spy(new X509V3ExtensionUtil(this.config, this.entitlementCurator,
-            ObjectMapperFactory.getObjectMapper()));
+            new ContentPathEncoder(), ObjectMapperFactory.getObjectMapper()));
 
         this.mockEventSink = mock(EventSink.class);
         this.cache = new AnonymousCertContentCache(this.config);
+        this.payloadCache = new ContentAccessPayloadCache(this.config);
     }
 
     private ContentAccessManager createManager() {
@@ -90,7 +95,7 @@ public class ContentAccessManagerDBTest extends DatabaseTestFixture {
             this.caCertCurator, this.certSerialCurator, this.ownerCurator, this.contentCurator,
             this.consumerCurator, this.consumerTypeCurator, this.environmentCurator, this.caCertCurator,
             this.mockEventSink, this.anonymousCloudConsumerCurator, this.anonymousContentAccessCertCurator,
-            this.mockProdAdapter, this.cache);
+            this.mockProdAdapter, this.cache, this.payloadCache);
     }
 
     private Owner createSCAOwner() {
@@ -38,6 +38,7 @@ import static org.mockito.Mockito.when;
 import org.candlepin.audit.EventSink;
 import org.candlepin.cache.AnonymousCertContent;
 import org.candlepin.cache.AnonymousCertContentCache;
+import org.candlepin.cache.ContentAccessPayloadCache;
 import org.candlepin.config.ConfigProperties;
 import org.candlepin.config.DevConfig;
 import org.candlepin.config.TestConfig;
@@ -77,11 +78,13 @@ import org.candlepin.pki.impl.BouncyCastlePKIUtility;
 import org.candlepin.pki.impl.BouncyCastlePrivateKeyReader;
 import org.candlepin.pki.impl.BouncyCastleSecurityProvider;
 import org.candlepin.pki.impl.BouncyCastleSubjectKeyIdentifierWriter;
+import org.candlepin.pki.impl.KeyPairPool;
 import org.candlepin.service.ProductServiceAdapter;
 import org.candlepin.service.model.ContentInfo;
 import org.candlepin.service.model.ProductContentInfo;
 import org.candlepin.service.model.ProductInfo;
 import org.candlepin.test.TestUtil;
+import org.candlepin.util.ContentPathEncoder;
 import org.candlepin.util.ObjectMapperFactory;
 import org.candlepin.util.Util;
 import org.candlepin.util.X509V3ExtensionUtil;
@@ -158,6 +161,7 @@ public class ContentAccessManagerTest {
     private PKIUtility pkiUtility;
     private X509V3ExtensionUtil x509V3ExtensionUtil;
     private AnonymousCertContentCache cache;
+    private ContentAccessPayloadCache payloadCache;
 
     private final String entitlementMode = ContentAccessMode.ENTITLEMENT.toDatabaseValue();
     private final String orgEnvironmentMode = ContentAccessMode.ORG_ENVIRONMENT.toDatabaseValue();
@@ -186,10 +190,10 @@ public class ContentAccessManagerTest {
         CertificateReader certReader = new CertificateReader(this.config, keyReader);
         SubjectKeyIdentifierWriter keyIdWriter = new BouncyCastleSubjectKeyIdentifierWriter();
         this.pkiUtility = spy(new BouncyCastlePKIUtility(new BouncyCastleSecurityProvider(), certReader,
-            keyIdWriter, this.config, this.mockKeyPairDataCurator));
+            keyIdWriter, this.config, this.mockKeyPairDataCurator, new KeyPairPool(this.config)));
 
         this.x509V3ExtensionUtil = spy(new X509V3ExtensionUtil(this.config, this.mockEntitlementCurator,
-            objectMapper));
+            new ContentPathEncoder(), objectMapper));
 
         // FIXME: This mess of mocks is why we should not be using mocks in this way. We should be
         // using a test database framework and our actual curators and objects.
@@ -215,6 +219,7 @@ public class ContentAccessManagerTest {
             this.mockAnonCloudConsumerCurator);
 
         cache = new AnonymousCertContentCache(config);
+        payloadCache = new ContentAccessPayloadCache(config);
     }
 
     public static class PersistSimulator<T extends AbstractHibernateObject> implements Answer<T> {
@@ -241,7 +246,7 @@ public class ContentAccessManagerTest {
             this.mockCertSerialCurator, this.mockOwnerCurator, this.mockContentCurator,
             this.mockConsumerCurator, this.mockConsumerTypeCurator, this.mockEnvironmentCurator,
             this.mockContentAccessCertCurator, this.mockEventSink, this.mockAnonCloudConsumerCurator,
-            this.mockAnonContentAccessCertCurator, this.mockProdAdapter, this.cache);
+            this.mockAnonContentAccessCertCurator, this.mockProdAdapter, this.cache, this.payloadCache);
     }
 
     private ContentAccessManager createManager() {
@@ -716,6 +721,55 @@ public class ContentAccessManagerTest {
         this.verifyContainerContentPath(expectedPrefix);
     }
 
+    @Test
+    public void testScaPayloadIsSharedBetweenConsumersWithSameContentView() throws Exception {
+        Owner owner = this.mockOwner();
+        owner.setLastContentUpdate(TestUtil.createDateOffset(0, 0, -1));
+        Consumer consumer1 = this.mockConsumer(owner);
+        Consumer consumer2 = this.mockConsumer(owner)
+            .setUuid("test-consumer-uuid-2")
+            .setId("test-consumer-id-2");
+        Content content = this.mockContent(owner);
+        Environment environment = this.mockEnvironment(owner, consumer1, content);
+        consumer2.addEnvironment(environment);
+        when(mockEnvironmentCurator.getConsumerEnvironments(any(Consumer.class)))
+            .thenReturn(List.of(environment));
+
+        ContentAccessManager manager = this.createManager();
+        ContentAccessCertificate output1 = manager.getCertificate(consumer1);
+        ContentAccessCertificate output2 = manager.getCertificate(consumer2);
+        assertNotNull(output1);
+        assertNotNull(output2);
+
+        // The product models are built once, but each payload carries its own consumer's UUID
+        verify(this.x509V3ExtensionUtil, times(1))
+            .mapProduct(any(), any(), any(), any(), any(), any());
+        verify(this.x509V3ExtensionUtil, times(1))
+            .createEntitlementDataPayload(any(), eq(consumer1.getUuid()), any(), any());
+        verify(this.x509V3ExtensionUtil, times(1))
+            .createEntitlementDataPayload(any(), eq(consumer2.getUuid()), any(), any());
+        assertEquals(1, this.payloadCache.getStats().hitCount());
+    }
+
+    @Test
+    public void testScaPayloadIsRebuiltAfterOwnerContentUpdate() throws Exception {
+        Owner owner = this.mockOwner();
+        owner.setLastContentUpdate(TestUtil.createDateOffset(0, 0, -1));
+        Consumer consumer1 = this.mockConsumer(owner);
+        Consumer consumer2 = this.mockConsumer(owner)
+            .setUuid("test-consumer-uuid-2")
+            .setId("test-consumer-id-2");
+
+        ContentAccessManager manager = this.createManager();
+        assertNotNull(manager.getCertificate(consumer1));
+
+        manager.syncOwnerLastContentUpdate(owner);
+        assertNotNull(manager.getCertificate(consumer2));
+
+        verify(this.x509V3ExtensionUtil, times(2))
+            .mapProduct(any(), any(), any(), any(), any(), any());
+    }
+
     @Test
     public void testGetCertificateReturnsNullOnException() throws Exception {
         Owner owner = this.mockOwner();
@@ -16,12 +16,17 @@ package org.candlepin.controller;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -51,6 +56,7 @@ import org.candlepin.model.Entitlement;
 import org.candlepin.model.EntitlementCurator;
 import org.candlepin.model.Owner;
 import org.candlepin.sync.ConflictOverrides;
+import org.candlepin.sync.ExportCreationException;
 import org.candlepin.sync.ExportResult;
 import org.candlepin.sync.Exporter;
 import org.candlepin.sync.Importer;
@@ -71,12 +77,17 @@ import org.mockito.quality.Strictness;
 import org.xnap.commons.i18n.I18n;
 import org.xnap.commons.i18n.I18nFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
@@ -364,6 +375,23 @@ public class ManifestManagerTest {
         verifyNoMoreInteractions(fileService);
     }
 
+    private ManifestFile mockStoredExport(String manifestId, Consumer consumer, byte[] content) {
+        ManifestFile manifest = mock(ManifestFile.class);
+        when(manifest.getId()).thenReturn(manifestId);
+        when(manifest.getName()).thenReturn("manifest.zip");
+        when(manifest.getTargetId()).thenReturn(consumer.getUuid());
+        when(manifest.getSize()).thenReturn((long) content.length);
+        when(manifest.getDigest()).thenReturn("abc123");
+        when(manifest.getInputStream(anyLong())).thenAnswer(invocation -> {
+            long offset = invocation.getArgument(0);
+            return new ByteArrayInputStream(content, (int) offset, content.length - (int) offset);
+        });
+
+        when(fileService.get(eq(manifestId))).thenReturn(manifest);
+
+        return manifest;
+    }
+
     @Test
     public void testWriteStoredExportToResponse() throws Exception {
         HttpServletResponse response = mock(HttpServletResponse.class);
@@ -375,24 +403,144 @@ public class ManifestManagerTest {
             .thenReturn(exportedConsumer);
 
         String manifestId = "124";
-        String manifestFilename = "manifest.zip";
+        byte[] content = "manifest content".getBytes(StandardCharsets.UTF_8);
+        this.mockStoredExport(manifestId, exportedConsumer, content);
 
-        ManifestFile manifest = mock(ManifestFile.class);
-        InputStream mockManifestInputStream = mock(InputStream.class);
-        when(manifest.getId()).thenReturn(manifestId);
-        when(manifest.getName()).thenReturn(manifestFilename);
-        when(manifest.getTargetId()).thenReturn(exportedConsumer.getUuid());
-        when(manifest.getInputStream()).thenReturn(mockManifestInputStream);
-        when(fileService.get(eq(manifestId))).thenReturn(manifest);
-        when(mockManifestInputStream.read()).thenReturn(-1); // Simulate no data for test.
+        boolean complete = manager.writeStoredExportToResponse(manifestId, exportedConsumer.getUuid(),
+            null, null, response);
 
-        manager.writeStoredExportToResponse(manifestId, exportedConsumer.getUuid(), response);
+        assertTrue(complete);
         verify(fileService).get(eq(manifestId));
         verify(response).setContentType("application/zip");
-        verify(response).setHeader(eq("Content-Disposition"), eq("attachment; filename=" + manifestFilename));
+        verify(response).setHeader(eq("Content-Disposition"), eq("attachment; filename=manifest.zip"));
+        verify(response).setHeader(eq("ETag"), eq("\"abc123\""));
+        verify(response).setContentLengthLong(content.length);
+        verify(response, never()).setStatus(anyInt());
+        verify(responseOutputStream).write(any(byte[].class), eq(0), eq(content.length));
         verify(responseOutputStream).flush();
     }
 
+    @Test
+    public void testWriteStoredExportToResponseWritesRequestedRange() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        ServletOutputStream responseOutputStream = mock(ServletOutputStream.class);
+        doAnswer(invocation -> {
+            written.write(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(responseOutputStream).write(any(byte[].class), anyInt(), anyInt());
+        when(response.getOutputStream()).thenReturn(responseOutputStream);
+
+        Consumer exportedConsumer = this.createMockConsumer(true);
+        when(consumerCurator.verifyAndLookupConsumer(eq(exportedConsumer.getUuid())))
+            .thenReturn(exportedConsumer);
+
+        String manifestId = "124";
+        byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+        this.mockStoredExport(manifestId, exportedConsumer, content);
+
+        boolean complete = manager.writeStoredExportToResponse(manifestId, exportedConsumer.getUuid(),
+            "bytes=2-5", "\"abc123\"", response);
+
+        assertFalse(complete);
+        assertEquals("2345", written.toString(StandardCharsets.UTF_8));
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader(eq("Content-Range"), eq("bytes 2-5/10"));
+        verify(response).setContentLengthLong(4);
+    }
+
+    @Test
+    public void testWriteStoredExportToResponseIgnoresRangeForChangedFile() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ServletOutputStream responseOutputStream = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(responseOutputStream);
+
+        Consumer exportedConsumer = this.createMockConsumer(true);
+        when(consumerCurator.verifyAndLookupConsumer(eq(exportedConsumer.getUuid())))
+            .thenReturn(exportedConsumer);
+
+        String manifestId = "124";
+        byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+        this.mockStoredExport(manifestId, exportedConsumer, content);
+
+        boolean complete = manager.writeStoredExportToResponse(manifestId, exportedConsumer.getUuid(),
+            "bytes=2-5", "\"outdated\"", response);
+
+        assertTrue(complete);
+        verify(response, never()).setStatus(anyInt());
+        verify(response).setContentLengthLong(content.length);
+    }
+
+    @Test
+    public void testWriteStoredExportToResponseRejectsUnsatisfiableRange() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        Consumer exportedConsumer = this.createMockConsumer(true);
+        when(consumerCurator.verifyAndLookupConsumer(eq(exportedConsumer.getUuid())))
+            .thenReturn(exportedConsumer);
+
+        String manifestId = "124";
+        byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+        this.mockStoredExport(manifestId, exportedConsumer, content);
+
+        boolean complete = manager.writeStoredExportToResponse(manifestId, exportedConsumer.getUuid(),
+            "bytes=10-", null, response);
+
+        assertFalse(complete);
+        verify(response).setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        verify(response).setHeader(eq("Content-Range"), eq("bytes */10"));
+        verify(response, never()).getOutputStream();
+    }
+
+    @Test
+    public void testWriteManifestToResponse() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ServletOutputStream responseOutputStream = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(responseOutputStream);
+
+        Consumer consumer = this.createMockConsumer(true);
+        Cdn cdn = new Cdn("test-cdn", "Test CDN", "");
+        String webAppPrefix = "webapp-prefix";
+        String apiUrl = "api-url";
+        String filename = consumer.getUuid() + "-export.zip";
+
+        Event event = mock(Event.class);
+        when(eventFactory.exportCreated(eq(consumer))).thenReturn(event);
+        when(consumerCurator.verifyAndLookupConsumer(eq(consumer.getUuid()))).thenReturn(consumer);
+        when(cdnCurator.getByLabel(eq(cdn.getLabel()))).thenReturn(cdn);
+        when(exporter.getExportFileName(eq(consumer))).thenReturn(filename);
+
+        manager.writeManifestToResponse(consumer.getUuid(), cdn.getLabel(), webAppPrefix, apiUrl, response);
+
+        verify(poolManager).regenerateDirtyEntitlements(eq(consumer));
+        verify(exporter).getFullExport(eq(consumer), eq(cdn.getLabel()), eq(webAppPrefix), eq(apiUrl),
+            any(OutputStream.class));
+        verify(response).setContentType("application/zip");
+        verify(response).setHeader(eq("Content-Disposition"), eq("attachment; filename=" + filename));
+        verify(responseOutputStream).flush();
+        verify(eventSink).queueEvent(eq(event));
+        verifyNoInteractions(fileService);
+    }
+
+    @Test
+    public void testWriteEntitlementArchiveToResponseResetsResponseOnFailure() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ServletOutputStream responseOutputStream = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(responseOutputStream);
+
+        Consumer consumer = this.createMockConsumer(true);
+        Set<Long> serials = Set.of(123L);
+        doThrow(new ExportCreationException("failed")).when(exporter)
+            .getEntitlementExport(eq(consumer), eq(serials), any(OutputStream.class));
+
+        assertThrows(ExportCreationException.class,
+            () -> manager.writeEntitlementArchiveToResponse(consumer, serials, response));
+
+        verify(poolManager).regenerateDirtyEntitlements(eq(consumer));
+        verify(response).setContentType("text/json");
+        verify(response).setHeader(eq("Content-Disposition"), eq(""));
+    }
+
     @Test
     public void testWriteStoredExportToResponseFailsWhenManifestFileNotFound() throws Exception {
         HttpServletResponse response = mock(HttpServletResponse.class);
@@ -404,7 +552,8 @@ public class ManifestManagerTest {
 
         when(fileService.get(eq(manifestId))).thenReturn(null);
         assertThrows(NotFoundException.class, () ->
-            manager.writeStoredExportToResponse(manifestId, exportedConsumer.getUuid(), response)
+            manager.writeStoredExportToResponse(manifestId, exportedConsumer.getUuid(), null, null,
+                response)
         );
     }
 
@@ -422,7 +571,8 @@ public class ManifestManagerTest {
         when(fileService.get(eq(manifestId))).thenReturn(manifest);
 
         assertThrows(BadRequestException.class, () ->
-            manager.writeStoredExportToResponse(manifestId, exportedConsumer.getUuid(), response)
+            manager.writeStoredExportToResponse(manifestId, exportedConsumer.getUuid(), null, null,
+                response)
         );
     }
 
@@ -18,7 +18,9 @@ import static org.candlepin.model.SourceSubscription.DERIVED_POOL_SUB_KEY;
 import static org.candlepin.model.SourceSubscription.PRIMARY_POOL_SUB_KEY;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
@@ -65,6 +67,8 @@ import org.candlepin.bind.PoolOperations;
 import org.candlepin.bind.PostBindBonusPoolsOp;
 import org.candlepin.bind.PreEntitlementRulesCheckOp;
 import org.candlepin.bind.PreEntitlementRulesCheckOpFactory;
+import org.candlepin.bind.ReservePoolQuantitiesOp;
+import org.candlepin.cache.AvailablePoolCountCache;
 import org.candlepin.config.ConfigProperties;
 import org.candlepin.config.Configuration;
 import org.candlepin.controller.refresher.RefreshResult;
@@ -216,6 +220,8 @@ public class PoolManagerTest {
     private OwnerCurator ownerCurator;
     @Mock
     private PoolOpProcessor poolOpProcessor;
+    @Mock
+    private AvailablePoolCountCache availablePoolCountCache;
 
     private PoolConverter poolConverter;
     private PoolManager manager;
@@ -271,7 +277,7 @@ public class PoolManagerTest {
             poolCurator, mockEventSink, eventFactory, config, enforcer, poolRules, entitlementCurator,
             consumerCuratorMock, consumerTypeCurator, mockECGenerator, complianceRules, autobindRules,
             activationKeyRules, mockOwnerCurator, i18n, poolService, mockBindChainFactory,
-            refreshWorkerProvider, poolOpProcessor, poolConverter));
+            refreshWorkerProvider, poolOpProcessor, poolConverter, availablePoolCountCache));
 
         this.refresherFactory = new RefresherFactory(ownerCurator, manager, poolCurator, poolConverter);
 
@@ -334,6 +340,7 @@ public class PoolManagerTest {
         final HandleCertificatesOp certificatesOp = new HandleCertificatesOp(mockECGenerator, certCurator,
             entitlementCurator);
         final ComplianceOp complianceOp = new ComplianceOp(complianceRules, systemPurposeComplianceRules);
+        final ReservePoolQuantitiesOp reservePoolQuantitiesOp = new ReservePoolQuantitiesOp(poolCurator);
 
         when(mockPreEntitlementRulesCheckFactory.create(any(CallerType.class)))
             .thenAnswer(new Answer<PreEntitlementRulesCheckOp>() {
@@ -357,6 +364,7 @@ public class PoolManagerTest {
                         consumerTypeCurator,
                         mockOwnerCurator,
                         i18n,
+                        config,
                         consumer,
                         pQ);
                 }
@@ -377,6 +385,7 @@ public class PoolManagerTest {
                         checkBonusPoolQuantitiesOp,
                         certificatesOp,
                         complianceOp,
+                        reservePoolQuantitiesOp,
                         consumer,
                         pQ,
                         type);
@@ -1902,4 +1911,139 @@ public class PoolManagerTest {
         assertEquals(2, derivedPool3.getConsumed().intValue());
     }
 
+    /**
+     * Sets up the given number of candidate pools for paged listings, of which the rules accept only
+     * those at even positions. Returns the IDs of the candidates, in order.
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> mockPagedPoolCandidates(Consumer consumer, int count) {
+        Map<String, Pool> pools = new HashMap<>();
+        List<String> poolIds = new ArrayList<>();
+
+        for (int i = 0; i < count; ++i) {
+            Pool pool = TestUtil.createPool(owner, product)
+                .setId(String.format("pool-%03d", i));
+
+            pools.put(pool.getId(), pool);
+            poolIds.add(pool.getId());
+        }
+
+        doReturn(poolIds).when(poolCurator).listAvailableEntitlementPoolIds(eq(consumer),
+            nullable(String.class), nullable(Collection.class), nullable(String.class), nullable(Date.class),
+            any(PoolFilterBuilder.class), any(PageRequest.class), anyBoolean(), anyBoolean(),
+            nullable(Date.class));
+
+        doAnswer(iom -> {
+            Collection<String> ids = iom.getArgument(0);
+
+            // Return the pools out of order to verify the listing restores the candidate order
+            List<Pool> result = ids.stream()
+                .map(pools::get)
+                .collect(Collectors.toList());
+            Collections.reverse(result);
+
+            CandlepinQuery<Pool> query = mock(CandlepinQuery.class);
+            doReturn(result).when(query).list();
+            return query;
+        }).when(poolCurator).listAllByIds(anyCollection());
+
+        doAnswer(iom -> ((List<Pool>) iom.getArgument(1)).stream()
+            .filter(pool -> Integer.parseInt(pool.getId().substring(5)) % 2 == 0)
+            .collect(Collectors.toList()))
+            .when(enforcer).filterPools(eq(consumer), anyList(), anyBoolean());
+
+        return poolIds;
+    }
+
+    @Test
+    public void testPagedConsumerPoolListingStopsOnceThePageIsFilled() {
+        Consumer consumer = TestUtil.createConsumer(owner);
+        List<String> poolIds = this.mockPagedPoolCandidates(consumer, 200);
+
+        doReturn(100).when(availablePoolCountCache).get(anyString(), anyBoolean(), anyCollection());
+
+        PageRequest pageRequest = new PageRequest()
+            .setPage(2)
+            .setPerPage(5);
+
+        Page<List<Pool>> page = manager.listAvailableEntitlementPools(consumer, null, owner.getId(), null,
+            null, new Date(), false, new PoolFilterBuilder(), pageRequest, false, false, null);
+
+        assertEquals(List.of("pool-010", "pool-012", "pool-014", "pool-016", "pool-018"),
+            page.getPageData().stream().map(Pool::getId).collect(Collectors.toList()));
+        assertEquals(100, page.getMaxRecords());
+        assertEquals(pageRequest, page.getPageRequest());
+
+        // Only the first chunk of candidates should have been loaded and run through the rules
+        verify(poolCurator, times(1)).listAllByIds(anyCollection());
+        verify(poolCurator).listAllByIds(poolIds.subList(0, 32));
+        verify(availablePoolCountCache, never()).put(anyString(), anyBoolean(), anyCollection(), anyInt());
+    }
+
+    @Test
+    public void testPagedConsumerPoolListingOmitsTotalOnCacheMiss() {
+        Consumer consumer = TestUtil.createConsumer(owner);
+        List<String> poolIds = this.mockPagedPoolCandidates(consumer, 1200);
+
+        PageRequest pageRequest = new PageRequest()
+            .setPage(1)
+            .setPerPage(10);
+
+        Page<List<Pool>> page = manager.listAvailableEntitlementPools(consumer, null, owner.getId(), null,
+            null, new Date(), true, new PoolFilterBuilder(), pageRequest, false, false, null);
+
+        assertEquals(10, page.getPageData().size());
+        assertEquals("pool-000", page.getPageData().get(0).getId());
+        assertEquals("pool-018", page.getPageData().get(9).getId());
+        assertNull(page.getMaxRecords());
+
+        // The remaining candidates should not be filtered just to count them
+        verify(poolCurator, times(1)).listAllByIds(anyCollection());
+        verify(availablePoolCountCache).get(anyString(), eq(true), eq(poolIds));
+        verify(availablePoolCountCache, never()).put(anyString(), anyBoolean(), anyCollection(), anyInt());
+    }
+
+    @Test
+    public void testPagedConsumerPoolListingCountSubjectTracksConsumerUpdates() {
+        Consumer consumer = TestUtil.createConsumer(owner);
+        consumer.setUpdated(new Date(1000));
+        this.mockPagedPoolCandidates(consumer, 20);
+
+        PageRequest pageRequest = new PageRequest()
+            .setPage(1)
+            .setPerPage(5);
+
+        manager.listAvailableEntitlementPools(consumer, null, owner.getId(), null, null, new Date(), false,
+            new PoolFilterBuilder(), pageRequest, false, false, null);
+
+        consumer.setUpdated(new Date(2000));
+        manager.listAvailableEntitlementPools(consumer, null, owner.getId(), null, null, new Date(), false,
+            new PoolFilterBuilder(), pageRequest, false, false, null);
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(availablePoolCountCache, times(2)).put(captor.capture(), eq(false), anyCollection(), eq(10));
+        assertNotEquals(captor.getAllValues().get(0), captor.getAllValues().get(1));
+    }
+
+    @Test
+    public void testPagedConsumerPoolListingPastTheLastPage() {
+        Consumer consumer = TestUtil.createConsumer(owner);
+        List<String> poolIds = this.mockPagedPoolCandidates(consumer, 20);
+
+        PageRequest pageRequest = new PageRequest()
+            .setPage(3)
+            .setPerPage(5);
+
+        Page<List<Pool>> page = manager.listAvailableEntitlementPools(consumer, null, owner.getId(), null,
+            null, new Date(), false, new PoolFilterBuilder(), pageRequest, false, false, null);
+
+        assertTrue(page.getPageData().isEmpty());
+        assertEquals(10, page.getMaxRecords());
+
+        // All of the candidates were filtered while trying to fill the page, so the count is exact and
+        // should not need the cache
+        verify(availablePoolCountCache, never()).get(anyString(), anyBoolean(), anyCollection());
+        verify(availablePoolCountCache).put(anyString(), eq(false), eq(poolIds), eq(10));
+    }
+
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.controller.refresher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.candlepin.model.Content;
+import org.candlepin.model.Product;
+import org.candlepin.service.model.ContentInfo;
+import org.candlepin.service.model.ProductInfo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+
+
+/**
+ * Test suite for the EntityDigester class
+ */
+public class EntityDigesterTest {
+
+    private Content buildContent(String id) {
+        return new Content()
+            .setId(id)
+            .setName("content-" + id)
+            .setLabel("label-" + id)
+            .setType("yum")
+            .setVendor("vendor");
+    }
+
+    private Product buildProduct(String id, Content... content) {
+        Product product = new Product(id, "product-" + id);
+
+        for (Content elem : content) {
+            product.addContent(elem, true);
+        }
+
+        return product;
+    }
+
+    @Test
+    public void testDigestRequiresContent() {
+        EntityDigester digester = new EntityDigester();
+        assertThrows(IllegalArgumentException.class, () -> digester.getDigest((ContentInfo) null));
+    }
+
+    @Test
+    public void testDigestRequiresProduct() {
+        EntityDigester digester = new EntityDigester();
+        assertThrows(IllegalArgumentException.class, () -> digester.getDigest((ProductInfo) null));
+    }
+
+    @Test
+    public void testEqualContentHasEqualDigests() {
+        String digest1 = new EntityDigester().getDigest(this.buildContent("c1"));
+        String digest2 = new EntityDigester().getDigest(this.buildContent("c1"));
+
+        assertNotNull(digest1);
+        assertEquals(digest1, digest2);
+    }
+
+    @Test
+    public void testContentDigestTreatsEmptyValuesAsNull() {
+        Content content1 = this.buildContent("c1")
+            .setContentUrl("")
+            .setReleaseVersion("");
+        Content content2 = this.buildContent("c1");
+
+        EntityDigester digester = new EntityDigester();
+        assertEquals(digester.getDigest(content1), digester.getDigest(content2));
+    }
+
+    @Test
+    public void testContentDigestChangesWithContent() {
+        Content content1 = this.buildContent("c1");
+        Content content2 = this.buildContent("c1")
+            .setContentUrl("/content/dist");
+
+        EntityDigester digester = new EntityDigester();
+        assertNotEquals(digester.getDigest(content1), digester.getDigest(content2));
+    }
+
+    @Test
+    public void testProductDigestIgnoresCollectionOrdering() {
+        Product product1 = this.buildProduct("p1", this.buildContent("c1"), this.buildContent("c2"))
+            .setAttributes(Map.of("a1", "v1", "a2", "v2"))
+            .setDependentProductIds(List.of("d1", "d2"));
+        Product product2 = this.buildProduct("p1", this.buildContent("c2"), this.buildContent("c1"))
+            .setAttributes(Map.of("a2", "v2", "a1", "v1"))
+            .setDependentProductIds(List.of("d2", "d1"));
+
+        EntityDigester digester = new EntityDigester();
+        assertEquals(digester.getDigest(product1), digester.getDigest(product2));
+    }
+
+    @Test
+    public void testProductDigestCoversChildContent() {
+        Product product1 = this.buildProduct("p1", this.buildContent("c1"));
+        Product product2 = this.buildProduct("p1", this.buildContent("c1").setGpgUrl("/gpg"));
+
+        EntityDigester digester = new EntityDigester();
+        assertNotEquals(digester.getDigest(product1), digester.getDigest(product2));
+    }
+
+    @Test
+    public void testProductDigestCoversContentEnablement() {
+        Product product1 = this.buildProduct("p1", this.buildContent("c1"));
+        Product product2 = this.buildProduct("p1")
+            .addContent(this.buildContent("c1"), false);
+
+        EntityDigester digester = new EntityDigester();
+        assertNotEquals(digester.getDigest(product1), digester.getDigest(product2));
+    }
+
+    @Test
+    public void testProductDigestCoversChildProducts() {
+        Product product1 = this.buildProduct("p1");
+        product1.addProvidedProduct(this.buildProduct("p2"));
+
+        Product product2 = this.buildProduct("p1");
+        product2.addProvidedProduct(this.buildProduct("p2").setMultiplier(5L));
+
+        EntityDigester digester = new EntityDigester();
+        assertNotEquals(digester.getDigest(product1), digester.getDigest(product2));
+    }
+
+    @Test
+    public void testProductDigestCoversDerivedProduct() {
+        Product product1 = this.buildProduct("p1")
+            .setDerivedProduct(this.buildProduct("p2"));
+        Product product2 = this.buildProduct("p1")
+            .setDerivedProduct(this.buildProduct("p3"));
+
+        EntityDigester digester = new EntityDigester();
+        assertNotEquals(digester.getDigest(product1), digester.getDigest(product2));
+    }
+}
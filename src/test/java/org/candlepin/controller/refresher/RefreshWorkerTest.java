@@ -20,6 +20,7 @@ import static org.hamcrest.Matchers.hasKey;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.Mockito.any;
@@ -29,10 +30,12 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import org.candlepin.controller.refresher.RefreshResult.EntityState;
 import org.candlepin.model.CandlepinQuery;
 import org.candlepin.model.Content;
 import org.candlepin.model.ContentCurator;
@@ -1251,4 +1254,139 @@ public class RefreshWorkerTest {
         verify(mockProductCurator, times(1)).create(Mockito.any(Product.class));
     }
 
+    @Test
+    public void testExecuteSkipsUnchangedEntityTrees() {
+        Owner owner = new Owner();
+
+        ProductContentInfo pcinfo = this.mockProductContentInfo("cid-1", "content-1");
+        ProductInfo pinfo1 = this.mockProductInfo("pid-1", "product-1");
+        ProductInfo pinfo2 = this.mockProductInfo("pid-2", "product-2");
+
+        doReturn(List.of(pcinfo)).when(pinfo2).getProductContent();
+        doReturn(List.of(pinfo2)).when(pinfo1).getProvidedProducts();
+
+        EntityDigester digester = new EntityDigester();
+
+        Content content = new Content()
+            .setUuid("content-uuid")
+            .setId("cid-1")
+            .setName("content-1")
+            .setDigest(digester.getDigest(pcinfo.getContent()));
+        Product product2 = new Product("pid-2", "product-2")
+            .setDigest(digester.getDigest(pinfo2));
+        Product product1 = new Product("pid-1", "product-1")
+            .setDigest(digester.getDigest(pinfo1));
+
+        this.mockProductLookup(List.of(product1, product2));
+        this.mockContentLookup(List.of(content));
+
+        RefreshWorker worker = this.buildRefreshWorker();
+        worker.addSubscriptions(this.mockSubscriptionInfo("sub", pinfo1));
+
+        RefreshResult result = worker.execute(owner);
+
+        assertEquals(EntityState.UNCHANGED, result.getEntityState(Product.class, "pid-1"));
+        assertEquals(EntityState.UNCHANGED, result.getEntityState(Product.class, "pid-2"));
+        assertEquals(EntityState.UNCHANGED, result.getEntityState(Content.class, "cid-1"));
+        assertSame(product1, result.getEntity(Product.class, "pid-1", EntityState.UNCHANGED));
+
+        // None of the unchanged trees should have been walked or written
+        verify(this.mockProductCurator, never())
+            .getChildrenProductsOfProductsByUuids(Mockito.any(Collection.class));
+        verify(this.mockContentCurator, never())
+            .getChildrenContentOfProductsByUuids(Mockito.any(Collection.class));
+        verify(this.mockProductCurator, never()).merge(Mockito.any(Product.class));
+        verify(this.mockContentCurator, never()).merge(Mockito.any(Content.class));
+    }
+
+    @Test
+    public void testExecuteProcessesTreesWithChangedChildren() {
+        Owner owner = new Owner();
+
+        ProductContentInfo pcinfo = this.mockProductContentInfo("cid-1", "updated-content");
+        ProductInfo pinfo = this.mockProductInfo("pid-1", "product-1");
+        doReturn(List.of(pcinfo)).when(pinfo).getProductContent();
+
+        EntityDigester digester = new EntityDigester();
+
+        // The product's digest matches its upstream tree, but the content was changed elsewhere
+        // since; the product must not be skipped on its digest alone
+        Content content = new Content()
+            .setUuid("content-uuid")
+            .setId("cid-1")
+            .setName("content-1")
+            .setDigest("stale");
+        Product product = new Product("pid-1", "product-1")
+            .addContent(content, false)
+            .setDigest(digester.getDigest(pinfo));
+
+        this.mockProductLookup(List.of(product));
+        this.mockContentLookup(List.of(content));
+        this.mockChildrenProductLookup(List.of(product));
+        this.mockChildrenContentLookup(List.of(product));
+
+        RefreshWorker worker = this.buildRefreshWorker();
+        worker.addProducts(pinfo);
+
+        RefreshResult result = worker.execute(owner);
+
+        assertEquals(EntityState.UPDATED, result.getEntityState(Content.class, "cid-1"));
+        assertEquals(EntityState.UPDATED, result.getEntityState(Product.class, "pid-1"));
+        assertEquals("updated-content", content.getName());
+        assertEquals(digester.getDigest(pcinfo.getContent()), content.getDigest());
+    }
+
+    @Test
+    public void testExecuteStoresDigestsOfRefreshedEntities() {
+        Owner owner = new Owner();
+
+        ProductContentInfo pcinfo = this.mockProductContentInfo("cid-1", "content-1");
+        ProductInfo pinfo = this.mockProductInfo("pid-1", "updated-product");
+        doReturn(List.of(pcinfo)).when(pinfo).getProductContent();
+
+        Product product = new Product("pid-1", "product-1")
+            .setDigest("stale");
+
+        this.mockProductLookup(List.of(product));
+        this.mockContentLookup(List.of());
+
+        RefreshWorker worker = this.buildRefreshWorker();
+        worker.addProducts(pinfo);
+
+        RefreshResult result = worker.execute(owner);
+
+        EntityDigester digester = new EntityDigester();
+
+        Product updated = result.getEntity(Product.class, "pid-1", EntityState.UPDATED);
+        assertNotNull(updated);
+        assertEquals(digester.getDigest(pinfo), updated.getDigest());
+
+        Content created = result.getEntity(Content.class, "cid-1", EntityState.CREATED);
+        assertNotNull(created);
+        assertEquals(digester.getDigest(pcinfo.getContent()), created.getDigest());
+    }
+
+    @Test
+    public void testExecuteClearsDigestsOfPartialUpstreamProducts() {
+        Owner owner = new Owner();
+
+        // A null children collection means "no change" upstream and cannot be digested
+        ProductInfo pinfo = this.mockProductInfo("pid-1", "updated-product");
+        doReturn(null).when(pinfo).getProvidedProducts();
+
+        Product product = new Product("pid-1", "product-1")
+            .setDigest("stale");
+
+        this.mockProductLookup(List.of(product));
+        this.mockContentLookup(List.of());
+
+        RefreshWorker worker = this.buildRefreshWorker();
+        worker.addProducts(pinfo);
+
+        RefreshResult result = worker.execute(owner);
+
+        assertEquals(EntityState.UPDATED, result.getEntityState(Product.class, "pid-1"));
+        assertNull(product.getDigest());
+    }
+
 }
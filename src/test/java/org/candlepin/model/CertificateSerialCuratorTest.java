@@ -14,6 +14,7 @@
  */
 package org.candlepin.model;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -158,4 +159,31 @@ public class CertificateSerialCuratorTest extends DatabaseTestFixture {
         }
     }
 
+    @Test
+    public void listRevokedSerialsSinceDate() {
+        CertSerialBuilder builder = new CertSerialBuilder(this.certSerialCurator);
+
+        CertificateSerial previous = builder.withExpDate(NOT_EXPIRED).revoked(true).build();
+        CertificateSerial serial1 = builder.withExpDate(NOT_EXPIRED).revoked(false).build();
+        CertificateSerial serial2 = builder.withExpDate(NOT_EXPIRED).revoked(false).build();
+        CertificateSerial expired = builder.withExpDate(EXPIRED).revoked(false).build();
+        builder.withExpDate(NOT_EXPIRED).revoked(false).build();
+
+        this.getEntityManager()
+            .createQuery("UPDATE CertificateSerial SET updated = :updated WHERE id = :id")
+            .setParameter("updated", EXPIRED)
+            .setParameter("id", previous.getId())
+            .executeUpdate();
+
+        Date since = TestUtil.createDate(2020, 1, 1);
+
+        certSerialCurator.revokeByIds(List.of(serial1.getId(), expired.getId()));
+        certSerialCurator.revokeById(serial2.getId());
+
+        assertThat(certSerialCurator.listRevokedSerialIdsSince(since))
+            .containsExactlyInAnyOrder(serial1.getId(), serial2.getId());
+        assertThat(certSerialCurator.listRevokedSerialIdsSince(new Date(0)))
+            .containsExactlyInAnyOrder(previous.getId(), serial1.getId(), serial2.getId());
+    }
+
 }
@@ -26,7 +26,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.candlepin.async.tasks.InactiveConsumerCleanerJob;
+import org.candlepin.cache.OwnerInfoCache;
 import org.candlepin.config.ConfigProperties;
+import org.candlepin.dto.api.server.v1.OwnerInfo;
 import org.candlepin.exceptions.NotFoundException;
 import org.candlepin.model.ConsumerType.ConsumerTypeEnum;
 import org.candlepin.test.DatabaseTestFixture;
@@ -54,6 +56,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import javax.persistence.EntityManager;
 
@@ -1139,6 +1143,73 @@ public class ConsumerCuratorTest extends DatabaseTestFixture {
         assertTrue(consumer.getLastCheckin().getTime() > date.getTime());
     }
 
+    @Test
+    public void updateLastCheckIns() {
+        Date yesterday = Util.yesterday();
+        Date tomorrow = Util.tomorrow();
+        Date now = new Date();
+
+        Consumer consumer1 = consumerCurator.create(new Consumer()
+            .setName("consumer1")
+            .setUsername("testUser")
+            .setOwner(owner)
+            .setType(ct));
+        Consumer consumer2 = consumerCurator.create(new Consumer()
+            .setName("consumer2")
+            .setUsername("testUser")
+            .setOwner(owner)
+            .setType(ct)
+            .setLastCheckin(yesterday));
+        Consumer consumer3 = consumerCurator.create(new Consumer()
+            .setName("consumer3")
+            .setUsername("testUser")
+            .setOwner(owner)
+            .setType(ct)
+            .setLastCheckin(tomorrow));
+
+        int updated = consumerCurator.updateLastCheckins(Map.of(
+            consumer1.getId(), now,
+            consumer2.getId(), yesterday,
+            consumer3.getId(), now));
+
+        assertEquals(1, updated);
+
+        consumerCurator.refresh(consumer1, consumer2, consumer3);
+
+        // Check-ins are truncated to the second, and never move backwards
+        assertEquals(now.getTime() / 1000 * 1000, consumer1.getLastCheckin().getTime());
+        assertEquals(yesterday.getTime(), consumer2.getLastCheckin().getTime());
+        assertEquals(tomorrow.getTime(), consumer3.getLastCheckin().getTime());
+    }
+
+    @Test
+    public void testUpdateLastCheckinsInvalidatesOwnerInfoOnCommit() {
+        OwnerInfoCache cache = this.injector.getInstance(OwnerInfoCache.class);
+        Consumer consumer = consumerCurator.create(new Consumer()
+            .setName("consumer")
+            .setUsername("testUser")
+            .setOwner(owner)
+            .setType(ct));
+
+        AtomicInteger calculations = new AtomicInteger();
+        Function<String, OwnerInfo> calculator = ownerId -> {
+            calculations.incrementAndGet();
+            return new OwnerInfo();
+        };
+
+        cache.get(owner.getId(), "full", calculator);
+        consumerCurator.updateLastCheckins(Map.of(consumer.getId(), new Date()));
+
+        // The cached owner info is only dropped once the check-ins have been committed
+        cache.get(owner.getId(), "full", calculator);
+        assertEquals(1, calculations.get());
+
+        this.commitTransaction();
+
+        cache.get(owner.getId(), "full", calculator);
+        assertEquals(2, calculations.get());
+    }
+
     @Test
     public void delete() {
         Consumer consumer = new Consumer()
@@ -1714,6 +1785,83 @@ public class ConsumerCuratorTest extends DatabaseTestFixture {
         assertEquals(consumer1, hypervisorMap.get(hypervisorId1));
     }
 
+    @Test
+    public void testGetConsumersBySystemUuids() {
+        Consumer consumer1 = new Consumer()
+            .setName("testConsumer")
+            .setUsername("testUser")
+            .setOwner(owner)
+            .setType(ct)
+            .setFact(Consumer.Facts.DMI_SYSTEM_UUID, "UUID-1");
+        consumer1 = consumerCurator.create(consumer1);
+
+        Consumer consumer2 = new Consumer()
+            .setName("testConsumer2")
+            .setUsername("testUser2")
+            .setOwner(owner)
+            .setType(ct)
+            .setFact(Consumer.Facts.DMI_SYSTEM_UUID, "uuid-2");
+        consumer2 = consumerCurator.create(consumer2);
+
+        Owner otherOwner = this.createOwner("other_owner");
+        Consumer consumer3 = new Consumer()
+            .setName("testConsumer3")
+            .setUsername("testUser3")
+            .setOwner(otherOwner)
+            .setType(ct)
+            .setFact(Consumer.Facts.DMI_SYSTEM_UUID, "uuid-3");
+        consumerCurator.create(consumer3);
+
+        Map<String, Consumer> output = consumerCurator.getConsumersBySystemUuids(owner.getId(),
+            List.of("uuid-1", "UUID-2", "uuid-3", "uuid-4"));
+
+        assertEquals(Map.of("uuid-1", consumer1, "uuid-2", consumer2), output);
+    }
+
+    @Test
+    public void testGetHypervisorReportStates() {
+        Consumer consumer1 = new Consumer()
+            .setName("testConsumer")
+            .setUsername("testUser")
+            .setOwner(owner)
+            .setType(ct);
+        consumer1.setHypervisorId(new HypervisorId()
+            .setOwner(owner)
+            .setHypervisorId("HV1")
+            .setReportDigest("digest1"));
+        consumer1 = consumerCurator.create(consumer1);
+
+        // Hypervisors without a report digest are not included
+        Consumer consumer2 = new Consumer()
+            .setName("testConsumer2")
+            .setUsername("testUser2")
+            .setOwner(owner)
+            .setType(ct);
+        consumer2.setHypervisorId(new HypervisorId()
+            .setOwner(owner)
+            .setHypervisorId("hv2"));
+        consumerCurator.create(consumer2);
+
+        // Hypervisors of another consumer type are not included
+        ConsumerType otherType = this.createConsumerType();
+        Consumer consumer3 = new Consumer()
+            .setName("testConsumer3")
+            .setUsername("testUser3")
+            .setOwner(owner)
+            .setType(otherType);
+        consumer3.setHypervisorId(new HypervisorId()
+            .setOwner(owner)
+            .setHypervisorId("hv3")
+            .setReportDigest("digest3"));
+        consumerCurator.create(consumer3);
+
+        Map<String, ConsumerCurator.HypervisorReportState> output = consumerCurator
+            .getHypervisorReportStates(owner.getId(), ct.getId(), List.of("hv1", "hv2", "hv3", "hv4"));
+
+        assertEquals(Map.of("hv1", new ConsumerCurator.HypervisorReportState(consumer1.getId(),
+            consumer1.getUuid(), "testConsumer", "digest1")), output);
+    }
+
     @Test
     public void testGetHypervisorConsumerMapWithFactsAndHypervisorId() {
         // first consumer set with only the fact, not the hypervisor
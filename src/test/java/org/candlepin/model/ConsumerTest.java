@@ -486,6 +486,31 @@ public class ConsumerTest extends DatabaseTestFixture {
         assertEquals(1, lookedUp.getGuestIds().size());
     }
 
+    @Test
+    public void testChangesClearHypervisorReportDigest() {
+        Consumer consumer = new Consumer()
+            .setName("consumer1")
+            .setOwner(owner)
+            .setType(consumerType)
+            .setHypervisorId(new HypervisorId().setHypervisorId("hv1"));
+
+        List<Runnable> changes = List.of(
+            () -> consumer.setName("consumer2"),
+            () -> consumer.setFact("fact", "value"),
+            () -> consumer.removeFact("fact"),
+            () -> consumer.setFacts(Map.of("fact", "value")),
+            () -> consumer.addGuestId(new GuestId("guest1")),
+            () -> consumer.removeGuestId(consumer.getGuestIds().get(0)),
+            () -> consumer.setGuestIds(List.of(new GuestId("guest2"))));
+
+        for (Runnable change : changes) {
+            consumer.getHypervisorId().setReportDigest("digest");
+            change.run();
+
+            assertNull(consumer.getHypervisorId().getReportDigest());
+        }
+    }
+
     @Test
     public void testRoleConvertedToEmpty() {
         Consumer consumer = new Consumer()
@@ -26,6 +26,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -198,4 +199,28 @@ public class EntitlementCertificateCuratorTest extends DatabaseTestFixture {
         assertEquals(certSerial.getId(), remSerial.getId());
     }
 
+    @Test
+    public void testListForConsumerBySerialIds() {
+        Entitlement ent1 = this.createEntitlement(this.owner, this.consumer, this.pool);
+        Entitlement ent2 = this.createEntitlement(this.owner, this.consumer, this.pool);
+
+        EntitlementCertificate cert1 = this.createEntitlementCertificate(ent1, "key1", "cert1");
+        EntitlementCertificate cert2 = this.createEntitlementCertificate(ent2, "key2", "cert2");
+
+        // Certificates of other consumers should not be returned, even with a matching serial
+        Consumer other = this.createConsumer(this.owner);
+        Entitlement ent3 = this.createEntitlement(this.owner, other, this.pool);
+        EntitlementCertificate cert3 = this.createEntitlementCertificate(ent3, "key3", "cert3");
+
+        this.entitlementCertificateCurator.clear();
+
+        List<EntitlementCertificate> certs = this.entitlementCertificateCurator.listForConsumer(this.consumer,
+            List.of(cert2.getSerial().getId(), cert3.getSerial().getId(), 123456789L));
+
+        assertEquals(1, certs.size());
+        assertEquals(cert2.getId(), certs.get(0).getId());
+
+        assertEquals(0, this.entitlementCertificateCurator.listForConsumer(this.consumer, List.of()).size());
+    }
+
 }
@@ -14,40 +14,40 @@
  */
 package org.candlepin.model;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.candlepin.sync.file.ManifestFileType;
 import org.candlepin.test.DatabaseTestFixture;
 
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.HexFormat;
 
 
 
 public class ManifestFileRecordCuratorTest extends DatabaseTestFixture {
 
-    private File tempFile;
+    private static final int CHUNK_SIZE = 4;
+
     private ManifestFileRecord record;
 
     @BeforeEach
     public void setupTest() throws Exception {
-        Path temp = Files.createTempFile("test-manifest", ".zip");
-        tempFile = temp.toFile();
-        record = manifestFileRecordCurator.createFile(ManifestFileType.EXPORT, tempFile,
-            "principalId", "ownerId");
+        record = this.createFile(new byte[0]);
     }
 
-    @AfterEach
-    public void tearDownTest() {
-        tempFile.delete();
+    private ManifestFileRecord createFile(byte[] content) throws Exception {
+        return manifestFileRecordCurator.createFile(ManifestFileType.EXPORT, "test-manifest.zip",
+            new ByteArrayInputStream(content), "principalId", "ownerId", CHUNK_SIZE);
     }
 
     @Test
@@ -64,11 +64,38 @@ public class ManifestFileRecordCuratorTest extends DatabaseTestFixture {
     @Test
     public void testDeleteExpired() throws Exception {
         Calendar cal = Calendar.getInstance();
-        manifestFileRecordCurator.createFile(ManifestFileType.EXPORT, tempFile, "principalId", "ownerId");
+        this.createFile(new byte[0]);
 
         cal.add(Calendar.HOUR_OF_DAY, -4);
         assertEquals(0, manifestFileRecordCurator.deleteExpired(cal.getTime()));
         cal.add(Calendar.HOUR_OF_DAY, 8);
         assertEquals(2, manifestFileRecordCurator.deleteExpired(cal.getTime()));
     }
+
+    @Test
+    public void testCreateFileStoresContentInChunks() throws Exception {
+        byte[] content = "0123456789".getBytes(StandardCharsets.UTF_8);
+        ManifestFileRecord file = this.createFile(content);
+
+        assertEquals(10L, file.getFileSize());
+        assertEquals(CHUNK_SIZE, file.getChunkSize());
+        assertEquals(HexFormat.of().formatHex(ManifestFileRecordCurator.createDigest().digest(content)),
+            file.getDigest());
+
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 4),
+            manifestFileRecordCurator.getChunkData(file.getId(), 0));
+        assertArrayEquals(Arrays.copyOfRange(content, 4, 8),
+            manifestFileRecordCurator.getChunkData(file.getId(), 1));
+        assertArrayEquals(Arrays.copyOfRange(content, 8, 10),
+            manifestFileRecordCurator.getChunkData(file.getId(), 2));
+        assertNull(manifestFileRecordCurator.getChunkData(file.getId(), 3));
+    }
+
+    @Test
+    public void testDeleteByIdRemovesChunks() throws Exception {
+        ManifestFileRecord file = this.createFile("0123456789".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(manifestFileRecordCurator.deleteById(file.getId()));
+        assertNull(manifestFileRecordCurator.getChunkData(file.getId(), 0));
+    }
 }
@@ -20,6 +20,10 @@ import org.candlepin.auth.Principal;
 import org.candlepin.auth.UserPrincipal;
 import org.candlepin.auth.permissions.Permission;
 import org.candlepin.auth.permissions.UsernameConsumersPermission;
+import org.candlepin.cache.OwnerInfoCache;
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.DevConfig;
+import org.candlepin.config.TestConfig;
 import org.candlepin.dto.api.server.v1.ConsumptionTypeCountsDTO;
 import org.candlepin.dto.api.server.v1.OwnerInfo;
 import org.candlepin.policy.js.compliance.ComplianceStatus;
@@ -32,9 +36,12 @@ import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.persistence.EntityManager;
+
 
 
 /**
@@ -852,6 +859,82 @@ public class OwnerInfoCuratorTest extends DatabaseTestFixture {
         return u;
     }
 
+    private OwnerInfoCache createOwnerInfoCache() throws Exception {
+        DevConfig config = TestConfig.defaults();
+        config.setProperty(ConfigProperties.CACHE_OWNER_INFO_TTL, "60000");
+
+        return new OwnerInfoCache(config);
+    }
+
+    private OwnerInfoCurator createCachingOwnerInfoCurator(OwnerInfoCache cache) {
+        return new OwnerInfoCurator(this.injector.getProvider(EntityManager.class), this.consumerCurator,
+            this.consumerTypeCurator, this.poolCurator, cache);
+    }
+
+    private Consumer createSystemConsumer(String name, String username) {
+        Consumer consumer = new Consumer()
+            .setName(name)
+            .setUsername(username)
+            .setOwner(owner)
+            .setType(consumerTypeCurator.getByLabel("system"));
+
+        return consumerCurator.create(consumer);
+    }
+
+    @Test
+    public void testCachedOwnerInfoIsServedUntilInvalidated() throws Exception {
+        OwnerInfoCache cache = this.createOwnerInfoCache();
+        OwnerInfoCurator curator = this.createCachingOwnerInfoCurator(cache);
+        this.createSystemConsumer("system-1", "test-user");
+
+        OwnerInfo info = curator.getByOwner(owner);
+        assertEquals((Integer) 1, info.getConsumerCounts().get("system"));
+
+        this.createSystemConsumer("system-2", "test-user");
+
+        info = curator.getByOwner(owner);
+        assertEquals((Integer) 1, info.getConsumerCounts().get("system"));
+
+        cache.invalidate(List.of(owner.getId()));
+
+        info = curator.getByOwner(owner);
+        assertEquals((Integer) 2, info.getConsumerCounts().get("system"));
+    }
+
+    @Test
+    public void testCachedOwnerInfoIsNotSharedAcrossVisibilityScopes() throws Exception {
+        OwnerInfoCurator curator = this.createCachingOwnerInfoCurator(this.createOwnerInfoCache());
+        this.createSystemConsumer("not-my-system", "another-user");
+        this.createSystemConsumer("my-system", "MySystemsAdmin");
+
+        OwnerInfo info = curator.getByOwner(owner);
+        assertEquals((Integer) 2, info.getConsumerCounts().get("system"));
+
+        this.setupOnlyMyConsumersPrincipal();
+
+        info = curator.getByOwner(owner);
+        assertEquals((Integer) 1, info.getConsumerCounts().get("system"));
+    }
+
+    @Test
+    public void testCachedOwnerInfoIsNotSharedBetweenRestrictedPrincipals() throws Exception {
+        OwnerInfoCurator curator = this.createCachingOwnerInfoCurator(this.createOwnerInfoCache());
+        this.createSystemConsumer("my-system", "MySystemsAdmin");
+
+        this.setupOnlyMyConsumersPrincipal();
+
+        OwnerInfo info = curator.getByOwner(owner);
+        assertEquals((Integer) 1, info.getConsumerCounts().get("system"));
+
+        // Another principal with the same kind of permission sees a different subset of the consumers
+        User other = new User("OtherSystemsAdmin", "passwd");
+        Set<Permission> perms = Set.of(new UsernameConsumersPermission(other, owner));
+        this.setupPrincipal(new UserPrincipal(other.getUsername(), perms, false));
+
+        info = curator.getByOwner(owner);
+        assertEquals((Integer) 0, info.getConsumerCounts().get("system"));
+    }
+
     @Test
     public void testOwnerInfoBuilderWithNoGuests() {
         OwnerInfo info = new OwnerInfoBuilder().build();
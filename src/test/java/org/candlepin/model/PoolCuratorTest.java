@@ -30,9 +30,11 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.candlepin.auth.NoAuthPrincipal;
+import org.candlepin.cache.OwnerInfoCache;
 import org.candlepin.config.DatabaseConfigFactory;
 import org.candlepin.controller.PoolManager;
 import org.candlepin.controller.PoolService;
+import org.candlepin.dto.api.server.v1.OwnerInfo;
 import org.candlepin.model.ConsumerType.ConsumerTypeEnum;
 import org.candlepin.model.activationkeys.ActivationKey;
 import org.candlepin.model.dto.Subscription;
@@ -65,6 +67,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -234,6 +238,51 @@ public class PoolCuratorTest extends DatabaseTestFixture {
         assertEquals(pool2.getId(), results.get(0).getId());
     }
 
+    @Test
+    public void testListAvailableEntitlementPoolIdsAppliesPageOrder() {
+        Date activeDate = TestUtil.createDate(2000, 3, 2);
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            Pool pool = createPool(owner, product, 100L, activeDate, TestUtil.createDate(2005, 3, 2));
+            expected.add(poolCurator.create(pool).getId());
+        }
+
+        Collections.sort(expected);
+
+        PageRequest req = new PageRequest()
+            .setPage(1)
+            .setPerPage(1)
+            .setOrder(PageRequest.Order.ASCENDING)
+            .setSortBy("id");
+
+        // The IDs should be ordered, but not paged
+        List<String> ascending = poolCurator.listAvailableEntitlementPoolIds(null, owner.getId(), null,
+            null, activeDate, new PoolFilterBuilder(), req, false, false, null);
+        assertEquals(expected, ascending);
+
+        req.setOrder(PageRequest.Order.DESCENDING);
+        Collections.reverse(expected);
+
+        List<String> descending = poolCurator.listAvailableEntitlementPoolIds(null, owner.getId(), null,
+            null, activeDate, new PoolFilterBuilder(), req, false, false, null);
+        assertEquals(expected, descending);
+    }
+
+    @Test
+    public void testListAvailableEntitlementPoolIdsForConsumerOfAnotherOwner() {
+        Date activeDate = TestUtil.createDate(2000, 3, 2);
+        poolCurator.create(createPool(owner, product, 100L, activeDate, TestUtil.createDate(2005, 3, 2)));
+
+        Owner other = this.createOwner();
+        Consumer otherConsumer = this.createMockConsumer(other, false);
+
+        List<String> poolIds = poolCurator.listAvailableEntitlementPoolIds(otherConsumer, owner.getId(),
+            null, null, activeDate, new PoolFilterBuilder(), new PageRequest(), false, false, null);
+
+        assertTrue(poolIds.isEmpty());
+    }
+
     @Test
     public void availablePoolsCanBeFilteredByPoolAttribute() {
         Date activeDate = TestUtil.createDate(2000, 3, 2);
@@ -1994,8 +2043,7 @@ public class PoolCuratorTest extends DatabaseTestFixture {
         assertEquals(0, pool.getConsumed().longValue());
         assertEquals(0, pool.getExported().longValue());
 
-        poolCurator.calculateConsumedForOwnersPools(owner);
-        poolCurator.calculateExportedForOwnersPools(owner);
+        assertEquals(1, poolCurator.recalculatePoolQuantities(owner));
         poolCurator.refresh(pool);
 
         assertEquals(5, pool.getConsumed().longValue());
@@ -2017,14 +2065,138 @@ public class PoolCuratorTest extends DatabaseTestFixture {
         assertEquals(0, pool.getConsumed().longValue());
         assertEquals(0, pool.getExported().longValue());
 
-        poolCurator.calculateConsumedForOwnersPools(owner);
-        poolCurator.calculateExportedForOwnersPools(owner);
+        assertEquals(1, poolCurator.recalculatePoolQuantities(owner));
         poolCurator.refresh(pool);
 
         assertEquals(5, pool.getConsumed().longValue());
         assertEquals(0, pool.getExported().longValue());
     }
 
+    @Test
+    public void testRecalculatePoolQuantitiesCorrectsPositiveDrift() {
+        Consumer consumer = this.createConsumer(owner);
+
+        Pool pool = createPool(owner, product, 10L, TestUtil.createDate(2000, 1, 1),
+            TestUtil.createDate(2100, 1, 1));
+
+        Entitlement ent = new Entitlement(pool, consumer, owner, 3);
+        ent.setId(Util.generateDbUUID());
+        entitlementCurator.create(ent);
+
+        // Reserved quantities are written by a bulk statement, and never flag the pool as suspect
+        assertTrue(poolCurator.reserveQuantity(pool.getId(), 7, false));
+
+        assertEquals(1, poolCurator.recalculatePoolQuantities(owner));
+        poolCurator.refresh(pool);
+
+        assertEquals(3, pool.getConsumed().longValue());
+        assertEquals(0, pool.getExported().longValue());
+    }
+
+    @Test
+    public void testReserveQuantityInvalidatesOwnerInfoOnCommit() {
+        OwnerInfoCache cache = this.injector.getInstance(OwnerInfoCache.class);
+        Pool pool = createPool(owner, product, 10L, TestUtil.createDate(2000, 1, 1),
+            TestUtil.createDate(2100, 1, 1));
+
+        AtomicInteger calculations = new AtomicInteger();
+        Function<String, OwnerInfo> calculator = ownerId -> {
+            calculations.incrementAndGet();
+            return new OwnerInfo();
+        };
+
+        cache.get(owner.getId(), "full", calculator);
+        assertTrue(poolCurator.reserveQuantity(pool.getId(), 1, false));
+
+        // The cached owner info is only dropped once the reservation has been committed
+        cache.get(owner.getId(), "full", calculator);
+        assertEquals(1, calculations.get());
+
+        this.commitTransaction();
+
+        cache.get(owner.getId(), "full", calculator);
+        assertEquals(2, calculations.get());
+    }
+
+    @Test
+    public void testRecalculatePoolQuantitiesClearsSuspectFlag() {
+        Pool flagged = poolCurator.merge(createPool(owner, product).setQuantitiesSuspect(true));
+        Pool accurate = createPool(owner, product);
+
+        assertEquals(1, poolCurator.recalculatePoolQuantities(owner));
+        poolCurator.refresh(flagged);
+        poolCurator.refresh(accurate);
+
+        assertFalse(flagged.hasSuspectQuantities());
+        assertEquals(0, flagged.getConsumed().longValue());
+        assertEquals(0, accurate.getConsumed().longValue());
+    }
+
+    @Test
+    public void testGetPoolQuantityDriftDoesNotUpdatePools() {
+        Consumer consumer = createMockConsumer(owner, true);
+
+        Pool drifted = createPool(owner, product);
+        createPool(owner, product);
+
+        Entitlement ent = new Entitlement(drifted, consumer, owner, 4);
+        ent.setId(Util.generateDbUUID());
+        entitlementCurator.create(ent);
+
+        List<PoolCurator.PoolQuantityDrift> drift = poolCurator.getPoolQuantityDrift(owner);
+        poolCurator.refresh(drifted);
+
+        assertEquals(List.of(new PoolCurator.PoolQuantityDrift(drifted.getId(), 0, 4, 0, 4)), drift);
+        assertEquals(0, drifted.getConsumed().longValue());
+        assertEquals(0, drifted.getExported().longValue());
+    }
+
+    @Test
+    public void testMarkPoolQuantitiesSuspect() {
+        Pool pool = createPool(owner, product);
+
+        assertEquals(1, poolCurator.markPoolQuantitiesSuspect(List.of(pool.getId())));
+        poolCurator.refresh(pool);
+
+        assertTrue(pool.hasSuspectQuantities());
+    }
+
+    @Test
+    public void testReserveQuantity() {
+        Pool pool = createPool(owner, product, 10L, TestUtil.createDate(2000, 1, 1),
+            TestUtil.createDate(2100, 1, 1));
+
+        assertTrue(poolCurator.reserveQuantity(pool.getId(), 4, false));
+        assertTrue(poolCurator.reserveQuantity(pool.getId(), 6, true));
+        poolCurator.refresh(pool);
+
+        assertEquals(10, pool.getConsumed().longValue());
+        assertEquals(6, pool.getExported().longValue());
+    }
+
+    @Test
+    public void testReserveQuantityRefusesWhenInsufficientQuantity() {
+        Pool pool = createPool(owner, product, 10L, TestUtil.createDate(2000, 1, 1),
+            TestUtil.createDate(2100, 1, 1));
+
+        assertTrue(poolCurator.reserveQuantity(pool.getId(), 8, false));
+        assertFalse(poolCurator.reserveQuantity(pool.getId(), 3, false));
+        poolCurator.refresh(pool);
+
+        assertEquals(8, pool.getConsumed().longValue());
+    }
+
+    @Test
+    public void testReserveQuantityFromUnlimitedPool() {
+        Pool pool = createPool(owner, product, -1L, TestUtil.createDate(2000, 1, 1),
+            TestUtil.createDate(2100, 1, 1));
+
+        assertTrue(poolCurator.reserveQuantity(pool.getId(), 500, false));
+        poolCurator.refresh(pool);
+
+        assertEquals(500, pool.getConsumed().longValue());
+    }
+
     @Test
     public void testMarkCertificatesDirtyForPoolsWithNormalProduct() {
         Consumer consumer = this.createConsumer(owner);
@@ -50,6 +50,36 @@ public class PoolTest {
         assertFalse(pool.isOverflowing());
     }
 
+    @Test
+    public void testApplyQuantityChange() {
+        Pool pool = new Pool()
+            .setConsumed(5L)
+            .setExported(2L);
+
+        pool.applyQuantityChange(3, false);
+        assertEquals(8, pool.getConsumed().longValue());
+        assertEquals(2, pool.getExported().longValue());
+
+        pool.applyQuantityChange(-2, true);
+        assertEquals(6, pool.getConsumed().longValue());
+        assertEquals(0, pool.getExported().longValue());
+
+        assertFalse(pool.hasSuspectQuantities());
+    }
+
+    @Test
+    public void testApplyQuantityChangeFlagsNegativeQuantitiesAsSuspect() {
+        Pool pool = new Pool()
+            .setConsumed(5L)
+            .setExported(1L);
+
+        pool.applyQuantityChange(-2, true);
+
+        assertEquals(3, pool.getConsumed().longValue());
+        assertEquals(-1, pool.getExported().longValue());
+        assertTrue(pool.hasSuspectQuantities());
+    }
+
     @Test
     public void testIsOverflowingUnconsumed() {
         Pool pool = new Pool()
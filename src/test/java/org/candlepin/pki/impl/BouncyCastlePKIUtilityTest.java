@@ -105,7 +105,7 @@ public class BouncyCastlePKIUtilityTest {
 
     private BouncyCastlePKIUtility buildBCPKIUtility() {
         return new BouncyCastlePKIUtility(new BouncyCastleSecurityProvider(), this.certificateReader,
-            this.skiWriter, this.config, this.mockKeyPairDataCurator);
+            this.skiWriter, this.config, this.mockKeyPairDataCurator, new KeyPairPool(this.config));
     }
 
     @Test
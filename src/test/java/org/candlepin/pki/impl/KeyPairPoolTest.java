@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.pki.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyException;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class KeyPairPoolTest {
+
+    private final List<KeyPairPool> pools = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        this.pools.forEach(KeyPairPool::shutdown);
+    }
+
+    private KeyPairPool createPool(KeyPairPool.KeyPairSource source, int capacity, long maxWait) {
+        KeyPairPool pool = new KeyPairPool(source, capacity, 1, 0, maxWait);
+        this.pools.add(pool);
+
+        return pool;
+    }
+
+    private static void waitForDepth(KeyPairPool pool, int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while (pool.getStatistics().depth() < depth) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("pool did not reach depth " + depth);
+            }
+
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testRequiresSource() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyPairPool(null, 4, 1, 0, 0));
+    }
+
+    @Test
+    public void testRequiresRefillThreadWhenEnabled() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyPairPool(() -> new KeyPair(null, null),
+            4, 0, 0, 0));
+    }
+
+    @Test
+    public void testDisabledPoolGeneratesInline() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        KeyPairPool pool = this.createPool(() -> {
+            count.incrementAndGet();
+            return new KeyPair(null, null);
+        }, 0, 0);
+
+        pool.take();
+        pool.take();
+
+        assertThat(count.get()).isEqualTo(2);
+
+        KeyPairPool.Statistics stats = pool.getStatistics();
+        assertThat(stats.capacity()).isZero();
+        assertThat(stats.depth()).isZero();
+        assertThat(stats.generated()).isZero();
+        assertThat(stats.taken()).isZero();
+        assertThat(stats.fallbacks()).isZero();
+    }
+
+    @Test
+    public void testPoolIsNotFilledBeforeFirstTake() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        KeyPairPool pool = this.createPool(() -> {
+            count.incrementAndGet();
+            return new KeyPair(null, null);
+        }, 3, 0);
+
+        Thread.sleep(100);
+
+        assertThat(count.get()).isZero();
+        assertThat(pool.getStatistics().generated()).isZero();
+
+        // The first key pair is generated inline, while the refill threads fill the pool
+        pool.take();
+        waitForDepth(pool, 3);
+
+        assertThat(pool.getStatistics().fallbacks()).isEqualTo(1);
+    }
+
+    @Test
+    public void testTakeFromFilledPool() throws Exception {
+        KeyPairPool pool = this.createPool(() -> new KeyPair(null, null), 3, 0);
+        pool.take();
+        waitForDepth(pool, 3);
+
+        KeyPair first = pool.take();
+        KeyPair second = pool.take();
+
+        assertNotSame(first, second);
+
+        KeyPairPool.Statistics stats = pool.getStatistics();
+        assertThat(stats.capacity()).isEqualTo(3);
+        assertThat(stats.generated()).isGreaterThanOrEqualTo(3);
+        assertThat(stats.taken()).isEqualTo(2);
+        assertThat(stats.fallbacks()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFallsBackToInlineGenerationWhenEmpty() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        KeyPair inline = new KeyPair(null, null);
+
+        KeyPairPool pool = this.createPool(() -> {
+            if (Thread.currentThread().getName().startsWith("keypair-pool-refill-")) {
+                awaitQuietly(release);
+            }
+
+            return inline;
+        }, 2, 0);
+
+        try {
+            assertThat(pool.take()).isSameAs(inline);
+
+            KeyPairPool.Statistics stats = pool.getStatistics();
+            assertThat(stats.taken()).isZero();
+            assertThat(stats.fallbacks()).isEqualTo(1);
+        }
+        finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testWaitsForRefillBeforeFallingBack() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger inline = new AtomicInteger();
+
+        KeyPairPool pool = this.createPool(() -> {
+            if (Thread.currentThread().getName().startsWith("keypair-pool-refill-")) {
+                awaitQuietly(release);
+            }
+            else {
+                inline.incrementAndGet();
+            }
+
+            return new KeyPair(null, null);
+        }, 2, 50);
+
+        try {
+            // The first take starts the refill threads without waiting on them
+            pool.take();
+            assertThat(pool.getStatistics().waitTime()).isZero();
+
+            pool.take();
+
+            KeyPairPool.Statistics stats = pool.getStatistics();
+            assertThat(inline.get()).isEqualTo(2);
+            assertThat(stats.fallbacks()).isEqualTo(2);
+            assertThat(stats.waitTime()).isGreaterThanOrEqualTo(50);
+        }
+        finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testGenerationFailureIsPropagatedOnFallback() {
+        KeyPairPool pool = this.createPool(() -> {
+            throw new KeyException("generation failed");
+        }, 0, 0);
+
+        assertThrows(KeyException.class, pool::take);
+    }
+
+    @Test
+    public void testShutdownDiscardsPooledKeyPairs() throws Exception {
+        AtomicInteger inline = new AtomicInteger();
+        KeyPairPool pool = this.createPool(() -> {
+            if (!Thread.currentThread().getName().startsWith("keypair-pool-refill-")) {
+                inline.incrementAndGet();
+            }
+
+            return new KeyPair(null, null);
+        }, 2, 0);
+
+        pool.take();
+        waitForDepth(pool, 2);
+        pool.shutdown();
+        pool.take();
+
+        assertThat(inline.get()).isEqualTo(2);
+        assertThat(pool.getStatistics().depth()).isZero();
+        assertThat(pool.getStatistics().taken()).isZero();
+    }
+
+    @Test
+    public void testPoolIsNotStartedAfterShutdown() throws Exception {
+        AtomicInteger refilled = new AtomicInteger();
+        KeyPairPool pool = this.createPool(() -> {
+            if (Thread.currentThread().getName().startsWith("keypair-pool-refill-")) {
+                refilled.incrementAndGet();
+            }
+
+            return new KeyPair(null, null);
+        }, 2, 0);
+
+        pool.shutdown();
+        pool.take();
+        Thread.sleep(100);
+
+        assertThat(refilled.get()).isZero();
+        assertThat(pool.getStatistics().fallbacks()).isZero();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
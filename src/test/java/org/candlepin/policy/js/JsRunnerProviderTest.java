@@ -15,12 +15,19 @@
 package org.candlepin.policy.js;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import org.candlepin.config.TestConfig;
 import org.candlepin.model.Rules;
 import org.candlepin.model.Rules.RulesSourceEnum;
 import org.candlepin.model.RulesCurator;
@@ -31,8 +38,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
 
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class JsRunnerProviderTest {
@@ -100,4 +112,144 @@ public class JsRunnerProviderTest {
         verify(rulesCurator, times(3)).getUpdated();
     }
 
+    @Test
+    public void defaultsToStandardEngine() {
+        assertEquals(RulesEngineType.STANDARD, provider.getEngineType());
+
+        JsRunnerProvider configured = new JsRunnerProvider(rulesCurator, cacheProvider,
+            TestConfig.defaults());
+        assertEquals(RulesEngineType.STANDARD, configured.getEngineType());
+    }
+
+    @Test
+    public void engineTypeParsing() {
+        assertEquals(RulesEngineType.POOLED, RulesEngineType.fromString(" Pooled "));
+        assertEquals(RulesEngineType.STANDARD, RulesEngineType.fromString("standard"));
+        assertThrows(IllegalArgumentException.class, () -> RulesEngineType.fromString("bogus"));
+        assertThrows(IllegalArgumentException.class, () -> RulesEngineType.fromString(null));
+    }
+
+    @Test
+    public void pooledEngineCreatesRunners() {
+        when(cacheProvider.get()).thenReturn(new JsRunnerRequestCache());
+        JsRunnerProvider pooled = new JsRunnerProvider(rulesCurator, cacheProvider, RulesEngineType.POOLED);
+
+        assertEquals(RulesEngineType.POOLED, pooled.getEngineType());
+        assertNotNull(pooled.get());
+        assertNotNull(pooled.get());
+    }
+
+    @Test
+    public void pooledRunnersDoNotShareArguments() {
+        when(rules.getRules()).thenReturn("var Echo = { echo: function() { return value; } };\n" +
+            "function echo_name_space() { return Echo; }");
+        when(cacheProvider.get()).thenReturn(new JsRunnerRequestCache());
+        JsRunnerProvider pooled = new JsRunnerProvider(rulesCurator, cacheProvider, RulesEngineType.POOLED);
+
+        JsRunner runner1 = pooled.get();
+        JsRunner runner2 = pooled.get();
+        runner1.init("echo_name_space");
+        runner2.init("echo_name_space");
+
+        String output1 = runner1.invokeRule("echo", this.buildContext("first"));
+        String output2 = runner2.invokeRule("echo", this.buildContext("second"));
+        assertEquals("first", output1);
+        assertEquals("second", output2);
+
+        output1 = runner1.invokeRule("echo");
+        assertEquals("first", output1);
+    }
+
+    @Test
+    public void contextPoolReusesContextForSameRules() {
+        RhinoContextPool pool = new RhinoContextPool(new JsRunnerProvider.DynamicScopeContextFactory());
+        JsRunnerRequestCache cache = new JsRunnerRequestCache();
+        Scriptable rules = this.buildRules();
+
+        assertSame(pool.getContext(cache, rules), pool.getContext(cache, rules));
+    }
+
+    @Test
+    public void contextPoolRebuildsContextForRecompiledRules() {
+        RhinoContextPool pool = new RhinoContextPool(new JsRunnerProvider.DynamicScopeContextFactory());
+        JsRunnerRequestCache cache = new JsRunnerRequestCache();
+
+        RhinoContextPool.PooledContext pooled1 = pool.getContext(cache, this.buildRules());
+        RhinoContextPool.PooledContext pooled2 = pool.getContext(cache, this.buildRules());
+
+        assertNotSame(pooled1, pooled2);
+        assertSame(pooled2, cache.getPooledContext());
+    }
+
+    @Test
+    public void contextPoolDoesNotShareContextsAcrossRequests() {
+        RhinoContextPool pool = new RhinoContextPool(new JsRunnerProvider.DynamicScopeContextFactory());
+        Scriptable rules = this.buildRules();
+
+        assertNotSame(pool.getContext(new JsRunnerRequestCache(), rules),
+            pool.getContext(new JsRunnerRequestCache(), rules));
+    }
+
+    @Test
+    public void pooledScopesDoNotShareArguments() {
+        RhinoContextPool pool = new RhinoContextPool(new JsRunnerProvider.DynamicScopeContextFactory());
+        RhinoContextPool.PooledContext pooled = pool.getContext(new JsRunnerRequestCache(),
+            this.buildRules());
+
+        Scriptable scope1 = pooled.newScope();
+        Scriptable scope2 = pooled.newScope();
+        scope1.put("json_context", scope1, "{}");
+
+        assertTrue(scope1.has("json_context", scope1));
+        assertFalse(scope2.has("json_context", scope2));
+        assertTrue(ScriptableObject.hasProperty(scope2, "JSON"));
+    }
+
+    @Test
+    public void pooledContextsAreInitializedByFactory() {
+        JsRunnerProvider.DynamicScopeContextFactory factory =
+            new JsRunnerProvider.DynamicScopeContextFactory();
+        AtomicInteger created = new AtomicInteger();
+        factory.addListener(new ContextFactory.Listener() {
+            @Override
+            public void contextCreated(Context cx) {
+                created.incrementAndGet();
+            }
+
+            @Override
+            public void contextReleased(Context cx) {
+                // Intentionally left empty
+            }
+        });
+
+        RhinoContextPool pool = new RhinoContextPool(factory);
+        RhinoContextPool.PooledContext pooled = pool.getContext(new JsRunnerRequestCache(),
+            this.buildRules());
+        pooled.newScope();
+        pooled.newScope();
+
+        assertEquals(1, created.get());
+    }
+
+    private Scriptable buildRules() {
+        Context context = Context.enter();
+        try {
+            return context.initStandardObjects();
+        }
+        finally {
+            Context.exit();
+        }
+    }
+
+    private JsContext buildContext(String value) {
+        JsContext context = new JsContext() {
+            @Override
+            public void applyTo(Scriptable scope) {
+                this.contextArgs.forEach((key, arg) -> scope.put(key, scope, arg));
+            }
+        };
+
+        context.put("value", value);
+        return context;
+    }
 }
@@ -27,6 +27,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.candlepin.audit.EventSink;
+import org.candlepin.config.TestConfig;
 import org.candlepin.dto.ModelTranslator;
 import org.candlepin.dto.StandardTranslator;
 import org.candlepin.model.CandlepinQuery;
@@ -132,7 +133,7 @@ public class ComplianceRulesTest {
         provider = new JsRunnerProvider(rulesCuratorMock, cacheProvider);
         compliance = new ComplianceRules(provider.get(), entCurator, new StatusReasonMessageGenerator(i18n),
             eventSink, consumerCurator, consumerTypeCurator, ObjectMapperFactory.getRulesObjectMapper(),
-            translator);
+            translator, TestConfig.defaults());
 
         this.owner = new Owner()
             .setId(TestUtil.randomString())
@@ -157,7 +158,7 @@ public class ComplianceRulesTest {
         JsRunner mockRunner = mock(JsRunner.class);
         compliance = new ComplianceRules(mockRunner, entCurator, new StatusReasonMessageGenerator(i18n),
             eventSink, consumerCurator, consumerTypeCurator, ObjectMapperFactory.getRulesObjectMapper(),
-            translator);
+            translator, TestConfig.defaults());
 
         when(mockRunner.runJsFunction(any(Class.class), eq("get_status"),
             any(JsContext.class))).thenReturn("{\"unknown\": \"thing\"}");
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.policy.js.compliance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.candlepin.audit.EventSink;
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.DevConfig;
+import org.candlepin.config.TestConfig;
+import org.candlepin.dto.ModelTranslator;
+import org.candlepin.dto.StandardTranslator;
+import org.candlepin.dto.api.server.v1.DateRange;
+import org.candlepin.model.CandlepinQuery;
+import org.candlepin.model.Consumer;
+import org.candlepin.model.ConsumerCurator;
+import org.candlepin.model.ConsumerInstalledProduct;
+import org.candlepin.model.ConsumerType;
+import org.candlepin.model.ConsumerTypeCurator;
+import org.candlepin.model.Entitlement;
+import org.candlepin.model.EntitlementCurator;
+import org.candlepin.model.EnvironmentCurator;
+import org.candlepin.model.GuestId;
+import org.candlepin.model.Owner;
+import org.candlepin.model.OwnerCurator;
+import org.candlepin.model.Pool;
+import org.candlepin.model.Product;
+import org.candlepin.model.Rules;
+import org.candlepin.model.RulesCurator;
+import org.candlepin.policy.js.JsRunnerProvider;
+import org.candlepin.policy.js.JsRunnerRequestCache;
+import org.candlepin.test.TestUtil;
+import org.candlepin.util.ObjectMapperFactory;
+import org.candlepin.util.Util;
+
+import com.google.inject.Provider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.xnap.commons.i18n.I18n;
+import org.xnap.commons.i18n.I18nFactory;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+
+
+/**
+ * Differential tests verifying the native compliance rules produce the same results as the
+ * JavaScript rules for randomly generated consumers and entitlements.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class NativeComplianceRulesTest {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final int ITERATIONS = 250;
+
+    private static final String[] SOCKETS = { "1", "2", "4", "8" };
+    private static final String[] CORES = { "2", "4", "8", "16" };
+    private static final String[] RAM = { "1", "2", "8", "16" };
+    private static final String[] VCPU = { "1", "2", "4" };
+    private static final String[] PRODUCT_ARCHES = { "x86_64", "ppc64", "ALL", "x86,x86_64", "i386" };
+    private static final String[] GUEST_LIMITS = { "-1", "1", "4" };
+    private static final String[] CONSUMER_ARCHES = { "x86_64", "ppc64", "i686" };
+
+    @Mock
+    private ConsumerCurator consumerCurator;
+    @Mock
+    private ConsumerTypeCurator consumerTypeCurator;
+    @Mock
+    private OwnerCurator ownerCurator;
+    @Mock
+    private EntitlementCurator entCurator;
+    @Mock
+    private RulesCurator rulesCurator;
+    @Mock
+    private EventSink eventSink;
+    @Mock
+    private Provider<JsRunnerRequestCache> cacheProvider;
+    @Mock
+    private JsRunnerRequestCache cache;
+    @Mock
+    private EnvironmentCurator environmentCurator;
+
+    private Owner owner;
+    private ConsumerType ctype;
+    private ComplianceRules jsCompliance;
+    private ComplianceRules nativeCompliance;
+
+    @BeforeEach
+    public void setUp() {
+        ModelTranslator translator = new StandardTranslator(this.consumerTypeCurator,
+            this.environmentCurator, this.ownerCurator);
+
+        I18n i18n = I18nFactory.getI18n(getClass(), "org.candlepin.i18n.Messages", new Locale("en_US"),
+            I18nFactory.FALLBACK);
+
+        InputStream is = this.getClass().getResourceAsStream(RulesCurator.DEFAULT_RULES_FILE);
+        Rules rules = new Rules(Util.readFile(is));
+        when(this.rulesCurator.getUpdated()).thenReturn(new Date());
+        when(this.rulesCurator.getRules()).thenReturn(rules);
+        when(this.cacheProvider.get()).thenReturn(this.cache);
+
+        JsRunnerProvider provider = new JsRunnerProvider(this.rulesCurator, this.cacheProvider);
+
+        DevConfig config = TestConfig.defaults();
+        config.setProperty(ConfigProperties.COMPLIANCE_NATIVE_ENABLED, "false");
+        this.jsCompliance = new ComplianceRules(provider.get(), this.entCurator,
+            new StatusReasonMessageGenerator(i18n), this.eventSink, this.consumerCurator,
+            this.consumerTypeCurator, ObjectMapperFactory.getRulesObjectMapper(), translator, config);
+
+        config = TestConfig.defaults();
+        config.setProperty(ConfigProperties.COMPLIANCE_NATIVE_ENABLED, "true");
+        this.nativeCompliance = new ComplianceRules(provider.get(), this.entCurator,
+            new StatusReasonMessageGenerator(i18n), this.eventSink, this.consumerCurator,
+            this.consumerTypeCurator, ObjectMapperFactory.getRulesObjectMapper(), translator, config);
+
+        this.owner = new Owner()
+            .setId(TestUtil.randomString())
+            .setKey("test")
+            .setDisplayName("test");
+
+        this.ctype = new ConsumerType(ConsumerType.ConsumerTypeEnum.SYSTEM);
+        this.ctype.setId("test-ctype");
+        when(this.consumerTypeCurator.get(this.ctype.getId())).thenReturn(this.ctype);
+        when(this.consumerTypeCurator.getConsumerType(any(Consumer.class))).thenReturn(this.ctype);
+    }
+
+    private static String pick(Random rnd, String[] values) {
+        return values[rnd.nextInt(values.length)];
+    }
+
+    private Consumer buildConsumer(Random rnd, List<Product> products) {
+        Consumer consumer = new Consumer()
+            .setUuid("consumer-" + rnd.nextInt(1000));
+        consumer.setType(this.ctype);
+
+        for (Product product : products) {
+            if (rnd.nextInt(3) > 0) {
+                consumer.addInstalledProduct(new ConsumerInstalledProduct()
+                    .setProductId(product.getId())
+                    .setProductName(product.getName()));
+            }
+        }
+
+        boolean guest = rnd.nextBoolean();
+        consumer.setFact("virt.is_guest", guest ? "True" : "false");
+        consumer.setFact("cpu.cpu_socket(s)", String.valueOf(1 + rnd.nextInt(8)));
+        consumer.setFact("memory.memtotal", String.valueOf((1 + rnd.nextInt(24)) * 1024L * 1024L));
+        consumer.setFact("uname.machine", pick(rnd, CONSUMER_ARCHES));
+
+        if (rnd.nextBoolean()) {
+            consumer.setFact("cpu.core(s)_per_socket", String.valueOf(1 + rnd.nextInt(8)));
+        }
+
+        Map<String, String> activeGuestAttrs = new HashMap<>();
+        activeGuestAttrs.put("virtWhoType", "libvirt");
+        activeGuestAttrs.put("active", "1");
+
+        int guests = rnd.nextInt(6);
+        for (int i = 0; i < guests; ++i) {
+            consumer.addGuestId(rnd.nextBoolean() ?
+                new GuestId("guest-" + i, consumer, activeGuestAttrs) :
+                new GuestId("guest-" + i, consumer));
+        }
+
+        return consumer;
+    }
+
+    private Entitlement buildEntitlement(Random rnd, Consumer consumer, List<Product> products, Date onDate,
+        int index) {
+
+        Product product = new Product("sku-" + index, "SKU " + index);
+
+        Set<Product> provided = new HashSet<>();
+        for (Product candidate : products) {
+            if (rnd.nextInt(3) == 0) {
+                provided.add(candidate);
+            }
+        }
+        product.setProvidedProducts(provided);
+
+        if (rnd.nextInt(3) == 0) {
+            product.setAttribute(Product.Attributes.SOCKETS, pick(rnd, SOCKETS));
+        }
+
+        if (rnd.nextInt(3) == 0) {
+            product.setAttribute(Product.Attributes.CORES, pick(rnd, CORES));
+        }
+
+        if (rnd.nextInt(4) == 0) {
+            product.setAttribute(Product.Attributes.RAM, pick(rnd, RAM));
+        }
+
+        if (rnd.nextInt(4) == 0) {
+            product.setAttribute(Product.Attributes.VCPU, pick(rnd, VCPU));
+        }
+
+        if (rnd.nextInt(4) == 0) {
+            product.setAttribute(Product.Attributes.ARCHITECTURE, pick(rnd, PRODUCT_ARCHES));
+        }
+
+        if (rnd.nextInt(5) == 0) {
+            product.setAttribute(Product.Attributes.GUEST_LIMIT, pick(rnd, GUEST_LIMITS));
+        }
+
+        if (rnd.nextBoolean()) {
+            product.setAttribute(Product.Attributes.STACKING_ID, "stack-" + rnd.nextInt(2));
+
+            if (rnd.nextInt(4) == 0) {
+                product.setAttribute(Product.Attributes.INSTANCE_MULTIPLIER, "2");
+            }
+        }
+
+        Date start = new Date(onDate.getTime() + (rnd.nextInt(500) - 400) * DAY);
+        Date end = new Date(start.getTime() + (30 + rnd.nextInt(700)) * DAY);
+
+        Pool pool = new Pool()
+            .setId("pool-" + index)
+            .setOwner(this.owner)
+            .setProduct(product)
+            .setQuantity(1000L)
+            .setStartDate(start)
+            .setEndDate(end);
+
+        if (rnd.nextInt(10) == 0) {
+            pool.setAttribute(Pool.Attributes.UNMAPPED_GUESTS_ONLY, "true");
+        }
+
+        if (rnd.nextInt(8) == 0) {
+            pool.setAttribute(Pool.Attributes.REQUIRES_HOST, "host-uuid");
+        }
+
+        Entitlement entitlement = new Entitlement(pool, consumer, this.owner, 1 + rnd.nextInt(4));
+        entitlement.setId("ent-" + index);
+
+        return entitlement;
+    }
+
+    private Consumer buildFixture(long seed, Date onDate) {
+        Random rnd = new Random(seed);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            products.add(new Product("p" + i, "product " + i));
+        }
+
+        Consumer consumer = this.buildConsumer(rnd, products);
+
+        List<Entitlement> entitlements = new ArrayList<>();
+        int count = rnd.nextInt(7);
+        for (int i = 0; i < count; ++i) {
+            entitlements.add(this.buildEntitlement(rnd, consumer, products, onDate, i));
+        }
+
+        consumer.setEntitlements(new HashSet<>(entitlements));
+
+        CandlepinQuery query = mock(CandlepinQuery.class);
+        when(query.list()).thenReturn(entitlements);
+        when(this.entCurator.listByConsumerAndDate(eq(consumer), any(Date.class))).thenReturn(query);
+
+        return consumer;
+    }
+
+    private static Map<String, Set<String>> describe(Map<String, Set<Entitlement>> map) {
+        Map<String, Set<String>> output = new TreeMap<>();
+
+        if (map != null) {
+            map.forEach((key, ents) -> output.put(key, ents.stream()
+                .map(Entitlement::getId)
+                .collect(Collectors.toCollection(TreeSet::new))));
+        }
+
+        return output;
+    }
+
+    private static Map<String, Object> describe(ComplianceStatus status) {
+        Map<String, Object> output = new TreeMap<>();
+
+        output.put("status", status.getStatus());
+        output.put("date", status.getDate());
+        output.put("compliantUntil", status.getCompliantUntil());
+        output.put("compliant", describe(status.getCompliantProducts()));
+        output.put("partial", describe(status.getPartiallyCompliantProducts()));
+        output.put("partialStacks", describe(status.getPartialStacks()));
+        output.put("nonCompliant", new TreeSet<>(status.getNonCompliantProducts()));
+
+        output.put("reasons", status.getReasons().stream()
+            .map(reason -> reason.getKey() + ":" + reason.getMessage() + ":" +
+                new TreeMap<>(reason.getAttributes()))
+            .collect(Collectors.toCollection(TreeSet::new)));
+
+        Map<String, String> ranges = new TreeMap<>();
+        if (status.getProductComplianceDateRanges() != null) {
+            for (Map.Entry<String, DateRange> entry : status.getProductComplianceDateRanges().entrySet()) {
+                ranges.put(entry.getKey(), entry.getValue().getStartDate() + " - " +
+                    entry.getValue().getEndDate());
+            }
+        }
+        output.put("ranges", ranges);
+
+        return output;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    public void nativeStatusMatchesJavaScriptStatus(boolean calculateDateRanges) {
+        Date onDate = TestUtil.createDate(2020, 6, 1);
+
+        for (long seed = 0; seed < ITERATIONS; ++seed) {
+            Consumer consumer = this.buildFixture(seed, onDate);
+
+            ComplianceStatus expected = this.jsCompliance.getStatus(consumer, null, onDate, true, false,
+                calculateDateRanges, false);
+            ComplianceStatus actual = this.nativeCompliance.getStatus(consumer, null, onDate, true, false,
+                calculateDateRanges, false);
+
+            assertEquals(describe(expected), describe(actual), "Status mismatch for seed " + seed);
+        }
+    }
+
+    @Test
+    public void nativeStackComplianceMatchesJavaScriptStackCompliance() {
+        for (long seed = 0; seed < ITERATIONS; ++seed) {
+            Consumer consumer = this.buildFixture(seed, new Date());
+            List<Entitlement> entitlements = new ArrayList<>(consumer.getEntitlements());
+
+            for (String stackId : List.of("stack-0", "stack-1")) {
+                assertEquals(this.jsCompliance.isStackCompliant(consumer, stackId, entitlements),
+                    this.nativeCompliance.isStackCompliant(consumer, stackId, entitlements),
+                    "Stack compliance mismatch for seed " + seed + " and stack " + stackId);
+            }
+        }
+    }
+
+    @Test
+    public void nativeEntitlementComplianceMatchesJavaScriptEntitlementCompliance() {
+        Date onDate = new Date();
+
+        for (long seed = 0; seed < ITERATIONS; ++seed) {
+            Consumer consumer = this.buildFixture(seed, onDate);
+
+            for (Entitlement entitlement : consumer.getEntitlements()) {
+                assertEquals(this.jsCompliance.isEntitlementCompliant(consumer, entitlement, onDate),
+                    this.nativeCompliance.isEntitlementCompliant(consumer, entitlement, onDate),
+                    "Entitlement compliance mismatch for seed " + seed + " and " + entitlement.getId());
+            }
+        }
+    }
+}
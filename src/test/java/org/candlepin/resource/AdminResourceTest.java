@@ -15,15 +15,28 @@
 package org.candlepin.resource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import org.candlepin.audit.EventSink;
+import org.candlepin.auth.permissions.Permission;
+import org.candlepin.cache.ContentAccessPayloadCache;
+import org.candlepin.cache.OwnerInfoCache;
+import org.candlepin.cache.UserPermissionCache;
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.DevConfig;
+import org.candlepin.config.TestConfig;
+import org.candlepin.dto.api.server.v1.CacheStatsDTO;
+import org.candlepin.dto.api.server.v1.KeyPairPoolStatsDTO;
 import org.candlepin.dto.api.server.v1.QueueStatus;
+import org.candlepin.pki.impl.KeyPairPool;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.security.KeyPair;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -36,11 +49,19 @@ public class AdminResourceTest {
 
     private AdminResource ar;
     private EventSink sink;
+    private UserPermissionCache userPermissionCache;
+    private KeyPairPool keypairPool;
 
     @BeforeEach
-    public void init() {
+    public void init() throws Exception {
         sink = mock(EventSink.class);
-        ar = new AdminResource(sink);
+        DevConfig config = TestConfig.defaults();
+        config.setProperty(ConfigProperties.CACHE_USER_PERMISSIONS_TTL, "60000");
+
+        userPermissionCache = new UserPermissionCache(config);
+        keypairPool = new KeyPairPool(() -> new KeyPair(null, null), 4, 1, 0, 0);
+        ar = new AdminResource(sink, userPermissionCache, new OwnerInfoCache(TestConfig.defaults()),
+            new ContentAccessPayloadCache(TestConfig.defaults()), keypairPool);
     }
 
     @Test
@@ -61,4 +82,48 @@ public class AdminResourceTest {
         when(sink.getQueueInfo()).thenReturn(mockQueueStats);
         assertEquals(2, ar.getQueueStats().size());
     }
+
+    @Test
+    public void testCacheStats() {
+        List<Permission> permissions = List.of();
+        userPermissionCache.get("user", username -> new UserPermissionCache.Entry(false, null, permissions));
+        userPermissionCache.get("user", username -> new UserPermissionCache.Entry(false, null, permissions));
+
+        CacheStatsDTO stats = ar.getCacheStats().stream()
+            .filter(cache -> "user_permissions".equals(cache.getName()))
+            .findFirst()
+            .orElse(null);
+
+        assertNotNull(stats);
+        assertTrue(stats.getEnabled());
+        assertEquals(1L, stats.getHitCount());
+        assertEquals(1L, stats.getMissCount());
+        assertEquals(1L, stats.getLoadCount());
+    }
+
+    @Test
+    public void testCacheStatsIncludeAllCaches() {
+        List<String> names = ar.getCacheStats().stream()
+            .map(CacheStatsDTO::getName)
+            .toList();
+
+        assertEquals(List.of("user_permissions", "owner_info", "content_access_payload"), names);
+    }
+
+    @Test
+    public void testKeyPairPoolStats() throws Exception {
+        try {
+            keypairPool.take();
+
+            KeyPairPoolStatsDTO stats = ar.getKeyPairPoolStats();
+
+            assertNotNull(stats);
+            assertEquals(4, stats.getCapacity());
+            assertEquals(1L, stats.getFallbacks());
+            assertEquals(0L, stats.getTaken());
+        }
+        finally {
+            keypairPool.shutdown();
+        }
+    }
 }
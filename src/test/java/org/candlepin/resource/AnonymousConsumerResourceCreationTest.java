@@ -36,6 +36,7 @@ import org.candlepin.auth.permissions.PermissionFactory;
 import org.candlepin.config.ConfigProperties;
 import org.candlepin.config.DevConfig;
 import org.candlepin.config.TestConfig;
+import org.candlepin.controller.ConsumerCheckInCoalescer;
 import org.candlepin.controller.ContentAccessManager;
 import org.candlepin.controller.EntitlementCertificateGenerator;
 import org.candlepin.controller.Entitler;
@@ -189,6 +190,8 @@ public class AnonymousConsumerResourceCreationTest {
     private AnonymousCloudConsumerCurator anonymousConsumerCurator;
     @Mock
     private AnonymousContentAccessCertificateCurator anonymousCertCurator;
+    @Mock
+    private ConsumerCheckInCoalescer checkInCoalescer;
 
     protected ModelTranslator modelTranslator;
 
@@ -223,7 +226,7 @@ public class AnonymousConsumerResourceCreationTest {
             this.dtoValidator, this.principalProvider, this.contentOverrideValidator,
             this.consumerContentOverrideCurator, this.entCertGenerator, this.poolService,
             this.environmentContentCurator, this.cloudRegistrationAdapter, this.poolCurator,
-            this.anonymousConsumerCurator, this.anonymousCertCurator
+            this.anonymousConsumerCurator, this.anonymousCertCurator, this.checkInCoalescer
         );
 
         this.system = this.initConsumerType();
@@ -24,6 +24,7 @@ import org.candlepin.audit.EventSink;
 import org.candlepin.auth.Access;
 import org.candlepin.auth.Principal;
 import org.candlepin.auth.SubResource;
+import org.candlepin.controller.ConsumerCheckInCoalescer;
 import org.candlepin.controller.ContentAccessManager;
 import org.candlepin.controller.EntitlementCertificateGenerator;
 import org.candlepin.controller.Entitler;
@@ -169,6 +170,8 @@ public class ConsumerContentOverrideResourceTest extends DatabaseTestFixture {
     private AnonymousCloudConsumerCurator anonymousConsumerCurator;
     @Mock
     private AnonymousContentAccessCertificateCurator anonymousCertCurator;
+    @Mock
+    private ConsumerCheckInCoalescer checkInCoalescer;
 
     private Consumer consumer;
     private ContentOverrideValidator contentOverrideValidator;
@@ -231,7 +234,8 @@ public class ConsumerContentOverrideResourceTest extends DatabaseTestFixture {
             this.cloudAdapter,
             this.poolCurator,
             this.anonymousConsumerCurator,
-            this.anonymousCertCurator
+            this.anonymousCertCurator,
+            this.checkInCoalescer
         );
     }
 
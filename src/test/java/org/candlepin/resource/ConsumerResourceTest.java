@@ -25,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -32,6 +33,7 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -52,6 +54,7 @@ import org.candlepin.config.Configuration;
 import org.candlepin.config.TestConfig;
 import org.candlepin.controller.AutobindDisabledForOwnerException;
 import org.candlepin.controller.AutobindHypervisorDisabledException;
+import org.candlepin.controller.ConsumerCheckInCoalescer;
 import org.candlepin.controller.ContentAccessManager;
 import org.candlepin.controller.ContentAccessManager.ContentAccessMode;
 import org.candlepin.controller.EntitlementCertificateGenerator;
@@ -157,7 +160,6 @@ import org.mockito.stubbing.Answer;
 import org.xnap.commons.i18n.I18n;
 import org.xnap.commons.i18n.I18nFactory;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.security.GeneralSecurityException;
@@ -179,6 +181,9 @@ import java.util.stream.Stream;
 import javax.inject.Provider;
 import javax.persistence.OptimisticLockException;
 import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 
@@ -276,6 +281,8 @@ public class ConsumerResourceTest {
     private AnonymousCloudConsumerCurator anonymousConsumerCurator;
     @Mock
     private AnonymousContentAccessCertificateCurator anonymousCertCurator;
+    @Mock
+    private ConsumerCheckInCoalescer checkInCoalescer;
 
     private ModelTranslator translator;
     private ConsumerResource consumerResource;
@@ -352,7 +359,8 @@ public class ConsumerResourceTest {
             this.cloudRegistrationAdapter,
             this.poolCurator,
             this.anonymousConsumerCurator,
-            this.anonymousCertCurator
+            this.anonymousCertCurator,
+            this.checkInCoalescer
         );
     }
 
@@ -559,7 +567,8 @@ public class ConsumerResourceTest {
             this.cloudRegistrationAdapter,
             this.poolCurator,
             this.anonymousConsumerCurator,
-            this.anonymousCertCurator
+            this.anonymousCertCurator,
+            this.checkInCoalescer
         );
 
         // Fixme throw custom exception from generator instead of generic RuntimeException
@@ -1257,15 +1266,15 @@ public class ConsumerResourceTest {
 
         EntitlementCertificate expectedCertificate = createEntitlementCertificate("expected-key",
             "expected-cert", 18084729L);
-        List<EntitlementCertificate> certificates = new ArrayList<>();
-        certificates.add(createEntitlementCertificate("key-1", "cert-1"));
-        certificates.add(createEntitlementCertificate("key-2", "cert-2"));
-        certificates.add(expectedCertificate);
-        doReturn(certificates).when(entitlementCertServiceAdapter).listForConsumer(any(Consumer.class));
+        doReturn(List.of(expectedCertificate)).when(entitlementCertServiceAdapter)
+            .listForConsumer(consumer, Set.of(expectedCertificate.getSerial().getId()));
 
         List<CertificateDTO> actual = consumerResource.getEntitlementCertificates(consumer.getId(),
             Long.toString(expectedCertificate.getSerial().getId()));
 
+        // Only the requested certificates should be loaded
+        verify(entitlementCertServiceAdapter, never()).listForConsumer(any(Consumer.class));
+
         assertEquals(1, actual.size());
         CertificateDTO actualCertificate = actual.get(0);
         assertEquals(expectedCertificate.getId(), actualCertificate.getId());
@@ -1401,15 +1410,77 @@ public class ConsumerResourceTest {
         ResteasyContext.pushContext(Principal.class, principal);
         MockHttpRequest mockReq = MockHttpRequest.create("GET", "http://localhost/candlepin/fake");
         ResteasyContext.pushContext(HttpRequest.class, mockReq);
-        ResteasyContext.pushContext(HttpServletResponse.class, mock(HttpServletResponse.class));
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        ResteasyContext.pushContext(HttpServletResponse.class, response);
 
         Long serial = 123456L;
-        File mockFile = mock(File.class);
-        doReturn(mockFile).when(manifestManager).generateEntitlementArchive(consumer, Set.of(serial));
-
         Object actual = consumerResource.exportCertificates(consumer.getUuid(), Long.toString(serial));
 
-        assertEquals(mockFile, actual);
+        assertNull(actual);
+        verify(manifestManager).writeEntitlementArchiveToResponse(consumer, Set.of(serial), response);
+    }
+
+    @Test
+    public void testExportCertificatesAsJsonLoadsOnlyRequestedSerials() {
+        Consumer consumer = createConsumer();
+        ResteasyContext.pushContext(Principal.class, new ConsumerPrincipal(consumer, new Owner()));
+        ResteasyContext.pushContext(HttpRequest.class, MockHttpRequest
+            .create("GET", "http://localhost/candlepin/fake")
+            .accept(MediaType.APPLICATION_JSON));
+        doReturn(consumer).when(consumerCurator).verifyAndLookupConsumer(consumer.getUuid());
+
+        EntitlementCertificate expectedCertificate = createEntitlementCertificate("key-2", "cert-2", 2L);
+        doReturn(List.of(1L, 2L, 3L)).when(entitlementCertServiceAdapter)
+            .listEntitlementSerialIds(consumer);
+        doReturn(List.of(expectedCertificate)).when(entitlementCertServiceAdapter)
+            .listForConsumer(consumer, List.of(2L));
+
+        Response response = (Response) consumerResource.exportCertificates(consumer.getUuid(), "2,4");
+
+        verify(entitlementCertServiceAdapter, never()).listForConsumer(any(Consumer.class));
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(response.getEntityTag());
+
+        List<CertificateDTO> actual = (List<CertificateDTO>) response.getEntity();
+        assertEquals(1, actual.size());
+        assertEquals(2L, actual.get(0).getSerial().getId());
+    }
+
+    @Test
+    public void testExportCertificatesAsJsonReturnsNotModifiedForMatchingEntityTag() {
+        Consumer consumer = createConsumer();
+        ResteasyContext.pushContext(Principal.class, new ConsumerPrincipal(consumer, new Owner()));
+        ResteasyContext.pushContext(HttpRequest.class, MockHttpRequest
+            .create("GET", "http://localhost/candlepin/fake")
+            .accept(MediaType.APPLICATION_JSON));
+        doReturn(consumer).when(consumerCurator).verifyAndLookupConsumer(consumer.getUuid());
+        doReturn(List.of(2L, 1L)).when(entitlementCertServiceAdapter).listEntitlementSerialIds(consumer);
+
+        Response response = (Response) consumerResource.exportCertificates(consumer.getUuid(), null);
+        EntityTag etag = response.getEntityTag();
+
+        // The entity tag should not depend on the order of the serials
+        doReturn(List.of(1L, 2L)).when(entitlementCertServiceAdapter).listEntitlementSerialIds(consumer);
+        ResteasyContext.pushContext(HttpRequest.class, MockHttpRequest
+            .create("GET", "http://localhost/candlepin/fake")
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, etag.toString()));
+
+        response = (Response) consumerResource.exportCertificates(consumer.getUuid(), null);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(etag, response.getEntityTag());
+        verify(entitlementCertServiceAdapter, times(1)).listForConsumer(any(Consumer.class),
+            anyCollection());
+
+        // A changed set of serials should no longer match
+        doReturn(List.of(1L, 3L)).when(entitlementCertServiceAdapter).listEntitlementSerialIds(consumer);
+
+        response = (Response) consumerResource.exportCertificates(consumer.getUuid(), null);
+
+        assertEquals(200, response.getStatus());
+        assertNotEquals(etag, response.getEntityTag());
     }
 
     @Test
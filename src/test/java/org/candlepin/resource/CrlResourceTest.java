@@ -15,50 +15,119 @@
 package org.candlepin.resource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import org.candlepin.cache.RevokedSerialCache;
+import org.candlepin.config.TestConfig;
 import org.candlepin.model.CertificateSerialCurator;
+import org.candlepin.util.Util;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
 import java.util.List;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
 @ExtendWith(MockitoExtension.class)
 public class CrlResourceTest {
 
     @Mock
     private CertificateSerialCurator certSerialCurator;
 
+    private RevokedSerialCache revokedSerialCache;
     private CrlResource resource;
 
     @BeforeEach
     public void init() throws Exception {
-        this.resource = new CrlResource(this.certSerialCurator);
+        this.revokedSerialCache = new RevokedSerialCache(TestConfig.defaults(), () -> this.certSerialCurator);
+        this.resource = new CrlResource(this.certSerialCurator, this.revokedSerialCache);
+    }
+
+    private String readEntity(Response response) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+
+        return output.toString(StandardCharsets.UTF_8);
     }
 
     @Test
-    public void noRevokedSerialsEntries() {
+    public void noRevokedSerialsEntries() throws Exception {
         when(certSerialCurator.listNonExpiredRevokedSerialIds()).thenReturn(List.of());
 
-        List<Long> response = this.resource.getCurrentCrl();
+        Response response = this.resource.getCurrentCrl(null, null);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("[]", this.readEntity(response));
+    }
+
+    @Test
+    public void serialsFound() throws Exception {
+        when(certSerialCurator.listNonExpiredRevokedSerialIds()).thenReturn(List.of(3L, 1L, 2L));
+
+        Response response = this.resource.getCurrentCrl(null, null);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("[1,2,3]", this.readEntity(response));
+        assertNotNull(response.getEntityTag());
+    }
+
+    @Test
+    public void unchangedListIsNotReturnedForMatchingEntityTag() throws Exception {
+        when(certSerialCurator.listNonExpiredRevokedSerialIds()).thenReturn(List.of(1L, 2L, 3L));
+
+        EntityTag etag = this.resource.getCurrentCrl(null, null).getEntityTag();
+        Response response = this.resource.getCurrentCrl(null, "\"other\", " + etag.toString());
+
+        assertEquals(304, response.getStatus());
+        assertNull(response.getEntity());
+        assertEquals(etag, response.getEntityTag());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "\"other\"", "", "W/\"\"" })
+    public void listIsReturnedForMismatchedEntityTag(String ifNoneMatch) throws Exception {
+        when(certSerialCurator.listNonExpiredRevokedSerialIds()).thenReturn(List.of(1L));
+
+        Response response = this.resource.getCurrentCrl(null, ifNoneMatch);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("[1]", this.readEntity(response));
+    }
+
+    @Test
+    public void listIsNotReturnedForWildcardEntityTag() {
+        when(certSerialCurator.listNonExpiredRevokedSerialIds()).thenReturn(List.of(1L));
+
+        Response response = this.resource.getCurrentCrl(null, "*");
 
-        assertTrue(response.isEmpty());
+        assertEquals(304, response.getStatus());
     }
 
     @Test
-    public void serialsFound() {
-        List<Long> serials = List.of(1L, 2L, 3L);
-        when(certSerialCurator.listNonExpiredRevokedSerialIds()).thenReturn(serials);
+    public void serialsRevokedSinceDate() {
+        OffsetDateTime since = OffsetDateTime.now().minusHours(1);
+        List<Long> serials = List.of(4L, 5L);
+        when(certSerialCurator.listRevokedSerialIdsSince(Util.toDate(since))).thenReturn(serials);
 
-        List<Long> response = this.resource.getCurrentCrl();
+        Response response = this.resource.getCurrentCrl(since, null);
 
-        assertEquals(3, response.size());
-        assertEquals(serials, response);
+        assertEquals(200, response.getStatus());
+        assertEquals(serials, response.getEntity());
+        verify(certSerialCurator).listRevokedSerialIdsSince(Util.toDate(since));
     }
 
 }
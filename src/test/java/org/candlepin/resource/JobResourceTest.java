@@ -33,6 +33,8 @@ import static org.mockito.Mockito.verify;
 
 import org.candlepin.async.JobConfig;
 import org.candlepin.async.JobException;
+import org.candlepin.async.JobExecutionStats;
+import org.candlepin.async.JobLanes;
 import org.candlepin.async.JobManager;
 import org.candlepin.async.JobManager.ManagerState;
 import org.candlepin.async.StateManagementException;
@@ -40,6 +42,9 @@ import org.candlepin.config.ConfigProperties;
 import org.candlepin.config.DevConfig;
 import org.candlepin.config.TestConfig;
 import org.candlepin.dto.api.server.v1.AsyncJobStatusDTO;
+import org.candlepin.dto.api.server.v1.JobLaneDTO;
+import org.candlepin.dto.api.server.v1.JobStatsDTO;
+import org.candlepin.dto.api.server.v1.JobTimingBucketDTO;
 import org.candlepin.dto.api.server.v1.SchedulerStatusDTO;
 import org.candlepin.exceptions.BadRequestException;
 import org.candlepin.exceptions.ForbiddenException;
@@ -148,6 +153,57 @@ public class JobResourceTest extends DatabaseTestFixture {
         assertEquals(expected, output.getIsRunning());
     }
 
+    @Test
+    public void testGetSchedulerStatusIncludesLanesAndJobStats() {
+        JobLanes.Lane defaultLane = new JobLanes.Lane(JobLanes.DEFAULT_LANE, 10, 4, null);
+        JobLanes.Lane maintenance = new JobLanes.Lane("maintenance", 2, 1, Set.of("RefreshPoolsJob"));
+
+        JobExecutionStats stats = new JobExecutionStats();
+        stats.recordQueueWait("RefreshPoolsJob", 20);
+        stats.recordRunTime("RefreshPoolsJob", 5000000);
+        stats.recordRunTime("EntitlerJob", 5);
+
+        doReturn(ManagerState.RUNNING).when(this.jobManager).getManagerState();
+        doReturn(List.of(defaultLane, maintenance)).when(this.jobManager).getJobLanes();
+        doReturn(3).when(this.jobManager).getSharedJobThreads();
+        doReturn(stats.getJobStats()).when(this.jobManager).getJobStats();
+
+        JobResource resource = this.buildJobResource();
+        SchedulerStatusDTO output = resource.getSchedulerStatus();
+
+        assertNotNull(output);
+        assertEquals(3, output.getSharedThreads());
+
+        List<JobLaneDTO> lanes = output.getLanes();
+        assertEquals(2, lanes.size());
+        assertEquals(JobLanes.DEFAULT_LANE, lanes.get(0).getName());
+        assertEquals(10, lanes.get(0).getThreads());
+        assertEquals("maintenance", lanes.get(1).getName());
+        assertEquals(1, lanes.get(1).getPriority());
+        assertEquals(List.of("RefreshPoolsJob"), lanes.get(1).getJobKeys());
+
+        List<JobStatsDTO> jobStats = output.getJobStats();
+        assertEquals(2, jobStats.size());
+
+        JobStatsDTO entitler = jobStats.get(0);
+        assertEquals("EntitlerJob", entitler.getJobKey());
+        assertEquals(JobLanes.DEFAULT_LANE, entitler.getLane());
+        assertEquals(0L, entitler.getQueueWait().getCount());
+        assertEquals(1L, entitler.getRunTime().getCount());
+        assertEquals(1L, entitler.getRunTime().getBuckets().get(0).getCount());
+
+        JobStatsDTO refresh = jobStats.get(1);
+        assertEquals("RefreshPoolsJob", refresh.getJobKey());
+        assertEquals("maintenance", refresh.getLane());
+        assertEquals(20L, refresh.getQueueWait().getMax());
+
+        // Run times beyond the largest bound are counted in the unbounded overflow bucket
+        List<JobTimingBucketDTO> buckets = refresh.getRunTime().getBuckets();
+        assertEquals(JobExecutionStats.BUCKET_BOUNDS.length + 1, buckets.size());
+        assertNull(buckets.get(buckets.size() - 1).getUpperBound());
+        assertEquals(1L, buckets.get(buckets.size() - 1).getCount());
+    }
+
     @Test
     public void testSetSchedulerStatusToRunning() {
         doReturn(ManagerState.RUNNING).when(this.jobManager).getManagerState();
@@ -18,13 +18,16 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.candlepin.async.JobConfig;
-import org.candlepin.async.JobConfigValidationException;
 import org.candlepin.async.JobException;
 import org.candlepin.async.JobManager;
 import org.candlepin.async.tasks.RefreshPoolsJob;
@@ -43,6 +46,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.stubbing.Answer;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -63,16 +67,17 @@ public class ProductResourceTest extends DatabaseTestFixture {
         productResource = this.injector.getInstance(ProductResource.class);
         this.jobManager = mock(JobManager.class);
 
-        doAnswer((Answer<AsyncJobStatus>) invocation -> {
-            Object[] args = invocation.getArguments();
-            JobConfig<?> jobConfig = (JobConfig<?>) args[0];
+        doAnswer((Answer<List<AsyncJobStatus>>) invocation -> {
+            Collection<JobConfig> jobConfigs = invocation.getArgument(0);
 
-            return new AsyncJobStatus()
-                .setState(AsyncJobStatus.JobState.QUEUED)
-                .setJobKey(jobConfig.getJobKey())
-                .setName(jobConfig.getJobName())
-                .setJobArguments(jobConfig.getJobArguments());
-        }).when(this.jobManager).queueJob(any(JobConfig.class));
+            return jobConfigs.stream()
+                .map(jobConfig -> new AsyncJobStatus()
+                    .setState(AsyncJobStatus.JobState.QUEUED)
+                    .setJobKey(jobConfig.getJobKey())
+                    .setName(jobConfig.getJobName())
+                    .setJobArguments(jobConfig.getJobArguments()))
+                .collect(Collectors.toList());
+        }).when(this.jobManager).queueJobs(anyCollection());
     }
 
     @Test
@@ -202,20 +207,31 @@ public class ProductResourceTest extends DatabaseTestFixture {
             () -> productResource.refreshPoolsForProducts(new LinkedList<>(), true));
     }
 
+    @Test
+    public void testRefreshPoolsByProductQueuesJobsInSingleBatch() throws JobException {
+        config.setProperty(ConfigProperties.STANDALONE, "false");
+
+        ProductResource productResource = new ProductResource(this.productCurator, this.ownerCurator,
+            this.productCertificateCurator, config, this.i18n, this.modelTranslator, this.jobManager);
+        this.setupDBForOwnerProdTests();
+
+        List<AsyncJobStatusDTO> jobs = productResource
+            .refreshPoolsForProducts(Arrays.asList("p1", "p2", "p3"), false)
+            .collect(Collectors.toList());
+
+        assertEquals(3, jobs.size());
+        verify(this.jobManager, times(1)).queueJobs(anyCollection());
+        verify(this.jobManager, never()).queueJob(any(JobConfig.class));
+    }
+
     @Test
     public void testRefreshPoolsByProductJobQueueingErrorsShouldBeHandled() throws JobException {
         config.setProperty(ConfigProperties.STANDALONE, "false");
 
-        // We want to simulate the first queueJob call succeeds, and the second throws a validation
-        // exception
+        // Simulate the batch failing to queue as a whole
         JobManager jobManager = mock(JobManager.class);
-        AsyncJobStatus status1 = new AsyncJobStatus();
-        status1.setName(RefreshPoolsJob.JOB_NAME);
-        status1.setState(AsyncJobStatus.JobState.CREATED); // need to prime the previous state field
-        status1.setState(AsyncJobStatus.JobState.QUEUED);
-        when(jobManager.queueJob(any(JobConfig.class)))
-            .thenReturn(status1)
-            .thenThrow(new JobConfigValidationException("a job config validation error happened!"));
+        when(jobManager.queueJobs(anyCollection()))
+            .thenThrow(new JobException("the job batch could not be queued!"));
 
         ProductResource productResource = new ProductResource(this.productCurator, this.ownerCurator,
             this.productCertificateCurator, config, this.i18n, this.modelTranslator, jobManager);
@@ -227,27 +243,20 @@ public class ProductResourceTest extends DatabaseTestFixture {
                 .collect(Collectors.toList());
         }
         catch (Exception e) {
-            fail("A validation exception when trying to queue a job should be handled " +
+            fail("An exception when trying to queue the jobs should be handled " +
                 "by the endpoint, not thrown!");
         }
         assertNotNull(jobs);
         assertEquals(2, jobs.size());
 
-        // assert first job succeeded in queueing
-        AsyncJobStatusDTO statusDTO1 = jobs.get(0);
-        assertEquals(RefreshPoolsJob.JOB_NAME, statusDTO1.getName());
-        assertEquals(AsyncJobStatus.JobState.CREATED.toString(), statusDTO1.getState());
-        assertEquals(AsyncJobStatus.JobState.CREATED.toString(), statusDTO1.getPreviousState());
-        assertEquals(Integer.valueOf(0), statusDTO1.getAttempts());
-        assertEquals(Integer.valueOf(1), statusDTO1.getMaxAttempts());
-
-        // assert second job failed validation
-        AsyncJobStatusDTO statusDTO2 = jobs.get(1);
-        assertEquals(RefreshPoolsJob.JOB_NAME, statusDTO2.getName());
-        assertEquals(AsyncJobStatus.JobState.FAILED.toString(), statusDTO2.getState());
-        assertEquals(AsyncJobStatus.JobState.CREATED.toString(), statusDTO2.getPreviousState());
-        assertEquals(Integer.valueOf(0), statusDTO2.getAttempts());
-        assertEquals(Integer.valueOf(1), statusDTO2.getMaxAttempts());
+        // assert both jobs are reported as failed
+        for (AsyncJobStatusDTO statusDTO : jobs) {
+            assertEquals(RefreshPoolsJob.JOB_NAME, statusDTO.getName());
+            assertEquals(AsyncJobStatus.JobState.FAILED.toString(), statusDTO.getState());
+            assertEquals(AsyncJobStatus.JobState.CREATED.toString(), statusDTO.getPreviousState());
+            assertEquals(Integer.valueOf(0), statusDTO.getAttempts());
+            assertEquals(Integer.valueOf(1), statusDTO.getMaxAttempts());
+        }
     }
 
 }
@@ -26,6 +26,7 @@ import static org.mockito.Mockito.mock;
 
 import org.candlepin.auth.Access;
 import org.candlepin.auth.permissions.PermissionFactory.PermissionType;
+import org.candlepin.cache.UserPermissionCache;
 import org.candlepin.dto.api.server.v1.OwnerDTO;
 import org.candlepin.dto.api.server.v1.UserDTO;
 import org.candlepin.exceptions.BadRequestException;
@@ -67,7 +68,8 @@ public class UserResourceTest extends DatabaseTestFixture {
 
         // This test suite relies upon the resource being backed by the default user service
         this.userServiceAdapter = new DefaultUserServiceAdapter(this.userCurator, this.roleCurator,
-            this.permissionBlueprintCurator, this.ownerCurator, this.permissionFactory);
+            this.permissionBlueprintCurator, this.ownerCurator, this.permissionFactory,
+            new UserPermissionCache(this.config));
 
         this.userResource = new UserResource(this.userServiceAdapter, this.i18n, this.ownerCurator,
             this.modelTranslator);
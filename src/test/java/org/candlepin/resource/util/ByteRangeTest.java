@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.resource.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+
+
+/**
+ * Test suite for the ByteRange class
+ */
+public class ByteRangeTest {
+
+    @Test
+    public void testParseBoundedRange() {
+        ByteRange range = ByteRange.parse("bytes=0-99", 1000);
+
+        assertNotNull(range);
+        assertTrue(range.isSatisfiable());
+        assertEquals(0, range.getStart());
+        assertEquals(99, range.getEnd());
+        assertEquals(100, range.getLength());
+        assertFalse(range.isFinal());
+        assertEquals("bytes 0-99/1000", range.toContentRange());
+    }
+
+    @Test
+    public void testParseOpenEndedRange() {
+        ByteRange range = ByteRange.parse("bytes=100-", 1000);
+
+        assertNotNull(range);
+        assertEquals(100, range.getStart());
+        assertEquals(999, range.getEnd());
+        assertTrue(range.isFinal());
+    }
+
+    @Test
+    public void testParseSuffixRange() {
+        ByteRange range = ByteRange.parse("bytes=-10", 1000);
+
+        assertNotNull(range);
+        assertEquals(990, range.getStart());
+        assertEquals(999, range.getEnd());
+        assertEquals("bytes 990-999/1000", range.toContentRange());
+    }
+
+    @Test
+    public void testParseClampsRangeToSize() {
+        ByteRange range = ByteRange.parse("bytes=950-2000", 1000);
+
+        assertNotNull(range);
+        assertEquals(950, range.getStart());
+        assertEquals(999, range.getEnd());
+        assertEquals(50, range.getLength());
+        assertTrue(range.isFinal());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "bytes=1000-", "bytes=1000-1200", "bytes=-0" })
+    public void testParseUnsatisfiableRange(String header) {
+        ByteRange range = ByteRange.parse(header, 1000);
+
+        assertNotNull(range);
+        assertFalse(range.isSatisfiable());
+        assertEquals(0, range.getLength());
+        assertEquals("bytes */1000", range.toContentRange());
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = { "", "bytes=", "bytes=-", "bytes=5-1", "bytes=0-1,5-6", "items=0-1",
+        "bytes=99999999999999999999-" })
+    public void testParseIgnoresAbsentOrMalformedHeaders(String header) {
+        assertNull(ByteRange.parse(header, 1000));
+    }
+}
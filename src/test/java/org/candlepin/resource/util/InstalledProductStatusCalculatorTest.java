@@ -25,6 +25,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import org.candlepin.audit.EventSink;
+import org.candlepin.config.TestConfig;
 import org.candlepin.dto.ModelTranslator;
 import org.candlepin.dto.StandardTranslator;
 import org.candlepin.dto.api.server.v1.DateRange;
@@ -138,7 +139,7 @@ public class InstalledProductStatusCalculatorTest {
 
         this.complianceRules = new ComplianceRules(provider.get(), this.entCurator,
             new StatusReasonMessageGenerator(i18n), eventSink, this.consumerCurator, this.consumerTypeCurator,
-            ObjectMapperFactory.getRulesObjectMapper(), translator);
+            ObjectMapperFactory.getRulesObjectMapper(), translator, TestConfig.defaults());
 
         this.consumerEnricher = new ConsumerEnricher(this.complianceRules, this.productCurator);
     }
@@ -21,6 +21,7 @@ import static org.mockito.Mockito.when;
 import org.candlepin.auth.ConsumerPrincipal;
 import org.candlepin.auth.Principal;
 import org.candlepin.auth.UpdateConsumerCheckIn;
+import org.candlepin.controller.ConsumerCheckInCoalescer;
 import org.candlepin.model.Consumer;
 import org.candlepin.model.Owner;
 import org.candlepin.resteasy.AnnotationLocator;
@@ -88,7 +89,8 @@ public class ConsumerCheckInFilterTest extends DatabaseTestFixture {
         MethodLocator methodLocator = new MethodLocator(injector);
         methodLocator.init();
         AnnotationLocator annotationLocator = new AnnotationLocator(methodLocator);
-        interceptor = new ConsumerCheckInFilter(consumerCurator, annotationLocator);
+        interceptor = new ConsumerCheckInFilter(injector.getInstance(ConsumerCheckInCoalescer.class),
+            annotationLocator);
     }
 
     private void mockResourceMethod(Method method) {
@@ -308,6 +308,22 @@ public class LinkHeaderResponseFilterTest {
         assertEquals(Integer.valueOf(1), interceptor.getLastPage(p));
     }
 
+    @Test
+    public void testPagesWithoutMaxRecords() {
+        Page<Object> p = new Page<>();
+
+        PageRequest pr = new PageRequest();
+        p.setPageRequest(pr);
+
+        pr.setPerPage(10);
+        pr.setPage(3);
+        LinkHeaderResponseFilter interceptor = new LinkHeaderResponseFilter(config, apiUrlPrefixKey);
+
+        assertEquals(Integer.valueOf(2), interceptor.getPrevPage(p));
+        assertEquals(Integer.valueOf(4), interceptor.getNextPage(p));
+        assertNull(interceptor.getLastPage(p));
+    }
+
     @Test
     public void testPostProcessWithNullPage() {
         LinkHeaderResponseFilter interceptor = new LinkHeaderResponseFilter(config, apiUrlPrefixKey);
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.candlepin.config.ConfigProperties;
+import org.candlepin.config.DevConfig;
+import org.candlepin.config.TestConfig;
+import org.candlepin.service.impl.CertificateGenerationExecutor.CertificateTask;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+
+
+public class CertificateGenerationExecutorTest {
+
+    private CertificateGenerationExecutor buildExecutor(int threads) {
+        DevConfig config = TestConfig.defaults();
+        config.setProperty(ConfigProperties.ENTITLEMENT_CERT_GENERATION_THREADS, String.valueOf(threads));
+
+        return new CertificateGenerationExecutor(config);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("tasks were not run concurrently");
+            }
+        }
+        catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @AfterEach
+    public void clearContext() {
+        MDC.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { -1, 0, 1 })
+    public void testTasksRunOnCallingThreadWithoutWorkers(int threads) throws Exception {
+        CertificateGenerationExecutor executor = this.buildExecutor(threads);
+        Thread caller = Thread.currentThread();
+
+        List<CertificateTask<Thread>> tasks = List.of(Thread::currentThread, Thread::currentThread);
+        List<Thread> result = executor.invokeAll(tasks);
+
+        assertEquals(1, executor.getParallelism());
+        assertEquals(List.of(caller, caller), result);
+    }
+
+    @Test
+    public void testTasksRunConcurrentlyOnWorkers() throws Exception {
+        CertificateGenerationExecutor executor = this.buildExecutor(4);
+
+        // Each task waits on the others, which can only complete if all of them run at once
+        CountDownLatch latch = new CountDownLatch(4);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        List<CertificateTask<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; ++i) {
+            int value = i;
+            tasks.add(() -> {
+                threads.add(Thread.currentThread().getName());
+                latch.countDown();
+                await(latch);
+
+                return value;
+            });
+        }
+
+        List<Integer> result = executor.invokeAll(tasks);
+
+        assertEquals(4, executor.getParallelism());
+        assertEquals(List.of(0, 1, 2, 3), result);
+        assertThat(threads)
+            .hasSize(4)
+            .allMatch(name -> name.startsWith("entitlement-cert-worker-"));
+    }
+
+    @Test
+    public void testResultsKeepTaskOrder() throws Exception {
+        CertificateGenerationExecutor executor = this.buildExecutor(3);
+
+        List<CertificateTask<Integer>> tasks = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 50; ++i) {
+            int value = i;
+            tasks.add(() -> {
+                // Finish the earlier tasks last
+                sleep(50 - value);
+                return value;
+            });
+
+            expected.add(i);
+        }
+
+        assertEquals(expected, executor.invokeAll(tasks));
+    }
+
+    @Test
+    public void testWorkersInheritLoggingContext() throws Exception {
+        CertificateGenerationExecutor executor = this.buildExecutor(2);
+        MDC.put("requestUuid", "test-request");
+
+        List<CertificateTask<String>> tasks = List.of(
+            () -> MDC.get("requestUuid"),
+            () -> MDC.get("requestUuid"));
+
+        assertEquals(List.of("test-request", "test-request"), executor.invokeAll(tasks));
+    }
+
+    @Test
+    public void testCheckedExceptionsAreRethrown() {
+        CertificateGenerationExecutor executor = this.buildExecutor(2);
+
+        GeneralSecurityException securityException = new GeneralSecurityException("bad key");
+        List<CertificateTask<String>> securityTasks = List.of(() -> "ok", () -> {
+            throw securityException;
+        });
+
+        GeneralSecurityException thrown = assertThrows(GeneralSecurityException.class,
+            () -> executor.invokeAll(securityTasks));
+        assertSame(securityException, thrown);
+
+        IOException ioException = new IOException("bad payload");
+        List<CertificateTask<String>> ioTasks = List.of(() -> {
+            throw ioException;
+        }, () -> "ok");
+
+        assertSame(ioException, assertThrows(IOException.class, () -> executor.invokeAll(ioTasks)));
+    }
+
+    @Test
+    public void testRuntimeExceptionsAreRethrown() {
+        CertificateGenerationExecutor executor = this.buildExecutor(2);
+
+        IllegalStateException exception = new IllegalStateException("failed");
+        List<CertificateTask<String>> tasks = List.of(() -> "ok", () -> {
+            throw exception;
+        });
+
+        assertSame(exception, assertThrows(IllegalStateException.class, () -> executor.invokeAll(tasks)));
+    }
+}
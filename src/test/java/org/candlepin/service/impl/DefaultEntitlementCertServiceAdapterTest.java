@@ -21,7 +21,6 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.Mockito.any;
@@ -56,6 +55,7 @@ import org.candlepin.model.KeyPairDataCurator;
 import org.candlepin.model.Owner;
 import org.candlepin.model.OwnerCurator;
 import org.candlepin.model.Pool;
+import org.candlepin.model.PoolQuantity;
 import org.candlepin.model.Product;
 import org.candlepin.model.ProductContent;
 import org.candlepin.model.dto.ProductContentData;
@@ -68,16 +68,16 @@ import org.candlepin.pki.X509Extension;
 import org.candlepin.pki.impl.BouncyCastlePKIUtility;
 import org.candlepin.pki.impl.BouncyCastleSecurityProvider;
 import org.candlepin.pki.impl.BouncyCastleSubjectKeyIdentifierWriter;
+import org.candlepin.pki.impl.KeyPairPool;
 import org.candlepin.test.CertificateReaderForTesting;
 import org.candlepin.test.TestUtil;
 import org.candlepin.util.CertificateSizeException;
+import org.candlepin.util.ContentPathEncoder;
 import org.candlepin.util.ObjectMapperFactory;
 import org.candlepin.util.Util;
 import org.candlepin.util.X509ExtensionUtil;
 import org.candlepin.util.X509V3ExtensionUtil;
 import org.candlepin.util.X509V3ExtensionUtil.HuffNode;
-import org.candlepin.util.X509V3ExtensionUtil.NodePair;
-import org.candlepin.util.X509V3ExtensionUtil.PathNode;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -93,8 +93,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.Arguments;
-import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentMatcher;
@@ -128,7 +126,6 @@ import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import java.util.zip.InflaterOutputStream;
 
 
@@ -227,17 +224,18 @@ public class DefaultEntitlementCertServiceAdapterTest {
         config = TestConfig.defaults();
         realPKI = new BouncyCastlePKIUtility(new BouncyCastleSecurityProvider(),
             new CertificateReaderForTesting(), new BouncyCastleSubjectKeyIdentifierWriter(),
-            this.config, new KeyPairDataCurator());
+            this.config, new KeyPairDataCurator(), new KeyPairPool(this.config));
         extensionUtil = new X509ExtensionUtil(this.config);
         mapper = ObjectMapperFactory.getX509V3ExtensionUtilObjectMapper();
 
-        v3extensionUtil = new X509V3ExtensionUtil(config, entCurator, mapper);
+        v3extensionUtil = new X509V3ExtensionUtil(config, entCurator, new ContentPathEncoder(), mapper);
         certServiceAdapter = new DefaultEntitlementCertServiceAdapter(
             mockedPKI, extensionUtil, v3extensionUtil,
             mock(EntitlementCertificateCurator.class),
             serialCurator, ownerCurator, entCurator,
             I18nFactory.getI18n(getClass(), Locale.US, I18nFactory.FALLBACK),
-            config, this.mockConsumerTypeCurator, this.mockEnvironmentCurator);
+            config, this.mockConsumerTypeCurator, this.mockEnvironmentCurator,
+            new CertificateGenerationExecutor(config));
 
         product = TestUtil.createProduct("12345", "a product");
         product.setAttribute(Product.Attributes.VERSION, "version");
@@ -408,7 +406,8 @@ public class DefaultEntitlementCertServiceAdapterTest {
             mock(EntitlementCertificateCurator.class),
             serialCurator, ownerCurator, entCurator,
             I18nFactory.getI18n(getClass(), Locale.US, I18nFactory.FALLBACK),
-            config, this.mockConsumerTypeCurator, this.mockEnvironmentCurator);
+            config, this.mockConsumerTypeCurator, this.mockEnvironmentCurator,
+            new CertificateGenerationExecutor(config));
 
         PromotedContent promotedContent = new PromotedContent(prefix(owner));
         X509Certificate result = certServiceAdapter.createX509Certificate(consumer, owner, pool,
@@ -438,7 +437,8 @@ public class DefaultEntitlementCertServiceAdapterTest {
             mock(EntitlementCertificateCurator.class),
             serialCurator, ownerCurator, entCurator,
             I18nFactory.getI18n(getClass(), Locale.US, I18nFactory.FALLBACK),
-            config, this.mockConsumerTypeCurator, this.mockEnvironmentCurator);
+            config, this.mockConsumerTypeCurator, this.mockEnvironmentCurator,
+            new CertificateGenerationExecutor(config));
 
         // pool start date is more than an hour ago, use it
         Calendar cal = Calendar.getInstance();
@@ -826,7 +826,8 @@ public class DefaultEntitlementCertServiceAdapterTest {
             mock(EntitlementCertificateCurator.class),
             serialCurator, ownerCurator, entCurator,
             I18nFactory.getI18n(getClass(), Locale.US, I18nFactory.FALLBACK),
-            mockConfig, this.mockConsumerTypeCurator, this.mockEnvironmentCurator);
+            mockConfig, this.mockConsumerTypeCurator, this.mockEnvironmentCurator,
+            new CertificateGenerationExecutor(mockConfig));
     }
 
     @Test
@@ -1663,6 +1664,74 @@ public class DefaultEntitlementCertServiceAdapterTest {
         assertFalse(cert.getCert().contains("ENTITLEMENT DATA"));
     }
 
+    @Test
+    public void testGenerateEntitlementCertsForMultiplePools() throws Exception {
+        consumer.setFact(Consumer.Facts.SYSTEM_CERTIFICATE_VERSION, X509V3ExtensionUtil.CERT_VERSION);
+
+        when(mockedPKI.getConsumerKeyPair(any(Consumer.class))).thenReturn(keyPair);
+        when(mockedPKI.getPemEncoded(any(PrivateKey.class))).thenReturn("".getBytes());
+        when(mockedPKI.getSHA256WithRSAHash(any(InputStream.class))).thenReturn("signature".getBytes());
+        when(serialCurator.saveOrUpdateAll(any(), anyBoolean(), anyBoolean()))
+            .then((Answer<Iterable<CertificateSerial>>) invocationOnMock -> {
+                Iterable<CertificateSerial> certificateSerials = invocationOnMock.getArgument(0);
+                certificateSerials
+                    .forEach(certificateSerial -> certificateSerial.setId(Util.generateUniqueLong()));
+                return certificateSerials;
+            });
+
+        Map<String, PoolQuantity> poolQuantities = new HashMap<>();
+        Map<String, Entitlement> entitlements = new HashMap<>();
+        Map<String, Product> products = new HashMap<>();
+        Map<String, X509Certificate> x509Certs = new HashMap<>();
+
+        for (int i = 0; i < 8; ++i) {
+            Pool pool = new Pool()
+                .setId("pool-" + i)
+                .setQuantity(1L)
+                .setProduct(product)
+                .setStartDate(subscription.getStartDate())
+                .setEndDate(subscription.getEndDate());
+
+            Entitlement entitlement = new Entitlement()
+                .setId("ent-" + i)
+                .setPool(pool)
+                .setQuantity(1);
+            entitlement.setConsumer(consumer);
+            entitlement.setOwner(owner);
+
+            X509Certificate x509Cert = mock(X509Certificate.class);
+            when(mockedPKI.getPemEncoded(x509Cert)).thenReturn(("CERT " + entitlement.getId()).getBytes());
+
+            poolQuantities.put(pool.getId(), new PoolQuantity(pool, 1));
+            entitlements.put(pool.getId(), entitlement);
+            products.put(pool.getId(), product);
+            x509Certs.put("CN=" + entitlement.getId(), x509Cert);
+        }
+
+        when(mockedPKI.createX509Certificate(any(DistinguishedName.class), anySet(),
+            any(Date.class), any(Date.class), any(KeyPair.class), any(BigInteger.class),
+            nullable(String.class)))
+            .then(invocation -> {
+                DistinguishedName dn = invocation.getArgument(0);
+                return x509Certs.get(dn.commonName());
+            });
+
+        Map<String, EntitlementCertificate> certs = certServiceAdapter.generateEntitlementCerts(consumer,
+            poolQuantities, entitlements, products, true);
+
+        assertEquals(poolQuantities.keySet(), certs.keySet());
+        for (Map.Entry<String, EntitlementCertificate> entry : certs.entrySet()) {
+            Entitlement entitlement = entitlements.get(entry.getKey());
+            EntitlementCertificate cert = entry.getValue();
+
+            assertThat(cert.getCert())
+                .startsWith("CERT " + entitlement.getId() + "-----BEGIN ENTITLEMENT DATA");
+            assertNotNull(cert.getSerial());
+            assertEquals(entitlement, cert.getEntitlement());
+            assertTrue(entitlement.getCertificates().contains(cert));
+        }
+    }
+
     @Test
     public void testContentExtension() throws IOException {
         Set<Product> products = new HashSet<>();
@@ -1860,128 +1929,6 @@ public class DefaultEntitlementCertServiceAdapterTest {
         }
     }
 
-    @Test
-    public void testPathTreeCommonHeadAndTail() {
-        List<org.candlepin.model.dto.Content> contentList = new ArrayList<>();
-        for (int i = 0; i < 20; i++) {
-            org.candlepin.model.dto.Content cont = new org.candlepin.model.dto.Content();
-            cont.setPath("/head/neck/shoulders/heart" + i + "/waist" + i + "/leg/foot/heel");
-            contentList.add(cont);
-        }
-        PathNode location = v3extensionUtil.makePathTree(contentList, v3extensionUtil.new PathNode());
-        v3extensionUtil.printTree(location, 0);
-        assertEquals(1, location.getChildren().size());
-        assertEquals("head", location.getChildren().get(0).getName());
-        location = location.getChildren().get(0).getConnection();
-        assertEquals(1, location.getChildren().size());
-        assertEquals("neck", location.getChildren().get(0).getName());
-        location = location.getChildren().get(0).getConnection();
-        assertEquals(1, location.getChildren().size());
-        assertEquals("shoulders", location.getChildren().get(0).getName());
-        location = location.getChildren().get(0).getConnection();
-        assertEquals(20, location.getChildren().size());
-
-        // find the common footer nodes and make sure they are merged.
-        long legId = -1;
-        long footId = -1;
-        long heelId = -1;
-        for (NodePair np : location.getChildren()) {
-            // np is a "heart" pair
-            assertTrue(np.getName().startsWith("heart"));
-
-            // now waist node
-            PathNode waist = np.getConnection();
-            assertEquals(1, waist.getChildren().size());
-            assertTrue(waist.getChildren().get(0).getName().startsWith("waist"));
-
-            // go to "leg" node
-            PathNode leg = waist.getChildren().get(0).getConnection();
-            if (legId == -1) {
-                legId = leg.getId();
-            }
-            else {
-                assertEquals(leg.getId(), legId);
-            }
-            assertEquals(1, leg.getChildren().size());
-            assertEquals("leg", leg.getChildren().get(0).getName());
-
-            // go to "foot" node
-            PathNode foot = leg.getChildren().get(0).getConnection();
-            if (footId == -1) {
-                footId = foot.getId();
-            }
-            else {
-                assertEquals(foot.getId(), footId);
-            }
-            assertEquals(1, foot.getChildren().size());
-            assertEquals("foot", foot.getChildren().get(0).getName());
-
-            // go to "heel" node
-            PathNode heel = foot.getChildren().get(0).getConnection();
-            if (heelId == -1) {
-                heelId = heel.getId();
-            }
-            else {
-                assertEquals(heel.getId(), heelId);
-            }
-            assertEquals(1, heel.getChildren().size());
-            assertEquals("heel", heel.getChildren().get(0).getName());
-        }
-    }
-
-    @Test
-    public void testPathTreeSortsChildNodesAlphabetically() {
-        List<org.candlepin.model.dto.Content> contentList = new ArrayList<>();
-
-        org.candlepin.model.dto.Content contentA = new org.candlepin.model.dto.Content();
-        contentA.setPath("/AAA");
-        org.candlepin.model.dto.Content contentB = new org.candlepin.model.dto.Content();
-        contentB.setPath("/BBB");
-        org.candlepin.model.dto.Content contentC = new org.candlepin.model.dto.Content();
-        contentC.setPath("/CCC");
-
-        contentList.add(contentB);
-        contentList.add(contentC);
-        contentList.add(contentA);
-
-        PathNode location = v3extensionUtil.makePathTree(contentList, v3extensionUtil.new PathNode());
-
-        assertEquals(3, location.getChildren().size(), 3);
-        assertEquals("AAA", location.getChildren().get(0).getName());
-        assertEquals("BBB", location.getChildren().get(1).getName());
-        assertEquals("CCC", location.getChildren().get(2).getName());
-    }
-
-    @Test
-    public void testPathDictionary() throws IOException {
-        List<org.candlepin.model.dto.Content> contentList = new ArrayList<>();
-        org.candlepin.model.dto.Content cont;
-
-        for (int i = 0; i < 20; i++) {
-            cont = new org.candlepin.model.dto.Content();
-            cont.setPath("/head/neck/shoulders/heart" + i + "/waist" + i + "/leg/foot/heel");
-            contentList.add(cont);
-        }
-
-        cont = new org.candlepin.model.dto.Content();
-        cont.setPath("/head/neck/shoulders/chest/leg");
-        contentList.add(cont);
-        cont = new org.candlepin.model.dto.Content();
-        cont.setPath("/head/neck/shoulders/chest/foot");
-        contentList.add(cont);
-        cont = new org.candlepin.model.dto.Content();
-        cont.setPath("/head/neck/shoulders/chest/torso/leg");
-        contentList.add(cont);
-
-        PathNode location = v3extensionUtil.makePathTree(contentList, v3extensionUtil.new PathNode());
-        List<String> nodeStrings = v3extensionUtil.orderStrings(location);
-        assertEquals(48, nodeStrings.size());
-
-        // frequency sorted
-        assertEquals("foot", nodeStrings.get(46));
-        assertEquals("leg", nodeStrings.get(47));
-    }
-
     @Test
     public void testHuffNodeTrieCreationAndTreeSearch() {
         String[] paths = {"01110", "01111", "0110", "1110", "1111", "010", "100", "101", "110", "00"};
@@ -1993,73 +1940,22 @@ public class DefaultEntitlementCertServiceAdapterTest {
             members.add(o);
         }
         HuffNode trieParent = v3extensionUtil.makeTrie(huffNodes);
-        v3extensionUtil.printTrie(trieParent, 0);
         assertEquals(55, trieParent.getWeight());
         assertEquals(22, trieParent.getLeft().getWeight());
         assertEquals(33, trieParent.getRight().getWeight());
 
         int idx = 0;
         for (Object o : members) {
-            assertEquals(paths[idx], v3extensionUtil.findHuffPath(trieParent, o));
             Object found = v3extensionUtil.findHuffNodeValueByBits(trieParent, paths[idx++]);
             assertEquals(o, found);
         }
     }
 
-    @ParameterizedTest
-    @MethodSource("pathTreeCondensationProvider")
-    public void testPathTreeCondensation(List<String> paths) {
-        List<org.candlepin.model.dto.Content> contentList = new ArrayList<>();
-        for (String path : paths) {
-            org.candlepin.model.dto.Content content = new org.candlepin.model.dto.Content();
-            content.setPath(path);
-            contentList.add(content);
-        }
-
-        PathNode location = v3extensionUtil.makePathTree(contentList, v3extensionUtil.new PathNode());
-        for (org.candlepin.model.dto.Content c : contentList) {
-            List<String> path = Arrays.asList(c.getPath().split("/"));
-            assertTrue(checkPath(location, path.subList(1, path.size())), "failed path " + c.getPath());
-        }
-    }
-
     private static Map<String, X509Extension> toExtensionMap(Set<X509Extension> extensions) {
         return extensions.stream()
             .collect(Collectors.toMap(x509Extension -> x509Extension.oid().getId(), Function.identity()));
     }
 
-    boolean checkPath(PathNode location, List<String> path) {
-        if (path.isEmpty()) {
-            return true;
-        }
-        for (NodePair pn : location.getChildren()) {
-            if (path.get(0).equals(pn.getName())) {
-                if (path.size() == 1) {
-                    return true;
-                }
-                return checkPath(pn.getConnection(), path.subList(1, path.size()));
-            }
-        }
-        return false;
-    }
-
-    public static Stream<Arguments> pathTreeCondensationProvider() {
-        // BZ 2131312
-        Arguments block1 = arguments(List.of(
-            "/content/dist/rhel/server/6/$releasever/$basearch/satellite/6.0/os",
-            "/content/dist/rhel/server/6/$releasever/$basearch/satellite/6.0/source/SRPMS",
-            "/content/dist/layered/rhel9/x86_64/sat-client/6/source/SRPMS",
-            "/content/beta/layered/rhel8/x86_64/sat-tools/6/source/SRPMS",
-            "/content/beta/layered/rhel8/x86_64/sat-tools/6/os",
-            "/content/dist/layered/rhel8/x86_64/sat-tools/6.8/os",
-            "/content/dist/layered/rhel8/x86_64/sat-client/6/os",
-            "/content/dist/layered/rhel9/x86_64/sat-client/6/os",
-            "/content/dist/layered/rhel8/x86_64/sat-client/6/source/SRPMS"));
-        // add additional blocks if other test scenarios arrive
-
-        return Stream.of(block1);
-    }
-
     private String processPayload(byte[] payload) throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         InflaterOutputStream ios = new InflaterOutputStream(baos);
@@ -23,6 +23,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import org.candlepin.auth.Access;
+import org.candlepin.cache.UserPermissionCache;
 import org.candlepin.model.Owner;
 import org.candlepin.model.Role;
 import org.candlepin.model.RoleCurator;
@@ -50,6 +51,7 @@ import java.util.stream.Collectors;
  */
 public class DefaultUserServiceAdapterTest extends DatabaseTestFixture {
     private DefaultUserServiceAdapter service;
+    private UserPermissionCache permissionCache;
     private Owner owner;
 
     @BeforeEach
@@ -57,8 +59,9 @@ public class DefaultUserServiceAdapterTest extends DatabaseTestFixture {
     public void init() throws Exception {
         super.init();
         this.owner = this.createOwner("default_owner");
+        this.permissionCache = new UserPermissionCache(this.config);
         this.service = new DefaultUserServiceAdapter(userCurator, roleCurator, permissionBlueprintCurator,
-            ownerCurator, permissionFactory);
+            ownerCurator, permissionFactory, permissionCache);
     }
 
     @Test
@@ -162,7 +165,7 @@ public class DefaultUserServiceAdapterTest extends DatabaseTestFixture {
         UserCurator curator = mock(UserCurator.class);
         RoleCurator roleCurator = mock(RoleCurator.class);
         UserServiceAdapter dusa = new DefaultUserServiceAdapter(curator, roleCurator,
-            permissionBlueprintCurator, ownerCurator, permissionFactory);
+            permissionBlueprintCurator, ownerCurator, permissionFactory, permissionCache);
         when(curator.findByLogin(anyString())).thenReturn(u);
 
         UserInfo foo = dusa.findByLogin("foo");
@@ -206,4 +209,58 @@ public class DefaultUserServiceAdapterTest extends DatabaseTestFixture {
         assertEquals("Binks", updated.getHashedPassword());
         assertFalse(updated.isSuperAdmin());
     }
+
+    /**
+     * Applies the given change, verifying the permission cache version only advances once the change
+     * has been committed, then opens a new transaction.
+     */
+    private void verifyInvalidatedOnCommit(Runnable change) {
+        long version = permissionCache.getVersion();
+
+        change.run();
+        assertEquals(version, permissionCache.getVersion());
+
+        this.commitTransaction();
+        assertTrue(permissionCache.getVersion() > version);
+
+        this.beginTransaction();
+    }
+
+    @Test
+    public void roleChangesInvalidateCachedPermissionsAfterCommit() {
+        User user = new User("roleuser", "password");
+        service.createUser(user);
+        this.commitTransaction();
+        this.beginTransaction();
+
+        Role adminRole = createAdminRole(owner);
+        this.verifyInvalidatedOnCommit(() -> service.createRole(adminRole));
+        this.verifyInvalidatedOnCommit(() -> service.addUserToRole(adminRole.getName(), user.getUsername()));
+        this.verifyInvalidatedOnCommit(() ->
+            service.removeUserFromRole(adminRole.getName(), user.getUsername()));
+        this.verifyInvalidatedOnCommit(() -> service.deleteRole(adminRole.getName()));
+    }
+
+    @Test
+    public void userChangesInvalidateCachedPermissionsAfterCommit() {
+        User user = new User("testuser", "password");
+        service.createUser(user);
+        this.commitTransaction();
+        this.beginTransaction();
+
+        user.setSuperAdmin(true);
+        this.verifyInvalidatedOnCommit(() -> service.updateUser(user.getUsername(), user));
+        this.verifyInvalidatedOnCommit(() -> service.deleteUser(user.getUsername()));
+    }
+
+    @Test
+    public void rolledBackChangesDoNotInvalidateCachedPermissions() {
+        long version = permissionCache.getVersion();
+
+        service.createRole(createAdminRole(owner));
+        this.rollbackTransaction();
+
+        assertEquals(version, permissionCache.getVersion());
+        this.beginTransaction();
+    }
 }
@@ -70,23 +70,30 @@ import org.candlepin.version.VersionUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
 import java.security.PrivateKey;
+import java.security.Signature;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -130,6 +137,8 @@ public class ExporterTest {
     private ModelTranslator translator;
     private ContentAccessManager contentAccessManager;
 
+    private static KeyPair signingKeyPair;
+
     @BeforeEach
     public void setUp() {
         ctc = mock(ConsumerTypeCurator.class);
@@ -147,6 +156,7 @@ public class ExporterTest {
         ec = mock(EntitlementCurator.class);
         ee = new EntitlementExporter(translator);
         pki = mock(PKIUtility.class);
+        when(pki.getSHA256WithRSASigner()).thenAnswer(invocation -> this.buildSigner());
         config = TestConfig.defaults();
         exportRules = mock(ExportRules.class);
         pprov = mock(PrincipalProvider.class);
@@ -159,6 +169,21 @@ public class ExporterTest {
         when(exportRules.canExport(any(Entitlement.class))).thenReturn(Boolean.TRUE);
     }
 
+    @BeforeAll
+    public static void generateSigningKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+
+        signingKeyPair = generator.generateKeyPair();
+    }
+
+    private Signature buildSigner() throws Exception {
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(signingKeyPair.getPrivate());
+
+        return signature;
+    }
+
     private KeyPairData buildConsumerKeyPairData() {
         Random rnd = new Random();
         final int keySize = 4096;
@@ -225,7 +250,6 @@ public class ExporterTest {
 
         when(ent.getPool()).thenReturn(pool);
         when(mrules.getRules()).thenReturn("foobar");
-        when(pki.getSHA256WithRSAHash(any(InputStream.class))).thenReturn("signature".getBytes());
         when(rc.getRules()).thenReturn(mrules);
         when(consumer.getEntitlements()).thenReturn(entitlements);
         when(pprov.get()).thenReturn(principal);
@@ -289,8 +313,6 @@ public class ExporterTest {
         List<Entitlement> entitlements = new ArrayList<>();
         entitlements.add(ent);
 
-        when(pki.getSHA256WithRSAHash(any(InputStream.class))).thenReturn(
-            "signature".getBytes());
         when(pprov.get()).thenReturn(principal);
         when(principal.getUsername()).thenReturn("testUser");
 
@@ -329,7 +351,6 @@ public class ExporterTest {
         IdentityCertificate idcert = new IdentityCertificate();
 
         when(mrules.getRules()).thenReturn("foobar");
-        when(pki.getSHA256WithRSAHash(any(InputStream.class))).thenReturn("signature".getBytes());
         when(rc.getRules()).thenReturn(mrules);
         when(pprov.get()).thenReturn(principal);
         when(principal.getUsername()).thenReturn("testUser");
@@ -379,7 +400,6 @@ public class ExporterTest {
         Principal principal = mock(Principal.class);
 
         when(mrules.getRules()).thenReturn("foobar");
-        when(pki.getSHA256WithRSAHash(any(InputStream.class))).thenReturn("signature".getBytes());
         when(rc.getRules()).thenReturn(mrules);
         when(pprov.get()).thenReturn(principal);
         when(principal.getUsername()).thenReturn("testUser");
@@ -429,7 +449,6 @@ public class ExporterTest {
         Principal principal = mock(Principal.class);
 
         when(mrules.getRules()).thenReturn("foobar");
-        when(pki.getSHA256WithRSAHash(any(InputStream.class))).thenReturn("signature".getBytes());
         when(rc.getRules()).thenReturn(mrules);
         when(pprov.get()).thenReturn(principal);
         when(principal.getUsername()).thenReturn("testUser");
@@ -485,7 +504,6 @@ public class ExporterTest {
         Principal principal = mock(Principal.class);
 
         when(mrules.getRules()).thenReturn("foobar");
-        when(pki.getSHA256WithRSAHash(any(InputStream.class))).thenReturn("signature".getBytes());
         when(rc.getRules()).thenReturn(mrules);
         when(pprov.get()).thenReturn(principal);
         when(principal.getUsername()).thenReturn("testUser");
@@ -558,7 +576,6 @@ public class ExporterTest {
         when(ctc.getConsumerType(eq(consumer))).thenReturn(ctype);
         when(ctc.get(eq(ctype.getId()))).thenReturn(ctype);
 
-        when(pki.getSHA256WithRSAHash(any(InputStream.class))).thenReturn("signature".getBytes());
 
         // Setup principal
         Principal principal = mock(Principal.class);
@@ -619,7 +636,6 @@ public class ExporterTest {
         doReturn(ctype).when(ctc).getConsumerType(eq(consumer));
         doReturn(ctype).when(ctc).get(eq(ctype.getId()));
 
-        doReturn("signature".getBytes()).when(pki).getSHA256WithRSAHash(any(InputStream.class));
 
         // Setup principal
         Principal principal = mock(Principal.class);
@@ -682,7 +698,6 @@ public class ExporterTest {
         doReturn(ctype).when(ctc).getConsumerType(eq(consumer));
         doReturn(ctype).when(ctc).get(eq(ctype.getId()));
 
-        doReturn("signature".getBytes()).when(pki).getSHA256WithRSAHash(any(InputStream.class));
 
         // Setup principal
         Principal principal = mock(Principal.class);
@@ -745,7 +760,6 @@ public class ExporterTest {
         doReturn(ctype).when(ctc).getConsumerType(eq(consumer));
         doReturn(ctype).when(ctc).get(eq(ctype.getId()));
 
-        doReturn("signature".getBytes()).when(pki).getSHA256WithRSAHash(any(InputStream.class));
 
         // Setup principal
         Principal principal = mock(Principal.class);
@@ -790,6 +804,61 @@ public class ExporterTest {
         assertTrue(verifyHasEntry(export, "export/content_access_certificates/654321.pem"));
     }
 
+    @Test
+    public void testStreamedEntitlementExportIsSignedOverInnerArchive() throws Exception {
+        Consumer consumer = mock(Consumer.class);
+        when(consumer.getUuid()).thenReturn("consumer");
+
+        Principal principal = mock(Principal.class);
+        when(pprov.get()).thenReturn(principal);
+
+        EntitlementCertificate entCert = new EntitlementCertificate();
+        CertificateSerial entSerial = new CertificateSerial();
+        entSerial.setId(123456L);
+        entCert.setSerial(entSerial);
+        entCert.setCert("ent-cert");
+        entCert.setKey("ent-cert-key");
+
+        when(ecsa.listForConsumer(consumer)).thenReturn(Arrays.asList(entCert));
+        ObjectMapper mapper = ObjectMapperFactory.getSyncObjectMapper(config);
+
+        Exporter e = new Exporter(ctc, oc, me, ce, cte, re, ecsa, pe, psa,
+            ec, ee, pki, config, exportRules, pprov, dvc, dve, cdnc, cdne, su, mapper,
+            translator, contentAccessManager);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        e.getEntitlementExport(consumer, null, output);
+
+        Map<String, byte[]> entries = new HashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                entries.put(entry.getName(), zis.readAllBytes());
+            }
+        }
+
+        assertEquals(Set.of("consumer_export.zip", "signature"), entries.keySet());
+
+        Signature verifier = Signature.getInstance("SHA256withRSA");
+        verifier.initVerify(signingKeyPair.getPublic());
+        verifier.update(entries.get("consumer_export.zip"));
+        assertTrue(verifier.verify(entries.get("signature")));
+
+        Map<String, String> files = new HashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(
+            new ByteArrayInputStream(entries.get("consumer_export.zip")))) {
+
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                files.put(entry.getName(), new String(zis.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        assertEquals(Set.of("export/meta.json", "export/entitlement_certificates/123456.pem"),
+            files.keySet());
+        assertEquals("ent-certent-cert-key", files.get("export/entitlement_certificates/123456.pem"));
+    }
+
     /**
      * return true if export has a given entry named name.
      * @param export zip file to inspect
@@ -68,6 +68,7 @@ import org.candlepin.model.Product;
 import org.candlepin.model.UpstreamConsumer;
 import org.candlepin.model.dto.Subscription;
 import org.candlepin.pki.PKIUtility;
+import org.candlepin.pki.SignatureVerifier;
 import org.candlepin.service.ProductServiceAdapter;
 import org.candlepin.service.SubscriptionServiceAdapter;
 import org.candlepin.sync.Importer.ImportFile;
@@ -145,6 +146,8 @@ public class ImporterTest {
     @Mock
     private PKIUtility mockPKIUtility;
     @Mock
+    private SignatureVerifier mockSignatureVerifier;
+    @Mock
     private EventSink mockEventSink;
     @Mock
     private DistributorVersionCurator mockDistributorVersionCurator;
@@ -153,7 +156,6 @@ public class ImporterTest {
 
     private ObjectMapper mapper;
     private ClassLoader classLoader = getClass().getClassLoader();
-    private String mockJsPath;
 
     @BeforeEach
     public void init() throws Exception {
@@ -166,7 +168,10 @@ public class ImporterTest {
 
         this.mapper = ObjectMapperFactory.getSyncObjectMapper(config);
         this.syncUtils = new SyncUtils(this.config);
-        this.mockJsPath = new File(this.tmpFolder, "empty.js").getPath();
+        doReturn(this.mockSignatureVerifier)
+            .when(this.mockPKIUtility)
+            .getSHA256WithRSAVerifier();
+
 
         this.updateReleaseVersion("0.0.3", "1");
     }
@@ -217,18 +222,6 @@ public class ImporterTest {
         return file;
     }
 
-    private File[] createMockJsFile(String filename)
-        throws IOException {
-
-        FileWriter f = new FileWriter(filename);
-        f.write("// nothing to see here");
-        f.close();
-
-        File[] fileArray = new File[1];
-        fileArray[0] = new File(filename);
-        return fileArray;
-    }
-
     private Date getDateBeforeDays(int days) {
         long daysinmillis = 24 * 60 * 60 * 1000;
         long ms = System.currentTimeMillis() - (days * daysinmillis);
@@ -250,17 +243,48 @@ public class ImporterTest {
         in.close();
     }
 
-    private Map<String, File> getTestImportFiles() {
-        Map<String, File> importFiles = new HashMap<>();
-        importFiles.put(ImportFile.META.fileName(), mock(File.class));
-        importFiles.put(ImportFile.RULES_FILE.fileName(), mock(File.class));
-        importFiles.put(ImportFile.CONSUMER_TYPE.fileName(), mock(File.class));
-        importFiles.put(ImportFile.CONSUMER.fileName(), mock(File.class));
-        importFiles.put(ImportFile.PRODUCTS.fileName(), mock(File.class));
-        importFiles.put(ImportFile.ENTITLEMENTS.fileName(), mock(File.class));
-        importFiles.put(ImportFile.DISTRIBUTOR_VERSIONS.fileName(), mock(File.class));
-
-        return importFiles;
+    /**
+     * Builds an extracted export directory containing the files required by an import, skipping
+     * any of the specified files.
+     */
+    private File createExportDir(ImportFile... skipped) throws IOException {
+        Set<ImportFile> skip = Set.of(skipped);
+        File exportDir = this.createTempDirectory("export");
+
+        if (!skip.contains(ImportFile.META)) {
+            Meta meta = new Meta("0.0.3", new Date(), "test_user", "prefix", null);
+            this.mapper.writeValue(new File(exportDir, ImportFile.META.fileName()), meta);
+        }
+
+        if (!skip.contains(ImportFile.RULES_FILE)) {
+            this.writeExportFile(exportDir, ImportFile.RULES_FILE.fileName(), "// nothing to see here");
+        }
+
+        if (!skip.contains(ImportFile.CONSUMER)) {
+            this.writeExportFile(exportDir, ImportFile.CONSUMER.fileName(), "{}");
+        }
+
+        List<ImportFile> directories = List.of(ImportFile.CONSUMER_TYPE, ImportFile.PRODUCTS,
+            ImportFile.ENTITLEMENTS, ImportFile.DISTRIBUTOR_VERSIONS);
+
+        for (ImportFile directory : directories) {
+            if (!skip.contains(directory)) {
+                new File(exportDir, directory.fileName()).mkdirs();
+            }
+        }
+
+        return exportDir;
+    }
+
+    private File writeExportFile(File exportDir, String path, String content) throws IOException {
+        File file = new File(exportDir, path);
+        file.getParentFile().mkdirs();
+
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+
+        return file;
     }
 
     private ConsumerType mockConsumerType(ConsumerType mock) {
@@ -294,6 +318,7 @@ public class ImporterTest {
         Date now = new Date();
         File file = createFile("meta", "0.0.3", now, "test_user", "prefix");
         File actual = createFile("meta.json", "0.0.3", now, "test_user", "prefix");
+        Meta meta = this.mapper.readValue(actual, Meta.class);
 
         ExporterMetadata em = new ExporterMetadata();
         Date daybefore = getDateBeforeDays(1);
@@ -306,7 +331,7 @@ public class ImporterTest {
             .getByType(ExporterMetadata.TYPE_SYSTEM);
 
         Importer importer = this.buildImporter();
-        importer.validateMetadata(ExporterMetadata.TYPE_SYSTEM, null, actual, new ConflictOverrides());
+        importer.validateMetadata(ExporterMetadata.TYPE_SYSTEM, null, meta, new ConflictOverrides());
 
         Meta fileMeta = mapper.readValue(file, Meta.class);
         Meta actualMeta = mapper.readValue(actual, Meta.class);
@@ -325,9 +350,10 @@ public class ImporterTest {
 
         File file = createFile("meta", "0.0.3", now, "test_user", "prefix");
         File actualmeta = createFile("meta.json", "0.0.3", now, "test_user", "prefix");
+        Meta meta = this.mapper.readValue(actualmeta, Meta.class);
 
         Importer importer = this.buildImporter();
-        ExporterMetadata metadata = importer.validateMetadata(ExporterMetadata.TYPE_SYSTEM, null, actualmeta,
+        ExporterMetadata metadata = importer.validateMetadata(ExporterMetadata.TYPE_SYSTEM, null, meta,
             new ConflictOverrides());
 
         assertNotNull(metadata);
@@ -343,6 +369,7 @@ public class ImporterTest {
     public void oldImport() throws Exception {
         // actualmeta is the mock for the import itself
         File actualmeta = createFile("meta.json", "0.0.3", getDateBeforeDays(10), "test_user", "prefix");
+        Meta meta = this.mapper.readValue(actualmeta, Meta.class);
 
         ExporterMetadata em = new ExporterMetadata();
         em.setExported(getDateBeforeDays(3));
@@ -357,7 +384,7 @@ public class ImporterTest {
 
         try {
             ExporterMetadata metadata = importer.validateMetadata(ExporterMetadata.TYPE_SYSTEM, null,
-                actualmeta, new ConflictOverrides());
+                meta, new ConflictOverrides());
 
             fail("Expected an ImportConflictException, but no exception was thrown");
         }
@@ -373,6 +400,7 @@ public class ImporterTest {
         // actualmeta is the mock for the import itself
         Date date = getDateBeforeDays(10);
         File actualmeta = createFile("meta.json", "0.0.3", date, "test_user", "prefix");
+        Meta meta = this.mapper.readValue(actualmeta, Meta.class);
 
         ExporterMetadata em = new ExporterMetadata();
         em.setExported(date); // exact same date = assumed same manifest
@@ -386,7 +414,7 @@ public class ImporterTest {
         Importer importer = this.buildImporter();
 
         try {
-            importer.validateMetadata(ExporterMetadata.TYPE_SYSTEM, null, actualmeta,
+            importer.validateMetadata(ExporterMetadata.TYPE_SYSTEM, null, meta,
                 new ConflictOverrides());
 
             fail("Expected an ImportConflictException, but no exception was thrown");
@@ -423,6 +451,7 @@ public class ImporterTest {
 
         // actualmeta is the mock for the import itself
         File actualmeta = createFile("meta.json", "0.0.3", importDate, "test_user", "prefix");
+        Meta meta = this.mapper.readValue(actualmeta, Meta.class);
 
         ExporterMetadata em = new ExporterMetadata();
         em.setExported(getDateBeforeDays(30));
@@ -434,7 +463,7 @@ public class ImporterTest {
             .getByType(ExporterMetadata.TYPE_SYSTEM);
 
         Importer importer = this.buildImporter();
-        ExporterMetadata metadata = importer.validateMetadata(ExporterMetadata.TYPE_SYSTEM, null, actualmeta,
+        ExporterMetadata metadata = importer.validateMetadata(ExporterMetadata.TYPE_SYSTEM, null, meta,
             new ConflictOverrides());
 
         assertNotNull(metadata);
@@ -448,12 +477,13 @@ public class ImporterTest {
     @Test
     public void nullType() throws IOException {
         File actualmeta = createFile("meta.json", "0.0.3", new Date(), "test_user", "prefix");
+        Meta meta = this.mapper.readValue(actualmeta, Meta.class);
 
         Importer importer = this.buildImporter();
 
         // null Type should cause exception
         assertThrows(ImporterException.class,
-            () -> importer.validateMetadata(null, null, actualmeta, new ConflictOverrides()));
+            () -> importer.validateMetadata(null, null, meta, new ConflictOverrides()));
 
         assertTrue(actualmeta.delete());
     }
@@ -462,12 +492,13 @@ public class ImporterTest {
     public void expectOwner() throws IOException {
         ConflictOverrides overrides = new ConflictOverrides();
         File actualmeta = createFile("meta.json", "0.0.3", new Date(), "test_user", "prefix");
+        Meta meta = this.mapper.readValue(actualmeta, Meta.class);
 
         Importer importer = this.buildImporter();
 
         // null Type should cause exception
         assertThrows(ImporterException.class,
-            () -> importer.validateMetadata(ExporterMetadata.TYPE_PER_USER, null, actualmeta, overrides));
+            () -> importer.validateMetadata(ExporterMetadata.TYPE_PER_USER, null, meta, overrides));
 
         verify(this.mockExporterMetadataCurator, never()).create(any(ExporterMetadata.class));
     }
@@ -538,8 +569,8 @@ public class ImporterTest {
     public void testImportBadConsumerZip() throws Exception {
         // Mock a passed signature check:
         doReturn(true)
-            .when(this.mockPKIUtility)
-            .verifySHA256WithRSAHashAgainstCACerts(any(File.class), any(byte[].class));
+            .when(this.mockSignatureVerifier)
+            .verify(any(byte[].class));
 
         Owner owner = mock(Owner.class);
         ConflictOverrides co = mock(ConflictOverrides.class);
@@ -569,8 +600,8 @@ public class ImporterTest {
     public void testImportZipSigAndEmptyConsumerZip() throws Exception {
         // Mock a passed signature check:
         doReturn(true)
-            .when(this.mockPKIUtility)
-            .verifySHA256WithRSAHashAgainstCACerts(any(File.class), any(byte[].class));
+            .when(this.mockSignatureVerifier)
+            .verify(any(byte[].class));
 
         Owner owner = mock(Owner.class);
         ConflictOverrides co = mock(ConflictOverrides.class);
@@ -597,48 +628,43 @@ public class ImporterTest {
     }
 
     @Test
-    public void testImportNoMeta() {
+    public void testImportNoMeta() throws IOException {
         Owner owner = mock(Owner.class);
         ConflictOverrides co = mock(ConflictOverrides.class);
-
-        Map<String, File> importFiles = this.getTestImportFiles();
-        importFiles.put(ImportFile.META.fileName(), null);
+        ManifestContent content = new DirectoryManifestContent(this.createExportDir(ImportFile.META));
 
         Importer importer = this.buildImporter();
         Throwable throwable = assertThrows(ImporterException.class,
-            () -> importer.importObjects(owner, importFiles, co));
+            () -> importer.importObjects(owner, content, co));
 
         String errmsg = i18n.tr("The archive does not contain the required meta.json file");
         assertThat(throwable.getMessage(), StringContains.containsString(errmsg));
     }
 
     @Test
-    public void testImportNoConsumerTypesDir() {
+    public void testImportNoConsumerTypesDir() throws IOException {
         Owner owner = mock(Owner.class);
         ConflictOverrides co = mock(ConflictOverrides.class);
-        Map<String, File> importFiles = this.getTestImportFiles();
-
-        importFiles.put(ImportFile.CONSUMER_TYPE.fileName(), null);
+        File exportDir = this.createExportDir(ImportFile.CONSUMER_TYPE);
+        ManifestContent content = new DirectoryManifestContent(exportDir);
 
         Importer importer = this.buildImporter();
         Throwable throwable = assertThrows(ImporterException.class,
-            () -> importer.importObjects(owner, importFiles, co));
+            () -> importer.importObjects(owner, content, co));
 
         String errmsg = i18n.tr("The archive does not contain the required consumer_types directory");
         assertThat(throwable.getMessage(), StringContains.containsString(errmsg));
     }
 
     @Test
-    public void testImportNoConsumer() {
+    public void testImportNoConsumer() throws IOException {
         Owner owner = mock(Owner.class);
         ConflictOverrides co = mock(ConflictOverrides.class);
-        Map<String, File> importFiles = this.getTestImportFiles();
-
-        importFiles.put(ImportFile.CONSUMER.fileName(), null);
+        ManifestContent content = new DirectoryManifestContent(this.createExportDir(ImportFile.CONSUMER));
 
         Importer importer = this.buildImporter();
         Throwable throwable = assertThrows(ImporterException.class,
-            () -> importer.importObjects(owner, importFiles, co));
+            () -> importer.importObjects(owner, content, co));
 
         String errmsg = i18n.tr("The archive does not contain the required consumer.json file");
         assertThat(throwable.getMessage(), StringContains.containsString(errmsg));
@@ -649,11 +675,9 @@ public class ImporterTest {
         Owner owner = mock(Owner.class);
         ConflictOverrides co = mock(ConflictOverrides.class);
 
-        Map<String, File> importFiles = this.getTestImportFiles();
-        File ruleDir = mock(File.class);
-        File[] rulesFiles = createMockJsFile(mockJsPath);
-        when(ruleDir.listFiles()).thenReturn(rulesFiles);
-        File actualmeta = createFile("meta.json", "0.0.3", new Date(), "test_user", "prefix");
+        File exportDir = this.createExportDir(ImportFile.PRODUCTS, ImportFile.ENTITLEMENTS);
+        new File(exportDir, ImportFile.UPSTREAM_CONSUMER.fileName()).mkdirs();
+        ManifestContent content = new DirectoryManifestContent(exportDir);
 
         // this is the hook to stop testing. we confirm that the archive component tests
         //  are passed and then jump out instead of trying to fake the actual file
@@ -663,15 +687,9 @@ public class ImporterTest {
             .when(this.mockRulesImporter)
             .importObject(any(Reader.class));
 
-        importFiles.put(ImportFile.META.fileName(), actualmeta);
-        importFiles.put(ImportFile.RULES_FILE.fileName(), rulesFiles[0]);
-        importFiles.put(ImportFile.PRODUCTS.fileName(), null);
-        importFiles.put(ImportFile.ENTITLEMENTS.fileName(), null);
-        importFiles.put(ImportFile.UPSTREAM_CONSUMER.fileName(), mock(File.class));
-
         Importer importer = this.buildImporter();
         Throwable throwable = assertThrows(RuntimeException.class,
-            () -> importer.importObjects(owner, importFiles, co));
+            () -> importer.importObjects(owner, content, co));
 
         String errmsg = "Done with the test";
         assertThat(throwable.getMessage(), StringContains.containsString(errmsg));
@@ -693,14 +711,7 @@ public class ImporterTest {
             .getRefresher(any(SubscriptionServiceAdapter.class), any(ProductServiceAdapter.class));
         doReturn(mockRefresher).when(mockRefresher).add(any(Owner.class));
 
-        Map<String, File> importFiles = new HashMap<>();
-        File ruleDir = mock(File.class);
-        File[] rulesFiles = createMockJsFile(mockJsPath);
-        when(ruleDir.listFiles()).thenReturn(rulesFiles); // bad bad bad bad bad bad bad bad bad bad bad bad
-        importFiles.put(ImportFile.RULES_FILE.fileName(), rulesFiles[0]);
-
-        File actualmeta = createFile("meta.json", "0.0.3", new Date(), "test_user", "prefix");
-        importFiles.put(ImportFile.META.fileName(), actualmeta);
+        File exportDir = this.createExportDir();
 
         ConsumerDTO consumerDTO = new ConsumerDTO();
         consumerDTO.setUuid("eb5e04bf-be27-44cf-abe3-0c0b1edd523e");
@@ -721,16 +732,11 @@ public class ImporterTest {
         ctype.setId("test-ctype");
         this.mockConsumerType(ctype);
 
-        File consumerFile = new File(this.tmpFolder, "consumer.json");
+        File consumerFile = new File(exportDir, ImportFile.CONSUMER.fileName());
         this.mapper.writeValue(consumerFile, consumerDTO);
-        importFiles.put(ImportFile.CONSUMER.fileName(), consumerFile);
-
-        // setup source data for consumer types
-        File consumerTypesDir = this.createTempDirectory("consumer_types");
-        importFiles.put(ImportFile.CONSUMER_TYPE.fileName(), consumerTypesDir);
 
         // setup source data for products
-        File productsDir = this.createTempDirectory("products");
+        File productsDir = new File(exportDir, ImportFile.PRODUCTS.fileName());
 
         Product prod = new Product("prodId", "prodTest", null)
             .setDependentProductIds(null);
@@ -738,10 +744,8 @@ public class ImporterTest {
         File prodFile = new File(productsDir, "product.json");
         this.mapper.writeValue(prodFile, prod);
 
-        importFiles.put(ImportFile.PRODUCTS.fileName(), productsDir);
-
         // Setup source data for entitlements
-        File entitlementsDir = this.createTempDirectory("entitlements");
+        File entitlementsDir = new File(exportDir, ImportFile.ENTITLEMENTS.fileName());
 
         Pool pool = new Pool()
             .setProduct(prod);
@@ -753,12 +757,11 @@ public class ImporterTest {
         File entFile = new File(entitlementsDir, "entitlement.json");
         this.mapper.writeValue(entFile, this.modelTranslator.translate(ent, EntitlementDTO.class));
 
-        importFiles.put(ImportFile.ENTITLEMENTS.fileName(), entitlementsDir);
-
         ConflictOverrides co = mock(ConflictOverrides.class);
 
         Importer importer = this.buildImporter();
-        List<SubscriptionDTO> subscriptions = importer.importObjects(owner, importFiles, co);
+        List<SubscriptionDTO> subscriptions = importer.importObjects(owner,
+            new DirectoryManifestContent(exportDir), co);
 
         assertEquals(1, subscriptions.size());
         assertEquals("prodId", subscriptions.get(0).getProduct().getId());
@@ -766,16 +769,14 @@ public class ImporterTest {
     }
 
     @Test
-    public void testImportProductNoEntitlementDir() {
+    public void testImportProductNoEntitlementDir() throws IOException {
         Owner owner = mock(Owner.class);
         ConflictOverrides co = mock(ConflictOverrides.class);
-        Map<String, File> importFiles = this.getTestImportFiles();
-
-        importFiles.put(ImportFile.ENTITLEMENTS.fileName(), null);
+        ManifestContent content = new DirectoryManifestContent(this.createExportDir(ImportFile.ENTITLEMENTS));
 
         Importer importer = this.buildImporter();
         Throwable throwable = assertThrows(ImporterException.class,
-            () -> importer.importObjects(owner, importFiles, co));
+            () -> importer.importObjects(owner, content, co));
 
         String errmsg = i18n.tr("The archive does not contain the required entitlements directory");
         assertThat(throwable.getMessage(), StringContains.containsString(errmsg));
@@ -787,7 +788,8 @@ public class ImporterTest {
         type.setId("test-ctype");
         this.mockConsumerType(type);
 
-        File[] upstream = createUpstreamFiles();
+        File exportDir = this.createExportDir();
+        this.createUpstreamFiles(exportDir);
         Owner owner = new Owner()
             .setKey("admin")
             .setDisplayName("Admin Owner");
@@ -807,7 +809,7 @@ public class ImporterTest {
         ownerDTO.setDisplayName("Admin Owner");
         consumerDTO.setOwner(ownerDTO);
 
-        File consumerfile = new File(this.tmpFolder, "consumer.json");
+        File consumerfile = new File(exportDir, ImportFile.CONSUMER.fileName());
         this.mapper.writeValue(consumerfile, consumerDTO);
         ConflictOverrides forcedConflicts = mock(ConflictOverrides.class);
         when(forcedConflicts.isForced(any(Importer.Conflict.class))).thenReturn(false);
@@ -815,18 +817,19 @@ public class ImporterTest {
         Meta meta = new Meta("1.0", new Date(), "admin", "/candlepin/owners", null);
 
         Importer importer = this.buildImporter();
-        importer.importConsumer(owner, consumerfile, upstream, forcedConflicts, meta);
+        importer.importConsumer(owner, new DirectoryManifestContent(exportDir), forcedConflicts, meta);
 
         verify(this.mockOwnerCurator).merge(owner);
     }
 
-    private File[] createUpstreamFiles() throws URISyntaxException {
-        File[] upstream = new File[2];
-        File idcertfile = new File(classLoader.getResource("upstream/testidcert.json").toURI());
-        File kpfile = new File(classLoader.getResource("upstream/keypair.pem").toURI());
-        upstream[0] = idcertfile;
-        upstream[1] = kpfile;
-        return upstream;
+    private void createUpstreamFiles(File exportDir) throws URISyntaxException, IOException {
+        File upstreamDir = new File(exportDir, ImportFile.UPSTREAM_CONSUMER.fileName());
+        upstreamDir.mkdirs();
+
+        for (String name : List.of("testidcert.json", "keypair.pem")) {
+            File source = new File(classLoader.getResource("upstream/" + name).toURI());
+            Files.copy(source.toPath(), new File(upstreamDir, name).toPath());
+        }
     }
 
     private DistributorVersionDTO createDistributorVersionDTO() {
@@ -842,12 +845,12 @@ public class ImporterTest {
 
     @Test
     public void importDistributorVersionCreate() throws Exception {
-        File[] distVer = new File[1];
-        distVer[0] = new File(this.tmpFolder, "dist-ver.json");
-        mapper.writeValue(distVer[0], this.createDistributorVersionDTO());
+        File exportDir = this.createExportDir();
+        File distVer = new File(exportDir, ImportFile.DISTRIBUTOR_VERSIONS.fileName() + "/dist-ver.json");
+        mapper.writeValue(distVer, this.createDistributorVersionDTO());
 
         Importer importer = this.buildImporter();
-        importer.importDistributorVersions(distVer);
+        importer.importDistributorVersions(new DirectoryManifestContent(exportDir));
 
         verify(this.mockDistributorVersionCurator).create(any(DistributorVersion.class));
         verify(this.mockDistributorVersionCurator, never()).merge(any(DistributorVersion.class));
@@ -859,12 +862,12 @@ public class ImporterTest {
             .when(this.mockDistributorVersionCurator)
             .findByName("test-dist-ver");
 
-        File[] distVer = new File[1];
-        distVer[0] = new File(this.tmpFolder, "dist-ver.json");
-        mapper.writeValue(distVer[0], createDistributorVersionDTO());
+        File exportDir = this.createExportDir();
+        File distVer = new File(exportDir, ImportFile.DISTRIBUTOR_VERSIONS.fileName() + "/dist-ver.json");
+        mapper.writeValue(distVer, createDistributorVersionDTO());
 
         Importer importer = this.buildImporter();
-        importer.importDistributorVersions(distVer);
+        importer.importDistributorVersions(new DirectoryManifestContent(exportDir));
 
         verify(this.mockDistributorVersionCurator, never()).create(any(DistributorVersion.class));
         verify(this.mockDistributorVersionCurator).merge(any(DistributorVersion.class));
@@ -886,40 +889,17 @@ public class ImporterTest {
         OwnerCurator oc = mock(OwnerCurator.class);
         Owner owner = mock(Owner.class);
         ConflictOverrides co = mock(ConflictOverrides.class);
-        Map<String, File> importFiles = createAndSetImportFiles();
+        ManifestContent content = new DirectoryManifestContent(this.createExportDir(ImportFile.PRODUCTS,
+            ImportFile.ENTITLEMENTS, ImportFile.DISTRIBUTOR_VERSIONS));
 
         Importer importer = this.buildImporter();
         Throwable throwable = assertThrows(RuntimeException.class,
-            () -> importer.importObjects(owner, importFiles, co));
+            () -> importer.importObjects(owner, content, co));
 
         String errmsg = "Done with the test";
         assertThat(throwable.getMessage(), StringContains.containsString(errmsg));
     }
 
-    private Map<String, File> createAndSetImportFiles()
-        throws IOException {
-
-        File[] rulesFiles = createMockJsFile(mockJsPath);
-        File ruleDir = mock(File.class);
-        when(ruleDir.listFiles()).thenReturn(rulesFiles);
-
-        File actualmeta = createFile("meta.json", "0.0.3", new Date(), "test_user", "prefix");
-
-        Map<String, File> importFiles = this.getTestImportFiles();
-        importFiles.put(ImportFile.META.fileName(), actualmeta);
-        importFiles.put(ImportFile.RULES_FILE.fileName(), rulesFiles[0]);
-        importFiles.put(ImportFile.PRODUCTS.fileName(), null);
-        importFiles.put(ImportFile.ENTITLEMENTS.fileName(), null);
-        importFiles.put(ImportFile.DISTRIBUTOR_VERSIONS.fileName(), null);
-
-        File cTypes = mock(File.class);
-        when(cTypes.listFiles()).thenReturn(new File[] {});
-
-        importFiles.put(ImportFile.CONSUMER_TYPE.fileName(), cTypes);
-
-        return importFiles;
-    }
-
     @Test
     public void testRecordImportSuccess() {
         String expectedOwnerKey = "TEST_OWNER";
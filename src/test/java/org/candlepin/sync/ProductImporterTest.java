@@ -302,7 +302,7 @@ public class ProductImporterTest {
     }
 
     private ProductImporter buildProductImporter() {
-        return new ProductImporter(this.tmpdir, this.mapper, this.i18n);
+        return new ProductImporter(new DirectoryManifestContent(this.tmpdir), this.mapper, this.i18n);
     }
 
     private void writeMockProductData(ProductDTO... products) throws IOException {
@@ -313,8 +313,11 @@ public class ProductImporterTest {
         // Impl note: we're intentionally *not* collecting children products here so we can
         // easily test the case where a child product does not exist in the manifest
 
+        File productDir = new File(this.tmpdir, ProductImporter.PRODUCT_DIR);
+        productDir.mkdirs();
+
         for (ProductDTO pdto : products) {
-            File pfile = new File(this.tmpdir, pdto.getId() + ProductImporter.PRODUCT_FILE_SUFFIX);
+            File pfile = new File(productDir, pdto.getId() + ProductImporter.PRODUCT_FILE_SUFFIX);
             pfile.deleteOnExit();
 
             try (FileWriter writer = new FileWriter(pfile)) {
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.sync;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+
+
+public class ZipManifestContentTest {
+
+    @TempDir
+    protected File tmpFolder;
+
+    private File buildArchive(String... names) throws IOException {
+        File archive = new File(this.tmpFolder, "consumer_export.zip");
+
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            for (String name : names) {
+                zip.putNextEntry(new ZipEntry(name));
+
+                if (!name.endsWith("/")) {
+                    zip.write(name.getBytes(StandardCharsets.UTF_8));
+                }
+
+                zip.closeEntry();
+            }
+        }
+
+        return archive;
+    }
+
+    @Test
+    public void testListsFilesWithinDirectory() throws IOException {
+        File archive = this.buildArchive("export/products/2.json", "export/products/1.json",
+            "export/products/nested/3.json", "export/meta.json");
+
+        try (ZipManifestContent content = new ZipManifestContent(archive)) {
+            assertEquals(List.of("1.json", "2.json"), content.list("products"));
+            assertEquals(List.of(), content.list("entitlements"));
+        }
+    }
+
+    @Test
+    public void testExists() throws IOException {
+        File archive = this.buildArchive("export/products/1.json", "export/meta.json",
+            "export/consumer_types/", "unrelated.json");
+
+        try (ZipManifestContent content = new ZipManifestContent(archive)) {
+            assertTrue(content.exists("meta.json"));
+            assertTrue(content.exists("products"));
+            assertTrue(content.exists("products/1.json"));
+            assertTrue(content.exists("consumer_types"));
+            assertFalse(content.exists("entitlements"));
+            assertFalse(content.exists("unrelated.json"));
+        }
+    }
+
+    @Test
+    public void testOpenReadsEntry() throws IOException {
+        File archive = this.buildArchive("export/products/1.json");
+
+        try (ZipManifestContent content = new ZipManifestContent(archive);
+            InputStream stream = content.open("products/1.json")) {
+
+            assertEquals("export/products/1.json", new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testOpenMissingEntry() throws IOException {
+        File archive = this.buildArchive("export/meta.json");
+
+        try (ZipManifestContent content = new ZipManifestContent(archive)) {
+            assertThrows(FileNotFoundException.class, () -> content.open("consumer.json"));
+        }
+    }
+
+    @Test
+    public void testIsEmptyWithoutExportedFiles() throws IOException {
+        File archive = this.buildArchive("no_content");
+
+        try (ZipManifestContent content = new ZipManifestContent(archive)) {
+            assertTrue(content.isEmpty());
+            assertEquals(1, content.size());
+        }
+    }
+
+    @Test
+    public void testRejectsNonZipFile() throws IOException {
+        File archive = new File(this.tmpFolder, "consumer_export.zip");
+        Files.writeString(archive.toPath(), "This is just a flat file");
+
+        assertThrows(ZipException.class, () -> new ZipManifestContent(archive));
+    }
+}
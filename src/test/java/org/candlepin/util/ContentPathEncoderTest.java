@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import org.candlepin.config.Configuration;
+import org.candlepin.model.EntitlementCurator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Inflater;
+
+
+
+public class ContentPathEncoderTest {
+    private ContentPathEncoder encoder;
+    private X509V3ExtensionUtil util;
+
+    @BeforeEach
+    public void init() {
+        this.encoder = new ContentPathEncoder();
+        this.util = new X509V3ExtensionUtil(mock(Configuration.class), mock(EntitlementCurator.class),
+            this.encoder, ObjectMapperFactory.getX509V3ExtensionUtilObjectMapper());
+    }
+
+    private List<String> decode(byte[] encoded) throws Exception {
+        return this.util.hydrateContentPackage(encoded)
+            .stream()
+            .sorted()
+            .toList();
+    }
+
+    @Test
+    public void testEncodeRequiresPaths() {
+        assertThrows(IllegalArgumentException.class, () -> this.encoder.encode(null));
+    }
+
+    @Test
+    public void testEncodeWithoutPathsReturnsEmptyValue() {
+        assertArrayEquals(new byte[0], this.encoder.encode(List.of()));
+        assertArrayEquals(new byte[0], this.encoder.encode(List.of("/", "//")));
+    }
+
+    public static Stream<Arguments> pathProvider() {
+        return Stream.of(
+            Arguments.of(List.of("/single")),
+            Arguments.of(List.of("/head/tail")),
+            Arguments.of(List.of("/AAA", "/BBB", "/CCC")),
+            Arguments.of(List.of("/a/b", "/a/b/c")),
+            Arguments.of(List.of("/a/b/c", "/a/b")),
+            Arguments.of(List.of("/a/b", "/c/b", "/d/b/e", "/f/b/e")),
+            Arguments.of(List.of(
+                "/content/dist/rhel/server/7/$releasever/$basearch/os",
+                "/content/dist/rhel/server/7/$releasever/$basearch/debug",
+                "/content/dist/rhel/server/7/$releasever/$basearch/source/SRPMS",
+                "/content/beta/rhel/server/7/$basearch/os",
+                "/content/beta/rhel/server/7/$basearch/debug")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("pathProvider")
+    public void testEncodedPathsCanBeHydrated(List<String> paths) throws Exception {
+        byte[] encoded = this.encoder.encode(paths);
+
+        List<String> expected = paths.stream()
+            .sorted()
+            .toList();
+
+        assertEquals(expected, this.decode(encoded));
+    }
+
+    @Test
+    public void testEncodedPathsCanBeHydratedWithLargeNodeCounts() throws Exception {
+        // Enough distinct subtrees to require a multi-byte node count
+        Random random = new Random(8675309);
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            paths.add(String.format("/content/dist/product-%d/%d/$basearch/repo-%d/os",
+                random.nextInt(300), random.nextInt(10), i));
+        }
+
+        byte[] encoded = this.encoder.encode(paths);
+
+        List<String> expected = paths.stream()
+            .sorted()
+            .toList();
+
+        assertEquals(expected, this.decode(encoded));
+    }
+
+    @Test
+    public void testEncodingIgnoresPathOrderAndDuplicates() {
+        List<String> paths = List.of("/content/a/os", "/content/b/os", "/content/b/debug", "/other/a/os");
+
+        List<String> reordered = new ArrayList<>(paths);
+        reordered.addAll(paths.subList(0, 2));
+        reordered.sort(null);
+
+        byte[] expected = this.encoder.encode(paths);
+
+        // Use a fresh encoder to avoid hitting the cached value
+        assertArrayEquals(expected, new ContentPathEncoder().encode(reordered));
+    }
+
+    @Test
+    public void testEncodeReturnsCopyOfCachedValue() {
+        List<String> paths = List.of("/content/a/os", "/content/b/os");
+
+        byte[] first = this.encoder.encode(paths);
+        byte[] expected = first.clone();
+        Arrays.fill(first, (byte) 0);
+
+        assertArrayEquals(expected, this.encoder.encode(paths));
+    }
+
+    /**
+     * Splits an encoded value into its inflated segment dictionary and the remaining node bytes
+     */
+    private List<String> readDictionary(byte[] encoded, List<Byte> nodes) throws Exception {
+        Inflater inflater = new Inflater();
+        inflater.setInput(encoded);
+        byte[] buffer = new byte[4096];
+        int length = inflater.inflate(buffer);
+        int read = (int) inflater.getBytesRead();
+        inflater.end();
+
+        for (int i = read; i < encoded.length; i++) {
+            nodes.add(encoded[i]);
+        }
+
+        // The dictionary is NUL-terminated, so the trailing empty string is dropped by split
+        return Arrays.asList(new String(buffer, 0, length, StandardCharsets.UTF_8).split("\0"));
+    }
+
+    @Test
+    public void testSegmentDictionaryIsOrderedByFrequency() throws Exception {
+        List<String> paths = List.of(
+            "/content/dist/rhel/server/7/$releasever/$basearch/os",
+            "/content/dist/rhel/server/7/$releasever/$basearch/debug",
+            "/content/dist/rhel/server/7/$releasever/$basearch/source/SRPMS",
+            "/content/beta/rhel/server/7/$basearch/os");
+
+        // The segment dictionary is compared after inflation, as the compressed bytes may vary
+        // between zlib implementations
+        List<String> dictionary = this.readDictionary(this.encoder.encode(paths), new ArrayList<>());
+
+        assertEquals(List.of("$releasever", "SRPMS", "beta", "content", "debug", "dist", "source",
+            "$basearch", "7", "os", "rhel", "server"), dictionary);
+    }
+
+    @Test
+    public void testCommonHeadAndTailAreCondensed() throws Exception {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            paths.add("/head/neck/shoulders/heart" + i + "/waist" + i + "/leg/foot/heel");
+        }
+
+        byte[] encoded = this.encoder.encode(paths);
+        List<Byte> nodes = new ArrayList<>();
+        List<String> dictionary = this.readDictionary(encoded, nodes);
+
+        // 3 head nodes, 20 heart and 20 waist nodes, the shared leg/foot/heel nodes, the root and
+        // the end node; if the tails were not merged this would be 85 nodes
+        assertEquals(46, dictionary.size());
+        assertEquals(28, nodes.get(0).intValue());
+
+        assertEquals(paths.stream().sorted().toList(), this.decode(encoded));
+    }
+
+    @Test
+    public void testPathDictionary() throws Exception {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            paths.add("/head/neck/shoulders/heart" + i + "/waist" + i + "/leg/foot/heel");
+        }
+
+        paths.add("/head/neck/shoulders/chest/leg");
+        paths.add("/head/neck/shoulders/chest/foot");
+        paths.add("/head/neck/shoulders/chest/torso/leg");
+
+        byte[] encoded = this.encoder.encode(paths);
+        List<Byte> nodes = new ArrayList<>();
+        List<String> dictionary = this.readDictionary(encoded, nodes);
+
+        // The most frequent segments are last in the dictionary
+        assertEquals(48, dictionary.size());
+        assertEquals(List.of("foot", "leg"), dictionary.subList(46, 48));
+        assertEquals(30, nodes.get(0).intValue());
+
+        assertEquals(paths.stream().sorted().toList(), this.decode(encoded));
+    }
+
+    public static Stream<Arguments> condensedPathProvider() {
+        // BZ 2131312: paths sharing several tail segments, which were once condensed incorrectly
+        return Stream.of(
+            Arguments.of(List.of(
+                "/content/dist/rhel/server/6/$releasever/$basearch/satellite/6.0/os",
+                "/content/dist/rhel/server/6/$releasever/$basearch/satellite/6.0/source/SRPMS",
+                "/content/dist/layered/rhel9/x86_64/sat-client/6/source/SRPMS",
+                "/content/beta/layered/rhel8/x86_64/sat-tools/6/source/SRPMS",
+                "/content/beta/layered/rhel8/x86_64/sat-tools/6/os",
+                "/content/dist/layered/rhel8/x86_64/sat-tools/6.8/os",
+                "/content/dist/layered/rhel8/x86_64/sat-client/6/os",
+                "/content/dist/layered/rhel9/x86_64/sat-client/6/os",
+                "/content/dist/layered/rhel8/x86_64/sat-client/6/source/SRPMS")),
+            Arguments.of(List.of(
+                "/content/dist/layered/rhel8/x86_64/sat-tools/6.8/os",
+                "/content/dist/layered/rhel8/x86_64/sat-client/6/os",
+                "/content/dist/layered/rhel9/x86_64/sat-client/6/os",
+                "/content/dist/layered/rhel8/x86_64/sat-client/6/source/SRPMS",
+                "/content/dist/layered/rhel9/x86_64/sat-client/6/source/SRPMS")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("condensedPathProvider")
+    public void testCondensedPathsCanBeHydrated(List<String> paths) throws Exception {
+        byte[] encoded = this.encoder.encode(paths);
+
+        assertEquals(paths.stream().sorted().toList(), this.decode(encoded));
+    }
+
+    @Test
+    public void testRandomPathSetsCanBeHydrated() throws Exception {
+        // Random path sets of mixed depths, including paths which are prefixes of other paths, are
+        // round-tripped through the same decoder used by the clients
+        List<String> segments = List.of("content", "dist", "beta", "rhel", "rhel9", "server", "x86_64",
+            "aarch64", "os", "source", "SRPMS", "debug", "layered", "sat-tools", "6", "$releasever",
+            "$basearch");
+
+        Random random = new Random(20240229);
+        for (int run = 0; run < 250; run++) {
+            Set<String> paths = new HashSet<>();
+            int count = 1 + random.nextInt(40);
+
+            for (int i = 0; i < count; i++) {
+                StringBuilder builder = new StringBuilder();
+                int depth = 1 + random.nextInt(8);
+
+                for (int d = 0; d < depth; d++) {
+                    builder.append('/').append(segments.get(random.nextInt(segments.size())));
+                }
+
+                paths.add(builder.toString());
+            }
+
+            List<String> expected = paths.stream()
+                .sorted()
+                .toList();
+
+            byte[] encoded = new ContentPathEncoder().encode(new ArrayList<>(paths));
+            assertEquals(expected, this.decode(encoded), "Failed to hydrate paths: " + expected);
+        }
+    }
+}
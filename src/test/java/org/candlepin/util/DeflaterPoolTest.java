@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2009 - 2024 Red Hat, Inc.
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.candlepin.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterOutputStream;
+
+
+
+public class DeflaterPoolTest {
+
+    private static byte[] inflate(byte[] input) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InflaterOutputStream stream = new InflaterOutputStream(output)) {
+            stream.write(input);
+        }
+
+        return output.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] input, int level) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (DeflaterOutputStream stream = new DeflaterOutputStream(output, new Deflater(level))) {
+            stream.write(input);
+        }
+
+        return output.toByteArray();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, -1, -50 })
+    public void testRequiresPositiveMaxIdle(int maxIdle) {
+        assertThrows(IllegalArgumentException.class, () -> new DeflaterPool(Deflater.BEST_SPEED, maxIdle));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { Deflater.DEFAULT_COMPRESSION, Deflater.BEST_SPEED, Deflater.BEST_COMPRESSION })
+    public void testDeflateMatchesDeflaterOutputStream(int level) throws Exception {
+        byte[] input = "content/dist/rhel/server/7/$releasever/$basearch/os\0".repeat(500)
+            .getBytes(StandardCharsets.UTF_8);
+
+        DeflaterPool pool = new DeflaterPool(level, 1);
+
+        assertArrayEquals(deflate(input, level), pool.deflate(input));
+    }
+
+    @Test
+    public void testPooledDeflatersAreReset() throws Exception {
+        DeflaterPool pool = new DeflaterPool(Deflater.BEST_COMPRESSION, 2);
+        Random random = new Random(1234);
+
+        for (int i = 0; i < 20; i++) {
+            byte[] input = new byte[random.nextInt(20000)];
+            random.nextBytes(input);
+
+            assertArrayEquals(input, inflate(pool.deflate(input)));
+        }
+    }
+
+    @Test
+    public void testDeflateEmptyInput() throws Exception {
+        DeflaterPool pool = new DeflaterPool(Deflater.DEFAULT_COMPRESSION, 1);
+
+        assertArrayEquals(new byte[0], inflate(pool.deflate(new byte[0])));
+    }
+}
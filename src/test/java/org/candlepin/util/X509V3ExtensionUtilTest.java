@@ -60,7 +60,7 @@ public class X509V3ExtensionUtilTest {
 
         Configuration config = mock(Configuration.class);
         EntitlementCurator ec = mock(EntitlementCurator.class);
-        util = new X509V3ExtensionUtil(config, ec, this.mapper);
+        util = new X509V3ExtensionUtil(config, ec, new ContentPathEncoder(), this.mapper);
     }
 
     @Test